@@ -28,28 +28,61 @@ import org.neo4j.kernel.impl.query.clientconnection.BoltConnectionInfo;
 import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo;
 
 /**
- * A channel through which Bolt messaging can occur.
+ * A channel through which Bolt messaging can occur. This is either a whole network connection, or one of the logical
+ * streams that are multiplexed over a network connection, see {@link #stream(int, Runnable)}.
  */
 public class BoltChannel implements TrackedNetworkConnection
 {
+    public static final int NO_STREAM = -1;
+
     private final String id;
     private final long connectTime;
     private final String connector;
     private final Channel rawChannel;
+    private final int streamId;
+    private final Runnable onStreamClose;
 
     private volatile String username;
     private volatile String userAgent;
     private volatile ClientConnectionInfo info;
 
     public BoltChannel( String id, String connector, Channel rawChannel )
+    {
+        this( id, connector, rawChannel, NO_STREAM, null );
+    }
+
+    private BoltChannel( String id, String connector, Channel rawChannel, int streamId, Runnable onStreamClose )
     {
         this.id = id;
         this.connectTime = System.currentTimeMillis();
         this.connector = connector;
         this.rawChannel = rawChannel;
+        this.streamId = streamId;
+        this.onStreamClose = onStreamClose;
         this.info = createConnectionInfo();
     }
 
+    /**
+     * Creates the channel of a logical stream that is multiplexed over the network connection of this channel.
+     * Closing the stream channel does not close the network connection, but runs the given callback instead.
+     *
+     * @param streamId the id of the stream, unique within this channel
+     * @param onClose callback to run when the stream channel is closed
+     * @return the channel of the stream
+     */
+    public BoltChannel stream( int streamId, Runnable onClose )
+    {
+        return new BoltChannel( id + '-' + streamId, connector, rawChannel, streamId, onClose );
+    }
+
+    /**
+     * @return the id of the logical stream this channel stands for, or {@link #NO_STREAM} for a whole network connection
+     */
+    public int streamId()
+    {
+        return streamId;
+    }
+
     public Channel rawChannel()
     {
         return rawChannel;
@@ -113,6 +146,12 @@ public class BoltChannel implements TrackedNetworkConnection
     @Override
     public void close()
     {
+        if ( streamId != NO_STREAM )
+        {
+            onStreamClose.run();
+            return;
+        }
+
         Channel rawChannel = rawChannel();
         if ( rawChannel.isOpen() )
         {
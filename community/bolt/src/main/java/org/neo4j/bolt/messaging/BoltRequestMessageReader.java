@@ -20,6 +20,7 @@
 package org.neo4j.bolt.messaging;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +28,7 @@ import org.neo4j.bolt.runtime.BoltConnection;
 import org.neo4j.bolt.runtime.BoltResponseHandler;
 import org.neo4j.bolt.runtime.Neo4jError;
 import org.neo4j.bolt.v1.packstream.PackStream;
+import org.neo4j.bolt.v1.runtime.Job;
 import org.neo4j.kernel.api.exceptions.Status;
 
 import static java.util.function.Function.identity;
@@ -34,12 +36,17 @@ import static java.util.stream.Collectors.toMap;
 
 /**
  * Reader for Bolt request messages made available via a {@link Neo4jPack.Unpacker}.
+ * <p>
+ * Between {@link #beginBatch()} and {@link #endBatch()} the jobs for decoded messages are collected rather than
+ * enqueued one by one, and handed to the connection together once the batch ends.
  */
 public abstract class BoltRequestMessageReader
 {
     private final BoltConnection connection;
     private final BoltResponseHandler externalErrorResponseHandler;
     private final Map<Integer,RequestMessageDecoder> decoders;
+    private final List<Job> batch = new ArrayList<>();
+    private boolean batching;
 
     protected BoltRequestMessageReader( BoltConnection connection, BoltResponseHandler externalErrorResponseHandler,
             List<RequestMessageDecoder> decoders )
@@ -49,6 +56,33 @@ public abstract class BoltRequestMessageReader
         this.decoders = decoders.stream().collect( toMap( RequestMessageDecoder::signature, identity() ) );
     }
 
+    /**
+     * Starts collecting the jobs of subsequently read messages instead of enqueueing them immediately.
+     */
+    public void beginBatch()
+    {
+        batching = true;
+    }
+
+    /**
+     * Enqueues all jobs collected since {@link #beginBatch()} on the connection at once.
+     */
+    public void endBatch()
+    {
+        batching = false;
+        if ( !batch.isEmpty() )
+        {
+            try
+            {
+                connection.enqueueAll( batch );
+            }
+            finally
+            {
+                batch.clear();
+            }
+        }
+    }
+
     public void read( Neo4jPack.Unpacker unpacker ) throws IOException
     {
         try
@@ -60,7 +94,7 @@ public abstract class BoltRequestMessageReader
             if ( e.causesFailureMessage() )
             {
                 Neo4jError error = Neo4jError.from( e );
-                connection.enqueue( stateMachine -> stateMachine.handleExternalFailure( error, externalErrorResponseHandler ) );
+                enqueue( stateMachine -> stateMachine.handleExternalFailure( error, externalErrorResponseHandler ) );
             }
             else
             {
@@ -86,7 +120,7 @@ public abstract class BoltRequestMessageReader
             RequestMessage message = decoder.decode( unpacker );
             BoltResponseHandler responseHandler = decoder.responseHandler();
 
-            connection.enqueue( stateMachine -> stateMachine.process( message, responseHandler ) );
+            enqueue( stateMachine -> stateMachine.process( message, responseHandler ) );
         }
         catch ( PackStream.PackStreamException e )
         {
@@ -94,4 +128,16 @@ public abstract class BoltRequestMessageReader
                     String.format( "Unable to read message type. Error was: %s.", e.getMessage() ), e );
         }
     }
+
+    private void enqueue( Job job )
+    {
+        if ( batching )
+        {
+            batch.add( job );
+        }
+        else
+        {
+            connection.enqueue( job );
+        }
+    }
 }
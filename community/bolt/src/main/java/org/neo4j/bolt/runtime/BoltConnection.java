@@ -22,6 +22,7 @@ package org.neo4j.bolt.runtime;
 import io.netty.channel.Channel;
 
 import java.net.SocketAddress;
+import java.util.Collection;
 import java.util.concurrent.RejectedExecutionException;
 
 import org.neo4j.bolt.v1.packstream.PackOutput;
@@ -51,6 +52,20 @@ public interface BoltConnection
      */
     SocketAddress remoteAddress();
 
+    /**
+     * Returns the name of the user this connection is authenticated as
+     *
+     * @return user name, or null before the connection has been authenticated
+     */
+    String username();
+
+    /**
+     * Returns the user agent the client announced when initialising this connection
+     *
+     * @return user agent, or null before the connection has been initialised
+     */
+    String userAgent();
+
     /**
      * Returns the underlying raw netty channel
      *
@@ -70,6 +85,22 @@ public interface BoltConnection
      */
     boolean hasPendingJobs();
 
+    /**
+     * Returns whether the client does not consume the output of this connection fast enough, so that processing
+     * further jobs would block the executing thread on the write throttle
+     *
+     * @return true when the outbound channel of this connection is open but not writable
+     */
+    boolean hasOutputBackpressure();
+
+    /**
+     * Runs the given callback once the outbound channel of this connection becomes writable again or is closed.
+     * Only the most recently registered callback is kept.
+     *
+     * @param callback the callback to run, possibly on a network thread
+     */
+    void whenOutputWritable( Runnable callback );
+
     /**
      * Executes extra initialisation routines before taking this connection into use
      */
@@ -82,6 +113,17 @@ public interface BoltConnection
      */
     void enqueue( Job job );
 
+    /**
+     * Adds all submitted jobs to the job queue, in order, before the connection gets scheduled for their execution. This
+     * lets pipelined requests that arrived together be processed, and have their responses flushed, as a single batch.
+     *
+     * @param jobs the jobs to be added
+     */
+    default void enqueueAll( Collection<Job> jobs )
+    {
+        jobs.forEach( this::enqueue );
+    }
+
     /**
      * Executes a batch of queued jobs, which is executed in an another thread (which is part of a thread pool)
      *
@@ -98,6 +140,15 @@ public interface BoltConnection
      */
     void handleSchedulingError( Throwable t );
 
+    /**
+     * Invoked when the pending jobs of this connection waited for a worker thread longer than allowed. The next job is
+     * failed with a transient error, so that the client backs off instead of the server spending its threads on
+     * requests whose callers have likely given up on them already
+     *
+     * @param queueTime the time, in milliseconds, the pending jobs waited
+     */
+    void handleOverload( long queueTime );
+
     /**
      * Interrupt and (possibly) stop the current running job, but continue processing next jobs
      */
@@ -36,6 +36,8 @@ public interface BoltConnectionMetricsMonitor
 
     void messageProcessingFailed();
 
+    void requestsShed();
+
     void connectionClosed();
 
 }
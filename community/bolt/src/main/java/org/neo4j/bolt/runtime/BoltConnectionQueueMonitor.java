@@ -28,6 +28,11 @@ public interface BoltConnectionQueueMonitor
 
     void enqueued( BoltConnection to, Job job );
 
+    default void enqueued( BoltConnection to, Collection<Job> jobs )
+    {
+        jobs.forEach( job -> enqueued( to, job ) );
+    }
+
     void drained( BoltConnection from, Collection<Job> batch );
 
 }
@@ -42,6 +42,12 @@ public class BoltConnectionQueueMonitorAggregate implements BoltConnectionQueueM
         monitors.forEach( m -> m.enqueued( to, job ) );
     }
 
+    @Override
+    public void enqueued( BoltConnection to, Collection<Job> jobs )
+    {
+        monitors.forEach( m -> m.enqueued( to, jobs ) );
+    }
+
     @Override
     public void drained( BoltConnection from, Collection<Job> batch )
     {
@@ -29,7 +29,8 @@ import org.neo4j.logging.internal.LogService;
 
 /**
  * Queue monitor that changes {@link Channel} auto-read setting based on the job queue size.
- * Methods {@link #enqueued(BoltConnection, Job)} and {@link #drained(BoltConnection, Collection)} are synchronized to make sure
+ * Methods {@link #enqueued(BoltConnection, Job)}, {@link #enqueued(BoltConnection, Collection)} and
+ * {@link #drained(BoltConnection, Collection)} are synchronized to make sure
  * queue size and channel auto-read are modified together as an atomic operation.
  */
 public class BoltConnectionReadLimiter implements BoltConnectionQueueMonitor
@@ -74,6 +75,13 @@ public class BoltConnectionReadLimiter implements BoltConnectionQueueMonitor
         checkLimitsOnEnqueue( to );
     }
 
+    @Override
+    public synchronized void enqueued( BoltConnection to, Collection<Job> jobs )
+    {
+        queueSize += jobs.size();
+        checkLimitsOnEnqueue( to );
+    }
+
     @Override
     public synchronized void drained( BoltConnection from, Collection<Job> batch )
     {
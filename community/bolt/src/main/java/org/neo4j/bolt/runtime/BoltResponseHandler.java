@@ -30,6 +30,17 @@ public interface BoltResponseHandler
 {
     void onRecords( BoltResult result, boolean pull ) throws Exception;
 
+    /**
+     * Handle at most {@code size} records of the given result, a negative size meaning all of them.
+     *
+     * @return {@code true} if the result has more records to handle.
+     */
+    default boolean onRecords( BoltResult result, boolean pull, long size ) throws Exception
+    {
+        onRecords( result, pull );
+        return false;
+    }
+
     void onMetadata( String key, AnyValue value );
 
     /** Called when the state machine ignores an operation, because it is waiting for an error to be acknowledged */
@@ -35,6 +35,18 @@ public interface BoltResult extends AutoCloseable
 
     void accept( Visitor visitor ) throws Exception;
 
+    /**
+     * Visit at most {@code size} records of this stream, a negative size meaning all remaining records.
+     * Metadata is only added once the last record of the stream has been visited.
+     *
+     * @return {@code true} if the stream has more records, {@code false} if it is exhausted.
+     */
+    default boolean handleRecords( Visitor visitor, long size ) throws Exception
+    {
+        accept( visitor );
+        return false;
+    }
+
     @Override
     void close();
 
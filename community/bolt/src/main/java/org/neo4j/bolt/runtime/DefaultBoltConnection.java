@@ -20,14 +20,20 @@
 package org.neo4j.bolt.runtime;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
 import java.net.SocketAddress;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.BoltServer;
@@ -43,6 +49,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public class DefaultBoltConnection implements BoltConnection
 {
     protected static final int DEFAULT_MAX_BATCH_SIZE = FeatureToggles.getInteger( BoltServer.class, "max_batch_size", 100 );
+    private static final boolean YIELD_ON_BACKPRESSURE = FeatureToggles.flag( BoltServer.class, "yield_on_backpressure", true );
 
     private final String id;
 
@@ -61,6 +68,7 @@ public class DefaultBoltConnection implements BoltConnection
 
     private final AtomicBoolean shouldClose = new AtomicBoolean();
     private final AtomicBoolean closed = new AtomicBoolean();
+    private final WritabilityListener writabilityListener = new WritabilityListener();
 
     public DefaultBoltConnection( BoltChannel channel, PackOutput output, BoltStateMachine machine, LogService logService,
             BoltConnectionLifetimeListener listener,
@@ -103,6 +111,18 @@ public class DefaultBoltConnection implements BoltConnection
         return channel.clientAddress();
     }
 
+    @Override
+    public String username()
+    {
+        return channel.username();
+    }
+
+    @Override
+    public String userAgent()
+    {
+        return channel.userAgent();
+    }
+
     @Override
     public Channel channel()
     {
@@ -121,9 +141,23 @@ public class DefaultBoltConnection implements BoltConnection
         return !queue.isEmpty();
     }
 
+    @Override
+    public boolean hasOutputBackpressure()
+    {
+        Channel rawChannel = channel.rawChannel();
+        return YIELD_ON_BACKPRESSURE && !willClose() && rawChannel.isOpen() && !rawChannel.isWritable();
+    }
+
+    @Override
+    public void whenOutputWritable( Runnable callback )
+    {
+        writabilityListener.await( callback );
+    }
+
     @Override
     public void start()
     {
+        channel.rawChannel().pipeline().addLast( writabilityListener );
         notifyCreated();
     }
 
@@ -133,6 +167,18 @@ public class DefaultBoltConnection implements BoltConnection
         enqueueInternal( job );
     }
 
+    @Override
+    public void enqueueAll( Collection<Job> jobs )
+    {
+        if ( jobs.isEmpty() )
+        {
+            return;
+        }
+
+        queue.addAll( jobs );
+        notifyEnqueued( jobs );
+    }
+
     @Override
     public boolean processNextBatch()
     {
@@ -153,6 +199,15 @@ public class DefaultBoltConnection implements BoltConnection
                     break;
                 }
 
+                // the client does not consume what we've written so far, give the thread back
+                // instead of blocking on the write throttle; the scheduler resumes this connection
+                // once its channel becomes writable again. A connection which has to stick to this
+                // thread keeps it and waits for the throttle as before.
+                if ( !machine.shouldStickOnThread() && hasOutputBackpressure() )
+                {
+                    break;
+                }
+
                 // do we have pending jobs or shall we wait for new jobs to
                 // arrive, which is required only for releasing stickiness
                 // condition to this thread
@@ -206,10 +261,11 @@ public class DefaultBoltConnection implements BoltConnection
             }
             while ( loop );
 
-            // assert only if we'll stay alive
+            // assert only if we'll stay alive; a state machine may leave a statement open between
+            // requests, but only when it does not have to stick to this thread
             if ( !willClose() )
             {
-                assert !machine.hasOpenStatement();
+                assert !machine.shouldStickOnThread();
             }
         }
         catch ( BoltConnectionAuthFatality ex )
@@ -280,6 +336,18 @@ public class DefaultBoltConnection implements BoltConnection
         close();
     }
 
+    @Override
+    public void handleOverload( long queueTime )
+    {
+        if ( !willClose() )
+        {
+            String message = String.format( "Requests of bolt session '%s' waited %d ms for a thread, which is longer than allowed. " +
+                    "The server is overloaded at the moment, you can retry at a later time.", id(), queueTime );
+            log.debug( message );
+            machine.markFailed( Neo4jError.from( Status.Request.NoThreadsAvailable, message ) );
+        }
+    }
+
     @Override
     public void interrupt()
     {
@@ -311,6 +379,8 @@ public class DefaultBoltConnection implements BoltConnection
     {
         if ( closed.compareAndSet( false, true ) )
         {
+            removeWritabilityListener();
+
             try
             {
                 output.close();
@@ -335,6 +405,68 @@ public class DefaultBoltConnection implements BoltConnection
         }
     }
 
+    private void removeWritabilityListener()
+    {
+        // the network channel outlives this connection when it carries several multiplexed streams
+        ChannelPipeline pipeline = channel.rawChannel().pipeline();
+        if ( pipeline.context( writabilityListener ) != null )
+        {
+            try
+            {
+                pipeline.remove( writabilityListener );
+            }
+            catch ( NoSuchElementException ignore )
+            {
+                // the channel has been closed and its pipeline torn down concurrently
+            }
+        }
+    }
+
+    /**
+     * Keeps the callback to run once the channel becomes writable again. It also fires when the channel
+     * becomes inactive, so that a closing connection is never left without a thread to process its close.
+     */
+    private class WritabilityListener extends ChannelInboundHandlerAdapter
+    {
+        private final AtomicReference<Runnable> callback = new AtomicReference<>();
+
+        void await( Runnable newCallback )
+        {
+            callback.set( newCallback );
+            // the channel might have become writable before the callback was registered
+            if ( !hasOutputBackpressure() )
+            {
+                fire();
+            }
+        }
+
+        @Override
+        public void channelWritabilityChanged( ChannelHandlerContext ctx ) throws Exception
+        {
+            if ( ctx.channel().isWritable() )
+            {
+                fire();
+            }
+            super.channelWritabilityChanged( ctx );
+        }
+
+        @Override
+        public void channelInactive( ChannelHandlerContext ctx ) throws Exception
+        {
+            fire();
+            super.channelInactive( ctx );
+        }
+
+        private void fire()
+        {
+            Runnable current = callback.getAndSet( null );
+            if ( current != null )
+            {
+                current.run();
+            }
+        }
+    }
+
     private void enqueueInternal( Job job )
     {
         queue.offer( job );
@@ -365,6 +497,14 @@ public class DefaultBoltConnection implements BoltConnection
         }
     }
 
+    private void notifyEnqueued( Collection<Job> jobs )
+    {
+        if ( queueMonitor != null )
+        {
+            queueMonitor.enqueued( this, jobs );
+        }
+    }
+
     private void notifyDrained( List<Job> jobs )
     {
         if ( queueMonitor != null && jobs.size() > 0 )
@@ -62,7 +62,9 @@ public class DefaultBoltConnectionFactory implements BoltConnectionFactory
         BoltScheduler scheduler = schedulerProvider.get( channel );
         BoltConnectionReadLimiter readLimiter = createReadLimiter( config, logService );
         BoltConnectionQueueMonitor connectionQueueMonitor = new BoltConnectionQueueMonitorAggregate( scheduler, readLimiter );
-        ChunkedOutput chunkedOutput = new ChunkedOutput( channel.rawChannel(), throttleGroup );
+        ChunkedOutput chunkedOutput = channel.streamId() == BoltChannel.NO_STREAM
+                                      ? new ChunkedOutput( channel.rawChannel(), throttleGroup )
+                                      : ChunkedOutput.forStream( channel.rawChannel(), channel.streamId(), throttleGroup );
 
         BoltConnection connection;
         if ( monitors.hasListeners( BoltConnectionMetricsMonitor.class ) )
@@ -21,8 +21,10 @@ package org.neo4j.bolt.runtime;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -35,6 +37,7 @@ import org.neo4j.logging.internal.LogService;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 
+import static java.util.Collections.emptyList;
 import static org.neo4j.util.concurrent.Futures.failedFuture;
 
 public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifetimeListener, BoltConnectionQueueMonitor
@@ -50,11 +53,29 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
     private final Duration keepAlive;
     private final int queueSize;
     private final ExecutorService forkJoinPool;
+    private final PriorityAdmission admission;
+    private final ConcurrentHashMap<String, Long> queuedSince = new ConcurrentHashMap<>();
+    private final long maxQueueTimeMillis;
+    private final Clock clock;
 
     private ExecutorService threadPool;
 
     public ExecutorBoltScheduler( String connector, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService, int corePoolSize,
             int maxPoolSize, Duration keepAlive, int queueSize, ExecutorService forkJoinPool )
+    {
+        this( connector, executorFactory, scheduler, logService, corePoolSize, maxPoolSize, keepAlive, queueSize, forkJoinPool, emptyList(), emptyList(),
+                100, Duration.ZERO, Clock.systemUTC() );
+    }
+
+    /**
+     * @param lowPriorityUsers names of the users whose connections are of low priority
+     * @param lowPriorityUserAgents prefixes of the user agents whose connections are of low priority
+     * @param lowPriorityShare percentage of the worker threads that low priority connections may occupy at the same time
+     * @param maxQueueTime time after which waiting requests are failed with a transient error rather than executed, zero to wait indefinitely
+     */
+    public ExecutorBoltScheduler( String connector, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService, int corePoolSize,
+            int maxPoolSize, Duration keepAlive, int queueSize, ExecutorService forkJoinPool, List<String> lowPriorityUsers,
+            List<String> lowPriorityUserAgents, int lowPriorityShare, Duration maxQueueTime, Clock clock )
     {
         this.connector = connector;
         this.executorFactory = executorFactory;
@@ -65,6 +86,9 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
         this.keepAlive = keepAlive;
         this.queueSize = queueSize;
         this.forkJoinPool = forkJoinPool;
+        this.admission = new PriorityAdmission( lowPriorityUsers, lowPriorityUserAgents, Math.max( 1, maxPoolSize * lowPriorityShare / 100 ) );
+        this.maxQueueTimeMillis = maxQueueTime.toMillis();
+        this.clock = clock;
     }
 
     boolean isRegistered( BoltConnection connection )
@@ -125,6 +149,8 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
         finally
         {
             activeConnections.remove( id );
+            queuedSince.remove( id );
+            submitAdmitted( admission.remove( connection ) );
         }
     }
 
@@ -134,6 +160,12 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
         handleSubmission( to );
     }
 
+    @Override
+    public void enqueued( BoltConnection to, Collection<Job> jobs )
+    {
+        handleSubmission( to );
+    }
+
     @Override
     public void drained( BoltConnection from, Collection<Job> batch )
     {
@@ -142,6 +174,30 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
 
     private void handleSubmission( BoltConnection connection )
     {
+        // do not occupy a thread for a connection whose client does not keep up with its output,
+        // it would only block on the write throttle; a connection that is still running its batch
+        // keeps its admission until handleCompletion gives it up
+        if ( connection.hasOutputBackpressure() )
+        {
+            if ( !activeWorkItems.containsKey( connection.id() ) )
+            {
+                submitAdmitted( admission.release( connection ) );
+            }
+            connection.whenOutputWritable( () -> handleSubmission( connection ) );
+            return;
+        }
+
+        if ( !activeWorkItems.containsKey( connection.id() ) )
+        {
+            queuedSince.putIfAbsent( connection.id(), clock.millis() );
+        }
+
+        // low priority connections beyond their share of the worker threads wait for their turn
+        if ( !admission.tryAdmit( connection ) )
+        {
+            return;
+        }
+
         activeWorkItems.computeIfAbsent( connection.id(),
                 key -> scheduleBatchOrHandleError( connection ).whenCompleteAsync( ( result, error ) -> handleCompletion( connection, result, error ),
                         forkJoinPool ) );
@@ -168,6 +224,15 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
         currentThread.setName( newName );
         try
         {
+            Long since = queuedSince.remove( connection.id() );
+            if ( since != null && maxQueueTimeMillis > 0 )
+            {
+                long queueTime = clock.millis() - since;
+                if ( queueTime > maxQueueTimeMillis )
+                {
+                    connection.handleOverload( queueTime );
+                }
+            }
             return connection.processNextBatch();
         }
         finally
@@ -192,6 +257,7 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
             // call is completed. Otherwise, we can end up having different threads executing against
             // bolt state machine.
             activeWorkItems.remove( connection.id() );
+            submitAdmitted( admission.release( connection ) );
         }
 
         if ( error != null )
@@ -208,6 +274,14 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
         }
     }
 
+    private void submitAdmitted( BoltConnection connection )
+    {
+        if ( connection != null )
+        {
+            handleSubmission( connection );
+        }
+    }
+
     private void stopConnection( BoltConnection connection )
     {
         try
@@ -19,6 +19,7 @@
  */
 package org.neo4j.bolt.runtime;
 
+import java.time.Clock;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
@@ -38,10 +39,16 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
     private final LogService logService;
     private final Log internalLog;
     private final ConcurrentHashMap<String, BoltScheduler> boltSchedulers;
+    private final Clock clock;
 
     private ExecutorService forkJoinThreadPool;
 
     public ExecutorBoltSchedulerProvider( Config config, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService )
+    {
+        this( config, executorFactory, scheduler, logService, Clock.systemUTC() );
+    }
+
+    public ExecutorBoltSchedulerProvider( Config config, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService, Clock clock )
     {
         this.config = config;
         this.executorFactory = executorFactory;
@@ -49,6 +56,7 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
         this.logService = logService;
         this.internalLog = logService.getInternalLog( getClass() );
         this.boltSchedulers = new ConcurrentHashMap<>();
+        this.clock = clock;
     }
 
     @Override
@@ -60,7 +68,9 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
             BoltScheduler boltScheduler =
                     new ExecutorBoltScheduler( connector.key(), executorFactory, scheduler, logService, config.get( connector.thread_pool_min_size ),
                             config.get( connector.thread_pool_max_size ), config.get( connector.thread_pool_keep_alive ),
-                            config.get( connector.unsupported_thread_pool_queue_size ), forkJoinThreadPool );
+                            config.get( connector.unsupported_thread_pool_queue_size ), forkJoinThreadPool,
+                            config.get( connector.thread_pool_low_priority_users ), config.get( connector.thread_pool_low_priority_user_agents ),
+                            config.get( connector.thread_pool_low_priority_share ), config.get( connector.thread_pool_max_queue_time ), clock );
             boltScheduler.start();
             boltSchedulers.put( connector.key(), boltScheduler );
         } );
@@ -20,6 +20,9 @@
 package org.neo4j.bolt.runtime;
 
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.v1.packstream.PackOutput;
@@ -56,10 +59,26 @@ public class MetricsReportingBoltConnection extends DefaultBoltConnection
 
     @Override
     public void enqueue( Job job )
+    {
+        super.enqueue( measured( job ) );
+    }
+
+    @Override
+    public void enqueueAll( Collection<Job> jobs )
+    {
+        List<Job> measuredJobs = new ArrayList<>( jobs.size() );
+        for ( Job job : jobs )
+        {
+            measuredJobs.add( measured( job ) );
+        }
+        super.enqueueAll( measuredJobs );
+    }
+
+    private Job measured( Job job )
     {
         metricsMonitor.messageReceived();
         long queuedAt = clock.millis();
-        super.enqueue( machine ->
+        return machine ->
         {
             long queueTime = clock.millis() - queuedAt;
             metricsMonitor.messageProcessingStarted( queueTime );
@@ -73,7 +92,14 @@ public class MetricsReportingBoltConnection extends DefaultBoltConnection
                 metricsMonitor.messageProcessingFailed();
                 throw t;
             }
-       } );
+        };
+    }
+
+    @Override
+    public void handleOverload( long queueTime )
+    {
+        metricsMonitor.requestsShed();
+        super.handleOverload( queueTime );
     }
 
     @Override
@@ -41,6 +41,14 @@ public class MutableConnectionState implements BoltResponseHandler
      * Component responsible for transaction handling and statement execution.
      */
     private StatementProcessor statementProcessor = StatementProcessor.EMPTY;
+    /**
+     * Properties to return with the nodes and relationships of the current result, as requested by the RUN message.
+     */
+    private PropertyProjection propertyProjection = PropertyProjection.ALL;
+    /**
+     * Statements the client prepared on this connection, created on first use.
+     */
+    private PreparedStatements preparedStatements;
     /**
      * This is incremented each time {@link BoltStateMachine#interrupt()} is called,
      * and decremented each time a {@code RESET} message
@@ -59,6 +67,12 @@ public class MutableConnectionState implements BoltResponseHandler
         }
     }
 
+    @Override
+    public boolean onRecords( BoltResult result, boolean pull, long size ) throws Exception
+    {
+        return responseHandler != null && responseHandler.onRecords( result, pull, size );
+    }
+
     @Override
     public void onMetadata( String key, AnyValue value )
     {
@@ -144,6 +158,25 @@ public class MutableConnectionState implements BoltResponseHandler
         this.statementProcessor = statementProcessor;
     }
 
+    public PropertyProjection getPropertyProjection()
+    {
+        return propertyProjection;
+    }
+
+    public void setPropertyProjection( PropertyProjection propertyProjection )
+    {
+        this.propertyProjection = propertyProjection;
+    }
+
+    public PreparedStatements getPreparedStatements()
+    {
+        if ( preparedStatements == null )
+        {
+            preparedStatements = new PreparedStatements();
+        }
+        return preparedStatements;
+    }
+
     public boolean isInterrupted()
     {
         return interruptCounter.get() > 0;
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.bolt.BoltServer;
+import org.neo4j.bolt.messaging.BoltIOException;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.util.FeatureToggles;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.BooleanValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+
+/**
+ * Statements prepared on a connection. A client prepares a statement by running it with {@link #PREPARE_KEY} set in
+ * the metadata of the RUN message and receives a handle as {@link #STATEMENT_ID_KEY} in the success response. Later
+ * RUN messages send the handle with an empty statement instead of the full query text.
+ * <p>
+ * The text of a prepared statement is kept as a single string instance, which is also prepared with the query engine.
+ * Runs of that instance reuse the pre-parsed query and the query cache entry that the engine keeps for it, without
+ * parsing the query or computing its cache key. When the entry leaves the query cache, because it is evicted, the
+ * schema changes or the statistics have diverged enough for the query to be replanned, the next run looks the query
+ * up again.
+ */
+public class PreparedStatements
+{
+    public static final String PREPARE_KEY = "prepare";
+    public static final String STATEMENT_ID_KEY = "statement_id";
+
+    static final int MAX_PREPARED_STATEMENTS = FeatureToggles.getInteger( BoltServer.class, "max_prepared_statements", 1000 );
+
+    private final int maxStatements;
+    private final List<String> statements = new ArrayList<>();
+    private final Map<String,Integer> ids = new HashMap<>();
+
+    public PreparedStatements()
+    {
+        this( MAX_PREPARED_STATEMENTS );
+    }
+
+    PreparedStatements( int maxStatements )
+    {
+        this.maxStatements = maxStatements;
+    }
+
+    /**
+     * Resolve the statement to run for a RUN message.
+     *
+     * @return the prepared statement referenced from the metadata, or the given statement if the metadata does not
+     * reference one.
+     */
+    public String resolve( String statement, MapValue meta ) throws BoltIOException
+    {
+        AnyValue anyValue = meta.get( STATEMENT_ID_KEY );
+        if ( anyValue == Values.NO_VALUE )
+        {
+            return statement;
+        }
+        if ( !(anyValue instanceof IntegralValue) )
+        {
+            throw new BoltIOException( Status.Request.Invalid, "Expecting " + STATEMENT_ID_KEY + " to be an integer, but got: " + anyValue );
+        }
+        if ( !statement.isEmpty() )
+        {
+            throw new BoltIOException( Status.Request.Invalid, "Expecting an empty statement when running prepared statement " + anyValue );
+        }
+        long id = ((IntegralValue) anyValue).longValue();
+        if ( id < 0 || id >= statements.size() )
+        {
+            throw new BoltIOException( Status.Request.Invalid, "Statement " + id + " has not been prepared on this connection." );
+        }
+        return statement( id );
+    }
+
+    /**
+     * @return the retained instance of the statement with the given handle, which is what prepared runs execute.
+     */
+    public String statement( long id )
+    {
+        return statements.get( (int) id );
+    }
+
+    /**
+     * @return true when the metadata of a RUN message asks for its statement to be prepared.
+     */
+    public static boolean isPrepareRequested( MapValue meta ) throws BoltIOException
+    {
+        AnyValue anyValue = meta.get( PREPARE_KEY );
+        if ( anyValue == Values.NO_VALUE )
+        {
+            return false;
+        }
+        if ( !(anyValue instanceof BooleanValue) )
+        {
+            throw new BoltIOException( Status.Request.Invalid, "Expecting " + PREPARE_KEY + " to be a boolean, but got: " + anyValue );
+        }
+        return ((BooleanValue) anyValue).booleanValue();
+    }
+
+    /**
+     * Prepare the given statement. Preparing the same statement again returns the handle it already has.
+     *
+     * @return the handle of the statement.
+     */
+    public long prepare( String statement ) throws BoltIOException
+    {
+        Integer id = ids.get( statement );
+        if ( id != null )
+        {
+            return id;
+        }
+        if ( statements.size() >= maxStatements )
+        {
+            throw new BoltIOException( Status.Request.Invalid,
+                    "Unable to prepare more than " + maxStatements + " statements on a single connection." );
+        }
+        id = statements.size();
+        statements.add( statement );
+        ids.put( statement, id );
+        return id;
+    }
+
+    public int size()
+    {
+        return statements.size();
+    }
+}
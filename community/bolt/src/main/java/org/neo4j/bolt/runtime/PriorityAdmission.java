@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Admission control between the priority classes of a bolt scheduler. Connections of low priority clients, e.g. heavy
+ * analytic workloads, may only occupy a limited number of worker threads at the same time, so that the remaining threads
+ * stay available to latency sensitive clients. Low priority connections that find their share exhausted wait in line,
+ * and are admitted in the order they arrived whenever another low priority connection completes its batch.
+ */
+class PriorityAdmission
+{
+    private final Set<String> lowPriorityUsers;
+    private final List<String> lowPriorityUserAgents;
+    private final int maxLowPriorityActive;
+
+    private final Set<String> admitted = new HashSet<>();
+    private final Map<String,BoltConnection> waiting = new LinkedHashMap<>();
+
+    PriorityAdmission( List<String> lowPriorityUsers, List<String> lowPriorityUserAgents, int maxLowPriorityActive )
+    {
+        this.lowPriorityUsers = new HashSet<>( lowPriorityUsers );
+        this.lowPriorityUserAgents = lowPriorityUserAgents;
+        this.maxLowPriorityActive = maxLowPriorityActive;
+    }
+
+    boolean isLowPriority( BoltConnection connection )
+    {
+        String username = connection.username();
+        if ( username != null && lowPriorityUsers.contains( username ) )
+        {
+            return true;
+        }
+        String userAgent = connection.userAgent();
+        if ( userAgent != null )
+        {
+            for ( String prefix : lowPriorityUserAgents )
+            {
+                if ( userAgent.startsWith( prefix ) )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true when the connection may be scheduled now, false when it has been put in line to wait for its turn.
+     */
+    boolean tryAdmit( BoltConnection connection )
+    {
+        if ( !isLowPriority( connection ) )
+        {
+            return true;
+        }
+
+        synchronized ( this )
+        {
+            String id = connection.id();
+            if ( admitted.contains( id ) )
+            {
+                return true;
+            }
+            if ( admitted.size() < maxLowPriorityActive && waiting.isEmpty() )
+            {
+                admitted.add( id );
+                return true;
+            }
+            waiting.putIfAbsent( id, connection );
+            return false;
+        }
+    }
+
+    /**
+     * Gives up the admission of the given connection, if it held one, and passes it on to the next waiting connection.
+     *
+     * @return the connection that was admitted in turn, which needs to be scheduled, or null.
+     */
+    synchronized BoltConnection release( BoltConnection connection )
+    {
+        if ( !admitted.remove( connection.id() ) )
+        {
+            return null;
+        }
+        return admitNext();
+    }
+
+    /**
+     * Forgets about the given connection, which is closing.
+     *
+     * @return the connection that was admitted in its place, which needs to be scheduled, or null.
+     */
+    synchronized BoltConnection remove( BoltConnection connection )
+    {
+        waiting.remove( connection.id() );
+        return release( connection );
+    }
+
+    synchronized int waitingCount()
+    {
+        return waiting.size();
+    }
+
+    private BoltConnection admitNext()
+    {
+        Iterator<BoltConnection> iterator = waiting.values().iterator();
+        if ( !iterator.hasNext() )
+        {
+            return null;
+        }
+        BoltConnection next = iterator.next();
+        iterator.remove();
+        admitted.add( next.id() );
+        return next;
+    }
+}
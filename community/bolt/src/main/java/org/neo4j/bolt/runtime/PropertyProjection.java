@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import org.neo4j.bolt.messaging.BoltIOException;
+import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.util.NodeProxyWrappingNodeValue;
+import org.neo4j.kernel.impl.util.RelationshipProxyWrappingValue;
+import org.neo4j.kernel.impl.util.ValueUtils;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.PathValue;
+import org.neo4j.values.virtual.RelationshipValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+/**
+ * The properties to return with every node and relationship of a result. By default entities are returned with all
+ * their properties. A projection limits them to the given keys, which are read in a single pass over the property
+ * chain of the entity, so large properties that the client never asked for are not read from the store at all.
+ */
+public final class PropertyProjection
+{
+    public static final String PROJECTION_KEY = "projection";
+    public static final PropertyProjection ALL = new PropertyProjection( null );
+
+    private final String[] keys;
+
+    private PropertyProjection( String[] keys )
+    {
+        this.keys = keys;
+    }
+
+    public static PropertyProjection of( String... keys )
+    {
+        return new PropertyProjection( keys.clone() );
+    }
+
+    /**
+     * Parse the projection from the metadata of a RUN message.
+     *
+     * @return {@link #ALL} if the metadata does not contain a projection.
+     */
+    public static PropertyProjection fromMetadata( MapValue meta ) throws BoltIOException
+    {
+        AnyValue anyValue = meta.get( PROJECTION_KEY );
+        if ( anyValue == Values.NO_VALUE )
+        {
+            return ALL;
+        }
+        if ( anyValue instanceof ListValue )
+        {
+            ListValue list = (ListValue) anyValue;
+            String[] keys = new String[list.size()];
+            for ( int i = 0; i < keys.length; i++ )
+            {
+                AnyValue key = list.value( i );
+                if ( !(key instanceof TextValue) )
+                {
+                    throw invalidProjection( anyValue );
+                }
+                keys[i] = ((TextValue) key).stringValue();
+            }
+            return new PropertyProjection( keys );
+        }
+        throw invalidProjection( anyValue );
+    }
+
+    public boolean isAll()
+    {
+        return keys == null;
+    }
+
+    /**
+     * @return a result that applies this projection to the values of every record of the given result.
+     */
+    public BoltResult apply( BoltResult result )
+    {
+        return isAll() ? result : new ProjectingResult( result );
+    }
+
+    AnyValue project( AnyValue value )
+    {
+        if ( value instanceof NodeProxyWrappingNodeValue )
+        {
+            return projectNode( (NodeProxyWrappingNodeValue) value );
+        }
+        if ( value instanceof RelationshipProxyWrappingValue )
+        {
+            return projectRelationship( (RelationshipProxyWrappingValue) value );
+        }
+        if ( value instanceof PathValue )
+        {
+            return projectPath( (PathValue) value );
+        }
+        if ( value instanceof ListValue )
+        {
+            return projectList( (ListValue) value );
+        }
+        return value;
+    }
+
+    private NodeValue projectNode( NodeProxyWrappingNodeValue node )
+    {
+        if ( node.id() < 0 )
+        {
+            // virtual nodes are written as they are
+            return node;
+        }
+        try
+        {
+            return VirtualValues.nodeValue( node.id(), node.labels(), properties( node.nodeProxy() ) );
+        }
+        catch ( NotFoundException e )
+        {
+            // let the node value decide how to write a node that is gone
+            return node;
+        }
+    }
+
+    private RelationshipValue projectRelationship( RelationshipProxyWrappingValue relationship )
+    {
+        try
+        {
+            return VirtualValues.relationshipValue( relationship.id(), relationship.startNode(), relationship.endNode(), relationship.type(),
+                    properties( relationship.relationshipProxy() ) );
+        }
+        catch ( NotFoundException e )
+        {
+            return relationship;
+        }
+    }
+
+    private MapValue properties( PropertyContainer entity )
+    {
+        return keys.length == 0 ? VirtualValues.EMPTY_MAP : ValueUtils.asMapValue( entity.getProperties( keys ) );
+    }
+
+    private PathValue projectPath( PathValue path )
+    {
+        NodeValue[] nodes = path.nodes().clone();
+        for ( int i = 0; i < nodes.length; i++ )
+        {
+            nodes[i] = (NodeValue) project( nodes[i] );
+        }
+        RelationshipValue[] relationships = path.relationships().clone();
+        for ( int i = 0; i < relationships.length; i++ )
+        {
+            relationships[i] = (RelationshipValue) project( relationships[i] );
+        }
+        return VirtualValues.path( nodes, relationships );
+    }
+
+    private ListValue projectList( ListValue list )
+    {
+        AnyValue[] values = null;
+        int i = 0;
+        for ( AnyValue value : list )
+        {
+            AnyValue projected = project( value );
+            if ( projected != value && values == null )
+            {
+                values = list.asArray().clone();
+            }
+            if ( values != null )
+            {
+                values[i] = projected;
+            }
+            i++;
+        }
+        return values == null ? list : VirtualValues.list( values );
+    }
+
+    private static BoltIOException invalidProjection( AnyValue value )
+    {
+        return new BoltIOException( Status.Request.Invalid, "Expecting " + PROJECTION_KEY + " to be a list of property keys, but got: " + value );
+    }
+
+    private class ProjectingResult implements BoltResult
+    {
+        private final BoltResult delegate;
+
+        ProjectingResult( BoltResult delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String[] fieldNames()
+        {
+            return delegate.fieldNames();
+        }
+
+        @Override
+        public void accept( Visitor visitor ) throws Exception
+        {
+            delegate.accept( new ProjectingVisitor( visitor ) );
+        }
+
+        @Override
+        public boolean handleRecords( Visitor visitor, long size ) throws Exception
+        {
+            return delegate.handleRecords( new ProjectingVisitor( visitor ), size );
+        }
+
+        @Override
+        public void close()
+        {
+            delegate.close();
+        }
+    }
+
+    private class ProjectingVisitor implements BoltResult.Visitor
+    {
+        private final BoltResult.Visitor delegate;
+
+        ProjectingVisitor( BoltResult.Visitor delegate )
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void visit( QueryResult.Record record ) throws Exception
+        {
+            AnyValue[] fields = record.fields().clone();
+            for ( int i = 0; i < fields.length; i++ )
+            {
+                fields[i] = project( fields[i] );
+            }
+            delegate.visit( new QueryResult.Record()
+            {
+                @Override
+                public AnyValue[] fields()
+                {
+                    return fields;
+                }
+
+                @Override
+                public void release()
+                {
+                    record.release();
+                }
+            } );
+        }
+
+        @Override
+        public void addMetadata( String key, AnyValue value )
+        {
+            delegate.addMetadata( key, value );
+        }
+    }
+}
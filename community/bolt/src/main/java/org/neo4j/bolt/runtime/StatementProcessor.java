@@ -24,6 +24,7 @@ import java.util.Map;
 
 import org.neo4j.bolt.v1.runtime.bookmarking.Bookmark;
 import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.function.ThrowingFunction;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.values.virtual.MapValue;
@@ -40,6 +41,16 @@ public interface StatementProcessor
 
     Bookmark streamResult( ThrowingConsumer<BoltResult,Exception> resultConsumer ) throws Exception;
 
+    /**
+     * Stream part of the current result. The result is kept open, see {@link #hasOpenStatement()}, as long as the
+     * consumer reports that it has more records. Once it is exhausted the result is closed like with
+     * {@link #streamResult(ThrowingConsumer)}.
+     *
+     * @return the bookmark of the committed auto-commit transaction, or {@code null} if the result is still open or
+     * belongs to an explicit transaction.
+     */
+    Bookmark streamResultBatch( ThrowingFunction<BoltResult,Boolean,Exception> resultConsumer ) throws Exception;
+
     Bookmark commitTransaction() throws KernelException;
 
     void rollbackTransaction() throws KernelException;
@@ -87,6 +98,12 @@ public interface StatementProcessor
             throw new UnsupportedOperationException( "Unable to stream results" );
         }
 
+        @Override
+        public Bookmark streamResultBatch( ThrowingFunction<BoltResult,Boolean,Exception> resultConsumer ) throws Exception
+        {
+            throw new UnsupportedOperationException( "Unable to stream results" );
+        }
+
         @Override
         public Bookmark commitTransaction() throws KernelException
         {
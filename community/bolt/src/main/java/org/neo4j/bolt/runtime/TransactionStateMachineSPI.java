@@ -41,6 +41,12 @@ public interface TransactionStateMachineSPI
 
     boolean isPeriodicCommit( String query );
 
+    /**
+     * Prepare the given statement for being executed again and again on this connection. Later executions of the
+     * same statement instance reuse what the query engine resolved for it.
+     */
+    void prepareQuery( String statement );
+
     BoltResultHandle executeQuery( LoginContext loginContext, String statement, MapValue params, Duration txTimeout,
             Map<String,Object> txMetaData );
 }
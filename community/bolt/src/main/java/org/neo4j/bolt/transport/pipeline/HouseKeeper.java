@@ -29,20 +29,35 @@ import org.neo4j.logging.Log;
 
 public class HouseKeeper extends ChannelInboundHandlerAdapter
 {
-    private final BoltConnection connection;
+    private final Runnable onChannelInactive;
     private final Log log;
     private boolean failed;
 
     public HouseKeeper( BoltConnection connection, Log log )
     {
-        this.connection = connection;
+        this( () -> connection.stop(), log );
+    }
+
+    private HouseKeeper( Runnable onChannelInactive, Log log )
+    {
+        this.onChannelInactive = onChannelInactive;
         this.log = log;
     }
 
+    /**
+     * Creates a house keeper for a channel that serves several connections.
+     *
+     * @param onChannelInactive stops the connections served by the channel once it becomes inactive
+     */
+    public static HouseKeeper forConnections( Runnable onChannelInactive, Log log )
+    {
+        return new HouseKeeper( onChannelInactive, log );
+    }
+
     @Override
     public void channelInactive( ChannelHandlerContext ctx )
     {
-        connection.stop();
+        onChannelInactive.run();
     }
 
     @Override
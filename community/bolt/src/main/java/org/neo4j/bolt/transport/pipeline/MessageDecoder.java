@@ -50,6 +50,32 @@ public class MessageDecoder extends SimpleChannelInboundHandler<ByteBuf>
     @Override
     protected void channelRead0( ChannelHandlerContext channelHandlerContext, ByteBuf byteBuf ) throws Exception
     {
+        decode( byteBuf );
+    }
+
+    @Override
+    public void channelReadComplete( ChannelHandlerContext ctx ) throws Exception
+    {
+        decodeComplete();
+        super.channelReadComplete( ctx );
+    }
+
+    @Override
+    public void channelInactive( ChannelHandlerContext ctx ) throws Exception
+    {
+        decodeComplete();
+        super.channelInactive( ctx );
+    }
+
+    /**
+     * Decodes a single complete message. This is also used by handlers that demultiplex the messages of several
+     * logical streams, and keep one decoder per stream outside of the channel pipeline.
+     */
+    public void decode( ByteBuf byteBuf ) throws Exception
+    {
+        // all messages decoded from a single socket read are handed over to the connection together
+        // when the read completes, so that pipelined requests are scheduled and flushed as one batch
+        reader.beginBatch();
         input.start( byteBuf );
         byteBuf.markReaderIndex();
         try
@@ -67,6 +93,14 @@ public class MessageDecoder extends SimpleChannelInboundHandler<ByteBuf>
         }
     }
 
+    /**
+     * Hands the messages decoded since the last call over to the connection.
+     */
+    public void decodeComplete()
+    {
+        reader.endBatch();
+    }
+
     private void logMessageOnError( ByteBuf byteBuf )
     {
         // move reader index back to the beginning of the message in order to log its full content
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.transport.pipeline;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.DecoderException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.bolt.BoltChannel;
+import org.neo4j.bolt.BoltServer;
+import org.neo4j.bolt.runtime.BoltConnection;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * Routes the chunks produced by {@link MultiplexedChunkDecoder} to the logical streams of a multiplexed connection.
+ * <p>
+ * Every stream has its own {@link BoltConnection}, with its own state machine and job queue, and its own
+ * {@link MessageDecoder}. Streams are opened implicitly by the first chunk that carries their id, and are forgotten
+ * when their connection closes. Chunks of a stream are accumulated until its message boundary arrives, independent of
+ * the chunks of other streams that are interleaved with them.
+ * <p>
+ * The stream map is only ever touched from the event loop of the channel.
+ */
+public class StreamDemultiplexer extends SimpleChannelInboundHandler<ByteBuf>
+{
+    static final int MAX_STREAMS = FeatureToggles.getInteger( BoltServer.class, "max_multiplexed_streams", 64 );
+
+    private final BoltChannel channel;
+    private final StreamFactory streamFactory;
+    private final int maxStreams;
+    private final Map<Integer,Stream> streams = new HashMap<>();
+
+    public StreamDemultiplexer( BoltChannel channel, StreamFactory streamFactory )
+    {
+        this( channel, streamFactory, MAX_STREAMS );
+    }
+
+    StreamDemultiplexer( BoltChannel channel, StreamFactory streamFactory, int maxStreams )
+    {
+        this.channel = channel;
+        this.streamFactory = streamFactory;
+        this.maxStreams = maxStreams;
+    }
+
+    @Override
+    protected void channelRead0( ChannelHandlerContext ctx, ByteBuf chunk ) throws Exception
+    {
+        int streamId = chunk.readUnsignedShort();
+        int chunkSize = chunk.readUnsignedShort();
+
+        Stream stream = streams.get( streamId );
+        if ( stream == null )
+        {
+            stream = openStream( ctx, streamId );
+        }
+
+        if ( chunkSize == 0 )
+        {
+            stream.messageBoundary();
+        }
+        else
+        {
+            stream.accumulate( chunk.retainedSlice( chunk.readerIndex(), chunkSize ) );
+        }
+    }
+
+    @Override
+    public void channelReadComplete( ChannelHandlerContext ctx ) throws Exception
+    {
+        for ( Stream stream : streams.values() )
+        {
+            stream.decoder.decodeComplete();
+        }
+        super.channelReadComplete( ctx );
+    }
+
+    @Override
+    public void channelInactive( ChannelHandlerContext ctx ) throws Exception
+    {
+        for ( Stream stream : streams.values() )
+        {
+            stream.decoder.decodeComplete();
+        }
+        super.channelInactive( ctx );
+    }
+
+    @Override
+    public void handlerRemoved( ChannelHandlerContext ctx )
+    {
+        for ( Stream stream : streams.values() )
+        {
+            stream.release();
+        }
+    }
+
+    /**
+     * Stops the connections of all open streams, used when the underlying channel becomes inactive.
+     */
+    public void stopAll()
+    {
+        for ( Stream stream : new ArrayList<>( streams.values() ) )
+        {
+            stream.connection.stop();
+        }
+    }
+
+    int openStreams()
+    {
+        return streams.size();
+    }
+
+    private Stream openStream( ChannelHandlerContext ctx, int streamId )
+    {
+        if ( streams.size() >= maxStreams )
+        {
+            throw new DecoderException( "Unable to open stream " + streamId + ", " + maxStreams + " streams are already open." );
+        }
+
+        BoltChannel streamChannel = channel.stream( streamId, () -> ctx.executor().execute( () -> closeStream( streamId ) ) );
+        Stream stream = streamFactory.newStream( streamChannel );
+        streams.put( streamId, stream );
+        return stream;
+    }
+
+    private void closeStream( int streamId )
+    {
+        Stream stream = streams.remove( streamId );
+        if ( stream != null )
+        {
+            stream.release();
+        }
+    }
+
+    /**
+     * Creates the connection and the decoder of a newly opened stream.
+     */
+    public interface StreamFactory
+    {
+        Stream newStream( BoltChannel streamChannel );
+    }
+
+    public static class Stream
+    {
+        private final BoltConnection connection;
+        private final MessageDecoder decoder;
+        private CompositeByteBuf message;
+
+        public Stream( BoltConnection connection, MessageDecoder decoder )
+        {
+            this.connection = connection;
+            this.decoder = decoder;
+        }
+
+        private void accumulate( ByteBuf chunk )
+        {
+            if ( message == null )
+            {
+                message = chunk.alloc().compositeBuffer( Integer.MAX_VALUE );
+            }
+            message.addComponent( true, chunk );
+        }
+
+        private void messageBoundary() throws Exception
+        {
+            if ( message == null || message.readableBytes() == 0 )
+            {
+                throw new DecoderException( "Message boundary received when there's nothing to decode." );
+            }
+
+            try
+            {
+                decoder.decode( message );
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        private void release()
+        {
+            if ( message != null )
+            {
+                message.release();
+                message = null;
+            }
+        }
+    }
+}
@@ -37,7 +37,18 @@ public class ResultHandler extends MessageProcessingHandler
     @Override
     public void onRecords( final BoltResult result, final boolean pull ) throws Exception
     {
-        result.accept( new BoltResult.Visitor()
+        result.accept( newRecordsVisitor( pull ) );
+    }
+
+    @Override
+    public boolean onRecords( final BoltResult result, final boolean pull, final long size ) throws Exception
+    {
+        return result.handleRecords( newRecordsVisitor( pull ), size );
+    }
+
+    private BoltResult.Visitor newRecordsVisitor( final boolean pull )
+    {
+        return new BoltResult.Visitor()
         {
             @Override
             public void visit( QueryResult.Record record ) throws Exception
@@ -53,6 +64,6 @@ public class ResultHandler extends MessageProcessingHandler
             {
                 onMetadata( key, value );
             }
-        } );
+        };
     }
 }
@@ -22,6 +22,7 @@ package org.neo4j.bolt.v1.packstream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This is where {@link PackStream} writes its output to.
@@ -60,6 +61,21 @@ public interface PackOutput extends Closeable
     /** Produce binary data */
     PackOutput writeBytes( byte[] data, int offset, int amountToWrite ) throws IOException;
 
+    /**
+     * Produce the UTF-8 encoding of the given string. The caller has already measured the encoding to be
+     * {@code utf8Length} bytes long, see {@link io.netty.buffer.ByteBufUtil#utf8Bytes(CharSequence)}.
+     * Outputs backed by a buffer should encode straight into it instead of going through an intermediate array.
+     */
+    default PackOutput writeUTF8( String value, int utf8Length ) throws IOException
+    {
+        byte[] encoded = value.getBytes( StandardCharsets.UTF_8 );
+        if ( encoded.length != utf8Length )
+        {
+            throw new IOException( "Expected UTF-8 encoding of " + utf8Length + " bytes, but got " + encoded.length + " bytes." );
+        }
+        return writeBytes( encoded, 0, encoded.length );
+    }
+
     /** Produce a 4-byte signed integer */
     PackOutput writeShort( short value ) throws IOException;
 
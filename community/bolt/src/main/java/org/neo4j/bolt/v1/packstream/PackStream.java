@@ -19,12 +19,12 @@
  */
 package org.neo4j.bolt.v1.packstream;
 
+import io.netty.buffer.ByteBufUtil;
+
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import org.neo4j.bolt.messaging.StructType;
-import org.neo4j.bolt.v1.packstream.utf8.UTF8Encoder;
 
 /**
  * PackStream is a messaging serialisation format heavily inspired by MessagePack.
@@ -233,7 +233,6 @@ public class PackStream
         private static final char PACKED_CHAR_START_CHAR = (char) 32;
         private static final char PACKED_CHAR_END_CHAR = (char) 126;
         private static final String[] PACKED_CHARS = prePackChars();
-        private UTF8Encoder utf8 = UTF8Encoder.fastestAvailableEncoder();
 
         protected PackOutput out;
 
@@ -330,9 +329,9 @@ public class PackStream
             }
             else
             {
-                ByteBuffer encoded = utf8.encode( value );
-                packStringHeader( encoded.remaining() );
-                out.writeBytes( encoded );
+                int utf8Length = ByteBufUtil.utf8Bytes( value );
+                packStringHeader( utf8Length );
+                out.writeUTF8( value, utf8Length );
             }
         }
 
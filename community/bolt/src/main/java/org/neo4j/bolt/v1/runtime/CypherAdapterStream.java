@@ -76,6 +76,14 @@ public class CypherAdapterStream implements BoltResult
             return true;
         } );
         addRecordStreamingTime( visitor, clock.millis() - start );
+        addResultMetadata( visitor );
+    }
+
+    /**
+     * Add the metadata describing the completed result, i.e. its type, statistics, plan and notifications.
+     */
+    protected void addResultMetadata( Visitor visitor )
+    {
         QueryExecutionType qt = delegate.executionType();
         visitor.addMetadata( "type", Values.stringValue( queryTypeCode( qt.queryType() ) ) );
 
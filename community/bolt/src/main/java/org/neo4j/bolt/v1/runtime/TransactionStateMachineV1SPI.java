@@ -21,6 +21,7 @@ package org.neo4j.bolt.v1.runtime;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -43,6 +44,7 @@ import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.kernel.impl.coreapi.PropertyContainerLocker;
 import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory;
+import org.neo4j.kernel.impl.query.PreparedQuery;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
 import org.neo4j.kernel.impl.query.TransactionalContext;
@@ -67,6 +69,10 @@ public class TransactionStateMachineV1SPI implements TransactionStateMachineSPI
     private final TransactionalContextFactory contextFactory;
     private final Duration txAwaitDuration;
     private final Clock clock;
+    /**
+     * Queries prepared on this connection, by the statement instance that the connection runs them with.
+     */
+    private final Map<String,PreparedQuery> preparedQueries = new IdentityHashMap<>();
 
     public TransactionStateMachineV1SPI( GraphDatabaseAPI db, BoltChannel boltChannel, Duration txAwaitDuration, Clock clock )
     {
@@ -117,6 +123,12 @@ public class TransactionStateMachineV1SPI implements TransactionStateMachineSPI
         return queryExecutionEngine.isPeriodicCommit( query );
     }
 
+    @Override
+    public void prepareQuery( String statement )
+    {
+        preparedQueries.computeIfAbsent( statement, queryExecutionEngine::prepareQuery );
+    }
+
     @Override
     public BoltResultHandle executeQuery( LoginContext loginContext, String statement, MapValue params, Duration txTimeout,
             Map<String,Object> txMetadata )
@@ -186,7 +198,9 @@ public class TransactionStateMachineV1SPI implements TransactionStateMachineSPI
         {
             try
             {
-                Result result = queryExecutionEngine.executeQuery( statement, params, transactionalContext );
+                PreparedQuery preparedQuery = preparedQueries.get( statement );
+                Result result = preparedQuery == null ? queryExecutionEngine.executeQuery( statement, params, transactionalContext )
+                                                      : queryExecutionEngine.executeQuery( preparedQuery, params, transactionalContext );
                 if ( result instanceof QueryResultProvider )
                 {
                     return newBoltResult( (QueryResultProvider) result, clock );
@@ -20,6 +20,7 @@
 package org.neo4j.bolt.v1.transport;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.Channel;
 
 import java.io.IOException;
@@ -32,11 +33,13 @@ import org.neo4j.bolt.transport.TransportThrottleGroup;
 import org.neo4j.bolt.v1.packstream.PackOutput;
 import org.neo4j.bolt.v1.packstream.PackOutputClosedException;
 import org.neo4j.bolt.v1.packstream.PackStream;
+import org.neo4j.bolt.v1.packstream.utf8.UTF8Encoder;
 import org.neo4j.kernel.api.exceptions.Status;
 
 /**
  * A target output for {@link PackStream} which breaks the data into a continuous stream of chunks before pushing them into a netty
- * channel.
+ * channel. The output of a logical stream that is multiplexed over the channel prefixes the header of every chunk with
+ * the id of its stream, see {@link #forStream(Channel, int, TransportThrottleGroup)}.
  */
 public class ChunkedOutput implements PackOutput
 {
@@ -47,11 +50,14 @@ public class ChunkedOutput implements PackOutput
 
     private static final int MAX_CHUNK_SIZE = Short.MAX_VALUE / 2;
     private static final int NO_MESSAGE = -1;
+    private static final int NO_STREAM = -1;
 
     private final Channel channel;
     private final int maxBufferSize;
     private final int maxChunkSize;
     private final TransportThrottleGroup throttleGroup;
+    private final int streamId;
+    private final UTF8Encoder utf8 = UTF8Encoder.fastestAvailableEncoder();
 
     private ByteBuf buffer;
     private int currentChunkStartIndex;
@@ -72,14 +78,29 @@ public class ChunkedOutput implements PackOutput
     }
 
     public ChunkedOutput( Channel channel, int maxBufferSize, int maxChunkSize, TransportThrottleGroup throttleGroup )
+    {
+        this( channel, maxBufferSize, maxChunkSize, NO_STREAM, throttleGroup );
+    }
+
+    private ChunkedOutput( Channel channel, int maxBufferSize, int maxChunkSize, int streamId, TransportThrottleGroup throttleGroup )
     {
         this.channel = Objects.requireNonNull( channel );
         this.maxBufferSize = maxBufferSize;
         this.maxChunkSize = maxChunkSize;
+        this.streamId = streamId;
         this.buffer = allocateBuffer();
         this.throttleGroup = Objects.requireNonNull( throttleGroup );
     }
 
+    /**
+     * Creates the output of a logical stream multiplexed over the given channel. Its chunks are written to the channel
+     * whole, so that they can be interleaved with the chunks of the other streams.
+     */
+    public static ChunkedOutput forStream( Channel channel, int streamId, TransportThrottleGroup throttleGroup )
+    {
+        return new ChunkedOutput( channel, DEFAULT_BUFFER_SIZE, MAX_CHUNK_SIZE, streamId, throttleGroup );
+    }
+
     @Override
     public void beginMessage()
     {
@@ -98,6 +119,7 @@ public class ChunkedOutput implements PackOutput
         currentMessageStartIndex = NO_MESSAGE;
 
         closeChunkIfOpen();
+        writeStreamId();
         buffer.writeShort( MESSAGE_BOUNDARY );
 
         if ( buffer.readableBytes() >= maxBufferSize )
@@ -213,6 +235,24 @@ public class ChunkedOutput implements PackOutput
         return writeBytes( ByteBuffer.wrap( data, offset, length ) );
     }
 
+    @Override
+    public PackOutput writeUTF8( String value, int utf8Length ) throws IOException
+    {
+        if ( utf8Length == 0 )
+        {
+            return this;
+        }
+        if ( utf8Length + CHUNK_HEADER_SIZE <= maxChunkSize )
+        {
+            // the string fits into a single chunk, encode it straight into the buffer
+            ensure( utf8Length );
+            ByteBufUtil.reserveAndWriteUtf8( buffer, value, utf8Length );
+            return this;
+        }
+        // strings spanning several chunks are rare, split their encoded form over chunks
+        return writeBytes( utf8.encode( value ) );
+    }
+
     @Override
     public void close()
     {
@@ -256,6 +296,7 @@ public class ChunkedOutput implements PackOutput
 
     private void startNewChunk()
     {
+        writeStreamId();
         currentChunkStartIndex = buffer.writerIndex();
 
         // write empty chunk header
@@ -263,6 +304,14 @@ public class ChunkedOutput implements PackOutput
         chunkOpen = true;
     }
 
+    private void writeStreamId()
+    {
+        if ( streamId != NO_STREAM )
+        {
+            buffer.writeShort( streamId );
+        }
+    }
+
     private void closeChunkIfOpen()
     {
         if ( chunkOpen )
@@ -285,7 +334,7 @@ public class ChunkedOutput implements PackOutput
 
     private ByteBuf allocateBuffer()
     {
-        return channel.alloc().buffer( maxBufferSize );
+        return channel.alloc().ioBuffer( maxBufferSize );
     }
 
     private void assertMessageStarted()
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4;
+
+import io.netty.channel.ChannelPipeline;
+
+import org.neo4j.bolt.BoltChannel;
+import org.neo4j.bolt.BoltProtocol;
+import org.neo4j.bolt.messaging.Neo4jPack;
+import org.neo4j.bolt.runtime.BoltConnection;
+import org.neo4j.bolt.runtime.BoltConnectionFactory;
+import org.neo4j.bolt.runtime.BoltStateMachine;
+import org.neo4j.bolt.runtime.BoltStateMachineFactory;
+import org.neo4j.bolt.transport.pipeline.HouseKeeper;
+import org.neo4j.bolt.transport.pipeline.MessageDecoder;
+import org.neo4j.bolt.transport.pipeline.MultiplexedChunkDecoder;
+import org.neo4j.bolt.transport.pipeline.StreamDemultiplexer;
+import org.neo4j.bolt.v1.messaging.BoltResponseMessageWriterV1;
+import org.neo4j.bolt.v2.messaging.Neo4jPackV2;
+import org.neo4j.bolt.v4.messaging.BoltRequestMessageReaderV4;
+import org.neo4j.logging.internal.LogService;
+
+/**
+ * Bolt protocol V4 with several logical streams multiplexed over a single network connection. The messages are those
+ * of {@link BoltProtocolV4}, but every chunk header starts with the unsigned 16 bit id of the stream the chunk belongs
+ * to, followed by the usual chunk size. Every stream behaves like a separate V4 connection: it has its own state
+ * machine and its own job queue on the Bolt scheduler, so that a slow query on one stream does not hold up the others.
+ */
+public class MultiplexedBoltProtocolV4 implements BoltProtocol, StreamDemultiplexer.StreamFactory
+{
+    public static final long VERSION = 0x00010004;
+
+    private final Neo4jPack neo4jPack = new Neo4jPackV2();
+    private final BoltChannel channel;
+    private final BoltConnectionFactory connectionFactory;
+    private final BoltStateMachineFactory stateMachineFactory;
+    private final LogService logging;
+
+    public MultiplexedBoltProtocolV4( BoltChannel channel, BoltConnectionFactory connectionFactory, BoltStateMachineFactory stateMachineFactory,
+            LogService logging )
+    {
+        this.channel = channel;
+        this.connectionFactory = connectionFactory;
+        this.stateMachineFactory = stateMachineFactory;
+        this.logging = logging;
+    }
+
+    @Override
+    public void install()
+    {
+        ChannelPipeline pipeline = channel.rawChannel().pipeline();
+        StreamDemultiplexer demultiplexer = new StreamDemultiplexer( channel, this );
+
+        pipeline.addLast( new MultiplexedChunkDecoder() );
+        pipeline.addLast( demultiplexer );
+        pipeline.addLast( HouseKeeper.forConnections( demultiplexer::stopAll, logging.getInternalLog( HouseKeeper.class ) ) );
+    }
+
+    @Override
+    public long version()
+    {
+        return VERSION;
+    }
+
+    @Override
+    public StreamDemultiplexer.Stream newStream( BoltChannel streamChannel )
+    {
+        BoltStateMachine stateMachine = stateMachineFactory.newStateMachine( BoltProtocolV4.VERSION, streamChannel );
+        BoltConnection connection = connectionFactory.newConnection( streamChannel, stateMachine );
+
+        BoltResponseMessageWriterV1 responseWriter = new BoltResponseMessageWriterV1( neo4jPack, connection.output(), logging );
+        BoltRequestMessageReaderV4 messageReader = new BoltRequestMessageReaderV4( connection, responseWriter, logging );
+        return new StreamDemultiplexer.Stream( connection, new MessageDecoder( neo4jPack, messageReader, logging ) );
+    }
+}
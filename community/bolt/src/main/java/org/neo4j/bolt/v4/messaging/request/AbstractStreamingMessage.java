@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.messaging.request;
+
+import java.util.Objects;
+
+import org.neo4j.bolt.messaging.BoltIOException;
+import org.neo4j.bolt.messaging.RequestMessage;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.LongValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class of messages that stream a batch of {@code n} records of the current result. A missing {@code n} or
+ * {@link #STREAM_LIMIT_UNLIMITED} streams all remaining records.
+ */
+public abstract class AbstractStreamingMessage implements RequestMessage
+{
+    public static final long STREAM_LIMIT_UNLIMITED = -1;
+    private static final String STREAM_LIMIT_KEY = "n";
+
+    private final MapValue meta;
+    private final long n;
+
+    AbstractStreamingMessage( MapValue meta ) throws BoltIOException
+    {
+        this.meta = requireNonNull( meta );
+        this.n = parseStreamLimit( meta );
+    }
+
+    private long parseStreamLimit( MapValue meta ) throws BoltIOException
+    {
+        AnyValue anyValue = meta.get( STREAM_LIMIT_KEY );
+        if ( anyValue == Values.NO_VALUE )
+        {
+            return STREAM_LIMIT_UNLIMITED;
+        }
+        if ( anyValue instanceof LongValue )
+        {
+            long size = ((LongValue) anyValue).longValue();
+            if ( size > 0 || size == STREAM_LIMIT_UNLIMITED )
+            {
+                return size;
+            }
+        }
+        throw new BoltIOException( Status.Request.Invalid,
+                String.format( "Expecting %s size n to be a Long value larger than 0 or %s, but got: %s", name(), STREAM_LIMIT_UNLIMITED, anyValue ) );
+    }
+
+    /**
+     * @return the number of records to stream, or {@link #STREAM_LIMIT_UNLIMITED} for all of them.
+     */
+    public long n()
+    {
+        return n;
+    }
+
+    public MapValue meta()
+    {
+        return meta;
+    }
+
+    abstract String name();
+
+    @Override
+    public boolean safeToProcessInAnyState()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        AbstractStreamingMessage that = (AbstractStreamingMessage) o;
+        return Objects.equals( meta, that.meta );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( meta );
+    }
+
+    @Override
+    public String toString()
+    {
+        return name() + " " + meta;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import org.neo4j.bolt.messaging.RequestMessage;
+import org.neo4j.bolt.runtime.BoltResult;
+import org.neo4j.bolt.runtime.BoltStateMachineState;
+import org.neo4j.bolt.runtime.StateMachineContext;
+import org.neo4j.bolt.v3.runtime.FailSafeBoltStateMachineState;
+import org.neo4j.bolt.v4.messaging.request.DiscardMessage;
+import org.neo4j.bolt.v4.messaging.request.PullMessage;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.util.Preconditions.checkState;
+
+/**
+ * When STREAMING, a result is available as a stream of records.
+ * Records are PULLed or DISCARDed in batches of the requested size and the state is only left once
+ * the stream is exhausted. Until then every response carries {@code has_more}.
+ */
+public abstract class AbstractStreamingState extends FailSafeBoltStateMachineState
+{
+    static final String HAS_MORE_KEY = "has_more";
+
+    protected BoltStateMachineState readyState;
+
+    @Override
+    public BoltStateMachineState processUnsafe( RequestMessage message, StateMachineContext context ) throws Throwable
+    {
+        if ( message instanceof PullMessage )
+        {
+            return processStreamResultMessage( true, ((PullMessage) message).n(), context );
+        }
+        if ( message instanceof DiscardMessage )
+        {
+            return processStreamResultMessage( false, ((DiscardMessage) message).n(), context );
+        }
+        return null;
+    }
+
+    public void setReadyState( BoltStateMachineState readyState )
+    {
+        this.readyState = readyState;
+    }
+
+    private BoltStateMachineState processStreamResultMessage( boolean pull, long size, StateMachineContext context ) throws Throwable
+    {
+        processStreamResultBatch( pull, size, context );
+        if ( context.connectionState().getStatementProcessor().hasOpenStatement() )
+        {
+            context.connectionState().onMetadata( HAS_MORE_KEY, Values.TRUE );
+            return this;
+        }
+        return readyState;
+    }
+
+    static BoltResult project( BoltResult result, StateMachineContext context )
+    {
+        return context.connectionState().getPropertyProjection().apply( result );
+    }
+
+    abstract void processStreamResultBatch( boolean pull, long size, StateMachineContext context ) throws Throwable;
+
+    @Override
+    protected void assertInitialized()
+    {
+        checkState( readyState != null, "Ready state not set" );
+        super.assertInitialized();
+    }
+}
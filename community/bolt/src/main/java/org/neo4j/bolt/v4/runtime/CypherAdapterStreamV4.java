@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import java.time.Clock;
+
+import org.neo4j.bolt.v3.runtime.CypherAdapterStreamV3;
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.values.AnyValue;
+
+/**
+ * A result stream that produces its records on demand. Records are read from the
+ * {@link QueryResultProvider#recordIterator() record iterator} one at a time, so the query only makes progress while
+ * the client pulls from it.
+ */
+class CypherAdapterStreamV4 extends CypherAdapterStreamV3
+{
+    private final QueryResultProvider result;
+    private final Clock clock;
+    private ResourceIterator<AnyValue[]> records;
+    private long streamingTime;
+
+    CypherAdapterStreamV4( QueryResultProvider result, Clock clock )
+    {
+        super( result.queryResult(), clock );
+        this.result = result;
+        this.clock = clock;
+    }
+
+    @Override
+    public void accept( Visitor visitor ) throws Exception
+    {
+        handleRecords( visitor, -1 );
+    }
+
+    @Override
+    public boolean handleRecords( Visitor visitor, long size ) throws Exception
+    {
+        if ( records == null )
+        {
+            records = result.recordIterator();
+        }
+        long start = clock.millis();
+        for ( long handled = 0; (size < 0 || handled < size) && records.hasNext(); handled++ )
+        {
+            AnyValue[] fields = records.next();
+            visitor.visit( () -> fields );
+        }
+        boolean hasMore = records.hasNext();
+        streamingTime += clock.millis() - start;
+
+        if ( !hasMore )
+        {
+            addRecordStreamingTime( visitor, streamingTime );
+            addResultMetadata( visitor );
+        }
+        return hasMore;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import org.neo4j.bolt.messaging.RequestMessage;
+import org.neo4j.bolt.runtime.BoltStateMachineState;
+import org.neo4j.bolt.runtime.MutableConnectionState;
+import org.neo4j.bolt.runtime.PreparedStatements;
+import org.neo4j.bolt.runtime.PropertyProjection;
+import org.neo4j.bolt.runtime.StateMachineContext;
+import org.neo4j.bolt.v3.messaging.request.RunMessage;
+import org.neo4j.values.storable.Values;
+
+/**
+ * The READY state of protocol version 4 additionally accepts a property projection with the RUN message,
+ * see {@link PropertyProjection}, and prepares or runs prepared statements, see {@link PreparedStatements}.
+ */
+public class ReadyState extends org.neo4j.bolt.v3.runtime.ReadyState
+{
+    @Override
+    public BoltStateMachineState processUnsafe( RequestMessage message, StateMachineContext context ) throws Exception
+    {
+        if ( message instanceof RunMessage )
+        {
+            return processRun( (RunMessage) message, context, super::processUnsafe );
+        }
+        return super.processUnsafe( message, context );
+    }
+
+    static BoltStateMachineState processRun( RunMessage message, StateMachineContext context, MessageProcessor processor ) throws Exception
+    {
+        MutableConnectionState connectionState = context.connectionState();
+        connectionState.setPropertyProjection( PropertyProjection.fromMetadata( message.meta() ) );
+
+        PreparedStatements preparedStatements = connectionState.getPreparedStatements();
+        String statement = preparedStatements.resolve( message.statement(), message.meta() );
+        boolean prepare = PreparedStatements.isPrepareRequested( message.meta() );
+        if ( statement != message.statement() )
+        {
+            message = new RunMessage( statement, message.params(), message.meta() );
+        }
+
+        BoltStateMachineState nextState = processor.process( message, context );
+        if ( prepare && nextState != null )
+        {
+            long statementId = preparedStatements.prepare( statement );
+            context.boltSpi().transactionSpi().prepareQuery( preparedStatements.statement( statementId ) );
+            connectionState.onMetadata( PreparedStatements.STATEMENT_ID_KEY, Values.longValue( statementId ) );
+        }
+        return nextState;
+    }
+
+    interface MessageProcessor
+    {
+        BoltStateMachineState process( RequestMessage message, StateMachineContext context ) throws Exception;
+    }
+}
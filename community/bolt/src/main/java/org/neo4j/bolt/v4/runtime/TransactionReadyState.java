@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import org.neo4j.bolt.messaging.RequestMessage;
+import org.neo4j.bolt.runtime.BoltStateMachineState;
+import org.neo4j.bolt.runtime.PreparedStatements;
+import org.neo4j.bolt.runtime.PropertyProjection;
+import org.neo4j.bolt.runtime.StateMachineContext;
+import org.neo4j.bolt.v3.messaging.request.RunMessage;
+
+/**
+ * The TX_READY state of protocol version 4 additionally accepts a property projection with the RUN message,
+ * see {@link PropertyProjection}, and prepares or runs prepared statements, see {@link PreparedStatements}.
+ */
+public class TransactionReadyState extends org.neo4j.bolt.v3.runtime.TransactionReadyState
+{
+    @Override
+    public BoltStateMachineState processUnsafe( RequestMessage message, StateMachineContext context ) throws Exception
+    {
+        if ( message instanceof RunMessage )
+        {
+            return ReadyState.processRun( (RunMessage) message, context, super::processUnsafe );
+        }
+        return super.processUnsafe( message, context );
+    }
+}
@@ -101,6 +101,19 @@ public class BoltConnectionReadLimiterTest
         verify( log ).warn( contains( "disabled" ), eq( channel.remoteAddress() ), eq( 3 ) );
     }
 
+    @Test
+    public void shouldDisableAutoReadWhenBatchReachesHighWatermark()
+    {
+        BoltConnectionReadLimiter limiter = newLimiter( 1, 2 );
+
+        assertTrue( channel.config().isAutoRead() );
+
+        limiter.enqueued( connection, Arrays.asList( job, job, job ) );
+
+        assertFalse( channel.config().isAutoRead() );
+        verify( log ).warn( contains( "disabled" ), eq( channel.remoteAddress() ), eq( 3 ) );
+    }
+
     @Test
     public void shouldDisableAutoReadOnlyOnceWhenAboveHighWatermark()
     {
@@ -19,6 +19,8 @@
  */
 package org.neo4j.bolt.runtime;
 
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.hamcrest.Matchers;
 import org.junit.After;
@@ -28,9 +30,11 @@ import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.BoltServer;
@@ -60,6 +64,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class DefaultBoltConnectionTest
@@ -176,6 +181,26 @@ public class DefaultBoltConnectionTest
         assertTrue( connection.hasPendingJobs() );
     }
 
+    @Test
+    public void enqueuedAllShouldQueueJobsAndNotifyQueueMonitorOnce()
+    {
+        List<Job> jobs = Arrays.asList( Jobs.noop(), Jobs.noop(), Jobs.noop() );
+        List<Job> drainedJobs = new ArrayList<>();
+        BoltConnection connection = newConnection();
+        doAnswer( inv -> drainedJobs.addAll( inv.getArgument( 1 ) ) ).when( queueMonitor ).drained( same( connection ), anyCollection() );
+
+        connection.enqueueAll( jobs );
+
+        verify( queueMonitor ).enqueued( connection, jobs );
+        verify( queueMonitor, never() ).enqueued( same( connection ), any( Job.class ) );
+        assertTrue( connection.hasPendingJobs() );
+
+        connection.processNextBatch();
+
+        verify( queueMonitor ).drained( same( connection ), anyCollection() );
+        assertEquals( jobs, drainedJobs );
+    }
+
     @Test
     public void processNextBatchShouldDoNothingIfQueueIsEmptyAndConnectionNotClosed()
     {
@@ -230,6 +255,88 @@ public class DefaultBoltConnectionTest
         assertTrue( drainedJobs.containsAll( pushedJobs.subList( 10, 15 ) ) );
     }
 
+    @Test
+    public void processNextBatchShouldYieldWhenOutputIsNotWritable()
+    {
+        Job job = mock( Job.class );
+        DefaultBoltConnection connection = newConnection();
+        connection.start();
+        makeChannelUnwritable();
+
+        connection.enqueue( job );
+
+        assertTrue( connection.hasOutputBackpressure() );
+        assertTrue( connection.processNextBatch() );
+        verifyZeroInteractions( job );
+        assertTrue( connection.hasPendingJobs() );
+    }
+
+    @Test
+    public void processNextBatchShouldNotYieldWhileStickingToThread()
+    {
+        // an explicit transaction is open until the job commits it
+        AtomicBoolean transactionOpen = new AtomicBoolean( true );
+        when( stateMachine.shouldStickOnThread() ).thenAnswer( invocation -> transactionOpen.get() );
+        Job commit = machine -> transactionOpen.set( false );
+        DefaultBoltConnection connection = newConnection();
+        connection.start();
+        makeChannelUnwritable();
+
+        connection.enqueue( commit );
+
+        assertTrue( connection.hasOutputBackpressure() );
+        assertTrue( connection.processNextBatch() );
+        assertFalse( transactionOpen.get() );
+        assertFalse( connection.hasPendingJobs() );
+    }
+
+    @Test
+    public void processNextBatchShouldNotYieldWhenStopping() throws Exception
+    {
+        DefaultBoltConnection connection = newConnection();
+        connection.start();
+        makeChannelUnwritable();
+
+        connection.stop();
+
+        assertFalse( connection.hasOutputBackpressure() );
+        connection.processNextBatch();
+        verify( stateMachine ).close();
+    }
+
+    @Test
+    public void whenOutputWritableShouldRunCallbackOnceChannelIsWritable() throws Exception
+    {
+        Job job = mock( Job.class );
+        Runnable callback = mock( Runnable.class );
+        DefaultBoltConnection connection = newConnection();
+        connection.start();
+        makeChannelUnwritable();
+        connection.enqueue( job );
+
+        connection.whenOutputWritable( callback );
+        verifyZeroInteractions( callback );
+
+        channel.flush();
+
+        verify( callback ).run();
+        assertFalse( connection.hasOutputBackpressure() );
+        connection.processNextBatch();
+        verify( job ).perform( stateMachine );
+    }
+
+    @Test
+    public void whenOutputWritableShouldRunCallbackImmediatelyIfChannelIsWritable()
+    {
+        Runnable callback = mock( Runnable.class );
+        DefaultBoltConnection connection = newConnection();
+        connection.start();
+
+        connection.whenOutputWritable( callback );
+
+        verify( callback ).run();
+    }
+
     @Test
     public void interruptShouldInterruptStateMachine()
     {
@@ -350,18 +457,20 @@ public class DefaultBoltConnectionTest
     }
 
     @Test
-    public void processNextBatchShouldThrowAssertionErrorIfStatementOpen() throws Exception
+    public void processNextBatchShouldReleaseThreadWithOpenStatementIfNotStickingToThread() throws Exception
     {
         BoltConnection connection = newConnection( 1 );
         connection.enqueue( Jobs.noop() );
         connection.enqueue( Jobs.noop() );
 
-        // force to a message waiting loop
+        // a result left open between batches of records, outside of an explicit transaction
         when( stateMachine.hasOpenStatement() ).thenReturn( true );
+        when( stateMachine.shouldStickOnThread() ).thenReturn( false );
 
-        connection.processNextBatch();
+        assertTrue( connection.processNextBatch() );
 
-        logProvider.assertExactly(
+        assertTrue( connection.hasPendingJobs() );
+        logProvider.assertNone(
                 AssertableLogProvider.inLog( DefaultBoltConnection.class.getName() ).error( startsWith( "Unexpected error" ), isA( AssertionError.class ) ) );
     }
 
@@ -417,6 +526,12 @@ public class DefaultBoltConnectionTest
         verify( output ).flush();
     }
 
+    private void makeChannelUnwritable()
+    {
+        channel.config().setWriteBufferWaterMark( new WriteBufferWaterMark( 1, 2 ) );
+        channel.write( Unpooled.wrappedBuffer( new byte[10] ) );
+    }
+
     private DefaultBoltConnection newConnection()
     {
         return newConnection( 10 );
@@ -22,8 +22,10 @@ package org.neo4j.bolt.runtime;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.net.InetSocketAddress;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
@@ -45,6 +47,8 @@ import org.neo4j.logging.internal.SimpleLogService;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hamcrest.Matchers.containsString;
@@ -57,9 +61,13 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -209,6 +217,178 @@ public class ExecutorBoltSchedulerTest
                 matchesExceptionMessage( containsString( "some unexpected error" ) ) ) );
     }
 
+    @Test
+    public void enqueuedShouldNotScheduleJobWhileOutputHasBackpressure() throws Throwable
+    {
+        String id = UUID.randomUUID().toString();
+        BoltConnection connection = newConnection( id );
+        AtomicReference<Runnable> resume = new AtomicReference<>();
+        AtomicBoolean processed = new AtomicBoolean();
+        when( connection.hasOutputBackpressure() ).thenReturn( true );
+        doAnswer( inv -> resume.getAndSet( inv.getArgument( 0 ) ) ).when( connection ).whenOutputWritable( any() );
+        when( connection.processNextBatch() ).thenAnswer( inv ->
+        {
+            processed.set( true );
+            return true;
+        } );
+
+        boltScheduler.start();
+        boltScheduler.created( connection );
+        boltScheduler.enqueued( connection, Jobs.noop() );
+
+        assertFalse( boltScheduler.isActive( connection ) );
+        verify( connection, never() ).processNextBatch();
+
+        when( connection.hasOutputBackpressure() ).thenReturn( false );
+        resume.get().run();
+
+        Predicates.await( processed::get, 1, MINUTES );
+        verify( connection ).processNextBatch();
+    }
+
+    @Test
+    public void lowPriorityConnectionsShouldWaitForTheirShareOfThreads() throws Throwable
+    {
+        ExecutorBoltScheduler scheduler =
+                new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0,
+                        ForkJoinPool.commonPool(), singletonList( "analyst" ), emptyList(), 10, Duration.ZERO, Clock.systemUTC() );
+        AtomicBoolean exitCondition = new AtomicBoolean();
+        BoltConnection first = newConnection( UUID.randomUUID().toString() );
+        BoltConnection second = newConnection( UUID.randomUUID().toString() );
+        BoltConnection other = newConnection( UUID.randomUUID().toString() );
+        when( first.username() ).thenReturn( "analyst" );
+        when( second.username() ).thenReturn( "analyst" );
+        when( other.username() ).thenReturn( "app" );
+        when( first.processNextBatch() ).thenAnswer( inv -> awaitExit( exitCondition ) );
+        when( second.processNextBatch() ).thenReturn( true );
+        when( other.processNextBatch() ).thenReturn( true );
+
+        try
+        {
+            scheduler.start();
+            scheduler.created( first );
+            scheduler.created( second );
+            scheduler.created( other );
+            scheduler.enqueued( first, Jobs.noop() );
+            Predicates.await( () -> scheduler.isActive( first ), 1, MINUTES );
+
+            scheduler.enqueued( second, Jobs.noop() );
+            scheduler.enqueued( other, Jobs.noop() );
+
+            verify( other, timeout( MINUTES.toMillis( 1 ) ) ).processNextBatch();
+            assertFalse( scheduler.isActive( second ) );
+            verify( second, never() ).processNextBatch();
+
+            exitCondition.set( true );
+
+            verify( second, timeout( MINUTES.toMillis( 1 ) ) ).processNextBatch();
+        }
+        finally
+        {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void activeLowPriorityConnectionShouldKeepItsShareUnderOutputBackpressure() throws Throwable
+    {
+        ExecutorBoltScheduler scheduler =
+                new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0,
+                        ForkJoinPool.commonPool(), singletonList( "analyst" ), emptyList(), 10, Duration.ZERO, Clock.systemUTC() );
+        AtomicBoolean exitCondition = new AtomicBoolean();
+        BoltConnection first = newConnection( UUID.randomUUID().toString() );
+        BoltConnection second = newConnection( UUID.randomUUID().toString() );
+        BoltConnection other = newConnection( UUID.randomUUID().toString() );
+        when( first.username() ).thenReturn( "analyst" );
+        when( second.username() ).thenReturn( "analyst" );
+        when( other.username() ).thenReturn( "app" );
+        when( first.processNextBatch() ).thenAnswer( inv -> awaitExit( exitCondition ) );
+        when( second.processNextBatch() ).thenReturn( true );
+        when( other.processNextBatch() ).thenReturn( true );
+
+        try
+        {
+            scheduler.start();
+            scheduler.created( first );
+            scheduler.created( second );
+            scheduler.created( other );
+            scheduler.enqueued( first, Jobs.noop() );
+            Predicates.await( () -> scheduler.isActive( first ), 1, MINUTES );
+            scheduler.enqueued( second, Jobs.noop() );
+
+            // the running connection gets more work while its client is slow to read its output
+            when( first.hasOutputBackpressure() ).thenReturn( true );
+            scheduler.enqueued( first, Jobs.noop() );
+            scheduler.enqueued( other, Jobs.noop() );
+
+            verify( other, timeout( MINUTES.toMillis( 1 ) ) ).processNextBatch();
+            assertFalse( scheduler.isActive( second ) );
+            verify( second, never() ).processNextBatch();
+
+            exitCondition.set( true );
+
+            verify( second, timeout( MINUTES.toMillis( 1 ) ) ).processNextBatch();
+        }
+        finally
+        {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void requestsWaitingLongerThanMaxQueueTimeShouldBeShed() throws Throwable
+    {
+        Clock clock = mock( Clock.class );
+        when( clock.millis() ).thenReturn( 0L, 5_000L );
+        ExecutorBoltScheduler scheduler =
+                new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0,
+                        ForkJoinPool.commonPool(), emptyList(), emptyList(), 100, Duration.ofSeconds( 1 ), clock );
+        BoltConnection connection = newConnection( UUID.randomUUID().toString() );
+        when( connection.processNextBatch() ).thenReturn( true );
+
+        try
+        {
+            scheduler.start();
+            scheduler.created( connection );
+            scheduler.enqueued( connection, Jobs.noop() );
+
+            verify( connection, timeout( MINUTES.toMillis( 1 ) ) ).processNextBatch();
+            InOrder inOrder = inOrder( connection );
+            inOrder.verify( connection ).handleOverload( 5_000L );
+            inOrder.verify( connection ).processNextBatch();
+        }
+        finally
+        {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void requestsWaitingShorterThanMaxQueueTimeShouldNotBeShed() throws Throwable
+    {
+        Clock clock = mock( Clock.class );
+        when( clock.millis() ).thenReturn( 0L, 500L );
+        ExecutorBoltScheduler scheduler =
+                new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0,
+                        ForkJoinPool.commonPool(), emptyList(), emptyList(), 100, Duration.ofSeconds( 1 ), clock );
+        BoltConnection connection = newConnection( UUID.randomUUID().toString() );
+        when( connection.processNextBatch() ).thenReturn( true );
+
+        try
+        {
+            scheduler.start();
+            scheduler.created( connection );
+            scheduler.enqueued( connection, Jobs.noop() );
+
+            verify( connection, timeout( MINUTES.toMillis( 1 ) ) ).processNextBatch();
+            verify( connection, never() ).handleOverload( anyLong() );
+        }
+        finally
+        {
+            scheduler.stop();
+        }
+    }
+
     @Test
     public void successfulJobsShouldTriggerSchedulingOfPendingJobs() throws Throwable
     {
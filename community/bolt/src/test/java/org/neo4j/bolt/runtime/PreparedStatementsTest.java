@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import org.neo4j.bolt.messaging.BoltIOException;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.Values.TRUE;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class PreparedStatementsTest
+{
+    @Test
+    void shouldResolvePreparedStatementToSameInstance() throws Exception
+    {
+        PreparedStatements statements = new PreparedStatements();
+        String statement = "MATCH (n) WHERE id(n) = $id RETURN n";
+
+        long id = statements.prepare( statement );
+
+        assertSame( statement, statements.resolve( "", metadata( PreparedStatements.STATEMENT_ID_KEY, longValue( id ) ) ) );
+    }
+
+    @Test
+    void shouldReturnStatementAsIsWithoutHandle() throws Exception
+    {
+        PreparedStatements statements = new PreparedStatements();
+        String statement = "RETURN 1";
+
+        assertSame( statement, statements.resolve( statement, VirtualValues.EMPTY_MAP ) );
+    }
+
+    @Test
+    void shouldReuseHandleWhenPreparingSameStatementTwice() throws Exception
+    {
+        PreparedStatements statements = new PreparedStatements();
+
+        long first = statements.prepare( "RETURN 1" );
+        long second = statements.prepare( "RETURN 2" );
+
+        assertEquals( first, statements.prepare( "RETURN 1" ) );
+        assertEquals( second, statements.prepare( "RETURN 2" ) );
+        assertEquals( 2, statements.size() );
+    }
+
+    @Test
+    void shouldFailOnUnknownOrInvalidHandle() throws Exception
+    {
+        PreparedStatements statements = new PreparedStatements();
+        statements.prepare( "RETURN 1" );
+
+        assertInvalid( () -> statements.resolve( "", metadata( PreparedStatements.STATEMENT_ID_KEY, longValue( 1 ) ) ) );
+        assertInvalid( () -> statements.resolve( "", metadata( PreparedStatements.STATEMENT_ID_KEY, stringValue( "0" ) ) ) );
+        assertInvalid( () -> statements.resolve( "RETURN 1", metadata( PreparedStatements.STATEMENT_ID_KEY, longValue( 0 ) ) ) );
+    }
+
+    @Test
+    void shouldLimitNumberOfPreparedStatements() throws Exception
+    {
+        PreparedStatements statements = new PreparedStatements( 2 );
+        statements.prepare( "RETURN 1" );
+        statements.prepare( "RETURN 2" );
+
+        assertInvalid( () -> statements.prepare( "RETURN 3" ) );
+        assertEquals( 0, statements.prepare( "RETURN 1" ) );
+    }
+
+    @Test
+    void shouldParsePrepareFlag() throws Exception
+    {
+        assertFalse( PreparedStatements.isPrepareRequested( VirtualValues.EMPTY_MAP ) );
+        assertTrue( PreparedStatements.isPrepareRequested( metadata( PreparedStatements.PREPARE_KEY, TRUE ) ) );
+        assertInvalid( () -> PreparedStatements.isPrepareRequested( metadata( PreparedStatements.PREPARE_KEY, stringValue( "yes" ) ) ) );
+    }
+
+    private static void assertInvalid( Executable executable )
+    {
+        BoltIOException error = assertThrows( BoltIOException.class, executable );
+        assertEquals( Status.Request.Invalid, error.status() );
+    }
+
+    private static MapValue metadata( String key, AnyValue value )
+    {
+        return VirtualValues.map( new String[]{key}, new AnyValue[]{value} );
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriorityAdmissionTest
+{
+    private final PriorityAdmission admission = new PriorityAdmission( singletonList( "analyst" ), asList( "spark", "etl/" ), 1 );
+
+    @Test
+    void shouldClassifyConnectionsByUserAndUserAgent()
+    {
+        assertTrue( admission.isLowPriority( connection( "analyst", "neo4j-java/1.7" ) ) );
+        assertTrue( admission.isLowPriority( connection( null, "etl/2.0" ) ) );
+        assertFalse( admission.isLowPriority( connection( "app", "neo4j-java/1.7" ) ) );
+        assertFalse( admission.isLowPriority( connection( null, null ) ) );
+    }
+
+    @Test
+    void shouldAlwaysAdmitNormalPriorityConnections()
+    {
+        assertTrue( admission.tryAdmit( connection( "analyst", null ) ) );
+
+        assertTrue( admission.tryAdmit( connection( "app", null ) ) );
+        assertTrue( admission.tryAdmit( connection( "app", null ) ) );
+        assertEquals( 0, admission.waitingCount() );
+    }
+
+    @Test
+    void shouldAdmitWaitingLowPriorityConnectionsInOrder()
+    {
+        BoltConnection first = connection( "analyst", null );
+        BoltConnection second = connection( "analyst", null );
+        BoltConnection third = connection( null, "spark" );
+
+        assertTrue( admission.tryAdmit( first ) );
+        assertTrue( admission.tryAdmit( first ) );
+        assertFalse( admission.tryAdmit( second ) );
+        assertFalse( admission.tryAdmit( third ) );
+        assertFalse( admission.tryAdmit( second ) );
+        assertEquals( 2, admission.waitingCount() );
+
+        assertSame( second, admission.release( first ) );
+        assertTrue( admission.tryAdmit( second ) );
+        assertFalse( admission.tryAdmit( first ) );
+
+        assertSame( third, admission.release( second ) );
+        assertSame( first, admission.release( third ) );
+        assertNull( admission.release( first ) );
+        assertEquals( 0, admission.waitingCount() );
+    }
+
+    @Test
+    void shouldPassAdmissionOnWhenConnectionIsRemoved()
+    {
+        BoltConnection first = connection( "analyst", null );
+        BoltConnection second = connection( "analyst", null );
+        BoltConnection third = connection( "analyst", null );
+        admission.tryAdmit( first );
+        admission.tryAdmit( second );
+        admission.tryAdmit( third );
+
+        assertNull( admission.remove( second ) );
+        assertSame( third, admission.remove( first ) );
+        assertEquals( 0, admission.waitingCount() );
+    }
+
+    @Test
+    void shouldNotLimitWithoutLowPriorityClients()
+    {
+        PriorityAdmission unlimited = new PriorityAdmission( emptyList(), emptyList(), 1 );
+
+        assertTrue( unlimited.tryAdmit( connection( "analyst", "spark" ) ) );
+        assertTrue( unlimited.tryAdmit( connection( "analyst", "spark" ) ) );
+    }
+
+    private static BoltConnection connection( String username, String userAgent )
+    {
+        BoltConnection connection = mock( BoltConnection.class );
+        when( connection.id() ).thenReturn( UUID.randomUUID().toString() );
+        when( connection.username() ).thenReturn( username );
+        when( connection.userAgent() ).thenReturn( userAgent );
+        return connection;
+    }
+}
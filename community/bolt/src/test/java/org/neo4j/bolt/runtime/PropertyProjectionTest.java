@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.bolt.messaging.BoltIOException;
+import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.helpers.collection.MapUtil;
+import org.neo4j.kernel.impl.util.ValueUtils;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.RelationshipValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.virtual.VirtualValues.list;
+import static org.neo4j.values.virtual.VirtualValues.map;
+
+class PropertyProjectionTest
+{
+    @Test
+    void shouldReturnResultAsIsWithoutProjection() throws Exception
+    {
+        BoltResult result = mock( BoltResult.class );
+
+        assertSame( result, PropertyProjection.ALL.apply( result ) );
+        assertSame( PropertyProjection.ALL, PropertyProjection.fromMetadata( VirtualValues.EMPTY_MAP ) );
+    }
+
+    @Test
+    void shouldOnlyReadProjectedNodeProperties() throws Exception
+    {
+        Node node = node( 42, "name", "Alice" );
+        PropertyProjection projection = PropertyProjection.fromMetadata( projectionMetadata( "name" ) );
+
+        NodeValue projected = (NodeValue) projection.project( ValueUtils.fromNodeProxy( node ) );
+
+        assertEquals( 42, projected.id() );
+        assertEquals( map( new String[]{"name"}, new AnyValue[]{stringValue( "Alice" )} ), projected.properties() );
+        verify( node, never() ).getAllProperties();
+    }
+
+    @Test
+    void shouldProjectRelationshipsInsideLists() throws Exception
+    {
+        Relationship relationship = mock( Relationship.class );
+        when( relationship.getId() ).thenReturn( 7L );
+        when( relationship.getType() ).thenReturn( RelationshipType.withName( "KNOWS" ) );
+        Node start = node( 1 );
+        Node end = node( 2 );
+        when( relationship.getStartNode() ).thenReturn( start );
+        when( relationship.getEndNode() ).thenReturn( end );
+        when( relationship.getProperties( "since" ) ).thenReturn( MapUtil.map( "since", 1999 ) );
+        PropertyProjection projection = PropertyProjection.of( "since" );
+
+        ListValue projected = (ListValue) projection.project( list( ValueUtils.fromRelationshipProxy( relationship ), intValue( 1 ) ) );
+
+        RelationshipValue value = (RelationshipValue) projected.value( 0 );
+        assertEquals( 7, value.id() );
+        assertEquals( stringValue( "KNOWS" ), value.type() );
+        assertEquals( map( new String[]{"since"}, new AnyValue[]{intValue( 1999 )} ), value.properties() );
+        assertEquals( intValue( 1 ), projected.value( 1 ) );
+        verify( relationship, never() ).getAllProperties();
+    }
+
+    @Test
+    void shouldProjectRecordsOfResult() throws Exception
+    {
+        Node node = node( 42, "name", "Alice" );
+        BoltResult result = mock( BoltResult.class );
+        when( result.handleRecords( any(), eq( 1L ) ) ).thenAnswer( invocation ->
+        {
+            BoltResult.Visitor visitor = invocation.getArgument( 0 );
+            visitor.visit( () -> new AnyValue[]{ValueUtils.fromNodeProxy( node )} );
+            return true;
+        } );
+        List<AnyValue[]> records = new ArrayList<>();
+
+        boolean hasMore = PropertyProjection.of().apply( result ).handleRecords( new BoltResult.Visitor()
+        {
+            @Override
+            public void visit( QueryResult.Record record )
+            {
+                records.add( record.fields() );
+            }
+
+            @Override
+            public void addMetadata( String key, AnyValue value )
+            {
+            }
+        }, 1 );
+
+        assertTrue( hasMore );
+        assertEquals( 1, records.size() );
+        assertEquals( VirtualValues.EMPTY_MAP, ((NodeValue) records.get( 0 )[0]).properties() );
+        verify( node, never() ).getAllProperties();
+    }
+
+    @Test
+    void shouldFailOnInvalidProjection()
+    {
+        MapValue notAList = map( new String[]{"projection"}, new AnyValue[]{stringValue( "name" )} );
+
+        assertThrows( BoltIOException.class, () -> PropertyProjection.fromMetadata( notAList ) );
+        assertThrows( BoltIOException.class, () -> PropertyProjection.fromMetadata( projectionMetadata( intValue( 1 ) ) ) );
+    }
+
+    private static MapValue projectionMetadata( String... keys )
+    {
+        AnyValue[] values = new AnyValue[keys.length];
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            values[i] = stringValue( keys[i] );
+        }
+        return projectionMetadata( values );
+    }
+
+    private static MapValue projectionMetadata( AnyValue... keys )
+    {
+        return map( new String[]{"projection"}, new AnyValue[]{list( keys )} );
+    }
+
+    private static Node node( long id, Object... properties )
+    {
+        Node node = mock( Node.class );
+        when( node.getId() ).thenReturn( id );
+        when( node.getLabels() ).thenReturn( emptyList() );
+        if ( properties.length > 0 )
+        {
+            when( node.getProperties( (String) properties[0] ) ).thenReturn( MapUtil.map( properties ) );
+        }
+        return node;
+    }
+}
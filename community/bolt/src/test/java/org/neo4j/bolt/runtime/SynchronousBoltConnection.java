@@ -60,6 +60,18 @@ public class SynchronousBoltConnection implements BoltConnection
         return channel.remoteAddress();
     }
 
+    @Override
+    public String username()
+    {
+        return null;
+    }
+
+    @Override
+    public String userAgent()
+    {
+        return null;
+    }
+
     @Override
     public Channel channel()
     {
@@ -78,6 +90,18 @@ public class SynchronousBoltConnection implements BoltConnection
         return false;
     }
 
+    @Override
+    public boolean hasOutputBackpressure()
+    {
+        return false;
+    }
+
+    @Override
+    public void whenOutputWritable( Runnable callback )
+    {
+        callback.run();
+    }
+
     @Override
     public void start()
     {
@@ -109,6 +133,12 @@ public class SynchronousBoltConnection implements BoltConnection
 
     }
 
+    @Override
+    public void handleOverload( long queueTime )
+    {
+
+    }
+
     @Override
     public void interrupt()
     {
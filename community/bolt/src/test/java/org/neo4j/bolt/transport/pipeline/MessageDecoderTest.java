@@ -35,6 +35,9 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.neo4j.bolt.messaging.BoltIOException;
@@ -54,6 +57,7 @@ import org.neo4j.bolt.v1.messaging.request.PullAllMessage;
 import org.neo4j.bolt.v1.messaging.request.ResetMessage;
 import org.neo4j.bolt.v1.messaging.request.RunMessage;
 import org.neo4j.bolt.v1.packstream.PackedOutputArray;
+import org.neo4j.bolt.v1.runtime.Job;
 import org.neo4j.bolt.v2.messaging.Neo4jPackV2;
 import org.neo4j.helpers.collection.MapUtil;
 import org.neo4j.kernel.api.exceptions.Status;
@@ -67,6 +71,7 @@ import org.neo4j.values.virtual.PathValue;
 import org.neo4j.values.virtual.VirtualValues;
 
 import static io.netty.buffer.ByteBufUtil.hexDump;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
@@ -76,8 +81,10 @@ import static org.junit.Assume.assumeThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.bolt.v1.messaging.example.Edges.ALICE_KNOWS_BOB;
@@ -197,6 +204,26 @@ public class MessageDecoderTest
         verify( stateMachine ).process( eq( PullAllMessage.INSTANCE ), any() );
     }
 
+    @Test
+    public void shouldEnqueueMessagesOfSingleReadAsOneBatch() throws Exception
+    {
+        BoltConnection connection = mock( BoltConnection.class );
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer( invocation -> batchSizes.add( invocation.<Collection<Job>>getArgument( 0 ).size() ) ).when( connection ).enqueueAll( any() );
+        channel = new EmbeddedChannel( newDecoder( connection ) );
+
+        channel.pipeline().fireChannelRead( Unpooled.wrappedBuffer( serialize( packerUnderTest, new RunMessage( "RETURN 1", EMPTY_MAP ) ) ) );
+        channel.pipeline().fireChannelRead( Unpooled.wrappedBuffer( serialize( packerUnderTest, PullAllMessage.INSTANCE ) ) );
+        channel.pipeline().fireChannelRead( Unpooled.wrappedBuffer( serialize( packerUnderTest, ResetMessage.INSTANCE ) ) );
+
+        verify( connection, never() ).enqueueAll( any() );
+
+        channel.pipeline().fireChannelReadComplete();
+
+        verify( connection, never() ).enqueue( any() );
+        assertEquals( singletonList( 3 ), batchSizes );
+    }
+
     @Test
     public void shouldCallExternalErrorOnInitWithNullKeys() throws Exception
     {
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.transport.pipeline;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.bolt.BoltChannel;
+import org.neo4j.bolt.runtime.BoltConnection;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class StreamDemultiplexerTest
+{
+    private final Map<Integer,List<String>> decoded = new HashMap<>();
+    private final Map<Integer,BoltConnection> connections = new HashMap<>();
+    private final Map<Integer,BoltChannel> streamChannels = new HashMap<>();
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+    private final StreamDemultiplexer demultiplexer =
+            new StreamDemultiplexer( new BoltChannel( "bolt-1", "bolt", channel ), this::newStream, 2 );
+
+    @AfterEach
+    void cleanup()
+    {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void shouldDispatchInterleavedChunksToTheirStreams()
+    {
+        channel.pipeline().addLast( new MultiplexedChunkDecoder(), demultiplexer );
+
+        channel.writeInbound( chunks( chunk( 1, 1, 2 ), chunk( 2, 7 ), chunk( 1, 3 ), boundary( 2 ), boundary( 1 ), chunk( 2, 8, 9 ), boundary( 2 ) ) );
+
+        assertEquals( singletonList( "010203" ), decoded.get( 1 ) );
+        assertEquals( asList( "07", "0809" ), decoded.get( 2 ) );
+        assertEquals( 2, demultiplexer.openStreams() );
+        assertEquals( 1, streamChannels.get( 1 ).streamId() );
+        assertEquals( "bolt-1-2", streamChannels.get( 2 ).id() );
+    }
+
+    @Test
+    void shouldForgetStreamWhenItsChannelIsClosed()
+    {
+        channel.pipeline().addLast( new MultiplexedChunkDecoder(), demultiplexer );
+        channel.writeInbound( chunks( chunk( 1, 1 ), boundary( 1 ) ) );
+
+        streamChannels.get( 1 ).close();
+        channel.runPendingTasks();
+
+        assertEquals( 0, demultiplexer.openStreams() );
+        assertTrue( channel.isOpen() );
+    }
+
+    @Test
+    void shouldStopAllStreamConnections()
+    {
+        channel.pipeline().addLast( new MultiplexedChunkDecoder(), demultiplexer );
+        channel.writeInbound( chunks( chunk( 1, 1 ), chunk( 2, 2 ) ) );
+
+        demultiplexer.stopAll();
+
+        verify( connections.get( 1 ) ).stop();
+        verify( connections.get( 2 ) ).stop();
+    }
+
+    @Test
+    void shouldRejectMessageBoundaryWithoutMessage()
+    {
+        channel.pipeline().addLast( new MultiplexedChunkDecoder(), demultiplexer );
+
+        assertThrows( DecoderException.class, () -> channel.writeInbound( chunks( boundary( 1 ) ) ) );
+    }
+
+    @Test
+    void shouldLimitNumberOfStreams()
+    {
+        channel.pipeline().addLast( new MultiplexedChunkDecoder(), demultiplexer );
+
+        assertThrows( DecoderException.class, () -> channel.writeInbound( chunks( chunk( 1, 1 ), chunk( 2, 2 ), chunk( 3, 3 ) ) ) );
+    }
+
+    private StreamDemultiplexer.Stream newStream( BoltChannel streamChannel )
+    {
+        int streamId = streamChannel.streamId();
+        BoltConnection connection = mock( BoltConnection.class );
+        MessageDecoder decoder = mock( MessageDecoder.class, invocation ->
+        {
+            if ( invocation.getMethod().getName().equals( "decode" ) )
+            {
+                ByteBuf message = invocation.getArgument( 0 );
+                decoded.computeIfAbsent( streamId, id -> new ArrayList<>() ).add( ByteBufUtil.hexDump( message ) );
+            }
+            return null;
+        } );
+
+        connections.put( streamId, connection );
+        streamChannels.put( streamId, streamChannel );
+        return new StreamDemultiplexer.Stream( connection, decoder );
+    }
+
+    private static ByteBuf chunks( ByteBuf... chunks )
+    {
+        return Unpooled.wrappedBuffer( chunks );
+    }
+
+    private static ByteBuf chunk( int streamId, int... bytes )
+    {
+        ByteBuf chunk = Unpooled.buffer();
+        chunk.writeShort( streamId );
+        chunk.writeShort( bytes.length );
+        for ( int b : bytes )
+        {
+            chunk.writeByte( b );
+        }
+        return chunk;
+    }
+
+    private static ByteBuf boundary( int streamId )
+    {
+        return chunk( streamId );
+    }
+}
@@ -42,9 +42,11 @@ import org.neo4j.values.virtual.MapValue;
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -457,6 +459,70 @@ class TransactionStateMachineTest
         inOrder.verify( stateMachineSPI ).beginTransaction( any( LoginContext.class ), any(), any() );
     }
 
+    @Test
+    void shouldKeepResultAndTransactionOpenWhileBatchHasMoreRecords() throws Exception
+    {
+        KernelTransaction transaction = newTransaction();
+        TransactionStateMachineV1SPI stateMachineSPI = newTransactionStateMachineSPI( transaction );
+        TransactionStateMachine stateMachine = newTransactionStateMachine( stateMachineSPI );
+
+        stateMachine.run( "SOME STATEMENT", null );
+
+        assertNull( stateMachine.streamResultBatch( boltResult -> true ) );
+        assertTrue( stateMachine.hasOpenStatement() );
+        assertNotNull( stateMachine.ctx.currentResult );
+        assertEquals( transaction, stateMachine.ctx.currentTransaction );
+        verify( transaction, never() ).close();
+
+        assertNotNull( stateMachine.streamResultBatch( boltResult -> false ) );
+        assertFalse( stateMachine.hasOpenStatement() );
+        assertNull( stateMachine.ctx.currentResult );
+        assertNull( stateMachine.ctx.currentTransaction );
+        verify( transaction ).success();
+        verify( transaction ).close();
+    }
+
+    @Test
+    void shouldCloseResultWhenBatchConsumeFails() throws Exception
+    {
+        KernelTransaction transaction = newTransaction();
+        TransactionStateMachineV1SPI stateMachineSPI = newTransactionStateMachineSPI( transaction );
+        TransactionStateMachine stateMachine = newTransactionStateMachine( stateMachineSPI );
+
+        stateMachine.run( "SOME STATEMENT", null );
+        stateMachine.streamResultBatch( boltResult -> true );
+
+        RuntimeException e = assertThrows( RuntimeException.class, () ->
+                stateMachine.streamResultBatch( boltResult ->
+                {
+                    throw new RuntimeException( "some error" );
+                } ) );
+        assertEquals( "some error", e.getMessage() );
+
+        assertNull( stateMachine.ctx.currentResultHandle );
+        assertNull( stateMachine.ctx.currentResult );
+        assertNull( stateMachine.ctx.currentTransaction );
+        verify( transaction ).failure();
+    }
+
+    @Test
+    void shouldNotCommitExplicitTransactionWhenBatchExhaustsResult() throws Exception
+    {
+        KernelTransaction transaction = newTransaction();
+        TransactionStateMachineV1SPI stateMachineSPI = newTransactionStateMachineSPI( transaction );
+        TransactionStateMachine stateMachine = newTransactionStateMachine( stateMachineSPI );
+
+        stateMachine.beginTransaction( null );
+        stateMachine.run( "SOME STATEMENT", null );
+
+        assertNull( stateMachine.streamResultBatch( boltResult -> true ) );
+        assertTrue( stateMachine.hasOpenStatement() );
+        assertNull( stateMachine.streamResultBatch( boltResult -> false ) );
+        assertFalse( stateMachine.hasOpenStatement() );
+        assertEquals( transaction, stateMachine.ctx.currentTransaction );
+        verify( transaction, never() ).close();
+    }
+
     @Test
     public void shouldNotMarkForTerminationWhenNoTransaction() throws Exception
     {
@@ -30,25 +30,38 @@ import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 import org.neo4j.bolt.BoltChannel;
+import org.neo4j.bolt.runtime.BoltResultHandle;
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.cypher.result.QueryResult;
 import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.graphdb.Result;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.GraphDatabaseQueryService;
 import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.query.PreparedQuery;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
+import org.neo4j.kernel.impl.query.TransactionalContext;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.NullLog;
 import org.neo4j.test.rule.concurrent.OtherThreadRule;
 import org.neo4j.time.FakeClock;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 
 public class TransactionStateMachineV1SPITest
@@ -110,6 +123,61 @@ public class TransactionStateMachineV1SPITest
         assertNull( result.get( 20, SECONDS ) );
     }
 
+    @Test
+    public void executesPreparedStatementThroughItsPreparedQuery() throws Exception
+    {
+        // given
+        QueryExecutionEngine queryExecutionEngine = queryExecutionEngineWithResults();
+        PreparedQuery preparedQuery = mock( PreparedQuery.class );
+        String statement = "RETURN 1";
+        when( queryExecutionEngine.prepareQuery( statement ) ).thenReturn( preparedQuery );
+        TransactionStateMachineV1SPI txSpi = createTxSpi( () -> fixedTxIdStore( 42 ), Duration.ZERO, queryExecutionEngine );
+        MapValue params = VirtualValues.EMPTY_MAP;
+        TransactionalContext transactionalContext = mock( TransactionalContext.class );
+
+        // when
+        txSpi.prepareQuery( statement );
+        txSpi.prepareQuery( statement );
+        BoltResultHandle resultHandle = txSpi.newBoltResultHandle( statement, params, transactionalContext );
+        resultHandle.start();
+
+        // then
+        verify( queryExecutionEngine ).prepareQuery( statement );
+        verify( queryExecutionEngine ).executeQuery( preparedQuery, params, transactionalContext );
+        verify( queryExecutionEngine, never() ).executeQuery( anyString(), any(), any() );
+    }
+
+    @Test
+    public void executesOtherStatementsWithTheSameTextAsQueryText() throws Exception
+    {
+        // given
+        QueryExecutionEngine queryExecutionEngine = queryExecutionEngineWithResults();
+        when( queryExecutionEngine.prepareQuery( anyString() ) ).thenReturn( mock( PreparedQuery.class ) );
+        TransactionStateMachineV1SPI txSpi = createTxSpi( () -> fixedTxIdStore( 42 ), Duration.ZERO, queryExecutionEngine );
+        String preparedStatement = "RETURN 1";
+        String statement = new String( preparedStatement );
+        MapValue params = VirtualValues.EMPTY_MAP;
+        TransactionalContext transactionalContext = mock( TransactionalContext.class );
+
+        // when
+        txSpi.prepareQuery( preparedStatement );
+        txSpi.newBoltResultHandle( statement, params, transactionalContext ).start();
+
+        // then
+        verify( queryExecutionEngine ).executeQuery( statement, params, transactionalContext );
+        verify( queryExecutionEngine, never() ).executeQuery( any( PreparedQuery.class ), any(), any() );
+    }
+
+    private static QueryExecutionEngine queryExecutionEngineWithResults() throws Exception
+    {
+        QueryExecutionEngine queryExecutionEngine = mock( QueryExecutionEngine.class );
+        Result result = mock( Result.class, withSettings().extraInterfaces( QueryResultProvider.class ) );
+        when( ((QueryResultProvider) result).queryResult() ).thenReturn( mock( QueryResult.class ) );
+        when( queryExecutionEngine.executeQuery( anyString(), any(), any() ) ).thenReturn( result );
+        when( queryExecutionEngine.executeQuery( any( PreparedQuery.class ), any(), any() ) ).thenReturn( result );
+        return queryExecutionEngine;
+    }
+
     private static TransactionIdStore fixedTxIdStore( long lastClosedTransactionId )
     {
         TransactionIdStore txIdStore = mock( TransactionIdStore.class );
@@ -124,11 +192,23 @@ public class TransactionStateMachineV1SPITest
         return createTxSpi( txIdStore, txAwaitDuration, databaseAvailabilityGuard, clock );
     }
 
+    private static TransactionStateMachineV1SPI createTxSpi( Supplier<TransactionIdStore> txIdStore, Duration txAwaitDuration,
+            QueryExecutionEngine queryExecutionEngine )
+    {
+        Clock clock = Clock.systemUTC();
+        DatabaseAvailabilityGuard databaseAvailabilityGuard = new DatabaseAvailabilityGuard( DEFAULT_DATABASE_NAME, clock, NullLog.getInstance() );
+        return createTxSpi( txIdStore, txAwaitDuration, databaseAvailabilityGuard, clock, queryExecutionEngine );
+    }
+
     private static TransactionStateMachineV1SPI createTxSpi( Supplier<TransactionIdStore> txIdStore, Duration txAwaitDuration,
             DatabaseAvailabilityGuard availabilityGuard, Clock clock )
     {
-        QueryExecutionEngine queryExecutionEngine = mock( QueryExecutionEngine.class );
+        return createTxSpi( txIdStore, txAwaitDuration, availabilityGuard, clock, mock( QueryExecutionEngine.class ) );
+    }
 
+    private static TransactionStateMachineV1SPI createTxSpi( Supplier<TransactionIdStore> txIdStore, Duration txAwaitDuration,
+            DatabaseAvailabilityGuard availabilityGuard, Clock clock, QueryExecutionEngine queryExecutionEngine )
+    {
         DependencyResolver dependencyResolver = mock( DependencyResolver.class );
         ThreadToStatementContextBridge bridge = new ThreadToStatementContextBridge( availabilityGuard );
         when( dependencyResolver.resolveDependency( ThreadToStatementContextBridge.class ) ).thenReturn( bridge );
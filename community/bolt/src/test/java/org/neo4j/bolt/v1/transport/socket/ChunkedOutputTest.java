@@ -640,6 +640,65 @@ public class ChunkedOutputTest
                                                          messageBoundary() );
     }
 
+    @Test
+    public void shouldWriteUTF8StringIntoChunk() throws Exception
+    {
+        String value = "héllo";
+
+        out.beginMessage();
+        out.writeUTF8( value, ByteBufUtil.utf8Bytes( value ) );
+        out.messageSucceeded();
+        out.flush();
+
+        assertByteBufEqual( peekSingleOutboundMessage(), "0006" + "68c3a96c6c6f" + messageBoundary() );
+    }
+
+    @Test
+    public void shouldSplitUTF8StringLongerThanChunk() throws Exception
+    {
+        String value = "abcdefghijklmnopqrst";
+
+        out.beginMessage();
+        out.writeUTF8( value, ByteBufUtil.utf8Bytes( value ) );
+        out.messageSucceeded();
+        out.flush();
+
+        assertByteBufEqual( peekSingleOutboundMessage(), "000e" + "6162636465666768696a6b6c6d6e" +
+                                                         "0006" + "6f7071727374" +
+                                                         messageBoundary() );
+    }
+
+    @Test
+    public void shouldNotWriteAnythingForEmptyUTF8String() throws Exception
+    {
+        out.beginMessage();
+        out.writeUTF8( "", 0 );
+        out.writeByte( (byte) 1 );
+        out.messageSucceeded();
+        out.flush();
+
+        assertByteBufEqual( peekSingleOutboundMessage(), chunkContaining( (byte) 1 ) + messageBoundary() );
+    }
+
+    @Test
+    public void shouldPrefixChunksWithStreamId() throws Exception
+    {
+        ChunkedOutput output = ChunkedOutput.forStream( channel, 7, NO_THROTTLE );
+        try
+        {
+            output.beginMessage();
+            output.writeInt( 42 );
+            output.messageSucceeded();
+            output.flush();
+
+            assertByteBufEqual( peekSingleOutboundMessage(), "0007" + chunkContaining( 42 ) + "0007" + messageBoundary() );
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
     private ByteBuf peekSingleOutboundMessage()
     {
         List<ByteBuf> outboundMessages = peekAllOutboundMessages();
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+
+import org.neo4j.bolt.messaging.RequestMessage;
+import org.neo4j.bolt.runtime.BoltConnectionLifetimeListener;
+import org.neo4j.bolt.runtime.BoltConnectionQueueMonitor;
+import org.neo4j.bolt.runtime.BoltResponseHandler;
+import org.neo4j.bolt.runtime.BoltResult;
+import org.neo4j.bolt.runtime.BoltResultHandle;
+import org.neo4j.bolt.runtime.BoltStateMachineSPI;
+import org.neo4j.bolt.runtime.DefaultBoltConnection;
+import org.neo4j.bolt.runtime.TransactionStateMachineSPI;
+import org.neo4j.bolt.security.auth.AuthenticationResult;
+import org.neo4j.bolt.testing.BoltTestUtil;
+import org.neo4j.bolt.v1.packstream.PackOutput;
+import org.neo4j.bolt.v1.runtime.Job;
+import org.neo4j.bolt.v3.messaging.request.BeginMessage;
+import org.neo4j.bolt.v3.messaging.request.HelloMessage;
+import org.neo4j.bolt.v3.messaging.request.RunMessage;
+import org.neo4j.bolt.v4.messaging.request.PullMessage;
+import org.neo4j.logging.internal.NullLogService;
+
+import static java.time.Duration.ofSeconds;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.bolt.testing.NullResponseHandler.nullResponseHandler;
+import static org.neo4j.helpers.collection.MapUtil.map;
+import static org.neo4j.kernel.impl.util.ValueUtils.asMapValue;
+
+class BoltStateMachineV4Test
+{
+    private final TransactionStateMachineSPI transactionSPI = mock( TransactionStateMachineSPI.class, RETURNS_MOCKS );
+    private final BoltResponseHandler partialPullHandler = mock( BoltResponseHandler.class );
+    private BoltStateMachineV4 machine;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        BoltResult result = mock( BoltResult.class );
+        when( result.fieldNames() ).thenReturn( new String[]{"1"} );
+        BoltResultHandle resultHandle = mock( BoltResultHandle.class );
+        when( resultHandle.start() ).thenReturn( result );
+        when( transactionSPI.executeQuery( any(), any(), any(), any(), any() ) ).thenReturn( resultHandle );
+        // every PULL leaves records behind
+        when( partialPullHandler.onRecords( any(), anyBoolean(), anyLong() ) ).thenReturn( true );
+
+        BoltStateMachineSPI spi = mock( BoltStateMachineSPI.class, RETURNS_MOCKS );
+        when( spi.transactionSpi() ).thenReturn( transactionSPI );
+        when( spi.authenticate( any() ) ).thenReturn( AuthenticationResult.AUTH_DISABLED );
+
+        machine = new BoltStateMachineV4( spi, BoltTestUtil.newTestBoltChannel(), Clock.systemUTC() );
+        machine.process( new HelloMessage( map( "user_agent", "BoltStateMachineV4Test/0.0" ) ), nullResponseHandler() );
+    }
+
+    @Test
+    void shouldNotStickOnThreadWhileResultIsLeftOpenByPartialPull() throws Exception
+    {
+        machine.process( new RunMessage( "RETURN 1" ), nullResponseHandler() );
+        machine.process( pull( 1 ), partialPullHandler );
+
+        assertTrue( machine.hasOpenStatement() );
+        assertFalse( machine.shouldStickOnThread() );
+    }
+
+    @Test
+    void shouldStickOnThreadWhileExplicitTransactionIsOpen() throws Exception
+    {
+        machine.process( new BeginMessage(), nullResponseHandler() );
+        machine.process( new RunMessage( "RETURN 1" ), nullResponseHandler() );
+        machine.process( pull( 1 ), partialPullHandler );
+
+        assertTrue( machine.hasOpenStatement() );
+        assertTrue( machine.shouldStickOnThread() );
+    }
+
+    @Test
+    void shouldReleaseWorkerThreadAfterPartialPull() throws Exception
+    {
+        DefaultBoltConnection connection = new DefaultBoltConnection( BoltTestUtil.newTestBoltChannel(), mock( PackOutput.class ), machine,
+                NullLogService.getInstance(), mock( BoltConnectionLifetimeListener.class ), mock( BoltConnectionQueueMonitor.class ) );
+        connection.enqueue( process( new RunMessage( "RETURN 1" ), nullResponseHandler() ) );
+        connection.enqueue( process( pull( 1 ), partialPullHandler ) );
+
+        // a connection sticking to its thread would keep waiting for the next request here
+        assertTimeoutPreemptively( ofSeconds( 30 ), () -> assertTrue( connection.processNextBatch() ) );
+
+        assertTrue( machine.hasOpenStatement() );
+        assertFalse( connection.hasPendingJobs() );
+    }
+
+    private static PullMessage pull( long n ) throws Exception
+    {
+        return new PullMessage( asMapValue( map( "n", n ) ) );
+    }
+
+    private static Job process( RequestMessage message, BoltResponseHandler handler )
+    {
+        return stateMachine -> stateMachine.process( message, handler );
+    }
+}
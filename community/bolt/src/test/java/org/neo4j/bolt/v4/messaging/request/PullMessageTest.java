@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.messaging.request;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.bolt.messaging.BoltIOException;
+import org.neo4j.kernel.impl.util.ValueUtils;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.bolt.v4.messaging.request.AbstractStreamingMessage.STREAM_LIMIT_UNLIMITED;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+class PullMessageTest
+{
+    @Test
+    void shouldPullAllWhenSizeIsMissing() throws Throwable
+    {
+        // When
+        PullMessage message = new PullMessage( VirtualValues.EMPTY_MAP );
+
+        // Then
+        assertThat( message.n(), equalTo( STREAM_LIMIT_UNLIMITED ) );
+    }
+
+    @Test
+    void shouldParseSize() throws Throwable
+    {
+        // Given
+        MapValue meta = ValueUtils.asMapValue( map( "n", 100L ) );
+
+        // When
+        PullMessage message = new PullMessage( meta );
+
+        // Then
+        assertThat( message.n(), equalTo( 100L ) );
+    }
+
+    @Test
+    void shouldThrowExceptionForInvalidSize()
+    {
+        // Given
+        MapValue zero = ValueUtils.asMapValue( map( "n", 0L ) );
+        MapValue notALong = ValueUtils.asMapValue( map( "n", "all" ) );
+
+        // When & Then
+        BoltIOException exception = assertThrows( BoltIOException.class, () -> new PullMessage( zero ) );
+        assertThat( exception.getMessage(), startsWith( "Expecting PULL size n to be a Long value larger than 0 or -1" ) );
+        exception = assertThrows( BoltIOException.class, () -> new DiscardMessage( notALong ) );
+        assertThat( exception.getMessage(), startsWith( "Expecting DISCARD size n to be a Long value larger than 0 or -1" ) );
+    }
+}
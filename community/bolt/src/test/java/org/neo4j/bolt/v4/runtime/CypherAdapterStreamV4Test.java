@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.bolt.runtime.BoltResult;
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.QueryStatistics;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.values.AnyValue;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.graphdb.QueryExecutionType.QueryType.READ_ONLY;
+import static org.neo4j.graphdb.QueryExecutionType.query;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+public class CypherAdapterStreamV4Test
+{
+    private final List<AnyValue[]> visited = new ArrayList<>();
+    private final List<String> metadataKeys = new ArrayList<>();
+    private final BoltResult.Visitor visitor = new BoltResult.Visitor()
+    {
+        @Override
+        public void visit( QueryResult.Record record )
+        {
+            visited.add( record.fields() );
+        }
+
+        @Override
+        public void addMetadata( String key, AnyValue value )
+        {
+            metadataKeys.add( key );
+        }
+    };
+
+    @Test
+    public void shouldStreamRecordValuesOnDemand() throws Exception
+    {
+        // given
+        AnyValue[] first = {longValue( 1 ), stringValue( "a" )};
+        AnyValue[] second = {longValue( 2 ), stringValue( "b" )};
+        AnyValue[] third = {longValue( 3 ), stringValue( "c" )};
+        QueryResultProvider result = result( Iterators.asResourceIterator( asList( first, second, third ).iterator() ) );
+        CypherAdapterStreamV4 stream = new CypherAdapterStreamV4( result, Clock.systemUTC() );
+
+        // when
+        boolean hasMore = stream.handleRecords( visitor, 2 );
+
+        // then
+        assertTrue( hasMore );
+        assertEquals( 2, visited.size() );
+        assertArrayEquals( first, visited.get( 0 ) );
+        assertArrayEquals( second, visited.get( 1 ) );
+        assertTrue( metadataKeys.isEmpty() );
+
+        // when
+        hasMore = stream.handleRecords( visitor, 2 );
+
+        // then
+        assertFalse( hasMore );
+        assertEquals( 3, visited.size() );
+        assertArrayEquals( third, visited.get( 2 ) );
+        assertTrue( metadataKeys.contains( "t_last" ) );
+        assertTrue( metadataKeys.contains( "type" ) );
+        verify( result, times( 1 ) ).recordIterator();
+    }
+
+    @Test
+    public void shouldStreamAllRecordsWhenAccepted() throws Exception
+    {
+        // given
+        AnyValue[] first = {longValue( 1 ), stringValue( "a" )};
+        AnyValue[] second = {longValue( 2 ), stringValue( "b" )};
+        QueryResultProvider result = result( Iterators.asResourceIterator( asList( first, second ).iterator() ) );
+        CypherAdapterStreamV4 stream = new CypherAdapterStreamV4( result, Clock.systemUTC() );
+
+        // when
+        stream.accept( visitor );
+
+        // then
+        assertEquals( 2, visited.size() );
+        assertTrue( metadataKeys.contains( "type" ) );
+    }
+
+    private static QueryResultProvider result( ResourceIterator<AnyValue[]> records )
+    {
+        QueryStatistics queryStatistics = mock( QueryStatistics.class );
+        QueryResult queryResult = mock( QueryResult.class );
+        when( queryResult.fieldNames() ).thenReturn( new String[]{"n", "s"} );
+        when( queryResult.executionType() ).thenReturn( query( READ_ONLY ) );
+        when( queryResult.queryStatistics() ).thenReturn( queryStatistics );
+        when( queryResult.getNotifications() ).thenReturn( emptyList() );
+
+        QueryResultProvider result = mock( QueryResultProvider.class );
+        when( result.queryResult() ).thenReturn( queryResult );
+        when( result.recordIterator() ).thenReturn( records );
+        return result;
+    }
+}
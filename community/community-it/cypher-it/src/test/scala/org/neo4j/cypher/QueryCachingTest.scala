@@ -26,6 +26,7 @@ import org.neo4j.graphdb.config.Setting
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
 import org.neo4j.helpers.collection.Pair
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge
+import org.neo4j.kernel.impl.query.QueryExecutionEngine
 import org.neo4j.cypher.internal.v3_5.util.test_helpers.CypherFunSuite
 import org.scalatest.prop.TableDrivenPropertyChecks
 
@@ -204,6 +205,44 @@ class QueryCachingTest extends CypherFunSuite with GraphDatabaseTestSupport with
     actual should equal(expected)
   }
 
+  test("prepared query should reuse its cache entry until it leaves the cache") {
+
+    val cacheListener = new LoggingStringCacheListener
+    kernelMonitors.addMonitorListener(cacheListener)
+
+    val query = "RETURN $n"
+    val engine = graph.getDependencyResolver.resolveDependency(classOf[QueryExecutionEngine])
+    val preparedQuery = engine.prepareQuery(query)
+    def executePrepared(n: Any): String = {
+      val params = scala.Predef.Map("n" -> n)
+      engine.executeQuery(preparedQuery, ExecutionEngineHelper.asMapValue(params), graph.transactionalContext(query = query -> params)).resultAsString()
+    }
+
+    executePrepared(42L) should include("42")
+    executePrepared(43L) should include("43")
+    graph.inTx {
+      val statement = graph.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge]).getKernelTransactionBoundToThisThread(true)
+      statement.schemaRead().schemaStateFlush()
+    }
+    executePrepared(44L) should include("44")
+    executePrepared("nope") should include("nope")
+
+    val actual = cacheListener.trace.map(str => str.replaceAll("\\s+", " "))
+    val expected = List(
+      s"cacheFlushDetected",
+      s"cacheMiss: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.LongValue))",
+      s"cacheHit: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.LongValue))",
+      s"cacheRecompile: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.LongValue))",
+      s"cacheHit: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.LongValue))",
+      s"cacheFlushDetected",
+      s"cacheMiss: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.LongValue))",
+      s"cacheHit: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.LongValue))",
+      s"cacheMiss: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.StringWrappingStringValue))",
+      s"cacheHit: (CYPHER 3.5 $query, Map(n -> class org.neo4j.values.storable.StringWrappingStringValue))")
+
+    actual should equal(expected)
+  }
+
   private class LoggingStringCacheListener extends StringCacheMonitor {
     private var log: mutable.Builder[String, List[String]] = List.newBuilder
 
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.graphdb.mockfs.UncloseableDelegatingFileSystemAbstraction;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.configuration.Settings;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GBPTreeCountsStoreIT
+{
+    private static final Label A = Label.label( "A" );
+    private static final RelationshipType R = RelationshipType.withName( "R" );
+
+    private final File storeDir = new File( "db" ).getAbsoluteFile();
+    private EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
+    private GraphDatabaseAPI db;
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if ( db != null )
+        {
+            db.shutdown();
+        }
+        fs.close();
+    }
+
+    @Test
+    public void shouldRecoverCountsOfTransactionsAfterLastCheckpoint() throws Exception
+    {
+        // given
+        db = startDatabase( true );
+        createNodes( 10 );
+        db.getDependencyResolver().resolveDependency( CheckPointer.class ).forceCheckPoint( new SimpleTriggerInfo( "test" ) );
+        createNodes( 5 );
+
+        // when
+        EphemeralFileSystemAbstraction crashed = fs.snapshot();
+        db.shutdown();
+        fs.close();
+        fs = crashed;
+        db = startDatabase( true );
+
+        // then
+        assertThat( countsStore(), instanceOf( GBPTreeCountsStore.class ) );
+        assertCounts( 15 );
+    }
+
+    @Test
+    public void shouldMigrateCountsOfExistingDatabase()
+    {
+        // given
+        db = startDatabase( false );
+        createNodes( 7 );
+        db.shutdown();
+
+        // when
+        db = startDatabase( true );
+
+        // then
+        assertThat( countsStore(), instanceOf( GBPTreeCountsStore.class ) );
+        assertCounts( 7 );
+        DatabaseLayout layout = db.databaseLayout();
+        assertTrue( fs.fileExists( layout.countsTreeStore() ) );
+        assertFalse( fs.fileExists( layout.countStoreA() ) );
+        assertFalse( fs.fileExists( layout.countStoreB() ) );
+
+        // when
+        createNodes( 2 );
+        db.shutdown();
+        db = startDatabase( false );
+
+        // then
+        assertThat( countsStore(), instanceOf( CountsTracker.class ) );
+        assertCounts( 9 );
+        assertFalse( fs.fileExists( layout.countsTreeStore() ) );
+    }
+
+    private GraphDatabaseAPI startDatabase( boolean countsTree )
+    {
+        return (GraphDatabaseAPI) new TestGraphDatabaseFactory().setFileSystem( new UncloseableDelegatingFileSystemAbstraction( fs ) )
+                .newImpermanentDatabaseBuilder( storeDir )
+                .setConfig( GraphDatabaseSettings.counts_store_gbptree, countsTree ? Settings.TRUE : Settings.FALSE )
+                .newGraphDatabase();
+    }
+
+    private void createNodes( int count )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                Node node = db.createNode( A );
+                node.createRelationshipTo( db.createNode(), R );
+            }
+            tx.success();
+        }
+    }
+
+    private CountsStore countsStore()
+    {
+        return db.getDependencyResolver().resolveDependency( RecordStorageEngine.class ).testAccessNeoStores().getCounts();
+    }
+
+    private void assertCounts( long expectedLabeledNodes )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            KernelTransaction ktx = db.getDependencyResolver().resolveDependency( ThreadToStatementContextBridge.class )
+                    .getKernelTransactionBoundToThisThread( true );
+            TokenRead tokens = ktx.tokenRead();
+            int labelId = tokens.nodeLabel( A.name() );
+            int typeId = tokens.relationshipType( R.name() );
+            assertEquals( expectedLabeledNodes, ktx.dataRead().countsForNode( labelId ) );
+            assertEquals( 2 * expectedLabeledNodes, ktx.dataRead().countsForNode( TokenRead.NO_TOKEN ) );
+            assertEquals( expectedLabeledNodes, ktx.dataRead().countsForRelationship( labelId, typeId, TokenRead.NO_TOKEN ) );
+            assertEquals( expectedLabeledNodes, ktx.dataRead().countsForRelationship( TokenRead.NO_TOKEN, typeId, TokenRead.NO_TOKEN ) );
+            tx.success();
+        }
+    }
+}
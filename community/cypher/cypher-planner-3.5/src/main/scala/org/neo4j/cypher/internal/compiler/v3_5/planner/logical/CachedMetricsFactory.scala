@@ -42,8 +42,8 @@ case class CachedMetricsFactory(metricsFactory: MetricsFactory) extends MetricsF
   def newCostModel(config: CypherPlannerConfiguration) =
     CachedFunction(metricsFactory.newCostModel(config: CypherPlannerConfiguration))
 
-  def newQueryGraphCardinalityModel(statistics: GraphStatistics): QueryGraphCardinalityModel = {
-    val wrapped: QueryGraphCardinalityModel = metricsFactory.newQueryGraphCardinalityModel(statistics)
+  def newQueryGraphCardinalityModel(statistics: GraphStatistics, evaluator: ExpressionEvaluator): QueryGraphCardinalityModel = {
+    val wrapped: QueryGraphCardinalityModel = metricsFactory.newQueryGraphCardinalityModel(statistics, evaluator)
     val cached = CachedFunction[QueryGraph, Metrics.QueryGraphSolverInput, SemanticTable, Cardinality] { (a, b, c) => wrapped(a, b, c) }
     new QueryGraphCardinalityModel {
       override def apply(queryGraph: QueryGraph, input: Metrics.QueryGraphSolverInput, semanticTable: SemanticTable): Cardinality = {
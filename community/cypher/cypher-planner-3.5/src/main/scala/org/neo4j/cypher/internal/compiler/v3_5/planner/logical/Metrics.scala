@@ -90,6 +90,13 @@ trait ExpressionEvaluator {
   def evaluateExpression(expr: Expression): Option[Any]
 }
 
+object ExpressionEvaluator {
+  // Knows the value of no expression, for planning without any values at hand
+  val empty: ExpressionEvaluator = new ExpressionEvaluator {
+    override def evaluateExpression(expr: Expression): Option[Any] = None
+  }
+}
+
 case class Metrics(cost: CostModel,
                    cardinality: CardinalityModel,
                    queryGraphCardinalityModel: QueryGraphCardinalityModel)
@@ -97,10 +104,10 @@ case class Metrics(cost: CostModel,
 trait MetricsFactory {
   def newCardinalityEstimator(queryGraphCardinalityModel: QueryGraphCardinalityModel, expressionEvaluator: ExpressionEvaluator): CardinalityModel
   def newCostModel(config: CypherPlannerConfiguration): CostModel
-  def newQueryGraphCardinalityModel(statistics: GraphStatistics): QueryGraphCardinalityModel
+  def newQueryGraphCardinalityModel(statistics: GraphStatistics, expressionEvaluator: ExpressionEvaluator): QueryGraphCardinalityModel
 
   def newMetrics(statistics: GraphStatistics,expressionEvaluator: ExpressionEvaluator, config: CypherPlannerConfiguration) = {
-    val queryGraphCardinalityModel = newQueryGraphCardinalityModel(statistics)
+    val queryGraphCardinalityModel = newQueryGraphCardinalityModel(statistics, expressionEvaluator)
     val cardinality = newCardinalityEstimator(queryGraphCardinalityModel, expressionEvaluator)
     Metrics(newCostModel(config), cardinality, queryGraphCardinalityModel)
   }
@@ -19,19 +19,31 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_5.planner.logical.cardinality
 
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.ExpressionEvaluator
 import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.plans._
 import org.neo4j.cypher.internal.ir.v3_5.Selections
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics._
 import org.neo4j.cypher.internal.planner.v3_5.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.v3_5.spi.PropertyHistogram
+import org.neo4j.cypher.internal.v3_5.logical.plans.ManySeekableArgs
 import org.neo4j.cypher.internal.v3_5.logical.plans.PrefixRange
+import org.neo4j.cypher.internal.v3_5.logical.plans.SeekableArgs
+import org.neo4j.cypher.internal.v3_5.logical.plans.SingleSeekableArg
 import org.neo4j.cypher.internal.v3_5.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.v3_5.expressions._
 import org.neo4j.cypher.internal.v3_5.util.Cardinality
 import org.neo4j.cypher.internal.v3_5.util.LabelId
 import org.neo4j.cypher.internal.v3_5.util.Selectivity
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
 
-case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner) {
+import scala.collection.JavaConverters._
+
+case class ExpressionSelectivityCalculator(stats: GraphStatistics,
+                                           combiner: SelectivityCombiner,
+                                           evaluator: ExpressionEvaluator = ExpressionEvaluator.empty) {
 
   def apply(exp: Expression)(implicit semanticTable: SemanticTable, selections: Selections): Selectivity = exp match {
     // WHERE a:Label
@@ -48,7 +60,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // WHERE x.prop =/IN ...
     case AsPropertySeekable(seekable) =>
-      calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, selections, seekable.propertyKey)
+      calculateSelectivityForPropertyEquality(seekable.name, seekable.args, selections, seekable.propertyKey)
 
     // WHERE x.prop STARTS WITH 'prefix'
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(StringLiteral(prefix)), _, _, _)) =>
@@ -158,11 +170,12 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   }
 
   private def calculateSelectivityForPropertyEquality(variable: String,
-                                                      sizeHint: Option[Int],
+                                                      args: SeekableArgs,
                                                       selections: Selections,
                                                       propertyKey: PropertyKeyName)
                                                      (implicit semanticTable: SemanticTable): Selectivity = {
     val labels = selections.labelsOnNode(variable)
+    val sizeHint = args.sizeHint
     val indexSelectivities = labels.toIndexedSeq.flatMap {
       labelName =>
         (semanticTable.id(labelName), semanticTable.id(propertyKey)) match {
@@ -179,9 +192,23 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
         }
     }
 
+    // With values known at plan time and histograms for all indexes, look up how common the actual values are
+    val histogramSelectivities = for {
+      labelName <- labels.toIndexedSeq
+      labelId <- semanticTable.id(labelName)
+      propertyKeyId <- semanticTable.id(propertyKey)
+      descriptor = IndexDescriptor(labelId, Seq(propertyKeyId))
+      propExists <- stats.indexPropertyExistsSelectivity(descriptor)
+      histogram <- stats.propertyHistogram(descriptor)
+      values <- knownValues(args)
+      propEqualsValues <- equalitySelectivity(histogram, values)
+    } yield propExists * propEqualsValues
+
     val itemSelectivity = combiner.orTogetherSelectivities(indexSelectivities).getOrElse(DEFAULT_EQUALITY_SELECTIVITY)
     val size = sizeHint.getOrElse(DEFAULT_LIST_CARDINALITY.amount.toInt)
-    if (size == 0) {
+    if (histogramSelectivities.nonEmpty && histogramSelectivities.size == indexSelectivities.size) {
+      combiner.orTogetherSelectivities(histogramSelectivities).get
+    } else if (size == 0) {
       Selectivity.ZERO
     } else {
       combiner.orTogetherSelectivities(1.to(size).map(_ => itemSelectivity)).getOrElse(DEFAULT_EQUALITY_SELECTIVITY)
@@ -202,6 +229,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
       }
     }
 
+    lazy val knownBounds = knownRangeBounds(seekable.expr.inequalities.toIndexedSeq)
     val labels: Set[LabelName] = selections.labelsOnNode(seekable.ident.name)
     val indexRangeSelectivities: Seq[Selectivity] = labels.toIndexedSeq.flatMap {
       labelName =>
@@ -209,7 +237,14 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
           case (Some(labelId), Some(propertyKeyId)) =>
             val descriptor = IndexDescriptor(labelId, Seq(propertyKeyId))
 
-            for {
+            val histogramSelectivity = for {
+              propertyExistsSelectivity <- stats.indexPropertyExistsSelectivity(descriptor)
+              histogram <- stats.propertyHistogram(descriptor)
+              (lower, upper) <- knownBounds
+              pRange <- histogram.rangeSelectivity(lower, upper)
+            } yield pRange * propertyExistsSelectivity
+
+            histogramSelectivity orElse (for {
               propertyExistsSelectivity <- stats.indexPropertyExistsSelectivity(descriptor)
               propEqValueSelectivity <- stats.uniqueValueSelectivity(descriptor)
             } yield {
@@ -219,7 +254,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
               val pRange = Selectivity(if (seekable.hasEquality) propEqValueSelectivity.factor + pNeqRange else pNeqRange)
               val pRangeBounded = Selectivity(math.max(propEqValueSelectivity.factor, pRange.factor))
               pRangeBounded * propertyExistsSelectivity
-            }
+            })
 
           case _ =>
             Some(Selectivity.ZERO)
@@ -228,6 +263,63 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     combiner.orTogetherSelectivities(indexRangeSelectivities).getOrElse(default)
   }
 
+  private def knownValues(args: SeekableArgs): Option[Seq[AnyRef]] = args match {
+    case SingleSeekableArg(KnownValue(value)) => Some(Seq(value))
+    case ManySeekableArgs(ListLiteral(expressions)) =>
+      val values = expressions.collect { case KnownValue(value) => value }
+      if (values.size == expressions.size) Some(values) else None
+    case ManySeekableArgs(parameter: Parameter) =>
+      evaluator.evaluateExpression(parameter).collect { case list: ListValue => list.asScala.toIndexedSeq }.flatMap { items =>
+        val values = items.flatMap(knownValue)
+        if (values.size == items.size) Some(values) else None
+      }
+    case _ => None
+  }
+
+  private def equalitySelectivity(histogram: PropertyHistogram, values: Seq[AnyRef]): Option[Selectivity] = {
+    val selectivities = values.distinct.flatMap(histogram.equalitySelectivity)
+    if (selectivities.size == values.distinct.size)
+      Selectivity.of(math.min(1.0, selectivities.map(_.factor).sum))
+    else
+      None
+  }
+
+  /*
+      Bounds of a range of known values with at most one bound on each side, as (lower, upper) of (value, inclusive)
+   */
+  private def knownRangeBounds(inequalities: Seq[InequalityExpression]): Option[(Option[(AnyRef, Boolean)], Option[(AnyRef, Boolean)])] = {
+    val lower = inequalities.collect {
+      case GreaterThan(_, KnownValue(value)) => (value, false)
+      case GreaterThanOrEqual(_, KnownValue(value)) => (value, true)
+    }
+    val upper = inequalities.collect {
+      case LessThan(_, KnownValue(value)) => (value, false)
+      case LessThanOrEqual(_, KnownValue(value)) => (value, true)
+    }
+    if (lower.size <= 1 && upper.size <= 1 && lower.size + upper.size == inequalities.size)
+      Some((lower.headOption, upper.headOption))
+    else
+      None
+  }
+
+  /*
+      The value of a literal, or of a parameter whose value is known at plan time. Literals in the query text are
+      extracted into such parameters before planning, so this is how their values reach the histograms.
+   */
+  private object KnownValue {
+    def unapply(expression: Expression): Option[AnyRef] = expression match {
+      case _: Null => None
+      case literal: Literal => Some(literal.value)
+      case parameter: Parameter => evaluator.evaluateExpression(parameter).flatMap(knownValue)
+      case _ => None
+    }
+  }
+
+  private def knownValue(value: Any): Option[AnyRef] = value match {
+    case value: Value if value ne Values.NO_VALUE => Some(value.asObject())
+    case _ => None
+  }
+
   private def calculateSelectivityForPointDistanceSeekable(seekable: PointDistanceSeekable,
                                                         selections: Selections)
                                                        (implicit semanticTable: SemanticTable): Selectivity = {
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_5.planner.logical.cardinality.assumeIndependence
 
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.ExpressionEvaluator
 import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.Metrics.{QueryGraphCardinalityModel, QueryGraphSolverInput}
 import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.cardinality.{ExpressionSelectivityCalculator, SelectivityCombiner}
 import org.neo4j.cypher.internal.v3_5.ast.semantics.SemanticTable
@@ -27,11 +28,13 @@ import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics
 import org.neo4j.cypher.internal.v3_5.util.{Cardinality, Selectivity}
 import org.neo4j.cypher.internal.v3_5.expressions.LabelName
 
-case class AssumeIndependenceQueryGraphCardinalityModel(stats: GraphStatistics, combiner: SelectivityCombiner)
+case class AssumeIndependenceQueryGraphCardinalityModel(stats: GraphStatistics,
+                                                        combiner: SelectivityCombiner,
+                                                        evaluator: ExpressionEvaluator = ExpressionEvaluator.empty)
   extends QueryGraphCardinalityModel {
   import AssumeIndependenceQueryGraphCardinalityModel.MAX_OPTIONAL_MATCH
 
-  override val expressionSelectivityCalculator = ExpressionSelectivityCalculator(stats, combiner)
+  override val expressionSelectivityCalculator = ExpressionSelectivityCalculator(stats, combiner, evaluator)
   private val patternSelectivityCalculator = PatternSelectivityCalculator(stats, combiner)
 
   /**
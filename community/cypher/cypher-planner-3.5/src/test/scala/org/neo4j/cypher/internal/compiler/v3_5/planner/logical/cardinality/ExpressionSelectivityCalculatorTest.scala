@@ -23,6 +23,8 @@ import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito.when
 import org.mockito.invocation.InvocationOnMock
 import org.mockito.stubbing.Answer
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.ExpressionEvaluator
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.SimpleMetricsFactory
 import org.neo4j.cypher.internal.ir.v3_5._
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics.DEFAULT_EQUALITY_SELECTIVITY
@@ -33,6 +35,7 @@ import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics.DEFAULT_RANGE_
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics.DEFAULT_STRING_LENGTH
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics.DEFAULT_TYPE_SELECTIVITY
 import org.neo4j.cypher.internal.planner.v3_5.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.v3_5.spi.PropertyHistogram
 import org.neo4j.cypher.internal.v3_5.ast._
 import org.neo4j.cypher.internal.v3_5.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.v3_5.expressions.LessThan
@@ -41,6 +44,8 @@ import org.neo4j.cypher.internal.v3_5.expressions.functions.Distance
 import org.neo4j.cypher.internal.v3_5.expressions.functions.Exists
 import org.neo4j.cypher.internal.v3_5.util._
 import org.neo4j.cypher.internal.v3_5.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
 
 class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
 
@@ -901,6 +906,137 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     eqResult should equal(IndependenceCombiner.orTogetherSelectivities(for (_ <- 1 to DEFAULT_LIST_CARDINALITY.amount.toInt) yield resFor1).get)
   }
 
+  // HISTOGRAMS
+
+  // 0 is in half of the entries, the others are spread evenly over 0 to 100
+  private val skewedHistogram = new PropertyHistogram {
+    override def equalitySelectivity(value: AnyRef): Option[Selectivity] = value match {
+      case v: java.lang.Long if v == 0 => Some(Selectivity(0.5))
+      case _: java.lang.Long => Some(Selectivity(0.005))
+      case _ => None
+    }
+
+    override def rangeSelectivity(lower: Option[(AnyRef, Boolean)], upper: Option[(AnyRef, Boolean)]): Option[Selectivity] =
+      (lower, upper) match {
+        case (Some((from: java.lang.Long, _)), None) => Some(Selectivity(0.5 * (100 - from) / 100))
+        case _ => None
+      }
+  }
+
+  test("equality with one label and histogram, frequent value") {
+    val equals = Predicate(Set("n"), Equals(nProp, SignedDecimalIntegerLiteral("0") _) _)
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)))
+    val eqResult = calculator(equals.expr)
+
+    eqResult.factor should equal(0.2 * 0.5)
+  }
+
+  test("equality with one label and histogram, list of values") {
+    val equals = Predicate(Set("n"), In(nProp, listOf(SignedDecimalIntegerLiteral("3") _, SignedDecimalIntegerLiteral("4") _)) _)
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)))
+    val eqResult = calculator(equals.expr)
+
+    eqResult.factor should equal(0.2 * 0.01 +- 0.00000001)
+  }
+
+  test("equality with one label and histogram, value not covered by histogram") {
+    val equals = Predicate(Set("n"), Equals(nProp, StringLiteral("a") _) _)
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)))
+    val eqResult = calculator(equals.expr)
+
+    eqResult.factor should equal(0.2 * (1.0 / 180.0))
+  }
+
+  test("equality with one label and histogram, parameter") {
+    val equals = Predicate(Set("n"), Equals(nProp, Parameter("p", symbols.CTAny) _) _)
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)))
+    val eqResult = calculator(equals.expr)
+
+    eqResult.factor should equal(0.2 * (1.0 / 180.0))
+  }
+
+  // literals are extracted into parameters like these before planning, with their values known at plan time
+  private val autoIntZero = Parameter("  AUTOINT0", symbols.CTInteger) _
+  private val autoIntEighty = Parameter("  AUTOINT1", symbols.CTInteger) _
+  private val autoList = Parameter("  AUTOLIST2", symbols.CTList(symbols.CTAny)) _
+
+  private val planTimeValues = new ExpressionEvaluator {
+    override def evaluateExpression(expr: Expression): Option[Any] = expr match {
+      case Parameter("  AUTOINT0", _) => Some(Values.longValue(0))
+      case Parameter("  AUTOINT1", _) => Some(Values.longValue(80))
+      case Parameter("  AUTOLIST2", _) => Some(VirtualValues.list(Values.longValue(3), Values.longValue(4)))
+      case _ => None
+    }
+  }
+
+  test("equality with one label and histogram, parameter with value known at plan time") {
+    val equals = Predicate(Set("n"), Equals(nProp, autoIntZero) _)
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)), planTimeValues)
+    val eqResult = calculator(equals.expr)
+
+    eqResult.factor should equal(0.2 * 0.5)
+  }
+
+  test("equality with one label and histogram, list parameter with values known at plan time") {
+    val equals = Predicate(Set("n"), In(nProp, autoList) _)
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)), planTimeValues)
+    val eqResult = calculator(equals.expr)
+
+    eqResult.factor should equal(0.2 * 0.01 +- 0.00000001)
+  }
+
+  test("equality with one label and histogram, parameter with value unknown at plan time") {
+    val equals = Predicate(Set("n"), Equals(nProp, Parameter("p", symbols.CTAny) _) _)
+
+    val calculator = setUpCalculator(equals, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)), planTimeValues)
+    val eqResult = calculator(equals.expr)
+
+    eqResult.factor should equal(0.2 * (1.0 / 180.0))
+  }
+
+  test("half-open (>) range with one label and histogram, parameter with value known at plan time") {
+    val inequality = Predicate(Set("n"), AndedPropertyInequalities(varFor("n"), nProp, NonEmptyList(
+      GreaterThan(nProp, autoIntEighty) _
+    )))
+
+    val calculator = setUpCalculator(inequality, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)), planTimeValues)
+    val inequalityResult = calculator(inequality.expr)
+
+    inequalityResult.factor should equal(0.2 * 0.1 +- 0.00000001)
+  }
+
+  test("default metrics estimate auto-parameterized literals from the histogram") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("Person", indexPerson.label)
+    semanticTable.resolvedPropertyKeyNames.put("prop", indexPerson.property)
+    val equals = Predicate(Set("n"), Equals(nProp, autoIntZero) _)
+    implicit val selections = Selections(Set(equals, nIsPerson))
+    val stats = mockStats(histograms = Map(indexPerson -> skewedHistogram))
+
+    val withoutValues = SimpleMetricsFactory.newQueryGraphCardinalityModel(stats, ExpressionEvaluator.empty).expressionSelectivityCalculator
+    val withValues = SimpleMetricsFactory.newQueryGraphCardinalityModel(stats, planTimeValues).expressionSelectivityCalculator
+
+    withoutValues(equals.expr).factor should equal(0.2 * (1.0 / 180.0))
+    withValues(equals.expr).factor should equal(0.2 * 0.5)
+  }
+
+  test("half-open (>) range with one label and histogram") {
+    val inequality = Predicate(Set("n"), AndedPropertyInequalities(varFor("n"), nProp, NonEmptyList(
+      GreaterThan(nProp, SignedDecimalIntegerLiteral("80") _) _
+    )))
+
+    val calculator = setUpCalculator(inequality, Seq(nIsPerson), mockStats(histograms = Map(indexPerson -> skewedHistogram)))
+    val inequalityResult = calculator(inequality.expr)
+
+    inequalityResult.factor should equal(0.2 * 0.1 +- 0.00000001)
+  }
+
   // OTHER
 
   test("Should peek inside sub predicates") {
@@ -932,7 +1068,8 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
 
   // HELPER METHODS
 
-  private def setUpCalculator(predicate: Predicate, hasLabels: Seq[Predicate], stats: GraphStatistics = mockStats()): Expression => Selectivity = {
+  private def setUpCalculator(predicate: Predicate, hasLabels: Seq[Predicate], stats: GraphStatistics = mockStats(),
+                              evaluator: ExpressionEvaluator = ExpressionEvaluator.empty): Expression => Selectivity = {
     implicit val semanticTable = SemanticTable()
     semanticTable.resolvedLabelNames.put("Person", indexPerson.label)
     semanticTable.resolvedLabelNames.put("Animal", indexAnimal.label)
@@ -940,7 +1077,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
 
     implicit val selections = Selections(Set(predicate) ++ hasLabels)
     val combiner = IndependenceCombiner
-    val calculator = ExpressionSelectivityCalculator(stats, combiner)
+    val calculator = ExpressionSelectivityCalculator(stats, combiner, evaluator)
     exp: Expression => calculator(exp)
   }
 
@@ -949,11 +1086,13 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     * @param labelCardinalities       for each label, the number of nodes that have that label
     * @param indexCardinalities       for each index, the number of values in that index
     * @param indexUniqueCardinalities for each index, the number of unique values in that index
+    * @param histograms               for each index, the distribution of its values
     */
   private def mockStats(allNodesCardinality: Double = 10000.0,
                         labelCardinalities: Map[LabelId, Double] = Map(indexPerson.label -> 1000.0),
                         indexCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 200.0),
-                        indexUniqueCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 180.0)): GraphStatistics = {
+                        indexUniqueCardinalities: Map[IndexDescriptor, Double] = Map(indexPerson -> 180.0),
+                        histograms: Map[IndexDescriptor, PropertyHistogram] = Map.empty): GraphStatistics = {
 
     // sanity check:
     for {
@@ -998,6 +1137,11 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
       }
     })
 
+    when(stats.propertyHistogram(any())).thenAnswer(new Answer[Option[PropertyHistogram]] {
+      override def answer(invocationOnMock: InvocationOnMock): Option[PropertyHistogram] =
+        histograms.get(invocationOnMock.getArgument[IndexDescriptor](0))
+    })
+
     stats
   }
 }
@@ -118,6 +118,13 @@ class EagerResult implements Result, QueryResultProvider
         return new EagerQueryResult();
     }
 
+    @Override
+    public ResourceIterator<AnyValue[]> recordIterator()
+    {
+        String[] fields = originalResult.columns().toArray( new String[0] );
+        return map( row -> toRecord( fields, row ) );
+    }
+
     @Override
     public String resultAsString()
     {
@@ -196,6 +203,16 @@ class EagerResult implements Result, QueryResultProvider
         }
     }
 
+    private static AnyValue[] toRecord( String[] fields, Map<String,Object> row )
+    {
+        AnyValue[] anyValues = new AnyValue[fields.length];
+        for ( int i = 0; i < fields.length; i++ )
+        {
+            anyValues[i] = ValueUtils.of( row.get( fields[i] ) );
+        }
+        return anyValues;
+    }
+
     private class EagerResultResourceIterator<T> implements ResourceIterator<T>
     {
         private final String column;
@@ -246,14 +263,7 @@ class EagerResult implements Result, QueryResultProvider
         {
             while ( hasNext() )
             {
-                Map<String,Object> row = next();
-                AnyValue[] anyValues = new AnyValue[fields.length];
-
-                for ( int i = 0; i < fields.length; i++ )
-                {
-                    anyValues[i] = ValueUtils.of( row.get( fields[i] ) );
-                }
-
+                AnyValue[] anyValues = toRecord( fields, next() );
                 visitor.visit( () -> anyValues );
             }
         }
@@ -25,12 +25,14 @@ import org.neo4j.cypher.CypherException;
 import org.neo4j.cypher.internal.CacheTracer;
 import org.neo4j.cypher.internal.CompilerFactory;
 import org.neo4j.cypher.internal.CypherConfiguration;
+import org.neo4j.cypher.internal.PreparedCypherQuery;
 import org.neo4j.cypher.internal.StringCacheMonitor;
 import org.neo4j.cypher.internal.tracing.CompilationTracer;
 import org.neo4j.cypher.internal.tracing.TimingCompilationTracer;
 import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.graphdb.Result;
 import org.neo4j.kernel.GraphDatabaseQueryService;
+import org.neo4j.kernel.impl.query.PreparedQuery;
 import org.neo4j.kernel.impl.query.QueryExecution;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
@@ -104,6 +106,30 @@ public class ExecutionEngine implements QueryExecutionEngine
         }
     }
 
+    @Override
+    public PreparedQuery prepareQuery( String query )
+    {
+        return inner.prepare( query );
+    }
+
+    @Override
+    public Result executeQuery( PreparedQuery query, MapValue parameters, TransactionalContext context )
+            throws QueryExecutionKernelException
+    {
+        if ( !(query instanceof PreparedCypherQuery) )
+        {
+            return executeQuery( query.queryText(), parameters, context );
+        }
+        try
+        {
+            return inner.execute( (PreparedCypherQuery) query, parameters, context, false );
+        }
+        catch ( CypherException e )
+        {
+            throw new QueryExecutionKernelException( e );
+        }
+    }
+
     @Override
     public boolean isPeriodicCommit( String query )
     {
@@ -41,6 +41,7 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Result;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
+import org.neo4j.values.AnyValue;
 import org.neo4j.values.virtual.MapValue;
 
 /**
@@ -395,6 +396,19 @@ public class ExecutionResult implements ResourceIterable<Map<String,Object>>, Re
         return inner;
     }
 
+    @Override
+    public ResourceIterator<AnyValue[]> recordIterator()
+    {
+        try
+        {
+            return new ExceptionConversion<>( inner.recordIterator() );
+        }
+        catch ( CypherException e )
+        {
+            throw converted( e );
+        }
+    }
+
     @Override
     public QueryResult queryResult()
     {
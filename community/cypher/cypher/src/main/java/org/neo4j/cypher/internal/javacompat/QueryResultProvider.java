@@ -20,7 +20,9 @@
 package org.neo4j.cypher.internal.javacompat;
 
 import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Result;
+import org.neo4j.values.AnyValue;
 
 /**
  * Interface for {@link Result} of query executions that are aware how to represent their result as {@link QueryResult}
@@ -28,4 +30,12 @@ import org.neo4j.graphdb.Result;
 public interface QueryResultProvider
 {
     QueryResult queryResult();
+
+    /**
+     * Iterates over the field values of the records of this result, in the order of {@link QueryResult#fieldNames()},
+     * producing each record only when it is pulled. Use either this or the visitor of {@link #queryResult()}, not both.
+     *
+     * @return an iterator over the records of this result, which closes the result when it is closed.
+     */
+    ResourceIterator<AnyValue[]> recordIterator();
 }
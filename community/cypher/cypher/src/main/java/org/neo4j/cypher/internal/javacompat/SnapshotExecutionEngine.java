@@ -26,6 +26,7 @@ import org.neo4j.io.pagecache.tracing.cursor.context.VersionContext;
 import org.neo4j.kernel.GraphDatabaseQueryService;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.KernelStatement;
+import org.neo4j.kernel.impl.query.PreparedQuery;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
 import org.neo4j.kernel.impl.query.TransactionalContext;
 import org.neo4j.logging.LogProvider;
@@ -55,6 +56,14 @@ public class SnapshotExecutionEngine extends ExecutionEngine
         return executeWithRetries( query, parameters, context, super::executeQuery );
     }
 
+    @Override
+    public Result executeQuery( PreparedQuery query, MapValue parameters, TransactionalContext context )
+            throws QueryExecutionKernelException
+    {
+        return executeWithRetries( query.queryText(), parameters, context,
+                ( queryText, params, ctx ) -> super.executeQuery( query, params, ctx ) );
+    }
+
     @Override
     public Result profileQuery( String query, MapValue parameters, TransactionalContext context )
             throws QueryExecutionKernelException
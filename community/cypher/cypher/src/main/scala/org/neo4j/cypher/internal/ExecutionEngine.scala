@@ -87,12 +87,31 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
   def profile(query: String, params: MapValue, context: TransactionalContext): Result =
     execute(query, params, context, profile = true)
 
-  def execute(query: String, params: MapValue, context: TransactionalContext, profile: Boolean = false): Result = {
+  def execute(query: String, params: MapValue, context: TransactionalContext, profile: Boolean = false): Result =
+    execute(query, params, context, profile, None)
+
+  def prepare(query: String): PreparedCypherQuery = new PreparedCypherQuery(query)
+
+  def execute(query: PreparedCypherQuery, params: MapValue, context: TransactionalContext, profile: Boolean): Result =
+    execute(query.queryText, params, context, profile, Some(query))
+
+  private def execute(query: String,
+                      params: MapValue,
+                      context: TransactionalContext,
+                      profile: Boolean,
+                      prepared: Option[PreparedCypherQuery]): Result = {
     val queryTracer = tracer.compileQuery(query)
 
     try {
-      val preParsedQuery = preParser.preParseQuery(query, profile)
-      val executableQuery = getOrCompile(context, preParsedQuery, queryTracer, params)
+      val resolved = prepared.flatMap(_.resolvedFor(profile, params))
+      val preParsedQuery = resolved.map(_.preParsedQuery).getOrElse(preParser.preParseQuery(query, profile))
+      val (executableQuery, cacheKey) = getOrCompile(context, preParsedQuery, queryTracer, params, resolved.map(_.entry))
+      // hold on to the new cache entry of a prepared query, once the one it held has left the cache
+      if (!resolved.exists(_.entry.isCached)) {
+        for (preparedQuery <- prepared; entry <- queryCache.entry(cacheKey) if entry.executableQuery eq executableQuery) {
+          preparedQuery.resolve(preParsedQuery, profile, entry)
+        }
+      }
       if (preParsedQuery.executionMode.name != "explain") {
         checkParameters(executableQuery.paramNames, params, executableQuery.extractedParams)
       }
@@ -139,9 +158,11 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
   private def getOrCompile(context: TransactionalContext,
                            preParsedQuery: PreParsedQuery,
                            tracer: QueryCompilationEvent,
-                           params: MapValue
-                          ): ExecutableQuery = {
-    val cacheKey = Pair.of(preParsedQuery.statementWithVersionAndPlanner, QueryCache.extractParameterTypeMap(params))
+                           params: MapValue,
+                           cacheEntry: Option[CacheEntry[Pair[String, ParameterTypeMap], ExecutableQuery]]
+                          ): (ExecutableQuery, Pair[String, ParameterTypeMap]) = {
+    val cacheKey = cacheEntry.map(_.queryKey)
+      .getOrElse(Pair.of(preParsedQuery.statementWithVersionAndPlanner, QueryCache.extractParameterTypeMap(params)))
 
     // create transaction and query context
     val tc = context.getOrBeginNewIfClosed()
@@ -153,18 +174,23 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
 
         val schemaToken = schemaHelper.readSchemaToken(tc)
         val (primaryCompiler, secondaryCompiler) = compilers(preParsedQuery, tracer, tc, params)
-        val cacheLookup = queryCache.computeIfAbsentOrStale(cacheKey,
-                                                            tc,
-                                                            primaryCompiler,
-                                                            secondaryCompiler,
-                                                            preParsedQuery.rawStatement)
+        val cacheLookup = cacheEntry match {
+          case Some(entry) =>
+            queryCache.computeIfAbsentOrStaleFromEntry(entry, tc, primaryCompiler, secondaryCompiler, preParsedQuery.rawStatement)
+          case None =>
+            queryCache.computeIfAbsentOrStale(cacheKey,
+                                              tc,
+                                              primaryCompiler,
+                                              secondaryCompiler,
+                                              preParsedQuery.rawStatement)
+        }
         cacheLookup match {
           case _: CacheHit[_] |
                _: CacheDisabled[_] =>
             val executableQuery = cacheLookup.executableQuery
             if (schemaHelper.lockLabels(schemaToken, executableQuery, preParsedQuery.version, tc)) {
               tc.cleanForReuse()
-              return executableQuery
+              return (executableQuery, cacheKey)
             }
           case CacheMiss(executableQuery) =>
             // Do nothing. In the next attempt we will find the plan in the cache and
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
+import org.neo4j.helpers.collection.Pair
+import org.neo4j.kernel.impl.query.PreparedQuery
+import org.neo4j.values.virtual.MapValue
+
+/**
+  * A query prepared for repeated execution. It holds on to the pre-parsed query and the query cache entry of its
+  * last execution, so that executing it again with parameters of the same types skips pre-parsing the query and
+  * computing and looking up its cache key. Once the entry leaves the query cache, because it is evicted, the schema
+  * changes or the query is replanned or recompiled, the next execution looks the query up again and holds on to the
+  * new entry.
+  */
+class PreparedCypherQuery(override val queryText: String) extends PreparedQuery {
+
+  @volatile private var resolved: PreparedCypherQuery.Resolved = _
+
+  /**
+    * @return the pre-parsed query and the cache entry of the last execution, if the query was executed with the same
+    *         profile flag and parameters of the same types.
+    */
+  private[internal] def resolvedFor(profile: Boolean, params: MapValue): Option[PreparedCypherQuery.Resolved] = {
+    val current = resolved
+    if (current != null && current.profile == profile && PreparedCypherQuery.hasTypes(params, current.entry.queryKey.other()))
+      Some(current)
+    else
+      None
+  }
+
+  private[internal] def resolve(preParsedQuery: PreParsedQuery, profile: Boolean,
+                                entry: CacheEntry[Pair[String, ParameterTypeMap], ExecutableQuery]): Unit =
+    resolved = PreparedCypherQuery.Resolved(preParsedQuery, profile, entry)
+}
+
+object PreparedCypherQuery {
+
+  case class Resolved(preParsedQuery: PreParsedQuery,
+                      profile: Boolean,
+                      entry: CacheEntry[Pair[String, ParameterTypeMap], ExecutableQuery])
+
+  // Same as comparing with QueryCache.extractParameterTypeMap(params), without building the map
+  private def hasTypes(params: MapValue, types: ParameterTypeMap): Boolean =
+    params.size() == types.size && types.forall {
+      case (key, valueType) => params.containsKey(key) && params.get(key).getClass == valueType
+    }
+}
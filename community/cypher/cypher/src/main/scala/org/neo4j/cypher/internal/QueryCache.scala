@@ -19,7 +19,9 @@
  */
 package org.neo4j.cypher.internal
 
-import com.github.benmanes.caffeine.cache.{Cache, Caffeine}
+import java.util.concurrent.Executor
+
+import com.github.benmanes.caffeine.cache.{Cache, Caffeine, RemovalCause, RemovalListener}
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
 import org.neo4j.helpers.collection.Pair
 import org.neo4j.kernel.impl.query.TransactionalContext
@@ -37,6 +39,20 @@ case class CacheHit[EXECUTABLE_QUERY](executableQuery: EXECUTABLE_QUERY) extends
 case class CacheMiss[EXECUTABLE_QUERY](executableQuery: EXECUTABLE_QUERY) extends CacheLookup[EXECUTABLE_QUERY]
 case class CacheDisabled[EXECUTABLE_QUERY](executableQuery: EXECUTABLE_QUERY) extends CacheLookup[EXECUTABLE_QUERY]
 
+/**
+  * An entry of the cache, for callers that execute the same query again and again, like prepared statements. They
+  * hold on to the entry and look their query up through it, which skips computing its key and hashing it, for as
+  * long as the entry stays in the cache. Entries leave the cache when they are evicted, when the cache is cleared
+  * because the schema changed, and when their query is replanned or recompiled.
+  */
+trait CacheEntry[QUERY_KEY, EXECUTABLE_QUERY] {
+  def queryKey: QUERY_KEY
+
+  def executableQuery: EXECUTABLE_QUERY
+
+  def isCached: Boolean
+}
+
 /**
   * Tracer for cache activity.
   */
@@ -66,7 +82,17 @@ trait CacheTracer[QUERY_KEY] {
 class QueryCache[QUERY_REP <: AnyRef, QUERY_KEY <: Pair[QUERY_REP, ParameterTypeMap], EXECUTABLE_QUERY <: AnyRef](
     val maximumSize: Int, val stalenessCaller: PlanStalenessCaller[EXECUTABLE_QUERY], val tracer: CacheTracer[Pair[QUERY_REP, ParameterTypeMap]]) {
 
-  private val inner: Cache[QUERY_KEY, CachedValue] = Caffeine.newBuilder().maximumSize(maximumSize).build[QUERY_KEY, CachedValue]()
+  private val inner: Cache[QUERY_KEY, CachedValue] =
+    Caffeine.newBuilder()
+      .maximumSize(maximumSize)
+      // notify removed entries right away, so that holders of an entry never reuse a replaced query
+      .executor(new Executor {
+        override def execute(command: Runnable): Unit = command.run()
+      })
+      .removalListener(new RemovalListener[QUERY_KEY, CachedValue] {
+        override def onRemoval(key: QUERY_KEY, value: CachedValue, cause: RemovalCause): Unit = if (value != null) value.markRemoved()
+      })
+      .build[QUERY_KEY, CachedValue]()
 
   import QueryCache.NOT_PRESENT
 
@@ -74,9 +100,11 @@ class QueryCache[QUERY_REP <: AnyRef, QUERY_KEY <: Pair[QUERY_REP, ParameterType
     * The cached value wraps the value and maintains a count of how many times it has been fetched from the cache
     * and whether or not it has been recompiled.
     */
-  private class CachedValue(val value: EXECUTABLE_QUERY, val recompiled: Boolean) {
+  private class CachedValue(val queryKey: QUERY_KEY, val value: EXECUTABLE_QUERY, val recompiled: Boolean)
+    extends CacheEntry[QUERY_KEY, EXECUTABLE_QUERY] {
 
     @volatile private var _numberOfHits = 0
+    @volatile private var removed = false
 
     def markHit(): Unit = {
       if (!recompiled) {
@@ -86,6 +114,12 @@ class QueryCache[QUERY_REP <: AnyRef, QUERY_KEY <: Pair[QUERY_REP, ParameterType
 
     def numberOfHits: Int = _numberOfHits
 
+    def markRemoved(): Unit = removed = true
+
+    override def executableQuery: EXECUTABLE_QUERY = value
+
+    override def isCached: Boolean = !removed
+
     def canEqual(other: Any): Boolean = other.isInstanceOf[CachedValue]
 
     override def equals(other: Any): Boolean = other match {
@@ -126,32 +160,64 @@ class QueryCache[QUERY_REP <: AnyRef, QUERY_KEY <: Pair[QUERY_REP, ParameterType
           compileAndCache(queryKey, tc, compile, metaData)
 
         case cachedValue =>
-          //mark as seen from cache
-          cachedValue.markHit()
-
-          stalenessCaller.staleness(tc, cachedValue.value) match {
-            case NotStale =>
-              //check if query is up for recompilation
-              val newCachedValue = if (!cachedValue.recompiled) {
-                recompile(cachedValue.numberOfHits) match {
-                  case Some(recompiledQuery) =>
-                    tracer.queryCacheRecompile(queryKey, metaData)
-                    val recompiled = new CachedValue(recompiledQuery, recompiled = true)
-                    inner.put(queryKey, recompiled)
-                    recompiled
-                  case None => cachedValue
-                }
-              } else cachedValue
-
-              hit(queryKey, newCachedValue, metaData)
-            case Stale(secondsSincePlan) =>
-              tracer.queryCacheStale(queryKey, secondsSincePlan, metaData)
-              compileAndCache(queryKey, tc, compile, metaData)
-          }
+          reuseOrCompile(cachedValue, tc, compile, recompile, metaData)
       }
     }
   }
 
+  /**
+    * Like [[computeIfAbsentOrStale]], but starting from an entry that the caller held on to. As long as the entry is
+    * in the cache, its query is reused without looking up its key, otherwise the key of the entry is looked up.
+    */
+  def computeIfAbsentOrStaleFromEntry(entry: CacheEntry[QUERY_KEY, EXECUTABLE_QUERY],
+                                      tc: TransactionalContext,
+                                      compile: () => EXECUTABLE_QUERY,
+                                      recompile: (Int) => Option[EXECUTABLE_QUERY],
+                                      metaData: String
+                                     ): CacheLookup[EXECUTABLE_QUERY] = entry match {
+    case cachedValue: CachedValue if cachedValue.isCached =>
+      reuseOrCompile(cachedValue, tc, compile, recompile, metaData)
+    case _ =>
+      computeIfAbsentOrStale(entry.queryKey, tc, compile, recompile, metaData)
+  }
+
+  /**
+    * @return the entry cached for the given key, if any
+    */
+  def entry(queryKey: QUERY_KEY): Option[CacheEntry[QUERY_KEY, EXECUTABLE_QUERY]] =
+    if (maximumSize == 0) None else Option(inner.getIfPresent(queryKey))
+
+  private def reuseOrCompile(cachedValue: CachedValue,
+                             tc: TransactionalContext,
+                             compile: () => EXECUTABLE_QUERY,
+                             recompile: (Int) => Option[EXECUTABLE_QUERY],
+                             metaData: String
+                            ): CacheLookup[EXECUTABLE_QUERY] = {
+    val queryKey = cachedValue.queryKey
+    //mark as seen from cache
+    cachedValue.markHit()
+
+    stalenessCaller.staleness(tc, cachedValue.value) match {
+      case NotStale =>
+        //check if query is up for recompilation
+        val newCachedValue = if (!cachedValue.recompiled) {
+          recompile(cachedValue.numberOfHits) match {
+            case Some(recompiledQuery) =>
+              tracer.queryCacheRecompile(queryKey, metaData)
+              val recompiled = new CachedValue(queryKey, recompiledQuery, recompiled = true)
+              inner.put(queryKey, recompiled)
+              recompiled
+            case None => cachedValue
+          }
+        } else cachedValue
+
+        hit(queryKey, newCachedValue, metaData)
+      case Stale(secondsSincePlan) =>
+        tracer.queryCacheStale(queryKey, secondsSincePlan, metaData)
+        compileAndCache(queryKey, tc, compile, metaData)
+    }
+  }
+
   /**
     * Ensure this query is recompiled and put it in the cache.
     *
@@ -165,7 +231,7 @@ class QueryCache[QUERY_REP <: AnyRef, QUERY_KEY <: Pair[QUERY_REP, ParameterType
                         metaData: String
                        ): CacheLookup[EXECUTABLE_QUERY] = {
     val newExecutableQuery = compile()
-    inner.put(queryKey,  new CachedValue(newExecutableQuery, recompiled = false))
+    inner.put(queryKey,  new CachedValue(queryKey, newExecutableQuery, recompiled = false))
     miss(queryKey, newExecutableQuery, metaData)
   }
 
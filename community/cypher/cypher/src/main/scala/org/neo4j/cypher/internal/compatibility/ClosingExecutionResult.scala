@@ -32,6 +32,7 @@ import org.neo4j.graphdb.Result.ResultVisitor
 import org.neo4j.graphdb.{Notification, ResourceIterator}
 import org.neo4j.kernel.api.query.ExecutingQuery
 import org.neo4j.kernel.impl.query.QueryExecutionMonitor
+import org.neo4j.values.AnyValue
 
 /**
   * Ensures execution results are closed. This is tricky because we try to be smart about
@@ -100,6 +101,38 @@ class ClosingExecutionResult private(val query: ExecutingQuery,
     }
   }
 
+  override def recordIterator: graphdb.ResourceIterator[Array[AnyValue]] = {
+    safely {
+      val innerIterator = inner.recordIterator
+      closeIfEmpty(innerIterator)
+
+      new graphdb.ResourceIterator[Array[AnyValue]] {
+        def next(): Array[AnyValue] = safely {
+          if (inner.isClosed) throw new NoSuchElementException
+          else {
+            val result = innerIterator.next
+            closeIfEmpty(innerIterator)
+            result
+          }
+        }
+
+        def hasNext: Boolean = safely {
+          if (inner.isClosed) false
+          else {
+            closeIfEmpty(innerIterator)
+            innerIterator.hasNext
+          }
+        }
+
+        def close(): Unit = self.close()
+
+        def remove(): Unit = safely {
+          innerIterator.remove()
+        }
+      }
+    }
+  }
+
   override def fieldNames(): Array[String] = safely { inner.fieldNames() }
 
   override def queryStatistics(): QueryStatistics = safely { inner.queryStatistics() }
@@ -30,6 +30,8 @@ import org.neo4j.graphdb.Result.ResultVisitor
 import org.neo4j.graphdb.{Notification, ResourceIterator}
 import org.neo4j.kernel.api.query.ExecutingQuery
 import org.neo4j.kernel.impl.query.QueryExecutionMonitor
+import org.neo4j.kernel.impl.util.ValueUtils
+import org.neo4j.values.AnyValue
 
 /**
   * Compatibility version of `ClosingExecutionResult`, which is needed to correctly interface with
@@ -83,6 +85,14 @@ class CompatibilityClosingExecutionResult(val query: ExecutingQuery,
     }
   }
 
+  // The 2.3 and 3.1 runtimes only produce Java values, so these are converted here
+  override def recordIterator: graphdb.ResourceIterator[Array[AnyValue]] = {
+    val names = fieldNames()
+    javaIterator.map(new java.util.function.Function[java.util.Map[String, AnyRef], Array[AnyValue]] {
+      override def apply(row: java.util.Map[String, AnyRef]): Array[AnyValue] = names.map(name => ValueUtils.of(row.get(name)))
+    })
+  }
+
   override def fieldNames() = runSafely {
     inner.fieldNames()
   }
@@ -153,7 +153,8 @@ case class Cypher35Planner(config: CypherPlannerConfiguration,
                                           maybeUpdateStrategy.getOrElse(defaultUpdateStrategy),
                                           clock,
                                           logicalPlanIdGen,
-                                          simpleExpressionEvaluator(PlanningQueryContext(transactionalContext)))
+                                          simpleExpressionEvaluator(PlanningQueryContext(transactionalContext),
+                                                                    ValueConversion.asValues(syntacticQuery.extractedParams())))
 
       // Prepare query for caching
       val preparedQuery = planner.normalizeQuery(syntacticQuery, context)
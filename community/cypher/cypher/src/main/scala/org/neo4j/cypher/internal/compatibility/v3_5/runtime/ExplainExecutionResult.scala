@@ -29,6 +29,7 @@ import org.neo4j.cypher.result.QueryResult.QueryResultVisitor
 import org.neo4j.graphdb.Result.ResultVisitor
 import org.neo4j.graphdb.{Notification, ResourceIterator}
 import org.neo4j.helpers.collection.Iterators
+import org.neo4j.values.AnyValue
 
 case class ExplainExecutionResult(fieldNames: Array[String],
                                   planDescription: InternalPlanDescription,
@@ -39,6 +40,7 @@ case class ExplainExecutionResult(fieldNames: Array[String],
   override def initiate(): Unit = {}
 
   override def javaIterator: ResourceIterator[util.Map[String, AnyRef]] = Iterators.emptyResourceIterator()
+  override def recordIterator: ResourceIterator[Array[AnyValue]] = Iterators.emptyResourceIterator()
   override def javaColumns: util.List[String] = Collections.emptyList()
 
   override def queryStatistics() = QueryStatistics()
@@ -58,6 +58,18 @@ class PipeExecutionResult(val result: IteratorBasedResult,
     }
   }
 
+  override def asRecordIterator(): ResourceIterator[Array[AnyValue]] = {
+    resultRequested = true
+    new WrappingResourceIterator[Array[AnyValue]] {
+      private val inner = result.mapIterator
+      def hasNext: Boolean = inner.hasNext
+      def next(): Array[AnyValue] = {
+        val row: collection.Map[String, AnyValue] = inner.next()
+        fieldNames.map(row)
+      }
+    }
+  }
+
   override def queryStatistics(): QueryStatistics = state.getStatistics
 
   override def close(): Unit = {}
@@ -153,6 +153,34 @@ class StandardInternalExecutionResult(context: QueryContext,
     def close(): Unit = self.close()
   }
 
+  override def recordIterator: ResourceIterator[Array[AnyValue]] = records
+
+  /**
+    * Same as [[inner]], but serving the values of the records as they are.
+    */
+  protected final lazy val records: ResourceIterator[Array[AnyValue]] = {
+    if (!isMaterialized && runtimeResult.isIterable)
+      runtimeResult.asRecordIterator()
+    else {
+      if (!isMaterialized)
+        materializeResult()
+      new MaterializedRecordIterator()
+    }
+  }
+
+  private class MaterializedRecordIterator() extends ResourceIterator[Array[AnyValue]] {
+
+    private val inner = materializedResult.iterator()
+
+    def hasNext: Boolean = inner.hasNext
+
+    def next(): Array[AnyValue] = inner.next()
+
+    def remove(): Unit = throw new UnsupportedOperationException("remove")
+
+    def close(): Unit = self.close()
+  }
+
   /*
   ======= CONSUME WITH VISITOR ==========
    */
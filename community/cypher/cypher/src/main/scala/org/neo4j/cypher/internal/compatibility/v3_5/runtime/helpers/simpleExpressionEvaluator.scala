@@ -25,6 +25,7 @@ import org.neo4j.cypher.internal.planner.v3_5.spi.TokenContext
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.{CommunityExpressionConverter, ExpressionConverters}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{NullPipeDecorator, QueryState}
+import org.neo4j.values.virtual.MapValue
 import org.neo4j.values.virtual.VirtualValues
 import org.neo4j.cypher.internal.v3_5.expressions.Expression
 import org.neo4j.cypher.internal.v3_5.util.attribution.Id
@@ -32,9 +33,10 @@ import org.neo4j.cypher.internal.v3_5.util.{CypherException => InternalCypherExc
 
 import scala.collection.mutable
 
-case class simpleExpressionEvaluator(queryContext: QueryContext) extends ExpressionEvaluator {
+case class simpleExpressionEvaluator(queryContext: QueryContext, params: MapValue = VirtualValues.EMPTY_MAP) extends ExpressionEvaluator {
 
-  // Returns Some(value) if the expression can be independently evaluated in an empty context/query state, otherwise None
+  // Returns Some(value) if the expression can be independently evaluated in an empty context and a query state with
+  // only the given parameters, otherwise None
   def evaluateExpression(expr: Expression): Option[Any] = {
     val converters = new ExpressionConverters(CommunityExpressionConverter(TokenContext.EMPTY))
     val commandExpr = converters.toCommandExpression(Id.INVALID_ID, expr)
@@ -43,7 +45,7 @@ case class simpleExpressionEvaluator(queryContext: QueryContext) extends Express
       new QueryState(
         query = queryContext,
         resources = null,
-        params = VirtualValues.EMPTY_MAP,
+        params = params,
         decorator = NullPipeDecorator,
         triadicState = mutable.Map.empty,
         repeatableReads = mutable.Map.empty)
@@ -143,6 +143,90 @@ class QueryCacheTest extends CypherFunSuite {
     verify(tracer).queryCacheRecompile(key, "")
     verifyNoMoreInteractions(tracer)
   }
+
+  test("an entry held on to should be a cache hit for as long as it is cached") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer)
+    val key = newKey("foo")
+    cache.computeIfAbsentOrStale(key, TC, compileKey(key), recompile(key))
+    val entry = cache.entry(key).get
+
+    // When
+    val valueFromCache = cache.computeIfAbsentOrStaleFromEntry(entry, TC, compileKey(key), recompile(key), "")
+
+    // Then
+    valueFromCache should equal(CacheHit(valueFromKey(key)))
+    entry.queryKey should equal(key)
+    entry.isCached should equal(true)
+    verify(tracer).queryCacheMiss(key, "")
+    verify(tracer).queryCacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+  }
+
+  test("an entry held on to should leave the cache when its query is replanned") {
+    // Given
+    val cache = newCache(newTracer(), alwaysStale(17))
+    val key = newKey("foo")
+    cache.computeIfAbsentOrStale(key, TC, compileKey(key), recompile(key))
+    val entry = cache.entry(key).get
+
+    // When
+    val valueFromCache = cache.computeIfAbsentOrStaleFromEntry(entry, TC, compileKey(key), recompile(key), "")
+
+    // Then
+    valueFromCache should equal(CacheMiss(valueFromKey(key)))
+    entry.isCached should equal(false)
+    cache.entry(key).get.isCached should equal(true)
+  }
+
+  test("an entry held on to should leave the cache when its query is recompiled") {
+    // Given
+    val cache = newCache()
+    val key = newKey("foo")
+    cache.computeIfAbsentOrStale(key, TC, compileKey(key), recompile(key))
+    val entry = cache.entry(key).get
+
+    // When
+    (1 to 3).foreach(_ => cache.computeIfAbsentOrStaleFromEntry(entry, TC, compileKey(key), recompile(key), ""))
+
+    // Then
+    entry.isCached should equal(false)
+    cache.entry(key).get.executableQuery.recompiled should equal(true)
+  }
+
+  test("an entry held on to should leave the cache when the cache is cleared, and look up its key again") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer)
+    val key = newKey("foo")
+    cache.computeIfAbsentOrStale(key, TC, compileKey(key), recompile(key))
+    val entry = cache.entry(key).get
+
+    // When
+    cache.clear()
+    val valueFromCache = cache.computeIfAbsentOrStaleFromEntry(entry, TC, compileKey(key), recompile(key), "")
+
+    // Then
+    entry.isCached should equal(false)
+    valueFromCache should equal(CacheMiss(valueFromKey(key)))
+    verify(tracer, times(2)).queryCacheMiss(key, "")
+  }
+
+  test("entries should leave the cache when they are evicted") {
+    // Given
+    val cache = newCache()
+    val keys = (1 to 100).map(i => newKey(s"foo$i"))
+
+    // When
+    val entries = keys.flatMap { key =>
+      cache.computeIfAbsentOrStale(key, TC, compileKey(key), recompile(key))
+      cache.entry(key)
+    }
+
+    // Then
+    entries.count(_.isCached) should be <= 10
+  }
 }
 
   object QueryCacheTest extends MockitoSugar {
@@ -31,6 +31,7 @@ import org.neo4j.graphdb.{Notification, ResourceIterator, Result}
 import org.neo4j.helpers.collection.Iterators
 import org.neo4j.kernel.api.query.ExecutingQuery
 import org.neo4j.kernel.impl.query.QueryExecutionMonitor
+import org.neo4j.values.AnyValue
 import org.neo4j.cypher.internal.v3_5.util.test_helpers.CypherFunSuite
 
 class ClosingExecutionResultTest extends CypherFunSuite {
@@ -68,6 +69,10 @@ class ClosingExecutionResultTest extends CypherFunSuite {
     assertClosedAfterConsumption(result => Iterators.count(result.javaIterator))
   }
 
+  test("should close after recordIterator") {
+    assertClosedAfterConsumption(result => Iterators.count(result.recordIterator))
+  }
+
   test("should close after javaColumnAs.close") {
     assertClosedAfterConsumption(_.javaColumnAs[Int]("x").close())
   }
@@ -76,6 +81,10 @@ class ClosingExecutionResultTest extends CypherFunSuite {
     assertClosedAfterConsumption(_.javaIterator.close())
   }
 
+  test("should close after recordIterator.close") {
+    assertClosedAfterConsumption(_.recordIterator.close())
+  }
+
   test("should close after dumpToString I") {
     assertClosedAfterConsumption(_.dumpToString())
   }
@@ -171,6 +180,10 @@ class ClosingExecutionResultTest extends CypherFunSuite {
     assertCloseOnExplodingMethod(_.javaIterator, "DIRECT_EXPLODE")
   }
 
+  test("should close on exploding at create time recordIterator") {
+    assertCloseOnExplodingMethod(_.recordIterator, "DIRECT_EXPLODE")
+  }
+
   test("should close on exploding at hasNext time javaColumnAs") {
     assertCloseOnExplodingMethod(_.javaColumnAs[Int]("x").next(), "HAS_NEXT_EXPLODE", HAS_NEXT_EXPLODE)
   }
@@ -179,6 +192,10 @@ class ClosingExecutionResultTest extends CypherFunSuite {
     assertCloseOnExplodingMethod(_.javaIterator.next(), "HAS_NEXT_EXPLODE", HAS_NEXT_EXPLODE)
   }
 
+  test("should close on exploding at hasNext time recordIterator") {
+    assertCloseOnExplodingMethod(_.recordIterator.next(), "HAS_NEXT_EXPLODE", HAS_NEXT_EXPLODE)
+  }
+
   test("should close on exploding at next time javaColumnAs") {
     assertCloseOnExplodingMethod(_.javaColumnAs[Int]("x").next(), "NEXT_EXPLODE", NEXT_EXPLODE)
   }
@@ -187,6 +204,10 @@ class ClosingExecutionResultTest extends CypherFunSuite {
     assertCloseOnExplodingMethod(_.javaIterator.next(), "NEXT_EXPLODE", NEXT_EXPLODE)
   }
 
+  test("should close on exploding at next time recordIterator") {
+    assertCloseOnExplodingMethod(_.recordIterator.next(), "NEXT_EXPLODE", NEXT_EXPLODE)
+  }
+
   private def assertCloseOnExplodingMethod(f: ClosingExecutionResult => Unit,
                                            errorMsg: String,
                                            iteratorMode: IteratorMode = DIRECT_EXPLODE): Unit = {
@@ -263,6 +284,8 @@ class ClosingExecutionResultTest extends CypherFunSuite {
 
     override def javaIterator: ResourceIterator[util.Map[String, AnyRef]] = StubResourceInterator()
 
+    override def recordIterator: ResourceIterator[Array[AnyValue]] = StubResourceInterator()
+
     override def dumpToString(writer: PrintWriter): Unit = writer.print(dumpToString())
 
     override def dumpToString(): String =
@@ -312,6 +335,8 @@ class ClosingExecutionResultTest extends CypherFunSuite {
 
     override def javaIterator: ResourceIterator[util.Map[String, AnyRef]] = StubResourceIterator()
 
+    override def recordIterator: ResourceIterator[Array[AnyValue]] = StubResourceIterator()
+
     override def dumpToString(writer: PrintWriter): Unit = throw TestInnerException("dumpToString")
 
     override def dumpToString(): String = throw TestInnerException("dumpToString")
@@ -99,6 +99,28 @@ class StandardInternalExecutionResultTest extends CypherFunSuite {
     assertMaterializationOfMethod(true, true, TestRuntimeResult(List(1), isIterable = false), _.javaColumnAs[Int]("x").hasNext)
   }
 
+  test("should not materialize iterable result when recordIterator") {
+    assertMaterializationOfMethod(false, false, TestRuntimeResult(List(1), isIterable = true), _.recordIterator.hasNext)
+  }
+
+  test("should materialize not iterable result when recordIterator") {
+    assertMaterializationOfMethod(true, true, TestRuntimeResult(List(1), isIterable = false), _.recordIterator.hasNext)
+  }
+
+  test("should serve field values of records when recordIterator") {
+    for (isIterable <- Seq(true, false)) {
+      // given
+      val x = standardInternalExecutionResult(TestRuntimeResult(List(1, 2), isIterable = isIterable), READ_ONLY)
+      x.initiate()
+
+      // when
+      val records = x.recordIterator.asScala.map(_.toList).toList
+
+      // then
+      records should equal(List(List(Values.intValue(1), Values.intValue(1)), List(Values.intValue(2), Values.intValue(2))))
+    }
+  }
+
   // DUMP TO STRING
 
   test("should not materialize when dumpToString I") {
@@ -19,19 +19,24 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted
 
+import java.lang.Math.max
 import java.lang.Math.min
+import java.util.OptionalDouble
 
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.v3_5.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.v3_5.spi.PropertyHistogram
 import org.neo4j.cypher.internal.planner.v3_5.spi.StatisticsCompletingGraphStatistics
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
 import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.kernel.impl.query.TransactionalContext
+import org.neo4j.storageengine.api.schema.ValueHistogram
 import org.neo4j.cypher.internal.v3_5.util.Cardinality
 import org.neo4j.cypher.internal.v3_5.util.LabelId
 import org.neo4j.cypher.internal.v3_5.util.RelTypeId
 import org.neo4j.cypher.internal.v3_5.util.Selectivity
+import org.neo4j.values.storable.Values
 
 object TransactionBoundGraphStatistics {
   def apply(transactionalContext: TransactionalContext): StatisticsCompletingGraphStatistics =
@@ -86,6 +91,19 @@ object TransactionBoundGraphStatistics {
         case _: IndexNotFoundKernelException => None
       }
 
+    override def propertyHistogram(index: IndexDescriptor): Option[PropertyHistogram] =
+      try {
+        if (index.properties.size != 1)
+          None
+        else
+          Option(schemaRead.indexHistogram(schemaRead.indexReferenceUnchecked(index.label, index.properties.map(_.id):_*)))
+            .filter(_.totalCount() > 0)
+            .map(new TransactionBoundPropertyHistogram(_))
+      }
+      catch {
+        case _: IndexNotFoundKernelException => None
+      }
+
     override def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality =
       atLeastOne(read.countsForNodeWithoutTxState(labelId))
 
@@ -106,6 +124,24 @@ object TransactionBoundGraphStatistics {
 
     override def nodesAllCardinality(): Cardinality = atLeastOne(read.countsForNodeWithoutTxState(-1))
   }
-}
 
+  private class TransactionBoundPropertyHistogram(histogram: ValueHistogram) extends PropertyHistogram {
 
+    /**
+      * A value not seen at sampling time may well have been added since, so just like for any other estimate
+      * don't let an equality predicate on an indexed property match less than one entry.
+      */
+    private val minimumEquality = 1.0 / histogram.totalCount()
+
+    override def equalitySelectivity(value: AnyRef): Option[Selectivity] =
+      toSelectivity(histogram.equalityFraction(Values.of(value)))
+
+    override def rangeSelectivity(lower: Option[(AnyRef, Boolean)], upper: Option[(AnyRef, Boolean)]): Option[Selectivity] =
+      toSelectivity(histogram.rangeFraction(
+        lower.map(bound => Values.of(bound._1)).orNull, lower.exists(_._2),
+        upper.map(bound => Values.of(bound._1)).orNull, upper.exists(_._2)))
+
+    private def toSelectivity(fraction: OptionalDouble): Option[Selectivity] =
+      if (fraction.isPresent) Selectivity.of(min(1.0, max(minimumEquality, fraction.getAsDouble))) else None
+  }
+}
@@ -67,6 +67,11 @@ trait GraphStatistics {
       indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE has(x.prop)|
    */
   def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /*
+      Distribution of the values of the property of a single property index, if known
+   */
+  def propertyHistogram(index: IndexDescriptor): Option[PropertyHistogram] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -82,6 +87,9 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity] =
     delegate.indexPropertyExistsSelectivity(index)
 
+  override def propertyHistogram(index: IndexDescriptor): Option[PropertyHistogram] =
+    delegate.propertyHistogram(index)
+
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
 }
 
@@ -100,5 +100,7 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     selectivity
   }
 
+  override def propertyHistogram(index: IndexDescriptor): Option[PropertyHistogram] = inner.propertyHistogram(index)
+
   override def nodesAllCardinality(): Cardinality = snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
 }
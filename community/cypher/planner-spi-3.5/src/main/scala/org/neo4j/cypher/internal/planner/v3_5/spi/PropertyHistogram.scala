@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.planner.v3_5.spi
+
+import org.neo4j.cypher.internal.v3_5.util.Selectivity
+
+/**
+  * Distribution of the values of an indexed property, as of the last sampling of the index.
+  *
+  * Values are given as the values of literals, i.e. java.lang.Long, java.lang.Double, String or java.lang.Boolean.
+  * Selectivities are relative to the entries of the index, not to all nodes with the label.
+  */
+trait PropertyHistogram {
+
+  /*
+      Probability of any node in the index to have the given value, or None if the histogram doesn't cover it
+   */
+  def equalitySelectivity(value: AnyRef): Option[Selectivity]
+
+  /*
+      Probability of any node in the index to have a value within the given range, or None if the histogram doesn't
+      cover it. Each bound is a value and whether or not it's inclusive, and at least one of them must be given.
+   */
+  def rangeSelectivity(lower: Option[(AnyRef, Boolean)], upper: Option[(AnyRef, Boolean)]): Option[Selectivity]
+}
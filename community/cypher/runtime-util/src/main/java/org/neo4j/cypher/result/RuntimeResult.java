@@ -21,6 +21,8 @@ package org.neo4j.cypher.result;
 
 import org.neo4j.cypher.internal.runtime.QueryStatistics;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.kernel.impl.util.ValueUtils;
+import org.neo4j.values.AnyValue;
 
 /**
  * The result API of a Cypher runtime
@@ -49,6 +51,25 @@ public interface RuntimeResult extends AutoCloseable
      */
     ResourceIterator<java.util.Map<String, Object>> asIterator();
 
+    /**
+     * Consume this result as an iterator over the field values of its records, in the order of {@link #fieldNames()}.
+     * Will complain if {@link RuntimeResult#isIterable()} is false. Runtimes which produce values should override this
+     * to avoid converting the rows of {@link RuntimeResult#asIterator()} back to values.
+     */
+    default ResourceIterator<AnyValue[]> asRecordIterator()
+    {
+        String[] fieldNames = fieldNames();
+        return asIterator().map( row ->
+        {
+            AnyValue[] fields = new AnyValue[fieldNames.length];
+            for ( int i = 0; i < fieldNames.length; i++ )
+            {
+                fields[i] = ValueUtils.of( row.get( fieldNames[i] ) );
+            }
+            return fields;
+        } );
+    }
+
     /**
      * Returns the consumption state of this result. This state changes when the result is served
      * either via {@link RuntimeResult#asIterator} or {@link RuntimeResult#accept(QueryResult.QueryResultVisitor)}.
@@ -26,6 +26,7 @@ import org.neo4j.cypher.internal.runtime.planDescription.InternalPlanDescription
 import org.neo4j.cypher.result.QueryResult
 import org.neo4j.graphdb.Result.ResultVisitor
 import org.neo4j.graphdb.{Notification, QueryExecutionType, ResourceIterator}
+import org.neo4j.values.AnyValue
 
 import scala.collection.JavaConverters._
 
@@ -40,6 +41,12 @@ trait InternalExecutionResult extends QueryResult {
   def javaColumnAs[T](column: String): ResourceIterator[T]
   def javaIterator: ResourceIterator[java.util.Map[String, AnyRef]]
 
+  /**
+    * Iterator over the field values of the records of this result, in the order of [[fieldNames]]. Consumers which
+    * write values, like Bolt, should use this rather than converting the rows of [[javaIterator]] back to values.
+    */
+  def recordIterator: ResourceIterator[Array[AnyValue]]
+
   def dumpToString(writer: PrintWriter)
   def dumpToString(): String
 
@@ -30,6 +30,7 @@ final class DatabaseFileNames
 
     static final String COUNTS_STORE_A = "neostore.counts.db.a";
     static final String COUNTS_STORE_B = "neostore.counts.db.b";
+    static final String COUNTS_TREE_STORE = "neostore.counts.db";
 
     static final String NODE_STORE = "neostore.nodestore.db";
     static final String NODE_LABELS_STORE = "neostore.nodestore.db.labels";
@@ -49,4 +50,6 @@ final class DatabaseFileNames
     static final String LABEL_TOKEN_NAMES_STORE = "neostore.labeltokenstore.db.names";
 
     static final String SCHEMA_STORE = "neostore.schemastore.db";
+
+    static final String INDEX_HISTOGRAMS_DIRECTORY = "index-histograms";
 }
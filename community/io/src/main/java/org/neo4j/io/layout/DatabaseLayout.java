@@ -107,6 +107,16 @@ public class DatabaseLayout
         return file( DatabaseFile.COUNTS_STORE_B.getName() );
     }
 
+    public File countsTreeStore()
+    {
+        return file( DatabaseFileNames.COUNTS_TREE_STORE );
+    }
+
+    public File indexHistogramsDirectory()
+    {
+        return file( DatabaseFileNames.INDEX_HISTOGRAMS_DIRECTORY );
+    }
+
     public File propertyStringStore()
     {
         return file( DatabaseFile.PROPERTY_STRING_STORE.getName() );
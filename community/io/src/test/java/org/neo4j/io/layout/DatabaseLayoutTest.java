@@ -121,6 +121,7 @@ class DatabaseLayoutTest
         assertEquals( "neostore.relationshiptypestore.db", layout.relationshipTypeTokenStore().getName() );
         assertEquals( "neostore.relationshiptypestore.db.names", layout.relationshipTypeTokenNamesStore().getName() );
         assertEquals( "neostore.schemastore.db", layout.schemaStore().getName() );
+        assertEquals( "index-histograms", layout.indexHistogramsDirectory().getName() );
     }
 
     @Test
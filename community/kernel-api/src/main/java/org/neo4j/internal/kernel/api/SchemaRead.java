@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.SchemaKernelException;
 import org.neo4j.internal.kernel.api.schema.SchemaDescriptor;
 import org.neo4j.internal.kernel.api.schema.constraints.ConstraintDescriptor;
 import org.neo4j.register.Register;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.values.storable.Value;
 
 /**
@@ -95,6 +96,15 @@ public interface SchemaRead extends SchemaReadCore
      */
     long indexSize( IndexReference index ) throws IndexNotFoundKernelException;
 
+    /**
+     * Returns the distribution of the values in a single property index, as of its last sampling.
+     *
+     * @param index The index of interest
+     * @return The histogram of the index, or {@code null} if there is none
+     * @throws IndexNotFoundKernelException if the index is not there
+     */
+    ValueHistogram indexHistogram( IndexReference index ) throws IndexNotFoundKernelException;
+
     /**
      * Count the number of index entries for the given nodeId and value.
      *
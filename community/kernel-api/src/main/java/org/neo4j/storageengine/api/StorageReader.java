@@ -33,6 +33,7 @@ import org.neo4j.storageengine.api.schema.CapableIndexDescriptor;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 
 /**
  * Abstraction for accessing data from a {@link StorageEngine}.
@@ -229,6 +230,13 @@ public interface StorageReader extends AutoCloseable, StorageSchemaReader
      */
     double indexUniqueValuesPercentage( SchemaDescriptor descriptor ) throws IndexNotFoundKernelException;
 
+    /**
+     * @param descriptor {@link SchemaDescriptor} of the index.
+     * @return distribution of the values in the index, or {@code null} if not known.
+     * @throws IndexNotFoundKernelException if index not found.
+     */
+    ValueHistogram indexHistogram( SchemaDescriptor descriptor ) throws IndexNotFoundKernelException;
+
     long nodesGetCount();
 
     long relationshipsGetCount();
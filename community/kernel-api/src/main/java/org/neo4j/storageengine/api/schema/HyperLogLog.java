@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import org.neo4j.hashing.HashFunction;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Mergeable sketch estimating the number of distinct values it has seen, using a fixed amount of memory.
+ * With the default precision of 12 the sketch is 4 KiB and has a standard error of roughly 1.6%.
+ * <p>
+ * Values can only be added, never removed, so an estimate over a changing set of values drifts upwards
+ * as values are removed. Callers are expected to cap estimates with the known number of entries.
+ * <p>
+ * Instances are not thread safe.
+ */
+public final class HyperLogLog
+{
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final HashFunction HASH = HashFunction.incrementalXXH64();
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog()
+    {
+        this( DEFAULT_PRECISION );
+    }
+
+    public HyperLogLog( int precision )
+    {
+        if ( precision < 4 || precision > 18 )
+        {
+            throw new IllegalArgumentException( "Precision must be within [4,18], but was " + precision );
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog( HyperLogLog other )
+    {
+        this.precision = other.precision;
+        this.registers = other.registers.clone();
+    }
+
+    /**
+     * @param values the value, or composite value, to hash.
+     * @return a 64-bit hash of the given values, suitable for {@link #add(long)}.
+     */
+    public static long hash( Value... values )
+    {
+        if ( values.length == 1 )
+        {
+            return values[0].hashCode64();
+        }
+        long hash = HASH.initialise( values.length );
+        for ( Value value : values )
+        {
+            hash = HASH.update( hash, value.hashCode64() );
+        }
+        return HASH.finalise( hash );
+    }
+
+    public void add( Value... values )
+    {
+        add( hash( values ) );
+    }
+
+    /**
+     * @param hash a well distributed 64-bit hash of the value to add.
+     */
+    public void add( long hash )
+    {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // Guard bit makes sure the rank can never exceed the number of remaining bits
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros( remaining ) + 1);
+        if ( rank > registers[index] )
+        {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Folds the values seen by another sketch into this one. After merging, this sketch estimates the number
+     * of distinct values in the union of both.
+     *
+     * @param other sketch to merge into this one, must have the same precision.
+     */
+    public void merge( HyperLogLog other )
+    {
+        if ( other.precision != precision )
+        {
+            throw new IllegalArgumentException(
+                    "Can not merge sketches of different precision " + precision + " and " + other.precision );
+        }
+        for ( int i = 0; i < registers.length; i++ )
+        {
+            if ( other.registers[i] > registers[i] )
+            {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate()
+    {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for ( byte register : registers )
+        {
+            sum += 1.0 / (1L << register);
+            if ( register == 0 )
+            {
+                zeros++;
+            }
+        }
+        double estimate = alpha( m ) * m * m / sum;
+        if ( estimate <= 2.5 * m && zeros > 0 )
+        {
+            // Small range correction, linear counting is more accurate here
+            estimate = m * Math.log( (double) m / zeros );
+        }
+        return Math.round( estimate );
+    }
+
+    public HyperLogLog copy()
+    {
+        return new HyperLogLog( this );
+    }
+
+    private static double alpha( int m )
+    {
+        switch ( m )
+        {
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "HyperLogLog{precision=" + precision + ", estimate=" + estimate() + '}';
+    }
+}
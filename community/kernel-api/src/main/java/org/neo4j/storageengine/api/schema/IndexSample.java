@@ -24,6 +24,8 @@ public final class IndexSample
     private final long indexSize;
     private final long uniqueValues;
     private final long sampleSize;
+    private final HyperLogLog distinctValues;
+    private final ValueHistogram histogram;
 
     public IndexSample()
     {
@@ -31,10 +33,29 @@ public final class IndexSample
     }
 
     public IndexSample( long indexSize, long uniqueValues, long sampleSize )
+    {
+        this( indexSize, uniqueValues, sampleSize, null );
+    }
+
+    /**
+     * @param distinctValues sketch of all distinct values in the index, or {@code null} if the sampler
+     * could not produce one. Having it allows statistics to be maintained incrementally from index updates.
+     */
+    public IndexSample( long indexSize, long uniqueValues, long sampleSize, HyperLogLog distinctValues )
+    {
+        this( indexSize, uniqueValues, sampleSize, distinctValues, null );
+    }
+
+    /**
+     * @param histogram distribution of the values in the index, or {@code null} if the sampler could not produce one.
+     */
+    public IndexSample( long indexSize, long uniqueValues, long sampleSize, HyperLogLog distinctValues, ValueHistogram histogram )
     {
         this.indexSize = indexSize;
         this.uniqueValues = uniqueValues;
         this.sampleSize = sampleSize;
+        this.distinctValues = distinctValues;
+        this.histogram = histogram;
     }
 
     public long indexSize()
@@ -52,6 +73,22 @@ public final class IndexSample
         return sampleSize;
     }
 
+    /**
+     * @return sketch of the distinct values in the index, or {@code null} if not available.
+     */
+    public HyperLogLog distinctValues()
+    {
+        return distinctValues;
+    }
+
+    /**
+     * @return distribution of the values in the index, or {@code null} if not available.
+     */
+    public ValueHistogram histogram()
+    {
+        return histogram;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -0,0 +1,662 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.PriorityQueue;
+
+import org.neo4j.values.storable.BooleanValue;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.FloatingPointValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.values.storable.Values.COMPARATOR;
+
+/**
+ * Distribution of the values in a single property index, made of a list of most common values with their exact
+ * frequencies and an equi-depth histogram over all other values. Used to estimate selectivity of equality and
+ * range predicates on properties with skewed value distributions, where the number of unique values alone says
+ * little about how many entries a particular value or range matches.
+ * <p>
+ * Every bucket only holds values of a single {@link ValueGroup}, which matches how Cypher compares values,
+ * e.g. {@code n.prop > 10} never matches a string. Values of groups which can't be ordered in a meaningful way,
+ * like points and arrays, are only accounted for in {@link #totalCount()}.
+ * <p>
+ * Instances are immutable.
+ */
+public final class ValueHistogram
+{
+    public static final int DEFAULT_BUCKETS = 64;
+    public static final int DEFAULT_MOST_COMMON_VALUES = 16;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte STRING = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte DATE = 5;
+    private static final byte LOCAL_DATE_TIME = 6;
+    private static final byte ZONED_DATE_TIME = 7;
+    private static final byte LOCAL_TIME = 8;
+
+    private final long totalCount;
+    private final Value[] mostCommonValues;
+    private final long[] mostCommonCounts;
+    private final Bucket[] buckets;
+
+    private ValueHistogram( long totalCount, Value[] mostCommonValues, long[] mostCommonCounts, Bucket[] buckets )
+    {
+        this.totalCount = totalCount;
+        this.mostCommonValues = mostCommonValues;
+        this.mostCommonCounts = mostCommonCounts;
+        this.buckets = buckets;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder( DEFAULT_BUCKETS, DEFAULT_MOST_COMMON_VALUES );
+    }
+
+    public static Builder builder( int maxBuckets, int maxMostCommonValues )
+    {
+        return new Builder( maxBuckets, maxMostCommonValues );
+    }
+
+    /**
+     * @return whether or not values of the given kind are covered by histograms.
+     */
+    public static boolean isSupported( Value value )
+    {
+        switch ( value.valueGroup() )
+        {
+        case NUMBER:
+        case TEXT:
+        case BOOLEAN:
+        case DATE:
+        case LOCAL_DATE_TIME:
+        case ZONED_DATE_TIME:
+        case LOCAL_TIME:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * @return number of index entries this histogram was built from, including entries with unsupported values.
+     */
+    public long totalCount()
+    {
+        return totalCount;
+    }
+
+    public int mostCommonValuesCount()
+    {
+        return mostCommonValues.length;
+    }
+
+    public int bucketCount()
+    {
+        return buckets.length;
+    }
+
+    /**
+     * @param value the value to look for.
+     * @return estimated fraction of index entries having the given value, or nothing if values like the given one
+     * aren't covered by this histogram.
+     */
+    public OptionalDouble equalityFraction( Value value )
+    {
+        if ( !isSupported( value ) )
+        {
+            return OptionalDouble.empty();
+        }
+        if ( totalCount == 0 )
+        {
+            return OptionalDouble.of( 0 );
+        }
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            if ( mostCommonValues[i].equals( value ) )
+            {
+                return OptionalDouble.of( (double) mostCommonCounts[i] / totalCount );
+            }
+        }
+        for ( Bucket bucket : buckets )
+        {
+            if ( bucket.contains( value ) )
+            {
+                return OptionalDouble.of( (double) bucket.count / bucket.distinct / totalCount );
+            }
+        }
+        return OptionalDouble.of( 0 );
+    }
+
+    /**
+     * Estimates the fraction of index entries within a range. At least one of the bounds must be given.
+     * An open end of the range stops at the end of the {@link ValueGroup} of the other bound.
+     *
+     * @param from lower bound, or {@code null} for no lower bound.
+     * @param fromInclusive whether or not the lower bound itself is included.
+     * @param to upper bound, or {@code null} for no upper bound.
+     * @param toInclusive whether or not the upper bound itself is included.
+     * @return estimated fraction of index entries within the range, or nothing if values like the bounds
+     * aren't covered by this histogram.
+     */
+    public OptionalDouble rangeFraction( Value from, boolean fromInclusive, Value to, boolean toInclusive )
+    {
+        Value bound = from != null ? from : to;
+        if ( bound == null )
+        {
+            throw new IllegalArgumentException( "At least one of the bounds must be given" );
+        }
+        if ( !isSupported( bound ) || (to != null && !isSupported( to )) )
+        {
+            return OptionalDouble.empty();
+        }
+        ValueGroup group = bound.valueGroup();
+        if ( totalCount == 0 || (to != null && to.valueGroup() != group) )
+        {
+            return OptionalDouble.of( 0 );
+        }
+
+        double matching = 0;
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            Value value = mostCommonValues[i];
+            if ( value.valueGroup() == group && isWithin( value, from, fromInclusive, to, toInclusive ) )
+            {
+                matching += mostCommonCounts[i];
+            }
+        }
+        for ( Bucket bucket : buckets )
+        {
+            if ( bucket.group() == group )
+            {
+                // Entries not below the lower bound, but below the upper bound
+                double low = from == null ? 0 : bucket.fractionBelow( from, !fromInclusive );
+                double high = to == null ? 1 : bucket.fractionBelow( to, toInclusive );
+                matching += Math.max( 0, high - low ) * bucket.count;
+            }
+        }
+        return OptionalDouble.of( Math.min( 1, matching / totalCount ) );
+    }
+
+    private static boolean isWithin( Value value, Value from, boolean fromInclusive, Value to, boolean toInclusive )
+    {
+        if ( from != null )
+        {
+            int compare = COMPARATOR.compare( value, from );
+            if ( compare < 0 || (compare == 0 && !fromInclusive) )
+            {
+                return false;
+            }
+        }
+        if ( to != null )
+        {
+            int compare = COMPARATOR.compare( value, to );
+            return compare < 0 || (compare == 0 && toInclusive);
+        }
+        return true;
+    }
+
+    /**
+     * Combines histograms over disjoint sets of values, e.g. from the different parts of a fusion index.
+     *
+     * @param histograms histograms to combine.
+     * @return a histogram of all the values in the given histograms.
+     */
+    public static ValueHistogram combine( Iterable<ValueHistogram> histograms )
+    {
+        long totalCount = 0;
+        List<Value> mostCommonValues = new ArrayList<>();
+        List<Long> mostCommonCounts = new ArrayList<>();
+        List<Bucket> buckets = new ArrayList<>();
+        for ( ValueHistogram histogram : histograms )
+        {
+            totalCount += histogram.totalCount;
+            for ( int i = 0; i < histogram.mostCommonValues.length; i++ )
+            {
+                mostCommonValues.add( histogram.mostCommonValues[i] );
+                mostCommonCounts.add( histogram.mostCommonCounts[i] );
+            }
+            for ( Bucket bucket : histogram.buckets )
+            {
+                buckets.add( bucket );
+            }
+        }
+        buckets.sort( ( a, b ) -> COMPARATOR.compare( a.lower, b.lower ) );
+        return new ValueHistogram( totalCount, mostCommonValues.toArray( new Value[0] ),
+                mostCommonCounts.stream().mapToLong( Long::longValue ).toArray(), buckets.toArray( new Bucket[0] ) );
+    }
+
+    public void writeTo( DataOutput out ) throws IOException
+    {
+        out.writeByte( FORMAT_VERSION );
+        out.writeLong( totalCount );
+        out.writeInt( mostCommonValues.length );
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            writeValue( out, mostCommonValues[i] );
+            out.writeLong( mostCommonCounts[i] );
+        }
+        out.writeInt( buckets.length );
+        for ( Bucket bucket : buckets )
+        {
+            writeValue( out, bucket.lower );
+            writeValue( out, bucket.upper );
+            out.writeLong( bucket.count );
+            out.writeLong( bucket.distinct );
+        }
+    }
+
+    public static ValueHistogram readFrom( DataInput in ) throws IOException
+    {
+        byte version = in.readByte();
+        if ( version != FORMAT_VERSION )
+        {
+            throw new IOException( "Unknown histogram format version " + version );
+        }
+        long totalCount = in.readLong();
+        int mostCommonValuesCount = in.readInt();
+        Value[] mostCommonValues = new Value[mostCommonValuesCount];
+        long[] mostCommonCounts = new long[mostCommonValuesCount];
+        for ( int i = 0; i < mostCommonValuesCount; i++ )
+        {
+            mostCommonValues[i] = readValue( in );
+            mostCommonCounts[i] = in.readLong();
+        }
+        Bucket[] buckets = new Bucket[in.readInt()];
+        for ( int i = 0; i < buckets.length; i++ )
+        {
+            Bucket bucket = new Bucket( readValue( in ) );
+            bucket.upper = readValue( in );
+            bucket.count = in.readLong();
+            bucket.distinct = in.readLong();
+            buckets[i] = bucket;
+        }
+        return new ValueHistogram( totalCount, mostCommonValues, mostCommonCounts, buckets );
+    }
+
+    private static void writeValue( DataOutput out, Value value ) throws IOException
+    {
+        if ( value instanceof IntegralValue )
+        {
+            out.writeByte( LONG );
+            out.writeLong( ((IntegralValue) value).longValue() );
+        }
+        else if ( value instanceof FloatingPointValue )
+        {
+            out.writeByte( DOUBLE );
+            out.writeDouble( ((FloatingPointValue) value).doubleValue() );
+        }
+        else if ( value instanceof TextValue )
+        {
+            byte[] bytes = ((TextValue) value).stringValue().getBytes( StandardCharsets.UTF_8 );
+            out.writeByte( STRING );
+            out.writeInt( bytes.length );
+            out.write( bytes );
+        }
+        else if ( value instanceof BooleanValue )
+        {
+            out.writeByte( BOOLEAN );
+            out.writeBoolean( ((BooleanValue) value).booleanValue() );
+        }
+        else if ( value instanceof DateValue )
+        {
+            out.writeByte( DATE );
+            out.writeLong( ((DateValue) value).asObjectCopy().toEpochDay() );
+        }
+        else if ( value instanceof LocalDateTimeValue )
+        {
+            LocalDateTime dateTime = ((LocalDateTimeValue) value).asObjectCopy();
+            out.writeByte( LOCAL_DATE_TIME );
+            out.writeLong( dateTime.toEpochSecond( ZoneOffset.UTC ) );
+            out.writeInt( dateTime.getNano() );
+        }
+        else if ( value instanceof DateTimeValue )
+        {
+            ZonedDateTime dateTime = ((DateTimeValue) value).asObjectCopy();
+            byte[] zone = dateTime.getZone().getId().getBytes( StandardCharsets.UTF_8 );
+            out.writeByte( ZONED_DATE_TIME );
+            out.writeLong( dateTime.toEpochSecond() );
+            out.writeInt( dateTime.getNano() );
+            out.writeInt( zone.length );
+            out.write( zone );
+        }
+        else if ( value instanceof LocalTimeValue )
+        {
+            out.writeByte( LOCAL_TIME );
+            out.writeLong( ((LocalTimeValue) value).asObjectCopy().toNanoOfDay() );
+        }
+        else
+        {
+            throw new IllegalArgumentException( "Unsupported histogram value " + value );
+        }
+    }
+
+    private static Value readValue( DataInput in ) throws IOException
+    {
+        byte type = in.readByte();
+        switch ( type )
+        {
+        case LONG:
+            return Values.longValue( in.readLong() );
+        case DOUBLE:
+            return Values.doubleValue( in.readDouble() );
+        case STRING:
+            return Values.utf8Value( readBytes( in ) );
+        case BOOLEAN:
+            return Values.booleanValue( in.readBoolean() );
+        case DATE:
+            return DateValue.date( LocalDate.ofEpochDay( in.readLong() ) );
+        case LOCAL_DATE_TIME:
+            return LocalDateTimeValue.localDateTime( LocalDateTime.ofEpochSecond( in.readLong(), in.readInt(), ZoneOffset.UTC ) );
+        case ZONED_DATE_TIME:
+            Instant instant = Instant.ofEpochSecond( in.readLong(), in.readInt() );
+            ZoneId zone = ZoneId.of( new String( readBytes( in ), StandardCharsets.UTF_8 ) );
+            return DateTimeValue.datetime( ZonedDateTime.ofInstant( instant, zone ) );
+        case LOCAL_TIME:
+            return LocalTimeValue.localTime( LocalTime.ofNanoOfDay( in.readLong() ) );
+        default:
+            throw new IOException( "Unknown histogram value type " + type );
+        }
+    }
+
+    private static byte[] readBytes( DataInput in ) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return bytes;
+    }
+
+    /**
+     * @return position of the value on a linear scale, for interpolating within a bucket, or {@code NaN} if
+     * values of this kind can't be interpolated.
+     */
+    private static double ordinal( Value value )
+    {
+        if ( value instanceof NumberValue )
+        {
+            return ((NumberValue) value).doubleValue();
+        }
+        if ( value instanceof DateValue )
+        {
+            return ((DateValue) value).asObjectCopy().toEpochDay();
+        }
+        if ( value instanceof LocalDateTimeValue )
+        {
+            LocalDateTime dateTime = ((LocalDateTimeValue) value).asObjectCopy();
+            return dateTime.toEpochSecond( ZoneOffset.UTC ) + dateTime.getNano() / 1e9;
+        }
+        if ( value instanceof DateTimeValue )
+        {
+            ZonedDateTime dateTime = ((DateTimeValue) value).asObjectCopy();
+            return dateTime.toEpochSecond() + dateTime.getNano() / 1e9;
+        }
+        if ( value instanceof LocalTimeValue )
+        {
+            return ((LocalTimeValue) value).asObjectCopy().toNanoOfDay();
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ValueHistogram{totalCount=" + totalCount + ", mostCommonValues=" + mostCommonValues.length +
+               ", buckets=" + buckets.length + '}';
+    }
+
+    /**
+     * Range of values, both bounds inclusive, with the number of entries and distinct values in it.
+     */
+    private static final class Bucket
+    {
+        private final Value lower;
+        private Value upper;
+        private long count;
+        private long distinct;
+
+        Bucket( Value lower )
+        {
+            this.lower = lower;
+            this.upper = lower;
+        }
+
+        ValueGroup group()
+        {
+            return lower.valueGroup();
+        }
+
+        boolean contains( Value value )
+        {
+            return value.valueGroup() == group() && COMPARATOR.compare( value, lower ) >= 0 && COMPARATOR.compare( value, upper ) <= 0;
+        }
+
+        /**
+         * @return estimated fraction of the entries in this bucket below, or also equal to if inclusive, the given value.
+         */
+        double fractionBelow( Value value, boolean inclusive )
+        {
+            int toLower = COMPARATOR.compare( value, lower );
+            int toUpper = COMPARATOR.compare( value, upper );
+            if ( toLower < 0 )
+            {
+                return 0;
+            }
+            if ( toUpper > 0 )
+            {
+                return 1;
+            }
+            double perValue = 1.0 / distinct;
+            double strictlyBelow;
+            if ( toLower == 0 )
+            {
+                strictlyBelow = 0;
+            }
+            else if ( toUpper == 0 )
+            {
+                strictlyBelow = 1 - perValue;
+            }
+            else
+            {
+                double low = ordinal( lower );
+                double high = ordinal( upper );
+                double position = (ordinal( value ) - low) / (high - low);
+                // The bounds themselves are values in the bucket, so anything in between has at least those around it
+                strictlyBelow = Double.isNaN( position ) ? 0.5 : Math.max( perValue, Math.min( 1 - perValue, position ) );
+            }
+            return Math.min( 1, inclusive ? strictlyBelow + perValue : strictlyBelow );
+        }
+
+        void merge( Bucket next )
+        {
+            upper = next.upper;
+            count += next.count;
+            distinct += next.distinct;
+        }
+    }
+
+    /**
+     * Builds a histogram from values in ascending order, each with its number of entries, without knowing
+     * the total number of entries up front. Buckets start with a depth of one entry, and whenever twice the wanted
+     * number of buckets has been filled adjacent buckets are merged pairwise and the depth doubles.
+     */
+    public static final class Builder
+    {
+        private final int maxBuckets;
+        private final int maxMostCommonValues;
+        private final List<Bucket> buckets = new ArrayList<>();
+        private final PriorityQueue<MostCommonValue> mostCommon =
+                new PriorityQueue<>( Comparator.comparingLong( candidate -> candidate.count ) );
+        private Bucket current;
+        private long depth = 1;
+        private long totalCount;
+        private long supportedCount;
+        private long distinctCount;
+
+        private Builder( int maxBuckets, int maxMostCommonValues )
+        {
+            this.maxBuckets = maxBuckets;
+            this.maxMostCommonValues = maxMostCommonValues;
+        }
+
+        /**
+         * @param value the next value, must not be lower than previously added values.
+         * @param count number of entries with this value.
+         * @return this builder.
+         */
+        public Builder add( Value value, long count )
+        {
+            totalCount += count;
+            if ( !isSupported( value ) )
+            {
+                return this;
+            }
+            supportedCount += count;
+            distinctCount++;
+            trackMostCommon( value, count );
+
+            if ( current == null || current.count >= depth || current.group() != value.valueGroup() )
+            {
+                closeCurrentBucket();
+                current = new Bucket( value );
+            }
+            current.upper = value;
+            current.count += count;
+            current.distinct++;
+            return this;
+        }
+
+        private void trackMostCommon( Value value, long count )
+        {
+            if ( count <= 1 || maxMostCommonValues == 0 )
+            {
+                return;
+            }
+            if ( mostCommon.size() < maxMostCommonValues )
+            {
+                mostCommon.add( new MostCommonValue( value, count ) );
+            }
+            else if ( count > mostCommon.peek().count )
+            {
+                mostCommon.poll();
+                mostCommon.add( new MostCommonValue( value, count ) );
+            }
+        }
+
+        private void closeCurrentBucket()
+        {
+            if ( current == null )
+            {
+                return;
+            }
+            buckets.add( current );
+            current = null;
+            if ( buckets.size() >= 2 * maxBuckets )
+            {
+                compact();
+            }
+        }
+
+        private void compact()
+        {
+            List<Bucket> merged = new ArrayList<>( maxBuckets );
+            for ( int i = 0; i < buckets.size(); i++ )
+            {
+                Bucket bucket = buckets.get( i );
+                if ( i + 1 < buckets.size() && buckets.get( i + 1 ).group() == bucket.group() )
+                {
+                    bucket.merge( buckets.get( ++i ) );
+                }
+                merged.add( bucket );
+            }
+            buckets.clear();
+            buckets.addAll( merged );
+            depth *= 2;
+        }
+
+        public ValueHistogram build()
+        {
+            closeCurrentBucket();
+
+            // Only values noticeably more common than the average value are worth keeping apart from the buckets
+            double averageCount = distinctCount == 0 ? 0 : (double) supportedCount / distinctCount;
+            List<MostCommonValue> selected = new ArrayList<>( mostCommon );
+            selected.removeIf( candidate -> candidate.count <= averageCount );
+            selected.sort( ( a, b ) -> Long.compare( b.count, a.count ) );
+
+            Value[] mostCommonValues = new Value[selected.size()];
+            long[] mostCommonCounts = new long[selected.size()];
+            for ( int i = 0; i < selected.size(); i++ )
+            {
+                MostCommonValue candidate = selected.get( i );
+                mostCommonValues[i] = candidate.value;
+                mostCommonCounts[i] = candidate.count;
+                for ( Bucket bucket : buckets )
+                {
+                    if ( bucket.contains( candidate.value ) )
+                    {
+                        bucket.count -= candidate.count;
+                        bucket.distinct--;
+                        break;
+                    }
+                }
+            }
+            buckets.removeIf( bucket -> bucket.distinct == 0 );
+            return new ValueHistogram( totalCount, mostCommonValues, mostCommonCounts, buckets.toArray( new Bucket[0] ) );
+        }
+    }
+
+    private static final class MostCommonValue
+    {
+        private final Value value;
+        private final long count;
+
+        MostCommonValue( Value value, long count )
+        {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class HyperLogLogTest
+{
+    @Test
+    void shouldEstimateZeroWhenEmpty()
+    {
+        assertEquals( 0, new HyperLogLog().estimate() );
+    }
+
+    @Test
+    void shouldNotCountDuplicates()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // when
+        for ( int i = 0; i < 10; i++ )
+        {
+            sketch.add( stringValue( "a" ) );
+            sketch.add( stringValue( "b" ) );
+            sketch.add( longValue( 42 ) );
+        }
+
+        // then
+        assertEquals( 3, sketch.estimate() );
+    }
+
+    @Test
+    void shouldEstimateManyDistinctValuesWithinErrorBounds()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+        int distinct = 100_000;
+
+        // when
+        for ( int i = 0; i < distinct; i++ )
+        {
+            sketch.add( longValue( i ) );
+            sketch.add( longValue( i ) );
+        }
+
+        // then
+        assertWithinError( distinct, sketch.estimate() );
+    }
+
+    @Test
+    void shouldEstimateUnionWhenMerging()
+    {
+        // given
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for ( int i = 0; i < 60_000; i++ )
+        {
+            first.add( longValue( i ) );
+        }
+        for ( int i = 40_000; i < 100_000; i++ )
+        {
+            second.add( longValue( i ) );
+        }
+
+        // when
+        first.merge( second );
+
+        // then
+        assertWithinError( 100_000, first.estimate() );
+    }
+
+    @Test
+    void shouldHashCompositeValuesByAllParts()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // when
+        sketch.add( stringValue( "a" ), longValue( 1 ) );
+        sketch.add( stringValue( "a" ), longValue( 2 ) );
+        sketch.add( longValue( 1 ), stringValue( "a" ) );
+        sketch.add( stringValue( "a" ), longValue( 1 ) );
+
+        // then
+        assertEquals( 3, sketch.estimate() );
+    }
+
+    @Test
+    void shouldNotMergeSketchesOfDifferentPrecision()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new HyperLogLog( 10 ).merge( new HyperLogLog( 12 ) ) );
+    }
+
+    private static void assertWithinError( long expected, long estimate )
+    {
+        // Four times the standard error of the default precision, to not be flaky
+        double error = Math.abs( estimate - expected ) / (double) expected;
+        assertEquals( 0, error, 4 * 1.04 / Math.sqrt( 1 << HyperLogLog.DEFAULT_PRECISION ), "estimate " + estimate );
+    }
+}
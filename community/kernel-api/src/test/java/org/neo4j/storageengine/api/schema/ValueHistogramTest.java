@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.pointValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class ValueHistogramTest
+{
+    @Test
+    void shouldEstimateFrequentValuesExactly()
+    {
+        // given 1000 values, 0 is in half of the entries
+        ValueHistogram histogram = skewed();
+
+        // then
+        assertEquals( 1999, histogram.totalCount() );
+        assertEquals( 1000.0 / 1999, histogram.equalityFraction( longValue( 0 ) ).getAsDouble(), 1e-9 );
+        assertEquals( 1.0 / 1999, histogram.equalityFraction( longValue( 500 ) ).getAsDouble(), 1e-4 );
+        assertEquals( 0, histogram.equalityFraction( longValue( 5000 ) ).getAsDouble() );
+        assertEquals( 0, histogram.equalityFraction( stringValue( "0" ) ).getAsDouble() );
+    }
+
+    @Test
+    void shouldEstimateRanges()
+    {
+        // given
+        ValueHistogram histogram = skewed();
+
+        // then
+        assertEquals( 1.0, histogram.rangeFraction( longValue( 0 ), true, null, false ).getAsDouble(), 1e-9 );
+        assertEquals( 999.0 / 1999, histogram.rangeFraction( longValue( 0 ), false, null, false ).getAsDouble(), 0.01 );
+        assertEquals( 250.0 / 1999, histogram.rangeFraction( longValue( 250 ), true, longValue( 500 ), false ).getAsDouble(), 0.01 );
+        assertEquals( 0, histogram.rangeFraction( longValue( 1000 ), true, null, false ).getAsDouble(), 1e-9 );
+        assertEquals( 0, histogram.rangeFraction( stringValue( "a" ), true, null, false ).getAsDouble(), 1e-9 );
+        assertEquals( 0, histogram.rangeFraction( longValue( 1 ), true, stringValue( "a" ), false ).getAsDouble(), 1e-9 );
+    }
+
+    @Test
+    void shouldKeepValueGroupsApart()
+    {
+        // given
+        ValueHistogram.Builder builder = ValueHistogram.builder( 4, 0 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            builder.add( longValue( i ), 1 );
+        }
+        for ( int i = 0; i < 300; i++ )
+        {
+            builder.add( stringValue( String.format( "%03d", i ) ), 1 );
+        }
+        ValueHistogram histogram = builder.build();
+
+        // then
+        assertEquals( 100.0 / 400, histogram.rangeFraction( longValue( Long.MIN_VALUE ), true, null, false ).getAsDouble(), 1e-9 );
+        assertEquals( 300.0 / 400, histogram.rangeFraction( stringValue( "" ), true, null, false ).getAsDouble(), 1e-9 );
+        assertTrue( histogram.bucketCount() <= 8 );
+    }
+
+    @Test
+    void shouldNotCoverUnsupportedValues()
+    {
+        // given
+        ValueHistogram histogram = ValueHistogram.builder()
+                .add( longValue( 1 ), 1 )
+                .add( pointValue( Cartesian, 1, 2 ), 3 )
+                .build();
+
+        // then
+        assertEquals( 4, histogram.totalCount() );
+        assertFalse( histogram.equalityFraction( pointValue( Cartesian, 1, 2 ) ).isPresent() );
+        assertEquals( 0.25, histogram.equalityFraction( longValue( 1 ) ).getAsDouble(), 1e-9 );
+    }
+
+    @Test
+    void shouldCombineHistogramsOfDisjointValues()
+    {
+        // given
+        ValueHistogram numbers = ValueHistogram.builder().add( longValue( 1 ), 10 ).add( longValue( 2 ), 1 ).add( longValue( 3 ), 1 ).build();
+        ValueHistogram strings = ValueHistogram.builder().add( stringValue( "a" ), 1 ).add( stringValue( "b" ), 1 ).build();
+
+        // when
+        ValueHistogram combined = ValueHistogram.combine( Arrays.asList( numbers, strings ) );
+
+        // then
+        assertEquals( 14, combined.totalCount() );
+        assertEquals( 10.0 / 14, combined.equalityFraction( longValue( 1 ) ).getAsDouble(), 1e-9 );
+        assertEquals( 2.0 / 14, combined.rangeFraction( stringValue( "a" ), true, stringValue( "b" ), true ).getAsDouble(), 1e-9 );
+    }
+
+    @Test
+    void shouldSurviveSerialization() throws IOException
+    {
+        // given
+        ValueHistogram.Builder builder = ValueHistogram.builder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            builder.add( DateValue.date( LocalDate.ofEpochDay( i ) ), i % 10 == 0 ? 50 : 1 );
+        }
+        builder.add( Values.booleanValue( false ), 3 ).add( stringValue( "ö" ), 2 );
+        ValueHistogram histogram = builder.build();
+
+        // when
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeTo( new DataOutputStream( bytes ) );
+        ValueHistogram read = ValueHistogram.readFrom( new DataInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) );
+
+        // then
+        assertEquals( histogram.totalCount(), read.totalCount() );
+        assertEquals( histogram.bucketCount(), read.bucketCount() );
+        assertEquals( histogram.mostCommonValuesCount(), read.mostCommonValuesCount() );
+        assertEquals( histogram.equalityFraction( DateValue.date( LocalDate.ofEpochDay( 10 ) ) ),
+                read.equalityFraction( DateValue.date( LocalDate.ofEpochDay( 10 ) ) ) );
+        assertEquals( histogram.equalityFraction( stringValue( "ö" ) ), read.equalityFraction( stringValue( "ö" ) ) );
+    }
+
+    private static ValueHistogram skewed()
+    {
+        ValueHistogram.Builder builder = ValueHistogram.builder();
+        builder.add( longValue( 0 ), 1000 );
+        for ( int i = 1; i < 1000; i++ )
+        {
+            builder.add( longValue( i ), 1 );
+        }
+        return builder.build();
+    }
+}
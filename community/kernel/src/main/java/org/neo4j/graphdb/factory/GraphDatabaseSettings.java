@@ -512,6 +512,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Duration> counts_store_rotation_timeout =
             setting( "unsupported.dbms.counts_store_rotation_timeout", DURATION, "10m" );
 
+    @Description( "Whether or not to keep the counts store in a GB+Tree, which only flushes the changed counts on checkpoint, " +
+            "instead of the key/value store which rewrites all counts on every checkpoint. Existing counts are migrated " +
+            "to the tree when this setting is enabled, and rebuilt when it is disabled again." )
+    @Internal
+    public static final Setting<Boolean> counts_store_gbptree =
+            setting( "unsupported.dbms.counts_store.gbptree", BOOLEAN, FALSE );
+
     @Description( "Minimum time interval after last rotation of the user log before it may be rotated again." )
     public static final Setting<Duration> store_user_log_rotation_delay =
             setting( "dbms.logs.user.rotation.delay", DURATION, "300s" );
@@ -629,6 +636,12 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> index_sampling_update_percentage =
             buildSetting( "dbms.index_sampling.update_percentage", INTEGER, "5" ).constraint( min( 0 ) ).build();
 
+    @Description( "Maintain index samples incrementally from index updates, so that background sampling doesn't " +
+            "need to rescan indexes which have been fully sampled once. Explicitly triggered index sampling " +
+            "always rescans the index." )
+    public static final Setting<Boolean> index_sampling_incremental_enabled =
+            setting( "dbms.index_sampling.incremental_enabled", BOOLEAN, TRUE );
+
     // Lucene settings
     @Description( "The maximum number of open Lucene index searchers." )
     public static final Setting<Integer> lucene_searcher_cache_size = buildSetting( "dbms.index_searcher_cache_size",INTEGER,
@@ -836,6 +849,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> record_id_batch_size = buildSetting( "unsupported.dbms.record_id_batch_size", INTEGER,
             "20" ).constraint( range( 1, 1_000 ) ).build();
 
+    @Description( "Number of threads used to apply batches of transactions to the store, e.g. when recovering or when a " +
+            "read replica catches up. Transactions touching the same records are still applied in order, " +
+            "a value of 1 applies all transactions sequentially." )
+    @Internal
+    public static final Setting<Integer> transaction_apply_parallelism = buildSetting( "unsupported.dbms.transaction_apply.parallelism", INTEGER,
+            "1" ).constraint( range( 1, 128 ) ).build();
+
     @Description( "An identifier that uniquely identifies this graph database instance within this JVM. " +
             "Defaults to an auto-generated number depending on how many instance are started in this JVM." )
     @Internal
@@ -1111,6 +1131,14 @@ public class GraphDatabaseSettings implements LoadableConfig
             .constraint( min( 0L ) )
             .build();
 
+    @Description( "The maximum amount of off-heap memory that a single transaction can use to store its transaction state data. " +
+            "Transactions exceeding it fail, instead of taking memory from all other active transactions. Zero means 'unlimited'. " +
+            "Used when dbms.tx_state.memory_allocation is set to 'OFF_HEAP'." )
+    public static final Setting<Long> tx_state_max_transaction_off_heap_memory = buildSetting(
+            "dbms.tx_state.max_transaction_off_heap_memory", BYTES, "0" )
+            .constraint( min( 0L ) )
+            .build();
+
     @Description( "Defines the maximum size of an off-heap memory block that can be cached to speed up allocations for transaction state data. " +
             "The value must be a power of 2." )
     public static final Setting<Long> tx_state_off_heap_max_cacheable_block_size = buildSetting(
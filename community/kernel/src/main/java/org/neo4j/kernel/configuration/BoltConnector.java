@@ -20,6 +20,7 @@
 package org.neo4j.kernel.configuration;
 
 import java.time.Duration;
+import java.util.List;
 
 import org.neo4j.configuration.Description;
 import org.neo4j.configuration.Internal;
@@ -30,11 +31,15 @@ import org.neo4j.helpers.ListenSocketAddress;
 
 import static org.neo4j.kernel.configuration.BoltConnector.EncryptionLevel.OPTIONAL;
 import static org.neo4j.kernel.configuration.Settings.DURATION;
+import static org.neo4j.kernel.configuration.Settings.EMPTY;
 import static org.neo4j.kernel.configuration.Settings.INTEGER;
+import static org.neo4j.kernel.configuration.Settings.STRING_LIST;
 import static org.neo4j.kernel.configuration.Settings.advertisedAddress;
+import static org.neo4j.kernel.configuration.Settings.buildSetting;
 import static org.neo4j.kernel.configuration.Settings.legacyFallback;
 import static org.neo4j.kernel.configuration.Settings.listenAddress;
 import static org.neo4j.kernel.configuration.Settings.optionsObeyCase;
+import static org.neo4j.kernel.configuration.Settings.range;
 import static org.neo4j.kernel.configuration.Settings.setting;
 
 @Description( "Configuration options for Bolt connectors. " +
@@ -70,6 +75,21 @@ public class BoltConnector extends Connector
     @Internal
     public final Setting<Integer> unsupported_thread_pool_queue_size;
 
+    @Description( "Names of the users whose connections are scheduled with low priority on this connector, " +
+            "e.g. the users of heavy analytic clients." )
+    public final Setting<List<String>> thread_pool_low_priority_users;
+
+    @Description( "Prefixes of the user agents whose connections are scheduled with low priority on this connector." )
+    public final Setting<List<String>> thread_pool_low_priority_user_agents;
+
+    @Description( "The percentage of the threads in the thread pool bound to this connector that low priority connections " +
+            "may occupy at the same time. The remaining threads are kept available to all other connections." )
+    public final Setting<Integer> thread_pool_low_priority_share;
+
+    @Description( "The maximum time a request may wait for a thread of the thread pool bound to this connector. Requests " +
+            "that waited longer fail with a transient error instead of being executed. Zero means requests wait as long as necessary." )
+    public final Setting<Duration> thread_pool_max_queue_time;
+
     // Used by config doc generator
     public BoltConnector()
     {
@@ -92,6 +112,11 @@ public class BoltConnector extends Connector
         this.thread_pool_max_size = group.scope( setting( "thread_pool_max_size", INTEGER, String.valueOf( 400 ) ) );
         this.thread_pool_keep_alive = group.scope( setting( "thread_pool_keep_alive", DURATION, "5m" ) );
         this.unsupported_thread_pool_queue_size = group.scope( setting( "unsupported_thread_pool_queue_size", INTEGER, String.valueOf( 0 ) ) );
+        this.thread_pool_low_priority_users = group.scope( setting( "thread_pool_low_priority_users", STRING_LIST, EMPTY ) );
+        this.thread_pool_low_priority_user_agents = group.scope( setting( "thread_pool_low_priority_user_agents", STRING_LIST, EMPTY ) );
+        this.thread_pool_low_priority_share = group.scope(
+                buildSetting( "thread_pool_low_priority_share", INTEGER, String.valueOf( 100 ) ).constraint( range( 1, 100 ) ).build() );
+        this.thread_pool_max_queue_time = group.scope( setting( "thread_pool_max_queue_time", DURATION, "0s" ) );
     }
 
     public enum EncryptionLevel
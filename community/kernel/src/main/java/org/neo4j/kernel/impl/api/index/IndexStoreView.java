@@ -30,6 +30,7 @@ import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.storageengine.api.EntityType;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.util.VisibleForTesting;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
@@ -86,6 +87,18 @@ public interface IndexStoreView extends NodePropertyAccessor, PropertyLoader
 
     void incrementIndexUpdates( long indexId, long updatesDelta );
 
+    /**
+     * @param indexId id of the index.
+     * @return distribution of the values in the given index, as of its last sampling, or {@code null} if not known.
+     */
+    ValueHistogram indexHistogram( long indexId );
+
+    /**
+     * @param indexId id of the index.
+     * @param histogram new distribution of the values in the given index, or {@code null} to remove it.
+     */
+    void replaceIndexHistogram( long indexId, ValueHistogram histogram );
+
     @SuppressWarnings( "rawtypes" )
     StoreScan EMPTY_SCAN = new StoreScan()
     {
@@ -172,5 +185,16 @@ public interface IndexStoreView extends NodePropertyAccessor, PropertyLoader
         public void incrementIndexUpdates( long indexId, long updatesDelta )
         {
         }
+
+        @Override
+        public ValueHistogram indexHistogram( long indexId )
+        {
+            return null;
+        }
+
+        @Override
+        public void replaceIndexHistogram( long indexId, ValueHistogram histogram )
+        {
+        }
     }
 }
@@ -83,6 +83,7 @@ import org.neo4j.storageengine.api.NodePropertyAccessor;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.values.storable.Value;
 
 import static java.lang.String.format;
@@ -515,6 +516,11 @@ public class IndexingService extends LifecycleAdapter implements IndexingUpdateS
         return output;
     }
 
+    public ValueHistogram indexHistogram( SchemaDescriptor descriptor ) throws IndexNotFoundKernelException
+    {
+        return storeView.indexHistogram( indexMapRef.getOnlineIndexId( descriptor ) );
+    }
+
     public double indexUniqueValuesPercentage( SchemaDescriptor descriptor ) throws IndexNotFoundKernelException
     {
         final long indexId = indexMapRef.getOnlineIndexId( descriptor );
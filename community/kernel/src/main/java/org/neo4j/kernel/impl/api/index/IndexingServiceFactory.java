@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.index;
 import org.neo4j.internal.kernel.api.TokenNameLookup;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.SchemaState;
+import org.neo4j.kernel.impl.api.index.sampling.IncrementalIndexSampling;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingController;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingControllerFactory;
@@ -53,11 +54,13 @@ public class IndexingServiceFactory
         IndexSamplingConfig samplingConfig = new IndexSamplingConfig( config );
         MultiPopulatorFactory multiPopulatorFactory = MultiPopulatorFactory.forConfig( config );
         IndexMapReference indexMapRef = new IndexMapReference();
-        IndexSamplingControllerFactory factory =
-                new IndexSamplingControllerFactory( samplingConfig, storeView, scheduler, tokenNameLookup, internalLogProvider );
+        IncrementalIndexSampling incrementalSampling =
+                new IncrementalIndexSampling( samplingConfig.incrementalSampling(), samplingConfig.updateRatio(), storeView );
+        IndexSamplingControllerFactory factory = new IndexSamplingControllerFactory(
+                samplingConfig, storeView, incrementalSampling, scheduler, tokenNameLookup, internalLogProvider );
         IndexSamplingController indexSamplingController = factory.create( indexMapRef );
-        IndexProxyCreator proxySetup =
-                new IndexProxyCreator( samplingConfig, storeView, providerMap, tokenNameLookup, internalLogProvider );
+        IndexProxyCreator proxySetup = new IndexProxyCreator(
+                samplingConfig, storeView, incrementalSampling, providerMap, tokenNameLookup, internalLogProvider );
 
         return new IndexingService( proxySetup, providerMap, indexMapRef, storeView, schemaRules,
                 indexSamplingController, tokenNameLookup, scheduler, schemaState,
@@ -622,6 +622,10 @@ public class MultipleIndexPopulator implements IndexPopulator
                             }
                             IndexSample sample = populator.sampleResult();
                             storeView.replaceIndexCounts( indexId, sample.uniqueValues(), sample.sampleSize(), sample.indexSize() );
+                            if ( sample.histogram() != null )
+                            {
+                                storeView.replaceIndexHistogram( indexId, sample.histogram() );
+                            }
                             populator.close( true );
                             schemaState.clear();
                             return true;
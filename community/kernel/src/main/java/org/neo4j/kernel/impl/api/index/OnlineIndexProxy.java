@@ -30,6 +30,7 @@ import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.api.index.sampling.IncrementalIndexSampling;
 import org.neo4j.kernel.impl.api.index.updater.UpdateCountingIndexUpdater;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
 import org.neo4j.storageengine.api.schema.CapableIndexDescriptor;
@@ -44,6 +45,7 @@ public class OnlineIndexProxy implements IndexProxy
     final IndexAccessor accessor;
     private final IndexStoreView storeView;
     private final IndexCountsRemover indexCountsRemover;
+    private final IncrementalIndexSampling incrementalSampling;
     private boolean started;
 
     // About this flag: there are two online "modes", you might say...
@@ -73,6 +75,12 @@ public class OnlineIndexProxy implements IndexProxy
     private final boolean forcedIdempotentMode;
 
     OnlineIndexProxy( CapableIndexDescriptor capableIndexDescriptor, IndexAccessor accessor, IndexStoreView storeView, boolean forcedIdempotentMode )
+    {
+        this( capableIndexDescriptor, accessor, storeView, IncrementalIndexSampling.disabled(), forcedIdempotentMode );
+    }
+
+    OnlineIndexProxy( CapableIndexDescriptor capableIndexDescriptor, IndexAccessor accessor, IndexStoreView storeView,
+            IncrementalIndexSampling incrementalSampling, boolean forcedIdempotentMode )
     {
         assert accessor != null;
         this.indexId = capableIndexDescriptor.getId();
@@ -81,6 +89,7 @@ public class OnlineIndexProxy implements IndexProxy
         this.storeView = storeView;
         this.forcedIdempotentMode = forcedIdempotentMode;
         this.indexCountsRemover = new IndexCountsRemover( storeView, indexId );
+        this.incrementalSampling = incrementalSampling;
     }
 
     @Override
@@ -113,13 +122,14 @@ public class OnlineIndexProxy implements IndexProxy
 
     private IndexUpdater updateCountingUpdater( final IndexUpdater indexUpdater )
     {
-        return new UpdateCountingIndexUpdater( storeView, indexId, indexUpdater );
+        return new UpdateCountingIndexUpdater( storeView, indexId, indexUpdater, incrementalSampling.sketch( indexId ) );
     }
 
     @Override
     public void drop()
     {
         indexCountsRemover.remove();
+        incrementalSampling.forget( indexId );
         accessor.drop();
     }
 
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.kernel.impl.api.index.IndexStoreView;
+import org.neo4j.register.Register.DoubleLongRegister;
+import org.neo4j.storageengine.api.schema.HyperLogLog;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+import static org.neo4j.register.Registers.newDoubleLongRegister;
+
+/**
+ * Keeps index samples up to date from the index updates themselves, so that a background sampling round
+ * doesn't need to rescan the whole index.
+ * <p>
+ * An index is tracked once it has been {@link #seed(long, boolean, IndexSample) seeded} by a full sample.
+ * For unique indexes the number of unique values simply follows the index size. For non-unique indexes the full
+ * sample must provide a {@link HyperLogLog} sketch of its distinct values, which added values are then folded
+ * into. Indexes which can't be tracked keep being sampled by full rescans as before.
+ * <p>
+ * Removed values can't be taken out of a sketch, so estimated unique values may drift upwards on indexes with
+ * a lot of removals. Estimates are capped by index size and an explicitly triggered resampling re-seeds
+ * the index with exact numbers.
+ * <p>
+ * Value histograms can't be derived from updates. Once an index with a histogram has seen more updates since its
+ * full sample than the configured update ratio allows for, refreshing it asks for a new full sample instead.
+ */
+public class IncrementalIndexSampling
+{
+    enum Refresh
+    {
+        /** The sample has been refreshed, if there was anything to refresh. */
+        REFRESHED,
+        /** The index isn't tracked and needs full sampling to keep its sample up to date. */
+        NOT_TRACKED,
+        /** The sample has been refreshed, but the histogram of the index needs a full sampling to be brought up to date. */
+        HISTOGRAM_OUTDATED
+    }
+
+    private final boolean enabled;
+    private final double updateRatio;
+    private final IndexStoreView storeView;
+    private final ConcurrentMap<Long,IndexSketch> sketches = new ConcurrentHashMap<>();
+
+    public IncrementalIndexSampling( boolean enabled, double updateRatio, IndexStoreView storeView )
+    {
+        this.enabled = enabled;
+        this.updateRatio = updateRatio;
+        this.storeView = storeView;
+    }
+
+    public static IncrementalIndexSampling disabled()
+    {
+        return new IncrementalIndexSampling( false, 0, IndexStoreView.EMPTY );
+    }
+
+    /**
+     * Starts, or restarts, tracking of an index from a full sample of it.
+     *
+     * @param indexId id of the sampled index.
+     * @param unique whether or not the index is a uniqueness constraint index.
+     * @param sample the full sample.
+     */
+    void seed( long indexId, boolean unique, IndexSample sample )
+    {
+        if ( !enabled )
+        {
+            return;
+        }
+        boolean histogram = sample.histogram() != null;
+        if ( unique )
+        {
+            sketches.put( indexId, new IndexSketch( null, histogram ) );
+        }
+        else if ( sample.distinctValues() != null )
+        {
+            sketches.put( indexId, new IndexSketch( sample.distinctValues().copy(), histogram ) );
+        }
+        else
+        {
+            sketches.remove( indexId );
+        }
+    }
+
+    /**
+     * @param indexId id of the index.
+     * @return the sketch to record updates of the given index into, or {@code null} if the index isn't tracked.
+     */
+    public IndexSketch sketch( long indexId )
+    {
+        return enabled ? sketches.get( indexId ) : null;
+    }
+
+    public void forget( long indexId )
+    {
+        sketches.remove( indexId );
+    }
+
+    /**
+     * Writes a new sample for the given index, derived from the updates recorded since the last sample,
+     * if the index is tracked.
+     *
+     * @param indexId id of the index to refresh the sample for.
+     * @return whether the sample could be refreshed, or a full sampling is required.
+     */
+    Refresh refresh( long indexId )
+    {
+        IndexSketch sketch = sketch( indexId );
+        if ( sketch == null )
+        {
+            return Refresh.NOT_TRACKED;
+        }
+        DoubleLongRegister updatesAndSize = storeView.indexUpdatesAndSize( indexId, newDoubleLongRegister() );
+        long updates = updatesAndSize.readFirst();
+        long indexSize = updatesAndSize.readSecond();
+        IndexSample sample = sketch.drain( updates, indexSize );
+        if ( sample != null )
+        {
+            // replacing the counts also resets the number of updates
+            storeView.replaceIndexCounts( indexId, sample.uniqueValues(), sample.sampleSize(), sample.indexSize() );
+            updates = 0;
+            indexSize = sample.indexSize();
+        }
+        return sketch.histogramOutdated( updates, indexSize, updateRatio ) ? Refresh.HISTOGRAM_OUTDATED : Refresh.REFRESHED;
+    }
+
+    /**
+     * Distinct values and size changes recorded for a single index since it was last sampled.
+     */
+    public static class IndexSketch
+    {
+        private final HyperLogLog distinctValues;
+        private final boolean histogram;
+        private long sizeDelta;
+        private boolean dirty;
+        private long updatesSinceSeeded;
+
+        IndexSketch( HyperLogLog distinctValues, boolean histogram )
+        {
+            this.distinctValues = distinctValues;
+            this.histogram = histogram;
+        }
+
+        /**
+         * @return whether or not hashes of added values are needed, i.e. {@code false} for unique indexes.
+         */
+        public boolean needsValueHashes()
+        {
+            return distinctValues != null;
+        }
+
+        /**
+         * @param addedValueHashes {@link HyperLogLog#hash(org.neo4j.values.storable.Value...) hashes} of added values.
+         * @param sizeDelta number of added minus number of removed index entries.
+         */
+        public synchronized void record( LongList addedValueHashes, long sizeDelta )
+        {
+            if ( distinctValues != null )
+            {
+                addedValueHashes.forEach( distinctValues::add );
+            }
+            this.sizeDelta += sizeDelta;
+            this.dirty |= sizeDelta != 0 || !addedValueHashes.isEmpty();
+        }
+
+        synchronized IndexSample drain( long previousUpdates, long previousIndexSize )
+        {
+            if ( !dirty )
+            {
+                return null;
+            }
+            updatesSinceSeeded += previousUpdates;
+            long indexSize = Math.max( 0, previousIndexSize + sizeDelta );
+            long uniqueValues = distinctValues == null ? indexSize : Math.min( distinctValues.estimate(), indexSize );
+            sizeDelta = 0;
+            dirty = false;
+            return new IndexSample( indexSize, uniqueValues, indexSize );
+        }
+
+        /**
+         * @param pendingUpdates updates of the index not yet accounted for by {@link #drain(long, long)}.
+         * @param indexSize current size of the index.
+         * @param updateRatio ratio of updates to index size beyond which an index is due for resampling.
+         * @return whether the index was seeded with a histogram which has seen too many updates since.
+         */
+        synchronized boolean histogramOutdated( long pendingUpdates, long indexSize, double updateRatio )
+        {
+            return histogram && updatesSinceSeeded + pendingUpdates > Math.round( updateRatio * indexSize );
+        }
+    }
+}
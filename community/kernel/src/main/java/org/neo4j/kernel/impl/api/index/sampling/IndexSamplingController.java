@@ -20,6 +20,8 @@
 package org.neo4j.kernel.impl.api.index.sampling;
 
 import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -52,6 +54,7 @@ public class IndexSamplingController
     private final IndexMapSnapshotProvider indexMapSnapshotProvider;
     private final JobScheduler scheduler;
     private final RecoveryCondition indexRecoveryCondition;
+    private final IncrementalIndexSampling incrementalSampling;
     private final boolean backgroundSampling;
     private final Lock samplingLock = new ReentrantLock();
     private final Log log;
@@ -72,6 +75,7 @@ public class IndexSamplingController
                              IndexMapSnapshotProvider indexMapSnapshotProvider,
                              JobScheduler scheduler,
                              RecoveryCondition indexRecoveryCondition,
+                             IncrementalIndexSampling incrementalSampling,
                              LogProvider logProvider )
     {
         this.backgroundSampling = config.backgroundSampling();
@@ -81,6 +85,7 @@ public class IndexSamplingController
         this.jobTracker = jobTracker;
         this.scheduler = scheduler;
         this.indexRecoveryCondition = indexRecoveryCondition;
+        this.incrementalSampling = incrementalSampling;
         this.log = logProvider.getLog( getClass() );
         this.logRecoverIndexSamples = FeatureToggles.flag( IndexSamplingController.class, LOG_RECOVER_INDEX_SAMPLES_NAME, false );
         this.asyncRecoverIndexSamples = FeatureToggles.flag( IndexSamplingController.class, ASYNC_RECOVER_INDEX_SAMPLES_NAME, false );
@@ -91,10 +96,48 @@ public class IndexSamplingController
     public void sampleIndexes( IndexSamplingMode mode )
     {
         IndexMap indexMap = indexMapSnapshotProvider.indexMapSnapshot();
-        jobQueue.addAll( !mode.sampleOnlyIfUpdated, PrimitiveLongCollections.toIterator( indexMap.indexIds() ) );
+        LongIterator indexIds = indexMap.indexIds();
+        if ( mode.incrementalIfPossible )
+        {
+            indexIds = refreshIncrementally( indexMap, indexIds );
+        }
+        jobQueue.addAll( !mode.sampleOnlyIfUpdated, PrimitiveLongCollections.toIterator( indexIds ) );
         scheduleSampling( mode, indexMap );
     }
 
+    /**
+     * Refreshes samples of indexes tracked by {@link IncrementalIndexSampling} from their recorded updates.
+     * Indexes whose histograms have become outdated are queued for full sampling right away.
+     *
+     * @return ids of the indexes which still need to be considered for full sampling.
+     */
+    private LongIterator refreshIncrementally( IndexMap indexMap, LongIterator indexIds )
+    {
+        MutableLongList remaining = new LongArrayList();
+        while ( indexIds.hasNext() )
+        {
+            long indexId = indexIds.next();
+            IndexProxy proxy = indexMap.getIndexProxy( indexId );
+            if ( proxy == null || proxy.getState() != InternalIndexState.ONLINE )
+            {
+                remaining.add( indexId );
+                continue;
+            }
+            switch ( incrementalSampling.refresh( indexId ) )
+            {
+            case NOT_TRACKED:
+                remaining.add( indexId );
+                break;
+            case HISTOGRAM_OUTDATED:
+                jobQueue.add( true, indexId );
+                break;
+            default:
+                break;
+            }
+        }
+        return remaining.longIterator();
+    }
+
     public void sampleIndex( long indexId, IndexSamplingMode mode )
     {
         IndexMap indexMap = indexMapSnapshotProvider.indexMapSnapshot();
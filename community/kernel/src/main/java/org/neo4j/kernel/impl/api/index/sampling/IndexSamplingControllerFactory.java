@@ -36,16 +36,19 @@ public class IndexSamplingControllerFactory
 {
     private final IndexSamplingConfig config;
     private final IndexStoreView storeView;
+    private final IncrementalIndexSampling incrementalSampling;
     private final JobScheduler scheduler;
     private final TokenNameLookup tokenNameLookup;
     private final LogProvider logProvider;
 
     public IndexSamplingControllerFactory( IndexSamplingConfig config, IndexStoreView storeView,
+                                           IncrementalIndexSampling incrementalSampling,
                                            JobScheduler scheduler, TokenNameLookup tokenNameLookup,
                                            LogProvider logProvider )
     {
         this.config = config;
         this.storeView = storeView;
+        this.incrementalSampling = incrementalSampling;
         this.scheduler = scheduler;
         this.tokenNameLookup = tokenNameLookup;
         this.logProvider = logProvider;
@@ -54,7 +57,7 @@ public class IndexSamplingControllerFactory
     public IndexSamplingController create( IndexMapSnapshotProvider snapshotProvider )
     {
         OnlineIndexSamplingJobFactory jobFactory =
-                new OnlineIndexSamplingJobFactory( storeView, tokenNameLookup, logProvider );
+                new OnlineIndexSamplingJobFactory( storeView, incrementalSampling, tokenNameLookup, logProvider );
         Predicate<Long> samplingUpdatePredicate = createSamplingPredicate();
         IndexSamplingJobQueue<Long> jobQueue = new IndexSamplingJobQueue<>( samplingUpdatePredicate );
         IndexSamplingJobTracker jobTracker = new IndexSamplingJobTracker( config, scheduler );
@@ -62,7 +65,7 @@ public class IndexSamplingControllerFactory
                 indexRecoveryCondition = createIndexRecoveryCondition( logProvider, tokenNameLookup );
         return new IndexSamplingController(
                 config, jobFactory, jobQueue, jobTracker, snapshotProvider, scheduler, indexRecoveryCondition,
-                logProvider );
+                incrementalSampling, logProvider );
     }
 
     private Predicate<Long> createSamplingPredicate()
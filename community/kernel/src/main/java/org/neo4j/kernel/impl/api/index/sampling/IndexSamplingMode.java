@@ -21,7 +21,7 @@ package org.neo4j.kernel.impl.api.index.sampling;
 
 public enum IndexSamplingMode
 {
-    TRIGGER_REBUILD_ALL( false, true )
+    TRIGGER_REBUILD_ALL( false, true, false )
             {
                 @Override
                 public String toString()
@@ -29,7 +29,7 @@ public enum IndexSamplingMode
                     return "FORCE REBUILD";
                 }
             },
-    TRIGGER_REBUILD_UPDATED( true, true )
+    TRIGGER_REBUILD_UPDATED( true, true, false )
             {
                 @Override
                 public String toString()
@@ -37,7 +37,7 @@ public enum IndexSamplingMode
                     return "REBUILD OUTDATED";
                 }
             },
-    BACKGROUND_REBUILD_UPDATED( true, false )
+    BACKGROUND_REBUILD_UPDATED( true, false, true )
             {
                 @Override
                 public String toString()
@@ -48,10 +48,16 @@ public enum IndexSamplingMode
 
     public final boolean sampleOnlyIfUpdated;
     public final boolean blockUntilAllScheduled;
+    /**
+     * Whether or not indexes tracked by {@link IncrementalIndexSampling} can have their samples refreshed
+     * from recorded updates instead of being rescanned. Explicitly triggered sampling always rescans.
+     */
+    public final boolean incrementalIfPossible;
 
-    IndexSamplingMode( boolean sampleOnlyIfUpdated, boolean blockUntilAllScheduled )
+    IndexSamplingMode( boolean sampleOnlyIfUpdated, boolean blockUntilAllScheduled, boolean incrementalIfPossible )
     {
         this.sampleOnlyIfUpdated = sampleOnlyIfUpdated;
         this.blockUntilAllScheduled = blockUntilAllScheduled;
+        this.incrementalIfPossible = incrementalIfPossible;
     }
 }
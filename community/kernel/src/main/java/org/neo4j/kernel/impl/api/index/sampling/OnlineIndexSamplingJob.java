@@ -37,15 +37,23 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
     private final long indexId;
     private final IndexProxy indexProxy;
     private final IndexStoreView storeView;
+    private final IncrementalIndexSampling incrementalSampling;
     private final Log log;
     private final String indexUserDescription;
 
     OnlineIndexSamplingJob( long indexId, IndexProxy indexProxy, IndexStoreView storeView, String indexUserDescription,
             LogProvider logProvider )
+    {
+        this( indexId, indexProxy, storeView, IncrementalIndexSampling.disabled(), indexUserDescription, logProvider );
+    }
+
+    OnlineIndexSamplingJob( long indexId, IndexProxy indexProxy, IndexStoreView storeView, IncrementalIndexSampling incrementalSampling,
+            String indexUserDescription, LogProvider logProvider )
     {
         this.indexId = indexId;
         this.indexProxy = indexProxy;
         this.storeView = storeView;
+        this.incrementalSampling = incrementalSampling;
         this.log = logProvider.getLog( getClass() );
         this.indexUserDescription = indexUserDescription;
     }
@@ -73,6 +81,11 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
                     {
                         storeView.replaceIndexCounts( indexId, sample.uniqueValues(), sample.sampleSize(),
                                 sample.indexSize() );
+                        if ( sample.histogram() != null )
+                        {
+                            storeView.replaceIndexHistogram( indexId, sample.histogram() );
+                        }
+                        incrementalSampling.seed( indexId, indexProxy.getDescriptor().isUnique(), sample );
                         durationLogger.markAsFinished();
                         log.debug(
                                 format( "Sampled index %s with %d unique values in sample of avg size %d taken from " +
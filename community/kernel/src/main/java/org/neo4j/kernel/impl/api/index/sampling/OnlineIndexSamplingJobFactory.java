@@ -27,12 +27,20 @@ import org.neo4j.logging.LogProvider;
 public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
 {
     private final IndexStoreView storeView;
+    private final IncrementalIndexSampling incrementalSampling;
     private final LogProvider logProvider;
     private final TokenNameLookup nameLookup;
 
     public OnlineIndexSamplingJobFactory( IndexStoreView storeView, TokenNameLookup nameLookup, LogProvider logProvider )
+    {
+        this( storeView, IncrementalIndexSampling.disabled(), nameLookup, logProvider );
+    }
+
+    public OnlineIndexSamplingJobFactory( IndexStoreView storeView, IncrementalIndexSampling incrementalSampling, TokenNameLookup nameLookup,
+            LogProvider logProvider )
     {
         this.storeView = storeView;
+        this.incrementalSampling = incrementalSampling;
         this.logProvider = logProvider;
         this.nameLookup = nameLookup;
     }
@@ -41,6 +49,6 @@ public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
     public IndexSamplingJob create( long indexId, IndexProxy indexProxy )
     {
         final String indexUserDescription = indexProxy.getDescriptor().userDescription( nameLookup );
-        return new OnlineIndexSamplingJob( indexId, indexProxy, storeView, indexUserDescription, logProvider );
+        return new OnlineIndexSamplingJob( indexId, indexProxy, storeView, incrementalSampling, indexUserDescription, logProvider );
     }
 }
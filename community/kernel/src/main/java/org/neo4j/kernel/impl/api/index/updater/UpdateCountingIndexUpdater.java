@@ -19,23 +19,43 @@
  */
 package org.neo4j.kernel.impl.api.index.updater;
 
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.impl.api.index.IndexStoreView;
+import org.neo4j.kernel.impl.api.index.sampling.IncrementalIndexSampling.IndexSketch;
+import org.neo4j.storageengine.api.schema.HyperLogLog;
 
 public class UpdateCountingIndexUpdater implements IndexUpdater
 {
     private final IndexStoreView storeView;
     private final long indexId;
     private final IndexUpdater delegate;
+    private final IndexSketch sketch;
+    private final MutableLongList addedValueHashes;
     private long updates;
+    private long sizeDelta;
 
     public UpdateCountingIndexUpdater( IndexStoreView storeView, long indexId, IndexUpdater delegate )
+    {
+        this( storeView, indexId, delegate, null );
+    }
+
+    /**
+     * @param sketch where to record added values and size changes for incremental sampling, or {@code null}
+     * if the index isn't sampled incrementally.
+     */
+    public UpdateCountingIndexUpdater( IndexStoreView storeView, long indexId, IndexUpdater delegate, IndexSketch sketch )
     {
         this.storeView = storeView;
         this.indexId = indexId;
         this.delegate = delegate;
+        this.sketch = sketch;
+        this.addedValueHashes = sketch != null && sketch.needsValueHashes() ? new LongArrayList() : null;
     }
 
     @Override
@@ -43,6 +63,32 @@ public class UpdateCountingIndexUpdater implements IndexUpdater
     {
         delegate.process( update );
         updates++;
+        if ( sketch != null )
+        {
+            switch ( update.updateMode() )
+            {
+            case ADDED:
+                sizeDelta++;
+                recordValues( update );
+                break;
+            case CHANGED:
+                recordValues( update );
+                break;
+            case REMOVED:
+                sizeDelta--;
+                break;
+            default:
+                throw new IllegalStateException( "Unknown update mode " + update.updateMode() );
+            }
+        }
+    }
+
+    private void recordValues( IndexEntryUpdate<?> update )
+    {
+        if ( addedValueHashes != null )
+        {
+            addedValueHashes.add( HyperLogLog.hash( update.values() ) );
+        }
     }
 
     @Override
@@ -50,5 +96,10 @@ public class UpdateCountingIndexUpdater implements IndexUpdater
     {
         delegate.close();
         storeView.incrementIndexUpdates( indexId, updates );
+        if ( sketch != null )
+        {
+            // Recorded once per batch of updates to keep contention on the shared sketch low
+            sketch.record( addedValueHashes != null ? addedValueHashes : LongLists.immutable.empty(), sizeDelta );
+        }
     }
 }
@@ -26,10 +26,16 @@ import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.kernel.impl.api.index.sampling.NonUniqueIndexSampler;
+import org.neo4j.storageengine.api.schema.HyperLogLog;
 import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
+import org.neo4j.values.storable.Value;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #result()}.
+ * Since every distinct value is visited anyway the result also carries a {@link HyperLogLog} sketch
+ * of the distinct values, so that the sample can be kept up to date incrementally afterwards, and for single
+ * property indexes a {@link ValueHistogram} of the value distribution.
  *
  * @param <KEY> type of keys in tree.
  * @param <VALUE> type of values in tree.
@@ -56,6 +62,8 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
         highest.initialize( Long.MAX_VALUE );
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        HyperLogLog distinctValues = new HyperLogLog();
+        ValueHistogram.Builder histogram = null;
         try ( RawCursor<Hit<KEY,VALUE>,IOException> seek = gbpTree.seek( lowest, highest ) )
         {
             long sampledValues = 0;
@@ -65,8 +73,16 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
             if ( seek.next() )
             {
                 prev = layout.copyKey( seek.get().key(), prev );
+                Value[] values = prev.asValues();
+                distinctValues.add( values );
                 sampledValues++;
                 uniqueValues++;
+                if ( values.length == 1 )
+                {
+                    histogram = ValueHistogram.builder();
+                }
+                Value runValue = values[0];
+                long runLength = 1;
 
                 // Then do the rest
                 while ( seek.next() )
@@ -76,12 +92,26 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
                     {
                         uniqueValues++;
                         layout.copyKey( hit.key(), prev );
+                        values = prev.asValues();
+                        distinctValues.add( values );
+                        if ( histogram != null )
+                        {
+                            histogram.add( runValue, runLength );
+                        }
+                        runValue = values[0];
+                        runLength = 0;
                     }
                     // else this is a duplicate of the previous one
                     sampledValues++;
+                    runLength++;
+                }
+                if ( histogram != null )
+                {
+                    histogram.add( runValue, runLength );
                 }
             }
-            return new IndexSample( sampledValues, uniqueValues, sampledValues );
+            return new IndexSample( sampledValues, uniqueValues, sampledValues, distinctValues,
+                    histogram == null ? null : histogram.build() );
         }
         catch ( IOException e )
         {
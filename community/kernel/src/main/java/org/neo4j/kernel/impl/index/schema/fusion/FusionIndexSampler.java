@@ -24,8 +24,10 @@ import java.util.List;
 
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
+import org.neo4j.storageengine.api.schema.HyperLogLog;
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 
 import static org.neo4j.helpers.collection.Iterables.asCollection;
 import static org.neo4j.io.IOUtils.closeAllSilently;
@@ -68,13 +70,35 @@ public class FusionIndexSampler implements IndexSampler
         long indexSize = 0;
         long uniqueValues = 0;
         long sampleSize = 0;
+        HyperLogLog distinctValues = new HyperLogLog();
+        boolean allSketched = true;
+        List<ValueHistogram> histograms = new ArrayList<>();
+        boolean allHistograms = true;
         for ( IndexSample sample : samples )
         {
             indexSize += sample.indexSize();
             uniqueValues += sample.uniqueValues();
             sampleSize += sample.sampleSize();
+            if ( sample.distinctValues() != null )
+            {
+                distinctValues.merge( sample.distinctValues() );
+            }
+            else if ( sample.indexSize() > 0 )
+            {
+                // A sketch of only some of the parts would underestimate, so rather have none at all
+                allSketched = false;
+            }
+            if ( sample.histogram() != null )
+            {
+                histograms.add( sample.histogram() );
+            }
+            else if ( sample.indexSize() > 0 )
+            {
+                allHistograms = false;
+            }
         }
-        return new IndexSample( indexSize, uniqueValues, sampleSize );
+        return new IndexSample( indexSize, uniqueValues, sampleSize, allSketched ? distinctValues : null,
+                allHistograms && !histograms.isEmpty() ? ValueHistogram.combine( histograms ) : null );
     }
 
     @Override
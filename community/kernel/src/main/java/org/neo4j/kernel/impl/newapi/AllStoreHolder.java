@@ -82,6 +82,7 @@ import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.storageengine.api.txstate.DiffSets;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.ValueMapper;
@@ -601,6 +602,16 @@ public class AllStoreHolder extends Read
         return storageReader.indexSize( schema );
     }
 
+    @Override
+    public ValueHistogram indexHistogram( IndexReference index ) throws IndexNotFoundKernelException
+    {
+        assertValidIndex( index );
+        SchemaDescriptor schema = index.schema();
+        acquireSharedSchemaLock( schema );
+        ktx.assertOpen();
+        return storageReader.indexHistogram( schema );
+    }
+
     @Override
     public long nodesCountIndexed( IndexReference index, long nodeId, int propertyKeyId, Value value ) throws KernelException
     {
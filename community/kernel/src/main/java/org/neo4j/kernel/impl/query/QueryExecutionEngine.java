@@ -30,6 +30,21 @@ public interface QueryExecutionEngine
     Result profileQuery( String query, MapValue parameters, TransactionalContext context )
             throws QueryExecutionKernelException;
 
+    /**
+     * Prepare the given query for being executed many times with {@link #executeQuery(PreparedQuery, MapValue, TransactionalContext)}.
+     * Engines that cannot resolve anything ahead of execution return a handle that only stands for the query text.
+     */
+    default PreparedQuery prepareQuery( String query )
+    {
+        return () -> query;
+    }
+
+    default Result executeQuery( PreparedQuery query, MapValue parameters, TransactionalContext context )
+            throws QueryExecutionKernelException
+    {
+        return executeQuery( query.queryText(), parameters, context );
+    }
+
     /**
      * @return {@code true} if the query is a PERIODIC COMMIT query and not an EXPLAIN query
      */
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.neo4j.kernel.impl.api.BatchTransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.locking.LockGroup;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+
+/**
+ * Applies the transactions of a batch using multiple threads, where a batch typically comes from a read replica
+ * catching up or from recovery.
+ * <p>
+ * Transactions are split into groups, in transaction id order, such that no two transactions in the same group
+ * touch the same node, relationship, relationship group, property or dynamic record, or properties of the same entity,
+ * and no transaction adds an index entry which may conflict with an entry removed by an earlier transaction of its group.
+ * Transactions in a group are spread over the worker threads, each thread applying its share in transaction id order
+ * through its own {@link BatchTransactionApplier}. A group is completely applied, including index updates, before
+ * the next group is started, so changes to the same records are applied in the same order as they were committed.
+ * <p>
+ * Transactions changing schema, tokens or other store wide state are applied alone, in a group of their own.
+ * Counts changes are only increments and don't prevent transactions from being in the same group.
+ */
+class ParallelTransactionApplier
+{
+    private static final int NODE = 1;
+    private static final int RELATIONSHIP = 2;
+    private static final int RELATIONSHIP_GROUP = 3;
+    private static final int PROPERTY = 4;
+    private static final int DYNAMIC_PROPERTY = 5;
+    private static final int DYNAMIC_LABELS = 6;
+    private static final int TYPE_SHIFT = 59;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    ParallelTransactionApplier( Executor executor, int parallelism )
+    {
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param batch transactions to apply.
+     * @return whether or not applying the given batch in parallel is possible and worth it.
+     */
+    boolean canApply( CommandsToApply batch )
+    {
+        if ( parallelism <= 1 || batch.next() == null )
+        {
+            return false;
+        }
+        for ( CommandsToApply tx = batch; tx != null; tx = tx.next() )
+        {
+            if ( tx.requiresApplicationOrdering() )
+            {
+                // Explicit index changes are applied in strict transaction order across the whole batch
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param batch transactions to apply.
+     * @param appliers creates a new {@link BatchTransactionApplier} for each thread and group of transactions.
+     * @throws Exception on failure to apply any transaction, after all threads applying the same group have finished.
+     */
+    void apply( CommandsToApply batch, Supplier<BatchTransactionApplier> appliers ) throws Exception
+    {
+        for ( List<CommandsToApply> group : independentGroups( batch ) )
+        {
+            if ( group.size() == 1 )
+            {
+                applyInOrder( group, appliers );
+            }
+            else
+            {
+                applyInParallel( group, appliers );
+            }
+        }
+    }
+
+    private void applyInParallel( List<CommandsToApply> group, Supplier<BatchTransactionApplier> appliers ) throws Exception
+    {
+        int workers = Math.min( parallelism, group.size() );
+        List<List<CommandsToApply>> shares = new ArrayList<>( workers );
+        for ( int i = 0; i < workers; i++ )
+        {
+            shares.add( new ArrayList<>() );
+        }
+        for ( int i = 0; i < group.size(); i++ )
+        {
+            shares.get( i % workers ).add( group.get( i ) );
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>( workers );
+        for ( List<CommandsToApply> share : shares )
+        {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            executor.execute( () ->
+            {
+                try
+                {
+                    applyInOrder( share, appliers );
+                    future.complete( null );
+                }
+                catch ( Throwable e )
+                {
+                    future.completeExceptionally( e );
+                }
+            } );
+            futures.add( future );
+        }
+
+        Throwable failure = null;
+        for ( CompletableFuture<Void> future : futures )
+        {
+            try
+            {
+                future.get();
+            }
+            catch ( ExecutionException e )
+            {
+                if ( failure == null )
+                {
+                    failure = e.getCause();
+                }
+                else
+                {
+                    failure.addSuppressed( e.getCause() );
+                }
+            }
+        }
+        if ( failure instanceof Exception )
+        {
+            throw (Exception) failure;
+        }
+        if ( failure != null )
+        {
+            throw (Error) failure;
+        }
+    }
+
+    private static void applyInOrder( List<CommandsToApply> transactions, Supplier<BatchTransactionApplier> appliers ) throws Exception
+    {
+        try ( LockGroup locks = new LockGroup();
+              BatchTransactionApplier batchApplier = appliers.get() )
+        {
+            for ( CommandsToApply transaction : transactions )
+            {
+                try ( TransactionApplier txApplier = batchApplier.startTx( transaction, locks ) )
+                {
+                    transaction.accept( txApplier );
+                }
+            }
+        }
+    }
+
+    /**
+     * @param batch transactions to split.
+     * @return groups of transactions, in transaction id order, where transactions in each group are independent of each other.
+     * @throws IOException on error reading commands.
+     */
+    static List<List<CommandsToApply>> independentGroups( CommandsToApply batch ) throws IOException
+    {
+        List<List<CommandsToApply>> groups = new ArrayList<>();
+        List<CommandsToApply> current = new ArrayList<>();
+        Touched currentTouched = new Touched();
+        for ( CommandsToApply tx = batch; tx != null; tx = tx.next() )
+        {
+            Touched touched = touched( tx );
+            if ( touched == null )
+            {
+                addIfNotEmpty( groups, current );
+                groups.add( singleton( tx ) );
+                current = new ArrayList<>();
+                currentTouched = new Touched();
+                continue;
+            }
+            if ( touched.dependsOn( currentTouched ) )
+            {
+                addIfNotEmpty( groups, current );
+                current = new ArrayList<>();
+                currentTouched = new Touched();
+            }
+            current.add( tx );
+            currentTouched.addAll( touched );
+        }
+        addIfNotEmpty( groups, current );
+        return groups;
+    }
+
+    /**
+     * @return what the given transaction touches, or {@code null} if the transaction must be applied alone.
+     */
+    private static Touched touched( CommandsToApply tx ) throws IOException
+    {
+        Touched touched = new Touched();
+        boolean dependent = tx.accept( command -> !addTouched( command, touched ) );
+        return dependent ? null : touched;
+    }
+
+    /**
+     * @return {@code false} if the command can't be applied independently of other transactions.
+     */
+    private static boolean addTouched( StorageCommand command, Touched touched )
+    {
+        MutableLongSet records = touched.records;
+        if ( command instanceof Command.NodeCommand )
+        {
+            Command.NodeCommand nodeCommand = (Command.NodeCommand) command;
+            add( records, NODE, nodeCommand.getKey() );
+            addDynamicRecords( records, DYNAMIC_LABELS, nodeCommand.getBefore().getDynamicLabelRecords() );
+            addDynamicRecords( records, DYNAMIC_LABELS, nodeCommand.getAfter().getDynamicLabelRecords() );
+            addLabelChanges( touched, nodeCommand.getBefore(), nodeCommand.getAfter() );
+        }
+        else if ( command instanceof Command.RelationshipCommand )
+        {
+            Command.RelationshipCommand relationshipCommand = (Command.RelationshipCommand) command;
+            add( records, RELATIONSHIP, relationshipCommand.getKey() );
+            addNodes( records, relationshipCommand.getBefore() );
+            addNodes( records, relationshipCommand.getAfter() );
+        }
+        else if ( command instanceof Command.RelationshipGroupCommand )
+        {
+            Command.RelationshipGroupCommand groupCommand = (Command.RelationshipGroupCommand) command;
+            add( records, RELATIONSHIP_GROUP, groupCommand.getKey() );
+            add( records, NODE, groupCommand.getBefore().getOwningNode() );
+            add( records, NODE, groupCommand.getAfter().getOwningNode() );
+        }
+        else if ( command instanceof Command.PropertyCommand )
+        {
+            Command.PropertyCommand propertyCommand = (Command.PropertyCommand) command;
+            PropertyRecord before = propertyCommand.getBefore();
+            PropertyRecord after = propertyCommand.getAfter();
+            add( records, PROPERTY, propertyCommand.getKey() );
+            addOwner( records, before );
+            addOwner( records, after );
+            addPropertyDynamicRecords( records, before );
+            addPropertyDynamicRecords( records, after );
+            if ( before.isNodeSet() || after.isNodeSet() )
+            {
+                addValueChanges( touched.removedValues, before, after );
+                addValueChanges( touched.addedValues, after, before );
+            }
+        }
+        else
+        {
+            return command instanceof Command.NodeCountsCommand || command instanceof Command.RelationshipCountsCommand;
+        }
+        return true;
+    }
+
+    private static void addNodes( MutableLongSet records, RelationshipRecord relationship )
+    {
+        add( records, NODE, relationship.getFirstNode() );
+        add( records, NODE, relationship.getSecondNode() );
+    }
+
+    private static void addOwner( MutableLongSet records, PropertyRecord property )
+    {
+        if ( property.isNodeSet() )
+        {
+            add( records, NODE, property.getNodeId() );
+        }
+        else if ( property.isRelSet() )
+        {
+            add( records, RELATIONSHIP, property.getRelId() );
+        }
+    }
+
+    private static void addPropertyDynamicRecords( MutableLongSet records, PropertyRecord property )
+    {
+        // string and array records are put in the same key space, which at worst makes a few more transactions dependent
+        for ( PropertyBlock block : property )
+        {
+            addDynamicRecords( records, DYNAMIC_PROPERTY, block.getValueRecords() );
+        }
+        addDynamicRecords( records, DYNAMIC_PROPERTY, property.getDeletedRecords() );
+    }
+
+    private static void addDynamicRecords( MutableLongSet records, int type, Collection<DynamicRecord> dynamicRecords )
+    {
+        for ( DynamicRecord dynamicRecord : dynamicRecords )
+        {
+            add( records, type, dynamicRecord.getId() );
+        }
+    }
+
+    /**
+     * Adds keys of the node property values in {@code from} which are not in {@code to}.
+     */
+    private static void addValueChanges( MutableLongSet values, PropertyRecord from, PropertyRecord to )
+    {
+        if ( !from.inUse() )
+        {
+            return;
+        }
+        for ( PropertyBlock block : from )
+        {
+            PropertyBlock other = to.inUse() ? to.getPropertyBlock( block.getKeyIndexId() ) : null;
+            if ( other == null || !block.hasSameContentsAs( other ) )
+            {
+                values.add( valueKey( block ) );
+            }
+        }
+    }
+
+    /**
+     * @return a key which is equal for equal values of the same property key.
+     */
+    private static long valueKey( PropertyBlock block )
+    {
+        PropertyType type = block.forceGetType();
+        if ( type == null || type == PropertyType.STRING || type == PropertyType.ARRAY )
+        {
+            // the value is in dynamic records, which aren't necessarily part of the command,
+            // so all such values of the same property key are considered equal
+            return block.getKeyIndexId();
+        }
+        long key = 0;
+        for ( long valueBlock : block.getValueBlocks() )
+        {
+            key = key * 31 + valueBlock;
+        }
+        return key;
+    }
+
+    private static void addLabelChanges( Touched touched, NodeRecord before, NodeRecord after )
+    {
+        long[] labelsBefore = labels( before );
+        long[] labelsAfter = labels( after );
+        if ( labelsBefore == null || labelsAfter == null )
+        {
+            touched.labelsAdded = true;
+            touched.labelsRemoved = true;
+            return;
+        }
+        LongHashSet setBefore = LongHashSet.newSetWith( labelsBefore );
+        LongHashSet setAfter = LongHashSet.newSetWith( labelsAfter );
+        touched.labelsAdded |= !setBefore.containsAll( setAfter );
+        touched.labelsRemoved |= !setAfter.containsAll( setBefore );
+    }
+
+    /**
+     * @return labels of the given node, or {@code null} if they aren't known from the record alone.
+     */
+    private static long[] labels( NodeRecord node )
+    {
+        return node.inUse() ? NodeLabelsField.parseLabelsField( node ).getIfLoaded() : EMPTY_LONG_ARRAY;
+    }
+
+    private static void add( MutableLongSet records, int type, long id )
+    {
+        if ( id >= 0 )
+        {
+            records.add( ((long) type << TYPE_SHIFT) | id );
+        }
+    }
+
+    private static void addIfNotEmpty( List<List<CommandsToApply>> groups, List<CommandsToApply> group )
+    {
+        if ( !group.isEmpty() )
+        {
+            groups.add( group );
+        }
+    }
+
+    private static List<CommandsToApply> singleton( CommandsToApply tx )
+    {
+        List<CommandsToApply> group = new ArrayList<>( 1 );
+        group.add( tx );
+        return group;
+    }
+
+    /**
+     * What a transaction, or a group of transactions, touches.
+     * <p>
+     * Besides records, this tracks changes of node property values and labels, which show up as index updates.
+     * Adding and removing entries of different nodes in an index is order independent, except for uniqueness
+     * checks: a value may be added once a preceding transaction has removed it from another node. So a transaction
+     * adding a value, or adding labels to nodes, which brings their existing values into indexes, depends on
+     * a group which removed the same value, or removed labels or values of any nodes.
+     */
+    private static class Touched
+    {
+        final MutableLongSet records = new LongHashSet();
+        final MutableLongSet addedValues = new LongHashSet();
+        final MutableLongSet removedValues = new LongHashSet();
+        boolean labelsAdded;
+        boolean labelsRemoved;
+
+        boolean dependsOn( Touched group )
+        {
+            return records.anySatisfy( group.records::contains ) ||
+                   addedValues.anySatisfy( group.removedValues::contains ) ||
+                   (group.labelsRemoved && (labelsAdded || !addedValues.isEmpty())) ||
+                   (labelsAdded && !group.removedValues.isEmpty());
+        }
+
+        void addAll( Touched other )
+        {
+            records.addAll( other.records );
+            addedValues.addAll( other.addedValues );
+            removedValues.addAll( other.removedValues );
+            labelsAdded |= other.labelsAdded;
+            labelsRemoved |= other.labelsRemoved;
+        }
+    }
+}
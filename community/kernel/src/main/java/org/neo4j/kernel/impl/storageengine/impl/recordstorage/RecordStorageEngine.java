@@ -99,6 +99,7 @@ import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.kernel.spi.explicitindex.IndexImplementation;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.CommandsToApply;
@@ -145,6 +146,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdController idController;
     private final int denseNodeThreshold;
     private final int recordIdBatchSize;
+    private final ParallelTransactionApplier parallelApplier;
 
     public RecordStorageEngine(
             DatabaseLayout databaseLayout,
@@ -216,6 +218,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
 
             denseNodeThreshold = config.get( GraphDatabaseSettings.dense_node_threshold );
             recordIdBatchSize = config.get( GraphDatabaseSettings.record_id_batch_size );
+            parallelApplier = new ParallelTransactionApplier( scheduler.executor( Group.TRANSACTION_APPLIER ),
+                    config.get( GraphDatabaseSettings.transaction_apply_parallelism ) );
         }
         catch ( Throwable failure )
         {
@@ -283,17 +287,26 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         // Have these command appliers as separate try-with-resource to have better control over
         // point between closing this and the locks above
-        try ( IndexActivator indexActivator = new IndexActivator( indexingService );
-              LockGroup locks = new LockGroup();
-              BatchTransactionApplier batchApplier = applier( mode, indexActivator ) )
+        try ( IndexActivator indexActivator = new IndexActivator( indexingService ) )
         {
-            while ( batch != null )
+            if ( parallelApplier.canApply( batch ) )
             {
-                try ( TransactionApplier txApplier = batchApplier.startTx( batch, locks ) )
+                parallelApplier.apply( batch, () -> applier( mode, indexActivator ) );
+            }
+            else
+            {
+                try ( LockGroup locks = new LockGroup();
+                      BatchTransactionApplier batchApplier = applier( mode, indexActivator ) )
                 {
-                    batch.accept( txApplier );
+                    while ( batch != null )
+                    {
+                        try ( TransactionApplier txApplier = batchApplier.startTx( batch, locks ) )
+                        {
+                            batch.accept( txApplier );
+                        }
+                        batch = batch.next();
+                    }
                 }
-                batch = batch.next();
             }
         }
         catch ( Throwable cause )
@@ -464,9 +477,18 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                 files.add( metadata );
             }
         }
+        addIndexHistogramFiles( files );
         return files;
     }
 
+    private void addIndexHistogramFiles( List<StoreFileMetadata> files )
+    {
+        for ( File histogramFile : neoStores.getIndexHistograms().files() )
+        {
+            files.add( new StoreFileMetadata( histogramFile, RecordFormat.NO_RECORD_SIZE ) );
+        }
+    }
+
     private void addCountStoreFiles( List<StoreFileMetadata> files )
     {
         Iterable<File> countStoreFiles = neoStores.getCounts().allFiles();
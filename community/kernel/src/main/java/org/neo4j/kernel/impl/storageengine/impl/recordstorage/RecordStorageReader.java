@@ -43,7 +43,7 @@ import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.SchemaStorage;
 import org.neo4j.kernel.impl.store.StoreType;
-import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.CountsStore;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.register.Register;
 import org.neo4j.register.Register.DoubleLongRegister;
@@ -60,6 +60,7 @@ import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 
 import static java.lang.Math.toIntExact;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
@@ -79,7 +80,7 @@ public class RecordStorageReader implements StorageReader
     private final RelationshipGroupStore relationshipGroupStore;
     private final PropertyStore propertyStore;
     private final SchemaStorage schemaStorage;
-    private final CountsTracker counts;
+    private final CountsStore counts;
     private final SchemaCache schemaCache;
 
     private final Supplier<IndexReaderFactory> indexReaderFactorySupplier;
@@ -211,6 +212,12 @@ public class RecordStorageReader implements StorageReader
         return indexService.indexUniqueValuesPercentage( descriptor );
     }
 
+    @Override
+    public ValueHistogram indexHistogram( SchemaDescriptor descriptor ) throws IndexNotFoundKernelException
+    {
+        return indexService.indexHistogram( descriptor );
+    }
+
     @Override
     public String indexGetFailure( SchemaDescriptor descriptor ) throws IndexNotFoundKernelException
     {
@@ -22,7 +22,7 @@ package org.neo4j.kernel.impl.store;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.impl.api.CountsAccessor;
-import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.CountsStore;
 import org.neo4j.kernel.impl.store.kvstore.DataInitializer;
 import org.neo4j.kernel.impl.util.monitoring.ProgressReporter;
 import org.neo4j.kernel.impl.util.monitoring.SilentProgressReporter;
@@ -39,7 +39,7 @@ public class CountsComputer implements DataInitializer<CountsAccessor.Updater>
     public static void recomputeCounts( NeoStores stores, PageCache pageCache, DatabaseLayout databaseLayout )
     {
         MetaDataStore metaDataStore = stores.getMetaDataStore();
-        CountsTracker counts = stores.getCounts();
+        CountsStore counts = stores.getCounts();
         try ( CountsAccessor.Updater updater = counts.reset( metaDataStore.getLastCommittedTransactionId() ) )
         {
             new CountsComputer( stores, pageCache, databaseLayout ).initialize( updater );
@@ -33,6 +33,7 @@ import org.neo4j.helpers.Exceptions;
 import org.neo4j.helpers.collection.FilteringIterator;
 import org.neo4j.helpers.collection.IteratorWrapper;
 import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.diagnostics.DiagnosticsManager;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -43,7 +44,10 @@ import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.kernel.NeoStoresDiagnostics;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.CountsAccessor;
+import org.neo4j.kernel.impl.store.counts.CountsStore;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.GBPTreeCountsStore;
+import org.neo4j.kernel.impl.store.counts.IndexHistogramStore;
 import org.neo4j.kernel.impl.store.counts.ReadOnlyCountsTracker;
 import org.neo4j.kernel.impl.store.format.CapabilityType;
 import org.neo4j.kernel.impl.store.format.FormatFamily;
@@ -115,6 +119,7 @@ public class NeoStores implements AutoCloseable
     // All stores, as Object due to CountsTracker being different that all other stores.
     private final Object[] stores;
     private final OpenOption[] openOptions;
+    private final IndexHistogramStore indexHistograms;
 
     NeoStores(
             DatabaseLayout layout,
@@ -140,6 +145,7 @@ public class NeoStores implements AutoCloseable
         this.recordFormats = recordFormats;
         this.createIfNotExist = createIfNotExist;
         this.openOptions = openOptions;
+        this.indexHistograms = new IndexHistogramStore( fileSystemAbstraction, layout.indexHistogramsDirectory() );
 
         verifyRecordFormat();
         stores = new Object[StoreType.values().length];
@@ -245,7 +251,7 @@ public class NeoStores implements AutoCloseable
     {
         try
         {
-            CountsTracker counts = (CountsTracker) stores[StoreType.COUNTS.ordinal()];
+            CountsStore counts = (CountsStore) stores[StoreType.COUNTS.ordinal()];
             if ( counts != null )
             {
                 counts.rotate( getMetaDataStore().getLastCommittedTransactionId() );
@@ -423,9 +429,14 @@ public class NeoStores implements AutoCloseable
         return (SchemaStore) getStore( StoreType.SCHEMA );
     }
 
-    public CountsTracker getCounts()
+    public CountsStore getCounts()
     {
-        return (CountsTracker) getStore( StoreType.COUNTS );
+        return (CountsStore) getStore( StoreType.COUNTS );
+    }
+
+    public IndexHistogramStore getIndexHistograms()
+    {
+        return indexHistograms;
     }
 
     private CountsTracker createWritableCountsTracker( DatabaseLayout databaseLayout )
@@ -621,14 +632,82 @@ public class NeoStores implements AutoCloseable
                 TokenStore.NAME_STORE_BLOCK_SIZE );
     }
 
-    CountsTracker createCountStore()
+    CountsStore createCountStore()
     {
         boolean readOnly = config.get( GraphDatabaseSettings.read_only );
-        CountsTracker counts = readOnly
-                               ? createReadOnlyCountsTracker( layout )
-                               : createWritableCountsTracker( layout );
+        boolean treeExists = fileSystemAbstraction.fileExists( layout.countsTreeStore() );
+        try
+        {
+            // A read only database can't migrate the counts, so it keeps using the key/value store until the tree is created
+            if ( config.get( GraphDatabaseSettings.counts_store_gbptree ) && (treeExists || !readOnly) )
+            {
+                return createCountsTreeStore( readOnly, treeExists );
+            }
+            if ( treeExists && !readOnly )
+            {
+                // Left behind by the tree, which doesn't keep the key/value store up to date, so the counts are rebuilt
+                fileSystemAbstraction.deleteFile( layout.countsTreeStore() );
+                deleteCountsKeyValueStoreFiles();
+            }
+            CountsTracker counts = readOnly
+                                   ? createReadOnlyCountsTracker( layout )
+                                   : createWritableCountsTracker( layout );
+            counts.setInitializer( countsRebuilder() );
+            counts.init(); // TODO: move this to LifeCycle
+            return counts;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Failed to initialize counts store", e );
+        }
+    }
+
+    private GBPTreeCountsStore createCountsTreeStore( boolean readOnly, boolean treeExists ) throws IOException
+    {
+        RecoveryCleanupWorkCollector cleanup = readOnly ? RecoveryCleanupWorkCollector.ignore() : RecoveryCleanupWorkCollector.immediate();
+        GBPTreeCountsStore counts;
+        if ( !treeExists && (fileSystemAbstraction.fileExists( layout.countStoreA() ) || fileSystemAbstraction.fileExists( layout.countStoreB() )) )
+        {
+            Log log = logProvider.getLog( MetaDataStore.class );
+            log.info( "Migrating counts store to " + layout.countsTreeStore() );
+            ReadOnlyCountsTracker previous = createReadOnlyCountsTracker( layout );
+            previous.setInitializer( countsRebuilder() );
+            previous.init();
+            try
+            {
+                previous.start();
+                counts = new GBPTreeCountsStore( pageCache, layout.countsTreeStore(), cleanup,
+                        GBPTreeCountsStore.migrateFrom( previous, previous.txId() ), readOnly );
+            }
+            finally
+            {
+                previous.shutdown();
+            }
+            log.info( "Counts store migration completed." );
+        }
+        else
+        {
+            counts = new GBPTreeCountsStore( pageCache, layout.countsTreeStore(), cleanup,
+                    GBPTreeCountsStore.rebuildWith( countsRebuilder() ), readOnly );
+        }
+        if ( !readOnly )
+        {
+            // The key/value store isn't kept up to date from now on, so it must not be picked up again
+            deleteCountsKeyValueStoreFiles();
+        }
+        return counts;
+    }
+
+    private void deleteCountsKeyValueStoreFiles()
+    {
+        fileSystemAbstraction.deleteFile( layout.countStoreA() );
+        fileSystemAbstraction.deleteFile( layout.countStoreB() );
+    }
+
+    private DataInitializer<CountsAccessor.Updater> countsRebuilder()
+    {
         NeoStores neoStores = this;
-        counts.setInitializer( new DataInitializer<CountsAccessor.Updater>()
+        return new DataInitializer<CountsAccessor.Updater>()
         {
             private final Log log = logProvider.getLog( MetaDataStore.class );
 
@@ -645,17 +724,7 @@ public class NeoStores implements AutoCloseable
             {
                 return ((MetaDataStore) getOrCreateStore( StoreType.META_DATA )).getLastCommittedTransactionId();
             }
-        } );
-
-        try
-        {
-            counts.init(); // TODO: move this to LifeCycle
-        }
-        catch ( IOException e )
-        {
-            throw new UnderlyingStorageException( "Failed to initialize counts store", e );
-        }
-        return counts;
+        };
     }
 
     CommonAbstractStore createMetadataStore()
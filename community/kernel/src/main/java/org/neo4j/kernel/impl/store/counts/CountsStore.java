@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+import org.neo4j.kernel.impl.api.CountsAccessor;
+
+/**
+ * The counts store of a database, either the key/value store based {@link CountsTracker}, or the {@link GBPTreeCountsStore}
+ * when {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#counts_store_gbptree} is enabled.
+ */
+public interface CountsStore extends CountsAccessor
+{
+    /**
+     * @return the id of the last transaction included in the counts.
+     */
+    long txId();
+
+    /**
+     * @param txId id of the transaction to apply counts changes of.
+     * @return an updater for the changes of the given transaction, or nothing if the store already includes it.
+     */
+    Optional<? extends CountsAccessor.Updater> apply( long txId );
+
+    /**
+     * @return an updater of index statistics.
+     */
+    CountsAccessor.IndexStatsUpdater updateIndexCounts();
+
+    /**
+     * @param txId the id of the last transaction included in the counts written through the returned updater.
+     * @return an updater replacing all node and relationship counts.
+     */
+    CountsAccessor.Updater reset( long txId );
+
+    /**
+     * Makes the counts durable.
+     *
+     * @param txId the lowest transaction id that must be included in the durable counts.
+     * @return the highest transaction id that was included in the durable counts.
+     * @throws IOException on error writing the counts.
+     */
+    long rotate( long txId ) throws IOException;
+
+    /**
+     * @return the files of this store.
+     */
+    Iterable<File> allFiles();
+
+    void start() throws IOException;
+
+    void shutdown() throws IOException;
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import java.util.Objects;
+
+/**
+ * Key of {@link GBPTreeCountsStore}. Every key is a {@link #type} followed by up to three ids whose meaning
+ * depend on the type, unused ids are zero:
+ * <ul>
+ * <li>{@link #NODE}: {@code labelId}</li>
+ * <li>{@link #RELATIONSHIP}: {@code startLabelId}, {@code typeId}, {@code endLabelId}</li>
+ * <li>{@link #INDEX_STATISTICS} and {@link #INDEX_SAMPLE}: {@code indexId}</li>
+ * <li>{@link #DEGREE}: {@code nodeId}, {@code typeId}, {@code direction}</li>
+ * </ul>
+ * Instances are mutable while being read from the tree, but must not be changed once used as map key.
+ */
+class CountsTreeKey
+{
+    static final byte NODE = 1;
+    static final byte RELATIONSHIP = 2;
+    static final byte INDEX_STATISTICS = 3;
+    static final byte INDEX_SAMPLE = 4;
+    static final byte DEGREE = 5;
+
+    static final int SIZE = Byte.BYTES + 3 * Long.BYTES;
+
+    byte type;
+    long first;
+    long second;
+    long third;
+
+    CountsTreeKey()
+    {
+    }
+
+    CountsTreeKey( byte type, long first, long second, long third )
+    {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+    }
+
+    static CountsTreeKey nodeKey( long labelId )
+    {
+        return new CountsTreeKey( NODE, labelId, 0, 0 );
+    }
+
+    static CountsTreeKey relationshipKey( long startLabelId, long typeId, long endLabelId )
+    {
+        return new CountsTreeKey( RELATIONSHIP, startLabelId, typeId, endLabelId );
+    }
+
+    static CountsTreeKey indexStatisticsKey( long indexId )
+    {
+        return new CountsTreeKey( INDEX_STATISTICS, indexId, 0, 0 );
+    }
+
+    static CountsTreeKey indexSampleKey( long indexId )
+    {
+        return new CountsTreeKey( INDEX_SAMPLE, indexId, 0, 0 );
+    }
+
+    static CountsTreeKey degreeKey( long nodeId, long typeId, long direction )
+    {
+        return new CountsTreeKey( DEGREE, nodeId, typeId, direction );
+    }
+
+    boolean isIndexKey()
+    {
+        return type == INDEX_STATISTICS || type == INDEX_SAMPLE;
+    }
+
+    CountsTreeKey copy()
+    {
+        return new CountsTreeKey( type, first, second, third );
+    }
+
+    int compareTo( CountsTreeKey other )
+    {
+        int comparison = Byte.compare( type, other.type );
+        if ( comparison == 0 )
+        {
+            comparison = Long.compare( first, other.first );
+        }
+        if ( comparison == 0 )
+        {
+            comparison = Long.compare( second, other.second );
+        }
+        return comparison != 0 ? comparison : Long.compare( third, other.third );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        CountsTreeKey that = (CountsTreeKey) o;
+        return type == that.type && first == that.first && second == that.second && third == that.third;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( type, first, second, third );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CountsTreeKey[type=" + type + ", " + first + ", " + second + ", " + third + "]";
+    }
+}
@@ -0,0 +1,723 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.api.CountsAccessor;
+import org.neo4j.kernel.impl.api.CountsVisitor;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.store.kvstore.DataInitializer;
+import org.neo4j.register.Register.DoubleLongRegister;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+import static org.neo4j.kernel.impl.store.counts.CountsTreeKey.degreeKey;
+import static org.neo4j.kernel.impl.store.counts.CountsTreeKey.indexSampleKey;
+import static org.neo4j.kernel.impl.store.counts.CountsTreeKey.indexStatisticsKey;
+import static org.neo4j.kernel.impl.store.counts.CountsTreeKey.nodeKey;
+import static org.neo4j.kernel.impl.store.counts.CountsTreeKey.relationshipKey;
+
+/**
+ * Counts store backed by a {@link GBPTree}, as opposed to the {@link CountsTracker} which rewrites its whole
+ * store file on every rotation. Changes are kept in memory until the next {@link #checkpoint(IOLimiter) checkpoint},
+ * where they are merged into the tree, so that only the pages of the changed counts are flushed.
+ * <p>
+ * The tree header keeps the highest gap-free transaction id included in the tree, together with ids of transactions
+ * above it which were also included. {@link #apply(long)} uses these to tell which transactions to skip when
+ * transactions are replayed by recovery.
+ * <p>
+ * Besides the counts of the {@link CountsAccessor} API the store can hold the degrees of dense nodes,
+ * per relationship type and {@link RelationshipDirection direction}.
+ * <p>
+ * {@link org.neo4j.kernel.impl.store.NeoStores} uses this store instead of the {@link CountsTracker} when
+ * {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#counts_store_gbptree} is enabled.
+ */
+public class GBPTreeCountsStore implements CountsStore, Closeable
+{
+    private static final CountsTreeKey LOWEST_KEY = new CountsTreeKey( (byte) 0, Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE );
+    private static final CountsTreeKey FIRST_DEGREE_KEY = degreeKey( Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE );
+    private static final CountsTreeKey HIGHEST_KEY = new CountsTreeKey( Byte.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE );
+
+    private final File file;
+    private final GBPTree<CountsTreeKey,CountsTreeValue> tree;
+    private final boolean readOnly;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock( true );
+    private volatile ConcurrentMap<CountsTreeKey,Change> changes = new ConcurrentHashMap<>();
+
+    // guarded by this.appliedTransactions
+    private final MutableLongSet appliedTransactions = new LongHashSet();
+    private long highestGapFreeTxId;
+
+    /**
+     * @param pageCache {@link PageCache} to map the tree file with.
+     * @param file the tree file, created if it doesn't exist.
+     * @param recoveryCleanupWorkCollector collects recovery cleanup jobs of the tree.
+     * @param initializer called with a visitor to feed the initial counts into, if the tree file is created,
+     * e.g. {@link #migrateFrom(CountsVisitor.Visitable, long) counts from a previous counts store}.
+     * @param readOnly whether or not the store is opened in read only mode.
+     * @throws IOException on error creating or reading the tree.
+     */
+    public GBPTreeCountsStore( PageCache pageCache, File file, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            DataInitializer<CountsVisitor> initializer, boolean readOnly ) throws IOException
+    {
+        this.file = file;
+        this.readOnly = readOnly;
+        CreationMonitor monitor = new CreationMonitor();
+        this.tree = new GBPTree<>( pageCache, file, new CountsTreeLayout(), 0, monitor, this::readHeader,
+                GBPTree.NO_HEADER_WRITER, recoveryCleanupWorkCollector, readOnly );
+        if ( monitor.created )
+        {
+            try
+            {
+                initialize( initializer );
+            }
+            catch ( Throwable e )
+            {
+                tree.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @param previous the store to migrate counts from, typically a {@link ReadOnlyCountsTracker}.
+     * @param txId the id of the last transaction included in {@code previous}.
+     * @return an initializer which copies all counts and index statistics of {@code previous}.
+     */
+    public static DataInitializer<CountsVisitor> migrateFrom( CountsVisitor.Visitable previous, long txId )
+    {
+        return new DataInitializer<CountsVisitor>()
+        {
+            @Override
+            public void initialize( CountsVisitor visitor )
+            {
+                previous.accept( visitor );
+            }
+
+            @Override
+            public long initialVersion()
+            {
+                return txId;
+            }
+        };
+    }
+
+    /**
+     * @param computer initializer which computes the counts from scratch, like {@link org.neo4j.kernel.impl.store.CountsComputer}.
+     * @return an initializer which feeds the counts of {@code computer} into the tree.
+     */
+    public static DataInitializer<CountsVisitor> rebuildWith( DataInitializer<CountsAccessor.Updater> computer )
+    {
+        return new DataInitializer<CountsVisitor>()
+        {
+            @Override
+            public void initialize( CountsVisitor visitor )
+            {
+                // the visitor of the tree adds the visited counts, so the increments of the computer can be passed on as they come
+                computer.initialize( new CountsAccessor.Updater()
+                {
+                    @Override
+                    public void incrementNodeCount( long labelId, long delta )
+                    {
+                        visitor.visitNodeCount( (int) labelId, delta );
+                    }
+
+                    @Override
+                    public void incrementRelationshipCount( long startLabelId, int typeId, long endLabelId, long delta )
+                    {
+                        visitor.visitRelationshipCount( (int) startLabelId, typeId, (int) endLabelId, delta );
+                    }
+
+                    @Override
+                    public void close()
+                    {
+                    }
+                } );
+            }
+
+            @Override
+            public long initialVersion()
+            {
+                return computer.initialVersion();
+            }
+        };
+    }
+
+    private void initialize( DataInitializer<CountsVisitor> initializer ) throws IOException
+    {
+        synchronized ( appliedTransactions )
+        {
+            highestGapFreeTxId = initializer.initialVersion();
+        }
+        try ( Updater updater = new TransactionUpdater( highestGapFreeTxId, false );
+              IndexStatsUpdater stats = updateIndexCounts() )
+        {
+            initializer.initialize( new Initializer( updater, stats ) );
+        }
+        if ( !readOnly )
+        {
+            checkpoint( IOLimiter.UNLIMITED );
+        }
+    }
+
+    /**
+     * @return the highest gap-free transaction id applied to this store.
+     */
+    @Override
+    public long txId()
+    {
+        synchronized ( appliedTransactions )
+        {
+            return highestGapFreeTxId;
+        }
+    }
+
+    /**
+     * @param txId id of the transaction to apply counts changes of.
+     * @return an updater for the changes of the given transaction, or nothing if the store already includes it.
+     */
+    @Override
+    public Optional<Updater> apply( long txId )
+    {
+        synchronized ( appliedTransactions )
+        {
+            if ( txId <= highestGapFreeTxId || appliedTransactions.contains( txId ) )
+            {
+                return Optional.empty();
+            }
+        }
+        return Optional.of( new TransactionUpdater( txId, true ) );
+    }
+
+    /**
+     * @return an updater of index statistics, which aren't tied to transactions.
+     */
+    @Override
+    public IndexStatsUpdater updateIndexCounts()
+    {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        return new IndexStatsUpdater()
+        {
+            @Override
+            public void replaceIndexUpdateAndSize( long indexId, long updates, long size )
+            {
+                change( indexStatisticsKey( indexId ), new Change( true, updates, size ) );
+            }
+
+            @Override
+            public void replaceIndexSample( long indexId, long unique, long size )
+            {
+                change( indexSampleKey( indexId ), new Change( true, unique, size ) );
+            }
+
+            @Override
+            public void incrementIndexUpdates( long indexId, long delta )
+            {
+                change( indexStatisticsKey( indexId ), new Change( false, delta, 0 ) );
+            }
+
+            @Override
+            public void close()
+            {
+                readLock.unlock();
+            }
+        };
+    }
+
+    /**
+     * Replaces all node and relationship counts, and degrees, with the counts written through the returned updater.
+     * Index statistics are kept.
+     *
+     * @param txId the id of the last transaction included in the new counts.
+     * @return updater for the new counts.
+     */
+    @Override
+    public CountsAccessor.Updater reset( long txId )
+    {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try
+        {
+            ConcurrentMap<CountsTreeKey,Change> reset = new ConcurrentHashMap<>();
+            changes.forEach( ( key, change ) ->
+            {
+                if ( key.isIndexKey() )
+                {
+                    reset.put( key, change );
+                }
+            } );
+            try ( RawCursor<Hit<CountsTreeKey,CountsTreeValue>,IOException> cursor = tree.seek( LOWEST_KEY, HIGHEST_KEY ) )
+            {
+                while ( cursor.next() )
+                {
+                    CountsTreeKey key = cursor.get().key();
+                    if ( !key.isIndexKey() )
+                    {
+                        reset.put( key.copy(), new Change( true, 0, 0 ) );
+                    }
+                }
+            }
+            changes = reset;
+            synchronized ( appliedTransactions )
+            {
+                appliedTransactions.clear();
+                highestGapFreeTxId = txId;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+        return new TransactionUpdater( txId, false );
+    }
+
+    /**
+     * {@link #checkpoint(IOLimiter) Checkpoints} the store. All transactions which have been applied are included,
+     * which covers the given transaction as long as it is closed.
+     */
+    @Override
+    public long rotate( long txId ) throws IOException
+    {
+        return checkpoint( IOLimiter.UNLIMITED );
+    }
+
+    /**
+     * Merges all changes applied since the previous checkpoint into the tree and flushes it.
+     *
+     * @param ioLimiter for limiting the flush.
+     * @return the highest gap-free transaction id included in the checkpoint.
+     * @throws IOException on error writing to the tree.
+     */
+    public synchronized long checkpoint( IOLimiter ioLimiter ) throws IOException
+    {
+        if ( readOnly )
+        {
+            return txId();
+        }
+        long txId;
+        long[] stragglers;
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try
+        {
+            Map<CountsTreeKey,Change> snapshot = changes;
+            changes = new ConcurrentHashMap<>();
+            synchronized ( appliedTransactions )
+            {
+                txId = highestGapFreeTxId;
+                stragglers = appliedTransactions.toSortedArray();
+            }
+            writeChanges( snapshot );
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+        tree.checkpoint( ioLimiter, headerWriter( txId, stragglers ) );
+        return txId;
+    }
+
+    private void writeChanges( Map<CountsTreeKey,Change> snapshot ) throws IOException
+    {
+        // Resolve the new values before acquiring the writer, the tree can't be read while being written to
+        List<CountsTreeKey> keys = new ArrayList<>( snapshot.keySet() );
+        keys.sort( CountsTreeKey::compareTo );
+        List<CountsTreeValue> values = new ArrayList<>( keys.size() );
+        for ( CountsTreeKey key : keys )
+        {
+            values.add( snapshot.get( key ).applyTo( lookup( key ) ) );
+        }
+        try ( Writer<CountsTreeKey,CountsTreeValue> writer = tree.writer() )
+        {
+            for ( int i = 0; i < keys.size(); i++ )
+            {
+                CountsTreeKey key = keys.get( i );
+                CountsTreeValue value = values.get( i );
+                if ( !key.isIndexKey() && value.first == 0 && value.second == 0 )
+                {
+                    writer.remove( key );
+                }
+                else
+                {
+                    writer.put( key, value );
+                }
+            }
+        }
+    }
+
+    @Override
+    public DoubleLongRegister nodeCount( int labelId, DoubleLongRegister target )
+    {
+        return get( nodeKey( labelId ), target );
+    }
+
+    @Override
+    public DoubleLongRegister relationshipCount( int startLabelId, int typeId, int endLabelId, DoubleLongRegister target )
+    {
+        return get( relationshipKey( startLabelId, typeId, endLabelId ), target );
+    }
+
+    @Override
+    public DoubleLongRegister indexUpdatesAndSize( long indexId, DoubleLongRegister target )
+    {
+        return get( indexStatisticsKey( indexId ), target );
+    }
+
+    @Override
+    public DoubleLongRegister indexSample( long indexId, DoubleLongRegister target )
+    {
+        return get( indexSampleKey( indexId ), target );
+    }
+
+    /**
+     * @param nodeId id of the dense node.
+     * @param typeId relationship type id.
+     * @param direction direction of the relationships, as seen from the node.
+     * @return the degree recorded for the given node, type and direction.
+     */
+    public long degree( long nodeId, int typeId, RelationshipDirection direction )
+    {
+        return get( degreeKey( nodeId, typeId, direction.ordinal() ) ).second;
+    }
+
+    private DoubleLongRegister get( CountsTreeKey key, DoubleLongRegister target )
+    {
+        CountsTreeValue value = get( key );
+        target.write( value.first, value.second );
+        return target;
+    }
+
+    private CountsTreeValue get( CountsTreeKey key )
+    {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try
+        {
+            CountsTreeValue value = lookup( key );
+            Change change = changes.get( key );
+            return change == null ? value : change.applyTo( value );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        finally
+        {
+            readLock.unlock();
+        }
+    }
+
+    private CountsTreeValue lookup( CountsTreeKey key ) throws IOException
+    {
+        try ( RawCursor<Hit<CountsTreeKey,CountsTreeValue>,IOException> cursor = tree.seek( key, key ) )
+        {
+            if ( cursor.next() )
+            {
+                CountsTreeValue value = cursor.get().value();
+                return new CountsTreeValue( value.first, value.second );
+            }
+            return new CountsTreeValue();
+        }
+    }
+
+    /**
+     * Visits counts and index statistics, but not degrees, which aren't part of the {@link CountsVisitor} API.
+     */
+    @Override
+    public void accept( CountsVisitor visitor )
+    {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try
+        {
+            Map<CountsTreeKey,Change> pending = new HashMap<>( changes );
+            try ( RawCursor<Hit<CountsTreeKey,CountsTreeValue>,IOException> cursor = tree.seek( LOWEST_KEY, FIRST_DEGREE_KEY ) )
+            {
+                while ( cursor.next() )
+                {
+                    CountsTreeKey key = cursor.get().key();
+                    CountsTreeValue value = cursor.get().value();
+                    Change change = pending.remove( key );
+                    visit( visitor, key, change == null ? value : change.applyTo( new CountsTreeValue( value.first, value.second ) ) );
+                }
+            }
+            pending.entrySet().stream()
+                    .filter( entry -> entry.getKey().type != CountsTreeKey.DEGREE )
+                    .sorted( ( a, b ) -> a.getKey().compareTo( b.getKey() ) )
+                    .forEach( entry -> visit( visitor, entry.getKey(), entry.getValue().applyTo( new CountsTreeValue() ) ) );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+        finally
+        {
+            readLock.unlock();
+        }
+    }
+
+    private static void visit( CountsVisitor visitor, CountsTreeKey key, CountsTreeValue value )
+    {
+        switch ( key.type )
+        {
+        case CountsTreeKey.NODE:
+            visitor.visitNodeCount( (int) key.first, value.second );
+            break;
+        case CountsTreeKey.RELATIONSHIP:
+            visitor.visitRelationshipCount( (int) key.first, (int) key.second, (int) key.third, value.second );
+            break;
+        case CountsTreeKey.INDEX_STATISTICS:
+            visitor.visitIndexStatistics( key.first, value.first, value.second );
+            break;
+        case CountsTreeKey.INDEX_SAMPLE:
+            visitor.visitIndexSample( key.first, value.first, value.second );
+            break;
+        default:
+            throw new IllegalStateException( "Unexpected key " + key );
+        }
+    }
+
+    @Override
+    public Iterable<File> allFiles()
+    {
+        return Collections.singletonList( file );
+    }
+
+    @Override
+    public void start()
+    {
+        // The tree is opened by the constructor
+    }
+
+    @Override
+    public void shutdown() throws IOException
+    {
+        close();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        tree.close();
+    }
+
+    private void change( CountsTreeKey key, Change change )
+    {
+        changes.merge( key, change, Change::plus );
+    }
+
+    private void transactionApplied( long txId )
+    {
+        synchronized ( appliedTransactions )
+        {
+            if ( txId != highestGapFreeTxId + 1 )
+            {
+                appliedTransactions.add( txId );
+                return;
+            }
+            highestGapFreeTxId = txId;
+            while ( appliedTransactions.remove( highestGapFreeTxId + 1 ) )
+            {
+                highestGapFreeTxId++;
+            }
+        }
+    }
+
+    private void readHeader( ByteBuffer header )
+    {
+        if ( header.remaining() < Long.BYTES + Integer.BYTES )
+        {
+            // Not checkpointed yet
+            return;
+        }
+        synchronized ( appliedTransactions )
+        {
+            highestGapFreeTxId = header.getLong();
+            int stragglers = header.getInt();
+            for ( int i = 0; i < stragglers; i++ )
+            {
+                appliedTransactions.add( header.getLong() );
+            }
+        }
+    }
+
+    private static Consumer<PageCursor> headerWriter( long txId, long[] stragglers )
+    {
+        return cursor ->
+        {
+            cursor.putLong( txId );
+            cursor.putInt( stragglers.length );
+            for ( long straggler : stragglers )
+            {
+                cursor.putLong( straggler );
+            }
+        };
+    }
+
+    /**
+     * {@link CountsAccessor.Updater} which can also update degrees of dense nodes.
+     */
+    public interface Updater extends CountsAccessor.Updater
+    {
+        /**
+         * @param nodeId id of the dense node.
+         * @param typeId relationship type id.
+         * @param direction direction of the relationships, as seen from the node.
+         * @param delta change of the degree.
+         */
+        void incrementDegree( long nodeId, int typeId, RelationshipDirection direction, long delta );
+    }
+
+    private class TransactionUpdater implements Updater
+    {
+        private final long txId;
+        private final boolean markApplied;
+        private final Lock readLock = lock.readLock();
+
+        TransactionUpdater( long txId, boolean markApplied )
+        {
+            this.txId = txId;
+            this.markApplied = markApplied;
+            readLock.lock();
+        }
+
+        @Override
+        public void incrementNodeCount( long labelId, long delta )
+        {
+            if ( delta != 0 )
+            {
+                change( nodeKey( labelId ), new Change( false, 0, delta ) );
+            }
+        }
+
+        @Override
+        public void incrementRelationshipCount( long startLabelId, int typeId, long endLabelId, long delta )
+        {
+            if ( delta != 0 )
+            {
+                change( relationshipKey( startLabelId, typeId, endLabelId ), new Change( false, 0, delta ) );
+            }
+        }
+
+        @Override
+        public void incrementDegree( long nodeId, int typeId, RelationshipDirection direction, long delta )
+        {
+            if ( delta != 0 )
+            {
+                change( degreeKey( nodeId, typeId, direction.ordinal() ), new Change( false, 0, delta ) );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            try
+            {
+                if ( markApplied )
+                {
+                    transactionApplied( txId );
+                }
+            }
+            finally
+            {
+                readLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A change of a value, either a delta to add to it or a value to replace it with.
+     */
+    private static final class Change
+    {
+        private final boolean replace;
+        private final long first;
+        private final long second;
+
+        Change( boolean replace, long first, long second )
+        {
+            this.replace = replace;
+            this.first = first;
+            this.second = second;
+        }
+
+        Change plus( Change next )
+        {
+            return next.replace ? next : new Change( replace, first + next.first, second + next.second );
+        }
+
+        CountsTreeValue applyTo( CountsTreeValue value )
+        {
+            if ( replace )
+            {
+                value.first = first;
+                value.second = second;
+            }
+            else
+            {
+                value.first += first;
+                value.second += second;
+            }
+            return value;
+        }
+    }
+
+    private static class CreationMonitor extends GBPTree.Monitor.Adaptor
+    {
+        private boolean created;
+
+        @Override
+        public void noStoreFile()
+        {
+            created = true;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+/**
+ * Keeps the {@link ValueHistogram} of every index in a file of its own, next to the counts store.
+ * Histograms are only derived data, produced by index sampling, which is why they don't go through
+ * the transaction log: a missing or unreadable histogram simply means that the planner falls back
+ * to estimates based on unique values, until the index is sampled again.
+ */
+public class IndexHistogramStore
+{
+    private static final String SUFFIX = ".histogram";
+
+    private final FileSystemAbstraction fileSystem;
+    private final File directory;
+    private final ConcurrentMap<Long,Optional<ValueHistogram>> cache = new ConcurrentHashMap<>();
+
+    public IndexHistogramStore( FileSystemAbstraction fileSystem, File directory )
+    {
+        this.fileSystem = fileSystem;
+        this.directory = directory;
+    }
+
+    /**
+     * @param indexId id of the index.
+     * @return histogram of the given index, or {@code null} if there is none.
+     */
+    public ValueHistogram histogram( long indexId )
+    {
+        return cache.computeIfAbsent( indexId, this::read ).orElse( null );
+    }
+
+    /**
+     * @param indexId id of the index.
+     * @param histogram new histogram of the given index, or {@code null} to remove it.
+     */
+    public synchronized void replace( long indexId, ValueHistogram histogram )
+    {
+        File file = file( indexId );
+        try
+        {
+            if ( histogram == null )
+            {
+                fileSystem.deleteFile( file );
+            }
+            else
+            {
+                fileSystem.mkdirs( directory );
+                File temp = new File( directory, file.getName() + ".tmp" );
+                try ( OutputStream out = fileSystem.openAsOutputStream( temp, false );
+                      DataOutputStream data = new DataOutputStream( out ) )
+                {
+                    histogram.writeTo( data );
+                }
+                fileSystem.renameFile( temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        cache.put( indexId, Optional.ofNullable( histogram ) );
+    }
+
+    /**
+     * @return the histogram files currently in the store.
+     */
+    public List<File> files()
+    {
+        File[] files = fileSystem.listFiles( directory, ( dir, name ) -> name.endsWith( SUFFIX ) );
+        return files == null ? emptyList() : asList( files );
+    }
+
+    private Optional<ValueHistogram> read( long indexId )
+    {
+        File file = file( indexId );
+        if ( !fileSystem.fileExists( file ) )
+        {
+            return Optional.empty();
+        }
+        try ( InputStream in = fileSystem.openAsInputStream( file );
+              DataInputStream data = new DataInputStream( in ) )
+        {
+            return Optional.of( ValueHistogram.readFrom( data ) );
+        }
+        catch ( IOException e )
+        {
+            // Only derived data, the next sampling of the index will write a new one
+            return Optional.empty();
+        }
+    }
+
+    private File file( long indexId )
+    {
+        return new File( directory, indexId + SUFFIX );
+    }
+}
@@ -38,6 +38,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.register.Register;
 import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.util.FeatureToggles;
 import org.neo4j.values.storable.Value;
 
@@ -118,6 +119,18 @@ public class DynamicIndexStoreView implements IndexStoreView
         neoStoreIndexStoreView.incrementIndexUpdates( indexId, updatesDelta );
     }
 
+    @Override
+    public ValueHistogram indexHistogram( long indexId )
+    {
+        return neoStoreIndexStoreView.indexHistogram( indexId );
+    }
+
+    @Override
+    public void replaceIndexHistogram( long indexId, ValueHistogram histogram )
+    {
+        neoStoreIndexStoreView.replaceIndexHistogram( indexId, histogram );
+    }
+
     private boolean useAllNodeStoreScan( int[] labelIds )
     {
         try
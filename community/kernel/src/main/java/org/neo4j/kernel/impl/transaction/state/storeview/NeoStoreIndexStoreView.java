@@ -36,7 +36,7 @@ import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
-import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.CountsStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
@@ -44,6 +44,7 @@ import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -59,7 +60,7 @@ public class NeoStoreIndexStoreView implements IndexStoreView
     protected final NodeStore nodeStore;
     protected final RelationshipStore relationshipStore;
     protected final LockService locks;
-    private final CountsTracker counts;
+    private final CountsStore counts;
     private final NeoStores neoStores;
 
     public NeoStoreIndexStoreView( LockService locks, NeoStores neoStores )
@@ -103,6 +104,18 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         return counts.indexSample( indexId, output );
     }
 
+    @Override
+    public ValueHistogram indexHistogram( long indexId )
+    {
+        return neoStores.getIndexHistograms().histogram( indexId );
+    }
+
+    @Override
+    public void replaceIndexHistogram( long indexId, ValueHistogram histogram )
+    {
+        neoStores.getIndexHistograms().replace( indexId, histogram );
+    }
+
     @Override
     public <FAILURE extends Exception> StoreScan<FAILURE> visitNodes(
             final int[] labelIds, IntPredicate propertyKeyIdFilter,
@@ -35,6 +35,10 @@ import org.neo4j.memory.MemoryAllocationTracker;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.storable.Value;
 
+/**
+ * Creates transaction state collections in off-heap memory. Every transaction gets its own factory, optionally limited
+ * in how much memory it can allocate, on top of the limit shared by all transactions of the given block allocator.
+ */
 public class OffHeapCollectionsFactory implements CollectionsFactory
 {
     private final MemoryAllocationTracker memoryTracker = new LocalMemoryTracker();
@@ -45,7 +49,18 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
 
     public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator )
     {
-        this.allocator = new OffHeapMemoryAllocator( memoryTracker, blockAllocator );
+        this( blockAllocator, 0 );
+    }
+
+    /**
+     * @param blockAllocator allocator shared by all transactions.
+     * @param maxTransactionMemory maximum number of bytes this factory can have allocated at any time, zero means unlimited.
+     */
+    public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator, long maxTransactionMemory )
+    {
+        OffHeapBlockAllocator transactionAllocator =
+                maxTransactionMemory > 0 ? new CapacityLimitingBlockAllocatorDecorator( blockAllocator, maxTransactionMemory ) : blockAllocator;
+        this.allocator = new OffHeapMemoryAllocator( memoryTracker, transactionAllocator );
     }
 
     @Override
@@ -20,6 +20,9 @@
 package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -43,11 +46,21 @@ public class DefaultRecoveryService implements RecoveryService
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
+    private final int applyParallelism;
 
     public DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner,
             TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
             LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor )
     {
+        this( storageEngine, logTailScanner, transactionIdStore, logicalTransactionStore, logVersionRepository, monitor, 1 );
+    }
+
+    public DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner,
+            TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
+            LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor,
+            int applyParallelism )
+    {
+        this.applyParallelism = applyParallelism;
         this.storageEngine = storageEngine;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
@@ -75,7 +88,7 @@ public class DefaultRecoveryService implements RecoveryService
     @Override
     public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode ) throws Exception
     {
-        return new RecoveryVisitor( storageEngine, mode );
+        return new RecoveryVisitor( storageEngine, mode, applyParallelism );
     }
 
     @Override
@@ -109,32 +122,96 @@ public class DefaultRecoveryService implements RecoveryService
         logVersionRepository.setCurrentLogVersion( recoveredTransactionLogVersion );
     }
 
+    /**
+     * Applies recovered transactions to the storage engine. When the storage engine applies transactions in parallel,
+     * transactions recovered in forward order are applied in batches, which lets it apply the independent transactions
+     * of a batch at the same time. Otherwise every transaction is applied as it is visited.
+     */
     static class RecoveryVisitor implements RecoveryApplier
     {
+        static final int BATCH_SIZE = 100;
+
         private final StorageEngine storageEngine;
         private final TransactionApplicationMode mode;
+        private final int batchSize;
+        private final List<CommittedTransactionRepresentation> batch;
+        private Consumer<CommittedTransactionRepresentation> appliedListener = transaction -> {};
 
-        RecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode )
+        RecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode, int applyParallelism )
         {
             this.storageEngine = storageEngine;
             this.mode = mode;
+            // Reverse recovery must undo transactions one by one, in reverse order
+            this.batchSize = mode == TransactionApplicationMode.RECOVERY && applyParallelism > 1 ? BATCH_SIZE : 1;
+            this.batch = new ArrayList<>( batchSize );
+        }
+
+        @Override
+        public boolean applyInBatches( Consumer<CommittedTransactionRepresentation> appliedListener )
+        {
+            this.appliedListener = appliedListener;
+            return batchSize > 1;
         }
 
         @Override
         public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
+        {
+            if ( batchSize == 1 )
+            {
+                storageEngine.apply( toApply( transaction ), mode );
+                return false;
+            }
+            batch.add( transaction );
+            if ( batch.size() >= batchSize )
+            {
+                applyBatch();
+            }
+            return false;
+        }
+
+        private void applyBatch() throws Exception
+        {
+            if ( batch.isEmpty() )
+            {
+                return;
+            }
+            TransactionToApply first = null;
+            TransactionToApply last = null;
+            for ( CommittedTransactionRepresentation transaction : batch )
+            {
+                TransactionToApply tx = toApply( transaction );
+                if ( first == null )
+                {
+                    first = tx;
+                }
+                else
+                {
+                    last.next( tx );
+                }
+                last = tx;
+            }
+            storageEngine.apply( first, mode );
+            for ( CommittedTransactionRepresentation transaction : batch )
+            {
+                appliedListener.accept( transaction );
+            }
+            batch.clear();
+        }
+
+        private static TransactionToApply toApply( CommittedTransactionRepresentation transaction )
         {
             TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
             long txId = transaction.getCommitEntry().getTxId();
             TransactionToApply tx = new TransactionToApply( txRepresentation, txId );
             tx.commitment( NO_COMMITMENT, txId );
             tx.logPosition( transaction.getStartEntry().getStartPosition() );
-            storageEngine.apply( tx, mode );
-            return false;
+            return tx;
         }
 
         @Override
-        public void close()
-        {   // nothing to close
+        public void close() throws Exception
+        {
+            applyBatch();
         }
     }
 }
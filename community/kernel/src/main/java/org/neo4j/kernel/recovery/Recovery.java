@@ -21,6 +21,8 @@ package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
 import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -49,6 +51,8 @@ public class Recovery extends LifecycleAdapter
     private final ProgressReporter progressReporter;
     private final boolean failOnCorruptedLogFiles;
     private int numberOfRecoveredTransactions;
+    private CommittedTransactionRepresentation lastTransaction;
+    private LogPosition recoveryToPosition;
 
     public Recovery( RecoveryService recoveryService, CorruptedLogsTruncator logsTruncator, Lifecycle schemaLife,
             RecoveryMonitor monitor, ProgressReporter progressReporter, boolean failOnCorruptedLogFiles )
@@ -77,8 +81,7 @@ public class Recovery extends LifecycleAdapter
         monitor.recoveryRequired( recoveryPosition );
         recoveryService.startRecovery();
 
-        LogPosition recoveryToPosition = recoveryPosition;
-        CommittedTransactionRepresentation lastTransaction = null;
+        recoveryToPosition = recoveryPosition;
         CommittedTransactionRepresentation lastReversedTransaction = null;
         try
         {
@@ -107,21 +110,31 @@ public class Recovery extends LifecycleAdapter
             // of the schema life until after we've done the reverse recovery.
             schemaLife.init();
 
+            LogPosition endPosition;
             try ( TransactionCursor transactionsToRecover = recoveryService.getTransactions( recoveryPosition );
                     RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY ) )
             {
+                // a transaction only counts as recovered once it has been applied, which a batching applier does after
+                // later transactions have been visited, so the log positions after the pending ones are queued until then
+                Deque<LogPosition> pendingPositions = new ArrayDeque<>();
+                boolean batched = recoveryVisitor.applyInBatches( transaction -> transactionRecovered( transaction, pendingPositions.remove() ) );
                 while ( transactionsToRecover.next() )
                 {
-                    lastTransaction = transactionsToRecover.get();
-                    long txId = lastTransaction.getCommitEntry().getTxId();
-                    recoveryVisitor.visit( lastTransaction );
-                    monitor.transactionRecovered( txId );
-                    numberOfRecoveredTransactions++;
-                    recoveryToPosition = transactionsToRecover.position();
-                    reportProgress();
+                    CommittedTransactionRepresentation transaction = transactionsToRecover.get();
+                    if ( batched )
+                    {
+                        pendingPositions.add( transactionsToRecover.position() );
+                        recoveryVisitor.visit( transaction );
+                    }
+                    else
+                    {
+                        recoveryVisitor.visit( transaction );
+                        transactionRecovered( transaction, transactionsToRecover.position() );
+                    }
                 }
-                recoveryToPosition = transactionsToRecover.position();
+                endPosition = transactionsToRecover.position();
             }
+            recoveryToPosition = endPosition;
         }
         catch ( Error | ClosedByInterruptException e )
         {
@@ -153,6 +166,15 @@ public class Recovery extends LifecycleAdapter
         monitor.recoveryCompleted( numberOfRecoveredTransactions );
     }
 
+    private void transactionRecovered( CommittedTransactionRepresentation transaction, LogPosition positionAfterTransaction )
+    {
+        lastTransaction = transaction;
+        recoveryToPosition = positionAfterTransaction;
+        monitor.transactionRecovered( transaction.getCommitEntry().getTxId() );
+        numberOfRecoveredTransactions++;
+        reportProgress();
+    }
+
     static void throwUnableToCleanRecover( Throwable t )
     {
         throw new RuntimeException(
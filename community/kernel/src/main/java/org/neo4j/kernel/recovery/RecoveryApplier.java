@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.recovery;
 
+import java.util.function.Consumer;
+
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 
@@ -27,4 +29,16 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
  */
 public interface RecoveryApplier extends Visitor<CommittedTransactionRepresentation,Exception>, AutoCloseable
 {
+    /**
+     * Visited transactions are applied by the time {@link #visit(Object)} returns, unless the applier collects them
+     * into batches. Such an applier tells the given listener about every transaction, in order, once it has been
+     * applied, which may be as late as {@link #close()}.
+     *
+     * @param appliedListener notified about every applied transaction if this applier applies them in batches.
+     * @return {@code true} if transactions are applied in batches and the listener will be notified.
+     */
+    default boolean applyInBatches( Consumer<CommittedTransactionRepresentation> appliedListener )
+    {
+        return false;
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.api.index.IndexStoreView;
+import org.neo4j.kernel.impl.api.index.sampling.IncrementalIndexSampling.Refresh;
+import org.neo4j.register.Register.DoubleLongRegister;
+import org.neo4j.storageengine.api.schema.HyperLogLog;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.api.index.sampling.IncrementalIndexSampling.Refresh.HISTOGRAM_OUTDATED;
+import static org.neo4j.kernel.impl.api.index.sampling.IncrementalIndexSampling.Refresh.NOT_TRACKED;
+import static org.neo4j.kernel.impl.api.index.sampling.IncrementalIndexSampling.Refresh.REFRESHED;
+import static org.neo4j.values.storable.Values.longValue;
+
+public class IncrementalIndexSamplingTest
+{
+    private final long indexId = 1;
+    private final IndexStoreView storeView = mock( IndexStoreView.class );
+    private final IncrementalIndexSampling sampling = new IncrementalIndexSampling( true, 0.1, storeView );
+
+    @Test
+    public void shouldNotRefreshIndexWhichHasNotBeenSeeded()
+    {
+        assertNull( sampling.sketch( indexId ) );
+        assertEquals( NOT_TRACKED, sampling.refresh( indexId ) );
+        verify( storeView, never() ).replaceIndexCounts( anyLong(), anyLong(), anyLong(), anyLong() );
+    }
+
+    @Test
+    public void shouldNotSeedNonUniqueIndexFromSampleWithoutSketch()
+    {
+        // when
+        sampling.seed( indexId, false, new IndexSample( 10, 5, 10 ) );
+
+        // then
+        assertNull( sampling.sketch( indexId ) );
+    }
+
+    @Test
+    public void shouldNotTrackAnythingWhenDisabled()
+    {
+        // given
+        IncrementalIndexSampling disabled = new IncrementalIndexSampling( false, 0.1, storeView );
+
+        // when
+        disabled.seed( indexId, true, new IndexSample( 10, 10, 10 ) );
+
+        // then
+        assertNull( disabled.sketch( indexId ) );
+        assertEquals( NOT_TRACKED, disabled.refresh( indexId ) );
+    }
+
+    @Test
+    public void shouldNotWriteCountsIfNothingChangedSinceSeeded()
+    {
+        // given
+        sampling.seed( indexId, true, new IndexSample( 10, 10, 10 ) );
+        indexSizeInStore( 10 );
+
+        // when
+        Refresh refreshed = sampling.refresh( indexId );
+
+        // then
+        assertEquals( REFRESHED, refreshed );
+        verify( storeView, never() ).replaceIndexCounts( anyLong(), anyLong(), anyLong(), anyLong() );
+    }
+
+    @Test
+    public void shouldFollowIndexSizeForUniqueIndex()
+    {
+        // given
+        sampling.seed( indexId, true, new IndexSample( 10, 10, 10 ) );
+        indexSizeInStore( 10 );
+        assertFalse( sampling.sketch( indexId ).needsValueHashes() );
+
+        // when
+        sampling.sketch( indexId ).record( new LongArrayList(), 5 );
+        sampling.refresh( indexId );
+
+        // then
+        verify( storeView ).replaceIndexCounts( indexId, 15, 15, 15 );
+    }
+
+    @Test
+    public void shouldFoldAddedValuesIntoSketchOfNonUniqueIndex()
+    {
+        // given an index with 100 entries of 10 distinct values
+        HyperLogLog distinctValues = new HyperLogLog();
+        for ( int i = 0; i < 10; i++ )
+        {
+            distinctValues.add( longValue( i ) );
+        }
+        sampling.seed( indexId, false, new IndexSample( 100, 10, 100, distinctValues ) );
+        indexSizeInStore( 100 );
+
+        // when adding 20 entries of which 10 have new values
+        LongArrayList added = new LongArrayList();
+        for ( int i = 0; i < 20; i++ )
+        {
+            added.add( HyperLogLog.hash( longValue( i ) ) );
+        }
+        sampling.sketch( indexId ).record( added, 20 );
+        sampling.refresh( indexId );
+
+        // then
+        verify( storeView ).replaceIndexCounts( indexId, 20, 120, 120 );
+    }
+
+    @Test
+    public void shouldCapUniqueValuesByIndexSize()
+    {
+        // given
+        HyperLogLog distinctValues = new HyperLogLog();
+        for ( int i = 0; i < 10; i++ )
+        {
+            distinctValues.add( longValue( i ) );
+        }
+        sampling.seed( indexId, false, new IndexSample( 10, 10, 10, distinctValues ) );
+        indexSizeInStore( 10 );
+
+        // when removing values, which the sketch can't forget
+        sampling.sketch( indexId ).record( new LongArrayList(), -6 );
+        sampling.refresh( indexId );
+
+        // then
+        verify( storeView ).replaceIndexCounts( indexId, 4, 4, 4 );
+    }
+
+    @Test
+    public void shouldAskForFullSampleOnceHistogramHasSeenTooManyUpdates()
+    {
+        // given an index of 100 entries with a histogram, allowing for 10 updates
+        ValueHistogram histogram = ValueHistogram.builder().add( longValue( 1 ), 100 ).build();
+        sampling.seed( indexId, true, new IndexSample( 100, 100, 100, null, histogram ) );
+
+        // when
+        sampling.sketch( indexId ).record( new LongArrayList(), 5 );
+        indexUpdatesAndSizeInStore( 5, 100 );
+
+        // then
+        assertEquals( REFRESHED, sampling.refresh( indexId ) );
+        verify( storeView ).replaceIndexCounts( indexId, 105, 105, 105 );
+
+        // when
+        sampling.sketch( indexId ).record( new LongArrayList(), 8 );
+        indexUpdatesAndSizeInStore( 8, 105 );
+
+        // then
+        assertEquals( HISTOGRAM_OUTDATED, sampling.refresh( indexId ) );
+        verify( storeView ).replaceIndexCounts( indexId, 113, 113, 113 );
+    }
+
+    @Test
+    public void shouldCountUpdatesWithoutSizeChangesTowardsOutdatedHistogram()
+    {
+        // given
+        ValueHistogram histogram = ValueHistogram.builder().add( longValue( 1 ), 100 ).build();
+        sampling.seed( indexId, true, new IndexSample( 100, 100, 100, null, histogram ) );
+
+        // when values are only changed, which leaves nothing to refresh
+        indexUpdatesAndSizeInStore( 20, 100 );
+
+        // then
+        assertEquals( HISTOGRAM_OUTDATED, sampling.refresh( indexId ) );
+        verify( storeView, never() ).replaceIndexCounts( anyLong(), anyLong(), anyLong(), anyLong() );
+    }
+
+    @Test
+    public void shouldNotAskForFullSampleOfIndexWithoutHistogram()
+    {
+        // given
+        sampling.seed( indexId, true, new IndexSample( 100, 100, 100 ) );
+
+        // when
+        indexUpdatesAndSizeInStore( 50, 100 );
+
+        // then
+        assertEquals( REFRESHED, sampling.refresh( indexId ) );
+    }
+
+    @Test
+    public void shouldStopTrackingForgottenIndex()
+    {
+        // given
+        sampling.seed( indexId, true, new IndexSample( 10, 10, 10 ) );
+
+        // when
+        sampling.forget( indexId );
+
+        // then
+        assertNull( sampling.sketch( indexId ) );
+    }
+
+    private void indexSizeInStore( long size )
+    {
+        indexUpdatesAndSizeInStore( 0, size );
+    }
+
+    private void indexUpdatesAndSizeInStore( long updates, long size )
+    {
+        when( storeView.indexUpdatesAndSize( eq( indexId ), any( DoubleLongRegister.class ) ) ).thenAnswer( invocation ->
+        {
+            DoubleLongRegister register = invocation.getArgument( 1 );
+            register.write( updates, size );
+            return register;
+        } );
+    }
+}
@@ -29,17 +29,23 @@ import org.neo4j.function.Predicates;
 import org.neo4j.kernel.impl.api.index.IndexMap;
 import org.neo4j.kernel.impl.api.index.IndexMapSnapshotProvider;
 import org.neo4j.kernel.impl.api.index.IndexProxy;
+import org.neo4j.kernel.impl.api.index.IndexStoreView;
 import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.scheduler.JobHandle;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.schema.CapableIndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.test.DoubleLatch;
 import org.neo4j.util.FeatureToggles;
+import org.neo4j.values.storable.Values;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -111,6 +117,34 @@ public class IndexSamplingControllerTest
         verifyNoMoreInteractions( jobFactory, tracker );
     }
 
+    @Test
+    public void shouldFullySampleIncrementallyTrackedIndexOnceItsHistogramIsOutdated()
+    {
+        // given an index seeded with a histogram, which has since seen more updates than the update ratio allows for
+        IndexStoreView storeView = mock( IndexStoreView.class );
+        when( storeView.indexUpdatesAndSize( eq( indexId ), any( DoubleLongRegister.class ) ) ).thenAnswer( invocation ->
+        {
+            DoubleLongRegister register = invocation.getArgument( 1 );
+            register.write( 50, 100 );
+            return register;
+        } );
+        IncrementalIndexSampling incrementalSampling = new IncrementalIndexSampling( true, 0.1, storeView );
+        ValueHistogram histogram = ValueHistogram.builder().add( Values.longValue( 1 ), 100 ).build();
+        incrementalSampling.seed( indexId, true, new IndexSample( 100, 100, 100, null, histogram ) );
+
+        IndexSamplingJobQueue<Long> onlyForcedJobs = new IndexSamplingJobQueue<>( Predicates.alwaysFalse() );
+        IndexSamplingController controller = new IndexSamplingController( samplingConfig, jobFactory, onlyForcedJobs, tracker, snapshotProvider,
+                scheduler, always( false ), incrementalSampling, logProvider );
+        when( tracker.canExecuteMoreSamplingJobs() ).thenReturn( true );
+        when( indexProxy.getState() ).thenReturn( ONLINE );
+
+        // when
+        controller.sampleIndexes( BACKGROUND_REBUILD_UPDATED );
+
+        // then
+        verify( tracker ).scheduleSamplingJob( job );
+    }
+
     @Test
     public void shouldNotStartAJobIfTheIndexIsNotOnline()
     {
@@ -179,7 +213,8 @@ public class IndexSamplingControllerTest
         };
 
         final IndexSamplingController controller = new IndexSamplingController(
-                samplingConfig, jobFactory, jobQueue, tracker, snapshotProvider, scheduler, always( false ), logProvider );
+                samplingConfig, jobFactory, jobQueue, tracker, snapshotProvider, scheduler, always( false ),
+                IncrementalIndexSampling.disabled(), logProvider );
         when( tracker.canExecuteMoreSamplingJobs() ).thenReturn( true );
         when( indexProxy.getState() ).thenReturn( ONLINE );
 
@@ -275,7 +310,7 @@ public class IndexSamplingControllerTest
 
         final IndexSamplingController controller = new IndexSamplingController(
                 samplingConfig, jobFactory, jobQueue, tracker, snapshotProvider, scheduler, always( true ),
-                logProvider );
+                IncrementalIndexSampling.disabled(), logProvider );
         when( tracker.canExecuteMoreSamplingJobs() ).thenReturn( true );
         when( indexProxy.getState() ).thenReturn( ONLINE );
 
@@ -503,7 +538,8 @@ public class IndexSamplingControllerTest
 
     private IndexSamplingController newSamplingController( IndexSamplingController.RecoveryCondition recoveryPredicate, LogProvider logProvider )
     {
-        return new IndexSamplingController( samplingConfig, jobFactory, jobQueue, tracker, snapshotProvider, scheduler, recoveryPredicate, logProvider );
+        return new IndexSamplingController( samplingConfig, jobFactory, jobQueue, tracker, snapshotProvider, scheduler, recoveryPredicate,
+                IncrementalIndexSampling.disabled(), logProvider );
     }
 
     private Runnable runController( final IndexSamplingController controller, final IndexSamplingMode mode )
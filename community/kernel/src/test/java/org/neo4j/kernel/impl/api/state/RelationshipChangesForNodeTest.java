@@ -24,6 +24,7 @@ import org.hamcrest.Matcher;
 import org.junit.Test;
 
 import org.neo4j.collection.PrimitiveLongCollections;
+import org.neo4j.kernel.impl.util.collection.OnHeapCollectionsFactory;
 import org.neo4j.storageengine.api.RelationshipDirection;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -39,7 +40,7 @@ public class RelationshipChangesForNodeTest
     public void shouldGetRelationships()
     {
         RelationshipChangesForNode changes = new RelationshipChangesForNode(
-                RelationshipChangesForNode.DiffStrategy.ADD );
+                RelationshipChangesForNode.DiffStrategy.ADD, OnHeapCollectionsFactory.INSTANCE );
 
         final int TYPE = 2;
 
@@ -58,7 +59,7 @@ public class RelationshipChangesForNodeTest
     public void shouldGetRelationshipsByTypeAndDirection()
     {
         RelationshipChangesForNode changes = new RelationshipChangesForNode(
-                RelationshipChangesForNode.DiffStrategy.ADD );
+                RelationshipChangesForNode.DiffStrategy.ADD, OnHeapCollectionsFactory.INSTANCE );
 
         final int TYPE = 2;
         final int DECOY_TYPE = 666;
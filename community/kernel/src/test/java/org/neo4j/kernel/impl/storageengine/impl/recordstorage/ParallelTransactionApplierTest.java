@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.neo4j.kernel.impl.api.BatchTransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.store.InlineNodeLabels;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.values.storable.Value;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
+import static org.neo4j.values.storable.Values.intValue;
+
+public class ParallelTransactionApplierTest
+{
+    private final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldGroupIndependentTransactions() throws Exception
+    {
+        // given
+        TransactionToApply batch = batch(
+                tx( 1, node( 1 ) ),
+                tx( 2, node( 2 ), new Command.NodeCountsCommand( -1, 1 ) ),
+                tx( 3, relationship( 10, 1, 3 ) ),
+                tx( 4, new Command.LabelTokenCommand( new LabelTokenRecord( 0 ), new LabelTokenRecord( 0 ) ) ),
+                tx( 5, node( 4 ) ),
+                tx( 6, property( 20, 4 ) ),
+                tx( 7, property( 21, 5 ) ) );
+
+        // when
+        List<List<CommandsToApply>> groups = ParallelTransactionApplier.independentGroups( batch );
+
+        // then
+        assertEquals( Arrays.asList( Arrays.asList( 1L, 2L ), Arrays.asList( 3L ), Arrays.asList( 4L ), Arrays.asList( 5L ), Arrays.asList( 6L, 7L ) ),
+                transactionIds( groups ) );
+    }
+
+    @Test
+    public void shouldNotGroupAdditionOfValueWithPrecedingRemovalOfSameValue() throws Exception
+    {
+        // given
+        TransactionToApply batch = batch(
+                tx( 1, propertyValue( 20, 1, intValue( 42 ), null ) ),
+                tx( 2, propertyValue( 21, 2, null, intValue( 42 ) ) ),
+                tx( 3, propertyValue( 22, 3, null, intValue( 43 ) ) ),
+                tx( 4, propertyValue( 23, 4, intValue( 44 ), null ) ) );
+
+        // when
+        List<List<CommandsToApply>> groups = ParallelTransactionApplier.independentGroups( batch );
+
+        // then
+        assertEquals( Arrays.asList( Arrays.asList( 1L ), Arrays.asList( 2L, 3L, 4L ) ), transactionIds( groups ) );
+    }
+
+    @Test
+    public void shouldNotGroupAdditionOfLabelsWithPrecedingRemovalOfValuesOrLabels() throws Exception
+    {
+        // given
+        TransactionToApply batch = batch(
+                tx( 1, labeledNode( 1, new long[]{3}, new long[0] ) ),
+                tx( 2, labeledNode( 2, new long[0], new long[]{3} ) ),
+                tx( 3, labeledNode( 3, new long[0], new long[]{3} ) ),
+                tx( 4, propertyValue( 20, 4, intValue( 42 ), null ) ),
+                tx( 5, labeledNode( 5, new long[0], new long[]{3} ) ) );
+
+        // when
+        List<List<CommandsToApply>> groups = ParallelTransactionApplier.independentGroups( batch );
+
+        // then
+        assertEquals( Arrays.asList( Arrays.asList( 1L ), Arrays.asList( 2L, 3L, 4L ), Arrays.asList( 5L ) ), transactionIds( groups ) );
+    }
+
+    @Test
+    public void shouldNotGroupTransactionsTouchingSameDynamicRecord() throws Exception
+    {
+        // given a string record freed by one transaction and reused by the next
+        PropertyRecord freeing = new PropertyRecord( 20 );
+        freeing.setNodeId( 1 );
+        freeing.addDeletedRecord( new DynamicRecord( 7 ) );
+        PropertyRecord reusing = new PropertyRecord( 21 );
+        reusing.setNodeId( 2 );
+        reusing.setInUse( true );
+        PropertyBlock block = new PropertyBlock();
+        block.setValueBlocks( new long[]{PropertyType.STRING.intValue() << 24 | 1} );
+        block.addValueRecord( new DynamicRecord( 7 ) );
+        reusing.addPropertyBlock( block );
+        TransactionToApply batch = batch(
+                tx( 1, new Command.PropertyCommand( new PropertyRecord( 20 ), freeing ) ),
+                tx( 2, new Command.PropertyCommand( new PropertyRecord( 21 ), reusing ) ) );
+
+        // when
+        List<List<CommandsToApply>> groups = ParallelTransactionApplier.independentGroups( batch );
+
+        // then
+        assertEquals( Arrays.asList( Arrays.asList( 1L ), Arrays.asList( 2L ) ), transactionIds( groups ) );
+    }
+
+    @Test
+    public void shouldApplyAllTransactionsOfBatch() throws Exception
+    {
+        // given
+        TransactionToApply batch = batch( tx( 1, node( 1 ) ), tx( 2, node( 2 ) ), tx( 3, node( 3 ) ), tx( 4, node( 1 ) ), tx( 5, node( 5 ) ) );
+        ParallelTransactionApplier applier = new ParallelTransactionApplier( executor, 4 );
+        Queue<Long> applied = new ConcurrentLinkedQueue<>();
+        AtomicInteger closedAppliers = new AtomicInteger();
+
+        // when
+        assertTrue( applier.canApply( batch ) );
+        applier.apply( batch, recordingApplier( applied, closedAppliers ) );
+
+        // then
+        List<Long> appliedIds = new ArrayList<>( applied );
+        appliedIds.sort( Long::compare );
+        assertEquals( Arrays.asList( 1L, 2L, 3L, 4L, 5L ), appliedIds );
+        // three appliers for the first group of three transactions, then two for the second group of two
+        assertEquals( 5, closedAppliers.get() );
+        assertTrue( new ArrayList<>( applied ).indexOf( 4L ) > new ArrayList<>( applied ).indexOf( 1L ) );
+    }
+
+    @Test
+    public void shouldNotApplySingleTransactionOrSequentialConfigurationInParallel()
+    {
+        assertFalse( new ParallelTransactionApplier( executor, 4 ).canApply( batch( tx( 1, node( 1 ) ) ) ) );
+        assertFalse( new ParallelTransactionApplier( executor, 1 ).canApply( batch( tx( 1, node( 1 ) ), tx( 2, node( 2 ) ) ) ) );
+    }
+
+    private static Supplier<BatchTransactionApplier> recordingApplier( Queue<Long> applied, AtomicInteger closedAppliers )
+    {
+        return () -> new BatchTransactionApplier.Adapter()
+        {
+            @Override
+            public TransactionApplier startTx( CommandsToApply transaction )
+            {
+                applied.add( transaction.transactionId() );
+                return TransactionApplier.EMPTY;
+            }
+
+            @Override
+            public void close()
+            {
+                closedAppliers.incrementAndGet();
+            }
+        };
+    }
+
+    private static List<List<Long>> transactionIds( List<List<CommandsToApply>> groups )
+    {
+        List<List<Long>> ids = new ArrayList<>();
+        for ( List<CommandsToApply> group : groups )
+        {
+            List<Long> groupIds = new ArrayList<>();
+            group.forEach( tx -> groupIds.add( tx.transactionId() ) );
+            ids.add( groupIds );
+        }
+        return ids;
+    }
+
+    private static TransactionToApply batch( TransactionToApply... transactions )
+    {
+        for ( int i = 1; i < transactions.length; i++ )
+        {
+            transactions[i - 1].next( transactions[i] );
+        }
+        return transactions[0];
+    }
+
+    private static TransactionToApply tx( long txId, StorageCommand... commands )
+    {
+        TransactionToApply tx = new TransactionToApply( new PhysicalTransactionRepresentation( Arrays.asList( commands ) ), txId );
+        tx.commitment( NO_COMMITMENT, txId );
+        return tx;
+    }
+
+    private static Command node( long id )
+    {
+        return new Command.NodeCommand( new NodeRecord( id ), new NodeRecord( id ) );
+    }
+
+    private static Command relationship( long id, long firstNode, long secondNode )
+    {
+        return new Command.RelationshipCommand( new RelationshipRecord( id, firstNode, secondNode, 0 ),
+                new RelationshipRecord( id, firstNode, secondNode, 0 ) );
+    }
+
+    private static Command propertyValue( long id, long nodeId, Value before, Value after )
+    {
+        return new Command.PropertyCommand( propertyRecord( id, nodeId, before ), propertyRecord( id, nodeId, after ) );
+    }
+
+    private static PropertyRecord propertyRecord( long id, long nodeId, Value value )
+    {
+        PropertyRecord record = new PropertyRecord( id );
+        record.setNodeId( nodeId );
+        if ( value != null )
+        {
+            record.setInUse( true );
+            PropertyBlock block = new PropertyBlock();
+            PropertyStore.encodeValue( block, 1, value, null, null, true );
+            record.addPropertyBlock( block );
+        }
+        return record;
+    }
+
+    private static Command labeledNode( long id, long[] labelsBefore, long[] labelsAfter )
+    {
+        return new Command.NodeCommand( nodeWithLabels( id, labelsBefore ), nodeWithLabels( id, labelsAfter ) );
+    }
+
+    private static NodeRecord nodeWithLabels( long id, long[] labels )
+    {
+        NodeRecord node = new NodeRecord( id );
+        node.setInUse( true );
+        new InlineNodeLabels( node ).put( labels, null, null );
+        return node;
+    }
+
+    private static Command property( long id, long nodeId )
+    {
+        PropertyRecord before = new PropertyRecord( id );
+        before.setNodeId( nodeId );
+        PropertyRecord after = new PropertyRecord( id );
+        after.setNodeId( nodeId );
+        return new Command.PropertyCommand( before, after );
+    }
+}
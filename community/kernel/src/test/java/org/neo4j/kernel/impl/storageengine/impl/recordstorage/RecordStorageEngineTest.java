@@ -55,7 +55,7 @@ import org.neo4j.kernel.impl.locking.LockGroup;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.kernel.impl.store.UnderlyingStorageException;
-import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.CountsStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Command;
@@ -66,6 +66,7 @@ import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StoreFileMetadata;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.schema.ValueHistogram;
 import org.neo4j.test.rule.PageCacheRule;
 import org.neo4j.test.rule.RecordStorageEngineRule;
 import org.neo4j.test.rule.TestDirectory;
@@ -86,6 +87,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.values.storable.Values.longValue;
 
 public class RecordStorageEngineTest
 {
@@ -167,7 +169,7 @@ public class RecordStorageEngineTest
         Exception applicationError = executeFailingTransaction( engine );
         assertNotNull( applicationError );
 
-        CountsTracker countsStore = engine.testAccessNeoStores().getCounts();
+        CountsStore countsStore = engine.testAccessNeoStores().getCounts();
         // possible to obtain a resetting updater that internally has a write lock on the counts store
         try ( CountsAccessor.Updater updater = countsStore.reset( 0 ) )
         {
@@ -212,6 +214,17 @@ public class RecordStorageEngineTest
         assertEquals( currentFiles, allPossibleFiles );
     }
 
+    @Test
+    public void shouldListIndexHistogramFiles()
+    {
+        RecordStorageEngine engine = buildRecordStorageEngine();
+        engine.testAccessNeoStores().getIndexHistograms().replace( 7, ValueHistogram.builder().add( longValue( 1 ), 1 ).build() );
+
+        Set<File> currentFiles = engine.listStorageFiles().stream().map( StoreFileMetadata::file ).collect( Collectors.toSet() );
+
+        assertTrue( currentFiles.contains( new File( testDirectory.databaseLayout().indexHistogramsDirectory(), "7.histogram" ) ) );
+    }
+
     @Test
     public void shouldCloseLockGroupAfterAppliers() throws Exception
     {
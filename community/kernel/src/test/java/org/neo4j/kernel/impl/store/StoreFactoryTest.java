@@ -36,6 +36,9 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.configuration.Settings;
+import org.neo4j.kernel.impl.api.CountsAccessor;
+import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.GBPTreeCountsStore;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
 import org.neo4j.kernel.impl.store.id.DefaultIdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
@@ -47,10 +50,13 @@ import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 
 import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.selectForStoreOrConfig;
+import static org.neo4j.register.Registers.newDoubleLongRegister;
 
 public class StoreFactoryTest
 {
@@ -125,6 +131,49 @@ public class StoreFactoryTest
         assertEquals( -1, neoStores.getCounts().rotate( lastClosedTransactionId ) );
     }
 
+    @Test
+    public void shouldMigrateCountsBetweenKeyValueStoreAndTree() throws IOException
+    {
+        // given counts in the key/value store
+        DatabaseLayout layout = testDirectory.databaseLayout();
+        FileSystemAbstraction fs = fsRule.get();
+        try ( NeoStores stores = storeFactory( Config.defaults() ).openAllNeoStores( true ) )
+        {
+            stores.startCountStore();
+            long txId = stores.getMetaDataStore().getLastCommittedTransactionId();
+            try ( CountsAccessor.Updater updater = stores.getCounts().reset( txId ) )
+            {
+                updater.incrementNodeCount( 3, 5 );
+            }
+            stores.getCounts().rotate( txId );
+        }
+
+        // when
+        Config treeConfig = Config.defaults( GraphDatabaseSettings.counts_store_gbptree, Settings.TRUE );
+        try ( NeoStores stores = storeFactory( treeConfig ).openAllNeoStores() )
+        {
+            stores.startCountStore();
+
+            // then
+            assertThat( stores.getCounts(), instanceOf( GBPTreeCountsStore.class ) );
+            assertEquals( 5, stores.getCounts().nodeCount( 3, newDoubleLongRegister() ).readSecond() );
+            assertTrue( fs.fileExists( layout.countsTreeStore() ) );
+            assertFalse( fs.fileExists( layout.countStoreA() ) );
+            assertFalse( fs.fileExists( layout.countStoreB() ) );
+        }
+
+        // when
+        try ( NeoStores stores = storeFactory( Config.defaults() ).openAllNeoStores() )
+        {
+            stores.startCountStore();
+
+            // then the counts are rebuilt from the store, which has no nodes
+            assertThat( stores.getCounts(), instanceOf( CountsTracker.class ) );
+            assertEquals( 0, stores.getCounts().nodeCount( 3, newDoubleLongRegister() ).readSecond() );
+            assertFalse( fs.fileExists( layout.countsTreeStore() ) );
+        }
+    }
+
     @Test( expected = StoreNotFoundException.class )
     public void shouldThrowWhenOpeningNonExistingNeoStores()
     {
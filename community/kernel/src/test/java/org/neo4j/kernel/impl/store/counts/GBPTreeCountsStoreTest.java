@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Optional;
+
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.impl.api.CountsAccessor;
+import org.neo4j.kernel.impl.api.CountsVisitor;
+import org.neo4j.kernel.impl.store.kvstore.DataInitializer;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.test.rule.PageCacheAndDependenciesRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.neo4j.register.Registers.newDoubleLongRegister;
+
+public class GBPTreeCountsStoreTest
+{
+    @Rule
+    public final PageCacheAndDependenciesRule storage = new PageCacheAndDependenciesRule();
+
+    @Test
+    public void shouldReadChangesBeforeAndAfterCheckpoint() throws Exception
+    {
+        try ( GBPTreeCountsStore store = open( empty() ) )
+        {
+            // when
+            apply( store, 1, 1, 10 );
+            try ( CountsAccessor.Updater updater = store.apply( 2 ).get() )
+            {
+                updater.incrementRelationshipCount( 1, 2, 3, 5 );
+            }
+
+            // then
+            assertEquals( 10, store.nodeCount( 1, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 5, store.relationshipCount( 1, 2, 3, newDoubleLongRegister() ).readSecond() );
+
+            // when
+            assertEquals( 2, store.checkpoint( IOLimiter.UNLIMITED ) );
+            apply( store, 3, 1, -4 );
+
+            // then
+            assertEquals( 6, store.nodeCount( 1, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 0, store.nodeCount( 2, newDoubleLongRegister() ).readSecond() );
+        }
+    }
+
+    @Test
+    public void shouldSkipTransactionsIncludedInCheckpoint() throws Exception
+    {
+        // given transaction 3 applied before 2
+        try ( GBPTreeCountsStore store = open( empty() ) )
+        {
+            apply( store, 1, 1, 1 );
+            apply( store, 3, 1, 100 );
+            assertEquals( 1, store.checkpoint( IOLimiter.UNLIMITED ) );
+            apply( store, 2, 1, 10 );
+        }
+
+        // when recovery replays all transactions after the crash
+        try ( GBPTreeCountsStore store = open( empty() ) )
+        {
+            assertFalse( store.apply( 1 ).isPresent() );
+            apply( store, 2, 1, 10 );
+            assertFalse( store.apply( 3 ).isPresent() );
+            apply( store, 4, 1, 1000 );
+
+            // then
+            assertEquals( 4, store.txId() );
+            assertEquals( 1111, store.nodeCount( 1, newDoubleLongRegister() ).readSecond() );
+        }
+    }
+
+    @Test
+    public void shouldKeepIndexStatisticsAndDegrees() throws Exception
+    {
+        try ( GBPTreeCountsStore store = open( empty() ) )
+        {
+            // when
+            try ( CountsAccessor.IndexStatsUpdater stats = store.updateIndexCounts() )
+            {
+                stats.replaceIndexUpdateAndSize( 7, 1, 100 );
+                stats.replaceIndexSample( 7, 30, 90 );
+            }
+            store.checkpoint( IOLimiter.UNLIMITED );
+            try ( CountsAccessor.IndexStatsUpdater stats = store.updateIndexCounts() )
+            {
+                stats.incrementIndexUpdates( 7, 5 );
+            }
+            try ( GBPTreeCountsStore.Updater updater = store.apply( 1 ).get() )
+            {
+                updater.incrementDegree( 42, 3, RelationshipDirection.OUTGOING, 1000 );
+                updater.incrementDegree( 42, 3, RelationshipDirection.INCOMING, 5 );
+            }
+            store.checkpoint( IOLimiter.UNLIMITED );
+
+            // then
+            assertEquals( 6, store.indexUpdatesAndSize( 7, newDoubleLongRegister() ).readFirst() );
+            assertEquals( 100, store.indexUpdatesAndSize( 7, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 30, store.indexSample( 7, newDoubleLongRegister() ).readFirst() );
+            assertEquals( 1000, store.degree( 42, 3, RelationshipDirection.OUTGOING ) );
+            assertEquals( 5, store.degree( 42, 3, RelationshipDirection.INCOMING ) );
+            assertEquals( 0, store.degree( 42, 3, RelationshipDirection.LOOP ) );
+        }
+    }
+
+    @Test
+    public void shouldVisitCheckpointedAndPendingCounts() throws Exception
+    {
+        try ( GBPTreeCountsStore store = open( empty() ) )
+        {
+            // given
+            apply( store, 1, 1, 10 );
+            store.checkpoint( IOLimiter.UNLIMITED );
+            apply( store, 2, 1, 1 );
+            apply( store, 3, 2, 3 );
+            try ( GBPTreeCountsStore.Updater updater = store.apply( 4 ).get() )
+            {
+                updater.incrementDegree( 1, 1, RelationshipDirection.LOOP, 1 );
+            }
+
+            // when
+            CountsVisitor visitor = mock( CountsVisitor.class );
+            store.accept( visitor );
+
+            // then
+            verify( visitor ).visitNodeCount( 1, 11 );
+            verify( visitor ).visitNodeCount( 2, 3 );
+            verifyNoMoreInteractions( visitor );
+        }
+    }
+
+    @Test
+    public void shouldMigrateFromPreviousCountsStore() throws Exception
+    {
+        // given
+        CountsVisitor.Visitable previous = visitor ->
+        {
+            visitor.visitNodeCount( -1, 20 );
+            visitor.visitRelationshipCount( -1, 4, -1, 15 );
+            visitor.visitIndexStatistics( 3, 2, 20 );
+            visitor.visitIndexSample( 3, 10, 20 );
+        };
+
+        // when
+        try ( GBPTreeCountsStore store = open( GBPTreeCountsStore.migrateFrom( previous, 17 ) ) )
+        {
+            assertEquals( 17, store.txId() );
+        }
+
+        // then the initializer is only used when the store is created
+        try ( GBPTreeCountsStore store = open( GBPTreeCountsStore.migrateFrom( previous, 99 ) ) )
+        {
+            assertEquals( 17, store.txId() );
+            assertFalse( store.apply( 17 ).isPresent() );
+            assertEquals( 20, store.nodeCount( -1, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 15, store.relationshipCount( -1, 4, -1, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 2, store.indexUpdatesAndSize( 3, newDoubleLongRegister() ).readFirst() );
+            assertEquals( 10, store.indexSample( 3, newDoubleLongRegister() ).readFirst() );
+            Optional<GBPTreeCountsStore.Updater> updater = store.apply( 18 );
+            assertTrue( updater.isPresent() );
+            updater.get().close();
+        }
+    }
+
+    @Test
+    public void shouldReplaceCountsButKeepIndexStatisticsOnReset() throws Exception
+    {
+        try ( GBPTreeCountsStore store = open( empty() ) )
+        {
+            // given
+            apply( store, 1, 1, 10 );
+            apply( store, 2, 2, 20 );
+            try ( CountsAccessor.IndexStatsUpdater stats = store.updateIndexCounts() )
+            {
+                stats.replaceIndexSample( 7, 30, 90 );
+            }
+            store.checkpoint( IOLimiter.UNLIMITED );
+            apply( store, 4, 2, 5 );
+
+            // when
+            try ( CountsAccessor.Updater updater = store.reset( 5 ) )
+            {
+                updater.incrementNodeCount( 1, 3 );
+            }
+            store.checkpoint( IOLimiter.UNLIMITED );
+
+            // then
+            assertEquals( 5, store.txId() );
+            assertFalse( store.apply( 3 ).isPresent() );
+            assertEquals( 3, store.nodeCount( 1, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 0, store.nodeCount( 2, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 30, store.indexSample( 7, newDoubleLongRegister() ).readFirst() );
+            CountsVisitor visitor = mock( CountsVisitor.class );
+            store.accept( visitor );
+            verify( visitor ).visitNodeCount( 1, 3 );
+            verify( visitor ).visitIndexSample( 7, 30, 90 );
+            verifyNoMoreInteractions( visitor );
+        }
+    }
+
+    @Test
+    public void shouldRebuildWithCountsComputer() throws Exception
+    {
+        // given
+        DataInitializer<CountsAccessor.Updater> computer = new DataInitializer<CountsAccessor.Updater>()
+        {
+            @Override
+            public void initialize( CountsAccessor.Updater updater )
+            {
+                updater.incrementNodeCount( -1, 3 );
+                updater.incrementNodeCount( 1, 2 );
+                updater.incrementNodeCount( -1, 4 );
+                updater.incrementRelationshipCount( 1, 2, -1, 6 );
+            }
+
+            @Override
+            public long initialVersion()
+            {
+                return 12;
+            }
+        };
+
+        // when
+        try ( GBPTreeCountsStore store = open( GBPTreeCountsStore.rebuildWith( computer ) ) )
+        {
+            // then
+            assertEquals( 12, store.txId() );
+            assertEquals( 7, store.nodeCount( -1, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 2, store.nodeCount( 1, newDoubleLongRegister() ).readSecond() );
+            assertEquals( 6, store.relationshipCount( 1, 2, -1, newDoubleLongRegister() ).readSecond() );
+        }
+    }
+
+    private GBPTreeCountsStore open( DataInitializer<CountsVisitor> initializer ) throws Exception
+    {
+        File file = storage.directory().file( "counts.db" );
+        return new GBPTreeCountsStore( storage.pageCache(), file, RecoveryCleanupWorkCollector.immediate(), initializer, false );
+    }
+
+    private static void apply( GBPTreeCountsStore store, long txId, int labelId, long delta )
+    {
+        try ( CountsAccessor.Updater updater = store.apply( txId ).get() )
+        {
+            updater.incrementNodeCount( labelId, delta );
+        }
+    }
+
+    private static DataInitializer<CountsVisitor> empty()
+    {
+        return GBPTreeCountsStore.migrateFrom( visitor ->
+        {
+        }, 0 );
+    }
+}
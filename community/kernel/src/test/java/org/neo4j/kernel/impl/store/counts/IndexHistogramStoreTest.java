@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.neo4j.storageengine.api.schema.ValueHistogram;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.neo4j.values.storable.Values.longValue;
+
+public class IndexHistogramStoreTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+
+    private final File directory = new File( "histograms" );
+
+    @Test
+    public void shouldReadHistogramsWrittenByAnotherInstance()
+    {
+        // given
+        ValueHistogram histogram = ValueHistogram.builder().add( longValue( 1 ), 10 ).add( longValue( 2 ), 1 ).build();
+        new IndexHistogramStore( fs.get(), directory ).replace( 3, histogram );
+
+        // when
+        ValueHistogram read = new IndexHistogramStore( fs.get(), directory ).histogram( 3 );
+
+        // then
+        assertEquals( histogram.totalCount(), read.totalCount() );
+        assertEquals( histogram.equalityFraction( longValue( 1 ) ), read.equalityFraction( longValue( 1 ) ) );
+    }
+
+    @Test
+    public void shouldRemoveHistogram()
+    {
+        // given
+        IndexHistogramStore store = new IndexHistogramStore( fs.get(), directory );
+        store.replace( 3, ValueHistogram.builder().add( longValue( 1 ), 1 ).build() );
+
+        // when
+        store.replace( 3, null );
+
+        // then
+        assertNull( store.histogram( 3 ) );
+        assertNull( new IndexHistogramStore( fs.get(), directory ).histogram( 3 ) );
+    }
+
+    @Test
+    public void shouldListHistogramFiles()
+    {
+        // given
+        IndexHistogramStore store = new IndexHistogramStore( fs.get(), directory );
+        assertEquals( emptyList(), store.files() );
+
+        // when
+        store.replace( 3, ValueHistogram.builder().add( longValue( 1 ), 1 ).build() );
+        store.replace( 4, ValueHistogram.builder().add( longValue( 1 ), 1 ).build() );
+        store.replace( 4, null );
+
+        // then
+        List<File> files = store.files();
+        assertEquals( 1, files.size() );
+        assertEquals( "3.histogram", files.get( 0 ).getName() );
+    }
+
+    @Test
+    public void shouldIgnoreUnreadableHistogram() throws Exception
+    {
+        // given
+        fs.get().mkdirs( directory );
+        try ( OutputStream out = fs.get().openAsOutputStream( new File( directory, "3.histogram" ), false ) )
+        {
+            out.write( new byte[]{42, 1, 2} );
+        }
+
+        // then
+        assertNull( new IndexHistogramStore( fs.get(), directory ).histogram( 3 ) );
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffHeapCollectionsFactoryTest
+{
+    private final CachingOffHeapBlockAllocator blockAllocator = new CachingOffHeapBlockAllocator();
+
+    @AfterEach
+    void tearDown()
+    {
+        blockAllocator.release();
+    }
+
+    @Test
+    void limitMemoryOfSingleTransaction()
+    {
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( blockAllocator, 64 * 1024 );
+
+        final MutableLongSet set = factory.newLongSet();
+        assertThrows( RuntimeException.class, () ->
+        {
+            for ( long i = 0; i < 100_000; i++ )
+            {
+                set.add( i );
+            }
+        } );
+
+        factory.release();
+        assertEquals( 0, factory.getMemoryTracker().usedDirectMemory() );
+
+        final MutableLongSet another = factory.newLongSet();
+        another.add( 1 );
+        assertEquals( 1, another.size() );
+        factory.release();
+    }
+
+    @Test
+    void otherTransactionsAreNotLimitedByOneTransaction()
+    {
+        final OffHeapCollectionsFactory first = new OffHeapCollectionsFactory( blockAllocator, 64 * 1024 );
+        final OffHeapCollectionsFactory second = new OffHeapCollectionsFactory( blockAllocator, 64 * 1024 );
+
+        final MutableLongSet firstSet = first.newLongSet();
+        final MutableLongSet secondSet = second.newLongSet();
+        for ( long i = 0; i < 1_000; i++ )
+        {
+            firstSet.add( i );
+            secondSet.add( i );
+        }
+
+        assertEquals( 1_000, firstSet.size() );
+        assertEquals( 1_000, secondSet.size() );
+        first.release();
+        second.release();
+    }
+}
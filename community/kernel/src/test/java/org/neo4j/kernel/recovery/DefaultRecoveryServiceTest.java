@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.recovery.DefaultRecoveryService.RecoveryVisitor;
+import org.neo4j.storageengine.api.StorageEngine;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.REVERSE_RECOVERY;
+
+public class DefaultRecoveryServiceTest
+{
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+    private final List<List<Long>> appliedBatches = new ArrayList<>();
+    private final List<Long> notified = new ArrayList<>();
+
+    @Test
+    public void shouldApplyEveryTransactionAsItIsVisitedWithoutParallelism() throws Exception
+    {
+        // given
+        recordAppliedBatches();
+        RecoveryVisitor visitor = new RecoveryVisitor( storageEngine, RECOVERY, 1 );
+
+        // when
+        assertFalse( visitor.applyInBatches( transaction -> notified.add( txId( transaction ) ) ) );
+        visitor.visit( transaction( 1 ) );
+        visitor.visit( transaction( 2 ) );
+
+        // then
+        assertEquals( asList( asList( 1L ), asList( 2L ) ), appliedBatches );
+        visitor.close();
+        assertEquals( 2, appliedBatches.size() );
+    }
+
+    @Test
+    public void shouldApplyTransactionsInBatchesWithParallelism() throws Exception
+    {
+        // given
+        recordAppliedBatches();
+        RecoveryVisitor visitor = new RecoveryVisitor( storageEngine, RECOVERY, 4 );
+        assertTrue( visitor.applyInBatches( transaction -> notified.add( txId( transaction ) ) ) );
+
+        // when
+        for ( long txId = 1; txId < RecoveryVisitor.BATCH_SIZE; txId++ )
+        {
+            visitor.visit( transaction( txId ) );
+        }
+
+        // then nothing is applied, nor reported as applied, before the batch is full
+        assertEquals( emptyList(), appliedBatches );
+        assertEquals( emptyList(), notified );
+
+        // when
+        visitor.visit( transaction( RecoveryVisitor.BATCH_SIZE ) );
+        visitor.visit( transaction( RecoveryVisitor.BATCH_SIZE + 1 ) );
+
+        // then
+        assertEquals( 1, appliedBatches.size() );
+        assertEquals( RecoveryVisitor.BATCH_SIZE, appliedBatches.get( 0 ).size() );
+        assertEquals( appliedBatches.get( 0 ), notified );
+
+        // when
+        visitor.close();
+
+        // then
+        assertEquals( asList( (long) RecoveryVisitor.BATCH_SIZE + 1 ), appliedBatches.get( 1 ) );
+        assertEquals( RecoveryVisitor.BATCH_SIZE + 1, notified.size() );
+    }
+
+    @Test
+    public void shouldApplyEveryTransactionAsItIsVisitedInReverseRecovery() throws Exception
+    {
+        // given
+        recordAppliedBatches();
+        RecoveryVisitor visitor = new RecoveryVisitor( storageEngine, REVERSE_RECOVERY, 4 );
+
+        // when
+        assertFalse( visitor.applyInBatches( transaction -> notified.add( txId( transaction ) ) ) );
+        visitor.visit( transaction( 2 ) );
+        visitor.visit( transaction( 1 ) );
+
+        // then
+        assertEquals( asList( asList( 2L ), asList( 1L ) ), appliedBatches );
+    }
+
+    private void recordAppliedBatches() throws Exception
+    {
+        doAnswer( invocation ->
+        {
+            List<Long> batch = new ArrayList<>();
+            for ( TransactionToApply tx = invocation.getArgument( 0 ); tx != null; tx = tx.next() )
+            {
+                batch.add( tx.transactionId() );
+            }
+            appliedBatches.add( batch );
+            return null;
+        } ).when( storageEngine ).apply( any( TransactionToApply.class ), any() );
+    }
+
+    private static CommittedTransactionRepresentation transaction( long txId )
+    {
+        return new CommittedTransactionRepresentation(
+                new LogEntryStart( 0, 0, 0, txId - 1, new byte[0], new LogPosition( 0, txId * 100 ) ),
+                mock( TransactionRepresentation.class ), new LogEntryCommit( txId, 0 ) );
+    }
+
+    private static long txId( CommittedTransactionRepresentation transaction )
+    {
+        return transaction.getCommitEntry().getTxId();
+    }
+}
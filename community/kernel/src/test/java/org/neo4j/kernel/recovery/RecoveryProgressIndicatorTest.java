@@ -24,6 +24,10 @@ import org.mockito.Answers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
@@ -33,8 +37,13 @@ import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 
 public class RecoveryProgressIndicatorTest
 {
@@ -74,6 +83,66 @@ public class RecoveryProgressIndicatorTest
         progressReporter.verify();
     }
 
+    @Test
+    public void reportRecoveredTransactionsOnceTheyAreApplied() throws Throwable
+    {
+        RecoveryService recoveryService = mock( RecoveryService.class, Answers.RETURNS_MOCKS );
+        RecoveryMonitor recoveryMonitor = mock( RecoveryMonitor.class );
+        TransactionCursor reverseTransactionCursor = mock( TransactionCursor.class );
+        TransactionCursor transactionCursor = mock( TransactionCursor.class );
+        CommittedTransactionRepresentation transactionRepresentation = mock( CommittedTransactionRepresentation.class );
+
+        int transactionsToRecover = 5;
+        LogPosition recoveryStartPosition = LogPosition.start( 0 );
+        RecoveryStartInformation startInformation = new RecoveryStartInformation( recoveryStartPosition, 10 );
+
+        when( reverseTransactionCursor.next() ).thenAnswer( new NextTransactionAnswer( transactionsToRecover ) );
+        when( transactionCursor.next() ).thenAnswer( new NextTransactionAnswer( transactionsToRecover ) );
+        when( reverseTransactionCursor.get() ).thenReturn( transactionRepresentation );
+        when( transactionCursor.get() ).thenReturn( transactionRepresentation );
+        when( transactionCursor.position() ).thenReturn( new LogPosition( 0, 100 ) );
+        when( transactionRepresentation.getCommitEntry() ).thenReturn( new LogEntryCommit( 14, 1L ) );
+
+        when( recoveryService.getRecoveryStartInformation() ).thenReturn( startInformation );
+        when( recoveryService.getTransactionsInReverseOrder( recoveryStartPosition ) ).thenReturn( reverseTransactionCursor );
+        when( recoveryService.getTransactions( recoveryStartPosition ) ).thenReturn( transactionCursor );
+        when( recoveryService.getRecoveryApplier( RECOVERY ) ).thenReturn( new RecoveryApplier()
+        {
+            private final List<CommittedTransactionRepresentation> batch = new ArrayList<>();
+            private Consumer<CommittedTransactionRepresentation> appliedListener;
+
+            @Override
+            public boolean applyInBatches( Consumer<CommittedTransactionRepresentation> appliedListener )
+            {
+                this.appliedListener = appliedListener;
+                return true;
+            }
+
+            @Override
+            public boolean visit( CommittedTransactionRepresentation transaction )
+            {
+                batch.add( transaction );
+                return false;
+            }
+
+            @Override
+            public void close()
+            {
+                verify( recoveryMonitor, never() ).transactionRecovered( anyLong() );
+                batch.forEach( appliedListener );
+            }
+        } );
+
+        AssertableProgressReporter progressReporter = new AssertableProgressReporter( transactionsToRecover * 2 );
+        Recovery recovery = new Recovery( recoveryService, mock( CorruptedLogsTruncator.class ), new LifecycleAdapter(), recoveryMonitor,
+                progressReporter, true );
+        recovery.init();
+
+        verify( recoveryMonitor, times( transactionsToRecover ) ).transactionRecovered( 14 );
+        verify( recoveryMonitor ).recoveryCompleted( transactionsToRecover );
+        progressReporter.verify();
+    }
+
     private static class AssertableProgressReporter implements ProgressReporter
     {
         private final int expectedMax;
@@ -369,7 +369,8 @@ public class PlatformModule
                 sharedBlockAllocator = allocator;
             }
             life.add( onShutdown( sharedBlockAllocator::release ) );
-            return () -> new OffHeapCollectionsFactory( sharedBlockAllocator );
+            final long maxTransactionMemory = config.get( GraphDatabaseSettings.tx_state_max_transaction_off_heap_memory );
+            return () -> new OffHeapCollectionsFactory( sharedBlockAllocator, maxTransactionMemory );
         default:
             throw new IllegalArgumentException( "Unknown transaction state memory allocation value: " + allocation );
         }
@@ -24,6 +24,7 @@ import org.codehaus.jackson.JsonGenerator;
 import java.io.IOException;
 
 import org.neo4j.graphdb.Result;
+import org.neo4j.values.AnyValue;
 
 class AggregatingWriter implements ResultDataContentWriter
 {
@@ -43,4 +44,27 @@ class AggregatingWriter implements ResultDataContentWriter
             writer.write( out, columns, row, txStateChecker );
         }
     }
+
+    @Override
+    public boolean writesRecords()
+    {
+        for ( ResultDataContentWriter writer : writers )
+        {
+            if ( !writer.writesRecords() )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void write( JsonGenerator out, String[] columns, AnyValue[] record, TransactionStateChecker txStateChecker )
+            throws IOException
+    {
+        for ( ResultDataContentWriter writer : writers )
+        {
+            writer.write( out, columns, record, txStateChecker );
+        }
+    }
 }
@@ -30,6 +30,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.cypher.result.QueryResult;
 import org.neo4j.graphdb.ExecutionPlanDescription;
 import org.neo4j.graphdb.InputPosition;
 import org.neo4j.graphdb.Notification;
@@ -77,6 +79,17 @@ public class ExecutionResultSerializer
         this.out = generator;
     }
 
+    /**
+     * For serializers that write another format than JSON. They have to override all public methods of this class.
+     */
+    protected ExecutionResultSerializer( LogProvider logProvider )
+    {
+        this.baseUri = null;
+        this.log = logProvider.getLog( getClass() );
+        this.container = null;
+        this.out = null;
+    }
+
     /**
      * Will always get called at most once, and is the first method to get called. This method is not allowed
      * to throw exceptions. If there are network errors or similar, the handler should take appropriate action,
@@ -443,22 +456,29 @@ public class ExecutionResultSerializer
         out.writeArrayFieldStart( "data" );
         try
         {
-            data.accept( row ->
+            if ( data instanceof QueryResultProvider && writer.writesRecords() )
             {
-                out.writeStartObject();
-                try
+                writeRecords( ((QueryResultProvider) data).queryResult(), writer );
+            }
+            else
+            {
+                data.accept( row ->
                 {
-                    try ( TransactionStateChecker txStateChecker = TransactionStateChecker.create( container ) )
+                    out.writeStartObject();
+                    try
                     {
-                        writer.write( out, columns, row, txStateChecker );
+                        try ( TransactionStateChecker txStateChecker = TransactionStateChecker.create( container ) )
+                        {
+                            writer.write( out, columns, row, txStateChecker );
+                        }
                     }
-                }
-                finally
-                {
-                    out.writeEndObject();
-                }
-                return true;
-            } );
+                    finally
+                    {
+                        out.writeEndObject();
+                    }
+                    return true;
+                } );
+            }
         }
         finally
         {
@@ -466,6 +486,31 @@ public class ExecutionResultSerializer
         }
     }
 
+    /**
+     * Writes the values of the result records as they come out of the query, without turning each of them into a
+     * map of java objects first.
+     */
+    private void writeRecords( QueryResult result, ResultDataContentWriter writer ) throws IOException
+    {
+        String[] columns = result.fieldNames();
+        result.accept( record ->
+        {
+            out.writeStartObject();
+            try
+            {
+                try ( TransactionStateChecker txStateChecker = TransactionStateChecker.create( container ) )
+                {
+                    writer.write( out, columns, record.fields(), txStateChecker );
+                }
+            }
+            finally
+            {
+                out.writeEndObject();
+            }
+            return true;
+        } );
+    }
+
     private void writeColumns( Iterable<String> columns ) throws IOException
     {
         try
@@ -482,7 +527,7 @@ public class ExecutionResultSerializer
         }
     }
 
-    private IOException loggedIOException( IOException exception )
+    protected IOException loggedIOException( IOException exception )
     {
         if ( Exceptions.contains( exception, "Broken pipe", IOException.class ) )
         {
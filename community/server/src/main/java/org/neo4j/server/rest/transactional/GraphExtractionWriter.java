@@ -20,11 +20,13 @@
 package org.neo4j.server.rest.transactional;
 
 import org.codehaus.jackson.JsonGenerator;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
@@ -32,7 +34,13 @@ import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.PropertyContainer;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Result;
-import org.neo4j.helpers.collection.IterableWrapper;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.TextArray;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.PathValue;
+import org.neo4j.values.virtual.RelationshipValue;
 
 class GraphExtractionWriter implements ResultDataContentWriter
 {
@@ -40,15 +48,46 @@ class GraphExtractionWriter implements ResultDataContentWriter
     public void write( JsonGenerator out, Iterable<String> columns, Result.ResultRow row,
             TransactionStateChecker txStateChecker ) throws IOException
     {
-        Set<Node> nodes = new HashSet<>();
-        Set<Relationship> relationships = new HashSet<>();
-        extract( nodes, relationships, map( columns, row ) );
+        GraphEntities<Node,Relationship> graph = new GraphEntities<>();
+        for ( String key : columns )
+        {
+            extract( graph, row.get( key ) );
+        }
 
         out.writeObjectFieldStart( "graph" );
         try
         {
-            writeNodes( out, nodes, txStateChecker );
-            writeRelationships( out, relationships, txStateChecker );
+            writeNodes( out, graph.nodes, txStateChecker );
+            writeRelationships( out, graph.relationships, txStateChecker );
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    @Override
+    public boolean writesRecords()
+    {
+        return true;
+    }
+
+    @Override
+    public void write( JsonGenerator out, String[] columns, AnyValue[] record, TransactionStateChecker txStateChecker )
+            throws IOException
+    {
+        GraphEntities<NodeValue,RelationshipValue> graph = new GraphEntities<>();
+        for ( AnyValue value : record )
+        {
+            extractValue( graph, value );
+        }
+
+        Neo4jJsonValueWriter writer = new Neo4jJsonValueWriter( out, txStateChecker );
+        out.writeObjectFieldStart( "graph" );
+        try
+        {
+            writeNodeValues( out, graph.nodes, writer, txStateChecker );
+            writeRelationshipValues( out, graph.relationships, writer, txStateChecker );
         }
         finally
         {
@@ -144,6 +183,92 @@ class GraphExtractionWriter implements ResultDataContentWriter
         }
     }
 
+    private void writeNodeValues( JsonGenerator out, Iterable<NodeValue> nodes, Neo4jJsonValueWriter writer,
+            TransactionStateChecker txStateChecker ) throws IOException
+    {
+        out.writeArrayFieldStart( "nodes" );
+        try
+        {
+            for ( NodeValue node : nodes )
+            {
+                out.writeStartObject();
+                try
+                {
+                    long nodeId = node.id();
+                    out.writeStringField( "id", Long.toString( nodeId ) );
+                    if ( txStateChecker.isNodeDeletedInCurrentTx( nodeId ) )
+                    {
+                        markDeleted( out );
+                    }
+                    else
+                    {
+                        out.writeArrayFieldStart( "labels" );
+                        try
+                        {
+                            TextArray labels = node.labels();
+                            for ( int i = 0; i < labels.length(); i++ )
+                            {
+                                out.writeString( labels.stringValue( i ) );
+                            }
+                        }
+                        finally
+                        {
+                            out.writeEndArray();
+                        }
+                        out.writeFieldName( "properties" );
+                        writer.writeMap( node.properties() );
+                    }
+                }
+                finally
+                {
+                    out.writeEndObject();
+                }
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
+
+    private void writeRelationshipValues( JsonGenerator out, Iterable<RelationshipValue> relationships,
+            Neo4jJsonValueWriter writer, TransactionStateChecker txStateChecker ) throws IOException
+    {
+        out.writeArrayFieldStart( "relationships" );
+        try
+        {
+            for ( RelationshipValue relationship : relationships )
+            {
+                out.writeStartObject();
+                try
+                {
+                    long relationshipId = relationship.id();
+                    out.writeStringField( "id", Long.toString( relationshipId ) );
+                    if ( txStateChecker.isRelationshipDeletedInCurrentTx( relationshipId ) )
+                    {
+                        markDeleted( out );
+                    }
+                    else
+                    {
+                        out.writeStringField( "type", relationship.type().stringValue() );
+                        out.writeStringField( "startNode", Long.toString( relationship.startNode().id() ) );
+                        out.writeStringField( "endNode", Long.toString( relationship.endNode().id() ) );
+                        out.writeFieldName( "properties" );
+                        writer.writeMap( relationship.properties() );
+                    }
+                }
+                finally
+                {
+                    out.writeEndObject();
+                }
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
+
     private void writeProperties( JsonGenerator out, PropertyContainer container ) throws IOException
     {
         out.writeObjectFieldStart( "properties" );
@@ -161,53 +286,116 @@ class GraphExtractionWriter implements ResultDataContentWriter
         }
     }
 
-    private void extract( Set<Node> nodes, Set<Relationship> relationships, Iterable<?> source )
+    private void extract( GraphEntities<Node,Relationship> graph, Object item )
     {
-        for ( Object item : source )
+        if ( item instanceof Node )
+        {
+            Node node = (Node) item;
+            graph.addNode( node.getId(), node );
+        }
+        else if ( item instanceof Relationship )
         {
-            if ( item instanceof Node )
+            Relationship relationship = (Relationship) item;
+            graph.addRelationship( relationship.getId(), relationship );
+            Node startNode = relationship.getStartNode();
+            graph.addNode( startNode.getId(), startNode );
+            Node endNode = relationship.getEndNode();
+            graph.addNode( endNode.getId(), endNode );
+        }
+        if ( item instanceof Path )
+        {
+            Path path = (Path) item;
+            for ( Node node : path.nodes() )
             {
-                nodes.add( (Node) item );
+                graph.addNode( node.getId(), node );
             }
-            else if ( item instanceof Relationship )
+            for ( Relationship relationship : path.relationships() )
             {
-                Relationship relationship = (Relationship) item;
-                relationships.add( relationship );
-                nodes.add( relationship.getStartNode() );
-                nodes.add( relationship.getEndNode() );
+                graph.addRelationship( relationship.getId(), relationship );
+            }
+        }
+        else if ( item instanceof Map<?, ?> )
+        {
+            for ( Object value : ((Map<?, ?>) item).values() )
+            {
+                extract( graph, value );
             }
-            if ( item instanceof Path )
+        }
+        else if ( item instanceof Iterable<?> )
+        {
+            for ( Object value : (Iterable<?>) item )
             {
-                Path path = (Path) item;
-                for ( Node node : path.nodes() )
-                {
-                    nodes.add( node );
-                }
-                for ( Relationship relationship : path.relationships() )
-                {
-                    relationships.add( relationship );
-                }
+                extract( graph, value );
+            }
+        }
+    }
+
+    private void extractValue( GraphEntities<NodeValue,RelationshipValue> graph, AnyValue item )
+    {
+        if ( item instanceof NodeValue )
+        {
+            NodeValue node = (NodeValue) item;
+            graph.addNode( node.id(), node );
+        }
+        else if ( item instanceof RelationshipValue )
+        {
+            RelationshipValue relationship = (RelationshipValue) item;
+            graph.addRelationship( relationship.id(), relationship );
+            NodeValue startNode = relationship.startNode();
+            graph.addNode( startNode.id(), startNode );
+            NodeValue endNode = relationship.endNode();
+            graph.addNode( endNode.id(), endNode );
+        }
+        else if ( item instanceof PathValue )
+        {
+            PathValue path = (PathValue) item;
+            for ( NodeValue node : path.nodes() )
+            {
+                graph.addNode( node.id(), node );
             }
-            else if ( item instanceof Map<?, ?> )
+            for ( RelationshipValue relationship : path.relationships() )
             {
-                extract( nodes, relationships, ((Map<?, ?>) item).values() );
+                graph.addRelationship( relationship.id(), relationship );
             }
-            else if ( item instanceof Iterable<?> )
+        }
+        else if ( item instanceof MapValue )
+        {
+            ((MapValue) item).foreach( ( key, value ) -> extractValue( graph, value ) );
+        }
+        else if ( item instanceof ListValue )
+        {
+            for ( AnyValue value : (ListValue) item )
             {
-                extract( nodes, relationships, (Iterable<?>) item );
+                extractValue( graph, value );
             }
         }
     }
 
-    private static Iterable<?> map( Iterable<String> columns, final Result.ResultRow row )
+    /**
+     * The distinct nodes and relationships of a row, in the order they were first seen. Entities are told apart by
+     * their id, which avoids hashing the entity proxies themselves.
+     */
+    private static class GraphEntities<N, R>
     {
-        return new IterableWrapper<Object, String>( columns )
+        private final MutableLongSet nodeIds = new LongHashSet();
+        private final MutableLongSet relationshipIds = new LongHashSet();
+        private final List<N> nodes = new ArrayList<>();
+        private final List<R> relationships = new ArrayList<>();
+
+        void addNode( long id, N node )
+        {
+            if ( nodeIds.add( id ) )
+            {
+                nodes.add( node );
+            }
+        }
+
+        void addRelationship( long id, R relationship )
         {
-            @Override
-            protected Object underlyingObjectToObject( String key )
+            if ( relationshipIds.add( id ) )
             {
-                return row.get( key );
+                relationships.add( relationship );
             }
-        };
+        }
     }
 }
@@ -51,7 +51,7 @@ import static org.neo4j.helpers.collection.MapUtil.genericMap;
 
 public class Neo4jJsonCodec extends ObjectMapper
 {
-    private enum Neo4jJsonMetaType
+    enum Neo4jJsonMetaType
     {
         NODE( "node" ),
         RELATIONSHIP( "relationship" ),
@@ -86,13 +86,39 @@ public class Neo4jJsonCodec extends ObjectMapper
 
     public Neo4jJsonCodec()
     {
-        getSerializationConfig().without( SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE );
+        // values are written one by one into a generator that is flushed as its buffer fills up,
+        // flushing after every single value would hand each of them to the output stream separately
+        configure( SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE, false );
     }
 
     @Override
     public void writeValue( JsonGenerator out, Object value ) throws IOException
     {
-        if ( value instanceof PropertyContainer )
+        if ( value == null )
+        {
+            out.writeNull();
+        }
+        else if ( value instanceof String )
+        {
+            out.writeString( (String) value );
+        }
+        else if ( value instanceof Long )
+        {
+            out.writeNumber( (Long) value );
+        }
+        else if ( value instanceof Integer )
+        {
+            out.writeNumber( (Integer) value );
+        }
+        else if ( value instanceof Double )
+        {
+            out.writeNumber( (Double) value );
+        }
+        else if ( value instanceof Boolean )
+        {
+            out.writeBoolean( (Boolean) value );
+        }
+        else if ( value instanceof PropertyContainer )
         {
             try ( TransactionStateChecker txStateChecker = TransactionStateChecker.create( container ) )
             {
@@ -253,7 +279,8 @@ public class Neo4jJsonCodec extends ObjectMapper
             {
                 for ( Map.Entry<String,Object> property : entity.getAllProperties().entrySet() )
                 {
-                    out.writeObjectField( property.getKey(), property.getValue() );
+                    out.writeFieldName( property.getKey() );
+                    writeValue( out, property.getValue() );
                 }
             }
         }
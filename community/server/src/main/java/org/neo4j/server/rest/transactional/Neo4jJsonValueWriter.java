@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest.transactional;
+
+import org.codehaus.jackson.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+
+import org.neo4j.server.rest.transactional.Neo4jJsonCodec.Neo4jJsonMetaType;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.CharArray;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueWriter;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.PathValue;
+import org.neo4j.values.virtual.RelationshipValue;
+
+/**
+ * Writes the {@link AnyValue values} of a result record straight to a {@link JsonGenerator}, in the same format that
+ * {@link Neo4jJsonCodec} uses for the java objects of a result row. Storable values are written through their
+ * {@link Value#writeTo(ValueWriter) value writer callbacks}, nodes, relationships, paths, lists and maps are walked
+ * here, so no intermediate java objects are created for any of them.
+ */
+class Neo4jJsonValueWriter implements ValueWriter<IOException>
+{
+    private final JsonGenerator out;
+    private final TransactionStateChecker txStateChecker;
+
+    Neo4jJsonValueWriter( JsonGenerator out, TransactionStateChecker txStateChecker )
+    {
+        this.out = out;
+        this.txStateChecker = txStateChecker;
+    }
+
+    void write( AnyValue value ) throws IOException
+    {
+        if ( value instanceof NodeValue )
+        {
+            NodeValue node = (NodeValue) value;
+            if ( txStateChecker.isNodeDeletedInCurrentTx( node.id() ) )
+            {
+                writeDeletedEntity();
+            }
+            else
+            {
+                writeMap( node.properties() );
+            }
+        }
+        else if ( value instanceof RelationshipValue )
+        {
+            RelationshipValue relationship = (RelationshipValue) value;
+            if ( txStateChecker.isRelationshipDeletedInCurrentTx( relationship.id() ) )
+            {
+                writeDeletedEntity();
+            }
+            else
+            {
+                writeMap( relationship.properties() );
+            }
+        }
+        else if ( value instanceof PathValue )
+        {
+            writePath( (PathValue) value );
+        }
+        else if ( value instanceof ListValue )
+        {
+            out.writeStartArray();
+            try
+            {
+                for ( AnyValue item : (ListValue) value )
+                {
+                    write( item );
+                }
+            }
+            finally
+            {
+                out.writeEndArray();
+            }
+        }
+        else if ( value instanceof MapValue )
+        {
+            writeMap( (MapValue) value );
+        }
+        else if ( value instanceof CharArray )
+        {
+            // jackson writes a char[] as a single string rather than as an array of strings
+            out.writeString( new String( ((CharArray) value).asObjectCopy() ) );
+        }
+        else if ( value instanceof Value )
+        {
+            ((Value) value).writeTo( this );
+        }
+        else
+        {
+            throw new IllegalArgumentException( "Unsupported value in a result record: " + value );
+        }
+    }
+
+    void writeMeta( AnyValue value ) throws IOException
+    {
+        if ( value instanceof NodeValue )
+        {
+            long id = ((NodeValue) value).id();
+            writeEntityMeta( id, Neo4jJsonMetaType.NODE, txStateChecker.isNodeDeletedInCurrentTx( id ) );
+        }
+        else if ( value instanceof RelationshipValue )
+        {
+            long id = ((RelationshipValue) value).id();
+            writeEntityMeta( id, Neo4jJsonMetaType.RELATIONSHIP, txStateChecker.isRelationshipDeletedInCurrentTx( id ) );
+        }
+        else if ( value instanceof PathValue )
+        {
+            PathValue path = (PathValue) value;
+            NodeValue[] nodes = path.nodes();
+            RelationshipValue[] relationships = path.relationships();
+            out.writeStartArray();
+            try
+            {
+                writeMeta( nodes[0] );
+                for ( int i = 0; i < relationships.length; i++ )
+                {
+                    writeMeta( relationships[i] );
+                    writeMeta( nodes[i + 1] );
+                }
+            }
+            finally
+            {
+                out.writeEndArray();
+            }
+        }
+        else if ( value instanceof ListValue )
+        {
+            for ( AnyValue item : (ListValue) value )
+            {
+                writeMeta( item );
+            }
+        }
+        else if ( value instanceof MapValue )
+        {
+            ((MapValue) value).foreach( ( key, item ) -> writeMeta( item ) );
+        }
+        else if ( value instanceof Value )
+        {
+            writeValueMeta( (Value) value );
+        }
+        else
+        {
+            out.writeNull();
+        }
+    }
+
+    private void writeValueMeta( Value value ) throws IOException
+    {
+        switch ( value.valueGroup() )
+        {
+        case GEOMETRY:
+            writeObjectMeta( Neo4jJsonMetaType.POINT );
+            break;
+        case ZONED_DATE_TIME:
+            writeObjectMeta( Neo4jJsonMetaType.DATE_TIME );
+            break;
+        case LOCAL_DATE_TIME:
+            writeObjectMeta( Neo4jJsonMetaType.LOCAL_DATE_TIME );
+            break;
+        case DATE:
+            writeObjectMeta( Neo4jJsonMetaType.DATE );
+            break;
+        case ZONED_TIME:
+            writeObjectMeta( Neo4jJsonMetaType.TIME );
+            break;
+        case LOCAL_TIME:
+            writeObjectMeta( Neo4jJsonMetaType.LOCAL_TIME );
+            break;
+        case DURATION:
+            writeObjectMeta( Neo4jJsonMetaType.DURATION );
+            break;
+        default:
+            out.writeNull();
+        }
+    }
+
+    private void writeObjectMeta( Neo4jJsonMetaType type ) throws IOException
+    {
+        out.writeStartObject();
+        try
+        {
+            out.writeStringField( "type", type.code() );
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    private void writeEntityMeta( long id, Neo4jJsonMetaType type, boolean isDeleted ) throws IOException
+    {
+        out.writeStartObject();
+        try
+        {
+            out.writeNumberField( "id", id );
+            out.writeStringField( "type", type.code() );
+            out.writeBooleanField( "deleted", isDeleted );
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    private void writeDeletedEntity() throws IOException
+    {
+        // the properties of an entity deleted in this transaction can no longer be read
+        out.writeStartObject();
+        out.writeEndObject();
+    }
+
+    private void writePath( PathValue path ) throws IOException
+    {
+        NodeValue[] nodes = path.nodes();
+        RelationshipValue[] relationships = path.relationships();
+        out.writeStartArray();
+        try
+        {
+            write( nodes[0] );
+            for ( int i = 0; i < relationships.length; i++ )
+            {
+                write( relationships[i] );
+                write( nodes[i + 1] );
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
+
+    void writeMap( MapValue map ) throws IOException
+    {
+        out.writeStartObject();
+        try
+        {
+            map.foreach( ( key, value ) ->
+            {
+                out.writeFieldName( key );
+                write( value );
+            } );
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    @Override
+    public void writeNull() throws IOException
+    {
+        out.writeNull();
+    }
+
+    @Override
+    public void writeBoolean( boolean value ) throws IOException
+    {
+        out.writeBoolean( value );
+    }
+
+    @Override
+    public void writeInteger( byte value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeInteger( short value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeInteger( int value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeInteger( long value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeFloatingPoint( float value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeFloatingPoint( double value ) throws IOException
+    {
+        out.writeNumber( value );
+    }
+
+    @Override
+    public void writeString( String value ) throws IOException
+    {
+        out.writeString( value );
+    }
+
+    @Override
+    public void writeString( char value ) throws IOException
+    {
+        out.writeString( String.valueOf( value ) );
+    }
+
+    @Override
+    public void beginArray( int size, ArrayType arrayType ) throws IOException
+    {
+        out.writeStartArray();
+    }
+
+    @Override
+    public void endArray() throws IOException
+    {
+        out.writeEndArray();
+    }
+
+    @Override
+    public void writeByteArray( byte[] value ) throws IOException
+    {
+        out.writeStartArray();
+        try
+        {
+            for ( byte b : value )
+            {
+                out.writeNumber( (int) b );
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
+
+    @Override
+    public void writePoint( CoordinateReferenceSystem crs, double[] coordinate ) throws IOException
+    {
+        out.writeStartObject();
+        try
+        {
+            out.writeStringField( "type", "Point" );
+            out.writeArrayFieldStart( "coordinates" );
+            try
+            {
+                for ( double c : coordinate )
+                {
+                    out.writeNumber( c );
+                }
+            }
+            finally
+            {
+                out.writeEndArray();
+            }
+            out.writeObjectFieldStart( "crs" );
+            try
+            {
+                out.writeNumberField( "srid", crs.getCode() );
+                out.writeStringField( "name", crs.getType() );
+                out.writeStringField( "type", "link" );
+                out.writeObjectFieldStart( "properties" );
+                try
+                {
+                    out.writeStringField( "href", crs.getHref() + "ogcwkt/" );
+                    out.writeStringField( "type", "ogcwkt" );
+                }
+                finally
+                {
+                    out.writeEndObject();
+                }
+            }
+            finally
+            {
+                out.writeEndObject();
+            }
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    @Override
+    public void writeDuration( long months, long days, long seconds, int nanos ) throws IOException
+    {
+        out.writeString( DurationValue.duration( months, days, seconds, nanos ).prettyPrint() );
+    }
+
+    @Override
+    public void writeDate( LocalDate localDate ) throws IOException
+    {
+        out.writeString( localDate.toString() );
+    }
+
+    @Override
+    public void writeLocalTime( LocalTime localTime ) throws IOException
+    {
+        out.writeString( localTime.toString() );
+    }
+
+    @Override
+    public void writeTime( OffsetTime offsetTime ) throws IOException
+    {
+        out.writeString( offsetTime.toString() );
+    }
+
+    @Override
+    public void writeLocalDateTime( LocalDateTime localDateTime ) throws IOException
+    {
+        out.writeString( localDateTime.toString() );
+    }
+
+    @Override
+    public void writeDateTime( ZonedDateTime zonedDateTime ) throws IOException
+    {
+        out.writeString( zonedDateTime.toString() );
+    }
+}
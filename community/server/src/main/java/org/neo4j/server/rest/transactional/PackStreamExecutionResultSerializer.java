@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest.transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.MediaType;
+
+import org.neo4j.bolt.messaging.Neo4jPack;
+import org.neo4j.bolt.v1.messaging.encoder.FailureMessageEncoder;
+import org.neo4j.bolt.v1.messaging.encoder.RecordMessageEncoder;
+import org.neo4j.bolt.v1.messaging.encoder.SuccessMessageEncoder;
+import org.neo4j.bolt.v1.messaging.response.FailureMessage;
+import org.neo4j.bolt.v1.messaging.response.RecordMessage;
+import org.neo4j.bolt.v1.messaging.response.SuccessMessage;
+import org.neo4j.bolt.v1.packstream.PackOutput;
+import org.neo4j.bolt.v2.messaging.Neo4jPackV2;
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.ExecutionPlanDescription;
+import org.neo4j.graphdb.InputPosition;
+import org.neo4j.graphdb.Notification;
+import org.neo4j.graphdb.QueryStatistics;
+import org.neo4j.graphdb.Result;
+import org.neo4j.kernel.impl.util.ValueUtils;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.server.rest.repr.util.RFC1123;
+import org.neo4j.server.rest.transactional.error.Neo4jError;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.neo4j.values.storable.Values.booleanValue;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringArray;
+import static org.neo4j.values.storable.Values.stringValue;
+
+/**
+ * Writes the results of the transactional endpoint in PackStream, the binary encoding used by Bolt, for clients that
+ * accept {@value #PACKSTREAM}. The response body is a sequence of Bolt response messages whose values are encoded as
+ * in Bolt protocol version 2:
+ * <ul>
+ * <li>{@code SUCCESS {commit}} with the commit uri of an open transaction</li>
+ * <li>for every statement {@code SUCCESS {fields}}, one {@code RECORD} per row and a closing
+ * {@code SUCCESS {stats?, plan?, notifications?}}</li>
+ * <li>{@code FAILURE {code, message}} for every error</li>
+ * <li>{@code SUCCESS {expires}} with the expiry date of an open transaction</li>
+ * </ul>
+ * Records always contain the row values, nodes and relationships are written as PackStream structures, so the
+ * {@code resultDataContents} of a statement do not apply to this format.
+ */
+public class PackStreamExecutionResultSerializer extends ExecutionResultSerializer
+{
+    public static final String PACKSTREAM = "application/vnd.neo4j.packstream";
+    public static final MediaType PACKSTREAM_TYPE = MediaType.valueOf( PACKSTREAM );
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final PackOutput output;
+    private final Neo4jPack.Packer packer;
+    private final SuccessMessageEncoder successEncoder = new SuccessMessageEncoder();
+    private final RecordMessageEncoder recordEncoder = new RecordMessageEncoder();
+    private final FailureMessageEncoder failureEncoder;
+    private MapValueBuilder pendingSummary;
+
+    public PackStreamExecutionResultSerializer( OutputStream output, LogProvider logProvider )
+    {
+        super( logProvider );
+        this.output = new OutputStreamPackOutput( output );
+        this.packer = new Neo4jPackV2().newPacker( this.output );
+        this.failureEncoder = new FailureMessageEncoder( logProvider.getLog( FailureMessageEncoder.class ) );
+    }
+
+    @Override
+    public void transactionCommitUri( URI commitUri )
+    {
+        try
+        {
+            writeSuccess( VirtualValues.map( new String[]{"commit"}, new AnyValue[]{stringValue( commitUri.toString() )} ) );
+        }
+        catch ( IOException e )
+        {
+            loggedIOException( e );
+        }
+    }
+
+    @Override
+    public void statementResult( Result result, boolean includeStats, ResultDataContent... resultDataContents ) throws IOException
+    {
+        try
+        {
+            writePendingSummary();
+            List<String> columns = result.columns();
+            String[] fields = columns.toArray( new String[0] );
+            writeSuccess( VirtualValues.map( new String[]{"fields"}, new AnyValue[]{stringArray( fields )} ) );
+            if ( result instanceof QueryResultProvider )
+            {
+                // the values of cypher records are packed as they are, like bolt does
+                ((QueryResultProvider) result).queryResult().accept( record ->
+                {
+                    writeRecord( record );
+                    return true;
+                } );
+            }
+            else
+            {
+                result.accept( row ->
+                {
+                    AnyValue[] values = new AnyValue[fields.length];
+                    for ( int i = 0; i < fields.length; i++ )
+                    {
+                        values[i] = ValueUtils.of( row.get( fields[i] ) );
+                    }
+                    writeRecord( () -> values );
+                    return true;
+                } );
+            }
+
+            pendingSummary = new MapValueBuilder();
+            if ( includeStats )
+            {
+                pendingSummary.add( "stats", stats( result.getQueryStatistics() ) );
+            }
+            if ( result.getQueryExecutionType().requestedExecutionPlanDescription() )
+            {
+                pendingSummary.add( "plan", plan( result.getExecutionPlanDescription() ) );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw loggedIOException( e );
+        }
+    }
+
+    private void writeRecord( QueryResult.Record record ) throws IOException
+    {
+        output.beginMessage();
+        recordEncoder.encode( packer, new RecordMessage( record ) );
+        output.messageSucceeded();
+    }
+
+    @Override
+    public void notifications( Iterable<Notification> notifications )
+    {
+        List<AnyValue> values = new ArrayList<>();
+        for ( Notification notification : notifications )
+        {
+            MapValueBuilder builder = new MapValueBuilder();
+            builder.add( "code", stringValue( notification.getCode() ) );
+            builder.add( "severity", stringValue( notification.getSeverity().toString() ) );
+            builder.add( "title", stringValue( notification.getTitle() ) );
+            builder.add( "description", stringValue( notification.getDescription() ) );
+            InputPosition position = notification.getPosition();
+            if ( position != InputPosition.empty )
+            {
+                builder.add( "position", VirtualValues.map( new String[]{"offset", "line", "column"},
+                        new AnyValue[]{intValue( position.getOffset() ), intValue( position.getLine() ), intValue( position.getColumn() )} ) );
+            }
+            values.add( builder.build() );
+        }
+        if ( !values.isEmpty() && pendingSummary != null )
+        {
+            pendingSummary.add( "notifications", VirtualValues.fromList( values ) );
+        }
+    }
+
+    @Override
+    public void errors( Iterable<? extends Neo4jError> errors )
+    {
+        try
+        {
+            writePendingSummary();
+            for ( Neo4jError error : errors )
+            {
+                output.beginMessage();
+                failureEncoder.encode( packer, new FailureMessage( error.status(), error.getMessage() ) );
+                output.messageSucceeded();
+            }
+        }
+        catch ( IOException e )
+        {
+            loggedIOException( e );
+        }
+    }
+
+    @Override
+    public void transactionStatus( long expiryDate )
+    {
+        try
+        {
+            writePendingSummary();
+            writeSuccess( VirtualValues.map( new String[]{"expires"}, new AnyValue[]{stringValue( RFC1123.formatDate( new Date( expiryDate ) ) )} ) );
+        }
+        catch ( IOException e )
+        {
+            loggedIOException( e );
+        }
+    }
+
+    @Override
+    public void finish()
+    {
+        try
+        {
+            writePendingSummary();
+            output.flush();
+        }
+        catch ( IOException e )
+        {
+            loggedIOException( e );
+        }
+    }
+
+    private void writePendingSummary() throws IOException
+    {
+        if ( pendingSummary != null )
+        {
+            MapValue summary = pendingSummary.build();
+            pendingSummary = null;
+            writeSuccess( summary );
+        }
+    }
+
+    private void writeSuccess( MapValue metadata ) throws IOException
+    {
+        output.beginMessage();
+        successEncoder.encode( packer, new SuccessMessage( metadata ) );
+        output.messageSucceeded();
+    }
+
+    private static MapValue stats( QueryStatistics stats )
+    {
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "contains_updates", booleanValue( stats.containsUpdates() ) );
+        builder.add( "nodes_created", intValue( stats.getNodesCreated() ) );
+        builder.add( "nodes_deleted", intValue( stats.getNodesDeleted() ) );
+        builder.add( "properties_set", intValue( stats.getPropertiesSet() ) );
+        builder.add( "relationships_created", intValue( stats.getRelationshipsCreated() ) );
+        builder.add( "relationship_deleted", intValue( stats.getRelationshipsDeleted() ) );
+        builder.add( "labels_added", intValue( stats.getLabelsAdded() ) );
+        builder.add( "labels_removed", intValue( stats.getLabelsRemoved() ) );
+        builder.add( "indexes_added", intValue( stats.getIndexesAdded() ) );
+        builder.add( "indexes_removed", intValue( stats.getIndexesRemoved() ) );
+        builder.add( "constraints_added", intValue( stats.getConstraintsAdded() ) );
+        builder.add( "constraints_removed", intValue( stats.getConstraintsRemoved() ) );
+        return builder.build();
+    }
+
+    private static MapValue plan( ExecutionPlanDescription planDescription )
+    {
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "operatorType", stringValue( planDescription.getName() ) );
+        for ( Map.Entry<String,Object> argument : planDescription.getArguments().entrySet() )
+        {
+            builder.add( argument.getKey(), ValueUtils.of( argument.getValue() ) );
+        }
+        builder.add( "identifiers", stringArray( planDescription.getIdentifiers().toArray( new String[0] ) ) );
+        List<AnyValue> children = new ArrayList<>();
+        for ( ExecutionPlanDescription child : planDescription.getChildren() )
+        {
+            children.add( plan( child ) );
+        }
+        builder.add( "children", VirtualValues.fromList( children ) );
+        return builder.build();
+    }
+
+    /**
+     * PackStream is big-endian, like {@link DataOutputStream}. The HTTP response takes care of framing, so messages
+     * are written back to back.
+     */
+    private static class OutputStreamPackOutput implements PackOutput
+    {
+        private final DataOutputStream out;
+        private final byte[] scratch = new byte[BUFFER_SIZE];
+
+        OutputStreamPackOutput( OutputStream output )
+        {
+            this.out = new DataOutputStream( new BufferedOutputStream( output, BUFFER_SIZE ) );
+        }
+
+        @Override
+        public void beginMessage()
+        {
+        }
+
+        @Override
+        public void messageSucceeded()
+        {
+        }
+
+        @Override
+        public void messageFailed()
+        {
+        }
+
+        @Override
+        public PackOutput flush() throws IOException
+        {
+            out.flush();
+            return this;
+        }
+
+        @Override
+        public PackOutput writeByte( byte value ) throws IOException
+        {
+            out.writeByte( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeBytes( ByteBuffer data ) throws IOException
+        {
+            if ( data.hasArray() )
+            {
+                out.write( data.array(), data.arrayOffset() + data.position(), data.remaining() );
+                data.position( data.limit() );
+                return this;
+            }
+            while ( data.hasRemaining() )
+            {
+                int length = Math.min( data.remaining(), scratch.length );
+                data.get( scratch, 0, length );
+                out.write( scratch, 0, length );
+            }
+            return this;
+        }
+
+        @Override
+        public PackOutput writeBytes( byte[] data, int offset, int amountToWrite ) throws IOException
+        {
+            out.write( data, offset, amountToWrite );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeShort( short value ) throws IOException
+        {
+            out.writeShort( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeInt( int value ) throws IOException
+        {
+            out.writeInt( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeLong( long value ) throws IOException
+        {
+            out.writeLong( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeDouble( double value ) throws IOException
+        {
+            out.writeDouble( value );
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            out.close();
+        }
+    }
+}
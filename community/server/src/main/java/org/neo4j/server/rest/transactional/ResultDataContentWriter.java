@@ -24,9 +24,29 @@ import org.codehaus.jackson.JsonGenerator;
 import java.io.IOException;
 
 import org.neo4j.graphdb.Result;
+import org.neo4j.values.AnyValue;
 
 public interface ResultDataContentWriter
 {
     void write( JsonGenerator out, Iterable<String> columns, Result.ResultRow row,
             TransactionStateChecker txStateChecker ) throws IOException;
+
+    /**
+     * @return {@code true} if this writer can write the {@link AnyValue values} of a result record as they come out of
+     * the query, see {@link #write(JsonGenerator, String[], AnyValue[], TransactionStateChecker)}.
+     */
+    default boolean writesRecords()
+    {
+        return false;
+    }
+
+    /**
+     * Writes a result record, whose values are in the same order as the columns. Only called if
+     * {@link #writesRecords()} returns {@code true}.
+     */
+    default void write( JsonGenerator out, String[] columns, AnyValue[] record, TransactionStateChecker txStateChecker )
+            throws IOException
+    {
+        throw new UnsupportedOperationException( getClass().getSimpleName() + " does not write result records" );
+    }
 }
@@ -24,6 +24,7 @@ import org.codehaus.jackson.JsonGenerator;
 import java.io.IOException;
 
 import org.neo4j.graphdb.Result;
+import org.neo4j.values.AnyValue;
 
 class RowWriter implements ResultDataContentWriter
 {
@@ -70,4 +71,41 @@ class RowWriter implements ResultDataContentWriter
             out.writeEndArray();
         }
     }
+
+    @Override
+    public boolean writesRecords()
+    {
+        return true;
+    }
+
+    @Override
+    public void write( JsonGenerator out, String[] columns, AnyValue[] record, TransactionStateChecker txStateChecker )
+            throws IOException
+    {
+        Neo4jJsonValueWriter writer = new Neo4jJsonValueWriter( out, txStateChecker );
+        out.writeArrayFieldStart( "row" );
+        try
+        {
+            for ( AnyValue value : record )
+            {
+                writer.write( value );
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+        out.writeArrayFieldStart( "meta" );
+        try
+        {
+            for ( AnyValue value : record )
+            {
+                writer.writeMeta( value );
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
 }
@@ -22,6 +22,7 @@ package org.neo4j.server.rest.transactional;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import javax.ws.rs.core.MediaType;
 
 import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.kernel.GraphDatabaseQueryService;
@@ -94,4 +95,13 @@ public class TransactionFacade
     {
         return new ExecutionResultSerializer( output, baseUri, logProvider, kernel );
     }
+
+    public ExecutionResultSerializer serializer( OutputStream output, URI baseUri, MediaType mediaType )
+    {
+        if ( PackStreamExecutionResultSerializer.PACKSTREAM_TYPE.isCompatible( mediaType ) )
+        {
+            return new PackStreamExecutionResultSerializer( output, logProvider );
+        }
+        return serializer( output, baseUri );
+    }
 }
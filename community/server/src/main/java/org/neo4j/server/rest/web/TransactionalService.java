@@ -32,6 +32,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
@@ -42,6 +43,7 @@ import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.logging.Log;
 import org.neo4j.server.rest.dbms.AuthorizedRequestWrapper;
 import org.neo4j.server.rest.transactional.ExecutionResultSerializer;
+import org.neo4j.server.rest.transactional.PackStreamExecutionResultSerializer;
 import org.neo4j.server.rest.transactional.TransactionFacade;
 import org.neo4j.server.rest.transactional.TransactionHandle;
 import org.neo4j.server.rest.transactional.TransactionTerminationHandle;
@@ -76,10 +78,11 @@ public class TransactionalService
 
     @POST
     @Consumes( {MediaType.APPLICATION_JSON} )
-    @Produces( {MediaType.APPLICATION_JSON} )
+    @Produces( {MediaType.APPLICATION_JSON, PackStreamExecutionResultSerializer.PACKSTREAM} )
     public Response executeStatementsInNewTransaction( final InputStream input, @Context final UriInfo uriInfo,
-                                                       @Context final HttpServletRequest request )
+                                                       @Context final HttpServletRequest request, @Context final HttpHeaders headers )
     {
+        MediaType responseType = responseType( headers );
         usage.get( features ).flag( http_tx_endpoint );
         LoginContext loginContext = AuthorizedRequestWrapper.getLoginContextFromHttpServletRequest( request );
         long customTransactionTimeout = HttpHeaderUtils.getTransactionTimeout( request, log );
@@ -87,17 +90,20 @@ public class TransactionalService
                 facade.newTransactionHandle( uriScheme, false, loginContext, customTransactionTimeout );
         return createdResponse(
                 transactionHandle,
-                executeStatements( input, transactionHandle, uriInfo.getBaseUri(), request )
+                responseType,
+                executeStatements( input, transactionHandle, uriInfo.getBaseUri(), request, responseType )
             );
     }
 
     @POST
     @Path( "/{id}" )
     @Consumes( {MediaType.APPLICATION_JSON} )
-    @Produces( {MediaType.APPLICATION_JSON} )
+    @Produces( {MediaType.APPLICATION_JSON, PackStreamExecutionResultSerializer.PACKSTREAM} )
     public Response executeStatements( @PathParam( "id" ) final long id, final InputStream input,
-                                       @Context final UriInfo uriInfo, @Context final HttpServletRequest request )
+                                       @Context final UriInfo uriInfo, @Context final HttpServletRequest request,
+                                       @Context final HttpHeaders headers )
     {
+        MediaType responseType = responseType( headers );
         final TransactionHandle transactionHandle;
         try
         {
@@ -105,19 +111,20 @@ public class TransactionalService
         }
         catch ( TransactionLifecycleException e )
         {
-            return invalidTransaction( e, uriInfo.getBaseUri() );
+            return invalidTransaction( e, uriInfo.getBaseUri(), responseType );
         }
-        return okResponse( executeStatements( input, transactionHandle, uriInfo.getBaseUri(), request ) );
+        return okResponse( responseType, executeStatements( input, transactionHandle, uriInfo.getBaseUri(), request, responseType ) );
     }
 
     @POST
     @Path( "/{id}/commit" )
     @Consumes( {MediaType.APPLICATION_JSON} )
-    @Produces( {MediaType.APPLICATION_JSON} )
+    @Produces( {MediaType.APPLICATION_JSON, PackStreamExecutionResultSerializer.PACKSTREAM} )
     public Response commitTransaction( @PathParam( "id" ) final long id, final InputStream input, @Context final
     UriInfo uriInfo,
-                                       @Context final HttpServletRequest request )
+                                       @Context final HttpServletRequest request, @Context final HttpHeaders headers )
     {
+        MediaType responseType = responseType( headers );
         final TransactionHandle transactionHandle;
         try
         {
@@ -125,25 +132,26 @@ public class TransactionalService
         }
         catch ( TransactionLifecycleException e )
         {
-            return invalidTransaction( e, uriInfo.getBaseUri() );
+            return invalidTransaction( e, uriInfo.getBaseUri(), responseType );
         }
-        return okResponse( executeStatementsAndCommit( input, transactionHandle, uriInfo.getBaseUri(), request ) );
+        return okResponse( responseType, executeStatementsAndCommit( input, transactionHandle, uriInfo.getBaseUri(), request, responseType ) );
     }
 
     @POST
     @Path( "/commit" )
     @Consumes( {MediaType.APPLICATION_JSON} )
-    @Produces( {MediaType.APPLICATION_JSON} )
+    @Produces( {MediaType.APPLICATION_JSON, PackStreamExecutionResultSerializer.PACKSTREAM} )
     public Response commitNewTransaction( final InputStream input, @Context final UriInfo uriInfo,
-                                          @Context final HttpServletRequest request )
+                                          @Context final HttpServletRequest request, @Context final HttpHeaders headers )
     {
+        MediaType responseType = responseType( headers );
         final TransactionHandle transactionHandle;
         LoginContext loginContext = AuthorizedRequestWrapper.getLoginContextFromHttpServletRequest( request );
         long customTransactionTimeout = HttpHeaderUtils.getTransactionTimeout( request, log );
         transactionHandle = facade.newTransactionHandle( uriScheme, true, loginContext, customTransactionTimeout );
         final StreamingOutput streamingResults =
-                executeStatementsAndCommit( input, transactionHandle, uriInfo.getBaseUri(), request );
-        return okResponse( streamingResults );
+                executeStatementsAndCommit( input, transactionHandle, uriInfo.getBaseUri(), request, responseType );
+        return okResponse( responseType, streamingResults );
     }
 
     @DELETE
@@ -158,43 +166,68 @@ public class TransactionalService
         }
         catch ( TransactionLifecycleException e )
         {
-            return invalidTransaction( e, uriInfo.getBaseUri() );
+            return invalidTransaction( e, uriInfo.getBaseUri(), MediaType.APPLICATION_JSON_TYPE );
         }
-        return okResponse( rollback( transactionHandle, uriInfo.getBaseUri() ) );
+        return okResponse( MediaType.APPLICATION_JSON_TYPE, rollback( transactionHandle, uriInfo.getBaseUri() ) );
     }
 
-    private Response invalidTransaction( final TransactionLifecycleException e, final URI baseUri )
+    private Response invalidTransaction( final TransactionLifecycleException e, final URI baseUri, final MediaType responseType )
     {
         return Response.status( Response.Status.NOT_FOUND )
-                .entity( serializeError( e.toNeo4jError(), baseUri ) )
+                .type( responseType )
+                .entity( serializeError( e.toNeo4jError(), baseUri, responseType ) )
                 .build();
     }
 
-    private Response createdResponse( TransactionHandle transactionHandle, StreamingOutput streamingResults )
+    private Response createdResponse( TransactionHandle transactionHandle, MediaType responseType, StreamingOutput streamingResults )
     {
         return Response.created( transactionHandle.uri() )
+                .type( responseType )
                 .entity( streamingResults )
                 .build();
     }
 
-    private Response okResponse( StreamingOutput streamingResults )
+    private Response okResponse( MediaType responseType, StreamingOutput streamingResults )
     {
         return Response.ok()
+                .type( responseType )
                 .entity( streamingResults )
                 .build();
     }
 
+    /**
+     * Results are written as JSON unless the client prefers {@link PackStreamExecutionResultSerializer#PACKSTREAM}
+     * over JSON. Wildcards select JSON.
+     */
+    private static MediaType responseType( HttpHeaders headers )
+    {
+        for ( MediaType acceptable : headers.getAcceptableMediaTypes() )
+        {
+            if ( !acceptable.isWildcardType() && !acceptable.isWildcardSubtype() &&
+                 acceptable.isCompatible( PackStreamExecutionResultSerializer.PACKSTREAM_TYPE ) )
+            {
+                return PackStreamExecutionResultSerializer.PACKSTREAM_TYPE;
+            }
+            if ( acceptable.isCompatible( MediaType.APPLICATION_JSON_TYPE ) )
+            {
+                return MediaType.APPLICATION_JSON_TYPE;
+            }
+        }
+        return MediaType.APPLICATION_JSON_TYPE;
+    }
+
     private StreamingOutput executeStatements( final InputStream input, final TransactionHandle transactionHandle,
-                                               final URI baseUri, final HttpServletRequest request )
+                                               final URI baseUri, final HttpServletRequest request, final MediaType responseType )
     {
         return output -> transactionHandle.execute(
-                facade.deserializer( input ), facade.serializer( output, baseUri ), request );
+                facade.deserializer( input ), facade.serializer( output, baseUri, responseType ), request );
     }
 
     private StreamingOutput executeStatementsAndCommit( final InputStream input,
                                                         final TransactionHandle transactionHandle,
                                                         final URI baseUri,
-                                                        final HttpServletRequest request )
+                                                        final HttpServletRequest request,
+                                                        final MediaType responseType )
     {
         return output ->
         {
@@ -202,7 +235,7 @@ public class TransactionalService
                                          ? new InterruptingOutputStream( output, transactionHandle )
                                          : output;
             transactionHandle.commit(
-                    facade.deserializer( input ), facade.serializer( wrappedOutput, baseUri ), request );
+                    facade.deserializer( input ), facade.serializer( wrappedOutput, baseUri, responseType ), request );
         };
     }
 
@@ -217,11 +250,11 @@ public class TransactionalService
         };
     }
 
-    private StreamingOutput serializeError( final Neo4jError neo4jError, final URI baseUri )
+    private StreamingOutput serializeError( final Neo4jError neo4jError, final URI baseUri, final MediaType responseType )
     {
         return output ->
         {
-            ExecutionResultSerializer serializer = facade.serializer( output, baseUri );
+            ExecutionResultSerializer serializer = facade.serializer( output, baseUri, responseType );
             serializer.errors( Collections.singletonList( neo4jError ) );
             serializer.finish();
         };
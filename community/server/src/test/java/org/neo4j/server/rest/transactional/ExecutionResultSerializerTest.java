@@ -49,6 +49,8 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.neo4j.cypher.internal.javacompat.MapRow;
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.cypher.result.QueryResult;
 import org.neo4j.graphdb.ExecutionPlanDescription;
 import org.neo4j.graphdb.InputPosition;
 import org.neo4j.graphdb.Node;
@@ -61,6 +63,7 @@ import org.neo4j.graphdb.impl.notification.NotificationCode;
 import org.neo4j.graphdb.spatial.Coordinate;
 import org.neo4j.helpers.collection.MapUtil;
 import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.util.ValueUtils;
 import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
@@ -69,9 +72,12 @@ import org.neo4j.server.rest.transactional.error.Neo4jError;
 import org.neo4j.test.mockito.mock.GraphMock;
 import org.neo4j.test.mockito.mock.Link;
 import org.neo4j.test.mockito.mock.SpatialMocks;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.Is.is;
@@ -82,7 +88,10 @@ import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 import static org.neo4j.helpers.collection.Iterators.asSet;
 import static org.neo4j.helpers.collection.MapUtil.map;
 import static org.neo4j.server.rest.domain.JsonHelper.jsonNode;
@@ -97,6 +106,7 @@ import static org.neo4j.test.mockito.mock.SpatialMocks.mockCartesian;
 import static org.neo4j.test.mockito.mock.SpatialMocks.mockCartesian_3D;
 import static org.neo4j.test.mockito.mock.SpatialMocks.mockWGS84;
 import static org.neo4j.test.mockito.mock.SpatialMocks.mockWGS84_3D;
+import static org.neo4j.values.storable.Values.pointValue;
 
 public class ExecutionResultSerializerTest extends TxStateCheckerTestSupport
 {
@@ -651,6 +661,51 @@ public class ExecutionResultSerializerTest extends TxStateCheckerTestSupport
         assertTrue( "result should contain rel1 after node2 and node3", r1 > n2 && r1 > n3 );
     }
 
+    @Test
+    public void shouldWriteRecordsOfQueryResultsLikeRows() throws Exception
+    {
+        // given
+        Node a = node( 1, properties( property( "foo", 12 ), property( "bar", 1.5f ), property( "baz", new char[]{'a', 'b'} ) ) );
+        Node b = node( 2, properties( property( "bar", false ) ), "Label" );
+        Relationship r = relationship( 1, properties( property( "baz", "quux" ) ), a, "FRAZZLE", b );
+        Map<String,Object> row = map(
+                "node", node( 3, properties(
+                        property( "a", 12 ),
+                        property( "b", true ),
+                        property( "c", new int[]{1, 0, 1, 2} ),
+                        property( "d", new byte[]{1, 0, 1, 2} ),
+                        property( "e", new String[]{"a", "b", "ääö"} ) ) ),
+                "nested", map( "edge", r ),
+                "path", path( a, link( r, b ) ),
+                "list", asList( 1L, "two", 3.0, null ),
+                "point", pointValue( CoordinateReferenceSystem.WGS84, 12.3, 45.6 ),
+                "datetime", ZonedDateTime.of( 2018, 3, 12, 13, 2, 10, 10, ZoneId.of( "Europe/Stockholm" ) ),
+                "duration", Duration.of( 12, ChronoUnit.HOURS ) );
+
+        // when
+        Result records = mockQueryResultProvider( row );
+        String written = serialize( records, ResultDataContent.row, ResultDataContent.graph );
+
+        // then
+        verify( records, never() ).accept( any( Result.ResultVisitor.class ) );
+        assertEquals( jsonNode( serialize( mockExecutionResult( row ), ResultDataContent.row, ResultDataContent.graph ) ),
+                jsonNode( written ) );
+    }
+
+    @Test
+    public void shouldWriteRowsOfQueryResultsForTheLegacyRestFormat() throws Exception
+    {
+        // given
+        Result records = mockQueryResultProvider( map( "number", 1L ) );
+
+        // when
+        String written = serialize( records, ResultDataContent.row, ResultDataContent.rest );
+
+        // then
+        verify( (QueryResultProvider) records, never() ).queryResult();
+        assertThat( written, containsString( "\"rest\":[1]" ) );
+    }
+
     @Test
     public void shouldProduceResultStreamWithLegacyRestFormat() throws Exception
     {
@@ -1037,13 +1092,21 @@ public class ExecutionResultSerializerTest extends TxStateCheckerTestSupport
     @SafeVarargs
     private static Result mockExecutionResult( ExecutionPlanDescription planDescription,
             Iterable<Notification> notifications, Map<String, Object>... rows )
+    {
+        Result executionResult = mock( Result.class );
+        stubExecutionResult( executionResult, planDescription, notifications, rows );
+        return executionResult;
+    }
+
+    @SafeVarargs
+    private static void stubExecutionResult( Result executionResult, ExecutionPlanDescription planDescription,
+            Iterable<Notification> notifications, Map<String, Object>... rows )
     {
         Set<String> keys = new TreeSet<>();
         for ( Map<String, Object> row : rows )
         {
             keys.addAll( row.keySet() );
         }
-        Result executionResult = mock( Result.class );
 
         when( executionResult.columns() ).thenReturn( new ArrayList<>( keys ) );
 
@@ -1062,7 +1125,44 @@ public class ExecutionResultSerializerTest extends TxStateCheckerTestSupport
         mockAccept( executionResult );
 
         when( executionResult.getNotifications() ).thenReturn( notifications );
+    }
 
+    private String serialize( Result result, ResultDataContent... resultDataContents ) throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExecutionResultSerializer serializer = getSerializerWith( output, "http://base.uri/" );
+        serializer.statementResult( result, false, resultDataContents );
+        serializer.finish();
+        return output.toString( UTF_8.name() );
+    }
+
+    /**
+     * A result that, like the results of cypher, also hands out its records as {@link AnyValue values}.
+     */
+    @SafeVarargs
+    private static Result mockQueryResultProvider( Map<String,Object>... rows )
+    {
+        Result executionResult = mock( Result.class, withSettings().extraInterfaces( QueryResultProvider.class ) );
+        stubExecutionResult( executionResult, null, Collections.emptyList(), rows );
+
+        String[] fields = executionResult.columns().toArray( new String[0] );
+        QueryResult queryResult = mock( QueryResult.class );
+        when( queryResult.fieldNames() ).thenReturn( fields );
+        doAnswer( invocation ->
+        {
+            QueryResult.QueryResultVisitor<?> visitor = invocation.getArgument( 0 );
+            for ( Map<String,Object> row : rows )
+            {
+                AnyValue[] values = new AnyValue[fields.length];
+                for ( int i = 0; i < fields.length; i++ )
+                {
+                    values[i] = ValueUtils.of( row.get( fields[i] ) );
+                }
+                visitor.visit( () -> values );
+            }
+            return null;
+        } ).when( queryResult ).accept( any() );
+        when( ((QueryResultProvider) executionResult).queryResult() ).thenReturn( queryResult );
         return executionResult;
     }
 
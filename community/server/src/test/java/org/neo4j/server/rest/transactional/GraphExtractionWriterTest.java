@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -189,6 +190,27 @@ public class GraphExtractionWriterTest
         assertRelationships( result );
     }
 
+    @Test
+    public void shouldExtractEachEntityOnceWhenItAppearsMoreThanOnceInTheRow() throws Exception
+    {
+        // given
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put( "n1", n1 );
+        row.put( "n1 again", node( 17, properties( property( "name", "n1" ) ), "Foo" ) );
+        row.put( "r1", r1 );
+        row.put( "list", asList( r1, r2, n3 ) );
+        row.put( "p", path( n2, link( r1, n1 ), link( r2, n3 ) ) );
+
+        // when
+        JsonNode result = write( row );
+
+        // then
+        assertNodes( result );
+        assertRelationships( result );
+        assertIds( "nodes", result, "17", "666", "42" );
+        assertIds( "relationships", result, "7", "8" );
+    }
+
     // The code under test
 
     private JsonFactory jsonFactory = new JsonFactory();
@@ -229,6 +251,16 @@ public class GraphExtractionWriterTest
         assertRelationship( "8", relationships, "17", "TWO", "42", property( "name", "r2" ) );
     }
 
+    private static void assertIds( String what, JsonNode result, String... ids )
+    {
+        List<String> actual = new ArrayList<>();
+        for ( JsonNode entity : result.get( "graph" ).get( what ) )
+        {
+            actual.add( entity.get( "id" ).getTextValue() );
+        }
+        assertEquals( what + " in the order they were first seen", asList( ids ), actual );
+    }
+
     // Helpers
 
     private static void assertNode( String id, JsonNode nodes, List<String> labels, Property... properties )
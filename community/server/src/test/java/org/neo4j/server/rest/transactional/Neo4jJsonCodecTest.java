@@ -302,6 +302,27 @@ public class Neo4jJsonCodecTest extends TxStateCheckerTestSupport
         verify( jsonGenerator, times( 3 ) ).writeEndObject();
     }
 
+    @Test
+    public void testScalarWritingWithoutFlushing() throws IOException
+    {
+        //When
+        jsonCodec.writeValue( jsonGenerator, Arrays.asList( "foo", 42L, 7, 1.5d, true, null ) );
+        jsonCodec.writeValue( jsonGenerator, new float[]{2.5f} );
+
+        //Then
+        InOrder inOrder = Mockito.inOrder( jsonGenerator );
+        inOrder.verify( jsonGenerator ).writeStartArray();
+        inOrder.verify( jsonGenerator ).writeString( "foo" );
+        inOrder.verify( jsonGenerator ).writeNumber( 42L );
+        inOrder.verify( jsonGenerator ).writeNumber( 7 );
+        inOrder.verify( jsonGenerator ).writeNumber( 1.5d );
+        inOrder.verify( jsonGenerator ).writeBoolean( true );
+        inOrder.verify( jsonGenerator ).writeNull();
+        inOrder.verify( jsonGenerator ).writeEndArray();
+        verify( jsonGenerator ).writeNumber( 2.5f );
+        verify( jsonGenerator, never() ).flush();
+    }
+
     @Test
     public void testGeometryCrsStructureCartesian() throws IOException
     {
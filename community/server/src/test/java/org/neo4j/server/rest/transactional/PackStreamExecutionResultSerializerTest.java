@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest.transactional;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.bolt.messaging.Neo4jPack;
+import org.neo4j.bolt.v1.messaging.response.FailureMessage;
+import org.neo4j.bolt.v1.messaging.response.RecordMessage;
+import org.neo4j.bolt.v1.messaging.response.SuccessMessage;
+import org.neo4j.bolt.v1.packstream.BufferedChannelInput;
+import org.neo4j.bolt.v2.messaging.Neo4jPackV2;
+import org.neo4j.cypher.internal.javacompat.MapRow;
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.QueryExecutionType;
+import org.neo4j.graphdb.QueryStatistics;
+import org.neo4j.graphdb.Result;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.server.rest.transactional.error.Neo4jError;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.neo4j.helpers.collection.MapUtil.genericMap;
+import static org.neo4j.values.storable.DateValue.date;
+import static org.neo4j.values.storable.Values.FALSE;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.virtual.VirtualValues.list;
+
+public class PackStreamExecutionResultSerializerTest
+{
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final ExecutionResultSerializer serializer =
+            new PackStreamExecutionResultSerializer( output, NullLogProvider.getInstance() );
+
+    @Test
+    public void shouldWriteStatementResultAsBoltMessages() throws Exception
+    {
+        // when
+        serializer.transactionCommitUri( URI.create( "commit/uri/1" ) );
+        serializer.statementResult( mockExecutionResult( row( "Alice", 42L ), row( "Bob", 7L ) ), true );
+        serializer.transactionStatus( 0 );
+        serializer.finish();
+
+        // then
+        Neo4jPack.Unpacker unpacker = unpacker();
+        assertEquals( stringValue( "commit/uri/1" ), unpackMessage( unpacker, SuccessMessage.SIGNATURE ).get( "commit" ) );
+        assertEquals( list( stringValue( "name" ), stringValue( "age" ) ), unpackMessage( unpacker, SuccessMessage.SIGNATURE ).get( "fields" ) );
+        assertEquals( values( stringValue( "Alice" ), longValue( 42 ) ), unpackRecord( unpacker ) );
+        assertEquals( values( stringValue( "Bob" ), longValue( 7 ) ), unpackRecord( unpacker ) );
+        MapValue stats = (MapValue) unpackMessage( unpacker, SuccessMessage.SIGNATURE ).get( "stats" );
+        assertEquals( FALSE, stats.get( "contains_updates" ) );
+        assertTrue( unpackMessage( unpacker, SuccessMessage.SIGNATURE ).get( "expires" ) != NO_VALUE );
+    }
+
+    @Test
+    public void shouldPackTheValuesOfQueryResultRecords() throws Exception
+    {
+        // given
+        Result result = mock( Result.class, withSettings().extraInterfaces( QueryResultProvider.class ) );
+        when( result.columns() ).thenReturn( asList( "name", "born" ) );
+        when( result.getQueryExecutionType() ).thenReturn( QueryExecutionType.query( QueryExecutionType.QueryType.READ_ONLY ) );
+        when( result.getQueryStatistics() ).thenReturn( mock( QueryStatistics.class ) );
+        QueryResult queryResult = mock( QueryResult.class );
+        doAnswer( invocation ->
+        {
+            QueryResult.QueryResultVisitor<?> visitor = invocation.getArgument( 0 );
+            visitor.visit( () -> new AnyValue[]{stringValue( "Alice" ), date( 1815, 12, 10 )} );
+            return null;
+        } ).when( queryResult ).accept( any() );
+        when( ((QueryResultProvider) result).queryResult() ).thenReturn( queryResult );
+
+        // when
+        serializer.statementResult( result, false );
+        serializer.finish();
+
+        // then
+        verify( result, never() ).accept( any( Result.ResultVisitor.class ) );
+        Neo4jPack.Unpacker unpacker = unpacker();
+        unpackMessage( unpacker, SuccessMessage.SIGNATURE );
+        assertEquals( values( stringValue( "Alice" ), date( 1815, 12, 10 ) ), unpackRecord( unpacker ) );
+    }
+
+    @Test
+    public void shouldWriteStringsLongerThanTheOutputBuffer() throws Exception
+    {
+        // given
+        StringBuilder name = new StringBuilder();
+        for ( int i = 0; name.length() < 3 * 8192; i++ )
+        {
+            name.append( "name-" ).append( i ).append( "-\u00e5\u00e4\u00f6" );
+        }
+
+        // when
+        serializer.statementResult( mockExecutionResult( row( name.toString(), 1L ) ), false );
+        serializer.finish();
+
+        // then
+        Neo4jPack.Unpacker unpacker = unpacker();
+        unpackMessage( unpacker, SuccessMessage.SIGNATURE );
+        assertEquals( values( stringValue( name.toString() ), longValue( 1 ) ), unpackRecord( unpacker ) );
+    }
+
+    @Test
+    public void shouldWriteErrorsAsFailures() throws Exception
+    {
+        // when
+        serializer.statementResult( mockExecutionResult(), false );
+        serializer.errors( singletonList( new Neo4jError( Status.Statement.SyntaxError, "Invalid syntax" ) ) );
+        serializer.finish();
+
+        // then
+        Neo4jPack.Unpacker unpacker = unpacker();
+        assertEquals( list(), unpackMessage( unpacker, SuccessMessage.SIGNATURE ).get( "fields" ) );
+        assertEquals( 0, unpackMessage( unpacker, SuccessMessage.SIGNATURE ).size() );
+        MapValue failure = unpackMessage( unpacker, FailureMessage.SIGNATURE );
+        assertEquals( stringValue( Status.Statement.SyntaxError.code().serialize() ), failure.get( "code" ) );
+        assertEquals( stringValue( "Invalid syntax" ), failure.get( "message" ) );
+    }
+
+    private Neo4jPack.Unpacker unpacker()
+    {
+        ByteArrayInputStream input = new ByteArrayInputStream( output.toByteArray() );
+        return new Neo4jPackV2().newUnpacker( new BufferedChannelInput( 16 ).reset( Channels.newChannel( input ) ) );
+    }
+
+    private static MapValue unpackMessage( Neo4jPack.Unpacker unpacker, byte signature ) throws IOException
+    {
+        assertEquals( 1, unpacker.unpackStructHeader() );
+        assertEquals( (char) signature, unpacker.unpackStructSignature() );
+        return unpacker.unpackMap();
+    }
+
+    private static List<AnyValue> unpackRecord( Neo4jPack.Unpacker unpacker ) throws IOException
+    {
+        assertEquals( 1, unpacker.unpackStructHeader() );
+        assertEquals( (char) RecordMessage.SIGNATURE, unpacker.unpackStructSignature() );
+        ListValue fields = (ListValue) unpacker.unpack();
+        return asList( fields.asArray() );
+    }
+
+    private static List<AnyValue> values( AnyValue... values )
+    {
+        return asList( values );
+    }
+
+    private static Map<String,Object> row( String name, long age )
+    {
+        return genericMap( new LinkedHashMap<>(), "name", name, "age", age );
+    }
+
+    @SafeVarargs
+    private static Result mockExecutionResult( Map<String,Object>... rows )
+    {
+        Result result = mock( Result.class );
+        when( result.columns() ).thenReturn( asList( rows.length == 0 ? new String[0] : rows[0].keySet().toArray( new String[0] ) ) );
+        when( result.getQueryExecutionType() ).thenReturn( QueryExecutionType.query( QueryExecutionType.QueryType.READ_ONLY ) );
+        when( result.getQueryStatistics() ).thenReturn( mock( QueryStatistics.class ) );
+        doAnswer( invocation ->
+        {
+            Result.ResultVisitor visitor = invocation.getArgument( 0 );
+            Iterator<Map<String,Object>> iterator = asList( rows ).iterator();
+            while ( iterator.hasNext() )
+            {
+                visitor.visit( new MapRow( iterator.next() ) );
+            }
+            return null;
+        } ).when( result ).accept( (Result.ResultVisitor<RuntimeException>) any( Result.ResultVisitor.class ) );
+        return result;
+    }
+}
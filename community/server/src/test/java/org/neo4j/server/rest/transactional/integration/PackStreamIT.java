@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2002-2019 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.rest.transactional.integration;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.core.MediaType;
+
+import org.neo4j.bolt.messaging.Neo4jPack;
+import org.neo4j.bolt.v1.messaging.response.RecordMessage;
+import org.neo4j.bolt.v1.messaging.response.SuccessMessage;
+import org.neo4j.bolt.v1.packstream.BufferedChannelInput;
+import org.neo4j.bolt.v2.messaging.Neo4jPackV2;
+import org.neo4j.server.rest.AbstractRestFunctionalTestBase;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.server.rest.transactional.PackStreamExecutionResultSerializer.PACKSTREAM;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.virtual.VirtualValues.list;
+
+/**
+ * Tests for results of the transactional endpoint in PackStream, for clients which accept it.
+ */
+public class PackStreamIT extends AbstractRestFunctionalTestBase
+{
+    @Test
+    public void shouldReturnResultsAsPackStreamWhenAccepted() throws Exception
+    {
+        // when
+        HttpURLConnection connection = post( txCommitUri(), PACKSTREAM, "{\"statements\": [{\"statement\": \"UNWIND [1, 2] AS x RETURN x\"}]}" );
+
+        // then
+        assertThat( connection.getResponseCode(), equalTo( 200 ) );
+        assertThat( connection.getContentType(), startsWith( PACKSTREAM ) );
+        try ( InputStream input = connection.getInputStream() )
+        {
+            Neo4jPack.Unpacker unpacker = new Neo4jPackV2().newUnpacker( new BufferedChannelInput( 16 ).reset( Channels.newChannel( input ) ) );
+            assertEquals( list( stringValue( "x" ) ), unpackMessage( unpacker, SuccessMessage.SIGNATURE ).get( "fields" ) );
+            assertEquals( list( longValue( 1 ) ), unpackRecord( unpacker ) );
+            assertEquals( list( longValue( 2 ) ), unpackRecord( unpacker ) );
+            unpackMessage( unpacker, SuccessMessage.SIGNATURE );
+        }
+    }
+
+    @Test
+    public void shouldReturnJsonWhenPackStreamIsNotAccepted() throws Exception
+    {
+        // when
+        HttpURLConnection connection = post( txCommitUri(), MediaType.WILDCARD, "{\"statements\": [{\"statement\": \"RETURN 1\"}]}" );
+
+        // then
+        assertThat( connection.getResponseCode(), equalTo( 200 ) );
+        assertThat( connection.getContentType(), startsWith( MediaType.APPLICATION_JSON ) );
+        connection.getInputStream().close();
+    }
+
+    private static HttpURLConnection post( String uri, String accept, String payload ) throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection) new URL( uri ).openConnection();
+        connection.setRequestMethod( "POST" );
+        connection.setDoOutput( true );
+        connection.setRequestProperty( "Content-Type", MediaType.APPLICATION_JSON );
+        connection.setRequestProperty( "Accept", accept );
+        try ( OutputStream output = connection.getOutputStream() )
+        {
+            output.write( payload.getBytes( StandardCharsets.UTF_8 ) );
+        }
+        return connection;
+    }
+
+    private static MapValue unpackMessage( Neo4jPack.Unpacker unpacker, byte signature ) throws IOException
+    {
+        assertEquals( 1, unpacker.unpackStructHeader() );
+        assertEquals( (char) signature, unpacker.unpackStructSignature() );
+        return unpacker.unpackMap();
+    }
+
+    private static ListValue unpackRecord( Neo4jPack.Unpacker unpacker ) throws IOException
+    {
+        assertEquals( 1, unpacker.unpackStructHeader() );
+        assertEquals( (char) RecordMessage.SIGNATURE, unpacker.unpackStructSignature() );
+        return (ListValue) unpacker.unpack();
+    }
+}
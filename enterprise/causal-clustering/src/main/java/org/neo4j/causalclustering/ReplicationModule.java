@@ -84,7 +84,10 @@ public class ReplicationModule
                 sessionPool,
                 progressTracker, progressRetryStrategy, availabilityTimeoutMillis,
                 globalAvailabilityGuard, logProvider, localDatabase,
-                platformModule.monitors );
+                platformModule.monitors,
+                // batches larger than what the leader appends at once would only be split up again
+                config.get( CausalClusteringSettings.raft_in_queue_max_batch ),
+                config.get( CausalClusteringSettings.raft_in_queue_max_batch_bytes ) );
     }
 
     public RaftReplicator getReplicator()
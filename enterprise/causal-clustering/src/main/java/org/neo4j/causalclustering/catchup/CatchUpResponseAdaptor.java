@@ -22,10 +22,14 @@
  */
 package org.neo4j.causalclustering.catchup;
 
+import io.netty.channel.ChannelConfig;
+
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 
+import org.neo4j.causalclustering.catchup.storecopy.FileBlock;
 import org.neo4j.causalclustering.catchup.storecopy.FileChunk;
+import org.neo4j.causalclustering.catchup.storecopy.FileDiffHeader;
 import org.neo4j.causalclustering.catchup.storecopy.FileHeader;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdResponse;
 import org.neo4j.causalclustering.catchup.storecopy.StoreCopyFinishedResponse;
@@ -49,6 +53,19 @@ public class CatchUpResponseAdaptor<T> implements CatchUpResponseCallback<T>
         return false;
     }
 
+    @Override
+    public void onFileDiffHeader( CompletableFuture<T> signal, FileDiffHeader response )
+    {
+        unimplementedMethod( signal, response );
+    }
+
+    @Override
+    public boolean onFileBlock( CompletableFuture<T> signal, FileBlock response )
+    {
+        unimplementedMethod( signal, response );
+        return false;
+    }
+
     @Override
     public void onFileStreamingComplete( CompletableFuture<T> signal, StoreCopyFinishedResponse response )
     {
@@ -56,7 +73,7 @@ public class CatchUpResponseAdaptor<T> implements CatchUpResponseCallback<T>
     }
 
     @Override
-    public void onTxPullResponse( CompletableFuture<T> signal, TxPullResponse response )
+    public void onTxPullResponse( CompletableFuture<T> signal, TxPullResponse response, ChannelConfig channelConfig )
     {
         unimplementedMethod( signal, response );
     }
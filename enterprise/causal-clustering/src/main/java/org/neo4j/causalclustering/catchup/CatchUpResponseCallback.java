@@ -22,10 +22,14 @@
  */
 package org.neo4j.causalclustering.catchup;
 
+import io.netty.channel.ChannelConfig;
+
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 
+import org.neo4j.causalclustering.catchup.storecopy.FileBlock;
 import org.neo4j.causalclustering.catchup.storecopy.FileChunk;
+import org.neo4j.causalclustering.catchup.storecopy.FileDiffHeader;
 import org.neo4j.causalclustering.catchup.storecopy.FileHeader;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdResponse;
 import org.neo4j.causalclustering.catchup.storecopy.StoreCopyFinishedResponse;
@@ -40,9 +44,13 @@ public interface CatchUpResponseCallback<T>
 
     boolean onFileContent( CompletableFuture<T> signal, FileChunk fileChunk );
 
+    void onFileDiffHeader( CompletableFuture<T> signal, FileDiffHeader fileDiffHeader );
+
+    boolean onFileBlock( CompletableFuture<T> signal, FileBlock fileBlock );
+
     void onFileStreamingComplete( CompletableFuture<T> signal, StoreCopyFinishedResponse response );
 
-    void onTxPullResponse( CompletableFuture<T> signal, TxPullResponse tx );
+    void onTxPullResponse( CompletableFuture<T> signal, TxPullResponse tx, ChannelConfig channelConfig );
 
     void onTxStreamFinishedResponse( CompletableFuture<T> signal, TxStreamFinishedResponse response );
 
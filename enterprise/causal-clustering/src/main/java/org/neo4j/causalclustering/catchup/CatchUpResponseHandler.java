@@ -22,9 +22,13 @@
  */
 package org.neo4j.causalclustering.catchup;
 
+import io.netty.channel.ChannelConfig;
+
 import java.io.IOException;
 
+import org.neo4j.causalclustering.catchup.storecopy.FileBlock;
 import org.neo4j.causalclustering.catchup.storecopy.FileChunk;
+import org.neo4j.causalclustering.catchup.storecopy.FileDiffHeader;
 import org.neo4j.causalclustering.catchup.storecopy.FileHeader;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdResponse;
 import org.neo4j.causalclustering.catchup.storecopy.StoreCopyFinishedResponse;
@@ -43,9 +47,22 @@ public interface CatchUpResponseHandler
      */
     boolean onFileContent( FileChunk fileChunk ) throws IOException;
 
+    void onFileDiffHeader( FileDiffHeader fileDiffHeader );
+
+    /**
+     * @param fileBlock Changed part of a file.
+     * @return <code>true</code> if this is the end of the file that is currently being transferred.
+     */
+    boolean onFileBlock( FileBlock fileBlock ) throws IOException;
+
     void onFileStreamingComplete( StoreCopyFinishedResponse response );
 
-    void onTxPullResponse( TxPullResponse tx );
+    /**
+     * @param tx a pulled transaction.
+     * @param channelConfig configuration of the channel the transaction was read from, which allows for pausing reads
+     * while transactions arrive faster than they can be handled.
+     */
+    void onTxPullResponse( TxPullResponse tx, ChannelConfig channelConfig );
 
     void onTxStreamFinishedResponse( TxStreamFinishedResponse response );
 
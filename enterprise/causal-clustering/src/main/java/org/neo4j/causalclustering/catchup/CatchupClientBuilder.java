@@ -44,6 +44,7 @@ import org.neo4j.causalclustering.protocol.handshake.ApplicationSupportedProtoco
 import org.neo4j.causalclustering.protocol.handshake.HandshakeClientInitializer;
 import org.neo4j.causalclustering.protocol.handshake.ModifierProtocolRepository;
 import org.neo4j.causalclustering.protocol.handshake.ModifierSupportedProtocols;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 
@@ -63,6 +64,7 @@ public class CatchupClientBuilder
     private Collection<ModifierSupportedProtocols> modifierProtocols = emptyList();
     private Clock clock = systemClock();
     private long inactivityTimeoutMillis = TimeUnit.SECONDS.toMillis( 10 );
+    private Monitors monitors = new Monitors();
 
     public CatchupClientBuilder()
     {
@@ -128,17 +130,24 @@ public class CatchupClientBuilder
         return this;
     }
 
+    public CatchupClientBuilder monitors( Monitors monitors )
+    {
+        this.monitors = monitors;
+        return this;
+    }
+
     public CatchUpClient build()
     {
         ApplicationProtocolRepository applicationProtocolRepository = new ApplicationProtocolRepository( ApplicationProtocols.values(), catchupProtocols );
         ModifierProtocolRepository modifierProtocolRepository = new ModifierProtocolRepository( ModifierProtocols.values(), modifierProtocols );
+        List<ModifierProtocolInstaller<Client>> modifierProtocolInstallers = ModifierProtocolInstaller.clientInstallers( monitors, CATCHUP );
 
         Function<CatchUpResponseHandler,ChannelInitializer<SocketChannel>> channelInitializer = handler -> {
             List<ProtocolInstaller.Factory<Client,?>> installers = singletonList(
                     new CatchupProtocolClientInstaller.Factory( pipelineBuilder, debugLogProvider, handler ) );
 
             ProtocolInstallerRepository<Client> protocolInstallerRepository = new ProtocolInstallerRepository<>( installers,
-                    ModifierProtocolInstaller.allClientInstallers );
+                    modifierProtocolInstallers );
 
             return new HandshakeClientInitializer( applicationProtocolRepository, modifierProtocolRepository, protocolInstallerRepository, pipelineBuilder,
                     handshakeTimeout, debugLogProvider, userLogProvider );
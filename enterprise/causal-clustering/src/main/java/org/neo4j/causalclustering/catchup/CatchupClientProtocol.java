@@ -40,6 +40,8 @@ public class CatchupClientProtocol extends Protocol<CatchupClientProtocol.State>
         FILE_HEADER,
         FILE_CONTENTS,
         PREPARE_STORE_COPY_RESPONSE,
-        INDEX_SNAPSHOT_RESPONSE
+        INDEX_SNAPSHOT_RESPONSE,
+        FILE_DIFF_HEADER,
+        FILE_BLOCK
     }
 }
@@ -28,11 +28,16 @@ import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.neo4j.causalclustering.catchup.storecopy.FileBlock;
+import org.neo4j.causalclustering.catchup.storecopy.FileBlockHandler;
 import org.neo4j.causalclustering.catchup.storecopy.FileChunkDecoder;
 import org.neo4j.causalclustering.catchup.storecopy.FileChunkHandler;
+import org.neo4j.causalclustering.catchup.storecopy.FileDiffHeader;
+import org.neo4j.causalclustering.catchup.storecopy.FileDiffHeaderHandler;
 import org.neo4j.causalclustering.catchup.storecopy.FileHeaderDecoder;
 import org.neo4j.causalclustering.catchup.storecopy.FileHeaderHandler;
 import org.neo4j.causalclustering.catchup.storecopy.GetIndexFilesRequest;
+import org.neo4j.causalclustering.catchup.storecopy.GetStoreFileDiffRequest;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreFileRequest;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdRequestEncoder;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdResponseDecoder;
@@ -98,6 +103,8 @@ public class CatchupProtocolClientInstaller implements ProtocolInstaller<Orienta
         decoderDispatcher.register( CatchupClientProtocol.State.FILE_HEADER, new FileHeaderDecoder() );
         decoderDispatcher.register( CatchupClientProtocol.State.PREPARE_STORE_COPY_RESPONSE, new PrepareStoreCopyResponse.Decoder() );
         decoderDispatcher.register( CatchupClientProtocol.State.FILE_CONTENTS, new FileChunkDecoder() );
+        decoderDispatcher.register( CatchupClientProtocol.State.FILE_DIFF_HEADER, new FileDiffHeader.Decoder() );
+        decoderDispatcher.register( CatchupClientProtocol.State.FILE_BLOCK, new FileBlock.Decoder() );
 
         pipelineBuilder.client( channel, log )
                 .modify( modifiers )
@@ -105,6 +112,7 @@ public class CatchupProtocolClientInstaller implements ProtocolInstaller<Orienta
                 .add( "enc_req_tx", new TxPullRequestEncoder() )
                 .add( "enc_req_index", new GetIndexFilesRequest.Encoder() )
                 .add( "enc_req_store", new GetStoreFileRequest.Encoder() )
+                .add( "enc_req_store_diff", new GetStoreFileDiffRequest.Encoder() )
                 .add( "enc_req_snapshot", new CoreSnapshotRequestEncoder() )
                 .add( "enc_req_store_id", new GetStoreIdRequestEncoder() )
                 .add( "enc_req_type", new ResponseMessageTypeEncoder() )
@@ -118,6 +126,8 @@ public class CatchupProtocolClientInstaller implements ProtocolInstaller<Orienta
                 .add( "hnd_res_tx_fin", new TxStreamFinishedResponseHandler( protocol, handler ) )
                 .add( "hnd_res_file_header", new FileHeaderHandler( protocol, handler, logProvider ) )
                 .add( "hnd_res_file_chunk", new FileChunkHandler( protocol, handler ) )
+                .add( "hnd_res_file_diff_header", new FileDiffHeaderHandler( protocol, handler, logProvider ) )
+                .add( "hnd_res_file_block", new FileBlockHandler( protocol, handler ) )
                 .add( "hnd_res_store_id", new GetStoreIdResponseHandler( protocol, handler ) )
                 .add( "hnd_res_store_listing", new StoreListingResponseHandler( protocol, handler ))
                 .onClose( handler::onClose )
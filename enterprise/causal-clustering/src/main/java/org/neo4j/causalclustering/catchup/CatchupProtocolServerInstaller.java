@@ -32,9 +32,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.neo4j.causalclustering.catchup.storecopy.FileBlock;
 import org.neo4j.causalclustering.catchup.storecopy.FileChunkEncoder;
+import org.neo4j.causalclustering.catchup.storecopy.FileDiffHeader;
 import org.neo4j.causalclustering.catchup.storecopy.FileHeaderEncoder;
 import org.neo4j.causalclustering.catchup.storecopy.GetIndexFilesRequest;
+import org.neo4j.causalclustering.catchup.storecopy.GetStoreFileDiffRequest;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreFileRequest;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdRequest;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdResponseEncoder;
@@ -104,6 +107,8 @@ public class CatchupProtocolServerInstaller implements ProtocolInstaller<Orienta
                 .add( "enc_snapshot", new CoreSnapshotEncoder() )
                 .add( "enc_file_chunk", new FileChunkEncoder() )
                 .add( "enc_file_header", new FileHeaderEncoder() )
+                .add( "enc_file_diff_header", new FileDiffHeader.Encoder() )
+                .add( "enc_file_block", new FileBlock.Encoder() )
                 .add( "in_req_type", serverMessageHandler( state ) )
                 .add( "dec_req_dispatch", requestDecoders( state ) )
                 .add( "out_chunked_write", new ChunkedWriteHandler() )
@@ -112,6 +117,7 @@ public class CatchupProtocolServerInstaller implements ProtocolInstaller<Orienta
                 .add( "hnd_req_store_listing", catchupServerHandler.storeListingRequestHandler( state ) )
                 .add( "hnd_req_store_file", catchupServerHandler.getStoreFileRequestHandler( state ) )
                 .add( "hnd_req_index_snapshot", catchupServerHandler.getIndexSnapshotRequestHandler( state ) )
+                .add( "hnd_req_store_file_diff", catchupServerHandler.getStoreFileDiffRequestHandler( state ) )
                 .add( "hnd_req_snapshot", catchupServerHandler.snapshotHandler( state ).map( Collections::singletonList ).orElse( emptyList() ) )
                 .install();
     }
@@ -124,12 +130,14 @@ public class CatchupProtocolServerInstaller implements ProtocolInstaller<Orienta
     private ChannelInboundHandler requestDecoders( CatchupServerProtocol protocol )
     {
         RequestDecoderDispatcher<CatchupServerProtocol.State> decoderDispatcher = new RequestDecoderDispatcher<>( protocol, logProvider );
-        decoderDispatcher.register( CatchupServerProtocol.State.TX_PULL, new TxPullRequestDecoder() );
+        decoderDispatcher.register( CatchupServerProtocol.State.TX_PULL, new TxPullRequestDecoder( false ) );
+        decoderDispatcher.register( CatchupServerProtocol.State.TX_PULL_LONG_POLL, new TxPullRequestDecoder( true ) );
         decoderDispatcher.register( CatchupServerProtocol.State.GET_STORE_ID, new SimpleRequestDecoder( GetStoreIdRequest::new ) );
         decoderDispatcher.register( CatchupServerProtocol.State.GET_CORE_SNAPSHOT, new SimpleRequestDecoder( CoreSnapshotRequest::new ) );
         decoderDispatcher.register( CatchupServerProtocol.State.PREPARE_STORE_COPY, new PrepareStoreCopyRequestDecoder() );
         decoderDispatcher.register( CatchupServerProtocol.State.GET_STORE_FILE, new GetStoreFileRequest.Decoder() );
         decoderDispatcher.register( CatchupServerProtocol.State.GET_INDEX_SNAPSHOT, new GetIndexFilesRequest.Decoder() );
+        decoderDispatcher.register( CatchupServerProtocol.State.GET_STORE_FILE_DIFF, new GetStoreFileDiffRequest.Decoder() );
         return decoderDispatcher;
     }
 
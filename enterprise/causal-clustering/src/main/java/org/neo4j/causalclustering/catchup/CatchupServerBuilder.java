@@ -39,6 +39,7 @@ import org.neo4j.causalclustering.protocol.handshake.HandshakeServerInitializer;
 import org.neo4j.causalclustering.protocol.handshake.ModifierProtocolRepository;
 import org.neo4j.causalclustering.protocol.handshake.ModifierSupportedProtocols;
 import org.neo4j.helpers.ListenSocketAddress;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 
@@ -58,6 +59,7 @@ public class CatchupServerBuilder
     private ChannelInboundHandler parentHandler;
     private ListenSocketAddress listenAddress;
     private String serverName = "catchup-server";
+    private Monitors monitors = new Monitors();
 
     public CatchupServerBuilder( CatchupServerHandler catchupServerHandler )
     {
@@ -112,6 +114,12 @@ public class CatchupServerBuilder
         return this;
     }
 
+    public CatchupServerBuilder monitors( Monitors monitors )
+    {
+        this.monitors = monitors;
+        return this;
+    }
+
     public Server build()
     {
         ApplicationProtocolRepository applicationProtocolRepository = new ApplicationProtocolRepository( ApplicationProtocols.values(), catchupProtocols );
@@ -121,7 +129,7 @@ public class CatchupServerBuilder
                 catchupServerHandler );
 
         ProtocolInstallerRepository<ProtocolInstaller.Orientation.Server> protocolInstallerRepository = new ProtocolInstallerRepository<>(
-                singletonList( catchupProtocolServerInstaller ), ModifierProtocolInstaller.allServerInstallers );
+                singletonList( catchupProtocolServerInstaller ), ModifierProtocolInstaller.serverInstallers( monitors, CATCHUP ) );
 
         HandshakeServerInitializer handshakeServerInitializer = new HandshakeServerInitializer( applicationProtocolRepository, modifierProtocolRepository,
                 protocolInstallerRepository, pipelineBuilder, debugLogProvider );
@@ -38,5 +38,7 @@ public interface CatchupServerHandler
 
     ChannelHandler getIndexSnapshotRequestHandler( CatchupServerProtocol catchupServerProtocol );
 
+    ChannelHandler getStoreFileDiffRequestHandler( CatchupServerProtocol catchupServerProtocol );
+
     Optional<ChannelHandler> snapshotHandler( CatchupServerProtocol catchupServerProtocol );
 }
@@ -39,6 +39,8 @@ public class CatchupServerProtocol extends Protocol<CatchupServerProtocol.State>
         TX_PULL,
         GET_STORE_FILE,
         GET_INDEX_SNAPSHOT,
-        PREPARE_STORE_COPY
+        PREPARE_STORE_COPY,
+        GET_STORE_FILE_DIFF,
+        TX_PULL_LONG_POLL
     }
 }
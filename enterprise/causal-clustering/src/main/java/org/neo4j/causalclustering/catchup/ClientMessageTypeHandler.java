@@ -77,6 +77,9 @@ public class ClientMessageTypeHandler extends ChannelInboundHandlerAdapter
             case INDEX_SNAPSHOT_RESPONSE:
                 protocol.expect( CatchupClientProtocol.State.INDEX_SNAPSHOT_RESPONSE );
                 break;
+            case FILE_DIFF:
+                protocol.expect( CatchupClientProtocol.State.FILE_DIFF_HEADER );
+                break;
             default:
                 log.warn( "No handler found for message type %s (%d)", responseMessageType.name(), byteValue );
             }
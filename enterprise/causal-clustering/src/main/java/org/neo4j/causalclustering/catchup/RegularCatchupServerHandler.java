@@ -101,6 +101,13 @@ public class RegularCatchupServerHandler implements CatchupServerHandler
                 new StoreFileStreamingProtocol(), fs, logProvider );
     }
 
+    @Override
+    public ChannelHandler getStoreFileDiffRequestHandler( CatchupServerProtocol catchupServerProtocol )
+    {
+        return new StoreCopyRequestHandler.GetStoreFileDiffRequestHandler( catchupServerProtocol, dataSourceSupplier, checkPointerService,
+                new StoreFileStreamingProtocol(), fs, logProvider );
+    }
+
     @Override
     public Optional<ChannelHandler> snapshotHandler( CatchupServerProtocol catchupServerProtocol )
     {
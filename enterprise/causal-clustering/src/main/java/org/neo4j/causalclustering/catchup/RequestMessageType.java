@@ -35,6 +35,8 @@ public enum RequestMessageType implements Message
     PREPARE_STORE_COPY( (byte) 5 ),
     STORE_FILE( (byte) 6 ),
     INDEX_SNAPSHOT( (byte) 7 ),
+    STORE_FILE_DIFF( (byte) 8 ),
+    TX_PULL_LONG_POLL( (byte) 9 ),
     UNKNOWN( (byte) 404 );
 
     private byte messageType;
@@ -34,6 +34,7 @@ public enum ResponseMessageType
     TX_STREAM_FINISHED( (byte) 6 ),
     PREPARE_STORE_COPY_RESPONSE( (byte) 7 ),
     INDEX_SNAPSHOT_RESPONSE( (byte) 8 ),
+    FILE_DIFF( (byte) 9 ),
     UNKNOWN( (byte) 200 );
 
     private byte messageType;
@@ -73,6 +73,14 @@ public class ServerMessageTypeHandler extends ChannelInboundHandlerAdapter
             {
                 protocol.expect( CatchupServerProtocol.State.GET_INDEX_SNAPSHOT );
             }
+            else if ( requestMessageType.equals( RequestMessageType.STORE_FILE_DIFF ) )
+            {
+                protocol.expect( CatchupServerProtocol.State.GET_STORE_FILE_DIFF );
+            }
+            else if ( requestMessageType.equals( RequestMessageType.TX_PULL_LONG_POLL ) )
+            {
+                protocol.expect( CatchupServerProtocol.State.TX_PULL_LONG_POLL );
+            }
             else
             {
                 log.warn( "No handler found for message type %s", requestMessageType );
@@ -22,13 +22,17 @@
  */
 package org.neo4j.causalclustering.catchup;
 
+import io.netty.channel.ChannelConfig;
+
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.time.Clock;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import org.neo4j.causalclustering.catchup.storecopy.FileBlock;
 import org.neo4j.causalclustering.catchup.storecopy.FileChunk;
+import org.neo4j.causalclustering.catchup.storecopy.FileDiffHeader;
 import org.neo4j.causalclustering.catchup.storecopy.FileHeader;
 import org.neo4j.causalclustering.catchup.storecopy.GetStoreIdResponse;
 import org.neo4j.causalclustering.catchup.storecopy.PrepareStoreCopyResponse;
@@ -80,6 +84,28 @@ class TrackingResponseHandler implements CatchUpResponseHandler
         return true;
     }
 
+    @Override
+    public void onFileDiffHeader( FileDiffHeader fileDiffHeader )
+    {
+        if ( !requestOutcomeSignal.isCancelled() )
+        {
+            recordLastResponse();
+            delegate.onFileDiffHeader( requestOutcomeSignal, fileDiffHeader );
+        }
+    }
+
+    @Override
+    public boolean onFileBlock( FileBlock fileBlock ) throws IOException
+    {
+        if ( !requestOutcomeSignal.isCancelled() )
+        {
+            recordLastResponse();
+            return delegate.onFileBlock( requestOutcomeSignal, fileBlock );
+        }
+        // true means stop
+        return true;
+    }
+
     @Override
     public void onFileStreamingComplete( StoreCopyFinishedResponse response )
     {
@@ -91,12 +117,12 @@ class TrackingResponseHandler implements CatchUpResponseHandler
     }
 
     @Override
-    public void onTxPullResponse( TxPullResponse tx )
+    public void onTxPullResponse( TxPullResponse tx, ChannelConfig channelConfig )
     {
         if ( !requestOutcomeSignal.isCancelled() )
         {
             recordLastResponse();
-            delegate.onTxPullResponse( requestOutcomeSignal, tx );
+            delegate.onTxPullResponse( requestOutcomeSignal, tx, channelConfig );
         }
     }
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ * Checksums of fixed size blocks of a store file, as used by differential store copy.
+ * <p>
+ * A block checksum combines a CRC32 and an Adler32 of the block contents into a single long, which makes
+ * an accidental match between two different blocks very unlikely while still being cheap to compute.
+ */
+class BlockChecksums
+{
+    static final int MIN_BLOCK_SIZE = 64 * 1024;
+    static final int MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The block size is grown for large files so that the checksums of a single file stay within a few megabytes.
+     */
+    private static final long MAX_BLOCKS = 1 << 20;
+
+    /**
+     * Upper bound of the number of checksums of a single file, including its last partial block. Larger files
+     * are copied in full.
+     */
+    static final int MAX_BLOCK_COUNT = (int) MAX_BLOCKS + 1;
+
+    private BlockChecksums()
+    {
+    }
+
+    static int blockSize( long fileSize )
+    {
+        int blockSize = MIN_BLOCK_SIZE;
+        while ( blockSize < MAX_BLOCK_SIZE && fileSize / blockSize > MAX_BLOCKS )
+        {
+            blockSize <<= 1;
+        }
+        return blockSize;
+    }
+
+    static long blockCount( long fileSize, int blockSize )
+    {
+        return (fileSize + blockSize - 1) / blockSize;
+    }
+
+    static boolean isValidBlockSize( int blockSize )
+    {
+        return blockSize >= MIN_BLOCK_SIZE && blockSize <= MAX_BLOCK_SIZE && Integer.bitCount( blockSize ) == 1;
+    }
+
+    static boolean isValidBlockCount( int blockCount )
+    {
+        return blockCount >= 0 && blockCount <= MAX_BLOCK_COUNT;
+    }
+
+    /**
+     * @param block the contents of the block, between its position and limit. The buffer is not modified.
+     */
+    static long checksum( ByteBuffer block )
+    {
+        CRC32 crc = new CRC32();
+        crc.update( block.duplicate() );
+        Adler32 adler = new Adler32();
+        adler.update( block.duplicate() );
+        return (crc.getValue() << 32) | adler.getValue();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A range of a file sent during a differential file transfer. Blocks which the client already has are never sent,
+ * so consecutive blocks need not be adjacent. The last block of a file carries no bytes and its offset is the size of
+ * the file, which the client truncates its copy to.
+ */
+public class FileBlock
+{
+    private final long offset;
+    private final byte[] bytes;
+    private final boolean last;
+
+    private FileBlock( long offset, byte[] bytes, boolean last )
+    {
+        this.offset = offset;
+        this.bytes = bytes;
+        this.last = last;
+    }
+
+    static FileBlock block( long offset, byte[] bytes )
+    {
+        return new FileBlock( offset, bytes, false );
+    }
+
+    static FileBlock end( long fileSize )
+    {
+        return new FileBlock( fileSize, new byte[0], true );
+    }
+
+    public long offset()
+    {
+        return offset;
+    }
+
+    public byte[] bytes()
+    {
+        return bytes;
+    }
+
+    public boolean isLast()
+    {
+        return last;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        FileBlock fileBlock = (FileBlock) o;
+        return offset == fileBlock.offset && last == fileBlock.last && Arrays.equals( bytes, fileBlock.bytes );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( offset, last, Arrays.hashCode( bytes ) );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FileBlock{" + "offset=" + offset + ", length=" + bytes.length + ", last=" + last + '}';
+    }
+
+    public static class Encoder extends MessageToByteEncoder<FileBlock>
+    {
+        @Override
+        protected void encode( ChannelHandlerContext ctx, FileBlock block, ByteBuf out )
+        {
+            out.writeLong( block.offset );
+            out.writeBoolean( block.last );
+            out.writeInt( block.bytes.length );
+            out.writeBytes( block.bytes );
+        }
+    }
+
+    public static class Decoder extends ByteToMessageDecoder
+    {
+        @Override
+        protected void decode( ChannelHandlerContext ctx, ByteBuf msg, List<Object> out )
+        {
+            long offset = msg.readLong();
+            boolean last = msg.readBoolean();
+            byte[] bytes = new byte[msg.readInt()];
+            msg.readBytes( bytes );
+            out.add( new FileBlock( offset, bytes, last ) );
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.neo4j.io.fs.StoreChannel;
+
+import static java.lang.Math.min;
+
+/**
+ * Streams the blocks of a store file whose checksums differ from the ones the client sent, followed by an
+ * end marker carrying the size of the file.
+ * <p>
+ * Unchanged blocks are skipped, but at most {@link #MAX_BLOCKS_SCANNED_PER_CHUNK} of them per chunk. When that
+ * many blocks in a row are unchanged an empty block is sent instead, so that scanning a large unchanged file
+ * does not occupy the event loop for long stretches of time.
+ */
+class FileBlockSender implements ChunkedInput<FileBlock>
+{
+    static final int MAX_BLOCKS_SCANNED_PER_CHUNK = 16;
+
+    private final StoreResource resource;
+    private final int blockSize;
+    private final long[] clientChecksums;
+
+    private StoreChannel channel;
+    private ByteBuffer buffer;
+    private long fileSize;
+    private long position;
+    private boolean finished;
+
+    FileBlockSender( StoreResource resource, int blockSize, long[] clientChecksums )
+    {
+        this.resource = resource;
+        this.blockSize = blockSize;
+        this.clientChecksums = clientChecksums;
+    }
+
+    @Override
+    public boolean isEndOfInput()
+    {
+        return finished;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        if ( channel != null )
+        {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public FileBlock readChunk( ChannelHandlerContext ctx ) throws Exception
+    {
+        return readChunk( ctx.alloc() );
+    }
+
+    @Override
+    public FileBlock readChunk( ByteBufAllocator allocator ) throws Exception
+    {
+        if ( finished )
+        {
+            return null;
+        }
+        if ( channel == null )
+        {
+            channel = resource.open();
+            fileSize = channel.size();
+            buffer = ByteBuffer.allocate( blockSize );
+        }
+
+        for ( int scanned = 0; scanned < MAX_BLOCKS_SCANNED_PER_CHUNK && position < fileSize; scanned++ )
+        {
+            long offset = position;
+            readBlock( offset );
+            if ( differs( (int) (offset / blockSize) ) )
+            {
+                return FileBlock.block( offset, Arrays.copyOf( buffer.array(), buffer.limit() ) );
+            }
+        }
+
+        if ( position >= fileSize )
+        {
+            finished = true;
+            return FileBlock.end( fileSize );
+        }
+        return FileBlock.block( position, new byte[0] );
+    }
+
+    private void readBlock( long offset ) throws IOException
+    {
+        buffer.clear();
+        buffer.limit( (int) min( blockSize, fileSize - offset ) );
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read( buffer, offset + buffer.position() ) == -1 )
+            {
+                // the file shrunk since it was opened, so whatever we have is the end of it
+                fileSize = offset + buffer.position();
+                break;
+            }
+        }
+        buffer.flip();
+        position = offset + buffer.limit();
+    }
+
+    private boolean differs( int blockIndex )
+    {
+        return blockIndex >= clientChecksums.length || BlockChecksums.checksum( buffer ) != clientChecksums[blockIndex];
+    }
+
+    @Override
+    public long length()
+    {
+        return -1;
+    }
+
+    @Override
+    public long progress()
+    {
+        return position;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FileBlockSender{" + "resource=" + resource + ", blockSize=" + blockSize + ", position=" + position + '}';
+    }
+}
@@ -35,7 +35,7 @@ import org.neo4j.storageengine.api.WritableChannel;
 public class FileChunk
 {
     static final int MAX_SIZE = 8192;
-    private static final int USE_MAX_SIZE_AND_EXPECT_MORE_CHUNKS = -1;
+    static final int USE_MAX_SIZE_AND_EXPECT_MORE_CHUNKS = -1;
     private final int encodedLength;
     private final byte[] bytes;
 
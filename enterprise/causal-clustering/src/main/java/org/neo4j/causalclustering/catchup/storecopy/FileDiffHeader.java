@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.neo4j.string.UTF8;
+
+/**
+ * Precedes the {@link FileBlock}s of a differential file transfer.
+ */
+public class FileDiffHeader
+{
+    private final String fileName;
+    private final int requiredAlignment;
+
+    public FileDiffHeader( String fileName, int requiredAlignment )
+    {
+        this.fileName = fileName;
+        this.requiredAlignment = requiredAlignment;
+    }
+
+    public String fileName()
+    {
+        return fileName;
+    }
+
+    public int requiredAlignment()
+    {
+        return requiredAlignment;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        FileDiffHeader that = (FileDiffHeader) o;
+        return requiredAlignment == that.requiredAlignment && Objects.equals( fileName, that.fileName );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( fileName, requiredAlignment );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FileDiffHeader{" + "fileName='" + fileName + '\'' + ", requiredAlignment=" + requiredAlignment + '}';
+    }
+
+    public static class Encoder extends MessageToByteEncoder<FileDiffHeader>
+    {
+        @Override
+        protected void encode( ChannelHandlerContext ctx, FileDiffHeader header, ByteBuf out )
+        {
+            byte[] name = UTF8.encode( header.fileName() );
+            out.writeInt( name.length );
+            out.writeBytes( name );
+            out.writeInt( header.requiredAlignment() );
+        }
+    }
+
+    public static class Decoder extends ByteToMessageDecoder
+    {
+        @Override
+        protected void decode( ChannelHandlerContext ctx, ByteBuf msg, List<Object> out )
+        {
+            int length = msg.readInt();
+            byte[] name = new byte[length];
+            msg.readBytes( name );
+            int requiredAlignment = msg.readInt();
+            out.add( new FileDiffHeader( UTF8.decode( name ), requiredAlignment ) );
+        }
+    }
+}
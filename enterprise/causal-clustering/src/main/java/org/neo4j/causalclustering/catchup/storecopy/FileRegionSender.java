@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.channel.FileRegion;
+import io.netty.util.AbstractReferenceCounted;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.fs.StoreFileChannel;
+import org.neo4j.io.fs.StoreFileChannelUnwrapper;
+
+import static java.lang.Math.min;
+import static org.neo4j.causalclustering.catchup.storecopy.FileChunk.MAX_SIZE;
+import static org.neo4j.causalclustering.catchup.storecopy.FileChunk.USE_MAX_SIZE_AND_EXPECT_MORE_CHUNKS;
+
+/**
+ * A zero-copy alternative to {@link FileSender} for pipelines without encryption.
+ * <p>
+ * The region produces exactly the bytes that {@link FileSender} would produce after {@link FileChunkEncoder} and
+ * the length field framing, i.e. a sequence of framed {@link FileChunk}s, so the receiving side cannot tell the
+ * difference. The frame and chunk headers are written from a small buffer, while the file contents are handed to
+ * the socket with {@link FileChannel#transferTo(long, long, WritableByteChannel)} and never enter the heap.
+ * <p>
+ * Since the frames are produced here, this message must bypass the framing encoder, which it does by virtue of
+ * not being a {@link io.netty.buffer.ByteBuf}.
+ */
+class FileRegionSender extends AbstractReferenceCounted implements FileRegion
+{
+    private static final int HEADER_SIZE = 2 * Integer.BYTES; // frame length followed by the encoded chunk length
+    private static final int UNIT_SIZE = HEADER_SIZE + MAX_SIZE;
+
+    private final StoreResource resource;
+    private final long fileSize;
+    private final long count;
+    private final ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+
+    private StoreChannel channel;
+    private FileChannel fileChannel;
+    private ByteBuffer copyBuffer;
+    private long transferred;
+
+    FileRegionSender( StoreResource resource, long fileSize )
+    {
+        this.resource = resource;
+        this.fileSize = fileSize;
+        long chunks = Math.max( 1, (fileSize + MAX_SIZE - 1) / MAX_SIZE );
+        this.count = fileSize + chunks * HEADER_SIZE;
+    }
+
+    @Override
+    public long position()
+    {
+        return 0;
+    }
+
+    @Override
+    @Deprecated
+    public long transfered()
+    {
+        return transferred;
+    }
+
+    @Override
+    public long transferred()
+    {
+        return transferred;
+    }
+
+    @Override
+    public long count()
+    {
+        return count;
+    }
+
+    @Override
+    public long transferTo( WritableByteChannel target, long position ) throws IOException
+    {
+        if ( position != transferred )
+        {
+            throw new IllegalArgumentException( "Region can only be transferred sequentially, expected position " + transferred + " but was " + position );
+        }
+        if ( channel == null )
+        {
+            open();
+        }
+
+        long written = 0;
+        while ( transferred < count )
+        {
+            long chunkStart = (transferred / UNIT_SIZE) * MAX_SIZE;
+            int offsetInUnit = (int) (transferred % UNIT_SIZE);
+            int chunkLength = (int) min( MAX_SIZE, fileSize - chunkStart );
+
+            long bytes;
+            if ( offsetInUnit < HEADER_SIZE )
+            {
+                bytes = writeHeader( target, offsetInUnit, chunkLength, chunkStart + chunkLength == fileSize );
+            }
+            else
+            {
+                long filePosition = chunkStart + offsetInUnit - HEADER_SIZE;
+                bytes = writeContent( target, filePosition, chunkStart + chunkLength - filePosition );
+            }
+
+            if ( bytes == 0 )
+            {
+                break;
+            }
+            transferred += bytes;
+            written += bytes;
+        }
+        return written;
+    }
+
+    private int writeHeader( WritableByteChannel target, int offset, int chunkLength, boolean last ) throws IOException
+    {
+        header.clear();
+        header.putInt( Integer.BYTES + chunkLength );
+        header.putInt( last ? chunkLength : USE_MAX_SIZE_AND_EXPECT_MORE_CHUNKS );
+        header.flip();
+        header.position( offset );
+        return target.write( header );
+    }
+
+    private long writeContent( WritableByteChannel target, long filePosition, long length ) throws IOException
+    {
+        long bytes = -1;
+        if ( fileChannel != null )
+        {
+            try
+            {
+                bytes = fileChannel.transferTo( filePosition, length, target );
+            }
+            catch ( UnsupportedOperationException e )
+            {
+                // some file channels, like the ephemeral ones, cannot transfer
+                fileChannel = null;
+            }
+        }
+        if ( bytes == -1 )
+        {
+            bytes = copyContent( target, filePosition, length );
+        }
+
+        if ( bytes == 0 && filePosition >= channel.size() )
+        {
+            throw new IOException( "File " + resource.path() + " was truncated to " + channel.size() + " bytes while being sent, expected " + fileSize );
+        }
+        return bytes;
+    }
+
+    /**
+     * Fallback for file systems which are not backed by a {@link FileChannel}. Only the bytes accepted by the target
+     * are accounted for, the rest will be read again on the next transfer.
+     */
+    private int copyContent( WritableByteChannel target, long filePosition, long length ) throws IOException
+    {
+        if ( copyBuffer == null )
+        {
+            copyBuffer = ByteBuffer.allocate( MAX_SIZE );
+        }
+        copyBuffer.clear();
+        copyBuffer.limit( (int) min( MAX_SIZE, length ) );
+        if ( channel.read( copyBuffer, filePosition ) <= 0 )
+        {
+            return 0;
+        }
+        copyBuffer.flip();
+        return target.write( copyBuffer );
+    }
+
+    private void open() throws IOException
+    {
+        channel = resource.open();
+        if ( channel instanceof StoreFileChannel )
+        {
+            fileChannel = StoreFileChannelUnwrapper.unwrap( channel );
+        }
+    }
+
+    @Override
+    protected void deallocate()
+    {
+        if ( channel != null )
+        {
+            try
+            {
+                channel.close();
+            }
+            catch ( IOException ignored )
+            {
+                // nothing sensible to do, the channel is already gone
+            }
+            channel = null;
+            fileChannel = null;
+        }
+    }
+
+    @Override
+    public FileRegion retain()
+    {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public FileRegion retain( int increment )
+    {
+        super.retain( increment );
+        return this;
+    }
+
+    @Override
+    public FileRegion touch()
+    {
+        return this;
+    }
+
+    @Override
+    public FileRegion touch( Object hint )
+    {
+        return this;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        FileRegionSender that = (FileRegionSender) o;
+        return fileSize == that.fileSize && Objects.equals( resource, that.resource );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( resource, fileSize );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FileRegionSender{" + "resource=" + resource + ", fileSize=" + fileSize + ", transferred=" + transferred + '}';
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.neo4j.causalclustering.catchup.RequestMessageType;
+import org.neo4j.causalclustering.core.state.storage.SafeChannelMarshal;
+import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.causalclustering.messaging.EndOfStreamException;
+import org.neo4j.causalclustering.messaging.NetworkReadableClosableChannelNetty4;
+import org.neo4j.causalclustering.messaging.NetworkWritableChannel;
+import org.neo4j.causalclustering.messaging.StoreCopyRequest;
+import org.neo4j.causalclustering.messaging.marshalling.storeid.StoreIdMarshal;
+import org.neo4j.storageengine.api.ReadableChannel;
+import org.neo4j.storageengine.api.WritableChannel;
+import org.neo4j.string.UTF8;
+
+import static java.lang.String.format;
+
+/**
+ * Requests a store file like {@link GetStoreFileRequest}, but carries the checksums of the blocks of the
+ * file which the client already has. The server only streams the blocks which differ.
+ */
+public class GetStoreFileDiffRequest implements StoreCopyRequest
+{
+    private final StoreId expectedStoreId;
+    private final File file;
+    private final long requiredTransactionId;
+    private final int blockSize;
+    private final long[] blockChecksums;
+
+    public GetStoreFileDiffRequest( StoreId expectedStoreId, File file, long requiredTransactionId, int blockSize, long[] blockChecksums )
+    {
+        if ( !BlockChecksums.isValidBlockSize( blockSize ) )
+        {
+            throw new IllegalArgumentException( format( "Invalid block size %d", blockSize ) );
+        }
+        if ( !BlockChecksums.isValidBlockCount( blockChecksums.length ) )
+        {
+            throw new IllegalArgumentException( format( "Invalid block count %d", blockChecksums.length ) );
+        }
+        this.expectedStoreId = expectedStoreId;
+        this.file = file;
+        this.requiredTransactionId = requiredTransactionId;
+        this.blockSize = blockSize;
+        this.blockChecksums = blockChecksums;
+    }
+
+    @Override
+    public long requiredTransactionId()
+    {
+        return requiredTransactionId;
+    }
+
+    @Override
+    public StoreId expectedStoreId()
+    {
+        return expectedStoreId;
+    }
+
+    File file()
+    {
+        return file;
+    }
+
+    int blockSize()
+    {
+        return blockSize;
+    }
+
+    long[] blockChecksums()
+    {
+        return blockChecksums;
+    }
+
+    @Override
+    public RequestMessageType messageType()
+    {
+        return RequestMessageType.STORE_FILE_DIFF;
+    }
+
+    static class StoreFileDiffRequestMarshall extends SafeChannelMarshal<GetStoreFileDiffRequest>
+    {
+        @Override
+        protected GetStoreFileDiffRequest unmarshal0( ReadableChannel channel ) throws IOException, EndOfStreamException
+        {
+            StoreId storeId = StoreIdMarshal.INSTANCE.unmarshal( channel );
+            long requiredTransactionId = channel.getLong();
+            int fileNameLength = channel.getInt();
+            byte[] fileNameBytes = new byte[fileNameLength];
+            channel.get( fileNameBytes, fileNameLength );
+            int blockSize = channel.getInt();
+            if ( !BlockChecksums.isValidBlockSize( blockSize ) )
+            {
+                throw new IOException( format( "Invalid block size %d", blockSize ) );
+            }
+            int blockCount = channel.getInt();
+            if ( !BlockChecksums.isValidBlockCount( blockCount ) )
+            {
+                throw new IOException( format( "Invalid block count %d", blockCount ) );
+            }
+            long[] blockChecksums = new long[blockCount];
+            for ( int i = 0; i < blockCount; i++ )
+            {
+                blockChecksums[i] = channel.getLong();
+            }
+            return new GetStoreFileDiffRequest( storeId, new File( UTF8.decode( fileNameBytes ) ), requiredTransactionId, blockSize, blockChecksums );
+        }
+
+        @Override
+        public void marshal( GetStoreFileDiffRequest request, WritableChannel channel ) throws IOException
+        {
+            StoreIdMarshal.INSTANCE.marshal( request.expectedStoreId(), channel );
+            channel.putLong( request.requiredTransactionId() );
+            byte[] name = UTF8.encode( request.file().getName() );
+            channel.putInt( name.length );
+            channel.put( name, name.length );
+            channel.putInt( request.blockSize() );
+            channel.putInt( request.blockChecksums().length );
+            for ( long checksum : request.blockChecksums() )
+            {
+                channel.putLong( checksum );
+            }
+        }
+    }
+
+    public static class Encoder extends MessageToByteEncoder<GetStoreFileDiffRequest>
+    {
+        @Override
+        protected void encode( ChannelHandlerContext ctx, GetStoreFileDiffRequest msg, ByteBuf out ) throws Exception
+        {
+            new StoreFileDiffRequestMarshall().marshal( msg, new NetworkWritableChannel( out ) );
+        }
+    }
+
+    public static class Decoder extends ByteToMessageDecoder
+    {
+        @Override
+        protected void decode( ChannelHandlerContext ctx, ByteBuf in, List<Object> out ) throws Exception
+        {
+            out.add( new StoreFileDiffRequestMarshall().unmarshal0( new NetworkReadableClosableChannelNetty4( in ) ) );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "GetStoreFileDiffRequest{" + "expectedStoreId=" + expectedStoreId + ", file=" + file.getName() + ", requiredTransactionId=" +
+                requiredTransactionId + ", blockSize=" + blockSize + ", blocks=" + blockChecksums.length + '}';
+    }
+}
@@ -37,6 +37,7 @@ import org.neo4j.kernel.availability.DescriptiveAvailabilityRequirement;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.state.DataSourceManager;
 import org.neo4j.kernel.internal.DatabaseHealth;
@@ -204,6 +205,18 @@ public class LocalDatabase implements Lifecycle
         return dataSourceManager.getDataSource();
     }
 
+    /**
+     * @return the id of the last closed transaction, or -1 while the database is not available.
+     */
+    public long lastClosedTransactionId()
+    {
+        if ( !isAvailable() )
+        {
+            return -1;
+        }
+        return dataSource().getDependencyResolver().resolveDependency( TransactionIdStore.class ).getLastClosedTransactionId();
+    }
+
     /**
      * Called by the DataSourceManager during start.
      */
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+
+import static java.lang.Math.min;
+
+/**
+ * The store files of a local database which a store copy can start out from, so that only the blocks which differ
+ * from the remote store need to be transferred.
+ * <p>
+ * Before a file is requested its local version is copied into the destination directory while the checksums of its
+ * blocks are computed. The server then overwrites the blocks that changed and the file is truncated to the size of
+ * the remote file, leaving the destination with the same contents as a full transfer would have.
+ */
+public class LocalStoreFiles
+{
+    private static final LocalStoreFiles NONE = new LocalStoreFiles( null, null, null );
+
+    private final FileSystemAbstraction fs;
+    private final File sourceDir;
+    private final File destDir;
+
+    public LocalStoreFiles( FileSystemAbstraction fs, File sourceDir, File destDir )
+    {
+        this.fs = fs;
+        this.sourceDir = sourceDir;
+        this.destDir = destDir;
+    }
+
+    public static LocalStoreFiles none()
+    {
+        return NONE;
+    }
+
+    /**
+     * @return a request for the changed blocks of the given file, or nothing if there is no local version of it.
+     */
+    Optional<GetStoreFileDiffRequest> diffRequest( StoreId expectedStoreId, File file, long requiredTransactionId ) throws IOException
+    {
+        if ( sourceDir == null )
+        {
+            return Optional.empty();
+        }
+        File source = new File( sourceDir, file.getName() );
+        if ( !fs.fileExists( source ) || fs.isDirectory( source ) )
+        {
+            return Optional.empty();
+        }
+
+        long fileSize = fs.getFileSize( source );
+        int blockSize = BlockChecksums.blockSize( fileSize );
+        long blockCount = BlockChecksums.blockCount( fileSize, blockSize );
+        if ( blockCount > BlockChecksums.MAX_BLOCK_COUNT )
+        {
+            return Optional.empty();
+        }
+        long[] checksums = new long[(int) blockCount];
+        File destination = new File( destDir, file.getName() );
+        fs.mkdirs( destDir );
+        fs.deleteFile( destination );
+
+        ByteBuffer buffer = ByteBuffer.allocate( blockSize );
+        try ( StoreChannel in = fs.open( source, OpenMode.READ );
+              StoreChannel out = fs.open( destination, OpenMode.READ_WRITE ) )
+        {
+            for ( int block = 0; block < checksums.length; block++ )
+            {
+                long offset = (long) block * blockSize;
+                buffer.clear();
+                buffer.limit( (int) min( blockSize, fileSize - offset ) );
+                in.readAll( buffer );
+                buffer.flip();
+                checksums[block] = BlockChecksums.checksum( buffer );
+                out.writeAll( buffer, offset );
+            }
+        }
+        catch ( IOException e )
+        {
+            // a partial copy must not be mistaken for the start of a full transfer of the file
+            fs.deleteFile( destination );
+            throw e;
+        }
+        return Optional.of( new GetStoreFileDiffRequest( expectedStoreId, file, requiredTransactionId, blockSize, checksums ) );
+    }
+}
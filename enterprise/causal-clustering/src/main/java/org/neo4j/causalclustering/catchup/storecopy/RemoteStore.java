@@ -128,6 +128,30 @@ public class RemoteStore
 
     public void copy( CatchupAddressProvider addressProvider, StoreId expectedStoreId, DatabaseLayout destinationLayout, boolean rotateTransactionsManually )
             throws StoreCopyFailedException
+    {
+        copy( addressProvider, expectedStoreId, destinationLayout, rotateTransactionsManually, LocalStoreFiles.none() );
+    }
+
+    /**
+     * Like {@link #copy(CatchupAddressProvider, StoreId, DatabaseLayout, boolean)}, but starts out from the store files of
+     * the given local database when differential store copy is enabled.
+     */
+    public void copy( CatchupAddressProvider addressProvider, StoreId expectedStoreId, DatabaseLayout destinationLayout, DatabaseLayout localLayout,
+            boolean rotateTransactionsManually ) throws StoreCopyFailedException
+    {
+        LocalStoreFiles localStoreFiles = isDifferentialStoreCopyEnabled()
+                                          ? new LocalStoreFiles( fs, localLayout.databaseDirectory(), destinationLayout.databaseDirectory() )
+                                          : LocalStoreFiles.none();
+        copy( addressProvider, expectedStoreId, destinationLayout, rotateTransactionsManually, localStoreFiles );
+    }
+
+    public boolean isDifferentialStoreCopyEnabled()
+    {
+        return config.get( CausalClusteringSettings.enable_differential_store_copy );
+    }
+
+    private void copy( CatchupAddressProvider addressProvider, StoreId expectedStoreId, DatabaseLayout destinationLayout, boolean rotateTransactionsManually,
+            LocalStoreFiles localStoreFiles ) throws StoreCopyFailedException
     {
         try
         {
@@ -135,7 +159,7 @@ public class RemoteStore
             StreamToDiskProvider streamToDiskProvider = new StreamToDiskProvider( destinationLayout.databaseDirectory(), fs, monitors );
             lastFlushedTxId = storeCopyClient.copyStoreFiles( addressProvider, expectedStoreId, streamToDiskProvider,
                         () -> new MaximumTotalTime( config.get( CausalClusteringSettings.store_copy_max_retry_time_per_request ).getSeconds(),
-                                TimeUnit.SECONDS ), destinationLayout.databaseDirectory() );
+                                TimeUnit.SECONDS ), destinationLayout.databaseDirectory(), localStoreFiles );
 
             log.info( "Store files need to be recovered starting from: %d", lastFlushedTxId );
 
@@ -25,9 +25,17 @@ package org.neo4j.causalclustering.catchup.storecopy;
 import org.eclipse.collections.api.iterator.LongIterator;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.ConnectException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 import org.neo4j.causalclustering.catchup.CatchUpClient;
@@ -39,7 +47,9 @@ import org.neo4j.causalclustering.helper.TimeoutStrategy;
 import org.neo4j.causalclustering.identity.StoreId;
 import org.neo4j.causalclustering.messaging.CatchUpRequest;
 import org.neo4j.com.storecopy.StoreCopyClientMonitor;
+import org.neo4j.function.ThrowingAction;
 import org.neo4j.helpers.AdvertisedSocketAddress;
+import org.neo4j.helpers.NamedThreadFactory;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
@@ -54,24 +64,47 @@ public class StoreCopyClient
     private final Log log;
     private TimeoutStrategy backOffStrategy;
     private final Monitors monitors;
+    private final int parallelism;
 
     public StoreCopyClient( CatchUpClient catchUpClient, Monitors monitors, LogProvider logProvider, TimeoutStrategy backOffStrategy )
+    {
+        this( catchUpClient, monitors, logProvider, backOffStrategy, 1 );
+    }
+
+    /**
+     * @param parallelism the number of file requests which may be in flight at the same time. Each of them acquires its own
+     * channel from the catchup client's pool, so files are streamed over separate connections.
+     */
+    public StoreCopyClient( CatchUpClient catchUpClient, Monitors monitors, LogProvider logProvider, TimeoutStrategy backOffStrategy, int parallelism )
     {
         this.catchUpClient = catchUpClient;
         this.monitors = monitors;
         log = logProvider.getLog( getClass() );
         this.backOffStrategy = backOffStrategy;
+        this.parallelism = parallelism;
     }
 
     long copyStoreFiles( CatchupAddressProvider catchupAddressProvider, StoreId expectedStoreId, StoreFileStreamProvider storeFileStreamProvider,
             Supplier<TerminationCondition> requestWiseTerminationCondition, File destDir )
             throws StoreCopyFailedException
+    {
+        return copyStoreFiles( catchupAddressProvider, expectedStoreId, storeFileStreamProvider, requestWiseTerminationCondition, destDir,
+                LocalStoreFiles.none() );
+    }
+
+    /**
+     * @param localStoreFiles local versions of the store files, of which only the changed blocks are requested. Index snapshots
+     * are always copied in full.
+     */
+    long copyStoreFiles( CatchupAddressProvider catchupAddressProvider, StoreId expectedStoreId, StoreFileStreamProvider storeFileStreamProvider,
+            Supplier<TerminationCondition> requestWiseTerminationCondition, File destDir, LocalStoreFiles localStoreFiles )
+            throws StoreCopyFailedException
     {
         try
         {
             PrepareStoreCopyResponse prepareStoreCopyResponse = prepareStoreCopy( catchupAddressProvider.primary(), expectedStoreId, storeFileStreamProvider );
             copyFilesIndividually( prepareStoreCopyResponse, expectedStoreId, catchupAddressProvider, storeFileStreamProvider,
-                    requestWiseTerminationCondition, destDir );
+                    requestWiseTerminationCondition, destDir, localStoreFiles );
             copyIndexSnapshotIndividually( prepareStoreCopyResponse, expectedStoreId, catchupAddressProvider, storeFileStreamProvider,
                     requestWiseTerminationCondition );
             return prepareStoreCopyResponse.lastTransactionId();
@@ -83,23 +116,46 @@ public class StoreCopyClient
     }
 
     private void copyFilesIndividually( PrepareStoreCopyResponse prepareStoreCopyResponse, StoreId expectedStoreId, CatchupAddressProvider addressProvider,
-            StoreFileStreamProvider storeFileStream, Supplier<TerminationCondition> terminationConditions, File destDir ) throws StoreCopyFailedException
+            StoreFileStreamProvider storeFileStream, Supplier<TerminationCondition> terminationConditions, File destDir, LocalStoreFiles localStoreFiles )
+            throws StoreCopyFailedException
     {
         StoreCopyClientMonitor
                 storeCopyClientMonitor = monitors.newMonitor( StoreCopyClientMonitor.class );
         storeCopyClientMonitor.startReceivingStoreFiles();
         long lastTransactionId = prepareStoreCopyResponse.lastTransactionId();
+        List<ThrowingAction<StoreCopyFailedException>> requests = new ArrayList<>();
         for ( File file : prepareStoreCopyResponse.getFiles() )
         {
-            storeCopyClientMonitor.startReceivingStoreFile( Paths.get( destDir.toString(), file.getName() ).toString() );
-            persistentCallToSecondary( new GetStoreFileRequest( expectedStoreId, file, lastTransactionId ), filesCopyAdaptor( storeFileStream, log ),
-                    addressProvider,
-                    terminationConditions.get() );
-            storeCopyClientMonitor.finishReceivingStoreFile( Paths.get( destDir.toString(), file.getName() ).toString() );
+            requests.add( () ->
+            {
+                storeCopyClientMonitor.startReceivingStoreFile( Paths.get( destDir.toString(), file.getName() ).toString() );
+                persistentCallToSecondary( storeFileRequest( localStoreFiles, expectedStoreId, file, lastTransactionId ),
+                        filesCopyAdaptor( storeFileStream, log ), addressProvider,
+                        terminationConditions.get() );
+                storeCopyClientMonitor.finishReceivingStoreFile( Paths.get( destDir.toString(), file.getName() ).toString() );
+            } );
         }
+        executeRequests( requests );
         storeCopyClientMonitor.finishReceivingStoreFiles();
     }
 
+    private CatchUpRequest storeFileRequest( LocalStoreFiles localStoreFiles, StoreId expectedStoreId, File file, long lastTransactionId )
+    {
+        try
+        {
+            Optional<GetStoreFileDiffRequest> diffRequest = localStoreFiles.diffRequest( expectedStoreId, file, lastTransactionId );
+            if ( diffRequest.isPresent() )
+            {
+                return diffRequest.get();
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( format( "Unable to use local version of '%s', copying it in full", file.getName() ), e );
+        }
+        return new GetStoreFileRequest( expectedStoreId, file, lastTransactionId );
+    }
+
     private void copyIndexSnapshotIndividually( PrepareStoreCopyResponse prepareStoreCopyResponse, StoreId expectedStoreId,
             CatchupAddressProvider addressProvider, StoreFileStreamProvider storeFileStream, Supplier<TerminationCondition> terminationConditions )
             throws StoreCopyFailedException
@@ -109,18 +165,83 @@ public class StoreCopyClient
         long lastTransactionId = prepareStoreCopyResponse.lastTransactionId();
         LongIterator indexIds = prepareStoreCopyResponse.getIndexIds().longIterator();
         storeCopyClientMonitor.startReceivingIndexSnapshots();
+        List<ThrowingAction<StoreCopyFailedException>> requests = new ArrayList<>();
         while ( indexIds.hasNext() )
         {
             long indexId = indexIds.next();
-            storeCopyClientMonitor.startReceivingIndexSnapshot( indexId );
-            persistentCallToSecondary( new GetIndexFilesRequest( expectedStoreId, indexId, lastTransactionId ), filesCopyAdaptor( storeFileStream, log ),
-                    addressProvider,
-                    terminationConditions.get() );
-            storeCopyClientMonitor.finishReceivingIndexSnapshot( indexId );
+            requests.add( () ->
+            {
+                storeCopyClientMonitor.startReceivingIndexSnapshot( indexId );
+                persistentCallToSecondary( new GetIndexFilesRequest( expectedStoreId, indexId, lastTransactionId ), filesCopyAdaptor( storeFileStream, log ),
+                        addressProvider,
+                        terminationConditions.get() );
+                storeCopyClientMonitor.finishReceivingIndexSnapshot( indexId );
+            } );
         }
+        executeRequests( requests );
         storeCopyClientMonitor.finishReceivingIndexSnapshots();
     }
 
+    /**
+     * Executes the requests in order when running without parallelism, and otherwise spreads them over a bounded
+     * number of threads. The first failure is rethrown once all requests have been waited for or cancelled.
+     */
+    private void executeRequests( List<ThrowingAction<StoreCopyFailedException>> requests ) throws StoreCopyFailedException
+    {
+        if ( parallelism <= 1 || requests.size() <= 1 )
+        {
+            for ( ThrowingAction<StoreCopyFailedException> request : requests )
+            {
+                request.apply();
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( parallelism, requests.size() ), new NamedThreadFactory( "store-copy" ) );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>( requests.size() );
+            for ( ThrowingAction<StoreCopyFailedException> request : requests )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    request.apply();
+                    return null;
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                awaitRequest( future );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitRequest( Future<?> future ) throws StoreCopyFailedException
+    {
+        try
+        {
+            future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new StoreCopyFailedException( "Thread interrupted" );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof StoreCopyFailedException )
+            {
+                throw (StoreCopyFailedException) cause;
+            }
+            throw new StoreCopyFailedException( cause );
+        }
+    }
+
     private void persistentCallToSecondary( CatchUpRequest request, CatchUpResponseAdaptor<StoreCopyFinishedResponse> copyHandler,
             CatchupAddressProvider addressProvider,
             TerminationCondition terminationCondition ) throws StoreCopyFailedException
@@ -56,8 +56,7 @@ public class StoreCopyProcess
     {
         try ( TemporaryStoreDirectory tempStore = new TemporaryStoreDirectory( fs, pageCache, localDatabase.databaseLayout().databaseDirectory() ) )
         {
-            remoteStore.copy( addressProvider, expectedStoreId, tempStore.databaseLayout(),
-                    false );
+            remoteStore.copy( addressProvider, expectedStoreId, tempStore.databaseLayout(), localDatabase.databaseLayout(), false );
             try
             {
                 copiedStoreRecovery.recoverCopiedStore( tempStore.databaseLayout() );
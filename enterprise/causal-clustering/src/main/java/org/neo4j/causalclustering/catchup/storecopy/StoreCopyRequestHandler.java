@@ -98,7 +98,7 @@ public abstract class StoreCopyRequestHandler<T extends StoreCopyRequest> extend
                         StoreFileMetadata storeFileMetadata = resourceIterator.next();
                         StoreResource storeResource = new StoreResource( storeFileMetadata.file(), relativePath( databaseDirectory, storeFileMetadata.file() ),
                                 storeFileMetadata.recordSize(), fs );
-                        storeFileStreamingProtocol.stream( ctx, storeResource );
+                        stream( ctx, storeFileStreamingProtocol, request, storeResource );
                     }
                 }
                 responseStatus = StoreCopyFinishedResponse.Status.SUCCESS;
@@ -113,6 +113,20 @@ public abstract class StoreCopyRequestHandler<T extends StoreCopyRequest> extend
 
     abstract ResourceIterator<StoreFileMetadata> files( T request, NeoStoreDataSource neoStoreDataSource ) throws IOException;
 
+    void stream( ChannelHandlerContext ctx, StoreFileStreamingProtocol storeFileStreamingProtocol, T request, StoreResource storeResource )
+    {
+        storeFileStreamingProtocol.stream( ctx, storeResource );
+    }
+
+    private static ResourceIterator<StoreFileMetadata> storeFile( String fileName, NeoStoreDataSource neoStoreDataSource ) throws IOException
+    {
+        try ( ResourceIterator<StoreFileMetadata> resourceIterator = neoStoreDataSource.listStoreFiles( false ) )
+        {
+            return Iterators.asResourceIterator(
+                    onlyOne( resourceIterator.stream().filter( matchesRequested( fileName ) ).collect( Collectors.toList() ), fileName ) );
+        }
+    }
+
     private static Iterator<StoreFileMetadata> onlyOne( List<StoreFileMetadata> files, String description )
     {
         if ( files.size() != 1 )
@@ -138,12 +152,30 @@ public abstract class StoreCopyRequestHandler<T extends StoreCopyRequest> extend
         @Override
         ResourceIterator<StoreFileMetadata> files( GetStoreFileRequest request, NeoStoreDataSource neoStoreDataSource ) throws IOException
         {
-            try ( ResourceIterator<StoreFileMetadata> resourceIterator = neoStoreDataSource.listStoreFiles( false ) )
-            {
-                String fileName = request.file().getName();
-                return Iterators.asResourceIterator(
-                        onlyOne( resourceIterator.stream().filter( matchesRequested( fileName ) ).collect( Collectors.toList() ), fileName ) );
-            }
+            return storeFile( request.file().getName(), neoStoreDataSource );
+        }
+    }
+
+    public static class GetStoreFileDiffRequestHandler extends StoreCopyRequestHandler<GetStoreFileDiffRequest>
+    {
+        public GetStoreFileDiffRequestHandler( CatchupServerProtocol protocol, Supplier<NeoStoreDataSource> dataSource,
+                CheckPointerService checkPointerService, StoreFileStreamingProtocol storeFileStreamingProtocol,
+                FileSystemAbstraction fs, LogProvider logProvider )
+        {
+            super( protocol, dataSource, checkPointerService, storeFileStreamingProtocol, fs, logProvider );
+        }
+
+        @Override
+        ResourceIterator<StoreFileMetadata> files( GetStoreFileDiffRequest request, NeoStoreDataSource neoStoreDataSource ) throws IOException
+        {
+            return storeFile( request.file().getName(), neoStoreDataSource );
+        }
+
+        @Override
+        void stream( ChannelHandlerContext ctx, StoreFileStreamingProtocol storeFileStreamingProtocol, GetStoreFileDiffRequest request,
+                StoreResource storeResource )
+        {
+            storeFileStreamingProtocol.streamDiff( ctx, storeResource, request.blockSize(), request.blockChecksums() );
         }
     }
 
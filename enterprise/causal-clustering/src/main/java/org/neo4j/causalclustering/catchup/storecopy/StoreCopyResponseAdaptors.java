@@ -88,6 +88,36 @@ public abstract class StoreCopyResponseAdaptors<T> extends CatchUpResponseAdapto
         return fileChunk.isLast();
     }
 
+    /**
+     * A differential transfer writes into the copy of the file which was seeded from the local store before the request was sent.
+     */
+    @Override
+    public void onFileDiffHeader( CompletableFuture<T> requestOutcomeSignal, FileDiffHeader fileDiffHeader )
+    {
+        onFileHeader( requestOutcomeSignal, new FileHeader( fileDiffHeader.fileName(), fileDiffHeader.requiredAlignment() ) );
+    }
+
+    @Override
+    public boolean onFileBlock( CompletableFuture<T> signal, FileBlock fileBlock )
+    {
+        try
+        {
+            if ( fileBlock.isLast() )
+            {
+                storeFileStream.truncate( fileBlock.offset() );
+            }
+            else if ( fileBlock.bytes().length > 0 )
+            {
+                storeFileStream.write( fileBlock.offset(), fileBlock.bytes() );
+            }
+        }
+        catch ( Exception e )
+        {
+            signal.completeExceptionally( e );
+        }
+        return fileBlock.isLast();
+    }
+
     private static class PrepareStoreCopyResponseAdaptors extends StoreCopyResponseAdaptors<PrepareStoreCopyResponse>
     {
         PrepareStoreCopyResponseAdaptors( StoreFileStreamProvider storeFileStreamProvider, Log log )
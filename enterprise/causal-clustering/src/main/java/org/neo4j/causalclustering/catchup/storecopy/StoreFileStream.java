@@ -27,4 +27,14 @@ import java.io.IOException;
 public interface StoreFileStream extends AutoCloseable
 {
     void write( byte[] data ) throws IOException;
+
+    /**
+     * Writes the given bytes at an absolute position, as done by differential store copy.
+     */
+    void write( long position, byte[] data ) throws IOException;
+
+    /**
+     * Cuts the file off at the given size, if it is larger, as done by differential store copy.
+     */
+    void truncate( long size ) throws IOException;
 }
@@ -22,24 +22,94 @@
  */
 package org.neo4j.causalclustering.catchup.storecopy;
 
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.Future;
 
 import org.neo4j.causalclustering.catchup.ResponseMessageType;
+import org.neo4j.causalclustering.protocol.compression.AdaptiveCompressionEncoder;
+import org.neo4j.util.FeatureToggles;
 
 public class StoreFileStreamingProtocol
 {
+    private static final boolean ZERO_COPY = FeatureToggles.flag( StoreFileStreamingProtocol.class, "zero_copy", true );
+
+    private final boolean zeroCopy;
+
+    public StoreFileStreamingProtocol()
+    {
+        this( ZERO_COPY );
+    }
+
+    StoreFileStreamingProtocol( boolean zeroCopy )
+    {
+        this.zeroCopy = zeroCopy;
+    }
+
     /**
      * This sends operations on the outgoing pipeline or the file, including
      * chunking {@link org.neo4j.causalclustering.catchup.storecopy.FileSender} handlers.
      * <p>
+     * Unless the bytes are transformed on their way out, by encryption or compression, the file contents are instead
+     * sent as a {@link FileRegionSender}, which lets the kernel move the bytes straight from the file to the socket.
+     * <p>
      * Note that we do not block here.
      */
     void stream( ChannelHandlerContext ctx, StoreResource resource )
     {
         ctx.write( ResponseMessageType.FILE );
         ctx.write( new FileHeader( resource.path(), resource.recordSize() ) );
-        ctx.write( new FileSender( resource ) );
+        if ( zeroCopy && !transformsOutboundBytes( ctx.pipeline() ) )
+        {
+            ctx.write( new FileRegionSender( resource, resource.size() ) );
+        }
+        else
+        {
+            ctx.write( new FileSender( resource ) );
+        }
+    }
+
+    /**
+     * A {@link FileRegionSender} is not a {@link io.netty.buffer.ByteBuf}, so any handler that rewrites the outgoing
+     * bytes would either pass it through untouched or not know what to do with it.
+     */
+    private static boolean transformsOutboundBytes( ChannelPipeline pipeline )
+    {
+        for ( ChannelHandler handler : pipeline.toMap().values() )
+        {
+            if ( handler instanceof SslHandler || handler instanceof AdaptiveCompressionEncoder || encodesBytes( handler ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean encodesBytes( ChannelHandler handler )
+    {
+        try
+        {
+            return handler instanceof MessageToByteEncoder && ((MessageToByteEncoder<?>) handler).acceptOutboundMessage( Unpooled.EMPTY_BUFFER );
+        }
+        catch ( Exception e )
+        {
+            return true;
+        }
+    }
+
+    /**
+     * Like {@link #stream(ChannelHandlerContext, StoreResource)}, but only sends the blocks of the file whose
+     * checksums differ from the ones given by the client.
+     */
+    void streamDiff( ChannelHandlerContext ctx, StoreResource resource, int blockSize, long[] blockChecksums )
+    {
+        ctx.write( ResponseMessageType.FILE_DIFF );
+        ctx.write( new FileDiffHeader( resource.path(), resource.recordSize() ) );
+        ctx.write( new FileBlockSender( resource, blockSize, blockChecksums ) );
     }
 
     Future<Void> end( ChannelHandlerContext ctx, StoreCopyFinishedResponse.Status status )
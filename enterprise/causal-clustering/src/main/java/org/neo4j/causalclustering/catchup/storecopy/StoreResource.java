@@ -24,11 +24,11 @@ package org.neo4j.causalclustering.catchup.storecopy;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.channels.ReadableByteChannel;
 import java.util.Objects;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
 
 class StoreResource
 {
@@ -45,11 +45,16 @@ class StoreResource
         this.fs = fs;
     }
 
-    ReadableByteChannel open() throws IOException
+    StoreChannel open() throws IOException
     {
         return fs.open( file, OpenMode.READ );
     }
 
+    long size()
+    {
+        return fs.getFileSize( file );
+    }
+
     public String path()
     {
         return path;
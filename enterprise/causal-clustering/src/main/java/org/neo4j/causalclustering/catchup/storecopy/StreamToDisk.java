@@ -25,19 +25,19 @@ package org.neo4j.causalclustering.catchup.storecopy;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
 
 import static org.neo4j.io.IOUtils.closeAll;
 
 public class StreamToDisk implements StoreFileStream
 {
-    private WritableByteChannel writableByteChannel;
+    private StoreChannel storeChannel;
     private List<AutoCloseable> closeables;
 
     static StreamToDisk fromFile( FileSystemAbstraction fsa, File file ) throws IOException
@@ -45,11 +45,11 @@ public class StreamToDisk implements StoreFileStream
         return new StreamToDisk( fsa.open( file, OpenMode.READ_WRITE ) );
     }
 
-    private StreamToDisk( WritableByteChannel writableByteChannel, AutoCloseable... closeables )
+    private StreamToDisk( StoreChannel storeChannel, AutoCloseable... closeables )
     {
-        this.writableByteChannel = writableByteChannel;
+        this.storeChannel = storeChannel;
         this.closeables = new ArrayList<>();
-        this.closeables.add( writableByteChannel );
+        this.closeables.add( storeChannel );
         this.closeables.addAll( Arrays.asList( closeables ) );
     }
 
@@ -59,7 +59,22 @@ public class StreamToDisk implements StoreFileStream
         ByteBuffer buffer = ByteBuffer.wrap( data );
         while ( buffer.hasRemaining() )
         {
-            writableByteChannel.write( buffer );
+            storeChannel.write( buffer );
+        }
+    }
+
+    @Override
+    public void write( long position, byte[] data ) throws IOException
+    {
+        storeChannel.writeAll( ByteBuffer.wrap( data ), position );
+    }
+
+    @Override
+    public void truncate( long size ) throws IOException
+    {
+        if ( storeChannel.size() > size )
+        {
+            storeChannel.truncate( size );
         }
     }
 
@@ -89,6 +89,7 @@ public class BatchingTxApplier extends LifecycleAdapter
             pageCursorTracerSupplier.get().reportEvents();  // Report paging metrics for the commit
             long lastAppliedRaftLogIndex = LogIndexTxHeaderEncoding.decodeLogIndexFromTxHeader( last.transactionRepresentation().additionalHeader() );
             commandIndexTracker.setAppliedCommandIndex( lastAppliedRaftLogIndex );
+            monitor.txApplied( last.transactionId(), last.transactionRepresentation().getTimeCommitted() );
         } );
     }
 
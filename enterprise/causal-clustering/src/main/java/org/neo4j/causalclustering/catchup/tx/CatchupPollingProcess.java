@@ -22,9 +22,16 @@
  */
 package org.neo4j.causalclustering.catchup.tx;
 
+import io.netty.channel.ChannelConfig;
+
 import java.io.IOException;
+import java.time.Clock;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 import org.neo4j.causalclustering.catchup.CatchUpClient;
@@ -63,12 +70,24 @@ import static org.neo4j.causalclustering.catchup.tx.CatchupPollingProcess.State.
 import static org.neo4j.causalclustering.catchup.tx.CatchupPollingProcess.Timers.TX_PULLER_TIMER;
 import static org.neo4j.causalclustering.core.consensus.schedule.TimeoutFactory.fixedTimeout;
 import static org.neo4j.causalclustering.core.consensus.schedule.Timer.CancelMode.SYNC_WAIT;
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
 
 /**
  * This class is responsible for pulling transactions from a core server and queuing
  * them to be applied with the {@link BatchingTxApplier}. Pull requests are issued on
  * a fixed interval.
  * <p>
+ * With long polling enabled, a pull request which finds the upstream without new
+ * transactions waits there for them to be committed, and the next request is issued
+ * as soon as the previous one completes, so transactions are streamed shortly after
+ * their commit. A round of such requests lasts at most one pull interval, after which
+ * the upstream is selected anew and the next round starts right away.
+ * <p>
+ * Received transactions are applied on a separate thread, overlapping the application
+ * of a batch with the receipt of the next. Once a bounded number of transactions are
+ * pending application, reading from the upstream channel is paused until the applier
+ * has worked off half of them.
+ * <p>
  * If the necessary transactions are not remotely available then a fresh copy of the
  * entire store will be pulled down.
  */
@@ -96,7 +115,10 @@ public class CatchupPollingProcess extends LifecycleAdapter
     private final UpstreamDatabaseStrategySelector selectionStrategy;
     private final TimerService timerService;
     private final long txPullIntervalMillis;
+    private final long longPollMillis;
     private final BatchingTxApplier applier;
+    private final int maxPendingTransactions;
+    private final Clock clock;
     private final PullRequestMonitor pullRequestMonitor;
     private final TopologyService topologyService;
 
@@ -105,11 +127,16 @@ public class CatchupPollingProcess extends LifecycleAdapter
     private DatabaseHealth dbHealth;
     private CompletableFuture<Boolean> upToDateFuture; // we are up-to-date when we are successfully pulling
     private volatile long latestTxIdOfUpStream;
+    private volatile long lastReceivedTxId;
+    private ExecutorService applierExecutor;
+    private int pendingTransactions; // guarded by pendingTransactionsLock
+    private final Object pendingTransactionsLock = new Object();
 
     public CatchupPollingProcess( LogProvider logProvider, LocalDatabase localDatabase, Suspendable enableDisableOnSoreCopy, CatchUpClient catchUpClient,
                                   UpstreamDatabaseStrategySelector selectionStrategy, TimerService timerService, long txPullIntervalMillis,
-                                  BatchingTxApplier applier, Monitors monitors, StoreCopyProcess storeCopyProcess,
-                                  Supplier<DatabaseHealth> databaseHealthSupplier, TopologyService topologyService )
+                                  long longPollMillis, BatchingTxApplier applier, int maxPendingTransactions, Monitors monitors,
+                                  StoreCopyProcess storeCopyProcess, Supplier<DatabaseHealth> databaseHealthSupplier, TopologyService topologyService,
+                                  Clock clock )
 
     {
         this.localDatabase = localDatabase;
@@ -119,7 +146,10 @@ public class CatchupPollingProcess extends LifecycleAdapter
         this.selectionStrategy = selectionStrategy;
         this.timerService = timerService;
         this.txPullIntervalMillis = txPullIntervalMillis;
+        this.longPollMillis = longPollMillis;
         this.applier = applier;
+        this.maxPendingTransactions = maxPendingTransactions;
+        this.clock = clock;
         this.pullRequestMonitor = monitors.newMonitor( PullRequestMonitor.class );
         this.storeCopyProcess = storeCopyProcess;
         this.databaseHealthSupplier = databaseHealthSupplier;
@@ -130,6 +160,7 @@ public class CatchupPollingProcess extends LifecycleAdapter
     public synchronized void start()
     {
         state = TX_PULLING;
+        applierExecutor = Executors.newSingleThreadExecutor( daemon( "catchup-tx-applier" ) );
         timer = timerService.create( TX_PULLER_TIMER, Group.PULL_UPDATES, timeout -> onTimeout() );
         timer.set( fixedTimeout( txPullIntervalMillis, MILLISECONDS ) );
         dbHealth = databaseHealthSupplier.get();
@@ -146,6 +177,7 @@ public class CatchupPollingProcess extends LifecycleAdapter
     {
         state = CANCELLED;
         timer.cancel( SYNC_WAIT );
+        applierExecutor.shutdown();
     }
 
     public State state()
@@ -158,12 +190,13 @@ public class CatchupPollingProcess extends LifecycleAdapter
      */
     private void onTimeout()
     {
+        boolean pullImmediately = false;
         try
         {
             switch ( state )
             {
             case TX_PULLING:
-                pullTransactions();
+                pullImmediately = pullTransactions();
                 break;
 
             case STORE_COPYING:
@@ -181,7 +214,7 @@ public class CatchupPollingProcess extends LifecycleAdapter
 
         if ( state != PANIC && state != CANCELLED )
         {
-            timer.reset();
+            timer.set( fixedTimeout( pullImmediately ? 0 : txPullIntervalMillis, MILLISECONDS ) );
         }
     }
 
@@ -193,7 +226,10 @@ public class CatchupPollingProcess extends LifecycleAdapter
         state = PANIC;
     }
 
-    private void pullTransactions()
+    /**
+     * @return {@code true} if the round was ended while there was more to pull, in which case the next round should start right away.
+     */
+    private boolean pullTransactions() throws ExecutionException, InterruptedException
     {
         MemberId upstream;
         try
@@ -203,21 +239,93 @@ public class CatchupPollingProcess extends LifecycleAdapter
         catch ( UpstreamDatabaseSelectionException e )
         {
             log.warn( "Could not find upstream database from which to pull.", e );
-            return;
+            return false;
         }
 
         StoreId localStoreId = localDatabase.storeId();
+        lastReceivedTxId = applier.lastQueuedTxId();
 
+        // bound the round so that long polling does not stick to one upstream forever
+        long roundEndMillis = clock.millis() + txPullIntervalMillis;
         boolean moreToPull = true;
         int batchCount = 1;
-        while ( moreToPull )
+        while ( moreToPull && state == TX_PULLING )
         {
             moreToPull = pullAndApplyBatchOfTransactions( upstream, localStoreId, batchCount );
             batchCount++;
+            if ( moreToPull && clock.millis() >= roundEndMillis )
+            {
+                break;
+            }
         }
+
+        // the next pull, or a store copy, starts off the transactions applied so far
+        applierExecutor.submit( () -> {} ).get();
+        return moreToPull && state == TX_PULLING;
     }
 
-    private synchronized void handleTransaction( CommittedTransactionRepresentation tx )
+    /**
+     * Called on the network thread for every transaction received, hands it over to the applier thread.
+     */
+    private void handleTransaction( CommittedTransactionRepresentation tx, ChannelConfig channelConfig )
+    {
+        if ( state == PANIC )
+        {
+            return;
+        }
+
+        long txId = tx.getCommitEntry().getTxId();
+        if ( txId == lastReceivedTxId + 1 )
+        {
+            lastReceivedTxId = txId;
+        }
+
+        synchronized ( pendingTransactionsLock )
+        {
+            if ( ++pendingTransactions >= maxPendingTransactions )
+            {
+                channelConfig.setAutoRead( false );
+            }
+        }
+
+        try
+        {
+            applierExecutor.execute( () ->
+            {
+                try
+                {
+                    applyTransaction( tx );
+                }
+                finally
+                {
+                    transactionHandled( channelConfig );
+                }
+            } );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            transactionHandled( channelConfig );
+            throw e;
+        }
+    }
+
+    private void transactionHandled( ChannelConfig channelConfig )
+    {
+        synchronized ( pendingTransactionsLock )
+        {
+            if ( --pendingTransactions <= maxPendingTransactions / 2 && !channelConfig.isAutoRead() )
+            {
+                channelConfig.setAutoRead( true );
+            }
+        }
+    }
+
+    private void streamComplete()
+    {
+        applierExecutor.execute( this::applyBatch );
+    }
+
+    private synchronized void applyTransaction( CommittedTransactionRepresentation tx )
     {
         if ( state == PANIC )
         {
@@ -234,7 +342,7 @@ public class CatchupPollingProcess extends LifecycleAdapter
         }
     }
 
-    private synchronized void streamComplete()
+    private synchronized void applyBatch()
     {
         if ( state == PANIC )
         {
@@ -253,10 +361,10 @@ public class CatchupPollingProcess extends LifecycleAdapter
 
     private boolean pullAndApplyBatchOfTransactions( MemberId upstream, StoreId localStoreId, int batchCount )
     {
-        long lastQueuedTxId = applier.lastQueuedTxId();
-        pullRequestMonitor.txPullRequest( lastQueuedTxId );
-        TxPullRequest txPullRequest = new TxPullRequest( lastQueuedTxId, localStoreId );
-        log.debug( "Pull transactions from %s where tx id > %d [batch #%d]", upstream, lastQueuedTxId, batchCount );
+        long previousTxId = lastReceivedTxId;
+        pullRequestMonitor.txPullRequest( previousTxId );
+        TxPullRequest txPullRequest = new TxPullRequest( previousTxId, localStoreId, longPollMillis );
+        log.debug( "Pull transactions from %s where tx id > %d [batch #%d]", upstream, previousTxId, batchCount );
 
         TxStreamFinishedResponse response;
         try
@@ -265,9 +373,10 @@ public class CatchupPollingProcess extends LifecycleAdapter
             response = catchUpClient.makeBlockingRequest( fromAddress, txPullRequest, new CatchUpResponseAdaptor<TxStreamFinishedResponse>()
             {
                 @Override
-                public void onTxPullResponse( CompletableFuture<TxStreamFinishedResponse> signal, TxPullResponse response )
+                public void onTxPullResponse( CompletableFuture<TxStreamFinishedResponse> signal, TxPullResponse response,
+                        ChannelConfig channelConfig )
                 {
-                    handleTransaction( response.tx() );
+                    handleTransaction( response.tx(), channelConfig );
                 }
 
                 @Override
@@ -286,19 +395,21 @@ public class CatchupPollingProcess extends LifecycleAdapter
         }
 
         latestTxIdOfUpStream = response.latestTxId();
+        pullRequestMonitor.upstreamTxId( response.latestTxId() );
 
         switch ( response.status() )
         {
         case SUCCESS_END_OF_STREAM:
-            log.debug( "Successfully pulled transactions from tx id %d", lastQueuedTxId );
+            log.debug( "Successfully pulled transactions from tx id %d", previousTxId );
             upToDateFuture.complete( Boolean.TRUE );
-            return false;
+            // when long polling the next request waits upstream for new transactions, so issue it right away
+            return longPollMillis > 0;
         case E_TRANSACTION_PRUNED:
-            log.info( "Tx pull unable to get transactions starting from %d since transactions have been pruned. Attempting a store copy.", lastQueuedTxId );
+            log.info( "Tx pull unable to get transactions starting from %d since transactions have been pruned. Attempting a store copy.", previousTxId );
             state = STORE_COPYING;
             return false;
         default:
-            log.info( "Tx pull request unable to get transactions > %d " + lastQueuedTxId );
+            log.info( "Tx pull request unable to get transactions > %d " + previousTxId );
             return false;
         }
     }
@@ -26,6 +26,8 @@ public interface PullRequestMonitor
 {
     void txPullRequest( long txId );
     void txPullResponse( long txId );
+    void upstreamTxId( long txId );
+    void txApplied( long txId, long timeCommitted );
     long lastRequestedTxId();
     long lastReceivedTxId();
     long numberOfRequests();
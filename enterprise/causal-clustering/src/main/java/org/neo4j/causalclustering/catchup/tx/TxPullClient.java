@@ -22,6 +22,8 @@
  */
 package org.neo4j.causalclustering.catchup.tx;
 
+import io.netty.channel.ChannelConfig;
+
 import java.util.concurrent.CompletableFuture;
 
 import org.neo4j.causalclustering.catchup.CatchUpClient;
@@ -53,7 +55,7 @@ public class TxPullClient
             private long lastTxIdReceived = previousTxId;
 
             @Override
-            public void onTxPullResponse( CompletableFuture<TxPullRequestResult> signal, TxPullResponse response )
+            public void onTxPullResponse( CompletableFuture<TxPullRequestResult> signal, TxPullResponse response, ChannelConfig channelConfig )
             {
                 this.lastTxIdReceived = response.tx().getCommitEntry().getTxId();
                 txPullResponseListener.onTxReceived( response );
@@ -32,11 +32,22 @@ public class TxPullRequest implements CatchUpRequest
 {
     private long previousTxId;
     private final StoreId expectedStoreId;
+    private final long maxWaitMillis;
 
     public TxPullRequest( long previousTxId, StoreId expectedStoreId )
+    {
+        this( previousTxId, expectedStoreId, 0 );
+    }
+
+    /**
+     * @param maxWaitMillis how long the server may hold on to the request when it has no transactions after
+     * {@code previousTxId}, waiting for new ones to be committed before ending the stream. Zero makes it answer at once.
+     */
+    public TxPullRequest( long previousTxId, StoreId expectedStoreId, long maxWaitMillis )
     {
         this.previousTxId = previousTxId;
         this.expectedStoreId = expectedStoreId;
+        this.maxWaitMillis = maxWaitMillis;
     }
 
     /**
@@ -52,6 +63,11 @@ public class TxPullRequest implements CatchUpRequest
         return expectedStoreId;
     }
 
+    public long maxWaitMillis()
+    {
+        return maxWaitMillis;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -64,24 +80,24 @@ public class TxPullRequest implements CatchUpRequest
             return false;
         }
         TxPullRequest that = (TxPullRequest) o;
-        return previousTxId == that.previousTxId && Objects.equals( expectedStoreId, that.expectedStoreId );
+        return previousTxId == that.previousTxId && maxWaitMillis == that.maxWaitMillis && Objects.equals( expectedStoreId, that.expectedStoreId );
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash( previousTxId, expectedStoreId );
+        return Objects.hash( previousTxId, expectedStoreId, maxWaitMillis );
     }
 
     @Override
     public String toString()
     {
-        return String.format( "TxPullRequest{txId=%d, storeId=%s}", previousTxId, expectedStoreId );
+        return String.format( "TxPullRequest{txId=%d, storeId=%s, maxWaitMillis=%d}", previousTxId, expectedStoreId, maxWaitMillis );
     }
 
     @Override
     public RequestMessageType messageType()
     {
-        return RequestMessageType.TX_PULL_REQUEST;
+        return maxWaitMillis > 0 ? RequestMessageType.TX_PULL_LONG_POLL : RequestMessageType.TX_PULL_REQUEST;
     }
 }
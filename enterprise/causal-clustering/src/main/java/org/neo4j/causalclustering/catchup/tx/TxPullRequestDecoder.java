@@ -34,11 +34,23 @@ import org.neo4j.causalclustering.messaging.marshalling.storeid.StoreIdMarshal;
 
 public class TxPullRequestDecoder extends ByteToMessageDecoder
 {
+    private final boolean longPoll;
+
+    /**
+     * @param longPoll whether the requests are {@link org.neo4j.causalclustering.catchup.RequestMessageType#TX_PULL_LONG_POLL}
+     * requests, which carry the time the server may wait for new transactions.
+     */
+    public TxPullRequestDecoder( boolean longPoll )
+    {
+        this.longPoll = longPoll;
+    }
+
     @Override
     protected void decode( ChannelHandlerContext ctx, ByteBuf msg, List<Object> out ) throws Exception
     {
         long txId = msg.readLong();
         StoreId storeId = StoreIdMarshal.INSTANCE.unmarshal( new NetworkReadableClosableChannelNetty4( msg ) );
-        out.add( new TxPullRequest( txId, storeId ) );
+        long maxWaitMillis = longPoll ? msg.readLong() : 0;
+        out.add( new TxPullRequest( txId, storeId, maxWaitMillis ) );
     }
 }
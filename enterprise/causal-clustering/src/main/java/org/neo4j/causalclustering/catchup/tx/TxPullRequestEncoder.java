@@ -36,5 +36,9 @@ public class TxPullRequestEncoder extends MessageToByteEncoder<TxPullRequest>
     {
         out.writeLong( request.previousTxId() );
         StoreIdMarshal.INSTANCE.marshal( request.expectedStoreId(), new BoundedNetworkWritableChannel( out ) );
+        if ( request.maxWaitMillis() > 0 )
+        {
+            out.writeLong( request.maxWaitMillis() );
+        }
     }
 }
@@ -46,14 +46,22 @@ import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.neo4j.causalclustering.catchup.CatchupResult.E_INVALID_REQUEST;
 import static org.neo4j.causalclustering.catchup.CatchupResult.E_STORE_ID_MISMATCH;
 import static org.neo4j.causalclustering.catchup.CatchupResult.E_STORE_UNAVAILABLE;
 import static org.neo4j.causalclustering.catchup.CatchupResult.E_TRANSACTION_PRUNED;
 import static org.neo4j.causalclustering.catchup.CatchupResult.SUCCESS_END_OF_STREAM;
 
+/**
+ * Streams the transactions following the requested one. A request which finds no new transactions but allows for waiting
+ * ({@link TxPullRequest#maxWaitMillis()}) is held on to, checking for newly committed transactions on the channel's event
+ * loop, so that they get streamed shortly after the commit instead of on the next request of the client.
+ */
 public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequest>
 {
+    private static final long LONG_POLL_CHECK_INTERVAL_MILLIS = 5;
+
     private final CatchupServerProtocol protocol;
     private final Supplier<StoreId> storeIdSupplier;
     private final BooleanSupplier databaseAvailable;
@@ -87,6 +95,11 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
             return;
         }
 
+        serve( ctx, msg, System.nanoTime() + MILLISECONDS.toNanos( msg.maxWaitMillis() ) );
+    }
+
+    private void serve( ChannelHandlerContext ctx, TxPullRequest msg, long deadlineNanos ) throws IOException
+    {
         StoreId localStoreId = storeIdSupplier.get();
         StoreId expectedStoreId = msg.expectedStoreId();
 
@@ -100,7 +113,7 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
          * file copy operation completed.
          */
         long txIdPromise = transactionIdStore.getLastCommittedTransactionId();
-        IOCursor<CommittedTransactionRepresentation> txCursor = getCursor( txIdPromise, ctx, firstTxId, localStoreId, expectedStoreId );
+        IOCursor<CommittedTransactionRepresentation> txCursor = getCursor( txIdPromise, ctx, msg, deadlineNanos, firstTxId, localStoreId, expectedStoreId );
 
         if ( txCursor != null )
         {
@@ -124,8 +137,8 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         }
     }
 
-    private IOCursor<CommittedTransactionRepresentation> getCursor( long txIdPromise, ChannelHandlerContext ctx, long firstTxId,
-            StoreId localStoreId, StoreId expectedStoreId ) throws IOException
+    private IOCursor<CommittedTransactionRepresentation> getCursor( long txIdPromise, ChannelHandlerContext ctx, TxPullRequest msg, long deadlineNanos,
+            long firstTxId, StoreId localStoreId, StoreId expectedStoreId ) throws IOException
     {
         if ( localStoreId == null || !localStoreId.equals( expectedStoreId ) )
         {
@@ -142,7 +155,14 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         }
         else if ( txIdPromise < firstTxId )
         {
-            endInteraction( ctx, SUCCESS_END_OF_STREAM, txIdPromise );
+            if ( System.nanoTime() - deadlineNanos < 0 )
+            {
+                awaitTransactions( ctx, msg, deadlineNanos );
+            }
+            else
+            {
+                endInteraction( ctx, SUCCESS_END_OF_STREAM, txIdPromise );
+            }
             return null;
         }
 
@@ -158,6 +178,21 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         }
     }
 
+    private void awaitTransactions( ChannelHandlerContext ctx, TxPullRequest msg, long deadlineNanos )
+    {
+        ctx.executor().schedule( () ->
+        {
+            try
+            {
+                serve( ctx, msg, deadlineNanos );
+            }
+            catch ( IOException e )
+            {
+                ctx.fireExceptionCaught( e );
+            }
+        }, LONG_POLL_CHECK_INTERVAL_MILLIS, MILLISECONDS );
+    }
+
     private void endInteraction( ChannelHandlerContext ctx, CatchupResult status, long lastCommittedTransactionId )
     {
         ctx.write( ResponseMessageType.TX_STREAM_FINISHED );
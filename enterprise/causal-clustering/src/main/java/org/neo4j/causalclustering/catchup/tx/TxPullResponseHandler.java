@@ -45,7 +45,7 @@ public class TxPullResponseHandler extends SimpleChannelInboundHandler<TxPullRes
     {
         if ( protocol.isExpecting( CatchupClientProtocol.State.TX_PULL_RESPONSE ) )
         {
-            handler.onTxPullResponse( msg );
+            handler.onTxPullResponse( msg, ctx.channel().config() );
             protocol.expect( CatchupClientProtocol.State.MESSAGE_TYPE );
         }
         else
@@ -39,6 +39,7 @@ import org.neo4j.graphdb.config.Setting;
 import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.helpers.ListenSocketAddress;
 
+import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.Implementations.ADAPTIVE;
 import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.Implementations.GZIP;
 import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.Implementations.LZ4;
 import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.Implementations.LZ4_HIGH_COMPRESSION;
@@ -111,6 +112,16 @@ public class CausalClusteringSettings implements LoadableConfig
     public static final Setting<Integer> log_shipping_max_lag =
             setting( "causal_clustering.log_shipping_max_lag", INTEGER, "256" );
 
+    @Description( "The maximum number of batches that are shipped to a catching up follower before its responses arrive. " +
+            "Several outstanding batches bridge the round trip time to followers on links with high latency." )
+    public static final Setting<Integer> log_shipping_max_outstanding_batches =
+            buildSetting( "causal_clustering.log_shipping_max_outstanding_batches", INTEGER, "4" ).constraint( min( 1 ) ).build();
+
+    @Description( "The maximum size of the batches that are shipped to a catching up follower before its responses arrive. " +
+            "Batches are cut short to stay within this size, but always carry at least one entry." )
+    public static final Setting<Long> log_shipping_max_outstanding_bytes =
+            buildSetting( "causal_clustering.log_shipping_max_outstanding_bytes", BYTES, "16M" ).constraint( min( 1L ) ).build();
+
     @Internal
     @Description( "Maximum number of entries in the RAFT in-queue" )
     public static final Setting<Integer> raft_in_queue_size =
@@ -187,7 +198,7 @@ public class CausalClusteringSettings implements LoadableConfig
     @Description( "Type of in-flight cache." )
     public static final Setting<InFlightCacheFactory.Type> in_flight_cache_type =
             setting( "causal_clustering.in_flight_cache.type", optionsIgnoreCase( InFlightCacheFactory.Type.class ),
-                    InFlightCacheFactory.Type.CONSECUTIVE.name() );
+                    InFlightCacheFactory.Type.CONCURRENT.name() );
 
     @Description( "The maximum number of entries in the in-flight cache." )
     public static final Setting<Integer> in_flight_cache_max_entries =
@@ -380,6 +391,11 @@ public class CausalClusteringSettings implements LoadableConfig
     public static final Setting<Integer> state_machine_apply_max_batch_size =
             setting( "causal_clustering.state_machine_apply_max_batch_size", INTEGER, "16" );
 
+    @Description( "The maximum number of committed log entries which are read and decoded ahead of their application in the state machines. " +
+            "Reading ahead happens on a separate thread, overlapping with the application of earlier entries. Zero disables it." )
+    public static final Setting<Integer> state_machine_apply_prefetch_size =
+            buildSetting( "causal_clustering.state_machine_apply_prefetch_size", INTEGER, "256" ).constraint( min( 0 ) ).build();
+
     @Description( "RAFT log pruning strategy" )
     public static final Setting<String> raft_log_pruning_strategy =
             setting( "causal_clustering.raft_log_prune_strategy", STRING, "1g size" );
@@ -414,6 +430,12 @@ public class CausalClusteringSettings implements LoadableConfig
     @Description( "Interval of pulling updates from cores." )
     public static final Setting<Duration> pull_interval = setting( "causal_clustering.pull_interval", DURATION, "1s" );
 
+    @Description( "How long a pull request of a read replica which is up to date may wait on the upstream server for new transactions. " +
+            "Transactions committed in the meantime are then streamed right away, and the read replica pulls again as soon as a request " +
+            "completes rather than on the pull interval. Requires every member that can serve pull requests to support it, and must be " +
+            "shorter than the catch up client inactivity timeout. Zero disables long polling." )
+    public static final Setting<Duration> pull_long_poll_timeout = setting( "causal_clustering.pull_long_poll_timeout", DURATION, "0s" );
+
     @Description( "The catch up protocol times out if the given duration elapses with no network activity. " +
             "Every message received by the client from the server extends the time out duration." )
     public static final Setting<Duration> catch_up_client_inactivity_timeout =
@@ -424,6 +446,16 @@ public class CausalClusteringSettings implements LoadableConfig
     public static final Setting<Duration> store_copy_max_retry_time_per_request =
             setting( "causal_clustering.store_copy_max_retry_time_per_request", DURATION, "20m" );
 
+    @Description( "The number of store files and index snapshots which are requested in parallel during store copy. " +
+            "Each request is served over its own pooled catchup connection." )
+    public static final Setting<Integer> store_copy_parallelism =
+            buildSetting( "causal_clustering.store_copy_parallelism", INTEGER, "4" ).constraint( min( 1 ) ).build();
+
+    @Description( "Reuse the local store files when a store copy replaces an existing database, so that only the blocks which differ " +
+            "from the remote store are transferred. Requires every member that can serve store copies to support it." )
+    public static final Setting<Boolean> enable_differential_store_copy =
+            setting( "causal_clustering.enable_differential_store_copy", BOOLEAN, FALSE );
+
     @Description( "Maximum backoff timeout for store copy requests" )
     @Internal
     public static final Setting<Duration> store_copy_backoff_max_wait = setting( "causal_clustering.store_copy_backoff_max_wait", DURATION, "5s" );
@@ -610,10 +642,13 @@ public class CausalClusteringSettings implements LoadableConfig
 
     @Description( "Network compression algorithms that this instance will allow in negotiation as a comma-separated list." +
             " Listed in descending order of preference for incoming connections. An empty list implies no compression." +
+            " " + ADAPTIVE + " only compresses blocks above a size threshold and chooses the codec by block size, so small" +
+            " messages such as heartbeats are sent uncompressed, and unlike the other algorithms it compresses traffic in both" +
+            " directions, including catchup responses." +
             " For outgoing connections this merely specifies the allowed set of algorithms and the preference of the " +
             " remote peer will be used for making the decision." +
             " Allowable values: [" + GZIP + "," + SNAPPY + "," + SNAPPY_VALIDATING + "," +
-            LZ4 + "," + LZ4_HIGH_COMPRESSION + "," + LZ_VALIDATING + "," + LZ4_HIGH_COMPRESSION_VALIDATING + "]" )
+            LZ4 + "," + LZ4_HIGH_COMPRESSION + "," + LZ_VALIDATING + "," + LZ4_HIGH_COMPRESSION_VALIDATING + "," + ADAPTIVE + "]" )
     public static final Setting<List<String>> compression_implementations =
             setting( "causal_clustering.protocol_implementations.compression", STRING_LIST, "");
 }
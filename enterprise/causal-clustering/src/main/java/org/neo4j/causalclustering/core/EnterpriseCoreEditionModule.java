@@ -260,6 +260,7 @@ public class EnterpriseCoreEditionModule extends DefaultEditionModule
         NettyPipelineBuilderFactory backupServerPipelineBuilderFactory = new NettyPipelineBuilderFactory( backupServerPipelineWrapper );
 
         topologyService = clusteringModule.topologyService();
+        topologyService.setLastAppliedTransactionIdSource( localDatabase::lastClosedTransactionId );
 
         long logThresholdMillis = config.get( CausalClusteringSettings.unknown_address_logging_throttle ).toMillis();
 
@@ -276,7 +277,7 @@ public class EnterpriseCoreEditionModule extends DefaultEditionModule
                 asList( new RaftProtocolClientInstallerV2.Factory( clientPipelineBuilderFactory, logProvider ),
                         new RaftProtocolClientInstallerV1.Factory( clientPipelineBuilderFactory,
                                 logProvider ) ),
-                        ModifierProtocolInstaller.allClientInstallers );
+                        ModifierProtocolInstaller.clientInstallers( platformModule.monitors, Protocol.ApplicationProtocolCategory.RAFT ) );
 
         Duration handshakeTimeout = config.get( CausalClusteringSettings.handshake_timeout );
         HandshakeClientInitializer channelInitializer = new HandshakeClientInitializer( applicationProtocolRepository, modifierProtocolRepository,
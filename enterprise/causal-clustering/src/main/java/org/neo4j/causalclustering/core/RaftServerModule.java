@@ -129,7 +129,7 @@ class RaftServerModule
                         logProvider );
         ProtocolInstallerRepository<ProtocolInstaller.Orientation.Server> protocolInstallerRepository =
                 new ProtocolInstallerRepository<>( asList( raftProtocolServerInstallerV1, raftProtocolServerInstallerV2 ),
-                        ModifierProtocolInstaller.allServerInstallers );
+                        ModifierProtocolInstaller.serverInstallers( platformModule.monitors, Protocol.ApplicationProtocolCategory.RAFT ) );
 
         HandshakeServerInitializer handshakeServerInitializer = new HandshakeServerInitializer( applicationProtocolRepository, modifierProtocolRepository,
                 protocolInstallerRepository, pipelineBuilderFactory, logProvider );
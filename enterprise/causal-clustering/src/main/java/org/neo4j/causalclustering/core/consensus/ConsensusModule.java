@@ -39,6 +39,7 @@ import org.neo4j.causalclustering.core.consensus.membership.MemberIdSetBuilder;
 import org.neo4j.causalclustering.core.consensus.membership.RaftMembershipManager;
 import org.neo4j.causalclustering.core.consensus.membership.RaftMembershipState;
 import org.neo4j.causalclustering.core.consensus.schedule.TimerService;
+import org.neo4j.causalclustering.core.consensus.shipping.LogShippingMonitor;
 import org.neo4j.causalclustering.core.consensus.shipping.RaftLogShippingManager;
 import org.neo4j.causalclustering.core.consensus.term.MonitoredTermStateStorage;
 import org.neo4j.causalclustering.core.consensus.term.TermState;
@@ -65,6 +66,8 @@ import org.neo4j.scheduler.JobScheduler;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.catchup_batch_size;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.join_catch_up_timeout;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.log_shipping_max_lag;
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.log_shipping_max_outstanding_batches;
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.log_shipping_max_outstanding_bytes;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.refuse_to_be_leader;
 import static org.neo4j.causalclustering.core.consensus.log.RaftLog.RAFT_LOG_DIRECTORY_NAME;
 import static org.neo4j.time.Clocks.systemClock;
@@ -141,7 +144,9 @@ public class ConsensusModule
         RaftLogShippingManager logShipping =
                 new RaftLogShippingManager( outbound, logProvider, raftLog, timerService, systemClock(), myself,
                         raftMembershipManager, leaderAvailabilityTimers.getElectionTimeout(), config.get( catchup_batch_size ),
-                        config.get( log_shipping_max_lag ), inFlightCache );
+                        config.get( log_shipping_max_lag ), config.get( log_shipping_max_outstanding_batches ),
+                        config.get( log_shipping_max_outstanding_bytes ), inFlightCache,
+                        platformModule.monitors.newMonitor( LogShippingMonitor.class ) );
 
         boolean supportsPreVoting = config.get( CausalClusteringSettings.enable_pre_voting );
 
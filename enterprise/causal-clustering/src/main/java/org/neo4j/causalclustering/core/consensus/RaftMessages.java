@@ -978,7 +978,12 @@ public interface RaftMessages
 
             public BatchRequest( List<ReplicatedContent> batch )
             {
-                super( null, Type.NEW_BATCH_REQUEST );
+                this( null, batch );
+            }
+
+            public BatchRequest( MemberId from, List<ReplicatedContent> batch )
+            {
+                super( from, Type.NEW_BATCH_REQUEST );
                 this.batch = batch;
             }
 
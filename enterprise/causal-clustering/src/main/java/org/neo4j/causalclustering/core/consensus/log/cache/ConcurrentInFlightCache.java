@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.consensus.log.cache;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
+import org.neo4j.causalclustering.core.state.machines.tx.CoreReplicatedContent;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+
+/**
+ * An in-flight cache that, like {@link ConsecutiveInFlightCache}, keeps a consecutive range of entries bounded by
+ * count and by total size where known, see {@link CoreReplicatedContent#size()}. Unlike it, lookups do not
+ * take a lock, so that the log shippers of a leader and the command application do not contend with each other
+ * or with the appending Raft machine. Modifications are serialized.
+ * <p>
+ * Entries that were pruned after being applied are kept for as long as some follower has not matched them
+ * yet, see {@link #followersMatchedUpTo(long)}, so that catching up followers are served from memory rather
+ * than from the Raft log on disk.
+ */
+public class ConcurrentInFlightCache implements InFlightCache
+{
+    private final int capacity;
+    private final long maxBytes;
+    private final InFlightCacheMonitor monitor;
+    private final AtomicReferenceArray<Slot> slots;
+
+    private volatile boolean enabled;
+    private volatile long totalBytes;
+    private volatile int elementCount;
+
+    private long firstIndex;
+    private long endIndex = -1;
+    private long prunedUpTo = -1;
+    private long followersMatchedUpTo = Long.MAX_VALUE;
+
+    public ConcurrentInFlightCache( int capacity, long maxBytes, InFlightCacheMonitor monitor, boolean enabled )
+    {
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.monitor = monitor;
+        this.enabled = enabled;
+        this.slots = new AtomicReferenceArray<>( capacity );
+
+        monitor.setMaxBytes( maxBytes );
+        monitor.setMaxElements( capacity );
+    }
+
+    @Override
+    public synchronized void enable()
+    {
+        enabled = true;
+    }
+
+    @Override
+    public synchronized void put( long logIndex, RaftLogEntry entry )
+    {
+        if ( !enabled )
+        {
+            return;
+        }
+        if ( logIndex < 0 )
+        {
+            throw new IllegalArgumentException( format( "Index must be >= 0 (was %d)", logIndex ) );
+        }
+
+        if ( logIndex != endIndex + 1 )
+        {
+            evictUpTo( endIndex );
+            firstIndex = logIndex;
+        }
+        else if ( elementCount == capacity )
+        {
+            evictFirst();
+        }
+
+        long size = sizeOf( entry );
+        slots.set( slotOf( logIndex ), new Slot( logIndex, entry, size ) );
+        endIndex = logIndex;
+        totalBytes += size;
+        elementCount++;
+
+        while ( totalBytes > maxBytes )
+        {
+            evictFirst();
+        }
+        evictUpTo( min( prunedUpTo, followersMatchedUpTo ) );
+        report();
+    }
+
+    @Override
+    public RaftLogEntry get( long logIndex )
+    {
+        if ( !enabled )
+        {
+            return null;
+        }
+
+        Slot slot = slots.get( slotOf( logIndex ) );
+        if ( slot == null || slot.logIndex != logIndex )
+        {
+            monitor.miss();
+            return null;
+        }
+
+        monitor.hit();
+        return slot.entry;
+    }
+
+    @Override
+    public synchronized void truncate( long fromIndex )
+    {
+        if ( !enabled || fromIndex > endIndex )
+        {
+            return;
+        }
+
+        while ( elementCount > 0 && endIndex >= fromIndex )
+        {
+            evict( endIndex );
+            endIndex--;
+        }
+        if ( elementCount == 0 )
+        {
+            firstIndex = fromIndex;
+        }
+        endIndex = fromIndex - 1;
+        report();
+    }
+
+    @Override
+    public synchronized void prune( long upToIndex )
+    {
+        if ( !enabled )
+        {
+            return;
+        }
+
+        prunedUpTo = upToIndex;
+        evictUpTo( min( prunedUpTo, followersMatchedUpTo ) );
+        report();
+    }
+
+    @Override
+    public synchronized void followersMatchedUpTo( long logIndex )
+    {
+        followersMatchedUpTo = logIndex;
+        evictUpTo( min( prunedUpTo, followersMatchedUpTo ) );
+        report();
+    }
+
+    @Override
+    public long totalBytes()
+    {
+        return totalBytes;
+    }
+
+    @Override
+    public int elementCount()
+    {
+        return elementCount;
+    }
+
+    private void evictUpTo( long upToIndex )
+    {
+        while ( elementCount > 0 && firstIndex <= upToIndex )
+        {
+            evictFirst();
+        }
+    }
+
+    private void evictFirst()
+    {
+        evict( firstIndex );
+        firstIndex++;
+    }
+
+    private void evict( long logIndex )
+    {
+        int slotIndex = slotOf( logIndex );
+        Slot slot = slots.get( slotIndex );
+        slots.set( slotIndex, null );
+        totalBytes -= slot.size;
+        elementCount--;
+    }
+
+    private int slotOf( long logIndex )
+    {
+        return (int) (logIndex % capacity);
+    }
+
+    private void report()
+    {
+        monitor.setTotalBytes( totalBytes );
+        monitor.setElementCount( elementCount );
+    }
+
+    private static long sizeOf( RaftLogEntry entry )
+    {
+        return entry.content().size().orElse( 0L );
+    }
+
+    private static class Slot
+    {
+        private final long logIndex;
+        private final RaftLogEntry entry;
+        private final long size;
+
+        Slot( long logIndex, RaftLogEntry entry, long size )
+        {
+            this.logIndex = logIndex;
+            this.entry = entry;
+            this.size = size;
+        }
+    }
+}
@@ -64,6 +64,17 @@ public interface InFlightCache
      */
     void prune( long upToIndex );
 
+    /**
+     * Tells the cache that every follower has matched the log of this leader up to the given index. Caches may keep
+     * pruned entries above that index, for log shipping to the followers that still need them. A member that is not
+     * leader passes {@link Long#MAX_VALUE}.
+     *
+     * @param logIndex the lowest match index among the followers.
+     */
+    default void followersMatchedUpTo( long logIndex )
+    {
+    }
+
     /**
      * @return the amount of data in the cache.
      */
@@ -45,6 +45,7 @@ import org.neo4j.logging.Log;
 public class FileNames
 {
     static final String BASE_FILE_NAME = "raft.log.";
+    static final String INDEX_FILE_SUFFIX = ".index";
     private static final String VERSION_MATCH = "(0|[1-9]\\d*)";
 
     private final File baseDirectory;
@@ -73,6 +74,18 @@ public class FileNames
         return new File( baseDirectory, BASE_FILE_NAME + version );
     }
 
+    /**
+     * Creates a file object for the {@link SegmentIndex} of a segment.
+     *
+     * @param segmentFile The segment file.
+     *
+     * @return The index file of the segment.
+     */
+    static File indexFileFor( File segmentFile )
+    {
+        return new File( segmentFile.getParentFile(), segmentFile.getName() + INDEX_FILE_SUFFIX );
+    }
+
     /**
      * Looks in the base directory for all suitable RAFT log files and returns a sorted map
      * with the version as key and File as value.
@@ -88,6 +101,11 @@ public class FileNames
 
         for ( File file : fileSystem.listFiles( baseDirectory ) )
         {
+            if ( file.getName().endsWith( INDEX_FILE_SUFFIX ) )
+            {
+                continue;
+            }
+
             Matcher matcher = logFilePattern.matcher( file.getName() );
 
             if ( !matcher.matches() )
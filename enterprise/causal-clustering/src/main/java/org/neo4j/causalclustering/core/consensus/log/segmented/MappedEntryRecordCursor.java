@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.consensus.log.segmented;
+
+import java.io.IOException;
+
+import org.neo4j.causalclustering.core.consensus.log.EntryRecord;
+import org.neo4j.causalclustering.core.consensus.log.LogPosition;
+import org.neo4j.causalclustering.core.replication.ReplicatedContent;
+import org.neo4j.causalclustering.messaging.EndOfStreamException;
+import org.neo4j.causalclustering.messaging.marshalling.ChannelMarshal;
+import org.neo4j.cursor.CursorValue;
+import org.neo4j.cursor.IOCursor;
+
+import static org.neo4j.causalclustering.core.consensus.log.EntryRecord.read;
+
+/**
+ * A cursor for iterating over RAFT log entries of a sealed and memory mapped segment, starting at an index and until
+ * the end of the segment is met. Unlike the {@link EntryRecordCursor} it needs no pooled {@link Reader}.
+ */
+class MappedEntryRecordCursor implements IOCursor<EntryRecord>
+{
+    private final MappedSegmentChannel channel;
+    private final LogPosition position;
+    private final CursorValue<EntryRecord> currentRecord = new CursorValue<>();
+    private final ChannelMarshal<ReplicatedContent> contentMarshal;
+    private final SegmentFile segment;
+
+    private boolean closed;
+
+    MappedEntryRecordCursor( MappedSegmentChannel channel, ChannelMarshal<ReplicatedContent> contentMarshal,
+            long currentIndex, long wantedIndex, SegmentFile segment ) throws IOException, EndOfStreamException
+    {
+        this.channel = channel;
+        this.contentMarshal = contentMarshal;
+        this.segment = segment;
+
+        /* The index lookup might have given us an earlier position, scan forward to the exact position. */
+        while ( currentIndex < wantedIndex )
+        {
+            read( channel, contentMarshal );
+            currentIndex++;
+        }
+
+        this.position = new LogPosition( currentIndex, channel.position() );
+    }
+
+    @Override
+    public boolean next() throws IOException
+    {
+        EntryRecord entryRecord;
+        try
+        {
+            entryRecord = read( channel, contentMarshal );
+        }
+        catch ( EndOfStreamException e )
+        {
+            currentRecord.invalidate();
+            return false;
+        }
+
+        currentRecord.set( entryRecord );
+        position.byteOffset = channel.position();
+        position.logIndex++;
+        return true;
+    }
+
+    @Override
+    public void close()
+    {
+        if ( closed )
+        {
+            /* This is just a defensive measure, for catching user errors from messing up the refCount. */
+            throw new IllegalStateException( "Already closed" );
+        }
+
+        closed = true;
+        segment.refCount().decrease();
+        segment.positionCache().put( position );
+    }
+
+    @Override
+    public EntryRecord get()
+    {
+        return currentRecord.get();
+    }
+}
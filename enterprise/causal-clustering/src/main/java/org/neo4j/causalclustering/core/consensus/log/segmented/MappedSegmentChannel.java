@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.consensus.log.segmented;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.storageengine.api.ReadPastEndException;
+import org.neo4j.storageengine.api.ReadableChannel;
+
+/**
+ * Reads from a memory mapped segment. Every reader gets its own view of the shared mapping, so concurrent readers
+ * do not interfere with each other.
+ */
+class MappedSegmentChannel implements ReadableChannel
+{
+    private final ByteBuffer buffer;
+
+    MappedSegmentChannel( ByteBuffer mapping, long byteOffset )
+    {
+        this.buffer = mapping.duplicate();
+        this.buffer.position( Math.toIntExact( byteOffset ) );
+    }
+
+    long position()
+    {
+        return buffer.position();
+    }
+
+    @Override
+    public byte get() throws ReadPastEndException
+    {
+        ensureBytes( Byte.BYTES );
+        return buffer.get();
+    }
+
+    @Override
+    public short getShort() throws ReadPastEndException
+    {
+        ensureBytes( Short.BYTES );
+        return buffer.getShort();
+    }
+
+    @Override
+    public int getInt() throws ReadPastEndException
+    {
+        ensureBytes( Integer.BYTES );
+        return buffer.getInt();
+    }
+
+    @Override
+    public long getLong() throws ReadPastEndException
+    {
+        ensureBytes( Long.BYTES );
+        return buffer.getLong();
+    }
+
+    @Override
+    public float getFloat() throws ReadPastEndException
+    {
+        ensureBytes( Float.BYTES );
+        return buffer.getFloat();
+    }
+
+    @Override
+    public double getDouble() throws ReadPastEndException
+    {
+        ensureBytes( Double.BYTES );
+        return buffer.getDouble();
+    }
+
+    @Override
+    public void get( byte[] bytes, int length ) throws ReadPastEndException
+    {
+        ensureBytes( length );
+        buffer.get( bytes, 0, length );
+    }
+
+    private void ensureBytes( int byteCount ) throws ReadPastEndException
+    {
+        if ( buffer.remaining() < byteCount )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        // the mapping is owned by the segment
+    }
+}
@@ -24,6 +24,8 @@ package org.neo4j.causalclustering.core.consensus.log.segmented;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import org.neo4j.causalclustering.core.consensus.log.EntryRecord;
 import org.neo4j.causalclustering.core.consensus.log.LogPosition;
@@ -35,6 +37,8 @@ import org.neo4j.cursor.IOCursor;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.fs.StoreFileChannel;
+import org.neo4j.io.fs.StoreFileChannelUnwrapper;
 import org.neo4j.kernel.impl.transaction.log.PhysicalFlushableChannel;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
@@ -44,6 +48,9 @@ import static java.lang.String.format;
 /**
  * Keeps track of a segment of the RAFT log, i.e. a consecutive set of entries.
  * Concurrent reading is thread-safe.
+ *
+ * Once a segment has been sealed at rotation it is never written to again, and it is then read through a shared
+ * memory mapping when the file system supports it, positioned using its {@link SegmentIndex}.
  */
 class SegmentFile implements AutoCloseable
 {
@@ -52,6 +59,7 @@ class SegmentFile implements AutoCloseable
     private final Log log;
     private final FileSystemAbstraction fileSystem;
     private final File file;
+    private final File indexFile;
     private final ReaderPool readerPool;
     private final ChannelMarshal<ReplicatedContent> contentMarshal;
 
@@ -63,11 +71,17 @@ class SegmentFile implements AutoCloseable
 
     private PhysicalFlushableChannel bufferedWriter;
 
+    private SegmentIndex index;
+    private boolean sealed;
+    private ByteBuffer mapping;
+    private boolean mappingUnsupported;
+
     SegmentFile( FileSystemAbstraction fileSystem, File file, ReaderPool readerPool, long version,
             ChannelMarshal<ReplicatedContent> contentMarshal, LogProvider logProvider, SegmentHeader header )
     {
         this.fileSystem = fileSystem;
         this.file = file;
+        this.indexFile = FileNames.indexFileFor( file );
         this.readerPool = readerPool;
         this.contentMarshal = contentMarshal;
         this.header = header;
@@ -89,6 +103,11 @@ class SegmentFile implements AutoCloseable
         }
 
         SegmentFile segment = new SegmentFile( fileSystem, file, readerPool, version, contentMarshal, logProvider, header );
+        if ( fileSystem.fileExists( segment.indexFile ) )
+        {
+            fileSystem.deleteFile( segment.indexFile );
+        }
+        segment.index = new SegmentIndex( true );
         headerMarshal.marshal( header, segment.getOrCreateWriter() );
         segment.flush();
 
@@ -110,7 +129,38 @@ class SegmentFile implements AutoCloseable
         /* This is the relative index within the file, starting from zero. */
         long offsetIndex = logIndex - (header.prevIndex() + 1);
 
-        LogPosition position = positionCache.lookup( offsetIndex );
+        LogPosition position;
+        ByteBuffer mapping;
+        try
+        {
+            position = closestPosition( offsetIndex );
+            mapping = mapping();
+        }
+        catch ( IOException e )
+        {
+            refCount.decrease();
+            throw e;
+        }
+
+        if ( mapping != null )
+        {
+            try
+            {
+                return new MappedEntryRecordCursor( new MappedSegmentChannel( mapping, position.byteOffset ), contentMarshal,
+                        position.logIndex, offsetIndex, this );
+            }
+            catch ( EndOfStreamException e )
+            {
+                refCount.decrease();
+                return IOCursor.getEmpty();
+            }
+            catch ( IOException e )
+            {
+                refCount.decrease();
+                throw e;
+            }
+        }
+
         Reader reader = readerPool.acquire( version, position.byteOffset );
 
         try
@@ -132,6 +182,62 @@ class SegmentFile implements AutoCloseable
         }
     }
 
+    private LogPosition closestPosition( long offsetIndex ) throws IOException
+    {
+        LogPosition cached = positionCache.lookup( offsetIndex );
+        LogPosition indexed = index().lookup( offsetIndex );
+        return indexed != null && indexed.logIndex > cached.logIndex ? indexed : cached;
+    }
+
+    /**
+     * The index is loaded from disk on first use for segments which were not created by this process. A segment without
+     * a persisted index gets a new one, which can only become complete if nothing had been written to the segment yet.
+     */
+    private synchronized SegmentIndex index() throws IOException
+    {
+        if ( index == null )
+        {
+            index = SegmentIndex.read( fileSystem, indexFile, header, size() );
+            if ( index != null )
+            {
+                sealed = true;
+            }
+            else
+            {
+                index = new SegmentIndex( size() <= SegmentHeader.SIZE );
+            }
+        }
+        return index;
+    }
+
+    private synchronized ByteBuffer mapping() throws IOException
+    {
+        index();
+        if ( mapping == null && sealed && !mappingUnsupported )
+        {
+            mapping = map();
+            mappingUnsupported = mapping == null;
+        }
+        return mapping;
+    }
+
+    private ByteBuffer map()
+    {
+        try ( StoreChannel channel = fileSystem.open( file, OpenMode.READ ) )
+        {
+            if ( !(channel instanceof StoreFileChannel) || channel.size() > Integer.MAX_VALUE )
+            {
+                return null;
+            }
+            return StoreFileChannelUnwrapper.unwrap( channel ).map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to map " + file + ", reading it through channels instead", e );
+            return null;
+        }
+    }
+
     private synchronized PhysicalFlushableChannel getOrCreateWriter() throws IOException
     {
         if ( bufferedWriter == null )
@@ -141,6 +247,9 @@ class SegmentFile implements AutoCloseable
                 throw new IOException( "Writer has been closed" );
             }
 
+            sealed = false;
+            mapping = null;
+
             StoreChannel channel = fileSystem.open( file, OpenMode.READ_WRITE );
             channel.position( channel.size() );
             bufferedWriter = new PhysicalFlushableChannel( channel );
@@ -175,9 +284,30 @@ class SegmentFile implements AutoCloseable
         }
     }
 
+    /**
+     * Closes the writer of a segment which will not be written to again, and persists its index if it is complete.
+     * Reads of a sealed segment go through a memory mapping from then on.
+     */
+    synchronized void seal() throws IOException
+    {
+        closeWriter();
+        SegmentIndex index = index();
+        if ( index.isComplete() )
+        {
+            index.write( fileSystem, indexFile, header );
+        }
+        sealed = true;
+    }
+
     public synchronized void write( long logIndex, RaftLogEntry entry ) throws IOException
     {
-        EntryRecord.write( getOrCreateWriter(), contentMarshal, logIndex, entry.term(), entry.content() );
+        PhysicalFlushableChannel writer = getOrCreateWriter();
+        SegmentIndex index = index();
+        if ( index.beforeWrite( logIndex - (header.prevIndex() + 1) ) )
+        {
+            index.record( writer.position() );
+        }
+        EntryRecord.write( writer, contentMarshal, logIndex, entry.term(), entry.content() );
     }
 
     synchronized void flush() throws IOException
@@ -187,6 +317,7 @@ class SegmentFile implements AutoCloseable
 
     public boolean delete()
     {
+        fileSystem.deleteFile( indexFile );
         return fileSystem.deleteFile( file );
     }
 
@@ -226,6 +357,10 @@ class SegmentFile implements AutoCloseable
     {
         closeWriter();
         readerPool.prune( version );
+        synchronized ( this )
+        {
+            mapping = null;
+        }
 
         if ( !refCount.tryDispose() )
         {
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.consensus.log.segmented;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.causalclustering.core.consensus.log.LogPosition;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.transaction.log.PhysicalFlushableChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadAheadChannel;
+import org.neo4j.storageengine.api.ReadPastEndException;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A sparse (offsetIndex) -> (byteOffset) index over all the entries of a segment, holding the position of every
+ * {@link #STRIDE}th entry. Unlike the {@link PositionCache} it covers the whole segment, so any entry can be reached
+ * by scanning at most {@code STRIDE - 1} entries from the closest indexed position.
+ *
+ * The index is built in memory as entries are written and is persisted next to the segment when the segment is
+ * sealed at rotation. An index can only be built for a segment which has been written from its first entry in
+ * this process; for other segments positions are recorded up to the first gap and no index is persisted.
+ *
+ * The on-disk format is: version, prevIndex, stride, entryCount, positionCount, followed by the positions.
+ */
+class SegmentIndex
+{
+    static final int STRIDE = 16;
+
+    private long[] positions;
+    private int positionCount;
+    private long entryCount;
+    private boolean complete;
+
+    /**
+     * @param complete true if the segment has no entries yet, so that every entry will pass through this index.
+     */
+    SegmentIndex( boolean complete )
+    {
+        this( new long[64], 0, 0, complete );
+    }
+
+    private SegmentIndex( long[] positions, int positionCount, long entryCount, boolean complete )
+    {
+        this.positions = positions;
+        this.positionCount = positionCount;
+        this.entryCount = entryCount;
+        this.complete = complete;
+    }
+
+    /**
+     * Must be called before writing every entry of the segment.
+     *
+     * @param offsetIndex the relative index of the entry about to be written.
+     * @return true if the byte offset of the entry should be {@link #record(long) recorded}.
+     */
+    synchronized boolean beforeWrite( long offsetIndex )
+    {
+        if ( offsetIndex != entryCount )
+        {
+            complete = false;
+        }
+        entryCount++;
+        return complete && offsetIndex % STRIDE == 0;
+    }
+
+    synchronized void record( long byteOffset )
+    {
+        if ( positionCount == positions.length )
+        {
+            positions = Arrays.copyOf( positions, positions.length * 2 );
+        }
+        positions[positionCount++] = byteOffset;
+    }
+
+    /**
+     * @param offsetIndex The relative index.
+     * @return The indexed position at or before the searched offsetIndex, or null if nothing has been indexed.
+     */
+    synchronized LogPosition lookup( long offsetIndex )
+    {
+        if ( positionCount == 0 )
+        {
+            return null;
+        }
+        int slot = (int) min( offsetIndex / STRIDE, positionCount - 1 );
+        return new LogPosition( (long) slot * STRIDE, positions[slot] );
+    }
+
+    synchronized boolean isComplete()
+    {
+        return complete;
+    }
+
+    synchronized void write( FileSystemAbstraction fileSystem, File indexFile, SegmentHeader header ) throws IOException
+    {
+        fileSystem.deleteFile( indexFile );
+        try ( StoreChannel channel = fileSystem.create( indexFile ) )
+        {
+            PhysicalFlushableChannel writer = new PhysicalFlushableChannel( channel );
+            writer.putLong( header.version() );
+            writer.putLong( header.prevIndex() );
+            writer.putInt( STRIDE );
+            writer.putLong( entryCount );
+            writer.putInt( positionCount );
+            for ( int i = 0; i < positionCount; i++ )
+            {
+                writer.putLong( positions[i] );
+            }
+            writer.prepareForFlush().flush();
+        }
+    }
+
+    /**
+     * Loads a persisted index, validating it against the segment it belongs to.
+     *
+     * @return the index, or null if there is no index or it does not describe the segment.
+     */
+    static SegmentIndex read( FileSystemAbstraction fileSystem, File indexFile, SegmentHeader header, long segmentSize ) throws IOException
+    {
+        if ( !fileSystem.fileExists( indexFile ) )
+        {
+            return null;
+        }
+
+        try ( ReadAheadChannel<StoreChannel> reader = new ReadAheadChannel<>( fileSystem.open( indexFile, OpenMode.READ ) ) )
+        {
+            long version = reader.getLong();
+            long prevIndex = reader.getLong();
+            int stride = reader.getInt();
+            long entryCount = reader.getLong();
+            int positionCount = reader.getInt();
+
+            if ( version != header.version() || prevIndex != header.prevIndex() || stride != STRIDE || positionCount < 0 ||
+                 positionCount != (entryCount + STRIDE - 1) / STRIDE )
+            {
+                return null;
+            }
+
+            long[] positions = new long[max( positionCount, 1 )];
+            long previous = SegmentHeader.SIZE - 1;
+            for ( int i = 0; i < positionCount; i++ )
+            {
+                positions[i] = reader.getLong();
+                if ( positions[i] <= previous || positions[i] >= segmentSize || (i == 0 && positions[i] != SegmentHeader.SIZE) )
+                {
+                    return null;
+                }
+                previous = positions[i];
+            }
+            return new SegmentIndex( positions, positionCount, entryCount, true );
+        }
+        catch ( ReadPastEndException e )
+        {
+            return null;
+        }
+    }
+}
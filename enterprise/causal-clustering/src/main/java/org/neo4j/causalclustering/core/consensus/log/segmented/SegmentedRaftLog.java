@@ -188,19 +188,19 @@ public class SegmentedRaftLog extends LifecycleAdapter implements RaftLog
 
     private void rotateSegment( long prevFileLastIndex, long prevIndex, long prevTerm ) throws IOException
     {
-        state.segments.last().closeWriter();
+        state.segments.last().seal();
         state.segments.rotate( prevFileLastIndex, prevIndex, prevTerm );
     }
 
     private void truncateSegment( long prevFileLastIndex, long prevIndex, long prevTerm ) throws IOException
     {
-        state.segments.last().closeWriter();
+        state.segments.last().seal();
         state.segments.truncate( prevFileLastIndex, prevIndex, prevTerm );
     }
 
     private void skipSegment( long prevFileLastIndex, long prevIndex, long prevTerm ) throws IOException
     {
-        state.segments.last().closeWriter();
+        state.segments.last().seal();
         state.segments.skip( prevFileLastIndex, prevIndex, prevTerm );
     }
 
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.neo4j.causalclustering.messaging.marshalling.CoreReplicatedContentMarshal;
+import org.neo4j.causalclustering.messaging.marshalling.NewEntryBatchSplitter;
 import org.neo4j.causalclustering.messaging.marshalling.v1.RaftMessageEncoder;
 import org.neo4j.causalclustering.protocol.ModifierProtocolInstaller;
 import org.neo4j.causalclustering.protocol.NettyPipelineBuilderFactory;
@@ -70,6 +71,7 @@ public class RaftProtocolClientInstallerV1 implements ProtocolInstaller<Orientat
                 .modify( modifiers )
                 .addFraming()
                 .add( "raft_encoder", new RaftMessageEncoder( CoreReplicatedContentMarshal.marshaller() ) )
+                .add( "raft_new_entry_batch_splitter", new NewEntryBatchSplitter() )
                 .install();
     }
 
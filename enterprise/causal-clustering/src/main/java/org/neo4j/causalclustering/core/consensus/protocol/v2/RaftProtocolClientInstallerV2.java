@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.neo4j.causalclustering.messaging.marshalling.CoreReplicatedContentMarshal;
+import org.neo4j.causalclustering.messaging.marshalling.NewEntryBatchSplitter;
 import org.neo4j.causalclustering.messaging.marshalling.v2.encoding.ContentTypeEncoder;
 import org.neo4j.causalclustering.messaging.marshalling.v2.encoding.RaftMessageContentEncoder;
 import org.neo4j.causalclustering.messaging.marshalling.v2.encoding.RaftMessageEncoder;
@@ -76,6 +77,7 @@ public class RaftProtocolClientInstallerV2 implements ProtocolInstaller<Orientat
                 .add( "raft_content_type_encoder", new ContentTypeEncoder() )
                 .add( "raft_chunked_writer", new ChunkedWriteHandler(  ) )
                 .add( "raft_message_content_encoder", new RaftMessageContentEncoder( CoreReplicatedContentMarshal.codec() ) )
+                .add( "raft_new_entry_batch_splitter", new NewEntryBatchSplitter() )
                 .install();
     }
 
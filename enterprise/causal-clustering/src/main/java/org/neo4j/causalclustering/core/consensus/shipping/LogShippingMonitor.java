@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.consensus.shipping;
+
+import org.neo4j.causalclustering.identity.MemberId;
+
+/**
+ * Observes the log shipping of a leader to each of its followers.
+ */
+public interface LogShippingMonitor
+{
+    LogShippingMonitor VOID = new LogShippingMonitor()
+    {
+        @Override
+        public void shipped( MemberId follower, int entryCount, long bytes )
+        {
+        }
+
+        @Override
+        public void lag( MemberId follower, long entryCount )
+        {
+        }
+
+        @Override
+        public void stopped( MemberId follower )
+        {
+        }
+    };
+
+    /**
+     * Entries were sent to the follower. Bytes are counted for the entries whose size is known.
+     */
+    void shipped( MemberId follower, int entryCount, long bytes );
+
+    /**
+     * The follower acknowledged entries and now lags the given number of entries behind the leader's log.
+     */
+    void lag( MemberId follower, long entryCount );
+
+    /**
+     * Log shipping to the follower stopped, because this member stepped down or the follower left.
+     */
+    void stopped( MemberId follower );
+}
@@ -24,6 +24,9 @@ package org.neo4j.causalclustering.core.consensus.shipping;
 
 import java.io.IOException;
 import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 
 import org.neo4j.causalclustering.core.consensus.LeaderContext;
 import org.neo4j.causalclustering.core.consensus.RaftMessages;
@@ -50,9 +53,7 @@ import static org.neo4j.causalclustering.core.consensus.shipping.RaftLogShipper.
 import static org.neo4j.causalclustering.core.consensus.shipping.RaftLogShipper.Timeouts.RESEND;
 
 /// Optimizations
-// TODO: Have several outstanding batches in catchup mode, to bridge the latency gap.
 // TODO: Bisect search for mismatch.
-// TODO: Maximum bound on size of batch in bytes, not just entry count.
 
 // Production ready
 
@@ -82,8 +83,9 @@ public class RaftLogShipper
         MISMATCH,
         /**
          * In the catchup mode we are trying to catch up the follower as quickly
-         * as possible. The follower receives batches of entries in series until
-         * it is fully caught up.
+         * as possible. The follower receives batches of entries until it is fully
+         * caught up. Several batches can be outstanding at a time, bounded both
+         * in count and in bytes, to bridge the round trip time to the follower.
          */
         CATCHUP,
         /**
@@ -108,7 +110,11 @@ public class RaftLogShipper
     private final long retryTimeMillis;
     private final int catchupBatchSize;
     private final int maxAllowedShippingLag;
+    private final int maxOutstandingBatches;
+    private final long maxOutstandingBytes;
     private final InFlightCache inFlightCache;
+    private final LogShippingMonitor monitor;
+    private final Deque<Batch> outstandingBatches = new ArrayDeque<>();
 
     private TimerService timerService;
     private Timer timer;
@@ -117,16 +123,30 @@ public class RaftLogShipper
     private long matchIndex = -1;
     private LeaderContext lastLeaderContext;
     private Mode mode = Mode.MISMATCH;
+    private long outstandingBytes;
 
     RaftLogShipper( Outbound<MemberId, RaftMessages.RaftMessage> outbound, LogProvider logProvider,
                     ReadableRaftLog raftLog, Clock clock, TimerService timerService,
                     MemberId leader, MemberId follower, long leaderTerm, long leaderCommit, long retryTimeMillis,
                     int catchupBatchSize, int maxAllowedShippingLag, InFlightCache inFlightCache )
+    {
+        this( outbound, logProvider, raftLog, clock, timerService, leader, follower, leaderTerm, leaderCommit, retryTimeMillis, catchupBatchSize,
+                maxAllowedShippingLag, 1, Long.MAX_VALUE, inFlightCache, LogShippingMonitor.VOID );
+    }
+
+    RaftLogShipper( Outbound<MemberId, RaftMessages.RaftMessage> outbound, LogProvider logProvider,
+                    ReadableRaftLog raftLog, Clock clock, TimerService timerService,
+                    MemberId leader, MemberId follower, long leaderTerm, long leaderCommit, long retryTimeMillis,
+                    int catchupBatchSize, int maxAllowedShippingLag, int maxOutstandingBatches, long maxOutstandingBytes,
+                    InFlightCache inFlightCache, LogShippingMonitor monitor )
     {
         this.outbound = outbound;
         this.timerService = timerService;
         this.catchupBatchSize = catchupBatchSize;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
+        this.maxOutstandingBatches = maxOutstandingBatches;
+        this.maxOutstandingBytes = maxOutstandingBytes;
+        this.monitor = monitor;
         this.log = logProvider.getLog( getClass() );
         this.raftLog = raftLog;
         this.clock = clock;
@@ -142,6 +162,11 @@ public class RaftLogShipper
         return follower;
     }
 
+    synchronized long matchIndex()
+    {
+        return matchIndex;
+    }
+
     public synchronized void start()
     {
         log.info( "Starting log shipper: %s", statusAsString() );
@@ -152,6 +177,7 @@ public class RaftLogShipper
     {
         log.info( "Stopping log shipper %s", statusAsString() );
         abortTimeout();
+        monitor.stopped( follower );
     }
 
     public synchronized void onMismatch( long lastRemoteAppendIndex, LeaderContext leaderContext )
@@ -167,7 +193,12 @@ public class RaftLogShipper
                 log.info( "%s: mismatch in mode %s from follower %s, moving to MISMATCH mode",
                         statusAsString(), mode, follower );
                 mode = Mode.MISMATCH;
-                sendEmpty( lastSentIndex, leaderContext );
+                /* With several batches outstanding the last sent entry can be far ahead of the follower, so
+                 * rewind to what the follower has, as the responses to the later batches are mismatches too. */
+                long rewindIndex = outstandingBatches.isEmpty() ? lastSentIndex
+                                                                : min( lastSentIndex, max( matchIndex, lastRemoteAppendIndex ) + 1 );
+                clearOutstandingBatches();
+                sendEmpty( rewindIndex, leaderContext );
                 break;
 
             default:
@@ -188,10 +219,13 @@ public class RaftLogShipper
         {
             log.warn( "%s: match index not progressing. This should be transient.", statusAsString() );
         }
+        releaseAcknowledgedBatches();
+        monitor.lag( follower, max( raftLog.appendIndex() - matchIndex, 0 ) );
 
         switch ( mode )
         {
             case MISMATCH:
+                clearOutstandingBatches();
                 if ( sendNextBatchAfterMatch( leaderContext ) )
                 {
                     log.info( "%s: caught up after mismatch, moving to PIPELINE mode", statusAsString() );
@@ -204,7 +238,7 @@ public class RaftLogShipper
                 }
                 break;
             case CATCHUP:
-                if ( matchIndex >= lastSentIndex )
+                if ( matchIndex >= lastSentIndex || (!outstandingBatches.isEmpty() && hasRoomForBatch()) )
                 {
                     if ( sendNextBatchAfterMatch( leaderContext ) )
                     {
@@ -312,6 +346,7 @@ public class RaftLogShipper
              * on the next match. */
             log.info( "%s: timed out, moving to MISMATCH mode", statusAsString() );
             mode = Mode.MISMATCH;
+            clearOutstandingBatches();
         }
 
         if ( lastLeaderContext != null )
@@ -354,26 +389,53 @@ public class RaftLogShipper
     }
 
     /**
+     * Sends batches following the match index, or following the outstanding batches, for as long as the number
+     * and the size of outstanding batches allow.
+     *
      * Returns true if this sent the last batch.
      */
     private boolean sendNextBatchAfterMatch( LeaderContext leaderContext )
     {
         long lastIndex = raftLog.appendIndex();
+        long nextIndex = (outstandingBatches.isEmpty() ? matchIndex : max( matchIndex, lastSentIndex )) + 1;
 
-        if ( lastIndex > matchIndex )
+        if ( lastIndex < nextIndex )
         {
-            long endIndex = min( lastIndex, matchIndex + catchupBatchSize );
+            return true;
+        }
 
-            scheduleTimeout( retryTimeMillis );
-            sendRange( matchIndex + 1, endIndex, leaderContext );
-            return endIndex == lastIndex;
+        scheduleTimeout( retryTimeMillis );
+        while ( nextIndex <= lastIndex && hasRoomForBatch() )
+        {
+            long endIndex = min( lastIndex, nextIndex + catchupBatchSize - 1 );
+            if ( !sendRange( nextIndex, endIndex, leaderContext ) )
+            {
+                return endIndex == lastIndex;
+            }
+            nextIndex = lastSentIndex + 1;
         }
-        else
+        return nextIndex > lastIndex;
+    }
+
+    private boolean hasRoomForBatch()
+    {
+        return outstandingBatches.size() < maxOutstandingBatches && outstandingBytes < maxOutstandingBytes;
+    }
+
+    private void releaseAcknowledgedBatches()
+    {
+        while ( !outstandingBatches.isEmpty() && outstandingBatches.peekFirst().endIndex <= matchIndex )
         {
-            return true;
+            outstandingBytes -= outstandingBatches.pollFirst().bytes;
         }
     }
 
+    private void clearOutstandingBatches()
+    {
+        outstandingBatches.clear();
+        outstandingBytes = 0;
+    }
+
     private void sendCommitUpdate( LeaderContext leaderContext )
     {
         /*
@@ -400,6 +462,7 @@ public class RaftLogShipper
         );
 
         outbound.send( follower, appendRequest );
+        monitor.shipped( follower, newEntries.length, sizeOf( newEntries ) );
     }
 
     private void sendEmpty( long logIndex, LeaderContext leaderContext )
@@ -438,11 +501,17 @@ public class RaftLogShipper
         }
     }
 
-    private void sendRange( long startIndex, long endIndex, LeaderContext leaderContext )
+    /**
+     * Sends the entries of the given range, or of as much of its start as fits into the bytes left for
+     * outstanding batches. At least one entry is sent.
+     *
+     * Returns true if a batch of entries was sent.
+     */
+    private boolean sendRange( long startIndex, long endIndex, LeaderContext leaderContext )
     {
         if ( startIndex > endIndex )
         {
-            return;
+            return false;
         }
 
         lastSentIndex = endIndex;
@@ -451,6 +520,7 @@ public class RaftLogShipper
         {
             int batchSize = (int) (endIndex - startIndex + 1);
             RaftLogEntry[] entries = new RaftLogEntry[batchSize];
+            long batchBytes = 0;
 
             long prevLogIndex = startIndex - 1;
             long prevLogTerm = raftLog.readEntryTerm( prevLogIndex );
@@ -459,7 +529,7 @@ public class RaftLogShipper
             {
                 log.warn( "%s aborting send. Not leader anymore? %s, prevLogTerm=%d",
                         statusAsString(), leaderContext, prevLogTerm );
-                return;
+                return false;
             }
 
             boolean entryMissing = false;
@@ -477,7 +547,15 @@ public class RaftLogShipper
                     {
                         log.warn( "%s aborting send. Not leader anymore? %s, entryTerm=%d",
                                 statusAsString(), leaderContext, entries[offset].term() );
-                        return;
+                        return false;
+                    }
+                    batchBytes += sizeOf( entries[offset] );
+                    if ( offset + 1 < batchSize && outstandingBytes + batchBytes >= maxOutstandingBytes )
+                    {
+                        // cut the batch short, the remaining entries are sent once the follower has acknowledged some
+                        entries = Arrays.copyOf( entries, offset + 1 );
+                        batchSize = entries.length;
+                        lastSentIndex = startIndex + offset;
                     }
                 }
             }
@@ -493,21 +571,40 @@ public class RaftLogShipper
                     log.error( "%s: Could not send compaction info and entries were missing, but log is not behind.",
                             statusAsString() );
                 }
+                return false;
             }
-            else
-            {
-                RaftMessages.AppendEntries.Request appendRequest = new RaftMessages.AppendEntries.Request(
-                        leader, leaderContext.term, prevLogIndex, prevLogTerm, entries, leaderContext.commitIndex );
 
-                outbound.send( follower, appendRequest );
-            }
+            RaftMessages.AppendEntries.Request appendRequest = new RaftMessages.AppendEntries.Request(
+                    leader, leaderContext.term, prevLogIndex, prevLogTerm, entries, leaderContext.commitIndex );
+
+            outbound.send( follower, appendRequest );
+            outstandingBatches.addLast( new Batch( lastSentIndex, batchBytes ) );
+            outstandingBytes += batchBytes;
+            monitor.shipped( follower, entries.length, batchBytes );
+            return true;
         }
         catch ( IOException e )
         {
             log.warn( statusAsString() + " exception during batch send", e );
+            return false;
         }
     }
 
+    private static long sizeOf( RaftLogEntry[] entries )
+    {
+        long bytes = 0;
+        for ( RaftLogEntry entry : entries )
+        {
+            bytes += sizeOf( entry );
+        }
+        return bytes;
+    }
+
+    private static long sizeOf( RaftLogEntry entry )
+    {
+        return entry.content().size().orElse( 0L );
+    }
+
     private boolean doesNotExistInLog( long logIndex, long logTerm )
     {
         return logTerm == -1 && logIndex != -1;
@@ -522,6 +619,18 @@ public class RaftLogShipper
                 leader, leaderContext.term, raftLog.prevIndex() ) );
     }
 
+    private static class Batch
+    {
+        private final long endIndex;
+        private final long bytes;
+
+        Batch( long endIndex, long bytes )
+        {
+            this.endIndex = endIndex;
+            this.bytes = bytes;
+        }
+    }
+
     private String statusAsString()
     {
         return format( "%s[matchIndex: %d, lastSentIndex: %d, localAppendIndex: %d, mode: %s]", follower, matchIndex,
@@ -39,6 +39,7 @@ import org.neo4j.causalclustering.messaging.Outbound;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.LogProvider;
 
+import static java.lang.Math.min;
 import static java.lang.String.format;
 
 public class RaftLogShippingManager extends LifecycleAdapter implements RaftMembership.Listener
@@ -53,7 +54,10 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
     private final long retryTimeMillis;
     private final int catchupBatchSize;
     private final int maxAllowedShippingLag;
+    private final int maxOutstandingBatches;
+    private final long maxOutstandingBytes;
     private final InFlightCache inFlightCache;
+    private final LogShippingMonitor monitor;
 
     private Map<MemberId,RaftLogShipper> logShippers = new HashMap<>();
     private LeaderContext lastLeaderContext;
@@ -67,6 +71,17 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
                                    Clock clock, MemberId myself, RaftMembership membership, long retryTimeMillis,
                                    int catchupBatchSize, int maxAllowedShippingLag,
                                    InFlightCache inFlightCache )
+    {
+        this( outbound, logProvider, raftLog, timerService, clock, myself, membership, retryTimeMillis, catchupBatchSize,
+                maxAllowedShippingLag, 1, Long.MAX_VALUE, inFlightCache, LogShippingMonitor.VOID );
+    }
+
+    public RaftLogShippingManager( Outbound<MemberId,RaftMessages.RaftMessage> outbound, LogProvider logProvider,
+                                   ReadableRaftLog raftLog, TimerService timerService,
+                                   Clock clock, MemberId myself, RaftMembership membership, long retryTimeMillis,
+                                   int catchupBatchSize, int maxAllowedShippingLag,
+                                   int maxOutstandingBatches, long maxOutstandingBytes,
+                                   InFlightCache inFlightCache, LogShippingMonitor monitor )
     {
         this.outbound = outbound;
         this.logProvider = logProvider;
@@ -78,7 +93,10 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
         this.retryTimeMillis = retryTimeMillis;
         this.catchupBatchSize = catchupBatchSize;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
+        this.maxOutstandingBatches = maxOutstandingBatches;
+        this.maxOutstandingBytes = maxOutstandingBytes;
         this.inFlightCache = inFlightCache;
+        this.monitor = monitor;
         membership.registerListener( this );
     }
 
@@ -91,6 +109,7 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
 
         logShippers.values().forEach( RaftLogShipper::stop );
         logShippers.clear();
+        updateFollowersMatchedUpTo();
     }
 
     /**
@@ -109,6 +128,7 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
         {
             ensureLogShipperRunning( member, initialLeaderContext );
         }
+        updateFollowersMatchedUpTo();
 
         lastLeaderContext = initialLeaderContext;
     }
@@ -127,7 +147,7 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
         {
             logShipper = new RaftLogShipper( outbound, logProvider, raftLog, clock, timerService, myself, member,
                     leaderContext.term, leaderContext.commitIndex, retryTimeMillis, catchupBatchSize,
-                    maxAllowedShippingLag, inFlightCache );
+                    maxAllowedShippingLag, maxOutstandingBatches, maxOutstandingBytes, inFlightCache, monitor );
 
             logShippers.put( member, logShipper );
 
@@ -144,6 +164,7 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
                 shipCommand.applyTo( logShipper, leaderContext );
             }
         }
+        updateFollowersMatchedUpTo();
 
         lastLeaderContext = leaderContext;
     }
@@ -172,6 +193,20 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
         {
             ensureLogShipperRunning( replicationMember, lastLeaderContext );
         }
+        updateFollowersMatchedUpTo();
+    }
+
+    /**
+     * Lets the in-flight cache hold on to the entries that the slowest follower has not matched yet.
+     */
+    private void updateFollowersMatchedUpTo()
+    {
+        long slowestMatchIndex = Long.MAX_VALUE;
+        for ( RaftLogShipper logShipper : logShippers.values() )
+        {
+            slowestMatchIndex = min( slowestMatchIndex, logShipper.matchIndex() );
+        }
+        inFlightCache.followersMatchedUpTo( slowestMatchIndex );
     }
 
     @Override
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.causalclustering.core.consensus.RaftMessages;
+import org.neo4j.causalclustering.identity.MemberId;
+import org.neo4j.causalclustering.messaging.Outbound;
+
+/**
+ * Coalesces concurrently replicated operations into batches which are sent to the leader together.
+ *
+ * This is group commit: the replicating thread holding the send lock sends everything queued, up to the
+ * batch limits, while operations submitted in the meantime queue up and go out together with the next send.
+ * Nothing waits for a batch to fill up, so an operation replicated on its own is sent straight away.
+ */
+class NewEntryBatcher
+{
+    private final MemberId me;
+    private final Outbound<MemberId,RaftMessages.RaftMessage> outbound;
+    private final int maxBatchCount;
+    private final long maxBatchBytes;
+
+    private final Queue<PendingEntry> pending = new ConcurrentLinkedQueue<>();
+    private final Lock sendLock = new ReentrantLock();
+
+    NewEntryBatcher( MemberId me, Outbound<MemberId,RaftMessages.RaftMessage> outbound, int maxBatchCount, long maxBatchBytes )
+    {
+        this.me = me;
+        this.outbound = outbound;
+        this.maxBatchCount = maxBatchCount;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * Sends the operation to the leader, blocking until the send of the batch it ended up in has succeeded or failed.
+     */
+    void send( MemberId leader, DistributedOperation operation )
+    {
+        PendingEntry entry = new PendingEntry( leader, operation );
+        pending.add( entry );
+
+        sendLock.lock();
+        try
+        {
+            // a previous holder of the lock might already have sent our entry as part of its batch
+            while ( !entry.sent )
+            {
+                sendNextBatch();
+            }
+        }
+        finally
+        {
+            sendLock.unlock();
+        }
+    }
+
+    private void sendNextBatch()
+    {
+        // entries are only removed while holding the lock and marked as sent before it is released,
+        // so the entry of the current holder is still queued and the queue cannot be empty here
+        PendingEntry first = pending.poll();
+        List<PendingEntry> batch = new ArrayList<>();
+        batch.add( first );
+        long batchBytes = first.operation.size().orElse( 0L );
+
+        while ( batch.size() < maxBatchCount )
+        {
+            PendingEntry next = pending.peek();
+            if ( next == null || !next.leader.equals( first.leader ) )
+            {
+                break;
+            }
+
+            long entryBytes = next.operation.size().orElse( 0L );
+            if ( batchBytes + entryBytes > maxBatchBytes )
+            {
+                break;
+            }
+
+            pending.poll();
+            batch.add( next );
+            batchBytes += entryBytes;
+        }
+
+        try
+        {
+            outbound.send( first.leader, newEntry( batch ), true );
+        }
+        finally
+        {
+            for ( PendingEntry entry : batch )
+            {
+                entry.sent = true;
+            }
+        }
+    }
+
+    private RaftMessages.RaftMessage newEntry( List<PendingEntry> batch )
+    {
+        if ( batch.size() == 1 )
+        {
+            return new RaftMessages.NewEntry.Request( me, batch.get( 0 ).operation );
+        }
+
+        List<ReplicatedContent> contents = new ArrayList<>( batch.size() );
+        for ( PendingEntry entry : batch )
+        {
+            contents.add( entry.operation );
+        }
+        return new RaftMessages.NewEntry.BatchRequest( me, contents );
+    }
+
+    private static class PendingEntry
+    {
+        private final MemberId leader;
+        private final DistributedOperation operation;
+        private boolean sent; // guarded by the send lock
+
+        PendingEntry( MemberId leader, DistributedOperation operation )
+        {
+            this.leader = leader;
+            this.operation = operation;
+        }
+    }
+}
@@ -44,11 +44,11 @@ import org.neo4j.logging.LogProvider;
 
 /**
  * A replicator implementation suitable in a RAFT context. Will handle resending due to timeouts and leader switches.
+ * Operations replicated concurrently are sent to the leader in batches, but their progress is tracked individually.
  */
 public class RaftReplicator implements Replicator, LeaderListener
 {
-    private final MemberId me;
-    private final Outbound<MemberId,RaftMessages.RaftMessage> outbound;
+    private final NewEntryBatcher newEntryBatcher;
     private final ProgressTracker progressTracker;
     private final LocalSessionPool sessionPool;
     private final TimeoutStrategy progressTimeoutStrategy;
@@ -61,10 +61,9 @@ public class RaftReplicator implements Replicator, LeaderListener
 
     public RaftReplicator( LeaderLocator leaderLocator, MemberId me, Outbound<MemberId,RaftMessages.RaftMessage> outbound, LocalSessionPool sessionPool,
             ProgressTracker progressTracker, TimeoutStrategy progressTimeoutStrategy, long availabilityTimeoutMillis, AvailabilityGuard availabilityGuard,
-            LogProvider logProvider, LocalDatabase localDatabase, Monitors monitors )
+            LogProvider logProvider, LocalDatabase localDatabase, Monitors monitors, int maxBatchCount, long maxBatchBytes )
     {
-        this.me = me;
-        this.outbound = outbound;
+        this.newEntryBatcher = new NewEntryBatcher( me, outbound, maxBatchCount, maxBatchBytes );
         this.progressTracker = progressTracker;
         this.sessionPool = sessionPool;
         this.progressTimeoutStrategy = progressTimeoutStrategy;
@@ -112,7 +111,7 @@ public class RaftReplicator implements Replicator, LeaderListener
                     replicationMonitor.replicationAttempt();
                     assertDatabaseAvailable();
                     // blocking at least until the send has succeeded or failed before retrying
-                    outbound.send( leader, new RaftMessages.NewEntry.Request( me, operation ), true );
+                    newEntryBatcher.send( leader, operation );
                     progress.awaitReplication( progressTimeout.getMillis() );
                     if ( progress.isReplicated() )
                     {
@@ -157,6 +157,7 @@ public class CoreServerModule
                 consensusModule.raftLog(),
                 platformModule.config.get( CausalClusteringSettings.state_machine_apply_max_batch_size ),
                 platformModule.config.get( CausalClusteringSettings.state_machine_flush_window_size ),
+                platformModule.config.get( CausalClusteringSettings.state_machine_apply_prefetch_size ),
                 databaseHealthSupplier,
                 logProvider,
                 replicationModule.getProgressTracker(),
@@ -198,6 +199,7 @@ public class CoreServerModule
                 .debugLogProvider( logProvider )
                 .listenAddress( config.get( transaction_listen_address ) )
                 .serverName( "catchup-server" )
+                .monitors( platformModule.monitors )
                 .build();
 
         TransactionBackupServiceProvider transactionBackupServiceProvider =
@@ -229,7 +231,7 @@ public class CoreServerModule
         Duration handshakeTimeout = config.get( CausalClusteringSettings.handshake_timeout );
 
         CatchUpClient catchUpClient = new CatchupClientBuilder( supportedCatchupProtocols, supportedModifierProtocols, clientPipelineBuilderFactory,
-                handshakeTimeout, logProvider, userLogProvider, systemClock() ).build();
+                handshakeTimeout, logProvider, userLogProvider, systemClock() ).monitors( platformModule.monitors ).build();
         platformModule.life.add( catchUpClient );
         return catchUpClient;
     }
@@ -240,7 +242,8 @@ public class CoreServerModule
                 new ExponentialBackoffStrategy( 1, config.get( CausalClusteringSettings.store_copy_backoff_max_wait ).toMillis(), TimeUnit.MILLISECONDS );
 
         RemoteStore remoteStore = new RemoteStore( logProvider, platformModule.fileSystem, platformModule.pageCache,
-                new StoreCopyClient( catchUpClient, platformModule.monitors, logProvider, storeCopyBackoffStrategy ),
+                new StoreCopyClient( catchUpClient, platformModule.monitors, logProvider, storeCopyBackoffStrategy,
+                        config.get( CausalClusteringSettings.store_copy_parallelism ) ),
                 new TxPullClient( catchUpClient, platformModule.monitors ), new TransactionLogCatchUpFactory(), config, platformModule.monitors );
 
         CopiedStoreRecovery copiedStoreRecovery = platformModule.life.add(
@@ -24,12 +24,16 @@ package org.neo4j.causalclustering.core.state;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Supplier;
 
 import org.neo4j.causalclustering.SessionTracker;
 import org.neo4j.causalclustering.core.consensus.log.RaftLog;
 import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
 import org.neo4j.causalclustering.core.consensus.log.cache.InFlightCache;
+import org.neo4j.causalclustering.core.consensus.log.monitoring.RaftLogAppliedIndexMonitor;
 import org.neo4j.causalclustering.core.consensus.log.monitoring.RaftLogCommitIndexMonitor;
 import org.neo4j.causalclustering.core.replication.DistributedOperation;
 import org.neo4j.causalclustering.core.replication.ProgressTracker;
@@ -37,6 +41,7 @@ import org.neo4j.causalclustering.core.state.machines.tx.CoreReplicatedContent;
 import org.neo4j.causalclustering.core.state.snapshot.CoreSnapshot;
 import org.neo4j.causalclustering.helper.StatUtil;
 import org.neo4j.function.ThrowingAction;
+import org.neo4j.function.ThrowingLongFunction;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.Log;
@@ -44,12 +49,16 @@ import org.neo4j.logging.LogProvider;
 
 import static java.lang.Math.max;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
 
 public class CommandApplicationProcess
 {
     private static final long NOTHING = -1;
     private final RaftLog raftLog;
     private final int flushEvery;
+    private final int prefetchSize;
     private final ProgressTracker progressTracker;
     private final SessionTracker sessionTracker;
     private final Supplier<DatabaseHealth> dbHealth;
@@ -57,6 +66,8 @@ public class CommandApplicationProcess
     private final Log log;
     private final CoreState coreState;
     private final RaftLogCommitIndexMonitor commitIndexMonitor;
+    private final RaftLogAppliedIndexMonitor appliedIndexMonitor;
+    private ExecutorService prefetchExecutor;
     private final CommandBatcher batcher;
     private final StatUtil.StatContext batchStat;
 
@@ -69,6 +80,7 @@ public class CommandApplicationProcess
             RaftLog raftLog,
             int maxBatchSize,
             int flushEvery,
+            int prefetchSize,
             Supplier<DatabaseHealth> dbHealth,
             LogProvider logProvider,
             ProgressTracker progressTracker,
@@ -79,6 +91,7 @@ public class CommandApplicationProcess
     {
         this.raftLog = raftLog;
         this.flushEvery = flushEvery;
+        this.prefetchSize = prefetchSize;
         this.progressTracker = progressTracker;
         this.sessionTracker = sessionTracker;
         this.log = logProvider.getLog( getClass() );
@@ -86,6 +99,7 @@ public class CommandApplicationProcess
         this.coreState = coreState;
         this.inFlightCache = inFlightCache;
         this.commitIndexMonitor = monitors.newMonitor( RaftLogCommitIndexMonitor.class, getClass().getName() );
+        this.appliedIndexMonitor = monitors.newMonitor( RaftLogAppliedIndexMonitor.class, getClass().getName() );
         this.batcher = new CommandBatcher( maxBatchSize, this::applyBatch );
         this.batchStat = StatUtil.create( "BatchSize", log, 4096, true );
     }
@@ -166,33 +180,55 @@ public class CommandApplicationProcess
         }
     }
 
+    /**
+     * Entries are read and decoded ahead of the application on a separate thread when there is more than one of them, see
+     * {@link CommandPrefetcher}. The application itself stays sequential, since the transactions are committed in log order.
+     */
     private void applyUpTo( long applyUpToIndex ) throws Exception
     {
-        try ( InFlightLogEntryReader logEntrySupplier = new InFlightLogEntryReader( raftLog, inFlightCache, true ) )
+        long firstIndex = applierState.lastApplied + 1;
+        if ( prefetchSize > 0 && applyUpToIndex > firstIndex )
         {
-            for ( long logIndex = applierState.lastApplied + 1; applierState.keepRunning && logIndex <= applyUpToIndex; logIndex++ )
+            try ( CommandPrefetcher prefetcher = new CommandPrefetcher( raftLog, inFlightCache, prefetchExecutor, prefetchSize, firstIndex,
+                    applyUpToIndex ) )
             {
-                RaftLogEntry entry = logEntrySupplier.get( logIndex );
-                if ( entry == null )
-                {
-                    throw new IllegalStateException( format( "Committed log entry at index %d must exist.", logIndex ) );
-                }
+                applyUpTo( applyUpToIndex, prefetcher::get );
+            }
+        }
+        else
+        {
+            try ( InFlightLogEntryReader logEntrySupplier = new InFlightLogEntryReader( raftLog, inFlightCache, true ) )
+            {
+                applyUpTo( applyUpToIndex, logEntrySupplier::get );
+            }
+        }
+    }
 
-                if ( entry.content() instanceof DistributedOperation )
-                {
-                    DistributedOperation distributedOperation = (DistributedOperation) entry.content();
-                    progressTracker.trackReplication( distributedOperation );
-                    batcher.add( logIndex, distributedOperation );
-                }
-                else
-                {
-                    batcher.flush();
-                    // since this last entry didn't get in the batcher we need to update the lastApplied:
-                    applierState.lastApplied = logIndex;
-                }
+    private void applyUpTo( long applyUpToIndex, ThrowingLongFunction<RaftLogEntry,IOException> logEntrySupplier ) throws Exception
+    {
+        for ( long logIndex = applierState.lastApplied + 1; applierState.keepRunning && logIndex <= applyUpToIndex; logIndex++ )
+        {
+            RaftLogEntry entry = logEntrySupplier.apply( logIndex );
+            if ( entry == null )
+            {
+                throw new IllegalStateException( format( "Committed log entry at index %d must exist.", logIndex ) );
+            }
+
+            if ( entry.content() instanceof DistributedOperation )
+            {
+                DistributedOperation distributedOperation = (DistributedOperation) entry.content();
+                progressTracker.trackReplication( distributedOperation );
+                batcher.add( logIndex, distributedOperation );
+            }
+            else
+            {
+                batcher.flush();
+                // since this last entry didn't get in the batcher we need to update the lastApplied:
+                applierState.lastApplied = logIndex;
+                appliedIndexMonitor.appliedIndex( logIndex );
             }
-            batcher.flush();
         }
+        batcher.flush();
     }
 
     public long lastApplied()
@@ -229,6 +265,7 @@ public class CommandApplicationProcess
         long lastHandledIndex = handleOperations( startIndex, batch );
         assert lastHandledIndex == lastIndex;
         applierState.lastApplied = lastIndex;
+        appliedIndexMonitor.appliedIndex( lastIndex );
 
         maybeFlushToDisk();
     }
@@ -280,6 +317,10 @@ public class CommandApplicationProcess
         log.info( format( "Restoring last applied index to %d", lastFlushed ) );
         sessionTracker.start();
 
+        ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor( 1, 1, 60, SECONDS, new LinkedBlockingQueue<>(), daemon( "core-state-prefetcher" ) );
+        prefetchExecutor.allowCoreThreadTimeOut( true );
+        this.prefetchExecutor = prefetchExecutor;
+
         /* Considering the order in which state is flushed, the state machines will
          * always be furthest ahead and indicate the furthest possible state to
          * which we must replay to reach a consistent state. */
@@ -297,9 +338,30 @@ public class CommandApplicationProcess
     public synchronized void stop() throws IOException
     {
         pauseApplier( "shutdown" );
+        stopPrefetchExecutor();
         coreState.flush( applierState.lastApplied );
     }
 
+    /**
+     * The applier is paused, so no entries are being prefetched any more and the executor can be done with.
+     */
+    private void stopPrefetchExecutor()
+    {
+        if ( prefetchExecutor == null )
+        {
+            return;
+        }
+        prefetchExecutor.shutdown();
+        ignoringInterrupts( () ->
+        {
+            if ( !prefetchExecutor.awaitTermination( 1, MINUTES ) )
+            {
+                log.warn( "Timed out waiting for the prefetcher to terminate" );
+            }
+        } );
+        prefetchExecutor = null;
+    }
+
     private void spawnApplierThread()
     {
         applierState.setKeepRunning( true );
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.state;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
+import org.neo4j.causalclustering.core.consensus.log.ReadableRaftLog;
+import org.neo4j.causalclustering.core.consensus.log.cache.InFlightCache;
+import org.neo4j.causalclustering.core.replication.DistributedOperation;
+import org.neo4j.causalclustering.core.state.machines.tx.ByteArrayReplicatedTransaction;
+import org.neo4j.causalclustering.core.state.machines.tx.ReplicatedTransaction;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.causalclustering.core.state.machines.tx.LogIndexTxHeaderEncoding.encodeLogIndexAsTxHeader;
+import static org.neo4j.causalclustering.core.state.machines.tx.ReplicatedTransactionFactory.extractTransactionRepresentation;
+
+/**
+ * Reads a range of committed entries from the RAFT log on a separate thread, ahead of the applier, and deserializes the
+ * transactions they carry. Reading and decoding of later entries thereby overlaps with the commit of earlier ones,
+ * which otherwise all happen one after the other on the applier thread.
+ * <p>
+ * Entries are still handed out strictly in log order, so the state machines observe exactly the same sequence of
+ * commands as without prefetching. A transaction which fails to decode is handed out as it was read, leaving the
+ * failure to surface when the state machine gets to it.
+ */
+class CommandPrefetcher implements AutoCloseable
+{
+    private final BlockingQueue<Prefetched> queue;
+    private final Future<?> task;
+    private volatile boolean closed;
+
+    CommandPrefetcher( ReadableRaftLog raftLog, InFlightCache inFlightCache, ExecutorService executor, int capacity, long fromIndex, long toIndex )
+    {
+        this.queue = new ArrayBlockingQueue<>( capacity );
+        this.task = executor.submit( () -> prefetch( raftLog, inFlightCache, fromIndex, toIndex ) );
+    }
+
+    /**
+     * @param logIndex the index of the next entry, which must follow the one previously returned.
+     * @return the entry, or {@code null} if it does not exist.
+     */
+    RaftLogEntry get( long logIndex ) throws IOException
+    {
+        Prefetched prefetched;
+        try
+        {
+            prefetched = queue.take();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while waiting for log entry " + logIndex, e );
+        }
+
+        if ( prefetched.failure != null )
+        {
+            throw new IOException( format( "Failed to read log entry %d", logIndex ), prefetched.failure );
+        }
+        if ( prefetched.index != logIndex )
+        {
+            throw new IllegalStateException( format( "Expected log entry %d but got %d", logIndex, prefetched.index ) );
+        }
+        return prefetched.entry;
+    }
+
+    private void prefetch( ReadableRaftLog raftLog, InFlightCache inFlightCache, long fromIndex, long toIndex )
+    {
+        long logIndex = fromIndex;
+        try ( InFlightLogEntryReader reader = new InFlightLogEntryReader( raftLog, inFlightCache, true ) )
+        {
+            for ( ; logIndex <= toIndex && !closed; logIndex++ )
+            {
+                RaftLogEntry entry = reader.get( logIndex );
+                put( new Prefetched( logIndex, entry == null ? null : decoded( logIndex, entry ), null ) );
+                if ( entry == null )
+                {
+                    return;
+                }
+            }
+        }
+        catch ( Throwable e )
+        {
+            put( new Prefetched( logIndex, null, e ) );
+        }
+    }
+
+    private void put( Prefetched prefetched )
+    {
+        try
+        {
+            while ( !closed && !queue.offer( prefetched, 10, MILLISECONDS ) )
+            {
+                // the applier is busy with earlier entries
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Decodes a transaction received from another member the same way {@link ReplicatedTransaction#extract} would do in the
+     * state machine, with the log index as the header of transactions that do not carry one.
+     */
+    private static RaftLogEntry decoded( long logIndex, RaftLogEntry entry )
+    {
+        if ( !(entry.content() instanceof DistributedOperation) )
+        {
+            return entry;
+        }
+        DistributedOperation operation = (DistributedOperation) entry.content();
+        if ( !(operation.content() instanceof ByteArrayReplicatedTransaction) )
+        {
+            return entry;
+        }
+
+        TransactionRepresentation tx;
+        try
+        {
+            tx = extractTransactionRepresentation( (ReplicatedTransaction) operation.content(), encodeLogIndexAsTxHeader( logIndex ) );
+        }
+        catch ( RuntimeException e )
+        {
+            return entry;
+        }
+        DistributedOperation decodedOperation = new DistributedOperation( ReplicatedTransaction.from( tx ), operation.globalSession(),
+                operation.operationId() );
+        return new RaftLogEntry( entry.term(), decodedOperation );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        queue.clear();
+        try
+        {
+            task.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException e )
+        {
+            throw new IOException( e.getCause() );
+        }
+    }
+
+    private static class Prefetched
+    {
+        private final long index;
+        private final RaftLogEntry entry;
+        private final Throwable failure;
+
+        Prefetched( long index, RaftLogEntry entry, Throwable failure )
+        {
+            this.index = index;
+            this.entry = entry;
+            this.failure = failure;
+        }
+    }
+}
@@ -180,7 +180,11 @@ public class CoreStateDownloader
             if ( catchupResult == E_TRANSACTION_PRUNED )
             {
                 log.warn( format( "Failed to pull transactions from (%s). They may have been pruned away", primary ) );
-                localDatabase.delete();
+                if ( !remoteStore.isDifferentialStoreCopyEnabled() )
+                {
+                    // otherwise the local store files are kept as the starting point of the store copy, and replaced after it
+                    localDatabase.delete();
+                }
                 isEmptyStore = true;
             }
             else if ( catchupResult != SUCCESS_END_OF_STREAM )
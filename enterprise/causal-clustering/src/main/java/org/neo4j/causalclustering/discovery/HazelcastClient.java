@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import org.neo4j.causalclustering.core.CausalClusteringSettings;
 import org.neo4j.causalclustering.helper.RobustJobSchedulerWrapper;
@@ -49,6 +50,7 @@ import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.extr
 import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.getCoreTopology;
 import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.getReadReplicaTopology;
 import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.refreshGroups;
+import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.refreshLastAppliedTransactionId;
 
 public class HazelcastClient extends SafeLifecycle implements TopologyService
 {
@@ -77,6 +79,8 @@ public class HazelcastClient extends SafeLifecycle implements TopologyService
     private volatile ReadReplicaTopology localReadReplicaTopology = ReadReplicaTopology.EMPTY;
     private volatile Map<MemberId,AdvertisedSocketAddress> catchupAddressMap = new HashMap<>();
     private volatile Map<MemberId,RoleInfo> coreRoles;
+    private volatile Map<MemberId,Long> lastAppliedTransactionIds = emptyMap();
+    private volatile LongSupplier lastAppliedTransactionIdSource = () -> -1;
 
     public HazelcastClient( HazelcastConnector connector, JobScheduler scheduler, LogProvider logProvider,
             Config config, MemberId myself )
@@ -152,6 +156,18 @@ public class HazelcastClient extends SafeLifecycle implements TopologyService
         return topologyServiceRetryStrategy.apply( memberId, this::retrieveSocketAddress, Optional::isPresent );
     }
 
+    @Override
+    public Map<MemberId,Long> lastAppliedTransactionIds()
+    {
+        return lastAppliedTransactionIds;
+    }
+
+    @Override
+    public void setLastAppliedTransactionIdSource( LongSupplier lastAppliedTransactionId )
+    {
+        this.lastAppliedTransactionIdSource = lastAppliedTransactionId;
+    }
+
     private Optional<AdvertisedSocketAddress> retrieveSocketAddress( MemberId memberId )
     {
         return Optional.ofNullable( catchupAddressMap.get( memberId ) );
@@ -178,6 +194,20 @@ public class HazelcastClient extends SafeLifecycle implements TopologyService
         coreRoles = hzInstance.apply(hz -> HazelcastClusterTopology.getCoreRoles( hz, allCoreServers().members().keySet() ) );
     }
 
+    /**
+     * Published on every topology refresh rather than with the other attributes, which are only kept alive,
+     * so that routing sees how far this read replica has applied with no more than one refresh period of lag.
+     */
+    private void refreshLastAppliedTransactionIds() throws HazelcastInstanceNotActiveException
+    {
+        long lastApplied = lastAppliedTransactionIdSource.getAsLong();
+        if ( lastApplied >= 0 )
+        {
+            hzInstance.perform( hz -> refreshLastAppliedTransactionId( hz, myself, lastApplied, timeToLive ) );
+        }
+        lastAppliedTransactionIds = hzInstance.apply( HazelcastClusterTopology::getLastAppliedTransactionIds );
+    }
+
     @Override
     public void init0()
     {
@@ -191,6 +221,7 @@ public class HazelcastClient extends SafeLifecycle implements TopologyService
         refreshTopologyJob = scheduler.scheduleRecurring( Group.HZ_TOPOLOGY_REFRESH, refreshPeriod, () -> {
             this.refreshTopology();
             this.refreshRoles();
+            this.refreshLastAppliedTransactionIds();
         } );
     }
 
@@ -54,6 +54,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.stream.Streams;
 
 import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.refuse_to_be_leader;
 import static org.neo4j.helpers.SocketAddressParser.socketAddress;
 import static org.neo4j.helpers.collection.Iterables.asSet;
@@ -78,6 +79,8 @@ public final class HazelcastClusterTopology
     static final String READ_REPLICA_MEMBER_ID_MAP = "read-replica-member-ids";
     static final String READ_REPLICAS_DB_NAME_MAP = "read_replicas_database_names";
     static final String DB_NAME_LEADER_TERM_PREFIX = "leader_term_for_database_name_";
+    // member uuid string -> last applied transaction id, optional and therefore not part of the attribute keys below
+    static final String LAST_APPLIED_TX_ID_MAP = "last_applied_transaction_ids";
 
     // the attributes used for reconstructing read replica information
     static final Set<String> RR_ATTR_KEYS = Stream.of( READ_REPLICA_BOLT_ADDRESS_MAP, READ_REPLICA_TRANSACTION_SERVER_ADDRESS_MAP,
@@ -393,6 +396,21 @@ public final class HazelcastClusterTopology
         superfluous.forEach( group -> groupsMap.remove( memberId, group ) );
     }
 
+    static void refreshLastAppliedTransactionId( HazelcastInstance hazelcastInstance, MemberId myself, long lastAppliedTransactionId,
+            long timeToLiveMillis )
+    {
+        IMap<String,Long> lastAppliedMap = hazelcastInstance.getMap( LAST_APPLIED_TX_ID_MAP );
+        lastAppliedMap.put( myself.getUuid().toString(), lastAppliedTransactionId, timeToLiveMillis, MILLISECONDS );
+    }
+
+    static Map<MemberId,Long> getLastAppliedTransactionIds( HazelcastInstance hazelcastInstance )
+    {
+        IMap<String,Long> lastAppliedMap = hazelcastInstance.getMap( LAST_APPLIED_TX_ID_MAP );
+        Map<MemberId,Long> lastApplied = new HashMap<>();
+        lastAppliedMap.forEach( ( uuid, txId ) -> lastApplied.put( new MemberId( UUID.fromString( uuid ) ), txId ) );
+        return lastApplied;
+    }
+
     static MemberAttributeConfig buildMemberAttributesForCore( MemberId myself, Config config )
     {
 
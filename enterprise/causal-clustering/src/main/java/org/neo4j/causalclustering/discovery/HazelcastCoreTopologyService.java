@@ -44,6 +44,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 import org.neo4j.causalclustering.core.CausalClusteringSettings;
 import org.neo4j.causalclustering.core.consensus.LeaderInfo;
@@ -70,8 +71,10 @@ import static org.neo4j.causalclustering.core.CausalClusteringSettings.disable_m
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.discovery_listen_address;
 import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.extractCatchupAddressesMap;
 import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.getCoreTopology;
+import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.getLastAppliedTransactionIds;
 import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.getReadReplicaTopology;
 import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.refreshGroups;
+import static org.neo4j.causalclustering.discovery.HazelcastClusterTopology.refreshLastAppliedTransactionId;
 
 public class HazelcastCoreTopologyService extends AbstractCoreTopologyService
 {
@@ -87,6 +90,7 @@ public class HazelcastCoreTopologyService extends AbstractCoreTopologyService
 
     private final RobustJobSchedulerWrapper scheduler;
     private final long refreshPeriod;
+    private final long lastAppliedTimeToLive;
     private final RemoteMembersResolver remoteMembersResolver;
     private final TopologyServiceRetryStrategy topologyServiceRetryStrategy;
     private final Monitor monitor;
@@ -106,6 +110,8 @@ public class HazelcastCoreTopologyService extends AbstractCoreTopologyService
     private volatile CoreTopology coreTopology = CoreTopology.EMPTY;
     private volatile CoreTopology localCoreTopology = CoreTopology.EMPTY;
     private volatile ReadReplicaTopology localReadReplicaTopology = ReadReplicaTopology.EMPTY;
+    private volatile Map<MemberId,Long> lastAppliedTransactionIds = Collections.emptyMap();
+    private volatile LongSupplier lastAppliedTransactionIdSource = () -> -1;
 
     private Thread startingThread;
     private volatile boolean stopped;
@@ -118,6 +124,8 @@ public class HazelcastCoreTopologyService extends AbstractCoreTopologyService
         this.localDBName = config.get( CausalClusteringSettings.database );
         this.scheduler = new RobustJobSchedulerWrapper( jobScheduler, log );
         this.refreshPeriod = config.get( CausalClusteringSettings.cluster_topology_refresh ).toMillis();
+        // entries of members which leave are expired the same way as the attributes of departed read replicas
+        this.lastAppliedTimeToLive = config.get( CausalClusteringSettings.read_replica_time_to_live ).toMillis();
         this.remoteMembersResolver = remoteMembersResolver;
         this.topologyServiceRetryStrategy = topologyServiceRetryStrategy;
         this.monitor = monitors.newMonitor( Monitor.class );
@@ -363,6 +371,18 @@ public class HazelcastCoreTopologyService extends AbstractCoreTopologyService
         return topologyServiceRetryStrategy.apply( memberId, this::retrieveSocketAddress, Optional::isPresent );
     }
 
+    @Override
+    public Map<MemberId,Long> lastAppliedTransactionIds()
+    {
+        return lastAppliedTransactionIds;
+    }
+
+    @Override
+    public void setLastAppliedTransactionIdSource( LongSupplier lastAppliedTransactionId )
+    {
+        this.lastAppliedTransactionIdSource = lastAppliedTransactionId;
+    }
+
     private Optional<AdvertisedSocketAddress> retrieveSocketAddress( MemberId memberId )
     {
         return Optional.ofNullable( catchupAddressMap.get( memberId ) );
@@ -393,6 +413,19 @@ public class HazelcastCoreTopologyService extends AbstractCoreTopologyService
         refreshReadReplicaTopology();
         refreshRoles();
         catchupAddressMap = extractCatchupAddressesMap( localCoreServers(), localReadReplicas() );
+        refreshLastAppliedTransactionIds();
+    }
+
+    private void refreshLastAppliedTransactionIds() throws InterruptedException
+    {
+        waitOnHazelcastInstanceCreation();
+
+        long lastApplied = lastAppliedTransactionIdSource.getAsLong();
+        if ( lastApplied >= 0 )
+        {
+            refreshLastAppliedTransactionId( hazelcastInstance, myself, lastApplied, lastAppliedTimeToLive );
+        }
+        lastAppliedTransactionIds = getLastAppliedTransactionIds( hazelcastInstance );
     }
 
     private void refreshCoreTopology() throws InterruptedException
@@ -24,11 +24,14 @@ package org.neo4j.causalclustering.discovery;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import org.neo4j.causalclustering.identity.MemberId;
 import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 
+import static java.util.Collections.emptyMap;
+
 /**
  * Provides a read-only service for the eventually consistent topology information.
  */
@@ -52,4 +55,23 @@ public interface TopologyService extends Lifecycle
     Map<MemberId,RoleInfo> allCoreRoles();
 
     MemberId myself();
+
+    /**
+     * The last transaction id each member has reported as applied, as of the most recent topology refresh.
+     * Reported values lag behind by up to one refresh period but never run ahead of the member. Members which
+     * have not reported a value, for example because they run an older version, are absent from the map.
+     */
+    default Map<MemberId,Long> lastAppliedTransactionIds()
+    {
+        return emptyMap();
+    }
+
+    /**
+     * Sets where this member reads its own last applied transaction id from, in order to gossip it to the
+     * rest of the cluster. The source should return a negative value while the id is not known.
+     */
+    default void setLastAppliedTransactionIdSource( LongSupplier lastAppliedTransactionId )
+    {
+        // topology services which do not gossip applied transaction ids have nothing to do
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.messaging.marshalling;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+import org.neo4j.causalclustering.core.consensus.RaftMessages;
+import org.neo4j.causalclustering.core.consensus.RaftMessages.NewEntry;
+import org.neo4j.causalclustering.core.replication.ReplicatedContent;
+
+/**
+ * Splits a batch of new entries coalesced by the replicator back into the individual requests which
+ * every version of the Raft protocol understands. They are written out as part of the same flush and
+ * arrive back to back at the leader, where they are batched again into a single append.
+ */
+public class NewEntryBatchSplitter extends MessageToMessageEncoder<RaftMessages.ClusterIdAwareMessage>
+{
+    @Override
+    public boolean acceptOutboundMessage( Object msg ) throws Exception
+    {
+        return super.acceptOutboundMessage( msg ) && ((RaftMessages.ClusterIdAwareMessage) msg).message() instanceof NewEntry.BatchRequest;
+    }
+
+    @Override
+    protected void encode( ChannelHandlerContext ctx, RaftMessages.ClusterIdAwareMessage msg, List<Object> out )
+    {
+        NewEntry.BatchRequest batchRequest = (NewEntry.BatchRequest) msg.message();
+        for ( ReplicatedContent content : batchRequest.contents() )
+        {
+            out.add( RaftMessages.ClusterIdAwareMessage.of( msg.clusterId(), new NewEntry.Request( batchRequest.from(), content ) ) );
+        }
+    }
+}
@@ -37,8 +37,14 @@ import java.util.List;
 import java.util.function.Supplier;
 
 import org.neo4j.causalclustering.protocol.ProtocolInstaller.Orientation;
+import org.neo4j.causalclustering.protocol.compression.AdaptiveCompressionDecoder;
+import org.neo4j.causalclustering.protocol.compression.AdaptiveCompressionEncoder;
+import org.neo4j.causalclustering.protocol.compression.CompressionMonitor;
+import org.neo4j.kernel.monitoring.Monitors;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_ADAPTIVE;
 import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_LZ4;
 import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_LZ4_HIGH_COMPRESSION;
 import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_LZ4_HIGH_COMPRESSION_VALIDATING;
@@ -54,15 +60,36 @@ public interface ModifierProtocolInstaller<O extends Orientation>
     <BUILDER extends NettyPipelineBuilder<O,BUILDER>> void apply( NettyPipelineBuilder<O,BUILDER> nettyPipelineBuilder );
 
     List<ModifierProtocolInstaller<Orientation.Server>> serverCompressionInstallers =
-            asList( new SnappyServer(), new SnappyValidatingServer(), new LZ4Server(), new LZ4ValidatingServer(), new GzipServer() );
+            asList( new SnappyServer(), new SnappyValidatingServer(), new LZ4Server(), new LZ4ValidatingServer(), new GzipServer(),
+                    new AdaptiveServer( new CompressionMonitor.Adapter() ) );
 
     List<ModifierProtocolInstaller<Orientation.Client>> clientCompressionInstallers =
-            asList( new SnappyClient(), new LZ4Client(), new LZ4HighCompressionClient(), new GzipClient() );
+            asList( new SnappyClient(), new LZ4Client(), new LZ4HighCompressionClient(), new GzipClient(),
+                    new AdaptiveClient( new CompressionMonitor.Adapter() ) );
 
     List<ModifierProtocolInstaller<Orientation.Client>> allClientInstallers = clientCompressionInstallers;
 
     List<ModifierProtocolInstaller<Orientation.Server>> allServerInstallers = serverCompressionInstallers;
 
+    /**
+     * All client installers, with the adaptive compression modifier reporting to a monitor tagged with the application protocol.
+     */
+    static List<ModifierProtocolInstaller<Orientation.Client>> clientInstallers( Monitors monitors, Protocol.ApplicationProtocolCategory protocol )
+    {
+        CompressionMonitor compressionMonitor = monitors.newMonitor( CompressionMonitor.class, protocol.canonicalName() );
+        return asList( new SnappyClient(), new LZ4Client(), new LZ4HighCompressionClient(), new GzipClient(), new AdaptiveClient( compressionMonitor ) );
+    }
+
+    /**
+     * All server installers, with the adaptive compression modifier reporting to a monitor tagged with the application protocol.
+     */
+    static List<ModifierProtocolInstaller<Orientation.Server>> serverInstallers( Monitors monitors, Protocol.ApplicationProtocolCategory protocol )
+    {
+        CompressionMonitor compressionMonitor = monitors.newMonitor( CompressionMonitor.class, protocol.canonicalName() );
+        return asList( new SnappyServer(), new SnappyValidatingServer(), new LZ4Server(), new LZ4ValidatingServer(), new GzipServer(),
+                new AdaptiveServer( compressionMonitor ) );
+    }
+
     abstract class BaseClientModifier implements ModifierProtocolInstaller<Orientation.Client>
     {
         private final String pipelineEncoderName;
@@ -191,4 +218,48 @@ public interface ModifierProtocolInstaller<O extends Orientation>
             super( "zlib_decoder", JdkZlibDecoder::new, COMPRESSION_GZIP );
         }
     }
+
+    /**
+     * The adaptive modifier compresses traffic in both directions, so that catchup responses such as streamed store
+     * files and transactions are compressed as well. Both peers have negotiated it, so both install the same pair.
+     */
+    abstract class BaseAdaptiveModifier<O extends Orientation> implements ModifierProtocolInstaller<O>
+    {
+        private final CompressionMonitor monitor;
+
+        protected BaseAdaptiveModifier( CompressionMonitor monitor )
+        {
+            this.monitor = monitor;
+        }
+
+        @Override
+        public final Collection<Protocol.ModifierProtocol> protocols()
+        {
+            return singletonList( COMPRESSION_ADAPTIVE );
+        }
+
+        @Override
+        public final <BUILDER extends NettyPipelineBuilder<O,BUILDER>> void apply( NettyPipelineBuilder<O,BUILDER> nettyPipelineBuilder )
+        {
+            nettyPipelineBuilder
+                    .add( "adaptive_encoder", new AdaptiveCompressionEncoder( monitor ) )
+                    .add( "adaptive_decoder", new AdaptiveCompressionDecoder( monitor ) );
+        }
+    }
+
+    class AdaptiveClient extends BaseAdaptiveModifier<Orientation.Client>
+    {
+        AdaptiveClient( CompressionMonitor monitor )
+        {
+            super( monitor );
+        }
+    }
+
+    class AdaptiveServer extends BaseAdaptiveModifier<Orientation.Server>
+    {
+        AdaptiveServer( CompressionMonitor monitor )
+        {
+            super( monitor );
+        }
+    }
 }
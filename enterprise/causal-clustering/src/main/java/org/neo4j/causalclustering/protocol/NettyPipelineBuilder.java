@@ -30,6 +30,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.MessageToByteEncoder;
 
@@ -286,12 +287,12 @@ public abstract class NettyPipelineBuilder<O extends ProtocolInstaller.Orientati
                 swallow( ctx::close );
             }
 
-            // netty can only handle bytes in the form of ByteBuf, so if you reach this then you are
+            // netty can only handle bytes in the form of ByteBuf or FileRegion, so if you reach this then you are
             // perhaps trying to send a POJO without having a suitable encoder
             @Override
             public void write( ChannelHandlerContext ctx, Object msg, ChannelPromise promise )
             {
-                if ( !(msg instanceof ByteBuf) )
+                if ( !(msg instanceof ByteBuf || msg instanceof FileRegion) )
                 {
                     log.error( "Unhandled outbound message: %s for channel: %s", msg, ctx.channel() );
                     ctx.close();
@@ -121,7 +121,8 @@ public interface Protocol<IMPL extends Comparable<IMPL>>
         COMPRESSION_LZ4( ModifierProtocolCategory.COMPRESSION, Implementations.LZ4 ),
         COMPRESSION_LZ4_HIGH_COMPRESSION( ModifierProtocolCategory.COMPRESSION, Implementations.LZ4_HIGH_COMPRESSION ),
         COMPRESSION_LZ4_VALIDATING( ModifierProtocolCategory.COMPRESSION, Implementations.LZ_VALIDATING ),
-        COMPRESSION_LZ4_HIGH_COMPRESSION_VALIDATING( ModifierProtocolCategory.COMPRESSION, Implementations.LZ4_HIGH_COMPRESSION_VALIDATING );
+        COMPRESSION_LZ4_HIGH_COMPRESSION_VALIDATING( ModifierProtocolCategory.COMPRESSION, Implementations.LZ4_HIGH_COMPRESSION_VALIDATING ),
+        COMPRESSION_ADAPTIVE( ModifierProtocolCategory.COMPRESSION, Implementations.ADAPTIVE );
 
         // Should be human writable into a comma separated list
         private final String friendlyName;
@@ -159,6 +160,7 @@ public interface Protocol<IMPL extends Comparable<IMPL>>
             public static final String LZ4_HIGH_COMPRESSION = "LZ4_high_compression";
             public static final String LZ_VALIDATING = "LZ_validating";
             public static final String LZ4_HIGH_COMPRESSION_VALIDATING = "LZ4_high_compression_validating";
+            public static final String ADAPTIVE = "Adaptive";
         }
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.protocol.compression;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.compression.DecompressionException;
+import io.netty.handler.codec.compression.Snappy;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.HEADER_LENGTH;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.MAX_BLOCK_LENGTH;
+
+/**
+ * Reverses {@link AdaptiveCompressionEncoder}, emitting one buffer for every block received.
+ */
+public class AdaptiveCompressionDecoder extends ByteToMessageDecoder
+{
+    private final CompressionMonitor monitor;
+    private final Snappy snappy = new Snappy();
+    private final Inflater inflater = new Inflater();
+    private final byte[] inflateInput = new byte[MAX_BLOCK_LENGTH];
+    private final byte[] inflateOutput = new byte[MAX_BLOCK_LENGTH];
+
+    public AdaptiveCompressionDecoder( CompressionMonitor monitor )
+    {
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected void decode( ChannelHandlerContext ctx, ByteBuf in, List<Object> out ) throws Exception
+    {
+        if ( in.readableBytes() < HEADER_LENGTH )
+        {
+            return;
+        }
+
+        int headerIndex = in.readerIndex();
+        BlockCodec codec = BlockCodec.of( in.getByte( headerIndex ) );
+        int uncompressedLength = in.getInt( headerIndex + Byte.BYTES );
+        int payloadLength = in.getInt( headerIndex + Byte.BYTES + Integer.BYTES );
+        if ( uncompressedLength < 0 || uncompressedLength > MAX_BLOCK_LENGTH || payloadLength < 0 || payloadLength > uncompressedLength )
+        {
+            throw new DecompressionException(
+                    "Invalid block lengths, uncompressed: " + uncompressedLength + ", payload: " + payloadLength );
+        }
+        if ( in.readableBytes() < HEADER_LENGTH + payloadLength )
+        {
+            return;
+        }
+        in.skipBytes( HEADER_LENGTH );
+
+        long startTime = System.nanoTime();
+        ByteBuf decoded;
+        switch ( codec )
+        {
+        case NONE:
+            decoded = in.readRetainedSlice( payloadLength );
+            break;
+        case SNAPPY:
+            decoded = ctx.alloc().buffer( uncompressedLength );
+            try
+            {
+                snappy.decode( in.readSlice( payloadLength ), decoded );
+            }
+            catch ( RuntimeException e )
+            {
+                decoded.release();
+                throw e;
+            }
+            finally
+            {
+                snappy.reset();
+            }
+            break;
+        case DEFLATE:
+            int inflatedLength = inflate( in, payloadLength, uncompressedLength );
+            decoded = ctx.alloc().buffer( inflatedLength ).writeBytes( inflateOutput, 0, inflatedLength );
+            break;
+        default:
+            throw new IllegalStateException( "Unexpected codec: " + codec );
+        }
+
+        if ( decoded.readableBytes() != uncompressedLength )
+        {
+            int actualLength = decoded.readableBytes();
+            decoded.release();
+            throw new DecompressionException( "Block decompressed to " + actualLength + " bytes, expected " + uncompressedLength );
+        }
+        monitor.decompressed( payloadLength, uncompressedLength, System.nanoTime() - startTime );
+        out.add( decoded );
+    }
+
+    private int inflate( ByteBuf in, int payloadLength, int uncompressedLength ) throws DataFormatException
+    {
+        in.readBytes( inflateInput, 0, payloadLength );
+        inflater.reset();
+        inflater.setInput( inflateInput, 0, payloadLength );
+        int inflatedLength = inflater.inflate( inflateOutput, 0, uncompressedLength );
+        if ( !inflater.finished() )
+        {
+            throw new DecompressionException( "Truncated deflate block" );
+        }
+        return inflatedLength;
+    }
+
+    @Override
+    protected void handlerRemoved0( ChannelHandlerContext ctx )
+    {
+        inflater.end();
+    }
+}
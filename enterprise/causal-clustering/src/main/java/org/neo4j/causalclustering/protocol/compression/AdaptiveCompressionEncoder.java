@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.protocol.compression;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+import io.netty.handler.codec.UnsupportedMessageTypeException;
+import io.netty.handler.codec.compression.Snappy;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.PromiseNotifier;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static java.lang.Math.min;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.DEFLATE;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.HEADER_LENGTH;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.MAX_BLOCK_LENGTH;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.MAX_SNAPPY_LENGTH;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.NONE;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.SNAPPY;
+
+/**
+ * Accumulates outgoing bytes until the channel is flushed or a block is full, and then picks a codec for the block
+ * based on its size. The modifier sits below the message framing so the message class is not visible here, but the
+ * size of a flushed block tells them apart well enough: heartbeats and acknowledgements are tiny and are sent as they
+ * are, batches of appended entries are compressed with Snappy, and full blocks of streamed store files and transactions
+ * are compressed with Deflate.
+ * <p>
+ * A block which does not get smaller is sent uncompressed instead, and its codec is then skipped for a while to
+ * avoid wasting CPU on traffic which does not compress.
+ * <p>
+ * The promise of a written message is completed by the write of the block holding its last byte, so callers waiting
+ * on a write are not told that it succeeded while the message is still buffered here.
+ * <p>
+ * A {@link FileRegion} is read into the blocks like any other bytes, since sending it as it is would let it overtake
+ * the bytes still buffered here, and would not compress it either. A {@link ChunkedInput} has to be turned into bytes
+ * by a chunked write handler before it gets here, so it is rejected. Any other message is passed on, but only after
+ * the block buffered before it.
+ */
+public class AdaptiveCompressionEncoder extends ChannelOutboundHandlerAdapter
+{
+    static final int DEFAULT_MIN_COMPRESSIBLE_LENGTH = 1024;
+    static final int BACK_OFF_BLOCKS = 32;
+
+    private final CompressionMonitor monitor;
+    private final int minCompressibleLength;
+    private final int[] skippedBlocks = new int[BlockCodec.values().length];
+    private final Snappy snappy = new Snappy();
+    private final Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+    private final byte[] deflateInput = new byte[MAX_BLOCK_LENGTH];
+    private final byte[] deflateOutput = new byte[MAX_BLOCK_LENGTH];
+
+    private final List<ChannelPromise> pendingPromises = new ArrayList<>();
+
+    private ByteBuf buffer;
+
+    public AdaptiveCompressionEncoder( CompressionMonitor monitor )
+    {
+        this( monitor, DEFAULT_MIN_COMPRESSIBLE_LENGTH );
+    }
+
+    AdaptiveCompressionEncoder( CompressionMonitor monitor, int minCompressibleLength )
+    {
+        this.monitor = monitor;
+        this.minCompressibleLength = minCompressibleLength;
+    }
+
+    @Override
+    public void handlerAdded( ChannelHandlerContext ctx )
+    {
+        buffer = ctx.alloc().heapBuffer( MAX_BLOCK_LENGTH, MAX_BLOCK_LENGTH );
+    }
+
+    @Override
+    public void handlerRemoved( ChannelHandlerContext ctx )
+    {
+        if ( buffer != null )
+        {
+            buffer.release();
+            buffer = null;
+        }
+        deflater.end();
+        if ( !pendingPromises.isEmpty() )
+        {
+            ClosedChannelException cause = new ClosedChannelException();
+            pendingPromises.forEach( promise -> promise.tryFailure( cause ) );
+            pendingPromises.clear();
+        }
+    }
+
+    @Override
+    public void write( ChannelHandlerContext ctx, Object msg, ChannelPromise promise )
+    {
+        if ( msg instanceof ByteBuf )
+        {
+            write( ctx, (ByteBuf) msg, promise );
+        }
+        else if ( msg instanceof FileRegion )
+        {
+            write( ctx, (FileRegion) msg, promise );
+        }
+        else if ( msg instanceof ChunkedInput )
+        {
+            ReferenceCountUtil.release( msg );
+            promise.setFailure( new UnsupportedMessageTypeException( msg, ByteBuf.class, FileRegion.class ) );
+        }
+        else
+        {
+            if ( buffer.isReadable() )
+            {
+                writeBlock( ctx );
+            }
+            ctx.write( msg, promise );
+        }
+    }
+
+    private void write( ChannelHandlerContext ctx, ByteBuf in, ChannelPromise promise )
+    {
+        try
+        {
+            if ( !in.isReadable() )
+            {
+                pendingPromises.add( promise );
+            }
+            while ( in.isReadable() )
+            {
+                buffer.writeBytes( in, min( in.readableBytes(), buffer.writableBytes() ) );
+                if ( !in.isReadable() )
+                {
+                    pendingPromises.add( promise );
+                }
+                if ( !buffer.isWritable() )
+                {
+                    writeBlock( ctx );
+                }
+            }
+        }
+        finally
+        {
+            in.release();
+        }
+    }
+
+    private void write( ChannelHandlerContext ctx, FileRegion region, ChannelPromise promise )
+    {
+        try
+        {
+            WritableByteChannel target = new BlockChannel( ctx );
+            while ( region.transferred() < region.count() )
+            {
+                if ( region.transferTo( target, region.transferred() ) == 0 )
+                {
+                    throw new IOException( "File region stopped after " + region.transferred() + " of " + region.count() + " bytes" );
+                }
+            }
+            pendingPromises.add( promise );
+        }
+        catch ( IOException e )
+        {
+            promise.setFailure( e );
+        }
+        finally
+        {
+            region.release();
+        }
+    }
+
+    @Override
+    public void flush( ChannelHandlerContext ctx )
+    {
+        if ( buffer != null && buffer.isReadable() )
+        {
+            writeBlock( ctx );
+        }
+        else if ( !pendingPromises.isEmpty() )
+        {
+            ctx.write( Unpooled.EMPTY_BUFFER, blockPromise( ctx ) );
+        }
+        ctx.flush();
+    }
+
+    private void writeBlock( ChannelHandlerContext ctx )
+    {
+        ByteBuf out = ctx.alloc().buffer( HEADER_LENGTH + buffer.readableBytes() );
+        try
+        {
+            encodeBlock( out );
+        }
+        catch ( RuntimeException e )
+        {
+            out.release();
+            throw e;
+        }
+        ctx.write( out, blockPromise( ctx ) );
+    }
+
+    /**
+     * @return a promise for the block about to be written which completes the promises of the messages ending in it.
+     */
+    private ChannelPromise blockPromise( ChannelHandlerContext ctx )
+    {
+        if ( pendingPromises.size() == 1 )
+        {
+            ChannelPromise promise = pendingPromises.get( 0 );
+            pendingPromises.clear();
+            return promise;
+        }
+        ChannelPromise blockPromise = ctx.newPromise();
+        if ( !pendingPromises.isEmpty() )
+        {
+            blockPromise.addListener( new PromiseNotifier<>( pendingPromises.toArray( new ChannelPromise[0] ) ) );
+            pendingPromises.clear();
+        }
+        return blockPromise;
+    }
+
+    private void encodeBlock( ByteBuf out )
+    {
+        long startTime = System.nanoTime();
+        int length = buffer.readableBytes();
+        int headerIndex = out.writerIndex();
+        BlockCodec codec = chooseCodec( length );
+
+        if ( codec != NONE )
+        {
+            out.ensureWritable( HEADER_LENGTH + length );
+            out.writerIndex( headerIndex + HEADER_LENGTH );
+            if ( compress( codec, out ) )
+            {
+                int payloadLength = out.writerIndex() - headerIndex - HEADER_LENGTH;
+                out.setByte( headerIndex, codec.id() );
+                out.setInt( headerIndex + Byte.BYTES, length );
+                out.setInt( headerIndex + Byte.BYTES + Integer.BYTES, payloadLength );
+                finishBlock( length, payloadLength, startTime );
+                return;
+            }
+            skippedBlocks[codec.ordinal()] = BACK_OFF_BLOCKS;
+            out.writerIndex( headerIndex );
+        }
+
+        out.writeByte( NONE.id() );
+        out.writeInt( length );
+        out.writeInt( length );
+        out.writeBytes( buffer, buffer.readerIndex(), length );
+        finishBlock( length, length, startTime );
+    }
+
+    private void finishBlock( int length, int payloadLength, long startTime )
+    {
+        buffer.clear();
+        monitor.compressed( length, payloadLength, System.nanoTime() - startTime );
+    }
+
+    private BlockCodec chooseCodec( int length )
+    {
+        BlockCodec codec;
+        if ( length < minCompressibleLength )
+        {
+            return NONE;
+        }
+        else if ( length <= MAX_SNAPPY_LENGTH )
+        {
+            codec = SNAPPY;
+        }
+        else
+        {
+            codec = DEFLATE;
+        }
+
+        if ( skippedBlocks[codec.ordinal()] > 0 )
+        {
+            skippedBlocks[codec.ordinal()]--;
+            return NONE;
+        }
+        return codec;
+    }
+
+    /**
+     * @return {@code true} if the block was written to {@code out} in fewer bytes than it has uncompressed.
+     */
+    private boolean compress( BlockCodec codec, ByteBuf out )
+    {
+        int length = buffer.readableBytes();
+        int payloadIndex = out.writerIndex();
+        if ( codec == SNAPPY )
+        {
+            snappy.encode( buffer.duplicate(), out, length );
+        }
+        else
+        {
+            buffer.getBytes( buffer.readerIndex(), deflateInput, 0, length );
+            deflater.reset();
+            deflater.setInput( deflateInput, 0, length );
+            deflater.finish();
+            int compressedLength = deflater.deflate( deflateOutput, 0, length );
+            if ( !deflater.finished() )
+            {
+                return false;
+            }
+            out.writeBytes( deflateOutput, 0, compressedLength );
+        }
+        return out.writerIndex() - payloadIndex < length;
+    }
+
+    /**
+     * Lets a {@link FileRegion} transfer itself into the blocks, as if this handler was the socket.
+     */
+    private class BlockChannel implements WritableByteChannel
+    {
+        private final ChannelHandlerContext ctx;
+
+        BlockChannel( ChannelHandlerContext ctx )
+        {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public int write( ByteBuffer src )
+        {
+            int written = src.remaining();
+            while ( src.hasRemaining() )
+            {
+                ByteBuffer part = src.duplicate();
+                part.limit( part.position() + min( part.remaining(), buffer.writableBytes() ) );
+                buffer.writeBytes( part );
+                src.position( part.position() );
+                if ( !buffer.isWritable() )
+                {
+                    writeBlock( ctx );
+                }
+            }
+            return written;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
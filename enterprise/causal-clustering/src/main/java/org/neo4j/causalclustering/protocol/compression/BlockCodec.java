@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.protocol.compression;
+
+import io.netty.handler.codec.compression.DecompressionException;
+
+/**
+ * The codecs which the adaptive compression modifier chooses between, identified on the wire by a single byte.
+ * <p>
+ * Each block is laid out as {@code [codec:byte][uncompressedLength:int][payloadLength:int][payload]}.
+ */
+enum BlockCodec
+{
+    /** Small blocks, e.g. heartbeats and acknowledgements, and blocks which did not compress. */
+    NONE( (byte) 0 ),
+    /** Medium blocks, e.g. batches of appended entries, where latency matters more than ratio. */
+    SNAPPY( (byte) 1 ),
+    /** Full blocks, e.g. streamed store files and transactions, where bandwidth dominates. */
+    DEFLATE( (byte) 2 );
+
+    static final int HEADER_LENGTH = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+    static final int MAX_BLOCK_LENGTH = 1 << 16;
+    /** Netty's Snappy implementation handles at most this many bytes per invocation. */
+    static final int MAX_SNAPPY_LENGTH = Short.MAX_VALUE;
+
+    private final byte id;
+
+    BlockCodec( byte id )
+    {
+        this.id = id;
+    }
+
+    byte id()
+    {
+        return id;
+    }
+
+    static BlockCodec of( byte id )
+    {
+        for ( BlockCodec codec : values() )
+        {
+            if ( codec.id == id )
+            {
+                return codec;
+            }
+        }
+        throw new DecompressionException( "Unknown block codec: " + id );
+    }
+}
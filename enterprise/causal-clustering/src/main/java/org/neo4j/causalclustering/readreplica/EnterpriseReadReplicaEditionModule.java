@@ -29,6 +29,7 @@ import java.io.File;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -246,11 +247,13 @@ public class EnterpriseReadReplicaEditionModule extends DefaultEditionModule
                 new ApplicationProtocolRepository( ApplicationProtocols.values(), supportedCatchupProtocols );
         ModifierProtocolRepository modifierProtocolRepository =
                 new ModifierProtocolRepository( Protocol.ModifierProtocols.values(), supportedModifierProtocols );
+        List<ModifierProtocolInstaller<ProtocolInstaller.Orientation.Client>> modifierProtocolInstallers =
+                ModifierProtocolInstaller.clientInstallers( platformModule.monitors, Protocol.ApplicationProtocolCategory.CATCHUP );
 
         Function<CatchUpResponseHandler,ChannelInitializer<SocketChannel>> channelInitializer = handler -> {
             ProtocolInstallerRepository<ProtocolInstaller.Orientation.Client> protocolInstallerRepository = new ProtocolInstallerRepository<>(
                     singletonList( new CatchupProtocolClientInstaller.Factory( clientPipelineBuilderFactory, logProvider, handler ) ),
-                    ModifierProtocolInstaller.allClientInstallers );
+                    modifierProtocolInstallers );
             Duration handshakeTimeout = config.get( CausalClusteringSettings.handshake_timeout );
             return new HandshakeClientInitializer( applicationProtocolRepository, modifierProtocolRepository, protocolInstallerRepository,
                     clientPipelineBuilderFactory, handshakeTimeout, logProvider, userLogProvider );
@@ -269,6 +272,7 @@ public class EnterpriseReadReplicaEditionModule extends DefaultEditionModule
         LocalDatabase localDatabase =
                 new LocalDatabase( databaseLayout, storeFiles, logFiles, platformModule.dataSourceManager, databaseHealthSupplier,
                         getGlobalAvailabilityGuard( platformModule.clock, platformModule.logging, platformModule.config ), logProvider );
+        topologyService.setLastAppliedTransactionIdSource( localDatabase::lastClosedTransactionId );
 
         Supplier<TransactionCommitProcess> writableCommitProcess = () -> new TransactionRepresentationCommitProcess(
                 localDatabase.dataSource().getDependencyResolver().resolveDependency( TransactionAppender.class ),
@@ -289,7 +293,8 @@ public class EnterpriseReadReplicaEditionModule extends DefaultEditionModule
                 new ExponentialBackoffStrategy( 1, config.get( CausalClusteringSettings.store_copy_backoff_max_wait ).toMillis(), TimeUnit.MILLISECONDS );
 
         RemoteStore remoteStore = new RemoteStore( platformModule.logging.getInternalLogProvider(), fileSystem, platformModule.pageCache,
-                new StoreCopyClient( catchUpClient, platformModule.monitors, logProvider, storeCopyBackoffStrategy ),
+                new StoreCopyClient( catchUpClient, platformModule.monitors, logProvider, storeCopyBackoffStrategy,
+                        config.get( CausalClusteringSettings.store_copy_parallelism ) ),
                 new TxPullClient( catchUpClient, platformModule.monitors ),
                 new TransactionLogCatchUpFactory(), config, platformModule.monitors );
 
@@ -311,8 +316,9 @@ public class EnterpriseReadReplicaEditionModule extends DefaultEditionModule
 
         CatchupPollingProcess catchupProcess =
                 new CatchupPollingProcess( logProvider, localDatabase, servicesToStopOnStoreCopy, catchUpClient, upstreamDatabaseStrategySelector,
-                        timerService, config.get( CausalClusteringSettings.pull_interval ).toMillis(), batchingTxApplier, platformModule.monitors,
-                        storeCopyProcess, databaseHealthSupplier, topologyService );
+                        timerService, config.get( CausalClusteringSettings.pull_interval ).toMillis(),
+                        config.get( CausalClusteringSettings.pull_long_poll_timeout ).toMillis(), batchingTxApplier, 2 * maxBatchSize,
+                        platformModule.monitors, storeCopyProcess, databaseHealthSupplier, topologyService, platformModule.clock );
         dependencies.satisfyDependencies( catchupProcess );
 
         txPulling.add( batchingTxApplier );
@@ -340,6 +346,7 @@ public class EnterpriseReadReplicaEditionModule extends DefaultEditionModule
                 .debugLogProvider( logProvider )
                 .listenAddress( config.get( transaction_listen_address ) )
                 .serverName( "catchup-server" )
+                .monitors( platformModule.monitors )
                 .build();
 
         TransactionBackupServiceProvider transactionBackupServiceProvider =
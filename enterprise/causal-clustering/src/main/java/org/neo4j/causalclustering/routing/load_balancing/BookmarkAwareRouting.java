@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.routing.load_balancing;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.neo4j.causalclustering.core.CausalClusteringSettings;
+import org.neo4j.causalclustering.discovery.TopologyService;
+import org.neo4j.causalclustering.identity.MemberId;
+import org.neo4j.causalclustering.routing.load_balancing.filters.CaughtUpFilter;
+import org.neo4j.internal.kernel.api.exceptions.ProcedureException;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.configuration.Config;
+
+import static java.lang.String.format;
+
+/**
+ * Steers causally consistent reads towards the readers which already satisfy the bookmark of the client.
+ *
+ * A client may supply its latest bookmark in the routing context under {@link #BOOKMARK_KEY}. Readers which
+ * are known, through the last applied transaction ids gossiped by the topology service, to have applied the
+ * bookmarked transaction are then preferred, so that reads do not have to wait for a lagging server to catch up.
+ * If no reader is known to satisfy the bookmark then all of them are returned, as without a bookmark.
+ *
+ * A narrowed set of readers only reflects the current replication lag, so drivers are told to ask again
+ * after one topology refresh period rather than caching it for the full routing time to live.
+ */
+public class BookmarkAwareRouting
+{
+    public static final String BOOKMARK_KEY = "bookmark";
+    private static final String BOOKMARK_TX_PREFIX = "neo4j:bookmark:v1:tx";
+
+    private final TopologyService topologyService;
+    private final long narrowedTimeToLive;
+
+    public BookmarkAwareRouting( TopologyService topologyService, Config config )
+    {
+        this.topologyService = topologyService;
+        this.narrowedTimeToLive = config.get( CausalClusteringSettings.cluster_topology_refresh ).toMillis();
+    }
+
+    public <T> Set<T> preferCaughtUp( Set<T> readers, Function<T,MemberId> memberIdOf, Map<String,String> context ) throws ProcedureException
+    {
+        OptionalLong requiredTransactionId = requiredTransactionId( context );
+        if ( !requiredTransactionId.isPresent() )
+        {
+            return readers;
+        }
+
+        Set<T> caughtUp = new CaughtUpFilter<>( requiredTransactionId.getAsLong(), topologyService.lastAppliedTransactionIds(), memberIdOf )
+                .apply( readers );
+        return caughtUp.isEmpty() ? readers : caughtUp;
+    }
+
+    public long timeToLive( long timeToLive, Set<?> readers, Set<?> selectedReaders )
+    {
+        return selectedReaders.size() < readers.size() ? Math.min( timeToLive, narrowedTimeToLive ) : timeToLive;
+    }
+
+    static OptionalLong requiredTransactionId( Map<String,String> context ) throws ProcedureException
+    {
+        String bookmark = context == null ? null : context.get( BOOKMARK_KEY );
+        if ( bookmark == null )
+        {
+            return OptionalLong.empty();
+        }
+
+        if ( bookmark.startsWith( BOOKMARK_TX_PREFIX ) )
+        {
+            try
+            {
+                return OptionalLong.of( Long.parseLong( bookmark.substring( BOOKMARK_TX_PREFIX.length() ) ) );
+            }
+            catch ( NumberFormatException ignored )
+            {
+                // reported below
+            }
+        }
+        throw new ProcedureException( Status.Transaction.InvalidBookmark,
+                format( "Supplied bookmark [%s] does not conform to pattern %s", bookmark, BOOKMARK_TX_PREFIX ) );
+    }
+}
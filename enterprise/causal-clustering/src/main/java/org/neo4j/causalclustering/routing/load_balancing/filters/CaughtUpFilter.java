@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.routing.load_balancing.filters;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.neo4j.causalclustering.identity.MemberId;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Only passes the servers known to have applied at least the required transaction. Servers
+ * which have not reported how far they have applied are treated as lagging behind.
+ */
+public class CaughtUpFilter<T> implements Filter<T>
+{
+    private final long requiredTransactionId;
+    private final Map<MemberId,Long> lastAppliedTransactionIds;
+    private final Function<T,MemberId> memberIdOf;
+
+    public CaughtUpFilter( long requiredTransactionId, Map<MemberId,Long> lastAppliedTransactionIds, Function<T,MemberId> memberIdOf )
+    {
+        this.requiredTransactionId = requiredTransactionId;
+        this.lastAppliedTransactionIds = lastAppliedTransactionIds;
+        this.memberIdOf = memberIdOf;
+    }
+
+    @Override
+    public Set<T> apply( Set<T> data )
+    {
+        return data.stream().filter( this::isCaughtUp ).collect( toSet() );
+    }
+
+    private boolean isCaughtUp( T server )
+    {
+        Long lastApplied = lastAppliedTransactionIds.get( memberIdOf.apply( server ) );
+        return lastApplied != null && lastApplied >= requiredTransactionId;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        CaughtUpFilter<?> that = (CaughtUpFilter<?>) o;
+        return requiredTransactionId == that.requiredTransactionId && Objects.equals( lastAppliedTransactionIds, that.lastAppliedTransactionIds );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( requiredTransactionId, lastAppliedTransactionIds );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CaughtUpFilter{" +
+               "requiredTransactionId=" + requiredTransactionId +
+               '}';
+    }
+}
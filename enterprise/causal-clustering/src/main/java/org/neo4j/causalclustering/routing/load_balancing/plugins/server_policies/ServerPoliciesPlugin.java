@@ -37,6 +37,7 @@ import org.neo4j.causalclustering.discovery.ReadReplicaTopology;
 import org.neo4j.causalclustering.discovery.TopologyService;
 import org.neo4j.causalclustering.identity.MemberId;
 import org.neo4j.causalclustering.routing.Endpoint;
+import org.neo4j.causalclustering.routing.load_balancing.BookmarkAwareRouting;
 import org.neo4j.causalclustering.routing.load_balancing.LoadBalancingPlugin;
 import org.neo4j.causalclustering.routing.load_balancing.LoadBalancingResult;
 import org.neo4j.graphdb.config.InvalidSettingException;
@@ -67,6 +68,7 @@ public class ServerPoliciesPlugin implements LoadBalancingPlugin
     private Long timeToLive;
     private boolean allowReadsOnFollowers;
     private Policies policies;
+    private BookmarkAwareRouting bookmarkAwareRouting;
 
     @Override
     public void validate( Config config, Log log ) throws InvalidSettingException
@@ -90,6 +92,7 @@ public class ServerPoliciesPlugin implements LoadBalancingPlugin
         this.timeToLive = config.get( CausalClusteringSettings.cluster_routing_ttl ).toMillis();
         this.allowReadsOnFollowers = config.get( CausalClusteringSettings.cluster_allow_reads_on_followers );
         this.policies = load( config, PLUGIN_NAME, logProvider.getLog( getClass() ) );
+        this.bookmarkAwareRouting = new BookmarkAwareRouting( topologyService, config );
     }
 
     @Override
@@ -106,8 +109,11 @@ public class ServerPoliciesPlugin implements LoadBalancingPlugin
         CoreTopology coreTopology = topologyService.localCoreServers();
         ReadReplicaTopology rrTopology = topologyService.localReadReplicas();
 
-        return new LoadBalancingResult( routeEndpoints( coreTopology ), writeEndpoints( coreTopology ),
-                readEndpoints( coreTopology, rrTopology, policy ), timeToLive );
+        Set<ServerInfo> readers = policy.apply( possibleReaders( coreTopology, rrTopology ) );
+        Set<ServerInfo> selectedReaders = bookmarkAwareRouting.preferCaughtUp( readers, ServerInfo::memberId, context );
+
+        return new LoadBalancingResult( routeEndpoints( coreTopology ), writeEndpoints( coreTopology ), readEndpoints( selectedReaders ),
+                bookmarkAwareRouting.timeToLive( timeToLive, readers, selectedReaders ) );
     }
 
     private List<Endpoint> routeEndpoints( CoreTopology cores )
@@ -136,7 +142,7 @@ public class ServerPoliciesPlugin implements LoadBalancingPlugin
         return asList( endPoint );
     }
 
-    private List<Endpoint> readEndpoints( CoreTopology coreTopology, ReadReplicaTopology rrTopology, Policy policy )
+    private Set<ServerInfo> possibleReaders( CoreTopology coreTopology, ReadReplicaTopology rrTopology )
     {
 
         Set<ServerInfo> possibleReaders = rrTopology.members().entrySet().stream()
@@ -166,7 +172,11 @@ public class ServerPoliciesPlugin implements LoadBalancingPlugin
             }
         }
 
-        Set<ServerInfo> readers = policy.apply( possibleReaders );
+        return possibleReaders;
+    }
+
+    private List<Endpoint> readEndpoints( Set<ServerInfo> readers )
+    {
         return readers.stream().map( r -> Endpoint.read( r.boltAddress() ) ).collect( Collectors.toList() );
     }
 }
@@ -22,19 +22,21 @@
  */
 package org.neo4j.causalclustering.routing.load_balancing.procedure;
 
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.neo4j.causalclustering.core.CausalClusteringSettings;
 import org.neo4j.causalclustering.core.consensus.LeaderLocator;
 import org.neo4j.causalclustering.core.consensus.NoLeaderFoundException;
-import org.neo4j.causalclustering.discovery.CoreServerInfo;
 import org.neo4j.causalclustering.discovery.TopologyService;
 import org.neo4j.causalclustering.identity.MemberId;
 import org.neo4j.causalclustering.routing.Endpoint;
+import org.neo4j.causalclustering.routing.load_balancing.BookmarkAwareRouting;
 import org.neo4j.causalclustering.routing.load_balancing.LoadBalancingResult;
 import org.neo4j.collection.RawIterator;
 import org.neo4j.helpers.AdvertisedSocketAddress;
@@ -48,8 +50,8 @@ import org.neo4j.kernel.configuration.Config;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Stream.concat;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.cluster_allow_reads_on_followers;
 import static org.neo4j.causalclustering.routing.Util.asList;
 import static org.neo4j.causalclustering.routing.Util.extractBoltAddress;
@@ -81,6 +83,7 @@ public class GetServersProcedureForSingleDC implements CallableProcedure
     private final LeaderLocator leaderLocator;
     private final Config config;
     private final Log log;
+    private final BookmarkAwareRouting bookmarkAwareRouting;
 
     public GetServersProcedureForSingleDC( TopologyService topologyService, LeaderLocator leaderLocator,
             Config config, LogProvider logProvider )
@@ -89,6 +92,7 @@ public class GetServersProcedureForSingleDC implements CallableProcedure
         this.leaderLocator = leaderLocator;
         this.config = config;
         this.log = logProvider.getLog( getClass() );
+        this.bookmarkAwareRouting = new BookmarkAwareRouting( topologyService, config );
     }
 
     @Override
@@ -99,15 +103,22 @@ public class GetServersProcedureForSingleDC implements CallableProcedure
 
     @Override
     public RawIterator<Object[],ProcedureException> apply(
-            Context ctx, Object[] input, ResourceTracker resourceTracker )
+            Context ctx, Object[] input, ResourceTracker resourceTracker ) throws ProcedureException
     {
+        @SuppressWarnings( "unchecked" )
+        Map<String,String> clientContext = (Map<String,String>) input[0];
+
+        Map<MemberId,AdvertisedSocketAddress> readers = readers();
+        Set<MemberId> selectedReaders = bookmarkAwareRouting.preferCaughtUp( readers.keySet(), identity(), clientContext );
+
         List<Endpoint> routeEndpoints = routeEndpoints();
         List<Endpoint> writeEndpoints = writeEndpoints();
-        List<Endpoint> readEndpoints = readEndpoints();
+        List<Endpoint> readEndpoints = readEndpoints( readers, selectedReaders );
+        long timeToLive = bookmarkAwareRouting.timeToLive(
+                config.get( CausalClusteringSettings.cluster_routing_ttl ).toMillis(), readers.keySet(), selectedReaders );
 
         return RawIterator.<Object[],ProcedureException>of( ResultFormatV1.build(
-                new LoadBalancingResult( routeEndpoints, writeEndpoints, readEndpoints,
-                        config.get( CausalClusteringSettings.cluster_routing_ttl ).toMillis() ) ) );
+                new LoadBalancingResult( routeEndpoints, writeEndpoints, readEndpoints, timeToLive ) ) );
     }
 
     private Optional<AdvertisedSocketAddress> leaderBoltAddress()
@@ -140,30 +151,36 @@ public class GetServersProcedureForSingleDC implements CallableProcedure
         return asList( leaderBoltAddress().map( Endpoint::write ) );
     }
 
-    private List<Endpoint> readEndpoints()
+    private List<Endpoint> readEndpoints( Map<MemberId,AdvertisedSocketAddress> readers, Set<MemberId> selectedReaders )
     {
-        List<AdvertisedSocketAddress> readReplicas = topologyService.localReadReplicas().allMemberInfo().stream()
-                .map( extractBoltAddress() ).collect( toList() );
-        boolean addFollowers = readReplicas.isEmpty() || config.get( cluster_allow_reads_on_followers );
-        Stream<AdvertisedSocketAddress> readCore = addFollowers ? coreReadEndPoints() : Stream.empty();
-        List<Endpoint> readEndPoints =
-                concat( readReplicas.stream(), readCore ).map( Endpoint::read ).collect( toList() );
+        List<Endpoint> readEndPoints = selectedReaders.stream().map( readers::get ).map( Endpoint::read ).collect( toList() );
         Collections.shuffle( readEndPoints );
         return readEndPoints;
     }
 
-    private Stream<AdvertisedSocketAddress> coreReadEndPoints()
+    private Map<MemberId,AdvertisedSocketAddress> readers()
+    {
+        Map<MemberId,AdvertisedSocketAddress> readers = new HashMap<>();
+        topologyService.localReadReplicas().members().forEach( ( memberId, info ) -> readers.put( memberId, info.connectors().boltAddress() ) );
+        boolean addFollowers = readers.isEmpty() || config.get( cluster_allow_reads_on_followers );
+        if ( addFollowers )
+        {
+            readers.putAll( coreReaders() );
+        }
+        return readers;
+    }
+
+    private Map<MemberId,AdvertisedSocketAddress> coreReaders()
     {
         Optional<AdvertisedSocketAddress> leader = leaderBoltAddress();
-        Collection<CoreServerInfo> coreServerInfo = topologyService.localCoreServers().members().values();
-        Stream<AdvertisedSocketAddress> boltAddresses = topologyService.localCoreServers()
-                .members().values().stream().map( extractBoltAddress() );
+        Map<MemberId,AdvertisedSocketAddress> boltAddresses = new HashMap<>();
+        topologyService.localCoreServers().members().forEach( ( memberId, info ) -> boltAddresses.put( memberId, info.connectors().boltAddress() ) );
 
         // if the leader is present and it is not alone filter it out from the read end points
-        if ( leader.isPresent() && coreServerInfo.size() > 1 )
+        if ( leader.isPresent() && boltAddresses.size() > 1 )
         {
             AdvertisedSocketAddress advertisedSocketAddress = leader.get();
-            return boltAddresses.filter( address -> !advertisedSocketAddress.equals( address ) );
+            boltAddresses.values().removeIf( advertisedSocketAddress::equals );
         }
 
         // if there is only the leader return it as read end point
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.channel.ChannelConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.causalclustering.catchup.CatchUpClient;
+import org.neo4j.causalclustering.catchup.CatchUpResponseAdaptor;
+import org.neo4j.causalclustering.catchup.CatchupClientBuilder;
+import org.neo4j.causalclustering.catchup.CatchupResult;
+import org.neo4j.causalclustering.catchup.tx.TxPullRequest;
+import org.neo4j.causalclustering.catchup.tx.TxPullResponse;
+import org.neo4j.causalclustering.catchup.tx.TxStreamFinishedResponse;
+import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.causalclustering.protocol.compression.CompressionMonitor;
+import org.neo4j.causalclustering.protocol.handshake.ModifierSupportedProtocols;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.AdvertisedSocketAddress;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocolCategory.CATCHUP;
+import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocolCategory.COMPRESSION;
+import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_ADAPTIVE;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.kernel.impl.transaction.log.TransactionIdStore.BASE_TX_ID;
+
+/**
+ * Store copy and transaction pulling between a real catchup server and client which have negotiated the adaptive
+ * compression modifier, so that responses mixing small messages with streamed files and transactions are sent as
+ * compressed blocks in both directions.
+ */
+public class CatchupOverAdaptiveCompressionIT
+{
+    private static final LogProvider LOG_PROVIDER = NullLogProvider.getInstance();
+    private static final List<String> ADAPTIVE = singletonList( COMPRESSION_ADAPTIVE.implementation() );
+
+    @Rule
+    public DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    @Rule
+    public TestDirectory testDirectory = TestDirectory.testDirectory( fileSystemRule );
+
+    private final CompressionCounter serverCompression = new CompressionCounter();
+    private final CompressionCounter clientCompression = new CompressionCounter();
+    private DefaultFileSystemAbstraction fsa = fileSystemRule.get();
+    private GraphDatabaseAPI graphDb;
+    private TestCatchupServer catchupServer;
+    private CatchUpClient catchupClient;
+    private File temporaryDirectory;
+
+    @Before
+    public void start() throws Throwable
+    {
+        temporaryDirectory = testDirectory.directory( "temp" );
+        graphDb = (GraphDatabaseAPI) new TestGraphDatabaseFactory().setFileSystem( fsa ).newEmbeddedDatabase( testDirectory.databaseDir() );
+        addData( graphDb );
+
+        Monitors serverMonitors = new Monitors();
+        serverMonitors.addMonitorListener( serverCompression, CATCHUP.canonicalName() );
+        catchupServer = new TestCatchupServer( fsa, graphDb, ADAPTIVE, serverMonitors );
+        catchupServer.start();
+
+        Monitors clientMonitors = new Monitors();
+        clientMonitors.addMonitorListener( clientCompression, CATCHUP.canonicalName() );
+        catchupClient = new CatchupClientBuilder()
+                .modifierProtocols( singletonList( new ModifierSupportedProtocols( COMPRESSION, ADAPTIVE ) ) )
+                .monitors( clientMonitors )
+                .build();
+        catchupClient.start();
+    }
+
+    @After
+    public void stop() throws Throwable
+    {
+        if ( catchupClient != null )
+        {
+            catchupClient.stop();
+        }
+        if ( catchupServer != null )
+        {
+            catchupServer.stop();
+        }
+        if ( graphDb != null )
+        {
+            graphDb.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldCopyStoreFilesOverAdaptiveCompression() throws Exception
+    {
+        // given
+        graphDb.getDependencyResolver().resolveDependency( PageCache.class ).flushAndForce();
+
+        try ( SimpleCatchupClient client = new SimpleCatchupClient( graphDb, fsa, catchupClient, catchupServer, temporaryDirectory, LOG_PROVIDER ) )
+        {
+            // when
+            PrepareStoreCopyResponse listing = client.requestListOfFilesFromServer();
+            assertEquals( PrepareStoreCopyResponse.Status.SUCCESS, listing.status() );
+            for ( File file : listing.getFiles() )
+            {
+                File copy = new File( temporaryDirectory, file.getName() );
+                assertEquals( StoreCopyFinishedResponse.Status.SUCCESS, client.requestIndividualFile( copy ).status() );
+
+                // then
+                assertArrayEquals( file.getName(), Files.readAllBytes( graphDb.databaseLayout().file( file.getName() ).toPath() ),
+                        Files.readAllBytes( copy.toPath() ) );
+            }
+        }
+
+        // and the files were actually sent compressed
+        assertCompressedOnTheWay();
+    }
+
+    @Test
+    public void shouldPullTransactionsOverAdaptiveCompression() throws Exception
+    {
+        // when
+        List<CommittedTransactionRepresentation> pulled = new ArrayList<>();
+        TxStreamFinishedResponse finished = catchupClient.makeBlockingRequest( serverAddress(), new TxPullRequest( BASE_TX_ID, storeId() ),
+                new CatchUpResponseAdaptor<TxStreamFinishedResponse>()
+                {
+                    @Override
+                    public void onTxPullResponse( CompletableFuture<TxStreamFinishedResponse> signal, TxPullResponse response, ChannelConfig channelConfig )
+                    {
+                        pulled.add( response.tx() );
+                    }
+
+                    @Override
+                    public void onTxStreamFinishedResponse( CompletableFuture<TxStreamFinishedResponse> signal, TxStreamFinishedResponse response )
+                    {
+                        signal.complete( response );
+                    }
+                } );
+
+        // then
+        assertEquals( CatchupResult.SUCCESS_END_OF_STREAM, finished.status() );
+        // the start entry has no log position once it has been sent, so compare what the transactions consist of
+        List<CommittedTransactionRepresentation> expected = committedTransactionsAfter( BASE_TX_ID );
+        assertEquals( contents( expected ), contents( pulled ) );
+
+        // and the transactions were actually sent compressed
+        assertCompressedOnTheWay();
+    }
+
+    private void assertCompressedOnTheWay()
+    {
+        assertThat( serverCompression.compressedBytes.get(), lessThan( serverCompression.uncompressedBytes.get() ) );
+        assertThat( clientCompression.decompressedBytes.get(), greaterThan( clientCompression.decompressedFromBytes.get() ) );
+        assertEquals( serverCompression.uncompressedBytes.get(), clientCompression.decompressedBytes.get() );
+    }
+
+    private List<CommittedTransactionRepresentation> committedTransactionsAfter( long txId ) throws IOException
+    {
+        List<CommittedTransactionRepresentation> transactions = new ArrayList<>();
+        LogicalTransactionStore transactionStore = graphDb.getDependencyResolver().resolveDependency( LogicalTransactionStore.class );
+        try ( TransactionCursor cursor = transactionStore.getTransactions( txId + 1 ) )
+        {
+            while ( cursor.next() )
+            {
+                transactions.add( cursor.get() );
+            }
+        }
+        return transactions;
+    }
+
+    private static List<Object> contents( List<CommittedTransactionRepresentation> transactions )
+    {
+        List<Object> contents = new ArrayList<>();
+        for ( CommittedTransactionRepresentation transaction : transactions )
+        {
+            contents.add( transaction.getTransactionRepresentation() );
+            contents.add( transaction.getCommitEntry() );
+        }
+        return contents;
+    }
+
+    private AdvertisedSocketAddress serverAddress()
+    {
+        return new AdvertisedSocketAddress( "localhost", catchupServer.address().getPort() );
+    }
+
+    private StoreId storeId()
+    {
+        org.neo4j.storageengine.api.StoreId storeId = graphDb.storeId();
+        return new StoreId( storeId.getCreationTime(), storeId.getRandomId(), storeId.getUpgradeTime(), storeId.getUpgradeId() );
+    }
+
+    /**
+     * Enough compressible data for the store files and the transaction stream to span many blocks of every size.
+     */
+    private static void addData( GraphDatabaseAPI graphDb )
+    {
+        for ( int batch = 0; batch < 20; batch++ )
+        {
+            try ( Transaction tx = graphDb.beginTx() )
+            {
+                Node previous = graphDb.createNode();
+                for ( int i = 0; i < 200; i++ )
+                {
+                    Node node = graphDb.createNode( label( "Person" ) );
+                    node.setProperty( "name", StringUtils.repeat( "name-" + i, 20 ) );
+                    previous.createRelationshipTo( node, RelationshipType.withName( "KNOWS" ) );
+                    previous = node;
+                }
+                tx.success();
+            }
+        }
+    }
+
+    private static class CompressionCounter implements CompressionMonitor
+    {
+        private final AtomicLong uncompressedBytes = new AtomicLong();
+        private final AtomicLong compressedBytes = new AtomicLong();
+        private final AtomicLong decompressedFromBytes = new AtomicLong();
+        private final AtomicLong decompressedBytes = new AtomicLong();
+
+        @Override
+        public void compressed( long uncompressedBytes, long compressedBytes, long elapsedNanos )
+        {
+            this.uncompressedBytes.addAndGet( uncompressedBytes );
+            this.compressedBytes.addAndGet( compressedBytes );
+        }
+
+        @Override
+        public void decompressed( long compressedBytes, long uncompressedBytes, long elapsedNanos )
+        {
+            this.decompressedFromBytes.addAndGet( compressedBytes );
+            this.decompressedBytes.addAndGet( uncompressedBytes );
+        }
+    }
+}
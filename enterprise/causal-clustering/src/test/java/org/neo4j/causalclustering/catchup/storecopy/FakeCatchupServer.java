@@ -216,6 +216,12 @@ class TestCatchupServerHandler implements CatchupServerHandler
         };
     }
 
+    @Override
+    public ChannelHandler getStoreFileDiffRequestHandler( CatchupServerProtocol catchupServerProtocol )
+    {
+        return new ChannelInboundHandlerAdapter();
+    }
+
     @Override
     public Optional<ChannelHandler> snapshotHandler( CatchupServerProtocol catchupServerProtocol )
     {
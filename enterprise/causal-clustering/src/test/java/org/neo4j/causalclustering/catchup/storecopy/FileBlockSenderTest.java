@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.causalclustering.messaging.NetworkReadableClosableChannelNetty4;
+import org.neo4j.causalclustering.messaging.NetworkWritableChannel;
+import org.neo4j.causalclustering.messaging.marshalling.storeid.StoreIdMarshal;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static io.netty.buffer.ByteBufAllocator.DEFAULT;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.causalclustering.catchup.storecopy.BlockChecksums.MIN_BLOCK_SIZE;
+import static org.neo4j.causalclustering.catchup.storecopy.FileBlockSender.MAX_BLOCKS_SCANNED_PER_CHUNK;
+
+public class FileBlockSenderTest
+{
+    private static final StoreId STORE_ID = new StoreId( 1, 2, 3, 4 );
+
+    private final Random random = new Random();
+    @Rule
+    public EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+
+    private final File localDir = new File( "local" );
+    private final File remoteDir = new File( "remote" );
+    private final File destDir = new File( "dest" );
+
+    @Test
+    public void shouldOnlySendChangedBlocks() throws Exception
+    {
+        // given
+        byte[] local = randomBytes( 4 * MIN_BLOCK_SIZE + 100 );
+        byte[] remote = local.clone();
+        remote[MIN_BLOCK_SIZE + 7]++;
+        remote[3 * MIN_BLOCK_SIZE]++;
+
+        // when
+        List<FileBlock> blocks = transfer( local, remote );
+
+        // then
+        List<Long> sentOffsets = new ArrayList<>();
+        for ( FileBlock block : blocks )
+        {
+            if ( block.bytes().length > 0 )
+            {
+                sentOffsets.add( block.offset() );
+            }
+        }
+        assertEquals( asList( (long) MIN_BLOCK_SIZE, 3L * MIN_BLOCK_SIZE ), sentOffsets );
+        FileBlock last = blocks.get( blocks.size() - 1 );
+        assertTrue( last.isLast() );
+        assertEquals( remote.length, last.offset() );
+        assertArrayEquals( remote, readFile( new File( destDir, "file" ) ) );
+    }
+
+    @Test
+    public void shouldReproduceRemoteFileWhichGrew() throws Exception
+    {
+        byte[] local = randomBytes( 2 * MIN_BLOCK_SIZE + 10 );
+        byte[] remote = new byte[5 * MIN_BLOCK_SIZE + 3];
+        System.arraycopy( local, 0, remote, 0, local.length );
+        byte[] tail = randomBytes( remote.length - local.length );
+        System.arraycopy( tail, 0, remote, local.length, tail.length );
+
+        transfer( local, remote );
+
+        assertArrayEquals( remote, readFile( new File( destDir, "file" ) ) );
+    }
+
+    @Test
+    public void shouldReproduceRemoteFileWhichShrunk() throws Exception
+    {
+        byte[] local = randomBytes( 5 * MIN_BLOCK_SIZE + 3 );
+        byte[] remote = new byte[MIN_BLOCK_SIZE + 1];
+        System.arraycopy( local, 0, remote, 0, remote.length );
+        remote[MIN_BLOCK_SIZE]++;
+
+        transfer( local, remote );
+
+        assertArrayEquals( remote, readFile( new File( destDir, "file" ) ) );
+    }
+
+    @Test
+    public void shouldReproduceEmptyRemoteFile() throws Exception
+    {
+        transfer( randomBytes( MIN_BLOCK_SIZE ), new byte[0] );
+
+        assertArrayEquals( new byte[0], readFile( new File( destDir, "file" ) ) );
+    }
+
+    @Test
+    public void shouldSendProgressWhileScanningUnchangedFile() throws Exception
+    {
+        byte[] content = randomBytes( 3 * MAX_BLOCKS_SCANNED_PER_CHUNK * MIN_BLOCK_SIZE );
+
+        List<FileBlock> blocks = transfer( content, content );
+
+        // two chunks with nothing to send, then the end of the file
+        assertEquals( 3, blocks.size() );
+        for ( FileBlock block : blocks )
+        {
+            assertEquals( 0, block.bytes().length );
+        }
+        assertTrue( blocks.get( 2 ).isLast() );
+        assertArrayEquals( content, readFile( new File( destDir, "file" ) ) );
+    }
+
+    @Test
+    public void shouldNotProduceDiffRequestWithoutLocalFile() throws Exception
+    {
+        FileSystemAbstraction fs = fsRule.get();
+        fs.mkdirs( localDir );
+        LocalStoreFiles localStoreFiles = new LocalStoreFiles( fs, localDir, destDir );
+
+        assertFalse( localStoreFiles.diffRequest( STORE_ID, new File( "file" ), 42 ).isPresent() );
+        assertFalse( LocalStoreFiles.none().diffRequest( STORE_ID, new File( "file" ), 42 ).isPresent() );
+    }
+
+    @Test
+    public void shouldEncodeAndDecodeMessages()
+    {
+        GetStoreFileDiffRequest request = new GetStoreFileDiffRequest( STORE_ID, new File( "file" ), 42, MIN_BLOCK_SIZE, new long[]{1, -2, 3} );
+        GetStoreFileDiffRequest decodedRequest = roundTrip( request, new GetStoreFileDiffRequest.Encoder(), new GetStoreFileDiffRequest.Decoder() );
+        assertEquals( request.expectedStoreId(), decodedRequest.expectedStoreId() );
+        assertEquals( request.file(), decodedRequest.file() );
+        assertEquals( request.requiredTransactionId(), decodedRequest.requiredTransactionId() );
+        assertEquals( request.blockSize(), decodedRequest.blockSize() );
+        assertArrayEquals( request.blockChecksums(), decodedRequest.blockChecksums() );
+
+        FileDiffHeader header = new FileDiffHeader( "file", 8 );
+        assertEquals( header, roundTrip( header, new FileDiffHeader.Encoder(), new FileDiffHeader.Decoder() ) );
+
+        FileBlock block = FileBlock.block( 3L * MIN_BLOCK_SIZE, randomBytes( 100 ) );
+        assertEquals( block, roundTrip( block, new FileBlock.Encoder(), new FileBlock.Decoder() ) );
+        assertEquals( FileBlock.end( 17 ), roundTrip( FileBlock.end( 17 ), new FileBlock.Encoder(), new FileBlock.Decoder() ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldRejectInvalidBlockSize()
+    {
+        new GetStoreFileDiffRequest( STORE_ID, new File( "file" ), 42, MIN_BLOCK_SIZE + 1, new long[0] );
+    }
+
+    @Test( expected = IOException.class )
+    public void shouldRejectDecodingMoreChecksumsThanAnyFileCanHave() throws Exception
+    {
+        ByteBuf buffer = Unpooled.buffer();
+        NetworkWritableChannel channel = new NetworkWritableChannel( buffer );
+        StoreIdMarshal.INSTANCE.marshal( STORE_ID, channel );
+        channel.putLong( 42 );
+        channel.putInt( 0 );
+        channel.putInt( MIN_BLOCK_SIZE );
+        channel.putInt( BlockChecksums.MAX_BLOCK_COUNT + 1 );
+
+        new GetStoreFileDiffRequest.StoreFileDiffRequestMarshall().unmarshal0( new NetworkReadableClosableChannelNetty4( buffer ) );
+    }
+
+    @Test
+    public void shouldGrowBlockSizeForLargeFiles()
+    {
+        assertEquals( MIN_BLOCK_SIZE, BlockChecksums.blockSize( 0 ) );
+        assertEquals( MIN_BLOCK_SIZE, BlockChecksums.blockSize( (long) MIN_BLOCK_SIZE << 20 ) );
+        assertEquals( 2 * MIN_BLOCK_SIZE, BlockChecksums.blockSize( ((long) MIN_BLOCK_SIZE << 20) + MIN_BLOCK_SIZE ) );
+        assertEquals( BlockChecksums.MAX_BLOCK_SIZE, BlockChecksums.blockSize( Long.MAX_VALUE ) );
+    }
+
+    /**
+     * Seeds the destination from the local file, streams the differences of the remote file and applies them
+     * the way the store copy client does.
+     */
+    private List<FileBlock> transfer( byte[] local, byte[] remote ) throws Exception
+    {
+        FileSystemAbstraction fs = fsRule.get();
+        writeFile( new File( localDir, "file" ), local );
+        File remoteFile = new File( remoteDir, "file" );
+        writeFile( remoteFile, remote );
+
+        Optional<GetStoreFileDiffRequest> request = new LocalStoreFiles( fs, localDir, destDir ).diffRequest( STORE_ID, new File( "file" ), 42 );
+        assertTrue( request.isPresent() );
+
+        List<FileBlock> blocks = new ArrayList<>();
+        FileBlockSender sender = new FileBlockSender( new StoreResource( remoteFile, "file", 16, fs ), request.get().blockSize(),
+                request.get().blockChecksums() );
+        try ( StoreFileStream stream = new StreamToDiskProvider( destDir, fs, new Monitors() ).acquire( "file", 16 ) )
+        {
+            while ( !sender.isEndOfInput() )
+            {
+                FileBlock block = sender.readChunk( DEFAULT );
+                blocks.add( block );
+                if ( block.isLast() )
+                {
+                    stream.truncate( block.offset() );
+                }
+                else if ( block.bytes().length > 0 )
+                {
+                    stream.write( block.offset(), block.bytes() );
+                }
+            }
+        }
+        finally
+        {
+            sender.close();
+        }
+        return blocks;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static <T> T roundTrip( T message, ChannelHandler encoder, ChannelHandler decoder )
+    {
+        EmbeddedChannel channel = new EmbeddedChannel( encoder, decoder );
+        channel.writeOutbound( message );
+        ByteBuf encoded = channel.readOutbound();
+        channel.writeInbound( encoded );
+        T decoded = channel.readInbound();
+        channel.finishAndReleaseAll();
+        return decoded;
+    }
+
+    private byte[] randomBytes( int size )
+    {
+        byte[] bytes = new byte[size];
+        random.nextBytes( bytes );
+        return bytes;
+    }
+
+    private void writeFile( File file, byte[] content ) throws IOException
+    {
+        FileSystemAbstraction fs = fsRule.get();
+        fs.mkdirs( file.getParentFile() );
+        try ( StoreChannel channel = fs.open( file, OpenMode.READ_WRITE ) )
+        {
+            channel.truncate( 0 );
+            channel.writeAll( ByteBuffer.wrap( content ) );
+        }
+    }
+
+    private byte[] readFile( File file ) throws IOException
+    {
+        FileSystemAbstraction fs = fsRule.get();
+        byte[] content = new byte[(int) fs.getFileSize( file )];
+        try ( StoreChannel channel = fs.open( file, OpenMode.READ ) )
+        {
+            channel.readAll( ByteBuffer.wrap( content ) );
+        }
+        return content;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.catchup.storecopy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static io.netty.buffer.ByteBufAllocator.DEFAULT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.causalclustering.catchup.storecopy.FileChunk.MAX_SIZE;
+
+public class FileRegionSenderTest
+{
+    private final Random random = new Random();
+    @Rule
+    public EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    @Rule
+    public TestDirectory testDirectory = TestDirectory.testDirectory();
+
+    @Test
+    public void shouldProduceTheSameFramesAsFileSenderForEmptyFile() throws Exception
+    {
+        assertSameAsFileSender( fsRule.get(), new File( "empty" ), 0 );
+    }
+
+    @Test
+    public void shouldProduceTheSameFramesAsFileSenderWhenCopyingFromEphemeralFileSystem() throws Exception
+    {
+        FileSystemAbstraction fs = fsRule.get();
+        assertSameAsFileSender( fs, new File( "small" ), 10 );
+        assertSameAsFileSender( fs, new File( "exact" ), MAX_SIZE );
+        assertSameAsFileSender( fs, new File( "large" ), 3 * MAX_SIZE + 17 );
+    }
+
+    @Test
+    public void shouldProduceTheSameFramesAsFileSenderWhenTransferringFromFileChannel() throws Exception
+    {
+        try ( FileSystemAbstraction fs = new DefaultFileSystemAbstraction() )
+        {
+            assertSameAsFileSender( fs, testDirectory.file( "small" ), 10 );
+            assertSameAsFileSender( fs, testDirectory.file( "exact" ), 2 * MAX_SIZE );
+            assertSameAsFileSender( fs, testDirectory.file( "large" ), 5 * MAX_SIZE + 1 );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldRejectNonSequentialTransfers() throws Exception
+    {
+        FileSystemAbstraction fs = fsRule.get();
+        File file = new File( "file" );
+        writeRandomBytes( fs, file, 100 );
+
+        FileRegionSender region = new FileRegionSender( new StoreResource( file, file.getPath(), 16, fs ), 100 );
+        try
+        {
+            region.transferTo( new ThrottledChannel( new ByteArrayOutputStream() ), 5 );
+        }
+        finally
+        {
+            region.release();
+        }
+    }
+
+    private void assertSameAsFileSender( FileSystemAbstraction fs, File file, int size ) throws Exception
+    {
+        // given
+        writeRandomBytes( fs, file, size );
+        StoreResource resource = new StoreResource( file, file.getPath(), 16, fs );
+
+        // when
+        ByteArrayOutputStream regionBytes = new ByteArrayOutputStream();
+        FileRegionSender region = new FileRegionSender( resource, resource.size() );
+        WritableByteChannel target = new ThrottledChannel( regionBytes );
+        while ( region.transferred() < region.count() )
+        {
+            region.transferTo( target, region.transferred() );
+        }
+        region.release();
+
+        // then
+        byte[] expected = framedFileSenderBytes( resource );
+        assertEquals( expected.length, region.count() );
+        assertArrayEquals( expected, regionBytes.toByteArray() );
+    }
+
+    private static byte[] framedFileSenderBytes( StoreResource resource ) throws Exception
+    {
+        EmbeddedChannel channel = new EmbeddedChannel( new LengthFieldPrepender( 4 ), new FileChunkEncoder() );
+        FileSender sender = new FileSender( resource );
+        FileChunk chunk;
+        while ( (chunk = sender.readChunk( DEFAULT )) != null )
+        {
+            channel.writeOutbound( chunk );
+        }
+        sender.close();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuf buffer;
+        while ( (buffer = channel.readOutbound()) != null )
+        {
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes( bytes );
+            buffer.release();
+            out.write( bytes );
+        }
+        channel.finishAndReleaseAll();
+        return out.toByteArray();
+    }
+
+    private void writeRandomBytes( FileSystemAbstraction fs, File file, int size ) throws IOException
+    {
+        byte[] bytes = new byte[size];
+        random.nextBytes( bytes );
+        try ( StoreChannel channel = fs.create( file ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( bytes ) );
+        }
+    }
+
+    /**
+     * Accepts a random, possibly empty, part of every write, like a socket with a full send buffer would.
+     */
+    private class ThrottledChannel implements WritableByteChannel
+    {
+        private final ByteArrayOutputStream out;
+
+        ThrottledChannel( ByteArrayOutputStream out )
+        {
+            this.out = out;
+        }
+
+        @Override
+        public int write( ByteBuffer src )
+        {
+            int length = Math.min( src.remaining(), random.nextInt( 3 * MAX_SIZE / 2 ) );
+            for ( int i = 0; i < length; i++ )
+            {
+                out.write( src.get() );
+            }
+            return length;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -59,6 +59,29 @@ public class InMemoryStoreStreamProvider implements StoreFileStreamProvider
             }
         }
 
+        @Override
+        public void write( long position, byte[] data )
+        {
+            int start = Math.toIntExact( position );
+            if ( stringBuffer.length() < start + data.length )
+            {
+                stringBuffer.setLength( start + data.length );
+            }
+            for ( int i = 0; i < data.length; i++ )
+            {
+                stringBuffer.setCharAt( start + i, (char) data[i] );
+            }
+        }
+
+        @Override
+        public void truncate( long size )
+        {
+            if ( stringBuffer.length() > size )
+            {
+                stringBuffer.setLength( Math.toIntExact( size ) );
+            }
+        }
+
         @Override
         public void close()
         {
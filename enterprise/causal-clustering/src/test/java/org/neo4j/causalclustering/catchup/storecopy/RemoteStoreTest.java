@@ -33,6 +33,7 @@ import org.neo4j.causalclustering.catchup.TxPullRequestResult;
 import org.neo4j.causalclustering.catchup.tx.TransactionLogCatchUpFactory;
 import org.neo4j.causalclustering.catchup.tx.TransactionLogCatchUpWriter;
 import org.neo4j.causalclustering.catchup.tx.TxPullClient;
+import org.neo4j.causalclustering.core.CausalClusteringSettings;
 import org.neo4j.causalclustering.identity.StoreId;
 import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -45,6 +46,7 @@ import org.neo4j.logging.NullLogProvider;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
@@ -75,7 +77,7 @@ public class RemoteStoreTest
         remoteStore.copy( catchupAddressProvider, storeId, DatabaseLayout.of( new File( "destination" ) ), true );
 
         // then
-        verify( storeCopyClient ).copyStoreFiles( eq( catchupAddressProvider ), eq( storeId ), any( StoreFileStreamProvider.class ), any(), any() );
+        verify( storeCopyClient ).copyStoreFiles( eq( catchupAddressProvider ), eq( storeId ), any( StoreFileStreamProvider.class ), any(), any(), any() );
         verify( txPullClient ).pullTransactions( eq( localhost ), eq( storeId ), anyLong(), any() );
     }
 
@@ -89,7 +91,7 @@ public class RemoteStoreTest
         CatchupAddressProvider catchupAddressProvider = CatchupAddressProvider.fromSingleAddress( localhost );
 
         StoreCopyClient storeCopyClient = mock( StoreCopyClient.class );
-        when( storeCopyClient.copyStoreFiles( eq( catchupAddressProvider ), eq( wantedStoreId ), any( StoreFileStreamProvider.class ), any(), any() ) )
+        when( storeCopyClient.copyStoreFiles( eq( catchupAddressProvider ), eq( wantedStoreId ), any( StoreFileStreamProvider.class ), any(), any(), any() ) )
                 .thenReturn( lastFlushedTxId );
 
         TxPullClient txPullClient = mock( TxPullClient.class );
@@ -141,6 +143,35 @@ public class RemoteStoreTest
         verify( writer ).close();
     }
 
+    @Test
+    public void shouldOnlyStartFromLocalStoreFilesWhenDifferentialStoreCopyIsEnabled() throws Exception
+    {
+        StoreId storeId = new StoreId( 1, 2, 3, 4 );
+        AdvertisedSocketAddress localhost = new AdvertisedSocketAddress( "127.0.0.1", 1234 );
+        CatchupAddressProvider catchupAddressProvider = CatchupAddressProvider.fromSingleAddress( localhost );
+        DatabaseLayout destination = DatabaseLayout.of( new File( "destination" ) );
+        DatabaseLayout local = DatabaseLayout.of( new File( "local" ) );
+
+        for ( boolean enabled : new boolean[]{false, true} )
+        {
+            // given
+            StoreCopyClient storeCopyClient = mock( StoreCopyClient.class );
+            TxPullClient txPullClient = mock( TxPullClient.class );
+            when( txPullClient.pullTransactions( any(), any(), anyLong(), any() ) )
+                    .thenReturn( new TxPullRequestResult( SUCCESS_END_OF_STREAM, 13 ) );
+            Config config = Config.defaults( CausalClusteringSettings.enable_differential_store_copy, Boolean.toString( enabled ) );
+            RemoteStore remoteStore = new RemoteStore( NullLogProvider.getInstance(), mock( FileSystemAbstraction.class ),
+                    null, storeCopyClient, txPullClient, factory( mock( TransactionLogCatchUpWriter.class ) ), config, new Monitors() );
+
+            // when
+            remoteStore.copy( catchupAddressProvider, storeId, destination, local, true );
+
+            // then
+            verify( storeCopyClient ).copyStoreFiles( eq( catchupAddressProvider ), eq( storeId ), any( StoreFileStreamProvider.class ), any(), any(),
+                    enabled ? argThat( files -> files != LocalStoreFiles.none() ) : eq( LocalStoreFiles.none() ) );
+        }
+    }
+
     private static TransactionLogCatchUpFactory factory( TransactionLogCatchUpWriter writer ) throws IOException
     {
         TransactionLogCatchUpFactory factory = mock( TransactionLogCatchUpFactory.class );
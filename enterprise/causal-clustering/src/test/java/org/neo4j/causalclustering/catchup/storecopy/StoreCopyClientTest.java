@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.neo4j.causalclustering.catchup.CatchUpClient;
@@ -121,6 +122,48 @@ public class StoreCopyClientTest
         assertThat( expectedFiles, containsInAnyOrder( filteredRequests.toArray() ) );
     }
 
+    @Test
+    public void clientRequestsAllFilesInParallel() throws StoreCopyFailedException, CatchUpClientException
+    {
+        // given a client which may have several requests in flight
+        subject = new StoreCopyClient( catchUpClient, monitors, logProvider, backOffStrategy, 4 );
+        File[] manyServerFiles = IntStream.range( 0, 10 ).mapToObj( i -> new File( "file" + i ) ).toArray( File[]::new );
+        PrepareStoreCopyResponse prepareStoreCopyResponse = PrepareStoreCopyResponse.success( manyServerFiles, indexIds, -123L );
+        when( catchUpClient.makeBlockingRequest( any(), any( PrepareStoreCopyRequest.class ), any() ) ).thenReturn( prepareStoreCopyResponse );
+
+        // and any request will be successful
+        StoreCopyFinishedResponse success = new StoreCopyFinishedResponse( StoreCopyFinishedResponse.Status.SUCCESS );
+        when( catchUpClient.makeBlockingRequest( any(), any( GetStoreFileRequest.class ), any() ) ).thenReturn( success );
+        when( catchUpClient.makeBlockingRequest( any(), any( GetIndexFilesRequest.class ), any() ) ).thenReturn( success );
+
+        // when
+        subject.copyStoreFiles( catchupAddressProvider, expectedStoreId, expectedStoreFileStream, continueIndefinitely(), targetLocation );
+
+        // then every file has been requested
+        List<String> filteredRequests = filenamesFromIndividualFileRequests( getRequests() );
+        List<String> expectedFiles = Stream.of( manyServerFiles ).map( File::getName ).collect( Collectors.toList() );
+        assertThat( expectedFiles, containsInAnyOrder( filteredRequests.toArray() ) );
+    }
+
+    @Test
+    public void parallelCopyFailsWhenAnyRequestFails() throws CatchUpClientException, StoreCopyFailedException
+    {
+        // given
+        subject = new StoreCopyClient( catchUpClient, monitors, logProvider, backOffStrategy, 4 );
+        PrepareStoreCopyResponse prepareStoreCopyResponse = PrepareStoreCopyResponse.success( serverFiles, indexIds, -123L );
+        when( catchUpClient.makeBlockingRequest( any(), any( PrepareStoreCopyRequest.class ), any() ) ).thenReturn( prepareStoreCopyResponse );
+
+        // and the server responds with a status the client does not understand
+        StoreCopyFinishedResponse unknown = new StoreCopyFinishedResponse( null );
+        when( catchUpClient.makeBlockingRequest( any(), any( GetStoreFileRequest.class ), any() ) ).thenReturn( unknown );
+
+        // then
+        expectedException.expect( StoreCopyFailedException.class );
+
+        // when
+        subject.copyStoreFiles( catchupAddressProvider, expectedStoreId, expectedStoreFileStream, continueIndefinitely(), targetLocation );
+    }
+
     private Supplier<TerminationCondition> continueIndefinitely()
     {
         return () -> TerminationCondition.CONTINUE_INDEFINITELY;
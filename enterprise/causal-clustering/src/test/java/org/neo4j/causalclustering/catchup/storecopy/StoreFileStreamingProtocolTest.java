@@ -22,7 +22,11 @@
  */
 package org.neo4j.causalclustering.catchup.storecopy;
 
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.compression.SnappyFrameEncoder;
+import io.netty.handler.ssl.SslHandler;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.InOrder;
@@ -31,16 +35,21 @@ import org.mockito.Mockito;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 import org.neo4j.causalclustering.catchup.ResponseMessageType;
+import org.neo4j.causalclustering.protocol.compression.AdaptiveCompressionEncoder;
+import org.neo4j.causalclustering.protocol.compression.CompressionMonitor;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.test.rule.PageCacheRule;
 import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 import static org.neo4j.causalclustering.catchup.storecopy.StoreCopyFinishedResponse.Status.E_STORE_ID_MISMATCH;
 import static org.neo4j.causalclustering.catchup.storecopy.StoreCopyFinishedResponse.Status.SUCCESS;
 import static org.neo4j.kernel.impl.util.Cursors.rawCursorOf;
@@ -57,8 +66,8 @@ public class StoreFileStreamingProtocolTest
     public void shouldStreamResources() throws Exception
     {
         // given
-        StoreFileStreamingProtocol protocol = new StoreFileStreamingProtocol();
-        ChannelHandlerContext ctx = mock( ChannelHandlerContext.class );
+        StoreFileStreamingProtocol protocol = new StoreFileStreamingProtocol( true );
+        ChannelHandlerContext ctx = contextWithPipeline( mock( SslHandler.class ) );
 
         fs.mkdir( new File( "dirA" ) );
         fs.mkdir( new File( "dirB" ) );
@@ -85,11 +94,82 @@ public class StoreFileStreamingProtocolTest
         {
             inOrder.verify( ctx ).write( ResponseMessageType.FILE );
             inOrder.verify( ctx ).write( new FileHeader( resource.path(), resource.recordSize() ) );
+            inOrder.verify( ctx ).pipeline();
             inOrder.verify( ctx ).write( new FileSender( resource ) );
         }
         verifyNoMoreInteractions( ctx );
     }
 
+    @Test
+    public void shouldStreamResourcesAsFileRegionsWhenNotEncrypted() throws Exception
+    {
+        // given
+        StoreFileStreamingProtocol protocol = new StoreFileStreamingProtocol( true );
+        ChannelHandlerContext ctx = contextWithPipeline( new FileChunkEncoder() );
+        StoreResource resource = createResource( new File( "file" ), 16 );
+
+        // when
+        protocol.stream( ctx, resource );
+
+        // then
+        InOrder inOrder = Mockito.inOrder( ctx );
+        inOrder.verify( ctx ).write( ResponseMessageType.FILE );
+        inOrder.verify( ctx ).write( new FileHeader( resource.path(), resource.recordSize() ) );
+        inOrder.verify( ctx ).pipeline();
+        inOrder.verify( ctx ).write( new FileRegionSender( resource, 0 ) );
+        verifyNoMoreInteractions( ctx );
+    }
+
+    @Test
+    public void shouldNotUseFileRegionsWhenAdaptivelyCompressed() throws Exception
+    {
+        shouldNotUseFileRegionsThrough( new AdaptiveCompressionEncoder( mock( CompressionMonitor.class ) ) );
+    }
+
+    @Test
+    public void shouldNotUseFileRegionsWhenCompressed() throws Exception
+    {
+        shouldNotUseFileRegionsThrough( new SnappyFrameEncoder() );
+    }
+
+    private void shouldNotUseFileRegionsThrough( ChannelHandler handler ) throws IOException
+    {
+        // given
+        StoreFileStreamingProtocol protocol = new StoreFileStreamingProtocol( true );
+        ChannelHandlerContext ctx = contextWithPipeline( new FileChunkEncoder(), handler );
+        StoreResource resource = createResource( new File( "file" ), 16 );
+
+        // when
+        protocol.stream( ctx, resource );
+
+        // then
+        InOrder inOrder = Mockito.inOrder( ctx );
+        inOrder.verify( ctx ).write( ResponseMessageType.FILE );
+        inOrder.verify( ctx ).write( new FileHeader( resource.path(), resource.recordSize() ) );
+        inOrder.verify( ctx ).pipeline();
+        inOrder.verify( ctx ).write( new FileSender( resource ) );
+        verifyNoMoreInteractions( ctx );
+    }
+
+    @Test
+    public void shouldNotUseFileRegionsWhenZeroCopyIsDisabled() throws Exception
+    {
+        // given
+        StoreFileStreamingProtocol protocol = new StoreFileStreamingProtocol( false );
+        ChannelHandlerContext ctx = contextWithPipeline();
+        StoreResource resource = createResource( new File( "file" ), 16 );
+
+        // when
+        protocol.stream( ctx, resource );
+
+        // then
+        InOrder inOrder = Mockito.inOrder( ctx );
+        inOrder.verify( ctx ).write( ResponseMessageType.FILE );
+        inOrder.verify( ctx ).write( new FileHeader( resource.path(), resource.recordSize() ) );
+        inOrder.verify( ctx ).write( new FileSender( resource ) );
+        verifyNoMoreInteractions( ctx );
+    }
+
     @Test
     public void shouldBeAbleToEndWithFailure()
     {
@@ -124,6 +204,20 @@ public class StoreFileStreamingProtocolTest
         inOrder.verifyNoMoreInteractions();
     }
 
+    private static ChannelHandlerContext contextWithPipeline( ChannelHandler... handlers )
+    {
+        Map<String,ChannelHandler> handlersByName = new LinkedHashMap<>();
+        for ( ChannelHandler handler : handlers )
+        {
+            handlersByName.put( handler.getClass().getSimpleName(), handler );
+        }
+        ChannelPipeline pipeline = mock( ChannelPipeline.class );
+        when( pipeline.toMap() ).thenReturn( handlersByName );
+        ChannelHandlerContext ctx = mock( ChannelHandlerContext.class );
+        when( ctx.pipeline() ).thenReturn( pipeline );
+        return ctx;
+    }
+
     private StoreResource createResource( File file, int recordSize ) throws IOException
     {
         fs.create( file );
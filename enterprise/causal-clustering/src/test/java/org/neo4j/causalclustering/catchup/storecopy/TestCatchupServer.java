@@ -22,6 +22,7 @@
  */
 package org.neo4j.causalclustering.catchup.storecopy;
 
+import java.util.List;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
@@ -67,14 +68,20 @@ class TestCatchupServer extends Server
 
     TestCatchupServer( FileSystemAbstraction fileSystem, GraphDatabaseAPI graphDb )
     {
-        super( childInitializer( fileSystem, graphDb ), LOG_PROVIDER, LOG_PROVIDER, new ListenSocketAddress( "localhost", PortAuthority.allocatePort() ),
-                "fake-catchup-server" );
+        this( fileSystem, graphDb, emptyList(), new Monitors() );
     }
 
-    private static ChildInitializer childInitializer( FileSystemAbstraction fileSystem, GraphDatabaseAPI graphDb )
+    TestCatchupServer( FileSystemAbstraction fileSystem, GraphDatabaseAPI graphDb, List<String> compressionImplementations, Monitors monitors )
+    {
+        super( childInitializer( fileSystem, graphDb, compressionImplementations, monitors ), LOG_PROVIDER, LOG_PROVIDER,
+                new ListenSocketAddress( "localhost", PortAuthority.allocatePort() ), "fake-catchup-server" );
+    }
+
+    private static ChildInitializer childInitializer( FileSystemAbstraction fileSystem, GraphDatabaseAPI graphDb, List<String> compressionImplementations,
+            Monitors monitors )
     {
         ApplicationSupportedProtocols catchupProtocols = new ApplicationSupportedProtocols( CATCHUP, emptyList() );
-        ModifierSupportedProtocols modifierProtocols = new ModifierSupportedProtocols( COMPRESSION, emptyList() );
+        ModifierSupportedProtocols modifierProtocols = new ModifierSupportedProtocols( COMPRESSION, compressionImplementations );
 
         ApplicationProtocolRepository catchupRepository = new ApplicationProtocolRepository( ApplicationProtocols.values(), catchupProtocols );
         ModifierProtocolRepository modifierRepository = new ModifierProtocolRepository( ModifierProtocols.values(), singletonList( modifierProtocols ) );
@@ -89,7 +96,7 @@ class TestCatchupServer extends Server
                 kernelStoreId.getUpgradeId() );
 
         CheckPointerService checkPointerService = new CheckPointerService( checkPointer, createInitialisedScheduler(), Group.CHECKPOINT );
-        RegularCatchupServerHandler catchupServerHandler = new RegularCatchupServerHandler( new Monitors(), logProvider,
+        RegularCatchupServerHandler catchupServerHandler = new RegularCatchupServerHandler( monitors, logProvider,
                 () -> storeId, dataSource, availability, fileSystem, null, checkPointerService );
 
         NettyPipelineBuilderFactory pipelineBuilder = new NettyPipelineBuilderFactory( VoidPipelineWrapperFactory.VOID_WRAPPER );
@@ -97,7 +104,7 @@ class TestCatchupServer extends Server
                 catchupServerHandler );
 
         ProtocolInstallerRepository<ProtocolInstaller.Orientation.Server> protocolInstallerRepository = new ProtocolInstallerRepository<>(
-                singletonList( catchupProtocolServerInstaller ), ModifierProtocolInstaller.allServerInstallers );
+                singletonList( catchupProtocolServerInstaller ), ModifierProtocolInstaller.serverInstallers( monitors, CATCHUP ) );
 
         return new HandshakeServerInitializer( catchupRepository, modifierRepository, protocolInstallerRepository, pipelineBuilder, logProvider );
     }
@@ -22,12 +22,15 @@
  */
 package org.neo4j.causalclustering.catchup.tx;
 
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 
 import org.neo4j.causalclustering.catchup.CatchUpClient;
@@ -44,17 +47,23 @@ import org.neo4j.causalclustering.identity.MemberId;
 import org.neo4j.causalclustering.identity.StoreId;
 import org.neo4j.causalclustering.upstream.UpstreamDatabaseStrategySelector;
 import org.neo4j.helpers.AdvertisedSocketAddress;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.test.FakeClockJobScheduler;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.FakeClock;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -78,6 +87,7 @@ public class CatchupPollingProcessTest
     private final BatchingTxApplier txApplier = mock( BatchingTxApplier.class );
     private final FakeClockJobScheduler scheduler = new FakeClockJobScheduler();
     private final CountingTimerService timerService = new CountingTimerService( scheduler, NullLogProvider.getInstance() );
+    private final FakeClock clock = Clocks.fakeClock();
 
     private final long txPullIntervalMillis = 100;
     private final StoreCopyProcess storeCopyProcess = mock( StoreCopyProcess.class );
@@ -95,7 +105,8 @@ public class CatchupPollingProcessTest
 
     private final CatchupPollingProcess txPuller =
             new CatchupPollingProcess( NullLogProvider.getInstance(), localDatabase, startStopOnStoreCopy, catchUpClient, strategyPipeline, timerService,
-                    txPullIntervalMillis, txApplier, new Monitors(), storeCopyProcess, () -> mock( DatabaseHealth.class ), topologyService );
+                    txPullIntervalMillis, 0, txApplier, 16, new Monitors(), storeCopyProcess, () -> mock( DatabaseHealth.class ), topologyService,
+                    clock );
 
     @Before
     public void before() throws Throwable
@@ -200,7 +211,7 @@ public class CatchupPollingProcessTest
         CatchUpResponseCallback callback = mock( CatchUpResponseCallback.class );
 
         doThrow( new RuntimeException( "Panic all the things" ) ).when( callback ).onTxPullResponse( any( CompletableFuture.class ),
-                any( TxPullResponse.class ) );
+                any( TxPullResponse.class ), any( ChannelConfig.class ) );
         Timer timer = Mockito.spy( single( timerService.getTimers( TX_PULLER_TIMER ) ) );
 
         // when
@@ -237,4 +248,121 @@ public class CatchupPollingProcessTest
         // then
         assertEquals( TX_PULLING, txPuller.state() );
     }
+
+    @Test
+    public void shouldKeepLongPollingAndApplyReceivedTransactionsWhileSuccessful() throws Throwable
+    {
+        // given
+        CatchupPollingProcess longPollingTxPuller = longPollingTxPuller( 16 );
+        longPollingTxPuller.start();
+        when( txApplier.lastQueuedTxId() ).thenReturn( 99L );
+
+        CommittedTransactionRepresentation tx = mock( CommittedTransactionRepresentation.class );
+        when( tx.getCommitEntry() ).thenReturn( new LogEntryCommit( 100, 0 ) );
+        TxStreamFinishedResponse endOfStream = new TxStreamFinishedResponse( CatchupResult.SUCCESS_END_OF_STREAM, 100 );
+
+        when( catchUpClient.<TxStreamFinishedResponse>makeBlockingRequest( any( AdvertisedSocketAddress.class ), any( TxPullRequest.class ),
+                any( CatchUpResponseCallback.class ) ) ).thenAnswer( invocation ->
+        {
+            CatchUpResponseCallback<TxStreamFinishedResponse> callback = invocation.getArgument( 2 );
+            callback.onTxPullResponse( new CompletableFuture<>(), new TxPullResponse( storeId, tx ), new EmbeddedChannel().config() );
+            callback.onTxStreamFinishedResponse( new CompletableFuture<>(), endOfStream );
+            return endOfStream;
+        } ).thenReturn( endOfStream, new TxStreamFinishedResponse( CatchupResult.E_TRANSACTION_PRUNED, 100 ) );
+
+        // when
+        timerService.invoke( TX_PULLER_TIMER );
+
+        // then
+        verify( catchUpClient ).makeBlockingRequest( any( AdvertisedSocketAddress.class ), eq( new TxPullRequest( 99, storeId, 500 ) ),
+                any( CatchUpResponseCallback.class ) );
+        verify( catchUpClient, times( 2 ) ).makeBlockingRequest( any( AdvertisedSocketAddress.class ), eq( new TxPullRequest( 100, storeId, 500 ) ),
+                any( CatchUpResponseCallback.class ) );
+        verify( txApplier ).queue( tx );
+        verify( txApplier ).applyBatch();
+        assertEquals( STORE_COPYING, longPollingTxPuller.state() );
+    }
+
+    @Test
+    public void shouldEndLongPollingRoundAfterPullIntervalAndReselectUpstream() throws Throwable
+    {
+        // given
+        CatchupPollingProcess longPollingTxPuller = longPollingTxPuller( 16 );
+        longPollingTxPuller.start();
+        when( txApplier.lastQueuedTxId() ).thenReturn( 99L );
+
+        TxStreamFinishedResponse endOfStream = new TxStreamFinishedResponse( CatchupResult.SUCCESS_END_OF_STREAM, 99 );
+        when( catchUpClient.<TxStreamFinishedResponse>makeBlockingRequest( any( AdvertisedSocketAddress.class ), any( TxPullRequest.class ),
+                any( CatchUpResponseCallback.class ) ) ).thenAnswer( invocation ->
+        {
+            clock.forward( txPullIntervalMillis / 2, MILLISECONDS );
+            return endOfStream;
+        } ).thenAnswer( invocation ->
+        {
+            clock.forward( txPullIntervalMillis / 2, MILLISECONDS );
+            return endOfStream;
+        } ).thenReturn( new TxStreamFinishedResponse( CatchupResult.E_TRANSACTION_PRUNED, 99 ) );
+
+        // when
+        timerService.invoke( TX_PULLER_TIMER );
+
+        // then the first round ends after the pull interval and the next one selects its upstream anew right away
+        verify( catchUpClient, times( 3 ) ).makeBlockingRequest( any( AdvertisedSocketAddress.class ), any( TxPullRequest.class ),
+                any( CatchUpResponseCallback.class ) );
+        verify( strategyPipeline, times( 2 ) ).bestUpstreamDatabase();
+        assertEquals( STORE_COPYING, longPollingTxPuller.state() );
+    }
+
+    @Test
+    public void shouldPauseReadingWhileTooManyTransactionsArePending() throws Throwable
+    {
+        // given
+        CatchupPollingProcess txPuller = longPollingTxPuller( 2 );
+        txPuller.start();
+        when( txApplier.lastQueuedTxId() ).thenReturn( 99L );
+
+        CountDownLatch applierBlocked = new CountDownLatch( 1 );
+        doAnswer( invocation ->
+        {
+            applierBlocked.await();
+            return null;
+        } ).when( txApplier ).queue( any( CommittedTransactionRepresentation.class ) );
+
+        ChannelConfig channelConfig = new EmbeddedChannel().config();
+        TxStreamFinishedResponse endOfStream = new TxStreamFinishedResponse( CatchupResult.SUCCESS_END_OF_STREAM, 101 );
+        when( catchUpClient.<TxStreamFinishedResponse>makeBlockingRequest( any( AdvertisedSocketAddress.class ), any( TxPullRequest.class ),
+                any( CatchUpResponseCallback.class ) ) ).thenAnswer( invocation ->
+        {
+            CatchUpResponseCallback<TxStreamFinishedResponse> callback = invocation.getArgument( 2 );
+            callback.onTxPullResponse( new CompletableFuture<>(), new TxPullResponse( storeId, committedTx( 100 ) ), channelConfig );
+            assertTrue( channelConfig.isAutoRead() );
+            callback.onTxPullResponse( new CompletableFuture<>(), new TxPullResponse( storeId, committedTx( 101 ) ), channelConfig );
+            assertFalse( channelConfig.isAutoRead() );
+
+            applierBlocked.countDown();
+            callback.onTxStreamFinishedResponse( new CompletableFuture<>(), endOfStream );
+            return endOfStream;
+        } ).thenReturn( new TxStreamFinishedResponse( CatchupResult.E_TRANSACTION_PRUNED, 101 ) );
+
+        // when
+        timerService.invoke( TX_PULLER_TIMER );
+
+        // then
+        assertTrue( channelConfig.isAutoRead() );
+        verify( txApplier, times( 2 ) ).queue( any( CommittedTransactionRepresentation.class ) );
+    }
+
+    private CatchupPollingProcess longPollingTxPuller( int maxPendingTransactions )
+    {
+        return new CatchupPollingProcess( NullLogProvider.getInstance(), localDatabase, startStopOnStoreCopy, catchUpClient, strategyPipeline, timerService,
+                txPullIntervalMillis, 500, txApplier, maxPendingTransactions, new Monitors(), storeCopyProcess, () -> mock( DatabaseHealth.class ),
+                topologyService, clock );
+    }
+
+    private static CommittedTransactionRepresentation committedTx( long txId )
+    {
+        CommittedTransactionRepresentation tx = mock( CommittedTransactionRepresentation.class );
+        when( tx.getCommitEntry() ).thenReturn( new LogEntryCommit( txId, 0 ) );
+        return tx;
+    }
 }
@@ -25,6 +25,7 @@ package org.neo4j.causalclustering.catchup.tx;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
+import org.neo4j.causalclustering.catchup.RequestMessageType;
 import org.neo4j.causalclustering.identity.StoreId;
 
 import static org.junit.Assert.assertEquals;
@@ -36,7 +37,7 @@ public class TxPullRequestEncodeDecodeTest
     public void shouldEncodeAndDecodePullRequestMessage()
     {
         // given
-        EmbeddedChannel channel = new EmbeddedChannel( new TxPullRequestEncoder(), new TxPullRequestDecoder() );
+        EmbeddedChannel channel = new EmbeddedChannel( new TxPullRequestEncoder(), new TxPullRequestDecoder( false ) );
         final long arbitraryId = 23;
         TxPullRequest sent = new TxPullRequest( arbitraryId, new StoreId( 1, 2, 3, 4 ) );
 
@@ -51,4 +52,22 @@ public class TxPullRequestEncodeDecodeTest
         assertEquals( sent, received );
     }
 
+    @Test
+    public void shouldEncodeAndDecodeLongPollPullRequestMessage()
+    {
+        // given
+        EmbeddedChannel channel = new EmbeddedChannel( new TxPullRequestEncoder(), new TxPullRequestDecoder( true ) );
+        TxPullRequest sent = new TxPullRequest( 23, new StoreId( 1, 2, 3, 4 ), 500 );
+
+        // when
+        channel.writeOutbound( sent );
+        Object message = channel.readOutbound();
+        channel.writeInbound( message );
+
+        // then
+        TxPullRequest received = channel.readInbound();
+        assertEquals( RequestMessageType.TX_PULL_LONG_POLL, sent.messageType() );
+        assertNotSame( sent, received );
+        assertEquals( sent, received );
+    }
 }
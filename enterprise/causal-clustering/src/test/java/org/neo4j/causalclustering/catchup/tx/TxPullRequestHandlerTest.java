@@ -24,8 +24,12 @@ package org.neo4j.causalclustering.catchup.tx;
 
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.EventExecutor;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.causalclustering.catchup.CatchupServerProtocol;
 import org.neo4j.causalclustering.catchup.ResponseMessageType;
@@ -46,6 +50,7 @@ import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.AssertableLogProvider;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -175,6 +180,53 @@ public class TxPullRequestHandlerTest
                 .info( "Failed to serve TxPullRequest for tx %d because the local database is unavailable.", 2L ) );
     }
 
+    @Test
+    public void shouldWaitForNewTransactionsWhenLongPolling() throws Exception
+    {
+        // given
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 14L );
+        when( logicalTransactionStore.getTransactions( 15L ) ).thenReturn( txCursor( cursor( tx( 15 ) ) ) );
+        when( context.writeAndFlush( any() ) ).thenReturn( mock( ChannelFuture.class ) );
+        EventExecutor executor = mock( EventExecutor.class );
+        when( context.executor() ).thenReturn( executor );
+
+        // when
+        txPullRequestHandler.channelRead0( context, new TxPullRequest( 14, storeId, 60_000 ) );
+
+        // then
+        ArgumentCaptor<Runnable> check = ArgumentCaptor.forClass( Runnable.class );
+        verify( executor ).schedule( check.capture(), anyLong(), any( TimeUnit.class ) );
+        verify( context, never() ).writeAndFlush( any() );
+
+        // when
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 15L );
+        check.getValue().run();
+
+        // then
+        verify( context ).writeAndFlush( isA( ChunkedTransactionStream.class ) );
+        verify( executor ).schedule( any( Runnable.class ), anyLong(), any( TimeUnit.class ) );
+    }
+
+    @Test
+    public void shouldEndLongPollWithoutTransactionsWhenTheWaitIsOver() throws Exception
+    {
+        // given
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 14L );
+        EventExecutor executor = mock( EventExecutor.class );
+        when( context.executor() ).thenReturn( executor );
+
+        // when
+        txPullRequestHandler.channelRead0( context, new TxPullRequest( 14, storeId, 1 ) );
+        ArgumentCaptor<Runnable> check = ArgumentCaptor.forClass( Runnable.class );
+        verify( executor ).schedule( check.capture(), anyLong(), any( TimeUnit.class ) );
+        Thread.sleep( 2 );
+        check.getValue().run();
+
+        // then
+        verify( context ).write( ResponseMessageType.TX_STREAM_FINISHED );
+        verify( context ).writeAndFlush( new TxStreamFinishedResponse( SUCCESS_END_OF_STREAM, 14L ) );
+    }
+
     private static CommittedTransactionRepresentation tx( int id )
     {
         return new CommittedTransactionRepresentation(
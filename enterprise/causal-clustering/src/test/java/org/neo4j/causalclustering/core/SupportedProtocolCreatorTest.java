@@ -39,6 +39,7 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_ADAPTIVE;
 import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_SNAPPY;
 
 public class SupportedProtocolCreatorTest
@@ -125,6 +126,20 @@ public class SupportedProtocolCreatorTest
         assertThat( supportedModifierProtocols, empty() );
     }
 
+    @Test
+    public void shouldReturnAdaptiveCompressionIfSpecified()
+    {
+        // given
+        Config config = Config.defaults( CausalClusteringSettings.compression_implementations, COMPRESSION_ADAPTIVE.implementation() );
+
+        // when
+        List<ModifierSupportedProtocols> supportedModifierProtocols =
+                new SupportedProtocolCreator( config, log ).createSupportedModifierProtocols();
+
+        // then
+        assertThat( supportedModifierProtocols.get( 0 ).versions(), contains( COMPRESSION_ADAPTIVE.implementation() ) );
+    }
+
     @Test
     public void shouldReturnACompressionModifierIfCompressionVersionsSpecified()
     {
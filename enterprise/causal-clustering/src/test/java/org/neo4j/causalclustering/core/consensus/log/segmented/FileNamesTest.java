@@ -134,4 +134,25 @@ public class FileNamesTest
         // and the invalid ones should be logged
         verify( log, times( 7 ) ).warn( anyString() );
     }
+
+    @Test
+    public void shouldSilentlySkipSegmentIndexFiles()
+    {
+        // Given
+        File base = new File( "base" );
+        FileNames fileNames = new FileNames( base );
+        FileSystemAbstraction fsa = mock( FileSystemAbstraction.class );
+        Log log = mock( Log.class );
+        File segment = fileNames.getForVersion( 0 );
+
+        when( fsa.listFiles( base ) ).thenReturn( new File[]{segment, FileNames.indexFileFor( segment )} );
+
+        // When
+        SortedMap<Long,File> allFiles = fileNames.getAllFiles( fsa, log );
+
+        // Then
+        assertEquals( 1, allFiles.size() );
+        assertEquals( segment, allFiles.get( 0L ) );
+        verify( log, times( 0 ) ).warn( anyString() );
+    }
 }
@@ -34,8 +34,10 @@ import org.neo4j.causalclustering.core.consensus.log.DummyRaftableContentSeriali
 import org.neo4j.causalclustering.core.consensus.log.EntryRecord;
 import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
 import org.neo4j.cursor.IOCursor;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 import org.neo4j.time.Clocks;
 
@@ -57,6 +59,8 @@ public class SegmentFileTest
 {
     @Rule
     public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
     private final File baseDir = new File( "raft-log" );
     private final FileNames fileNames = new FileNames( baseDir );
     private final DummyRaftableContentSerializer contentMarshal = new DummyRaftableContentSerializer();
@@ -329,4 +333,97 @@ public class SegmentFileTest
 
         verify( readerPool ).prune( 0 );
     }
+
+    @Test
+    public void shouldReadSealedSegmentThroughMappingAtAnyIndex() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = testDirectory.getFileSystem();
+        FileNames realFileNames = new FileNames( testDirectory.directory( "raft-log" ) );
+        ReaderPool realReaderPool = spy( new ReaderPool( 0, logProvider, realFileNames, fs, Clocks.fakeClock() ) );
+        int entries = 10 * SegmentIndex.STRIDE + 3;
+
+        try ( SegmentFile segment = create( fs, realFileNames.getForVersion( 0 ), realReaderPool, 0, contentMarshal, logProvider, segmentHeader ) )
+        {
+            for ( int i = 0; i < entries; i++ )
+            {
+                segment.write( i, new RaftLogEntry( i, valueOf( "content" + i ) ) );
+            }
+
+            // when
+            segment.seal();
+
+            // then
+            assertEntriesReadable( segment, entries );
+        }
+        verify( realReaderPool, never() ).acquire( anyLong(), anyLong() );
+        assertTrue( fs.fileExists( FileNames.indexFileFor( realFileNames.getForVersion( 0 ) ) ) );
+    }
+
+    @Test
+    public void shouldUsePersistedIndexWhenReopeningSegment() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = testDirectory.getFileSystem();
+        FileNames realFileNames = new FileNames( testDirectory.directory( "raft-log" ) );
+        ReaderPool realReaderPool = spy( new ReaderPool( 0, logProvider, realFileNames, fs, Clocks.fakeClock() ) );
+        int entries = 4 * SegmentIndex.STRIDE;
+
+        try ( SegmentFile segment = create( fs, realFileNames.getForVersion( 0 ), realReaderPool, 0, contentMarshal, logProvider, segmentHeader ) )
+        {
+            for ( int i = 0; i < entries; i++ )
+            {
+                segment.write( i, new RaftLogEntry( i, valueOf( "content" + i ) ) );
+            }
+            segment.seal();
+        }
+
+        // when
+        try ( SegmentFile segment = new SegmentFile( fs, realFileNames.getForVersion( 0 ), realReaderPool, 0, contentMarshal, logProvider,
+                segmentHeader ) )
+        {
+            // then
+            assertEntriesReadable( segment, entries );
+        }
+        verify( realReaderPool, never() ).acquire( anyLong(), anyLong() );
+    }
+
+    @Test
+    public void shouldDeleteIndexWithSegment() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = testDirectory.getFileSystem();
+        FileNames realFileNames = new FileNames( testDirectory.directory( "raft-log" ) );
+        ReaderPool realReaderPool = new ReaderPool( 0, logProvider, realFileNames, fs, Clocks.fakeClock() );
+        File file = realFileNames.getForVersion( 0 );
+
+        SegmentFile segment = create( fs, file, realReaderPool, 0, contentMarshal, logProvider, segmentHeader );
+        segment.write( 0, entry1 );
+        segment.seal();
+        segment.close();
+
+        // when
+        assertTrue( segment.delete() );
+
+        // then
+        assertFalse( fs.fileExists( file ) );
+        assertFalse( fs.fileExists( FileNames.indexFileFor( file ) ) );
+    }
+
+    private void assertEntriesReadable( SegmentFile segment, int entries ) throws Exception
+    {
+        for ( int i = entries - 1; i >= 0; i -= 7 )
+        {
+            try ( IOCursor<EntryRecord> cursor = segment.getCursor( i ) )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( i, cursor.get().logIndex() );
+                assertEquals( new RaftLogEntry( i, valueOf( "content" + i ) ), cursor.get().logEntry() );
+            }
+        }
+        try ( IOCursor<EntryRecord> cursor = segment.getCursor( entries ) )
+        {
+            assertFalse( cursor.next() );
+        }
+    }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.consensus.log.segmented;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+
+import org.neo4j.causalclustering.core.consensus.log.LogPosition;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.causalclustering.core.consensus.log.segmented.SegmentIndex.STRIDE;
+
+public class SegmentIndexTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+
+    private final File indexFile = new File( "raft.log.3.index" );
+    private final SegmentHeader header = new SegmentHeader( 99, 3, 99, 7 );
+    private final int entrySize = 40;
+
+    @Test
+    public void shouldRecordEveryStrideEntry()
+    {
+        // given
+        SegmentIndex index = new SegmentIndex( true );
+
+        // when
+        int recorded = write( index, 0, 3 * STRIDE + 1 );
+
+        // then
+        assertEquals( 4, recorded );
+        assertTrue( index.isComplete() );
+    }
+
+    @Test
+    public void shouldLookupClosestIndexedPositionAtOrBefore()
+    {
+        // given
+        SegmentIndex index = new SegmentIndex( true );
+        write( index, 0, 3 * STRIDE + 1 );
+
+        // then
+        assertPosition( 0, index.lookup( 0 ) );
+        assertPosition( 0, index.lookup( STRIDE - 1 ) );
+        assertPosition( STRIDE, index.lookup( STRIDE ) );
+        assertPosition( 2 * STRIDE, index.lookup( 3 * STRIDE - 1 ) );
+        assertPosition( 3 * STRIDE, index.lookup( 10 * STRIDE ) );
+    }
+
+    @Test
+    public void shouldNotLookupAnythingWhenEmpty()
+    {
+        assertNull( new SegmentIndex( true ).lookup( 5 ) );
+    }
+
+    @Test
+    public void shouldStopRecordingAfterAGap()
+    {
+        // given
+        SegmentIndex index = new SegmentIndex( true );
+        write( index, 0, STRIDE + 1 );
+
+        // when
+        int recorded = write( index, STRIDE + 2, 2 * STRIDE );
+
+        // then
+        assertEquals( 0, recorded );
+        assertFalse( index.isComplete() );
+        assertPosition( STRIDE, index.lookup( 2 * STRIDE ) );
+    }
+
+    @Test
+    public void shouldBeIncompleteIfEntriesPrecedeIt()
+    {
+        // given
+        SegmentIndex index = new SegmentIndex( false );
+
+        // when
+        int recorded = write( index, 0, STRIDE );
+
+        // then
+        assertEquals( 0, recorded );
+        assertFalse( index.isComplete() );
+    }
+
+    @Test
+    public void shouldReadBackWrittenIndex() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = fsRule.get();
+        SegmentIndex index = new SegmentIndex( true );
+        int entries = 5 * STRIDE + 3;
+        write( index, 0, entries );
+        index.write( fs, indexFile, header );
+
+        // when
+        SegmentIndex read = SegmentIndex.read( fs, indexFile, header, segmentSize( entries ) );
+
+        // then
+        assertNotNull( read );
+        for ( int i = 0; i < entries; i++ )
+        {
+            assertPosition( i - i % STRIDE, read.lookup( i ) );
+        }
+    }
+
+    @Test
+    public void shouldOverwriteExistingIndex() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = fsRule.get();
+        SegmentIndex larger = new SegmentIndex( true );
+        write( larger, 0, 10 * STRIDE );
+        larger.write( fs, indexFile, header );
+
+        // when
+        SegmentIndex smaller = new SegmentIndex( true );
+        write( smaller, 0, 2 * STRIDE );
+        smaller.write( fs, indexFile, header );
+
+        // then
+        assertPosition( STRIDE, SegmentIndex.read( fs, indexFile, header, segmentSize( 2 * STRIDE ) ).lookup( 5 * STRIDE ) );
+    }
+
+    @Test
+    public void shouldNotReadMissingIndex() throws Exception
+    {
+        assertNull( SegmentIndex.read( fsRule.get(), indexFile, header, 1000 ) );
+    }
+
+    @Test
+    public void shouldNotReadIndexOfAnotherSegment() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = fsRule.get();
+        SegmentIndex index = new SegmentIndex( true );
+        write( index, 0, STRIDE );
+        index.write( fs, indexFile, header );
+
+        // then
+        assertNull( SegmentIndex.read( fs, indexFile, new SegmentHeader( 99, 4, 99, 7 ), segmentSize( STRIDE ) ) );
+        assertNull( SegmentIndex.read( fs, indexFile, new SegmentHeader( 99, 3, 150, 7 ), segmentSize( STRIDE ) ) );
+    }
+
+    @Test
+    public void shouldNotReadIndexPointingPastTheSegment() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = fsRule.get();
+        SegmentIndex index = new SegmentIndex( true );
+        write( index, 0, 4 * STRIDE );
+        index.write( fs, indexFile, header );
+
+        // then
+        assertNull( SegmentIndex.read( fs, indexFile, header, segmentSize( STRIDE ) ) );
+    }
+
+    private int write( SegmentIndex index, long fromOffsetIndex, long toOffsetIndex )
+    {
+        int recorded = 0;
+        for ( long offsetIndex = fromOffsetIndex; offsetIndex < toOffsetIndex; offsetIndex++ )
+        {
+            if ( index.beforeWrite( offsetIndex ) )
+            {
+                index.record( byteOffset( offsetIndex ) );
+                recorded++;
+            }
+        }
+        return recorded;
+    }
+
+    private long byteOffset( long offsetIndex )
+    {
+        return SegmentHeader.SIZE + offsetIndex * entrySize;
+    }
+
+    private long segmentSize( long entries )
+    {
+        return byteOffset( entries );
+    }
+
+    private void assertPosition( long offsetIndex, LogPosition position )
+    {
+        assertEquals( new LogPosition( offsetIndex, byteOffset( offsetIndex ) ), position );
+    }
+}
@@ -65,7 +65,7 @@ public class SegmentedRaftLogRotationTest
         log.append( new RaftLogEntry( 0, replicatedStringOfBytes( ROTATE_AT_SIZE_IN_BYTES ) ) );
 
         // Then
-        File[] files = fileSystemRule.get().listFiles( testDirectory.directory(), ( dir, name ) -> name.startsWith( "raft" ) );
+        File[] files = fileSystemRule.get().listFiles( testDirectory.directory(), ( dir, name ) -> name.startsWith( "raft" ) && !name.endsWith( FileNames.INDEX_FILE_SUFFIX ) );
         assertEquals( 2, files.length );
     }
 
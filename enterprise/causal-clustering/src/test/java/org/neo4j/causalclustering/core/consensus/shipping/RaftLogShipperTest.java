@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.neo4j.causalclustering.core.consensus.LeaderContext;
 import org.neo4j.causalclustering.core.consensus.OutboundMessageCollector;
@@ -43,6 +44,7 @@ import org.neo4j.causalclustering.core.consensus.log.RaftLog;
 import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
 import org.neo4j.causalclustering.core.consensus.log.cache.ConsecutiveInFlightCache;
 import org.neo4j.causalclustering.core.consensus.schedule.TimerService;
+import org.neo4j.causalclustering.core.state.machines.dummy.DummyRequest;
 import org.neo4j.causalclustering.identity.MemberId;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.kernel.lifecycle.LifeRule;
@@ -58,6 +60,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.causalclustering.identity.RaftTestMember.member;
 import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createScheduler;
@@ -125,6 +129,14 @@ public class RaftLogShipperTest
         logShipper.start();
     }
 
+    private void startLogShipper( int maxOutstandingBatches, long maxOutstandingBytes, LogShippingMonitor monitor )
+    {
+        logShipper = new RaftLogShipper( outbound, logProvider, raftLog, clock, timerService, leader, follower, leaderTerm, leaderCommit,
+                retryTimeMillis, catchupBatchSize, maxAllowedShippingLag, maxOutstandingBatches, maxOutstandingBytes,
+                new ConsecutiveInFlightCache(), monitor );
+        logShipper.start();
+    }
+
     @Test
     public void shouldSendLastEntryOnStart() throws Throwable
     {
@@ -377,4 +389,92 @@ public class RaftLogShipperTest
 
         assertThat( outbound.sentTo( follower ), Matchers.hasRaftLogEntries( asList( entry1, entry2, entry3 ) ) );
     }
+
+    @Test
+    public void shouldShipSeveralBatchesBeforeResponsesWhileCatchingUp() throws Exception
+    {
+        // given
+        catchupBatchSize = 2;
+        for ( int i = 0; i < 9; i++ )
+        {
+            raftLog.append( new RaftLogEntry( 0, ReplicatedInteger.valueOf( i ) ) );
+        }
+        LogShippingMonitor monitor = mock( LogShippingMonitor.class );
+        startLogShipper( 3, Long.MAX_VALUE, monitor );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( asList( 0L, 2L, 4L ), prevLogIndexesSent() );
+        verify( monitor, times( 3 ) ).shipped( follower, 2, 0 );
+        verify( monitor ).lag( follower, 8 );
+
+        // when the first batch is acknowledged
+        outbound.clear();
+        logShipper.onMatch( 2, new LeaderContext( 0, 0 ) );
+
+        // then the window moves on by one batch
+        assertEquals( asList( 6L ), prevLogIndexesSent() );
+    }
+
+    @Test
+    public void shouldCutBatchesShortToStayWithinOutstandingBytes() throws Exception
+    {
+        // given
+        for ( int i = 0; i < 6; i++ )
+        {
+            raftLog.append( new RaftLogEntry( 0, new DummyRequest( new byte[100] ) ) );
+        }
+        startLogShipper( 10, 250, LogShippingMonitor.VOID );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( asList( 0L ), prevLogIndexesSent() );
+        assertEquals( 3, ((AppendEntries.Request) Iterables.last( outbound.sentTo( follower ) )).entries().length );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 3, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( asList( 3L ), prevLogIndexesSent() );
+        assertEquals( 2, ((AppendEntries.Request) Iterables.last( outbound.sentTo( follower ) )).entries().length );
+    }
+
+    @Test
+    public void shouldRewindToFollowerOnMismatchWithOutstandingBatches() throws Exception
+    {
+        // given
+        catchupBatchSize = 2;
+        for ( int i = 0; i < 9; i++ )
+        {
+            raftLog.append( new RaftLogEntry( 0, ReplicatedInteger.valueOf( i ) ) );
+        }
+        startLogShipper( 3, Long.MAX_VALUE, LogShippingMonitor.VOID );
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // when
+        outbound.clear();
+        logShipper.onMismatch( 2, new LeaderContext( 0, 0 ) );
+
+        // then
+        RaftMessages.AppendEntries.Request expected =
+                new RaftMessages.AppendEntries.Request( leader, leaderTerm, 2, 0, RaftLogEntry.empty, leaderCommit );
+        assertThat( outbound.sentTo( follower ), hasItem( expected ) );
+    }
+
+    private List<Long> prevLogIndexesSent()
+    {
+        List<Long> prevLogIndexes = new ArrayList<>();
+        for ( RaftMessages.RaftMessage message : outbound.sentTo( follower ) )
+        {
+            prevLogIndexes.add( ((AppendEntries.Request) message).prevLogIndex() );
+        }
+        return prevLogIndexes;
+    }
 }
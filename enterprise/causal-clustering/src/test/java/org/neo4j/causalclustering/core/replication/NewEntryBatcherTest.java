@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.core.replication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.neo4j.causalclustering.core.consensus.RaftMessages;
+import org.neo4j.causalclustering.core.consensus.ReplicatedInteger;
+import org.neo4j.causalclustering.core.replication.session.GlobalSession;
+import org.neo4j.causalclustering.core.replication.session.LocalOperationId;
+import org.neo4j.causalclustering.identity.MemberId;
+import org.neo4j.causalclustering.messaging.Outbound;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.test.assertion.Assert.assertEventually;
+
+class NewEntryBatcherTest
+{
+    private static final int DEFAULT_TIMEOUT_MS = 15_000;
+
+    private final MemberId myself = new MemberId( UUID.randomUUID() );
+    private final MemberId leader = new MemberId( UUID.randomUUID() );
+    private final GlobalSession session = new GlobalSession( UUID.randomUUID(), myself );
+    private final BlockingOutbound outbound = new BlockingOutbound();
+
+    @Test
+    void shouldSendLoneOperationAsSingleRequest()
+    {
+        // given
+        NewEntryBatcher batcher = new NewEntryBatcher( myself, outbound, 128, Long.MAX_VALUE );
+        DistributedOperation operation = operation( 0 );
+
+        // when
+        batcher.send( leader, operation );
+
+        // then
+        assertEquals( asList( new RaftMessages.NewEntry.Request( myself, operation ) ), outbound.sent );
+    }
+
+    @Test
+    void shouldBatchOperationsQueuedDuringSend() throws Exception
+    {
+        // given
+        NewEntryBatcher batcher = new NewEntryBatcher( myself, outbound, 128, Long.MAX_VALUE );
+        outbound.blockNextSend();
+
+        Thread first = sendInThread( batcher, leader, operation( 0 ) );
+        outbound.awaitBlockedSend();
+
+        // when
+        List<Thread> queued = new ArrayList<>();
+        for ( int i = 1; i <= 3; i++ )
+        {
+            queued.add( sendInThread( batcher, leader, operation( i ) ) );
+        }
+        awaitWaiting( queued );
+        outbound.unblock();
+        joinAll( first, queued );
+
+        // then
+        assertEquals( asList(
+                new RaftMessages.NewEntry.Request( myself, operation( 0 ) ),
+                new RaftMessages.NewEntry.BatchRequest( myself, asList( operation( 1 ), operation( 2 ), operation( 3 ) ) ) ), outbound.sent );
+    }
+
+    @Test
+    void shouldNotBatchBeyondMaxCountOrAcrossLeaders() throws Exception
+    {
+        // given
+        MemberId otherLeader = new MemberId( UUID.randomUUID() );
+        NewEntryBatcher batcher = new NewEntryBatcher( myself, outbound, 2, Long.MAX_VALUE );
+        outbound.blockNextSend();
+
+        Thread first = sendInThread( batcher, leader, operation( 0 ) );
+        outbound.awaitBlockedSend();
+
+        // when
+        List<Thread> queued = new ArrayList<>();
+        queued.add( sendInThread( batcher, leader, operation( 1 ) ) );
+        awaitWaiting( queued );
+        queued.add( sendInThread( batcher, leader, operation( 2 ) ) );
+        awaitWaiting( queued );
+        queued.add( sendInThread( batcher, leader, operation( 3 ) ) );
+        awaitWaiting( queued );
+        queued.add( sendInThread( batcher, otherLeader, operation( 4 ) ) );
+        awaitWaiting( queued );
+        outbound.unblock();
+        joinAll( first, queued );
+
+        // then
+        assertEquals( asList(
+                new RaftMessages.NewEntry.Request( myself, operation( 0 ) ),
+                new RaftMessages.NewEntry.BatchRequest( myself, asList( operation( 1 ), operation( 2 ) ) ),
+                new RaftMessages.NewEntry.Request( myself, operation( 3 ) ),
+                new RaftMessages.NewEntry.Request( myself, operation( 4 ) ) ), outbound.sent );
+        assertEquals( asList( leader, leader, leader, otherLeader ), outbound.recipients );
+    }
+
+    private DistributedOperation operation( int value )
+    {
+        return new DistributedOperation( ReplicatedInteger.valueOf( value ), session, new LocalOperationId( 0, value ) );
+    }
+
+    private static Thread sendInThread( NewEntryBatcher batcher, MemberId to, DistributedOperation operation )
+    {
+        Thread thread = new Thread( () -> batcher.send( to, operation ) );
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting( List<Thread> threads ) throws InterruptedException
+    {
+        for ( Thread thread : threads )
+        {
+            assertEventually( "thread waiting for the send lock", thread::getState, equalTo( Thread.State.WAITING ), DEFAULT_TIMEOUT_MS,
+                    MILLISECONDS );
+        }
+    }
+
+    private static void joinAll( Thread first, List<Thread> others ) throws InterruptedException
+    {
+        first.join( DEFAULT_TIMEOUT_MS );
+        for ( Thread thread : others )
+        {
+            thread.join( DEFAULT_TIMEOUT_MS );
+        }
+    }
+
+    private static class BlockingOutbound implements Outbound<MemberId,RaftMessages.RaftMessage>
+    {
+        private final List<RaftMessages.RaftMessage> sent = new CopyOnWriteArrayList<>();
+        private final List<MemberId> recipients = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blocked = new CountDownLatch( 1 );
+        private final CountDownLatch release = new CountDownLatch( 1 );
+        private volatile boolean blockNext;
+
+        void blockNextSend()
+        {
+            blockNext = true;
+        }
+
+        void awaitBlockedSend() throws InterruptedException
+        {
+            blocked.await();
+        }
+
+        void unblock()
+        {
+            release.countDown();
+        }
+
+        @Override
+        public void send( MemberId to, RaftMessages.RaftMessage message, boolean block )
+        {
+            sent.add( message );
+            recipients.add( to );
+            if ( blockNext )
+            {
+                blockNext = false;
+                blocked.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch ( InterruptedException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        }
+    }
+}
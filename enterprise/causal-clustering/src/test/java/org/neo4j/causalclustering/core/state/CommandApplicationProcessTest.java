@@ -23,9 +23,12 @@
 package org.neo4j.causalclustering.core.state;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -35,6 +38,7 @@ import org.neo4j.causalclustering.core.consensus.log.InMemoryRaftLog;
 import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
 import org.neo4j.causalclustering.core.consensus.log.cache.ConsecutiveInFlightCache;
 import org.neo4j.causalclustering.core.consensus.log.cache.InFlightCache;
+import org.neo4j.causalclustering.core.consensus.log.monitoring.RaftLogAppliedIndexMonitor;
 import org.neo4j.causalclustering.core.consensus.log.monitoring.RaftLogCommitIndexMonitor;
 import org.neo4j.causalclustering.core.replication.DistributedOperation;
 import org.neo4j.causalclustering.core.replication.ProgressTrackerImpl;
@@ -44,17 +48,25 @@ import org.neo4j.causalclustering.core.replication.session.GlobalSessionTrackerS
 import org.neo4j.causalclustering.core.replication.session.LocalOperationId;
 import org.neo4j.causalclustering.core.state.machines.tx.CoreReplicatedContent;
 import org.neo4j.causalclustering.core.state.machines.tx.ReplicatedTransaction;
+import org.neo4j.causalclustering.core.state.machines.tx.ReplicatedTransactionSerializer;
+import org.neo4j.causalclustering.core.state.machines.tx.TransactionRepresentationReplicatedTransaction;
 import org.neo4j.causalclustering.core.state.storage.InMemoryStateStorage;
 import org.neo4j.kernel.impl.core.DatabasePanicEventGenerator;
+import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.logging.NullLogProvider;
 
+import static java.util.Collections.emptySet;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -68,6 +80,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.causalclustering.core.state.machines.tx.LogIndexTxHeaderEncoding.decodeLogIndexFromTxHeader;
 import static org.neo4j.test.assertion.Assert.assertEventually;
 
 public class CommandApplicationProcessTest
@@ -83,12 +96,13 @@ public class CommandApplicationProcessTest
     private final GlobalSession globalSession = new GlobalSession( UUID.randomUUID(), null );
     private final int flushEvery = 10;
     private final int batchSize = 16;
+    private final int prefetchSize = 4;
 
     private InFlightCache inFlightCache = spy( new ConsecutiveInFlightCache() );
     private final Monitors monitors = new Monitors();
     private CoreState coreState = mock( CoreState.class );
     private final CommandApplicationProcess applicationProcess = new CommandApplicationProcess(
-            raftLog, batchSize, flushEvery, () -> dbHealth,
+            raftLog, batchSize, flushEvery, prefetchSize, () -> dbHealth,
             NullLogProvider.getInstance(), new ProgressTrackerImpl( globalSession ),
             sessionTracker, coreState, inFlightCache, monitors );
 
@@ -355,6 +369,86 @@ public class CommandApplicationProcessTest
         assertEquals( 2, applicationProcess.lastApplied() );
     }
 
+    @Test
+    public void shouldDecodeReceivedTransactionsBeforeDispatchingThem() throws Throwable
+    {
+        // given
+        PhysicalTransactionRepresentation physicalTx = new PhysicalTransactionRepresentation( Collections.emptyList() );
+        physicalTx.setHeader( new byte[0], -1, -1, 0, 0, 0, -1 );
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        ReplicatedTransactionSerializer.marshal( channel, ReplicatedTransaction.from( physicalTx ) );
+        ReplicatedTransaction receivedTx = ReplicatedTransactionSerializer.unmarshal( channel );
+
+        raftLog.append( new RaftLogEntry( 0, operation( receivedTx ) ) );
+        raftLog.append( new RaftLogEntry( 0, operation( receivedTx ) ) );
+
+        // when
+        applicationProcess.notifyCommitted( 1 );
+        applicationProcess.start();
+
+        // then
+        ArgumentCaptor<ReplicatedTransaction> dispatched = ArgumentCaptor.forClass( ReplicatedTransaction.class );
+        verify( commandDispatcher, times( 2 ) ).dispatch( dispatched.capture(), anyLong(), anyCallback() );
+        for ( int logIndex = 0; logIndex < 2; logIndex++ )
+        {
+            ReplicatedTransaction tx = dispatched.getAllValues().get( logIndex );
+            assertThat( tx, instanceOf( TransactionRepresentationReplicatedTransaction.class ) );
+            byte[] header = ((TransactionRepresentationReplicatedTransaction) tx).tx().additionalHeader();
+            assertEquals( logIndex, decodeLogIndexFromTxHeader( header ) );
+        }
+    }
+
+    @Test
+    public void shouldNotifyAppliedIndex() throws Throwable
+    {
+        // given
+        RaftLogAppliedIndexMonitor listener = mock( RaftLogAppliedIndexMonitor.class );
+        monitors.addMonitorListener( listener );
+
+        raftLog.append( new RaftLogEntry( 0, operation( nullTx ) ) );
+        raftLog.append( new RaftLogEntry( 0, new NewLeaderBarrier() ) );
+        raftLog.append( new RaftLogEntry( 0, operation( nullTx ) ) );
+
+        // when
+        applicationProcess.notifyCommitted( 2 );
+        applicationProcess.start();
+
+        // then
+        InOrder inOrder = inOrder( listener );
+        inOrder.verify( listener ).appliedIndex( 0L );
+        inOrder.verify( listener ).appliedIndex( 1L );
+        inOrder.verify( listener ).appliedIndex( 2L );
+    }
+
+    @Test
+    public void shouldStopThePrefetcherThreadWhenStopped() throws Throwable
+    {
+        // given
+        Set<Thread> prefetchersBefore = prefetcherThreads();
+        raftLog.append( new RaftLogEntry( 0, operation( nullTx ) ) );
+        raftLog.append( new RaftLogEntry( 0, operation( nullTx ) ) );
+        applicationProcess.notifyCommitted( 1 );
+
+        for ( int restart = 0; restart < 3; restart++ )
+        {
+            // when
+            applicationProcess.start();
+            applicationProcess.stop();
+
+            // then
+            Set<Thread> prefetchers = prefetcherThreads();
+            prefetchers.removeAll( prefetchersBefore );
+            assertEquals( emptySet(), prefetchers );
+        }
+    }
+
+    private static Set<Thread> prefetcherThreads()
+    {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter( thread -> thread.isAlive() && thread.getName().startsWith( "core-state-prefetcher" ) )
+                .collect( toSet() );
+    }
+
     private Consumer<Result> anyCallback()
     {
         @SuppressWarnings( "unchecked" )
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.messaging.marshalling;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import org.neo4j.causalclustering.core.consensus.RaftMessages;
+import org.neo4j.causalclustering.core.consensus.ReplicatedInteger;
+import org.neo4j.causalclustering.identity.ClusterId;
+import org.neo4j.causalclustering.identity.MemberId;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class NewEntryBatchSplitterTest
+{
+    private final ClusterId clusterId = new ClusterId( UUID.randomUUID() );
+    private final MemberId member = new MemberId( UUID.randomUUID() );
+    private final EmbeddedChannel channel = new EmbeddedChannel( new NewEntryBatchSplitter() );
+
+    @After
+    public void cleanUp()
+    {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void shouldSplitBatchIntoIndividualRequests()
+    {
+        // given
+        RaftMessages.NewEntry.BatchRequest batch =
+                new RaftMessages.NewEntry.BatchRequest( member, asList( ReplicatedInteger.valueOf( 1 ), ReplicatedInteger.valueOf( 2 ) ) );
+
+        // when
+        channel.writeOutbound( RaftMessages.ClusterIdAwareMessage.of( clusterId, batch ) );
+
+        // then
+        assertEquals( RaftMessages.ClusterIdAwareMessage.of( clusterId, new RaftMessages.NewEntry.Request( member, ReplicatedInteger.valueOf( 1 ) ) ),
+                channel.readOutbound() );
+        assertEquals( RaftMessages.ClusterIdAwareMessage.of( clusterId, new RaftMessages.NewEntry.Request( member, ReplicatedInteger.valueOf( 2 ) ) ),
+                channel.readOutbound() );
+        assertNull( channel.readOutbound() );
+    }
+
+    @Test
+    public void shouldPassOtherMessagesThrough()
+    {
+        // given
+        RaftMessages.ClusterIdAwareMessage<RaftMessages.NewEntry.Request> request =
+                RaftMessages.ClusterIdAwareMessage.of( clusterId, new RaftMessages.NewEntry.Request( member, ReplicatedInteger.valueOf( 1 ) ) );
+
+        // when
+        channel.writeOutbound( request );
+
+        // then
+        assertEquals( request, channel.readOutbound() );
+        assertNull( channel.readOutbound() );
+    }
+}
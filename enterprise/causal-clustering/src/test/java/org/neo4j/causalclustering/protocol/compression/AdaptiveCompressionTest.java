@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.protocol.compression;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.UnsupportedMessageTypeException;
+import io.netty.handler.stream.ChunkedStream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.neo4j.causalclustering.protocol.ModifierProtocolInstaller;
+import org.neo4j.causalclustering.protocol.NettyPipelineBuilder;
+import org.neo4j.causalclustering.protocol.ProtocolInstaller.Orientation;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocolCategory.CATCHUP;
+import static org.neo4j.causalclustering.protocol.Protocol.ModifierProtocols.COMPRESSION_ADAPTIVE;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.DEFLATE;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.HEADER_LENGTH;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.MAX_BLOCK_LENGTH;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.NONE;
+import static org.neo4j.causalclustering.protocol.compression.BlockCodec.SNAPPY;
+
+public class AdaptiveCompressionTest
+{
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
+
+    private final CompressionMonitor encoderMonitor = mock( CompressionMonitor.class );
+    private final CompressionMonitor decoderMonitor = mock( CompressionMonitor.class );
+    private final EmbeddedChannel encoderChannel = new EmbeddedChannel( new AdaptiveCompressionEncoder( encoderMonitor ) );
+    private final EmbeddedChannel decoderChannel = new EmbeddedChannel( new AdaptiveCompressionDecoder( decoderMonitor ) );
+
+    @After
+    public void tearDown()
+    {
+        encoderChannel.finishAndReleaseAll();
+        decoderChannel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void shouldSendSmallMessagesUncompressed()
+    {
+        // given
+        byte[] heartbeat = compressible( 100 );
+
+        // when
+        List<ByteBuf> blocks = encode( heartbeat );
+
+        // then
+        assertEquals( 1, blocks.size() );
+        assertEquals( NONE.id(), blocks.get( 0 ).getByte( 0 ) );
+        assertArrayEquals( heartbeat, decode( blocks ) );
+        verify( encoderMonitor ).compressed( eq( 100L ), eq( 100L ), anyLong() );
+    }
+
+    @Test
+    public void shouldCompressMediumMessagesWithSnappy()
+    {
+        // given
+        byte[] batch = compressible( 8 * 1024 );
+
+        // when
+        List<ByteBuf> blocks = encode( batch );
+
+        // then
+        assertEquals( 1, blocks.size() );
+        assertEquals( SNAPPY.id(), blocks.get( 0 ).getByte( 0 ) );
+        long payloadLength = blocks.get( 0 ).readableBytes() - HEADER_LENGTH;
+        assertTrue( payloadLength < batch.length );
+        assertArrayEquals( batch, decode( blocks ) );
+        verify( encoderMonitor ).compressed( eq( (long) batch.length ), eq( payloadLength ), anyLong() );
+        verify( decoderMonitor ).decompressed( eq( payloadLength ), eq( (long) batch.length ), anyLong() );
+    }
+
+    @Test
+    public void shouldCompressFullBlocksWithDeflate()
+    {
+        // given
+        byte[] storeFile = compressible( 3 * MAX_BLOCK_LENGTH + 123 );
+
+        // when
+        List<ByteBuf> blocks = encode( storeFile );
+
+        // then
+        int totalLength = 0;
+        for ( ByteBuf block : blocks )
+        {
+            totalLength += block.readableBytes();
+        }
+        assertEquals( DEFLATE.id(), blocks.get( 0 ).getByte( 0 ) );
+        assertTrue( totalLength < storeFile.length / 2 );
+        assertArrayEquals( storeFile, decode( blocks ) );
+    }
+
+    @Test
+    public void shouldSendIncompressibleBlocksUncompressedAndBackOff()
+    {
+        // given
+        byte[] random = new byte[8 * 1024];
+        ThreadLocalRandom.current().nextBytes( random );
+        byte[] compressible = compressible( 8 * 1024 );
+
+        // when
+        List<ByteBuf> blocks = encode( random );
+        blocks.addAll( encode( compressible ) );
+
+        // then
+        assertEquals( NONE.id(), blocks.get( 0 ).getByte( 0 ) );
+        assertEquals( NONE.id(), blocks.get( 1 ).getByte( 0 ) );
+        assertArrayEquals( random, decode( blocks.subList( 0, 1 ) ) );
+        assertArrayEquals( compressible, decode( blocks.subList( 1, 2 ) ) );
+    }
+
+    @Test
+    public void shouldDecodeBlocksSplitAcrossReads()
+    {
+        // given
+        byte[] batch = compressible( 4 * 1024 );
+        ByteBuf block = encode( batch ).get( 0 );
+
+        // when
+        decoderChannel.writeInbound( block.readRetainedSlice( 5 ) );
+        assertNull( decoderChannel.readInbound() );
+        decoderChannel.writeInbound( block );
+
+        // then
+        ByteBuf decoded = decoderChannel.readInbound();
+        byte[] bytes = new byte[decoded.readableBytes()];
+        decoded.readBytes( bytes );
+        decoded.release();
+        assertArrayEquals( batch, bytes );
+    }
+
+    @Test
+    public void shouldCompleteWritePromisesWithTheWriteOfTheirBlocks()
+    {
+        // given
+        IOException failure = new IOException( "block not written" );
+        EmbeddedChannel channel = new EmbeddedChannel( new ChannelOutboundHandlerAdapter()
+        {
+            @Override
+            public void write( ChannelHandlerContext ctx, Object msg, ChannelPromise promise )
+            {
+                ByteBuf block = (ByteBuf) msg;
+                if ( block.isReadable() )
+                {
+                    block.release();
+                    promise.setFailure( failure );
+                }
+                else
+                {
+                    ctx.write( msg, promise );
+                }
+            }
+        }, new AdaptiveCompressionEncoder( encoderMonitor ) );
+
+        // when
+        List<ChannelFuture> writes = new ArrayList<>();
+        writes.add( channel.write( Unpooled.wrappedBuffer( compressible( MAX_BLOCK_LENGTH - 10 ) ) ) );
+        writes.add( channel.write( Unpooled.wrappedBuffer( compressible( 100 ) ) ) );
+        writes.add( channel.write( Unpooled.wrappedBuffer( compressible( 100 ) ) ) );
+        channel.flush();
+
+        // then
+        for ( ChannelFuture write : writes )
+        {
+            assertTrue( write.isDone() );
+            assertEquals( failure, write.cause() );
+        }
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void shouldCompressFileRegionsInOrderWithTheBufferedBytes() throws IOException
+    {
+        // given
+        byte[] header = compressible( 100 );
+        byte[] content = compressible( 2 * MAX_BLOCK_LENGTH + 321 );
+        byte[] trailer = compressible( 50 );
+        File file = testDirectory.file( "region" );
+        Files.write( file.toPath(), content );
+
+        // when
+        List<ChannelFuture> writes = new ArrayList<>();
+        writes.add( encoderChannel.write( Unpooled.wrappedBuffer( header ) ) );
+        writes.add( encoderChannel.write( new DefaultFileRegion( file, 0, content.length ) ) );
+        writes.add( encoderChannel.write( Unpooled.wrappedBuffer( trailer ) ) );
+        encoderChannel.flush();
+
+        // then
+        ByteBuf expected = Unpooled.wrappedBuffer( header, content, trailer );
+        byte[] expectedBytes = new byte[expected.readableBytes()];
+        expected.readBytes( expectedBytes );
+        assertArrayEquals( expectedBytes, decode( readBlocks() ) );
+        for ( ChannelFuture write : writes )
+        {
+            assertTrue( write.isSuccess() );
+        }
+    }
+
+    @Test
+    public void shouldPassOtherMessagesOnAfterTheBufferedBytes()
+    {
+        // given
+        byte[] bytes = compressible( 100 );
+        Object message = new Object();
+
+        // when
+        encoderChannel.write( Unpooled.wrappedBuffer( bytes ) );
+        encoderChannel.writeAndFlush( message );
+
+        // then
+        ByteBuf block = encoderChannel.readOutbound();
+        assertArrayEquals( bytes, decode( asList( block ) ) );
+        assertSame( message, encoderChannel.readOutbound() );
+    }
+
+    @Test
+    public void shouldRejectChunkedInput()
+    {
+        // when
+        ChannelFuture write = encoderChannel.writeAndFlush( new ChunkedStream( new ByteArrayInputStream( compressible( 100 ) ) ) );
+
+        // then
+        assertThat( write.cause(), instanceOf( UnsupportedMessageTypeException.class ) );
+    }
+
+    @Test
+    public void shouldInstallEncoderAndDecoderOnBothSides()
+    {
+        // given
+        EmbeddedChannel client = new EmbeddedChannel();
+        EmbeddedChannel server = new EmbeddedChannel();
+
+        // when
+        NettyPipelineBuilder.client( client.pipeline(), NullLog.getInstance() )
+                .modify( adaptive( ModifierProtocolInstaller.clientInstallers( new Monitors(), CATCHUP ) ) ).install();
+        NettyPipelineBuilder.server( server.pipeline(), NullLog.getInstance() )
+                .modify( adaptive( ModifierProtocolInstaller.serverInstallers( new Monitors(), CATCHUP ) ) ).install();
+
+        // then
+        for ( ChannelPipeline pipeline : asList( client.pipeline(), server.pipeline() ) )
+        {
+            assertThat( pipeline.get( "adaptive_encoder" ), instanceOf( AdaptiveCompressionEncoder.class ) );
+            assertThat( pipeline.get( "adaptive_decoder" ), instanceOf( AdaptiveCompressionDecoder.class ) );
+        }
+        client.finishAndReleaseAll();
+        server.finishAndReleaseAll();
+    }
+
+    private static <O extends Orientation> ModifierProtocolInstaller<O> adaptive( List<ModifierProtocolInstaller<O>> installers )
+    {
+        return installers.stream().filter( installer -> installer.protocols().contains( COMPRESSION_ADAPTIVE ) ).findFirst().orElseThrow( AssertionError::new );
+    }
+
+    private List<ByteBuf> encode( byte[] message )
+    {
+        encoderChannel.writeAndFlush( Unpooled.wrappedBuffer( message ) );
+        return readBlocks();
+    }
+
+    private List<ByteBuf> readBlocks()
+    {
+        List<ByteBuf> blocks = new ArrayList<>();
+        ByteBuf block;
+        while ( (block = encoderChannel.readOutbound()) != null )
+        {
+            if ( block.isReadable() )
+            {
+                blocks.add( block );
+            }
+            else
+            {
+                block.release();
+            }
+        }
+        return blocks;
+    }
+
+    private byte[] decode( List<ByteBuf> blocks )
+    {
+        ByteBuf decoded = Unpooled.buffer();
+        for ( ByteBuf block : blocks )
+        {
+            decoderChannel.writeInbound( block );
+            ByteBuf part;
+            while ( (part = decoderChannel.readInbound()) != null )
+            {
+                decoded.writeBytes( part );
+                part.release();
+            }
+        }
+        byte[] bytes = new byte[decoded.readableBytes()];
+        decoded.readBytes( bytes );
+        return bytes;
+    }
+
+    private static byte[] compressible( int length )
+    {
+        byte[] bytes = new byte[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            bytes[i] = (byte) ('a' + (i * 7 + i / 64) % 13);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.routing.load_balancing;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.neo4j.causalclustering.discovery.TopologyService;
+import org.neo4j.causalclustering.identity.MemberId;
+import org.neo4j.internal.kernel.api.exceptions.ProcedureException;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.configuration.Config;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static java.util.function.Function.identity;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.cluster_topology_refresh;
+import static org.neo4j.causalclustering.routing.load_balancing.BookmarkAwareRouting.BOOKMARK_KEY;
+import static org.neo4j.helpers.collection.Iterators.asSet;
+
+public class BookmarkAwareRoutingTest
+{
+    private final MemberId lagging = new MemberId( UUID.randomUUID() );
+    private final MemberId caughtUp = new MemberId( UUID.randomUUID() );
+    private final Set<MemberId> readers = asSet( lagging, caughtUp );
+
+    private final TopologyService topologyService = mock( TopologyService.class );
+    private final BookmarkAwareRouting routing = new BookmarkAwareRouting( topologyService, Config.defaults( cluster_topology_refresh, "5s" ) );
+
+    @Test
+    public void shouldReturnAllReadersWithoutBookmark() throws Exception
+    {
+        // given
+        lastApplied( 9L, 10L );
+
+        // when
+        Set<MemberId> selected = routing.preferCaughtUp( readers, identity(), emptyMap() );
+
+        // then
+        assertEquals( readers, selected );
+    }
+
+    @Test
+    public void shouldPreferReadersWhichSatisfyBookmark() throws Exception
+    {
+        // given
+        lastApplied( 9L, 10L );
+
+        // when
+        Set<MemberId> selected = routing.preferCaughtUp( readers, identity(), bookmark( "neo4j:bookmark:v1:tx10" ) );
+
+        // then
+        assertEquals( asSet( caughtUp ), selected );
+    }
+
+    @Test
+    public void shouldReturnAllReadersWhenNoneSatisfyBookmark() throws Exception
+    {
+        // given
+        lastApplied( 9L, 10L );
+
+        // when
+        Set<MemberId> selected = routing.preferCaughtUp( readers, identity(), bookmark( "neo4j:bookmark:v1:tx11" ) );
+
+        // then
+        assertEquals( readers, selected );
+    }
+
+    @Test
+    public void shouldOnlyShortenTimeToLiveOfNarrowedReaders()
+    {
+        assertEquals( 300_000, routing.timeToLive( 300_000, readers, readers ) );
+        assertEquals( 5_000, routing.timeToLive( 300_000, readers, asSet( caughtUp ) ) );
+        assertEquals( 1_000, routing.timeToLive( 1_000, readers, asSet( caughtUp ) ) );
+    }
+
+    @Test
+    public void shouldRejectMalformedBookmark()
+    {
+        try
+        {
+            routing.preferCaughtUp( readers, identity(), bookmark( "neo4j:bookmark:v1:txFoo" ) );
+            fail( "Should have thrown" );
+        }
+        catch ( ProcedureException e )
+        {
+            assertEquals( Status.Transaction.InvalidBookmark, e.status() );
+        }
+    }
+
+    private void lastApplied( long laggingTxId, long caughtUpTxId )
+    {
+        Map<MemberId,Long> lastApplied = new HashMap<>();
+        lastApplied.put( lagging, laggingTxId );
+        lastApplied.put( caughtUp, caughtUpTxId );
+        when( topologyService.lastAppliedTransactionIds() ).thenReturn( lastApplied );
+    }
+
+    private static Map<String,String> bookmark( String bookmark )
+    {
+        return singletonMap( BOOKMARK_KEY, bookmark );
+    }
+}
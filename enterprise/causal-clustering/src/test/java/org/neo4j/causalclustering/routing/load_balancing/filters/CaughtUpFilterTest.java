@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.causalclustering.routing.load_balancing.filters;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.neo4j.causalclustering.identity.MemberId;
+
+import static java.util.Collections.emptySet;
+import static java.util.function.Function.identity;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.helpers.collection.Iterators.asSet;
+
+public class CaughtUpFilterTest
+{
+    private final MemberId lagging = new MemberId( UUID.randomUUID() );
+    private final MemberId atBookmark = new MemberId( UUID.randomUUID() );
+    private final MemberId ahead = new MemberId( UUID.randomUUID() );
+    private final MemberId unreported = new MemberId( UUID.randomUUID() );
+
+    @Test
+    public void shouldPassServersWhichHaveAppliedTheRequiredTransaction()
+    {
+        // given
+        CaughtUpFilter<MemberId> filter = new CaughtUpFilter<>( 10, lastApplied(), identity() );
+
+        // when
+        Set<MemberId> output = filter.apply( asSet( lagging, atBookmark, ahead ) );
+
+        // then
+        assertEquals( asSet( atBookmark, ahead ), output );
+    }
+
+    @Test
+    public void shouldTreatServersWithoutReportedProgressAsLagging()
+    {
+        // given
+        CaughtUpFilter<MemberId> filter = new CaughtUpFilter<>( 1, lastApplied(), identity() );
+
+        // when
+        Set<MemberId> output = filter.apply( asSet( unreported ) );
+
+        // then
+        assertEquals( emptySet(), output );
+    }
+
+    private Map<MemberId,Long> lastApplied()
+    {
+        Map<MemberId,Long> lastApplied = new HashMap<>();
+        lastApplied.put( lagging, 9L );
+        lastApplied.put( atBookmark, 10L );
+        lastApplied.put( ahead, 11L );
+        return lastApplied;
+    }
+}
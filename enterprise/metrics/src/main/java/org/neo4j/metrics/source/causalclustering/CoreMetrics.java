@@ -34,6 +34,7 @@ import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.Monitors;
 
 import static com.codahale.metrics.MetricRegistry.name;
+import static java.lang.Math.max;
 
 @Documented( ".Core metrics" )
 public class CoreMetrics extends LifecycleAdapter
@@ -44,6 +45,10 @@ public class CoreMetrics extends LifecycleAdapter
     public static final String APPEND_INDEX = name( CAUSAL_CLUSTERING_PREFIX, "append_index" );
     @Documented( "Commit index of the RAFT log" )
     public static final String COMMIT_INDEX = name( CAUSAL_CLUSTERING_PREFIX, "commit_index" );
+    @Documented( "Index of the last RAFT log entry applied to the state machines" )
+    public static final String APPLIED_INDEX = name( CAUSAL_CLUSTERING_PREFIX, "applied_index" );
+    @Documented( "Committed RAFT log entries not yet applied to the state machines" )
+    public static final String APPLY_LAG = name( CAUSAL_CLUSTERING_PREFIX, "apply_lag" );
     @Documented( "RAFT Term of this server" )
     public static final String TERM = name( CAUSAL_CLUSTERING_PREFIX, "term" );
     @Documented( "Transaction retries" )
@@ -74,12 +79,16 @@ public class CoreMetrics extends LifecycleAdapter
     public static final String REPLICATION_SUCCESS = name( CAUSAL_CLUSTERING_PREFIX, "replication_success" );
     @Documented( "Raft Replication fail count" )
     public static final String REPLICATION_FAIL = name( CAUSAL_CLUSTERING_PREFIX, "replication_fail" );
+    @Documented( "Log shipping to each follower while leader: entries the follower lags behind (lag), " +
+                 "and entries and bytes shipped (shipped_entries, shipped_bytes), under <prefix>.<follower id>" )
+    public static final String LOG_SHIPPING = name( CAUSAL_CLUSTERING_PREFIX, "log_shipping" );
 
     private Monitors monitors;
     private MetricRegistry registry;
     private Supplier<CoreMetaData> coreMetaData;
 
     private final RaftLogCommitIndexMetric raftLogCommitIndexMetric = new RaftLogCommitIndexMetric();
+    private final RaftLogAppliedIndexMetric raftLogAppliedIndexMetric = new RaftLogAppliedIndexMetric();
     private final RaftLogAppendIndexMetric raftLogAppendIndexMetric = new RaftLogAppendIndexMetric();
     private final RaftTermMetric raftTermMetric = new RaftTermMetric();
     private final TxPullRequestsMetric txPullRequestsMetric = new TxPullRequestsMetric();
@@ -87,18 +96,21 @@ public class CoreMetrics extends LifecycleAdapter
     private final InFlightCacheMetric inFlightCacheMetric = new InFlightCacheMetric();
     private final RaftMessageProcessingMetric raftMessageProcessingMetric = RaftMessageProcessingMetric.create();
     private final ReplicationMetric replicationMetric = new ReplicationMetric();
+    private final LogShippingMetric logShippingMetric;
 
     public CoreMetrics( Monitors monitors, MetricRegistry registry, Supplier<CoreMetaData> coreMetaData )
     {
         this.monitors = monitors;
         this.registry = registry;
         this.coreMetaData = coreMetaData;
+        this.logShippingMetric = new LogShippingMetric( registry, LOG_SHIPPING );
     }
 
     @Override
     public void start()
     {
         monitors.addMonitorListener( raftLogCommitIndexMetric );
+        monitors.addMonitorListener( raftLogAppliedIndexMetric );
         monitors.addMonitorListener( raftLogAppendIndexMetric );
         monitors.addMonitorListener( raftTermMetric );
         monitors.addMonitorListener( txPullRequestsMetric );
@@ -106,8 +118,11 @@ public class CoreMetrics extends LifecycleAdapter
         monitors.addMonitorListener( inFlightCacheMetric );
         monitors.addMonitorListener( raftMessageProcessingMetric );
         monitors.addMonitorListener( replicationMetric );
+        monitors.addMonitorListener( logShippingMetric );
 
         registry.register( COMMIT_INDEX, (Gauge<Long>) raftLogCommitIndexMetric::commitIndex );
+        registry.register( APPLIED_INDEX, (Gauge<Long>) raftLogAppliedIndexMetric::appliedIndex );
+        registry.register( APPLY_LAG, (Gauge<Long>) () -> max( 0, raftLogCommitIndexMetric.commitIndex() - raftLogAppliedIndexMetric.appliedIndex() ) );
         registry.register( APPEND_INDEX, (Gauge<Long>) raftLogAppendIndexMetric::appendIndex );
         registry.register( TERM, (Gauge<Long>) raftTermMetric::term );
         registry.register( TX_RETRIES, (Gauge<Long>) txRetryMetric::transactionsRetries );
@@ -135,6 +150,8 @@ public class CoreMetrics extends LifecycleAdapter
     public void stop()
     {
         registry.remove( COMMIT_INDEX );
+        registry.remove( APPLIED_INDEX );
+        registry.remove( APPLY_LAG );
         registry.remove( APPEND_INDEX );
         registry.remove( TERM );
         registry.remove( TX_RETRIES );
@@ -158,6 +175,7 @@ public class CoreMetrics extends LifecycleAdapter
         }
 
         monitors.removeMonitorListener( raftLogCommitIndexMetric );
+        monitors.removeMonitorListener( raftLogAppliedIndexMetric );
         monitors.removeMonitorListener( raftLogAppendIndexMetric );
         monitors.removeMonitorListener( raftTermMetric );
         monitors.removeMonitorListener( txPullRequestsMetric );
@@ -165,6 +183,8 @@ public class CoreMetrics extends LifecycleAdapter
         monitors.removeMonitorListener( inFlightCacheMetric );
         monitors.removeMonitorListener( raftMessageProcessingMetric );
         monitors.removeMonitorListener( replicationMetric );
+        monitors.removeMonitorListener( logShippingMetric );
+        logShippingMetric.removeAll();
     }
 
     private String messageTimerName( RaftMessages.Type type )
@@ -22,12 +22,15 @@
  */
 package org.neo4j.metrics.source.causalclustering;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.neo4j.causalclustering.core.consensus.log.cache.InFlightCacheMonitor;
 
 public class InFlightCacheMetric implements InFlightCacheMonitor
 {
-    private volatile long misses;
-    private volatile long hits;
+    // lookups into the in-flight cache can happen concurrently
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
     private volatile long totalBytes;
     private volatile long maxBytes;
     private volatile int elementCount;
@@ -36,23 +39,23 @@ public class InFlightCacheMetric implements InFlightCacheMonitor
     @Override
     public void miss()
     {
-        misses++;
+        misses.getAndIncrement();
     }
 
     @Override
     public void hit()
     {
-        hits++;
+        hits.getAndIncrement();
     }
 
     public long getMisses()
     {
-        return misses;
+        return misses.get();
     }
 
     public long getHits()
     {
-        return hits;
+        return hits.get();
     }
 
     public long getMaxBytes()
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.metrics.source.causalclustering;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.causalclustering.core.consensus.shipping.LogShippingMonitor;
+import org.neo4j.causalclustering.identity.MemberId;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Registers the log shipping metrics of every follower while this member is leader, under names that
+ * contain the id of the follower.
+ */
+public class LogShippingMetric implements LogShippingMonitor
+{
+    private final MetricRegistry registry;
+    private final String prefix;
+    private final Map<MemberId,FollowerMetrics> followers = new ConcurrentHashMap<>();
+
+    LogShippingMetric( MetricRegistry registry, String prefix )
+    {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void shipped( MemberId follower, int entryCount, long bytes )
+    {
+        FollowerMetrics metrics = metricsOf( follower );
+        metrics.entries.mark( entryCount );
+        metrics.bytes.mark( bytes );
+    }
+
+    @Override
+    public void lag( MemberId follower, long entryCount )
+    {
+        metricsOf( follower ).lag = entryCount;
+    }
+
+    @Override
+    public void stopped( MemberId follower )
+    {
+        if ( followers.remove( follower ) != null )
+        {
+            registry.removeMatching( ( name, metric ) -> name.startsWith( followerPrefix( follower ) + '.' ) );
+        }
+    }
+
+    void removeAll()
+    {
+        followers.keySet().forEach( this::stopped );
+    }
+
+    private FollowerMetrics metricsOf( MemberId follower )
+    {
+        return followers.computeIfAbsent( follower, this::register );
+    }
+
+    private FollowerMetrics register( MemberId follower )
+    {
+        String followerPrefix = followerPrefix( follower );
+        FollowerMetrics metrics = new FollowerMetrics( registry.meter( name( followerPrefix, "shipped_entries" ) ),
+                registry.meter( name( followerPrefix, "shipped_bytes" ) ) );
+        registry.remove( name( followerPrefix, "lag" ) );
+        registry.register( name( followerPrefix, "lag" ), (Gauge<Long>) () -> metrics.lag );
+        return metrics;
+    }
+
+    private String followerPrefix( MemberId follower )
+    {
+        return name( prefix, follower.getUuid().toString() );
+    }
+
+    private static class FollowerMetrics
+    {
+        private final Meter entries;
+        private final Meter bytes;
+        private volatile long lag;
+
+        FollowerMetrics( Meter entries, Meter bytes )
+        {
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -31,6 +31,9 @@ class PullRequestMetric implements PullRequestMonitor
 {
     private AtomicLong lastRequestedTxId = new AtomicLong( 0 );
     private AtomicLong lastReceivedTxId = new AtomicLong( 0 );
+    private AtomicLong upstreamTxId = new AtomicLong( 0 );
+    private AtomicLong lastAppliedTxId = new AtomicLong( 0 );
+    private AtomicLong lastAppliedTimeCommitted = new AtomicLong( 0 );
     private LongAdder events = new LongAdder(  );
 
     @Override
@@ -46,6 +49,19 @@ class PullRequestMetric implements PullRequestMonitor
         lastReceivedTxId.set( txId );
     }
 
+    @Override
+    public void upstreamTxId( long txId )
+    {
+        upstreamTxId.set( txId );
+    }
+
+    @Override
+    public void txApplied( long txId, long timeCommitted )
+    {
+        lastAppliedTimeCommitted.set( timeCommitted );
+        lastAppliedTxId.set( txId );
+    }
+
     @Override
     public long lastRequestedTxId()
     {
@@ -63,4 +79,31 @@ class PullRequestMetric implements PullRequestMonitor
     {
         return lastReceivedTxId.get();
     }
+
+    /**
+     * @return how many transactions known to exist upstream have not been applied yet.
+     */
+    long txLag()
+    {
+        long lastAppliedTxId = this.lastAppliedTxId.get();
+        if ( lastAppliedTxId == 0 )
+        {
+            return 0;
+        }
+        return Math.max( 0, Math.max( upstreamTxId.get(), lastReceivedTxId.get() ) - lastAppliedTxId );
+    }
+
+    /**
+     * @return how long ago the last applied transaction was committed upstream, if there are transactions after it yet to
+     * be applied, and zero when up to date.
+     */
+    long txLagMillis()
+    {
+        long timeCommitted = lastAppliedTimeCommitted.get();
+        if ( txLag() == 0 || timeCommitted == 0 )
+        {
+            return 0;
+        }
+        return Math.max( 0, System.currentTimeMillis() - timeCommitted );
+    }
 }
@@ -46,6 +46,11 @@ public class ReadReplicaMetrics extends LifecycleAdapter
     @Documented( "The highest transaction id that has been pulled in the last pull updates by this instance" )
     public static final String PULL_UPDATE_HIGHEST_TX_ID_RECEIVED = name( CAUSAL_CLUSTERING_PREFIX,
             "pull_update_highest_tx_id_received" );
+    @Documented( "The number of transactions this instance has yet to apply of those known to be committed upstream" )
+    public static final String PULL_UPDATE_LAG_TX_COUNT = name( CAUSAL_CLUSTERING_PREFIX, "pull_update_lag_tx_count" );
+    @Documented( "The time in milliseconds since the last transaction applied by this instance was committed upstream, " +
+            "while there are further transactions to apply" )
+    public static final String PULL_UPDATE_LAG_MILLIS = name( CAUSAL_CLUSTERING_PREFIX, "pull_update_lag_millis" );
 
     private Monitors monitors;
     private MetricRegistry registry;
@@ -66,6 +71,8 @@ public class ReadReplicaMetrics extends LifecycleAdapter
         registry.register( PULL_UPDATES, (Gauge<Long>) pullRequestMetric::numberOfRequests );
         registry.register( PULL_UPDATE_HIGHEST_TX_ID_REQUESTED, (Gauge<Long>) pullRequestMetric::lastRequestedTxId );
         registry.register( PULL_UPDATE_HIGHEST_TX_ID_RECEIVED, (Gauge<Long>) pullRequestMetric::lastReceivedTxId );
+        registry.register( PULL_UPDATE_LAG_TX_COUNT, (Gauge<Long>) pullRequestMetric::txLag );
+        registry.register( PULL_UPDATE_LAG_MILLIS, (Gauge<Long>) pullRequestMetric::txLagMillis );
     }
 
     @Override
@@ -74,6 +81,8 @@ public class ReadReplicaMetrics extends LifecycleAdapter
         registry.remove( PULL_UPDATES );
         registry.remove( PULL_UPDATE_HIGHEST_TX_ID_REQUESTED );
         registry.remove( PULL_UPDATE_HIGHEST_TX_ID_RECEIVED );
+        registry.remove( PULL_UPDATE_LAG_TX_COUNT );
+        registry.remove( PULL_UPDATE_LAG_MILLIS );
 
         monitors.removeMonitorListener( pullRequestMetric );
     }
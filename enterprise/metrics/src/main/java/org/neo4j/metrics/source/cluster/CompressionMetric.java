@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.metrics.source.cluster;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.causalclustering.protocol.compression.CompressionMonitor;
+
+class CompressionMetric implements CompressionMonitor
+{
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    @Override
+    public void compressed( long uncompressedBytes, long compressedBytes, long elapsedNanos )
+    {
+        this.uncompressedBytes.add( uncompressedBytes );
+        this.compressedBytes.add( compressedBytes );
+        compressionNanos.add( elapsedNanos );
+    }
+
+    @Override
+    public void decompressed( long compressedBytes, long uncompressedBytes, long elapsedNanos )
+    {
+        this.uncompressedBytes.add( uncompressedBytes );
+        this.compressedBytes.add( compressedBytes );
+        decompressionNanos.add( elapsedNanos );
+    }
+
+    double compressionRatio()
+    {
+        long uncompressed = uncompressedBytes.sum();
+        return uncompressed == 0 ? 1.0 : (double) compressedBytes.sum() / uncompressed;
+    }
+
+    long bytesSaved()
+    {
+        return uncompressedBytes.sum() - compressedBytes.sum();
+    }
+
+    long compressionTimeMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis( compressionNanos.sum() );
+    }
+
+    long decompressionTimeMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis( decompressionNanos.sum() );
+    }
+}
@@ -25,6 +25,7 @@ package org.neo4j.metrics.source.cluster;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 
+import org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocolCategory;
 import org.neo4j.com.storecopy.ToNetworkStoreWriter;
 import org.neo4j.kernel.ha.MasterClient320;
 import org.neo4j.kernel.ha.com.master.MasterServer;
@@ -49,11 +50,30 @@ public class NetworkMetrics extends LifecycleAdapter
                  "to the slaves in order to propagate committed transactions" )
     public static final String MASTER_NETWORK_TX_WRITES = name( NAME_PREFIX, "master_network_tx_writes" );
 
+    @Documented( "The ratio of compressed to uncompressed bytes sent and received with the adaptive compression modifier on the raft protocol" )
+    public static final String RAFT_COMPRESSION_RATIO = name( NAME_PREFIX, "raft", "compression_ratio" );
+    @Documented( "The number of bytes saved by the adaptive compression modifier on the raft protocol" )
+    public static final String RAFT_COMPRESSION_BYTES_SAVED = name( NAME_PREFIX, "raft", "compression_bytes_saved" );
+    @Documented( "The accumulated time in milliseconds spent compressing on the raft protocol" )
+    public static final String RAFT_COMPRESSION_TIME = name( NAME_PREFIX, "raft", "compression_time" );
+    @Documented( "The accumulated time in milliseconds spent decompressing on the raft protocol" )
+    public static final String RAFT_DECOMPRESSION_TIME = name( NAME_PREFIX, "raft", "decompression_time" );
+    @Documented( "The ratio of compressed to uncompressed bytes sent and received with the adaptive compression modifier on the catchup protocol" )
+    public static final String CATCHUP_COMPRESSION_RATIO = name( NAME_PREFIX, "catchup", "compression_ratio" );
+    @Documented( "The number of bytes saved by the adaptive compression modifier on the catchup protocol" )
+    public static final String CATCHUP_COMPRESSION_BYTES_SAVED = name( NAME_PREFIX, "catchup", "compression_bytes_saved" );
+    @Documented( "The accumulated time in milliseconds spent compressing on the catchup protocol" )
+    public static final String CATCHUP_COMPRESSION_TIME = name( NAME_PREFIX, "catchup", "compression_time" );
+    @Documented( "The accumulated time in milliseconds spent decompressing on the catchup protocol" )
+    public static final String CATCHUP_DECOMPRESSION_TIME = name( NAME_PREFIX, "catchup", "decompression_time" );
+
     private final MetricRegistry registry;
     private final Monitors monitors;
     private final ByteCountsMetric masterNetworkTransactionWrites = new ByteCountsMetric();
     private final ByteCountsMetric masterNetworkStoreWrites = new ByteCountsMetric();
     private final ByteCountsMetric slaveNetworkTransactionWrites = new ByteCountsMetric();
+    private final CompressionMetric raftCompression = new CompressionMetric();
+    private final CompressionMetric catchupCompression = new CompressionMetric();
 
     public NetworkMetrics( MetricRegistry registry, Monitors monitors )
     {
@@ -68,10 +88,21 @@ public class NetworkMetrics extends LifecycleAdapter
         monitors.addMonitorListener( masterNetworkStoreWrites, ToNetworkStoreWriter.class.getName(),
                 ToNetworkStoreWriter.STORE_COPIER_MONITOR_TAG );
         monitors.addMonitorListener( slaveNetworkTransactionWrites, MasterClient320.class.getName() );
+        monitors.addMonitorListener( raftCompression, ApplicationProtocolCategory.RAFT.canonicalName() );
+        monitors.addMonitorListener( catchupCompression, ApplicationProtocolCategory.CATCHUP.canonicalName() );
 
         registry.register( MASTER_NETWORK_TX_WRITES, (Gauge<Long>) masterNetworkTransactionWrites::getBytesWritten );
         registry.register( MASTER_NETWORK_STORE_WRITES, (Gauge<Long>) masterNetworkStoreWrites::getBytesWritten );
         registry.register( SLAVE_NETWORK_TX_WRITES, (Gauge<Long>) slaveNetworkTransactionWrites::getBytesWritten );
+
+        registry.register( RAFT_COMPRESSION_RATIO, (Gauge<Double>) raftCompression::compressionRatio );
+        registry.register( RAFT_COMPRESSION_BYTES_SAVED, (Gauge<Long>) raftCompression::bytesSaved );
+        registry.register( RAFT_COMPRESSION_TIME, (Gauge<Long>) raftCompression::compressionTimeMillis );
+        registry.register( RAFT_DECOMPRESSION_TIME, (Gauge<Long>) raftCompression::decompressionTimeMillis );
+        registry.register( CATCHUP_COMPRESSION_RATIO, (Gauge<Double>) catchupCompression::compressionRatio );
+        registry.register( CATCHUP_COMPRESSION_BYTES_SAVED, (Gauge<Long>) catchupCompression::bytesSaved );
+        registry.register( CATCHUP_COMPRESSION_TIME, (Gauge<Long>) catchupCompression::compressionTimeMillis );
+        registry.register( CATCHUP_DECOMPRESSION_TIME, (Gauge<Long>) catchupCompression::decompressionTimeMillis );
     }
 
     @Override
@@ -80,9 +111,19 @@ public class NetworkMetrics extends LifecycleAdapter
         registry.remove( MASTER_NETWORK_TX_WRITES );
         registry.remove( MASTER_NETWORK_STORE_WRITES );
         registry.remove( SLAVE_NETWORK_TX_WRITES );
+        registry.remove( RAFT_COMPRESSION_RATIO );
+        registry.remove( RAFT_COMPRESSION_BYTES_SAVED );
+        registry.remove( RAFT_COMPRESSION_TIME );
+        registry.remove( RAFT_DECOMPRESSION_TIME );
+        registry.remove( CATCHUP_COMPRESSION_RATIO );
+        registry.remove( CATCHUP_COMPRESSION_BYTES_SAVED );
+        registry.remove( CATCHUP_COMPRESSION_TIME );
+        registry.remove( CATCHUP_DECOMPRESSION_TIME );
 
         monitors.removeMonitorListener( masterNetworkTransactionWrites );
         monitors.removeMonitorListener( masterNetworkStoreWrites );
         monitors.removeMonitorListener( slaveNetworkTransactionWrites );
+        monitors.removeMonitorListener( raftCompression );
+        monitors.removeMonitorListener( catchupCompression );
     }
 }
@@ -72,6 +72,10 @@ public class BoltMetrics extends LifecycleAdapter
     @Documented( "The total number of messages that failed processing since this instance started." )
     public static final String MESSAGES_FAILED = name( NAME_PREFIX, "messages_failed" );
 
+    @Documented( "The total number of times requests were failed with a transient error instead of being processed, " +
+                 "because they waited for a worker thread longer than the configured maximum queue time." )
+    public static final String REQUESTS_SHED = name( NAME_PREFIX, "requests_shed" );
+
     @Documented( "The accumulated time messages have spent waiting for a worker thread." )
     public static final String TOTAL_QUEUE_TIME = name( NAME_PREFIX, "accumulated_queue_time" );
 
@@ -101,6 +105,7 @@ public class BoltMetrics extends LifecycleAdapter
         registry.register( MESSAGES_STARTED, (Gauge<Long>) boltMonitor.messagesStarted::get );
         registry.register( MESSAGES_DONE, (Gauge<Long>) boltMonitor.messagesDone::get );
         registry.register( MESSAGES_FAILED, (Gauge<Long>) boltMonitor.messagesFailed::get );
+        registry.register( REQUESTS_SHED, (Gauge<Long>) boltMonitor.requestsShed::get );
         registry.register( TOTAL_QUEUE_TIME, (Gauge<Long>) boltMonitor.queueTime::get );
         registry.register( TOTAL_PROCESSING_TIME, (Gauge<Long>) boltMonitor.processingTime::get );
     }
@@ -117,6 +122,7 @@ public class BoltMetrics extends LifecycleAdapter
         registry.remove( MESSAGES_STARTED );
         registry.remove( MESSAGES_DONE );
         registry.remove( MESSAGES_FAILED );
+        registry.remove( REQUESTS_SHED );
         registry.remove( TOTAL_QUEUE_TIME );
         registry.remove( TOTAL_PROCESSING_TIME );
         monitors.removeMonitorListener( boltMonitor );
@@ -134,6 +140,7 @@ public class BoltMetrics extends LifecycleAdapter
         final AtomicLong messagesStarted = new AtomicLong();
         final AtomicLong messagesDone = new AtomicLong();
         final AtomicLong messagesFailed = new AtomicLong();
+        final AtomicLong requestsShed = new AtomicLong();
 
         // It will take about 300 million years of queue/processing time to overflow these
         // Even if we run a million processors concurrently, the instance would need to
@@ -188,6 +195,12 @@ public class BoltMetrics extends LifecycleAdapter
             messagesFailed.incrementAndGet();
         }
 
+        @Override
+        public void requestsShed()
+        {
+            requestsShed.incrementAndGet();
+        }
+
         @Override
         public void connectionClosed()
         {
@@ -280,6 +280,12 @@ public class BoltFailuresIT
 
         }
 
+        @Override
+        public void requestsShed()
+        {
+
+        }
+
         @Override
         public void connectionClosed()
         {